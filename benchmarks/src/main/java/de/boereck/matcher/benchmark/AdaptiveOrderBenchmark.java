@@ -0,0 +1,88 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.lazy.LazyMatcher;
+import de.boereck.matcher.lazy.LazyResultCaseMatcher;
+import de.boereck.matcher.lazy.MatchingFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a lazy result matcher with 20 mutually exclusive cases on skewed inputs: 90% of the inputs are matched by
+ * the 14th case, the remaining inputs are distributed evenly over all cases. With parameter {@code disjoint} set, the
+ * cases are declared mutually exclusive, so the matcher tests the most frequently matching case first.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AdaptiveOrderBenchmark {
+
+    private static final int CASE_COUNT = 20;
+
+    private static final int FREQUENT_CASE = 13;
+
+    /**
+     * If {@code true}, the cases are declared to be mutually exclusive
+     */
+    @Param({"false", "true"})
+    public boolean disjoint;
+
+    private Object[] inputs;
+
+    private int index;
+
+    private MatchingFunction<Object, Integer> matcher;
+
+    @Setup
+    public void setUp() {
+        LazyResultCaseMatcher<Object, Integer> m = LazyMatcher.lazyResultMatch();
+        for (int i = 0; i < CASE_COUNT; i++) {
+            final String key = "key" + i;
+            final Integer result = i;
+            m = m.caseOf(key::equals, x -> result);
+        }
+        if (disjoint) {
+            m = m.disjoint();
+        }
+        matcher = m.otherwise(-1);
+        final Random random = new Random(42L);
+        inputs = new Object[Inputs.SIZE];
+        for (int i = 0; i < inputs.length; i++) {
+            // new String instances, so equals has to compare the characters
+            final int key = random.nextInt(10) == 0 ? random.nextInt(CASE_COUNT) : FREQUENT_CASE;
+            inputs[i] = new String("key" + key);
+        }
+    }
+
+    private Object next() {
+        return inputs[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Lazy matcher closed with {@code otherwise}.
+     */
+    @Benchmark
+    public Integer otherwise() {
+        return matcher.apply(next());
+    }
+}
@@ -0,0 +1,106 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.function.predicate.AdvIntPredicate;
+import de.boereck.matcher.helpers.IntMatchHelpers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures testing {@link Inputs#SIZE} random int values against a range predicate created by
+ * {@link IntMatchHelpers#inClosedRange(int, int)}, which matches about half of the values. The {@code loop} benchmarks
+ * call {@code test} for every value, the other benchmarks use the bulk methods of the predicate. Scores are reported
+ * per value.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkPredicateBenchmark {
+
+    private final AdvIntPredicate range = IntMatchHelpers.inClosedRange(-1000, 1000);
+
+    private int[] values;
+
+    private long[] bitmask;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42L);
+        values = new int[Inputs.SIZE];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(4000) - 2000;
+        }
+        bitmask = new long[Inputs.SIZE / 64];
+    }
+
+    /**
+     * Calls {@code test} per value, collecting the results in a bit mask.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public long[] testAllLoop() {
+        final long[] bitmask = this.bitmask;
+        for (int i = 0; i < values.length; i++) {
+            if (range.test(values[i])) {
+                bitmask[i >>> 6] |= 1L << i;
+            } else {
+                bitmask[i >>> 6] &= ~(1L << i);
+            }
+        }
+        return bitmask;
+    }
+
+    /**
+     * Bulk test collecting the results in a bit mask.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public long[] testAll() {
+        range.testAll(values, bitmask);
+        return bitmask;
+    }
+
+    /**
+     * Calls {@code test} per value, counting the matches.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public int countMatchesLoop() {
+        int count = 0;
+        for (int value : values) {
+            if (range.test(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Bulk count of the matches.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public int countMatches() {
+        return range.countMatches(values);
+    }
+}
@@ -0,0 +1,110 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.function.optionalmap.OptionalMapper;
+import de.boereck.matcher.function.predicate.AdvPredicate;
+import de.boereck.matcher.helpers.CharSequenceMatchHelpers;
+import de.boereck.matcher.helpers.StringMatchHelpers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.CharBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures checking and splitting lines held in a {@link CharBuffer}, as decoded from an NIO byte buffer. The helpers of
+ * {@link CharSequenceMatchHelpers} work on the buffer directly; for comparison, the helpers of
+ * {@link StringMatchHelpers} are applied to a {@code String} copied from the buffer.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CharSequenceHelpersBenchmark {
+
+    private CharBuffer[] lines;
+
+    private AdvPredicate<CharSequence> sequenceStartsWith;
+
+    private AdvPredicate<String> stringStartsWith;
+
+    private OptionalMapper<CharSequence, CharSequence[]> sequenceSplit;
+
+    private OptionalMapper<String, String[]> stringSplit;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        sequenceStartsWith = CharSequenceMatchHelpers.startsWith("2024-");
+        stringStartsWith = StringMatchHelpers.startsWith("2024-");
+        sequenceSplit = CharSequenceMatchHelpers.split(",");
+        stringSplit = StringMatchHelpers.split(",");
+        // all lines are views on one buffer, like lines decoded from a file
+        final StringBuilder content = new StringBuilder();
+        final int[] starts = new int[Inputs.SIZE + 1];
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            starts[i] = content.length();
+            content.append(i % 4 == 0 ? "2023-" : "2024-").append(i % 28 + 1).append(",INFO,worker-").append(i % 16)
+                    .append(",request ").append(i).append(" done");
+        }
+        starts[Inputs.SIZE] = content.length();
+        final CharBuffer buffer = CharBuffer.wrap(content.toString().toCharArray());
+        lines = new CharBuffer[Inputs.SIZE];
+        for (int i = 0; i < lines.length; i++) {
+            buffer.limit(starts[i + 1]).position(starts[i]);
+            lines[i] = buffer.slice();
+        }
+    }
+
+    private CharBuffer nextLine() {
+        return lines[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Prefix check on the buffer.
+     */
+    @Benchmark
+    public boolean startsWithSequence() {
+        return sequenceStartsWith.test(nextLine());
+    }
+
+    /**
+     * Prefix check on a string copied from the buffer.
+     */
+    @Benchmark
+    public boolean startsWithString() {
+        return stringStartsWith.test(nextLine().toString());
+    }
+
+    /**
+     * Split into views on the buffer.
+     */
+    @Benchmark
+    public CharSequence[] splitSequence() {
+        return sequenceSplit.probe(nextLine());
+    }
+
+    /**
+     * Split of a string copied from the buffer.
+     */
+    @Benchmark
+    public String[] splitString() {
+        return stringSplit.probe(nextLine().toString());
+    }
+}
@@ -0,0 +1,120 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.function.predicate.AdvIntPredicate;
+import de.boereck.matcher.function.predicate.AdvLongPredicate;
+import de.boereck.matcher.helpers.IntMatchHelpers;
+import de.boereck.matcher.helpers.LongMatchHelpers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link IntMatchHelpers#dividableBy(int)}, {@link IntMatchHelpers#dividableBy(java.util.function.IntSupplier)}
+ * and {@link LongMatchHelpers#dividableBy(long)}, compared to predicates computing the remainder on every test. The
+ * divisor is read from a field by the remainder predicates, so the JIT compiler cannot replace the remainder by a
+ * multiplication itself, as it would for a constant divisor.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DivisibilityBenchmark {
+
+    /**
+     * Divisor of the predicates
+     */
+    @Param({"3", "8", "1000"})
+    public int divisor;
+
+    private int[] ints;
+
+    private long[] longs;
+
+    private int index;
+
+    private AdvIntPredicate intDividable;
+
+    private AdvIntPredicate intSupplied;
+
+    private AdvIntPredicate intRemainder;
+
+    private AdvLongPredicate longDividable;
+
+    private AdvLongPredicate longRemainder;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42L);
+        ints = new int[Inputs.SIZE];
+        longs = new long[Inputs.SIZE];
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            ints[i] = random.nextInt();
+            longs[i] = random.nextLong();
+        }
+        final int d = divisor;
+        intDividable = IntMatchHelpers.dividableBy(d);
+        intSupplied = IntMatchHelpers.dividableBy(() -> divisor);
+        intRemainder = i -> i % divisor == 0;
+        longDividable = LongMatchHelpers.dividableBy(d);
+        longRemainder = l -> l % divisor == 0;
+    }
+
+    /**
+     * Int divisibility prepared when the predicate is created.
+     */
+    @Benchmark
+    public boolean intDividable() {
+        return intDividable.test(ints[index++ & Inputs.MASK]);
+    }
+
+    /**
+     * Int divisibility with the divisor provided by a supplier.
+     */
+    @Benchmark
+    public boolean intSupplied() {
+        return intSupplied.test(ints[index++ & Inputs.MASK]);
+    }
+
+    /**
+     * Int remainder computed on every test.
+     */
+    @Benchmark
+    public boolean intRemainder() {
+        return intRemainder.test(ints[index++ & Inputs.MASK]);
+    }
+
+    /**
+     * Long divisibility prepared when the predicate is created.
+     */
+    @Benchmark
+    public boolean longDividable() {
+        return longDividable.test(longs[index++ & Inputs.MASK]);
+    }
+
+    /**
+     * Long remainder computed on every test.
+     */
+    @Benchmark
+    public boolean longRemainder() {
+        return longRemainder.test(longs[index++ & Inputs.MASK]);
+    }
+}
@@ -0,0 +1,987 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.eager.EagerMatcher;
+import de.boereck.matcher.function.predicate.AdvDoublePredicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static de.boereck.matcher.helpers.DoubleMatchHelpers.lt;
+
+/**
+ * Compares the eager double matchers of {@link EagerMatcher} with hand-written code sorting double values into buckets.
+ * <p>
+ * Each benchmark runs a chain of {@link #caseCount} cases. The inputs are spread evenly over all cases plus one input
+ * not matched by any case, so every position in the chain (and the no-match path) is hit. The hand-written variants
+ * select the cascade of the configured length by a switch on {@link #caseCount}; this switch is constant during a
+ * trial and therefore perfectly predicted.
+ * </p>
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EagerDoubleMatcherBenchmark {
+
+    /**
+     * Amount of cases in the benchmarked chain
+     */
+    @Param({"1", "4", "16", "64"})
+    public int caseCount;
+
+    /**
+     * Written by the actions of the no-result matchers and the hand-written code. Lambdas writing a static field
+     * do not capture anything and are therefore not allocated per evaluation.
+     */
+    private static int sink;
+
+    private double[] inputs;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        inputs = Inputs.doubles(caseCount);
+    }
+
+    private double next() {
+        return inputs[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Upper bounds of the double buckets. Predicates are cached in static fields, as advised by {@link EagerMatcher}.
+     */
+    private static final AdvDoublePredicate[] LT = new AdvDoublePredicate[64];
+
+    static {
+        for (int i = 0; i < LT.length; i++) {
+            LT[i] = lt(i + 1);
+        }
+    }
+
+    /**
+     * Eager result matcher, returning the result of the matching case.
+     */
+    @Benchmark
+    public Integer resultMatch() {
+        final double d = next();
+        switch (caseCount) {
+            case 1:
+                return resultMatch1(d);
+            case 4:
+                return resultMatch4(d);
+            case 16:
+                return resultMatch16(d);
+            case 64:
+                return resultMatch64(d);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Eager result matcher recording the result in place, returning the result of the matching case without allocating.
+     */
+    @Benchmark
+    public Integer resultMatchInPlace() {
+        final double d = next();
+        switch (caseCount) {
+            case 1:
+                return resultMatchInPlace1(d);
+            case 4:
+                return resultMatchInPlace4(d);
+            case 16:
+                return resultMatchInPlace16(d);
+            case 64:
+                return resultMatchInPlace64(d);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Eager no-result matcher, performing the action of the matching case.
+     */
+    @Benchmark
+    public int match() {
+        final double d = next();
+        switch (caseCount) {
+            case 1:
+                return match1(d);
+            case 4:
+                return match4(d);
+            case 16:
+                return match16(d);
+            case 64:
+                return match64(d);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Hand-written if/else cascade, the baseline for both matchers.
+     */
+    @Benchmark
+    public int ifElse() {
+        final double d = next();
+        switch (caseCount) {
+            case 1:
+                return ifElse1(d);
+            case 4:
+                return ifElse4(d);
+            case 16:
+                return ifElse16(d);
+            case 64:
+                return ifElse64(d);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Hand-written switch statement, the baseline for both matchers.
+     */
+    @Benchmark
+    public int switchCase() {
+        final double d = next();
+        switch (caseCount) {
+            case 1:
+                return switchCase1(d);
+            case 4:
+                return switchCase4(d);
+            case 16:
+                return switchCase16(d);
+            case 64:
+                return switchCase64(d);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    private static Integer resultMatch1(double d) {
+        return EagerMatcher.<Integer>resultMatch(d)
+                .caseOf(LT[0], x -> 0)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatch4(double d) {
+        return EagerMatcher.<Integer>resultMatch(d)
+                .caseOf(LT[0], x -> 0)
+                .caseOf(LT[1], x -> 1)
+                .caseOf(LT[2], x -> 2)
+                .caseOf(LT[3], x -> 3)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatch16(double d) {
+        return EagerMatcher.<Integer>resultMatch(d)
+                .caseOf(LT[0], x -> 0)
+                .caseOf(LT[1], x -> 1)
+                .caseOf(LT[2], x -> 2)
+                .caseOf(LT[3], x -> 3)
+                .caseOf(LT[4], x -> 4)
+                .caseOf(LT[5], x -> 5)
+                .caseOf(LT[6], x -> 6)
+                .caseOf(LT[7], x -> 7)
+                .caseOf(LT[8], x -> 8)
+                .caseOf(LT[9], x -> 9)
+                .caseOf(LT[10], x -> 10)
+                .caseOf(LT[11], x -> 11)
+                .caseOf(LT[12], x -> 12)
+                .caseOf(LT[13], x -> 13)
+                .caseOf(LT[14], x -> 14)
+                .caseOf(LT[15], x -> 15)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatch64(double d) {
+        return EagerMatcher.<Integer>resultMatch(d)
+                .caseOf(LT[0], x -> 0)
+                .caseOf(LT[1], x -> 1)
+                .caseOf(LT[2], x -> 2)
+                .caseOf(LT[3], x -> 3)
+                .caseOf(LT[4], x -> 4)
+                .caseOf(LT[5], x -> 5)
+                .caseOf(LT[6], x -> 6)
+                .caseOf(LT[7], x -> 7)
+                .caseOf(LT[8], x -> 8)
+                .caseOf(LT[9], x -> 9)
+                .caseOf(LT[10], x -> 10)
+                .caseOf(LT[11], x -> 11)
+                .caseOf(LT[12], x -> 12)
+                .caseOf(LT[13], x -> 13)
+                .caseOf(LT[14], x -> 14)
+                .caseOf(LT[15], x -> 15)
+                .caseOf(LT[16], x -> 16)
+                .caseOf(LT[17], x -> 17)
+                .caseOf(LT[18], x -> 18)
+                .caseOf(LT[19], x -> 19)
+                .caseOf(LT[20], x -> 20)
+                .caseOf(LT[21], x -> 21)
+                .caseOf(LT[22], x -> 22)
+                .caseOf(LT[23], x -> 23)
+                .caseOf(LT[24], x -> 24)
+                .caseOf(LT[25], x -> 25)
+                .caseOf(LT[26], x -> 26)
+                .caseOf(LT[27], x -> 27)
+                .caseOf(LT[28], x -> 28)
+                .caseOf(LT[29], x -> 29)
+                .caseOf(LT[30], x -> 30)
+                .caseOf(LT[31], x -> 31)
+                .caseOf(LT[32], x -> 32)
+                .caseOf(LT[33], x -> 33)
+                .caseOf(LT[34], x -> 34)
+                .caseOf(LT[35], x -> 35)
+                .caseOf(LT[36], x -> 36)
+                .caseOf(LT[37], x -> 37)
+                .caseOf(LT[38], x -> 38)
+                .caseOf(LT[39], x -> 39)
+                .caseOf(LT[40], x -> 40)
+                .caseOf(LT[41], x -> 41)
+                .caseOf(LT[42], x -> 42)
+                .caseOf(LT[43], x -> 43)
+                .caseOf(LT[44], x -> 44)
+                .caseOf(LT[45], x -> 45)
+                .caseOf(LT[46], x -> 46)
+                .caseOf(LT[47], x -> 47)
+                .caseOf(LT[48], x -> 48)
+                .caseOf(LT[49], x -> 49)
+                .caseOf(LT[50], x -> 50)
+                .caseOf(LT[51], x -> 51)
+                .caseOf(LT[52], x -> 52)
+                .caseOf(LT[53], x -> 53)
+                .caseOf(LT[54], x -> 54)
+                .caseOf(LT[55], x -> 55)
+                .caseOf(LT[56], x -> 56)
+                .caseOf(LT[57], x -> 57)
+                .caseOf(LT[58], x -> 58)
+                .caseOf(LT[59], x -> 59)
+                .caseOf(LT[60], x -> 60)
+                .caseOf(LT[61], x -> 61)
+                .caseOf(LT[62], x -> 62)
+                .caseOf(LT[63], x -> 63)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatchInPlace1(double d) {
+        return EagerMatcher.<Integer>resultMatchInPlace(d)
+                .caseOf(LT[0], x -> 0)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatchInPlace4(double d) {
+        return EagerMatcher.<Integer>resultMatchInPlace(d)
+                .caseOf(LT[0], x -> 0)
+                .caseOf(LT[1], x -> 1)
+                .caseOf(LT[2], x -> 2)
+                .caseOf(LT[3], x -> 3)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatchInPlace16(double d) {
+        return EagerMatcher.<Integer>resultMatchInPlace(d)
+                .caseOf(LT[0], x -> 0)
+                .caseOf(LT[1], x -> 1)
+                .caseOf(LT[2], x -> 2)
+                .caseOf(LT[3], x -> 3)
+                .caseOf(LT[4], x -> 4)
+                .caseOf(LT[5], x -> 5)
+                .caseOf(LT[6], x -> 6)
+                .caseOf(LT[7], x -> 7)
+                .caseOf(LT[8], x -> 8)
+                .caseOf(LT[9], x -> 9)
+                .caseOf(LT[10], x -> 10)
+                .caseOf(LT[11], x -> 11)
+                .caseOf(LT[12], x -> 12)
+                .caseOf(LT[13], x -> 13)
+                .caseOf(LT[14], x -> 14)
+                .caseOf(LT[15], x -> 15)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatchInPlace64(double d) {
+        return EagerMatcher.<Integer>resultMatchInPlace(d)
+                .caseOf(LT[0], x -> 0)
+                .caseOf(LT[1], x -> 1)
+                .caseOf(LT[2], x -> 2)
+                .caseOf(LT[3], x -> 3)
+                .caseOf(LT[4], x -> 4)
+                .caseOf(LT[5], x -> 5)
+                .caseOf(LT[6], x -> 6)
+                .caseOf(LT[7], x -> 7)
+                .caseOf(LT[8], x -> 8)
+                .caseOf(LT[9], x -> 9)
+                .caseOf(LT[10], x -> 10)
+                .caseOf(LT[11], x -> 11)
+                .caseOf(LT[12], x -> 12)
+                .caseOf(LT[13], x -> 13)
+                .caseOf(LT[14], x -> 14)
+                .caseOf(LT[15], x -> 15)
+                .caseOf(LT[16], x -> 16)
+                .caseOf(LT[17], x -> 17)
+                .caseOf(LT[18], x -> 18)
+                .caseOf(LT[19], x -> 19)
+                .caseOf(LT[20], x -> 20)
+                .caseOf(LT[21], x -> 21)
+                .caseOf(LT[22], x -> 22)
+                .caseOf(LT[23], x -> 23)
+                .caseOf(LT[24], x -> 24)
+                .caseOf(LT[25], x -> 25)
+                .caseOf(LT[26], x -> 26)
+                .caseOf(LT[27], x -> 27)
+                .caseOf(LT[28], x -> 28)
+                .caseOf(LT[29], x -> 29)
+                .caseOf(LT[30], x -> 30)
+                .caseOf(LT[31], x -> 31)
+                .caseOf(LT[32], x -> 32)
+                .caseOf(LT[33], x -> 33)
+                .caseOf(LT[34], x -> 34)
+                .caseOf(LT[35], x -> 35)
+                .caseOf(LT[36], x -> 36)
+                .caseOf(LT[37], x -> 37)
+                .caseOf(LT[38], x -> 38)
+                .caseOf(LT[39], x -> 39)
+                .caseOf(LT[40], x -> 40)
+                .caseOf(LT[41], x -> 41)
+                .caseOf(LT[42], x -> 42)
+                .caseOf(LT[43], x -> 43)
+                .caseOf(LT[44], x -> 44)
+                .caseOf(LT[45], x -> 45)
+                .caseOf(LT[46], x -> 46)
+                .caseOf(LT[47], x -> 47)
+                .caseOf(LT[48], x -> 48)
+                .caseOf(LT[49], x -> 49)
+                .caseOf(LT[50], x -> 50)
+                .caseOf(LT[51], x -> 51)
+                .caseOf(LT[52], x -> 52)
+                .caseOf(LT[53], x -> 53)
+                .caseOf(LT[54], x -> 54)
+                .caseOf(LT[55], x -> 55)
+                .caseOf(LT[56], x -> 56)
+                .caseOf(LT[57], x -> 57)
+                .caseOf(LT[58], x -> 58)
+                .caseOf(LT[59], x -> 59)
+                .caseOf(LT[60], x -> 60)
+                .caseOf(LT[61], x -> 61)
+                .caseOf(LT[62], x -> 62)
+                .caseOf(LT[63], x -> 63)
+                .otherwise(-1);
+    }
+
+    private static int match1(double d) {
+        EagerMatcher.match(d)
+                .caseOf(LT[0], x -> sink = 0)
+                .otherwise(x -> sink = -1);
+        return sink;
+    }
+
+    private static int match4(double d) {
+        EagerMatcher.match(d)
+                .caseOf(LT[0], x -> sink = 0)
+                .caseOf(LT[1], x -> sink = 1)
+                .caseOf(LT[2], x -> sink = 2)
+                .caseOf(LT[3], x -> sink = 3)
+                .otherwise(x -> sink = -1);
+        return sink;
+    }
+
+    private static int match16(double d) {
+        EagerMatcher.match(d)
+                .caseOf(LT[0], x -> sink = 0)
+                .caseOf(LT[1], x -> sink = 1)
+                .caseOf(LT[2], x -> sink = 2)
+                .caseOf(LT[3], x -> sink = 3)
+                .caseOf(LT[4], x -> sink = 4)
+                .caseOf(LT[5], x -> sink = 5)
+                .caseOf(LT[6], x -> sink = 6)
+                .caseOf(LT[7], x -> sink = 7)
+                .caseOf(LT[8], x -> sink = 8)
+                .caseOf(LT[9], x -> sink = 9)
+                .caseOf(LT[10], x -> sink = 10)
+                .caseOf(LT[11], x -> sink = 11)
+                .caseOf(LT[12], x -> sink = 12)
+                .caseOf(LT[13], x -> sink = 13)
+                .caseOf(LT[14], x -> sink = 14)
+                .caseOf(LT[15], x -> sink = 15)
+                .otherwise(x -> sink = -1);
+        return sink;
+    }
+
+    private static int match64(double d) {
+        EagerMatcher.match(d)
+                .caseOf(LT[0], x -> sink = 0)
+                .caseOf(LT[1], x -> sink = 1)
+                .caseOf(LT[2], x -> sink = 2)
+                .caseOf(LT[3], x -> sink = 3)
+                .caseOf(LT[4], x -> sink = 4)
+                .caseOf(LT[5], x -> sink = 5)
+                .caseOf(LT[6], x -> sink = 6)
+                .caseOf(LT[7], x -> sink = 7)
+                .caseOf(LT[8], x -> sink = 8)
+                .caseOf(LT[9], x -> sink = 9)
+                .caseOf(LT[10], x -> sink = 10)
+                .caseOf(LT[11], x -> sink = 11)
+                .caseOf(LT[12], x -> sink = 12)
+                .caseOf(LT[13], x -> sink = 13)
+                .caseOf(LT[14], x -> sink = 14)
+                .caseOf(LT[15], x -> sink = 15)
+                .caseOf(LT[16], x -> sink = 16)
+                .caseOf(LT[17], x -> sink = 17)
+                .caseOf(LT[18], x -> sink = 18)
+                .caseOf(LT[19], x -> sink = 19)
+                .caseOf(LT[20], x -> sink = 20)
+                .caseOf(LT[21], x -> sink = 21)
+                .caseOf(LT[22], x -> sink = 22)
+                .caseOf(LT[23], x -> sink = 23)
+                .caseOf(LT[24], x -> sink = 24)
+                .caseOf(LT[25], x -> sink = 25)
+                .caseOf(LT[26], x -> sink = 26)
+                .caseOf(LT[27], x -> sink = 27)
+                .caseOf(LT[28], x -> sink = 28)
+                .caseOf(LT[29], x -> sink = 29)
+                .caseOf(LT[30], x -> sink = 30)
+                .caseOf(LT[31], x -> sink = 31)
+                .caseOf(LT[32], x -> sink = 32)
+                .caseOf(LT[33], x -> sink = 33)
+                .caseOf(LT[34], x -> sink = 34)
+                .caseOf(LT[35], x -> sink = 35)
+                .caseOf(LT[36], x -> sink = 36)
+                .caseOf(LT[37], x -> sink = 37)
+                .caseOf(LT[38], x -> sink = 38)
+                .caseOf(LT[39], x -> sink = 39)
+                .caseOf(LT[40], x -> sink = 40)
+                .caseOf(LT[41], x -> sink = 41)
+                .caseOf(LT[42], x -> sink = 42)
+                .caseOf(LT[43], x -> sink = 43)
+                .caseOf(LT[44], x -> sink = 44)
+                .caseOf(LT[45], x -> sink = 45)
+                .caseOf(LT[46], x -> sink = 46)
+                .caseOf(LT[47], x -> sink = 47)
+                .caseOf(LT[48], x -> sink = 48)
+                .caseOf(LT[49], x -> sink = 49)
+                .caseOf(LT[50], x -> sink = 50)
+                .caseOf(LT[51], x -> sink = 51)
+                .caseOf(LT[52], x -> sink = 52)
+                .caseOf(LT[53], x -> sink = 53)
+                .caseOf(LT[54], x -> sink = 54)
+                .caseOf(LT[55], x -> sink = 55)
+                .caseOf(LT[56], x -> sink = 56)
+                .caseOf(LT[57], x -> sink = 57)
+                .caseOf(LT[58], x -> sink = 58)
+                .caseOf(LT[59], x -> sink = 59)
+                .caseOf(LT[60], x -> sink = 60)
+                .caseOf(LT[61], x -> sink = 61)
+                .caseOf(LT[62], x -> sink = 62)
+                .caseOf(LT[63], x -> sink = 63)
+                .otherwise(x -> sink = -1);
+        return sink;
+    }
+
+    private static int ifElse1(double d) {
+        if (d < 1.0) {
+            sink = 0;
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int ifElse4(double d) {
+        if (d < 1.0) {
+            sink = 0;
+        } else if (d < 2.0) {
+            sink = 1;
+        } else if (d < 3.0) {
+            sink = 2;
+        } else if (d < 4.0) {
+            sink = 3;
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int ifElse16(double d) {
+        if (d < 1.0) {
+            sink = 0;
+        } else if (d < 2.0) {
+            sink = 1;
+        } else if (d < 3.0) {
+            sink = 2;
+        } else if (d < 4.0) {
+            sink = 3;
+        } else if (d < 5.0) {
+            sink = 4;
+        } else if (d < 6.0) {
+            sink = 5;
+        } else if (d < 7.0) {
+            sink = 6;
+        } else if (d < 8.0) {
+            sink = 7;
+        } else if (d < 9.0) {
+            sink = 8;
+        } else if (d < 10.0) {
+            sink = 9;
+        } else if (d < 11.0) {
+            sink = 10;
+        } else if (d < 12.0) {
+            sink = 11;
+        } else if (d < 13.0) {
+            sink = 12;
+        } else if (d < 14.0) {
+            sink = 13;
+        } else if (d < 15.0) {
+            sink = 14;
+        } else if (d < 16.0) {
+            sink = 15;
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int ifElse64(double d) {
+        if (d < 1.0) {
+            sink = 0;
+        } else if (d < 2.0) {
+            sink = 1;
+        } else if (d < 3.0) {
+            sink = 2;
+        } else if (d < 4.0) {
+            sink = 3;
+        } else if (d < 5.0) {
+            sink = 4;
+        } else if (d < 6.0) {
+            sink = 5;
+        } else if (d < 7.0) {
+            sink = 6;
+        } else if (d < 8.0) {
+            sink = 7;
+        } else if (d < 9.0) {
+            sink = 8;
+        } else if (d < 10.0) {
+            sink = 9;
+        } else if (d < 11.0) {
+            sink = 10;
+        } else if (d < 12.0) {
+            sink = 11;
+        } else if (d < 13.0) {
+            sink = 12;
+        } else if (d < 14.0) {
+            sink = 13;
+        } else if (d < 15.0) {
+            sink = 14;
+        } else if (d < 16.0) {
+            sink = 15;
+        } else if (d < 17.0) {
+            sink = 16;
+        } else if (d < 18.0) {
+            sink = 17;
+        } else if (d < 19.0) {
+            sink = 18;
+        } else if (d < 20.0) {
+            sink = 19;
+        } else if (d < 21.0) {
+            sink = 20;
+        } else if (d < 22.0) {
+            sink = 21;
+        } else if (d < 23.0) {
+            sink = 22;
+        } else if (d < 24.0) {
+            sink = 23;
+        } else if (d < 25.0) {
+            sink = 24;
+        } else if (d < 26.0) {
+            sink = 25;
+        } else if (d < 27.0) {
+            sink = 26;
+        } else if (d < 28.0) {
+            sink = 27;
+        } else if (d < 29.0) {
+            sink = 28;
+        } else if (d < 30.0) {
+            sink = 29;
+        } else if (d < 31.0) {
+            sink = 30;
+        } else if (d < 32.0) {
+            sink = 31;
+        } else if (d < 33.0) {
+            sink = 32;
+        } else if (d < 34.0) {
+            sink = 33;
+        } else if (d < 35.0) {
+            sink = 34;
+        } else if (d < 36.0) {
+            sink = 35;
+        } else if (d < 37.0) {
+            sink = 36;
+        } else if (d < 38.0) {
+            sink = 37;
+        } else if (d < 39.0) {
+            sink = 38;
+        } else if (d < 40.0) {
+            sink = 39;
+        } else if (d < 41.0) {
+            sink = 40;
+        } else if (d < 42.0) {
+            sink = 41;
+        } else if (d < 43.0) {
+            sink = 42;
+        } else if (d < 44.0) {
+            sink = 43;
+        } else if (d < 45.0) {
+            sink = 44;
+        } else if (d < 46.0) {
+            sink = 45;
+        } else if (d < 47.0) {
+            sink = 46;
+        } else if (d < 48.0) {
+            sink = 47;
+        } else if (d < 49.0) {
+            sink = 48;
+        } else if (d < 50.0) {
+            sink = 49;
+        } else if (d < 51.0) {
+            sink = 50;
+        } else if (d < 52.0) {
+            sink = 51;
+        } else if (d < 53.0) {
+            sink = 52;
+        } else if (d < 54.0) {
+            sink = 53;
+        } else if (d < 55.0) {
+            sink = 54;
+        } else if (d < 56.0) {
+            sink = 55;
+        } else if (d < 57.0) {
+            sink = 56;
+        } else if (d < 58.0) {
+            sink = 57;
+        } else if (d < 59.0) {
+            sink = 58;
+        } else if (d < 60.0) {
+            sink = 59;
+        } else if (d < 61.0) {
+            sink = 60;
+        } else if (d < 62.0) {
+            sink = 61;
+        } else if (d < 63.0) {
+            sink = 62;
+        } else if (d < 64.0) {
+            sink = 63;
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int switchCase1(double d) {
+        // Java does not allow switch on double, hand-written code switches on the truncated value
+        switch (d < 0.0 ? -1 : (int) d) {
+            case 0:
+                sink = 0;
+                break;
+            default:
+                sink = -1;
+        }
+        return sink;
+    }
+
+    private static int switchCase4(double d) {
+        // Java does not allow switch on double, hand-written code switches on the truncated value
+        switch (d < 0.0 ? -1 : (int) d) {
+            case 0:
+                sink = 0;
+                break;
+            case 1:
+                sink = 1;
+                break;
+            case 2:
+                sink = 2;
+                break;
+            case 3:
+                sink = 3;
+                break;
+            default:
+                sink = -1;
+        }
+        return sink;
+    }
+
+    private static int switchCase16(double d) {
+        // Java does not allow switch on double, hand-written code switches on the truncated value
+        switch (d < 0.0 ? -1 : (int) d) {
+            case 0:
+                sink = 0;
+                break;
+            case 1:
+                sink = 1;
+                break;
+            case 2:
+                sink = 2;
+                break;
+            case 3:
+                sink = 3;
+                break;
+            case 4:
+                sink = 4;
+                break;
+            case 5:
+                sink = 5;
+                break;
+            case 6:
+                sink = 6;
+                break;
+            case 7:
+                sink = 7;
+                break;
+            case 8:
+                sink = 8;
+                break;
+            case 9:
+                sink = 9;
+                break;
+            case 10:
+                sink = 10;
+                break;
+            case 11:
+                sink = 11;
+                break;
+            case 12:
+                sink = 12;
+                break;
+            case 13:
+                sink = 13;
+                break;
+            case 14:
+                sink = 14;
+                break;
+            case 15:
+                sink = 15;
+                break;
+            default:
+                sink = -1;
+        }
+        return sink;
+    }
+
+    private static int switchCase64(double d) {
+        // Java does not allow switch on double, hand-written code switches on the truncated value
+        switch (d < 0.0 ? -1 : (int) d) {
+            case 0:
+                sink = 0;
+                break;
+            case 1:
+                sink = 1;
+                break;
+            case 2:
+                sink = 2;
+                break;
+            case 3:
+                sink = 3;
+                break;
+            case 4:
+                sink = 4;
+                break;
+            case 5:
+                sink = 5;
+                break;
+            case 6:
+                sink = 6;
+                break;
+            case 7:
+                sink = 7;
+                break;
+            case 8:
+                sink = 8;
+                break;
+            case 9:
+                sink = 9;
+                break;
+            case 10:
+                sink = 10;
+                break;
+            case 11:
+                sink = 11;
+                break;
+            case 12:
+                sink = 12;
+                break;
+            case 13:
+                sink = 13;
+                break;
+            case 14:
+                sink = 14;
+                break;
+            case 15:
+                sink = 15;
+                break;
+            case 16:
+                sink = 16;
+                break;
+            case 17:
+                sink = 17;
+                break;
+            case 18:
+                sink = 18;
+                break;
+            case 19:
+                sink = 19;
+                break;
+            case 20:
+                sink = 20;
+                break;
+            case 21:
+                sink = 21;
+                break;
+            case 22:
+                sink = 22;
+                break;
+            case 23:
+                sink = 23;
+                break;
+            case 24:
+                sink = 24;
+                break;
+            case 25:
+                sink = 25;
+                break;
+            case 26:
+                sink = 26;
+                break;
+            case 27:
+                sink = 27;
+                break;
+            case 28:
+                sink = 28;
+                break;
+            case 29:
+                sink = 29;
+                break;
+            case 30:
+                sink = 30;
+                break;
+            case 31:
+                sink = 31;
+                break;
+            case 32:
+                sink = 32;
+                break;
+            case 33:
+                sink = 33;
+                break;
+            case 34:
+                sink = 34;
+                break;
+            case 35:
+                sink = 35;
+                break;
+            case 36:
+                sink = 36;
+                break;
+            case 37:
+                sink = 37;
+                break;
+            case 38:
+                sink = 38;
+                break;
+            case 39:
+                sink = 39;
+                break;
+            case 40:
+                sink = 40;
+                break;
+            case 41:
+                sink = 41;
+                break;
+            case 42:
+                sink = 42;
+                break;
+            case 43:
+                sink = 43;
+                break;
+            case 44:
+                sink = 44;
+                break;
+            case 45:
+                sink = 45;
+                break;
+            case 46:
+                sink = 46;
+                break;
+            case 47:
+                sink = 47;
+                break;
+            case 48:
+                sink = 48;
+                break;
+            case 49:
+                sink = 49;
+                break;
+            case 50:
+                sink = 50;
+                break;
+            case 51:
+                sink = 51;
+                break;
+            case 52:
+                sink = 52;
+                break;
+            case 53:
+                sink = 53;
+                break;
+            case 54:
+                sink = 54;
+                break;
+            case 55:
+                sink = 55;
+                break;
+            case 56:
+                sink = 56;
+                break;
+            case 57:
+                sink = 57;
+                break;
+            case 58:
+                sink = 58;
+                break;
+            case 59:
+                sink = 59;
+                break;
+            case 60:
+                sink = 60;
+                break;
+            case 61:
+                sink = 61;
+                break;
+            case 62:
+                sink = 62;
+                break;
+            case 63:
+                sink = 63;
+                break;
+            default:
+                sink = -1;
+        }
+        return sink;
+    }
+}
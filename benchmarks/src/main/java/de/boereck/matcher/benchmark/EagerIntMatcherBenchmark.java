@@ -0,0 +1,969 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.eager.EagerMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the eager int matchers of {@link EagerMatcher} with hand-written code matching int constants.
+ * <p>
+ * Each benchmark runs a chain of {@link #caseCount} cases. The inputs are spread evenly over all cases plus one input
+ * not matched by any case, so every position in the chain (and the no-match path) is hit. The hand-written variants
+ * select the cascade of the configured length by a switch on {@link #caseCount}; this switch is constant during a
+ * trial and therefore perfectly predicted.
+ * </p>
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EagerIntMatcherBenchmark {
+
+    /**
+     * Amount of cases in the benchmarked chain
+     */
+    @Param({"1", "4", "16", "64"})
+    public int caseCount;
+
+    /**
+     * Written by the actions of the no-result matchers and the hand-written code. Lambdas writing a static field
+     * do not capture anything and are therefore not allocated per evaluation.
+     */
+    private static int sink;
+
+    private int[] inputs;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        inputs = Inputs.ints(caseCount);
+    }
+
+    private int next() {
+        return inputs[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Eager result matcher, returning the result of the matching case.
+     */
+    @Benchmark
+    public Integer resultMatch() {
+        final int i = next();
+        switch (caseCount) {
+            case 1:
+                return resultMatch1(i);
+            case 4:
+                return resultMatch4(i);
+            case 16:
+                return resultMatch16(i);
+            case 64:
+                return resultMatch64(i);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Eager result matcher recording the result in place, returning the result of the matching case without allocating.
+     */
+    @Benchmark
+    public Integer resultMatchInPlace() {
+        final int i = next();
+        switch (caseCount) {
+            case 1:
+                return resultMatchInPlace1(i);
+            case 4:
+                return resultMatchInPlace4(i);
+            case 16:
+                return resultMatchInPlace16(i);
+            case 64:
+                return resultMatchInPlace64(i);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Eager no-result matcher, performing the action of the matching case.
+     */
+    @Benchmark
+    public int match() {
+        final int i = next();
+        switch (caseCount) {
+            case 1:
+                return match1(i);
+            case 4:
+                return match4(i);
+            case 16:
+                return match16(i);
+            case 64:
+                return match64(i);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Hand-written if/else cascade, the baseline for both matchers.
+     */
+    @Benchmark
+    public int ifElse() {
+        final int i = next();
+        switch (caseCount) {
+            case 1:
+                return ifElse1(i);
+            case 4:
+                return ifElse4(i);
+            case 16:
+                return ifElse16(i);
+            case 64:
+                return ifElse64(i);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Hand-written switch statement, the baseline for both matchers.
+     */
+    @Benchmark
+    public int switchCase() {
+        final int i = next();
+        switch (caseCount) {
+            case 1:
+                return switchCase1(i);
+            case 4:
+                return switchCase4(i);
+            case 16:
+                return switchCase16(i);
+            case 64:
+                return switchCase64(i);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    private static Integer resultMatch1(int i) {
+        return EagerMatcher.<Integer>resultMatch(i)
+                .caseOf(0, x -> 0)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatch4(int i) {
+        return EagerMatcher.<Integer>resultMatch(i)
+                .caseOf(0, x -> 0)
+                .caseOf(1, x -> 1)
+                .caseOf(2, x -> 2)
+                .caseOf(3, x -> 3)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatch16(int i) {
+        return EagerMatcher.<Integer>resultMatch(i)
+                .caseOf(0, x -> 0)
+                .caseOf(1, x -> 1)
+                .caseOf(2, x -> 2)
+                .caseOf(3, x -> 3)
+                .caseOf(4, x -> 4)
+                .caseOf(5, x -> 5)
+                .caseOf(6, x -> 6)
+                .caseOf(7, x -> 7)
+                .caseOf(8, x -> 8)
+                .caseOf(9, x -> 9)
+                .caseOf(10, x -> 10)
+                .caseOf(11, x -> 11)
+                .caseOf(12, x -> 12)
+                .caseOf(13, x -> 13)
+                .caseOf(14, x -> 14)
+                .caseOf(15, x -> 15)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatch64(int i) {
+        return EagerMatcher.<Integer>resultMatch(i)
+                .caseOf(0, x -> 0)
+                .caseOf(1, x -> 1)
+                .caseOf(2, x -> 2)
+                .caseOf(3, x -> 3)
+                .caseOf(4, x -> 4)
+                .caseOf(5, x -> 5)
+                .caseOf(6, x -> 6)
+                .caseOf(7, x -> 7)
+                .caseOf(8, x -> 8)
+                .caseOf(9, x -> 9)
+                .caseOf(10, x -> 10)
+                .caseOf(11, x -> 11)
+                .caseOf(12, x -> 12)
+                .caseOf(13, x -> 13)
+                .caseOf(14, x -> 14)
+                .caseOf(15, x -> 15)
+                .caseOf(16, x -> 16)
+                .caseOf(17, x -> 17)
+                .caseOf(18, x -> 18)
+                .caseOf(19, x -> 19)
+                .caseOf(20, x -> 20)
+                .caseOf(21, x -> 21)
+                .caseOf(22, x -> 22)
+                .caseOf(23, x -> 23)
+                .caseOf(24, x -> 24)
+                .caseOf(25, x -> 25)
+                .caseOf(26, x -> 26)
+                .caseOf(27, x -> 27)
+                .caseOf(28, x -> 28)
+                .caseOf(29, x -> 29)
+                .caseOf(30, x -> 30)
+                .caseOf(31, x -> 31)
+                .caseOf(32, x -> 32)
+                .caseOf(33, x -> 33)
+                .caseOf(34, x -> 34)
+                .caseOf(35, x -> 35)
+                .caseOf(36, x -> 36)
+                .caseOf(37, x -> 37)
+                .caseOf(38, x -> 38)
+                .caseOf(39, x -> 39)
+                .caseOf(40, x -> 40)
+                .caseOf(41, x -> 41)
+                .caseOf(42, x -> 42)
+                .caseOf(43, x -> 43)
+                .caseOf(44, x -> 44)
+                .caseOf(45, x -> 45)
+                .caseOf(46, x -> 46)
+                .caseOf(47, x -> 47)
+                .caseOf(48, x -> 48)
+                .caseOf(49, x -> 49)
+                .caseOf(50, x -> 50)
+                .caseOf(51, x -> 51)
+                .caseOf(52, x -> 52)
+                .caseOf(53, x -> 53)
+                .caseOf(54, x -> 54)
+                .caseOf(55, x -> 55)
+                .caseOf(56, x -> 56)
+                .caseOf(57, x -> 57)
+                .caseOf(58, x -> 58)
+                .caseOf(59, x -> 59)
+                .caseOf(60, x -> 60)
+                .caseOf(61, x -> 61)
+                .caseOf(62, x -> 62)
+                .caseOf(63, x -> 63)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatchInPlace1(int i) {
+        return EagerMatcher.<Integer>resultMatchInPlace(i)
+                .caseOf(0, x -> 0)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatchInPlace4(int i) {
+        return EagerMatcher.<Integer>resultMatchInPlace(i)
+                .caseOf(0, x -> 0)
+                .caseOf(1, x -> 1)
+                .caseOf(2, x -> 2)
+                .caseOf(3, x -> 3)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatchInPlace16(int i) {
+        return EagerMatcher.<Integer>resultMatchInPlace(i)
+                .caseOf(0, x -> 0)
+                .caseOf(1, x -> 1)
+                .caseOf(2, x -> 2)
+                .caseOf(3, x -> 3)
+                .caseOf(4, x -> 4)
+                .caseOf(5, x -> 5)
+                .caseOf(6, x -> 6)
+                .caseOf(7, x -> 7)
+                .caseOf(8, x -> 8)
+                .caseOf(9, x -> 9)
+                .caseOf(10, x -> 10)
+                .caseOf(11, x -> 11)
+                .caseOf(12, x -> 12)
+                .caseOf(13, x -> 13)
+                .caseOf(14, x -> 14)
+                .caseOf(15, x -> 15)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatchInPlace64(int i) {
+        return EagerMatcher.<Integer>resultMatchInPlace(i)
+                .caseOf(0, x -> 0)
+                .caseOf(1, x -> 1)
+                .caseOf(2, x -> 2)
+                .caseOf(3, x -> 3)
+                .caseOf(4, x -> 4)
+                .caseOf(5, x -> 5)
+                .caseOf(6, x -> 6)
+                .caseOf(7, x -> 7)
+                .caseOf(8, x -> 8)
+                .caseOf(9, x -> 9)
+                .caseOf(10, x -> 10)
+                .caseOf(11, x -> 11)
+                .caseOf(12, x -> 12)
+                .caseOf(13, x -> 13)
+                .caseOf(14, x -> 14)
+                .caseOf(15, x -> 15)
+                .caseOf(16, x -> 16)
+                .caseOf(17, x -> 17)
+                .caseOf(18, x -> 18)
+                .caseOf(19, x -> 19)
+                .caseOf(20, x -> 20)
+                .caseOf(21, x -> 21)
+                .caseOf(22, x -> 22)
+                .caseOf(23, x -> 23)
+                .caseOf(24, x -> 24)
+                .caseOf(25, x -> 25)
+                .caseOf(26, x -> 26)
+                .caseOf(27, x -> 27)
+                .caseOf(28, x -> 28)
+                .caseOf(29, x -> 29)
+                .caseOf(30, x -> 30)
+                .caseOf(31, x -> 31)
+                .caseOf(32, x -> 32)
+                .caseOf(33, x -> 33)
+                .caseOf(34, x -> 34)
+                .caseOf(35, x -> 35)
+                .caseOf(36, x -> 36)
+                .caseOf(37, x -> 37)
+                .caseOf(38, x -> 38)
+                .caseOf(39, x -> 39)
+                .caseOf(40, x -> 40)
+                .caseOf(41, x -> 41)
+                .caseOf(42, x -> 42)
+                .caseOf(43, x -> 43)
+                .caseOf(44, x -> 44)
+                .caseOf(45, x -> 45)
+                .caseOf(46, x -> 46)
+                .caseOf(47, x -> 47)
+                .caseOf(48, x -> 48)
+                .caseOf(49, x -> 49)
+                .caseOf(50, x -> 50)
+                .caseOf(51, x -> 51)
+                .caseOf(52, x -> 52)
+                .caseOf(53, x -> 53)
+                .caseOf(54, x -> 54)
+                .caseOf(55, x -> 55)
+                .caseOf(56, x -> 56)
+                .caseOf(57, x -> 57)
+                .caseOf(58, x -> 58)
+                .caseOf(59, x -> 59)
+                .caseOf(60, x -> 60)
+                .caseOf(61, x -> 61)
+                .caseOf(62, x -> 62)
+                .caseOf(63, x -> 63)
+                .otherwise(-1);
+    }
+
+    private static int match1(int i) {
+        EagerMatcher.match(i)
+                .caseOf(0, x -> sink = 0)
+                .otherwise(x -> sink = -1);
+        return sink;
+    }
+
+    private static int match4(int i) {
+        EagerMatcher.match(i)
+                .caseOf(0, x -> sink = 0)
+                .caseOf(1, x -> sink = 1)
+                .caseOf(2, x -> sink = 2)
+                .caseOf(3, x -> sink = 3)
+                .otherwise(x -> sink = -1);
+        return sink;
+    }
+
+    private static int match16(int i) {
+        EagerMatcher.match(i)
+                .caseOf(0, x -> sink = 0)
+                .caseOf(1, x -> sink = 1)
+                .caseOf(2, x -> sink = 2)
+                .caseOf(3, x -> sink = 3)
+                .caseOf(4, x -> sink = 4)
+                .caseOf(5, x -> sink = 5)
+                .caseOf(6, x -> sink = 6)
+                .caseOf(7, x -> sink = 7)
+                .caseOf(8, x -> sink = 8)
+                .caseOf(9, x -> sink = 9)
+                .caseOf(10, x -> sink = 10)
+                .caseOf(11, x -> sink = 11)
+                .caseOf(12, x -> sink = 12)
+                .caseOf(13, x -> sink = 13)
+                .caseOf(14, x -> sink = 14)
+                .caseOf(15, x -> sink = 15)
+                .otherwise(x -> sink = -1);
+        return sink;
+    }
+
+    private static int match64(int i) {
+        EagerMatcher.match(i)
+                .caseOf(0, x -> sink = 0)
+                .caseOf(1, x -> sink = 1)
+                .caseOf(2, x -> sink = 2)
+                .caseOf(3, x -> sink = 3)
+                .caseOf(4, x -> sink = 4)
+                .caseOf(5, x -> sink = 5)
+                .caseOf(6, x -> sink = 6)
+                .caseOf(7, x -> sink = 7)
+                .caseOf(8, x -> sink = 8)
+                .caseOf(9, x -> sink = 9)
+                .caseOf(10, x -> sink = 10)
+                .caseOf(11, x -> sink = 11)
+                .caseOf(12, x -> sink = 12)
+                .caseOf(13, x -> sink = 13)
+                .caseOf(14, x -> sink = 14)
+                .caseOf(15, x -> sink = 15)
+                .caseOf(16, x -> sink = 16)
+                .caseOf(17, x -> sink = 17)
+                .caseOf(18, x -> sink = 18)
+                .caseOf(19, x -> sink = 19)
+                .caseOf(20, x -> sink = 20)
+                .caseOf(21, x -> sink = 21)
+                .caseOf(22, x -> sink = 22)
+                .caseOf(23, x -> sink = 23)
+                .caseOf(24, x -> sink = 24)
+                .caseOf(25, x -> sink = 25)
+                .caseOf(26, x -> sink = 26)
+                .caseOf(27, x -> sink = 27)
+                .caseOf(28, x -> sink = 28)
+                .caseOf(29, x -> sink = 29)
+                .caseOf(30, x -> sink = 30)
+                .caseOf(31, x -> sink = 31)
+                .caseOf(32, x -> sink = 32)
+                .caseOf(33, x -> sink = 33)
+                .caseOf(34, x -> sink = 34)
+                .caseOf(35, x -> sink = 35)
+                .caseOf(36, x -> sink = 36)
+                .caseOf(37, x -> sink = 37)
+                .caseOf(38, x -> sink = 38)
+                .caseOf(39, x -> sink = 39)
+                .caseOf(40, x -> sink = 40)
+                .caseOf(41, x -> sink = 41)
+                .caseOf(42, x -> sink = 42)
+                .caseOf(43, x -> sink = 43)
+                .caseOf(44, x -> sink = 44)
+                .caseOf(45, x -> sink = 45)
+                .caseOf(46, x -> sink = 46)
+                .caseOf(47, x -> sink = 47)
+                .caseOf(48, x -> sink = 48)
+                .caseOf(49, x -> sink = 49)
+                .caseOf(50, x -> sink = 50)
+                .caseOf(51, x -> sink = 51)
+                .caseOf(52, x -> sink = 52)
+                .caseOf(53, x -> sink = 53)
+                .caseOf(54, x -> sink = 54)
+                .caseOf(55, x -> sink = 55)
+                .caseOf(56, x -> sink = 56)
+                .caseOf(57, x -> sink = 57)
+                .caseOf(58, x -> sink = 58)
+                .caseOf(59, x -> sink = 59)
+                .caseOf(60, x -> sink = 60)
+                .caseOf(61, x -> sink = 61)
+                .caseOf(62, x -> sink = 62)
+                .caseOf(63, x -> sink = 63)
+                .otherwise(x -> sink = -1);
+        return sink;
+    }
+
+    private static int ifElse1(int i) {
+        if (i == 0) {
+            sink = 0;
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int ifElse4(int i) {
+        if (i == 0) {
+            sink = 0;
+        } else if (i == 1) {
+            sink = 1;
+        } else if (i == 2) {
+            sink = 2;
+        } else if (i == 3) {
+            sink = 3;
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int ifElse16(int i) {
+        if (i == 0) {
+            sink = 0;
+        } else if (i == 1) {
+            sink = 1;
+        } else if (i == 2) {
+            sink = 2;
+        } else if (i == 3) {
+            sink = 3;
+        } else if (i == 4) {
+            sink = 4;
+        } else if (i == 5) {
+            sink = 5;
+        } else if (i == 6) {
+            sink = 6;
+        } else if (i == 7) {
+            sink = 7;
+        } else if (i == 8) {
+            sink = 8;
+        } else if (i == 9) {
+            sink = 9;
+        } else if (i == 10) {
+            sink = 10;
+        } else if (i == 11) {
+            sink = 11;
+        } else if (i == 12) {
+            sink = 12;
+        } else if (i == 13) {
+            sink = 13;
+        } else if (i == 14) {
+            sink = 14;
+        } else if (i == 15) {
+            sink = 15;
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int ifElse64(int i) {
+        if (i == 0) {
+            sink = 0;
+        } else if (i == 1) {
+            sink = 1;
+        } else if (i == 2) {
+            sink = 2;
+        } else if (i == 3) {
+            sink = 3;
+        } else if (i == 4) {
+            sink = 4;
+        } else if (i == 5) {
+            sink = 5;
+        } else if (i == 6) {
+            sink = 6;
+        } else if (i == 7) {
+            sink = 7;
+        } else if (i == 8) {
+            sink = 8;
+        } else if (i == 9) {
+            sink = 9;
+        } else if (i == 10) {
+            sink = 10;
+        } else if (i == 11) {
+            sink = 11;
+        } else if (i == 12) {
+            sink = 12;
+        } else if (i == 13) {
+            sink = 13;
+        } else if (i == 14) {
+            sink = 14;
+        } else if (i == 15) {
+            sink = 15;
+        } else if (i == 16) {
+            sink = 16;
+        } else if (i == 17) {
+            sink = 17;
+        } else if (i == 18) {
+            sink = 18;
+        } else if (i == 19) {
+            sink = 19;
+        } else if (i == 20) {
+            sink = 20;
+        } else if (i == 21) {
+            sink = 21;
+        } else if (i == 22) {
+            sink = 22;
+        } else if (i == 23) {
+            sink = 23;
+        } else if (i == 24) {
+            sink = 24;
+        } else if (i == 25) {
+            sink = 25;
+        } else if (i == 26) {
+            sink = 26;
+        } else if (i == 27) {
+            sink = 27;
+        } else if (i == 28) {
+            sink = 28;
+        } else if (i == 29) {
+            sink = 29;
+        } else if (i == 30) {
+            sink = 30;
+        } else if (i == 31) {
+            sink = 31;
+        } else if (i == 32) {
+            sink = 32;
+        } else if (i == 33) {
+            sink = 33;
+        } else if (i == 34) {
+            sink = 34;
+        } else if (i == 35) {
+            sink = 35;
+        } else if (i == 36) {
+            sink = 36;
+        } else if (i == 37) {
+            sink = 37;
+        } else if (i == 38) {
+            sink = 38;
+        } else if (i == 39) {
+            sink = 39;
+        } else if (i == 40) {
+            sink = 40;
+        } else if (i == 41) {
+            sink = 41;
+        } else if (i == 42) {
+            sink = 42;
+        } else if (i == 43) {
+            sink = 43;
+        } else if (i == 44) {
+            sink = 44;
+        } else if (i == 45) {
+            sink = 45;
+        } else if (i == 46) {
+            sink = 46;
+        } else if (i == 47) {
+            sink = 47;
+        } else if (i == 48) {
+            sink = 48;
+        } else if (i == 49) {
+            sink = 49;
+        } else if (i == 50) {
+            sink = 50;
+        } else if (i == 51) {
+            sink = 51;
+        } else if (i == 52) {
+            sink = 52;
+        } else if (i == 53) {
+            sink = 53;
+        } else if (i == 54) {
+            sink = 54;
+        } else if (i == 55) {
+            sink = 55;
+        } else if (i == 56) {
+            sink = 56;
+        } else if (i == 57) {
+            sink = 57;
+        } else if (i == 58) {
+            sink = 58;
+        } else if (i == 59) {
+            sink = 59;
+        } else if (i == 60) {
+            sink = 60;
+        } else if (i == 61) {
+            sink = 61;
+        } else if (i == 62) {
+            sink = 62;
+        } else if (i == 63) {
+            sink = 63;
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int switchCase1(int i) {
+        switch (i) {
+            case 0:
+                sink = 0;
+                break;
+            default:
+                sink = -1;
+        }
+        return sink;
+    }
+
+    private static int switchCase4(int i) {
+        switch (i) {
+            case 0:
+                sink = 0;
+                break;
+            case 1:
+                sink = 1;
+                break;
+            case 2:
+                sink = 2;
+                break;
+            case 3:
+                sink = 3;
+                break;
+            default:
+                sink = -1;
+        }
+        return sink;
+    }
+
+    private static int switchCase16(int i) {
+        switch (i) {
+            case 0:
+                sink = 0;
+                break;
+            case 1:
+                sink = 1;
+                break;
+            case 2:
+                sink = 2;
+                break;
+            case 3:
+                sink = 3;
+                break;
+            case 4:
+                sink = 4;
+                break;
+            case 5:
+                sink = 5;
+                break;
+            case 6:
+                sink = 6;
+                break;
+            case 7:
+                sink = 7;
+                break;
+            case 8:
+                sink = 8;
+                break;
+            case 9:
+                sink = 9;
+                break;
+            case 10:
+                sink = 10;
+                break;
+            case 11:
+                sink = 11;
+                break;
+            case 12:
+                sink = 12;
+                break;
+            case 13:
+                sink = 13;
+                break;
+            case 14:
+                sink = 14;
+                break;
+            case 15:
+                sink = 15;
+                break;
+            default:
+                sink = -1;
+        }
+        return sink;
+    }
+
+    private static int switchCase64(int i) {
+        switch (i) {
+            case 0:
+                sink = 0;
+                break;
+            case 1:
+                sink = 1;
+                break;
+            case 2:
+                sink = 2;
+                break;
+            case 3:
+                sink = 3;
+                break;
+            case 4:
+                sink = 4;
+                break;
+            case 5:
+                sink = 5;
+                break;
+            case 6:
+                sink = 6;
+                break;
+            case 7:
+                sink = 7;
+                break;
+            case 8:
+                sink = 8;
+                break;
+            case 9:
+                sink = 9;
+                break;
+            case 10:
+                sink = 10;
+                break;
+            case 11:
+                sink = 11;
+                break;
+            case 12:
+                sink = 12;
+                break;
+            case 13:
+                sink = 13;
+                break;
+            case 14:
+                sink = 14;
+                break;
+            case 15:
+                sink = 15;
+                break;
+            case 16:
+                sink = 16;
+                break;
+            case 17:
+                sink = 17;
+                break;
+            case 18:
+                sink = 18;
+                break;
+            case 19:
+                sink = 19;
+                break;
+            case 20:
+                sink = 20;
+                break;
+            case 21:
+                sink = 21;
+                break;
+            case 22:
+                sink = 22;
+                break;
+            case 23:
+                sink = 23;
+                break;
+            case 24:
+                sink = 24;
+                break;
+            case 25:
+                sink = 25;
+                break;
+            case 26:
+                sink = 26;
+                break;
+            case 27:
+                sink = 27;
+                break;
+            case 28:
+                sink = 28;
+                break;
+            case 29:
+                sink = 29;
+                break;
+            case 30:
+                sink = 30;
+                break;
+            case 31:
+                sink = 31;
+                break;
+            case 32:
+                sink = 32;
+                break;
+            case 33:
+                sink = 33;
+                break;
+            case 34:
+                sink = 34;
+                break;
+            case 35:
+                sink = 35;
+                break;
+            case 36:
+                sink = 36;
+                break;
+            case 37:
+                sink = 37;
+                break;
+            case 38:
+                sink = 38;
+                break;
+            case 39:
+                sink = 39;
+                break;
+            case 40:
+                sink = 40;
+                break;
+            case 41:
+                sink = 41;
+                break;
+            case 42:
+                sink = 42;
+                break;
+            case 43:
+                sink = 43;
+                break;
+            case 44:
+                sink = 44;
+                break;
+            case 45:
+                sink = 45;
+                break;
+            case 46:
+                sink = 46;
+                break;
+            case 47:
+                sink = 47;
+                break;
+            case 48:
+                sink = 48;
+                break;
+            case 49:
+                sink = 49;
+                break;
+            case 50:
+                sink = 50;
+                break;
+            case 51:
+                sink = 51;
+                break;
+            case 52:
+                sink = 52;
+                break;
+            case 53:
+                sink = 53;
+                break;
+            case 54:
+                sink = 54;
+                break;
+            case 55:
+                sink = 55;
+                break;
+            case 56:
+                sink = 56;
+                break;
+            case 57:
+                sink = 57;
+                break;
+            case 58:
+                sink = 58;
+                break;
+            case 59:
+                sink = 59;
+                break;
+            case 60:
+                sink = 60;
+                break;
+            case 61:
+                sink = 61;
+                break;
+            case 62:
+                sink = 62;
+                break;
+            case 63:
+                sink = 63;
+                break;
+            default:
+                sink = -1;
+        }
+        return sink;
+    }
+}
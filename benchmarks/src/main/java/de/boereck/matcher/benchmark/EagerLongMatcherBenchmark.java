@@ -0,0 +1,994 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.eager.EagerMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the eager long matchers of {@link EagerMatcher} with hand-written code matching long constants.
+ * <p>
+ * Each benchmark runs a chain of {@link #caseCount} cases. The inputs are spread evenly over all cases plus one input
+ * not matched by any case, so every position in the chain (and the no-match path) is hit. The hand-written variants
+ * select the cascade of the configured length by a switch on {@link #caseCount}; this switch is constant during a
+ * trial and therefore perfectly predicted.
+ * </p>
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EagerLongMatcherBenchmark {
+
+    /**
+     * Amount of cases in the benchmarked chain
+     */
+    @Param({"1", "4", "16", "64"})
+    public int caseCount;
+
+    /**
+     * Written by the actions of the no-result matchers and the hand-written code. Lambdas writing a static field
+     * do not capture anything and are therefore not allocated per evaluation.
+     */
+    private static long sink;
+
+    private long[] inputs;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        inputs = Inputs.longs(caseCount);
+    }
+
+    private long next() {
+        return inputs[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Multiplier spreading the long constants over a range not representable by int
+     */
+    private static final long STRIDE = Inputs.LONG_STRIDE;
+
+    /**
+     * Eager result matcher, returning the result of the matching case.
+     */
+    @Benchmark
+    public Long resultMatch() {
+        final long l = next();
+        switch (caseCount) {
+            case 1:
+                return resultMatch1(l);
+            case 4:
+                return resultMatch4(l);
+            case 16:
+                return resultMatch16(l);
+            case 64:
+                return resultMatch64(l);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Eager result matcher recording the result in place, returning the result of the matching case without allocating.
+     */
+    @Benchmark
+    public Long resultMatchInPlace() {
+        final long l = next();
+        switch (caseCount) {
+            case 1:
+                return resultMatchInPlace1(l);
+            case 4:
+                return resultMatchInPlace4(l);
+            case 16:
+                return resultMatchInPlace16(l);
+            case 64:
+                return resultMatchInPlace64(l);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Eager no-result matcher, performing the action of the matching case.
+     */
+    @Benchmark
+    public long match() {
+        final long l = next();
+        switch (caseCount) {
+            case 1:
+                return match1(l);
+            case 4:
+                return match4(l);
+            case 16:
+                return match16(l);
+            case 64:
+                return match64(l);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Hand-written if/else cascade, the baseline for both matchers.
+     */
+    @Benchmark
+    public long ifElse() {
+        final long l = next();
+        switch (caseCount) {
+            case 1:
+                return ifElse1(l);
+            case 4:
+                return ifElse4(l);
+            case 16:
+                return ifElse16(l);
+            case 64:
+                return ifElse64(l);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Hand-written switch statement, the baseline for both matchers.
+     */
+    @Benchmark
+    public long switchCase() {
+        final long l = next();
+        switch (caseCount) {
+            case 1:
+                return switchCase1(l);
+            case 4:
+                return switchCase4(l);
+            case 16:
+                return switchCase16(l);
+            case 64:
+                return switchCase64(l);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    private static Long resultMatch1(long l) {
+        return EagerMatcher.<Long>resultMatch(l)
+                .caseOf(0 * STRIDE, x -> 0L)
+                .otherwise(-1L);
+    }
+
+    private static Long resultMatch4(long l) {
+        return EagerMatcher.<Long>resultMatch(l)
+                .caseOf(0 * STRIDE, x -> 0L)
+                .caseOf(1 * STRIDE, x -> 1L)
+                .caseOf(2 * STRIDE, x -> 2L)
+                .caseOf(3 * STRIDE, x -> 3L)
+                .otherwise(-1L);
+    }
+
+    private static Long resultMatch16(long l) {
+        return EagerMatcher.<Long>resultMatch(l)
+                .caseOf(0 * STRIDE, x -> 0L)
+                .caseOf(1 * STRIDE, x -> 1L)
+                .caseOf(2 * STRIDE, x -> 2L)
+                .caseOf(3 * STRIDE, x -> 3L)
+                .caseOf(4 * STRIDE, x -> 4L)
+                .caseOf(5 * STRIDE, x -> 5L)
+                .caseOf(6 * STRIDE, x -> 6L)
+                .caseOf(7 * STRIDE, x -> 7L)
+                .caseOf(8 * STRIDE, x -> 8L)
+                .caseOf(9 * STRIDE, x -> 9L)
+                .caseOf(10 * STRIDE, x -> 10L)
+                .caseOf(11 * STRIDE, x -> 11L)
+                .caseOf(12 * STRIDE, x -> 12L)
+                .caseOf(13 * STRIDE, x -> 13L)
+                .caseOf(14 * STRIDE, x -> 14L)
+                .caseOf(15 * STRIDE, x -> 15L)
+                .otherwise(-1L);
+    }
+
+    private static Long resultMatch64(long l) {
+        return EagerMatcher.<Long>resultMatch(l)
+                .caseOf(0 * STRIDE, x -> 0L)
+                .caseOf(1 * STRIDE, x -> 1L)
+                .caseOf(2 * STRIDE, x -> 2L)
+                .caseOf(3 * STRIDE, x -> 3L)
+                .caseOf(4 * STRIDE, x -> 4L)
+                .caseOf(5 * STRIDE, x -> 5L)
+                .caseOf(6 * STRIDE, x -> 6L)
+                .caseOf(7 * STRIDE, x -> 7L)
+                .caseOf(8 * STRIDE, x -> 8L)
+                .caseOf(9 * STRIDE, x -> 9L)
+                .caseOf(10 * STRIDE, x -> 10L)
+                .caseOf(11 * STRIDE, x -> 11L)
+                .caseOf(12 * STRIDE, x -> 12L)
+                .caseOf(13 * STRIDE, x -> 13L)
+                .caseOf(14 * STRIDE, x -> 14L)
+                .caseOf(15 * STRIDE, x -> 15L)
+                .caseOf(16 * STRIDE, x -> 16L)
+                .caseOf(17 * STRIDE, x -> 17L)
+                .caseOf(18 * STRIDE, x -> 18L)
+                .caseOf(19 * STRIDE, x -> 19L)
+                .caseOf(20 * STRIDE, x -> 20L)
+                .caseOf(21 * STRIDE, x -> 21L)
+                .caseOf(22 * STRIDE, x -> 22L)
+                .caseOf(23 * STRIDE, x -> 23L)
+                .caseOf(24 * STRIDE, x -> 24L)
+                .caseOf(25 * STRIDE, x -> 25L)
+                .caseOf(26 * STRIDE, x -> 26L)
+                .caseOf(27 * STRIDE, x -> 27L)
+                .caseOf(28 * STRIDE, x -> 28L)
+                .caseOf(29 * STRIDE, x -> 29L)
+                .caseOf(30 * STRIDE, x -> 30L)
+                .caseOf(31 * STRIDE, x -> 31L)
+                .caseOf(32 * STRIDE, x -> 32L)
+                .caseOf(33 * STRIDE, x -> 33L)
+                .caseOf(34 * STRIDE, x -> 34L)
+                .caseOf(35 * STRIDE, x -> 35L)
+                .caseOf(36 * STRIDE, x -> 36L)
+                .caseOf(37 * STRIDE, x -> 37L)
+                .caseOf(38 * STRIDE, x -> 38L)
+                .caseOf(39 * STRIDE, x -> 39L)
+                .caseOf(40 * STRIDE, x -> 40L)
+                .caseOf(41 * STRIDE, x -> 41L)
+                .caseOf(42 * STRIDE, x -> 42L)
+                .caseOf(43 * STRIDE, x -> 43L)
+                .caseOf(44 * STRIDE, x -> 44L)
+                .caseOf(45 * STRIDE, x -> 45L)
+                .caseOf(46 * STRIDE, x -> 46L)
+                .caseOf(47 * STRIDE, x -> 47L)
+                .caseOf(48 * STRIDE, x -> 48L)
+                .caseOf(49 * STRIDE, x -> 49L)
+                .caseOf(50 * STRIDE, x -> 50L)
+                .caseOf(51 * STRIDE, x -> 51L)
+                .caseOf(52 * STRIDE, x -> 52L)
+                .caseOf(53 * STRIDE, x -> 53L)
+                .caseOf(54 * STRIDE, x -> 54L)
+                .caseOf(55 * STRIDE, x -> 55L)
+                .caseOf(56 * STRIDE, x -> 56L)
+                .caseOf(57 * STRIDE, x -> 57L)
+                .caseOf(58 * STRIDE, x -> 58L)
+                .caseOf(59 * STRIDE, x -> 59L)
+                .caseOf(60 * STRIDE, x -> 60L)
+                .caseOf(61 * STRIDE, x -> 61L)
+                .caseOf(62 * STRIDE, x -> 62L)
+                .caseOf(63 * STRIDE, x -> 63L)
+                .otherwise(-1L);
+    }
+
+    private static Long resultMatchInPlace1(long l) {
+        return EagerMatcher.<Long>resultMatchInPlace(l)
+                .caseOf(0 * STRIDE, x -> 0L)
+                .otherwise(-1L);
+    }
+
+    private static Long resultMatchInPlace4(long l) {
+        return EagerMatcher.<Long>resultMatchInPlace(l)
+                .caseOf(0 * STRIDE, x -> 0L)
+                .caseOf(1 * STRIDE, x -> 1L)
+                .caseOf(2 * STRIDE, x -> 2L)
+                .caseOf(3 * STRIDE, x -> 3L)
+                .otherwise(-1L);
+    }
+
+    private static Long resultMatchInPlace16(long l) {
+        return EagerMatcher.<Long>resultMatchInPlace(l)
+                .caseOf(0 * STRIDE, x -> 0L)
+                .caseOf(1 * STRIDE, x -> 1L)
+                .caseOf(2 * STRIDE, x -> 2L)
+                .caseOf(3 * STRIDE, x -> 3L)
+                .caseOf(4 * STRIDE, x -> 4L)
+                .caseOf(5 * STRIDE, x -> 5L)
+                .caseOf(6 * STRIDE, x -> 6L)
+                .caseOf(7 * STRIDE, x -> 7L)
+                .caseOf(8 * STRIDE, x -> 8L)
+                .caseOf(9 * STRIDE, x -> 9L)
+                .caseOf(10 * STRIDE, x -> 10L)
+                .caseOf(11 * STRIDE, x -> 11L)
+                .caseOf(12 * STRIDE, x -> 12L)
+                .caseOf(13 * STRIDE, x -> 13L)
+                .caseOf(14 * STRIDE, x -> 14L)
+                .caseOf(15 * STRIDE, x -> 15L)
+                .otherwise(-1L);
+    }
+
+    private static Long resultMatchInPlace64(long l) {
+        return EagerMatcher.<Long>resultMatchInPlace(l)
+                .caseOf(0 * STRIDE, x -> 0L)
+                .caseOf(1 * STRIDE, x -> 1L)
+                .caseOf(2 * STRIDE, x -> 2L)
+                .caseOf(3 * STRIDE, x -> 3L)
+                .caseOf(4 * STRIDE, x -> 4L)
+                .caseOf(5 * STRIDE, x -> 5L)
+                .caseOf(6 * STRIDE, x -> 6L)
+                .caseOf(7 * STRIDE, x -> 7L)
+                .caseOf(8 * STRIDE, x -> 8L)
+                .caseOf(9 * STRIDE, x -> 9L)
+                .caseOf(10 * STRIDE, x -> 10L)
+                .caseOf(11 * STRIDE, x -> 11L)
+                .caseOf(12 * STRIDE, x -> 12L)
+                .caseOf(13 * STRIDE, x -> 13L)
+                .caseOf(14 * STRIDE, x -> 14L)
+                .caseOf(15 * STRIDE, x -> 15L)
+                .caseOf(16 * STRIDE, x -> 16L)
+                .caseOf(17 * STRIDE, x -> 17L)
+                .caseOf(18 * STRIDE, x -> 18L)
+                .caseOf(19 * STRIDE, x -> 19L)
+                .caseOf(20 * STRIDE, x -> 20L)
+                .caseOf(21 * STRIDE, x -> 21L)
+                .caseOf(22 * STRIDE, x -> 22L)
+                .caseOf(23 * STRIDE, x -> 23L)
+                .caseOf(24 * STRIDE, x -> 24L)
+                .caseOf(25 * STRIDE, x -> 25L)
+                .caseOf(26 * STRIDE, x -> 26L)
+                .caseOf(27 * STRIDE, x -> 27L)
+                .caseOf(28 * STRIDE, x -> 28L)
+                .caseOf(29 * STRIDE, x -> 29L)
+                .caseOf(30 * STRIDE, x -> 30L)
+                .caseOf(31 * STRIDE, x -> 31L)
+                .caseOf(32 * STRIDE, x -> 32L)
+                .caseOf(33 * STRIDE, x -> 33L)
+                .caseOf(34 * STRIDE, x -> 34L)
+                .caseOf(35 * STRIDE, x -> 35L)
+                .caseOf(36 * STRIDE, x -> 36L)
+                .caseOf(37 * STRIDE, x -> 37L)
+                .caseOf(38 * STRIDE, x -> 38L)
+                .caseOf(39 * STRIDE, x -> 39L)
+                .caseOf(40 * STRIDE, x -> 40L)
+                .caseOf(41 * STRIDE, x -> 41L)
+                .caseOf(42 * STRIDE, x -> 42L)
+                .caseOf(43 * STRIDE, x -> 43L)
+                .caseOf(44 * STRIDE, x -> 44L)
+                .caseOf(45 * STRIDE, x -> 45L)
+                .caseOf(46 * STRIDE, x -> 46L)
+                .caseOf(47 * STRIDE, x -> 47L)
+                .caseOf(48 * STRIDE, x -> 48L)
+                .caseOf(49 * STRIDE, x -> 49L)
+                .caseOf(50 * STRIDE, x -> 50L)
+                .caseOf(51 * STRIDE, x -> 51L)
+                .caseOf(52 * STRIDE, x -> 52L)
+                .caseOf(53 * STRIDE, x -> 53L)
+                .caseOf(54 * STRIDE, x -> 54L)
+                .caseOf(55 * STRIDE, x -> 55L)
+                .caseOf(56 * STRIDE, x -> 56L)
+                .caseOf(57 * STRIDE, x -> 57L)
+                .caseOf(58 * STRIDE, x -> 58L)
+                .caseOf(59 * STRIDE, x -> 59L)
+                .caseOf(60 * STRIDE, x -> 60L)
+                .caseOf(61 * STRIDE, x -> 61L)
+                .caseOf(62 * STRIDE, x -> 62L)
+                .caseOf(63 * STRIDE, x -> 63L)
+                .otherwise(-1L);
+    }
+
+    private static long match1(long l) {
+        EagerMatcher.match(l)
+                .caseOf(0 * STRIDE, x -> sink = 0L)
+                .otherwise(x -> sink = -1L);
+        return sink;
+    }
+
+    private static long match4(long l) {
+        EagerMatcher.match(l)
+                .caseOf(0 * STRIDE, x -> sink = 0L)
+                .caseOf(1 * STRIDE, x -> sink = 1L)
+                .caseOf(2 * STRIDE, x -> sink = 2L)
+                .caseOf(3 * STRIDE, x -> sink = 3L)
+                .otherwise(x -> sink = -1L);
+        return sink;
+    }
+
+    private static long match16(long l) {
+        EagerMatcher.match(l)
+                .caseOf(0 * STRIDE, x -> sink = 0L)
+                .caseOf(1 * STRIDE, x -> sink = 1L)
+                .caseOf(2 * STRIDE, x -> sink = 2L)
+                .caseOf(3 * STRIDE, x -> sink = 3L)
+                .caseOf(4 * STRIDE, x -> sink = 4L)
+                .caseOf(5 * STRIDE, x -> sink = 5L)
+                .caseOf(6 * STRIDE, x -> sink = 6L)
+                .caseOf(7 * STRIDE, x -> sink = 7L)
+                .caseOf(8 * STRIDE, x -> sink = 8L)
+                .caseOf(9 * STRIDE, x -> sink = 9L)
+                .caseOf(10 * STRIDE, x -> sink = 10L)
+                .caseOf(11 * STRIDE, x -> sink = 11L)
+                .caseOf(12 * STRIDE, x -> sink = 12L)
+                .caseOf(13 * STRIDE, x -> sink = 13L)
+                .caseOf(14 * STRIDE, x -> sink = 14L)
+                .caseOf(15 * STRIDE, x -> sink = 15L)
+                .otherwise(x -> sink = -1L);
+        return sink;
+    }
+
+    private static long match64(long l) {
+        EagerMatcher.match(l)
+                .caseOf(0 * STRIDE, x -> sink = 0L)
+                .caseOf(1 * STRIDE, x -> sink = 1L)
+                .caseOf(2 * STRIDE, x -> sink = 2L)
+                .caseOf(3 * STRIDE, x -> sink = 3L)
+                .caseOf(4 * STRIDE, x -> sink = 4L)
+                .caseOf(5 * STRIDE, x -> sink = 5L)
+                .caseOf(6 * STRIDE, x -> sink = 6L)
+                .caseOf(7 * STRIDE, x -> sink = 7L)
+                .caseOf(8 * STRIDE, x -> sink = 8L)
+                .caseOf(9 * STRIDE, x -> sink = 9L)
+                .caseOf(10 * STRIDE, x -> sink = 10L)
+                .caseOf(11 * STRIDE, x -> sink = 11L)
+                .caseOf(12 * STRIDE, x -> sink = 12L)
+                .caseOf(13 * STRIDE, x -> sink = 13L)
+                .caseOf(14 * STRIDE, x -> sink = 14L)
+                .caseOf(15 * STRIDE, x -> sink = 15L)
+                .caseOf(16 * STRIDE, x -> sink = 16L)
+                .caseOf(17 * STRIDE, x -> sink = 17L)
+                .caseOf(18 * STRIDE, x -> sink = 18L)
+                .caseOf(19 * STRIDE, x -> sink = 19L)
+                .caseOf(20 * STRIDE, x -> sink = 20L)
+                .caseOf(21 * STRIDE, x -> sink = 21L)
+                .caseOf(22 * STRIDE, x -> sink = 22L)
+                .caseOf(23 * STRIDE, x -> sink = 23L)
+                .caseOf(24 * STRIDE, x -> sink = 24L)
+                .caseOf(25 * STRIDE, x -> sink = 25L)
+                .caseOf(26 * STRIDE, x -> sink = 26L)
+                .caseOf(27 * STRIDE, x -> sink = 27L)
+                .caseOf(28 * STRIDE, x -> sink = 28L)
+                .caseOf(29 * STRIDE, x -> sink = 29L)
+                .caseOf(30 * STRIDE, x -> sink = 30L)
+                .caseOf(31 * STRIDE, x -> sink = 31L)
+                .caseOf(32 * STRIDE, x -> sink = 32L)
+                .caseOf(33 * STRIDE, x -> sink = 33L)
+                .caseOf(34 * STRIDE, x -> sink = 34L)
+                .caseOf(35 * STRIDE, x -> sink = 35L)
+                .caseOf(36 * STRIDE, x -> sink = 36L)
+                .caseOf(37 * STRIDE, x -> sink = 37L)
+                .caseOf(38 * STRIDE, x -> sink = 38L)
+                .caseOf(39 * STRIDE, x -> sink = 39L)
+                .caseOf(40 * STRIDE, x -> sink = 40L)
+                .caseOf(41 * STRIDE, x -> sink = 41L)
+                .caseOf(42 * STRIDE, x -> sink = 42L)
+                .caseOf(43 * STRIDE, x -> sink = 43L)
+                .caseOf(44 * STRIDE, x -> sink = 44L)
+                .caseOf(45 * STRIDE, x -> sink = 45L)
+                .caseOf(46 * STRIDE, x -> sink = 46L)
+                .caseOf(47 * STRIDE, x -> sink = 47L)
+                .caseOf(48 * STRIDE, x -> sink = 48L)
+                .caseOf(49 * STRIDE, x -> sink = 49L)
+                .caseOf(50 * STRIDE, x -> sink = 50L)
+                .caseOf(51 * STRIDE, x -> sink = 51L)
+                .caseOf(52 * STRIDE, x -> sink = 52L)
+                .caseOf(53 * STRIDE, x -> sink = 53L)
+                .caseOf(54 * STRIDE, x -> sink = 54L)
+                .caseOf(55 * STRIDE, x -> sink = 55L)
+                .caseOf(56 * STRIDE, x -> sink = 56L)
+                .caseOf(57 * STRIDE, x -> sink = 57L)
+                .caseOf(58 * STRIDE, x -> sink = 58L)
+                .caseOf(59 * STRIDE, x -> sink = 59L)
+                .caseOf(60 * STRIDE, x -> sink = 60L)
+                .caseOf(61 * STRIDE, x -> sink = 61L)
+                .caseOf(62 * STRIDE, x -> sink = 62L)
+                .caseOf(63 * STRIDE, x -> sink = 63L)
+                .otherwise(x -> sink = -1L);
+        return sink;
+    }
+
+    private static long ifElse1(long l) {
+        if (l == 0 * STRIDE) {
+            sink = 0L;
+        } else {
+            sink = -1L;
+        }
+        return sink;
+    }
+
+    private static long ifElse4(long l) {
+        if (l == 0 * STRIDE) {
+            sink = 0L;
+        } else if (l == 1 * STRIDE) {
+            sink = 1L;
+        } else if (l == 2 * STRIDE) {
+            sink = 2L;
+        } else if (l == 3 * STRIDE) {
+            sink = 3L;
+        } else {
+            sink = -1L;
+        }
+        return sink;
+    }
+
+    private static long ifElse16(long l) {
+        if (l == 0 * STRIDE) {
+            sink = 0L;
+        } else if (l == 1 * STRIDE) {
+            sink = 1L;
+        } else if (l == 2 * STRIDE) {
+            sink = 2L;
+        } else if (l == 3 * STRIDE) {
+            sink = 3L;
+        } else if (l == 4 * STRIDE) {
+            sink = 4L;
+        } else if (l == 5 * STRIDE) {
+            sink = 5L;
+        } else if (l == 6 * STRIDE) {
+            sink = 6L;
+        } else if (l == 7 * STRIDE) {
+            sink = 7L;
+        } else if (l == 8 * STRIDE) {
+            sink = 8L;
+        } else if (l == 9 * STRIDE) {
+            sink = 9L;
+        } else if (l == 10 * STRIDE) {
+            sink = 10L;
+        } else if (l == 11 * STRIDE) {
+            sink = 11L;
+        } else if (l == 12 * STRIDE) {
+            sink = 12L;
+        } else if (l == 13 * STRIDE) {
+            sink = 13L;
+        } else if (l == 14 * STRIDE) {
+            sink = 14L;
+        } else if (l == 15 * STRIDE) {
+            sink = 15L;
+        } else {
+            sink = -1L;
+        }
+        return sink;
+    }
+
+    private static long ifElse64(long l) {
+        if (l == 0 * STRIDE) {
+            sink = 0L;
+        } else if (l == 1 * STRIDE) {
+            sink = 1L;
+        } else if (l == 2 * STRIDE) {
+            sink = 2L;
+        } else if (l == 3 * STRIDE) {
+            sink = 3L;
+        } else if (l == 4 * STRIDE) {
+            sink = 4L;
+        } else if (l == 5 * STRIDE) {
+            sink = 5L;
+        } else if (l == 6 * STRIDE) {
+            sink = 6L;
+        } else if (l == 7 * STRIDE) {
+            sink = 7L;
+        } else if (l == 8 * STRIDE) {
+            sink = 8L;
+        } else if (l == 9 * STRIDE) {
+            sink = 9L;
+        } else if (l == 10 * STRIDE) {
+            sink = 10L;
+        } else if (l == 11 * STRIDE) {
+            sink = 11L;
+        } else if (l == 12 * STRIDE) {
+            sink = 12L;
+        } else if (l == 13 * STRIDE) {
+            sink = 13L;
+        } else if (l == 14 * STRIDE) {
+            sink = 14L;
+        } else if (l == 15 * STRIDE) {
+            sink = 15L;
+        } else if (l == 16 * STRIDE) {
+            sink = 16L;
+        } else if (l == 17 * STRIDE) {
+            sink = 17L;
+        } else if (l == 18 * STRIDE) {
+            sink = 18L;
+        } else if (l == 19 * STRIDE) {
+            sink = 19L;
+        } else if (l == 20 * STRIDE) {
+            sink = 20L;
+        } else if (l == 21 * STRIDE) {
+            sink = 21L;
+        } else if (l == 22 * STRIDE) {
+            sink = 22L;
+        } else if (l == 23 * STRIDE) {
+            sink = 23L;
+        } else if (l == 24 * STRIDE) {
+            sink = 24L;
+        } else if (l == 25 * STRIDE) {
+            sink = 25L;
+        } else if (l == 26 * STRIDE) {
+            sink = 26L;
+        } else if (l == 27 * STRIDE) {
+            sink = 27L;
+        } else if (l == 28 * STRIDE) {
+            sink = 28L;
+        } else if (l == 29 * STRIDE) {
+            sink = 29L;
+        } else if (l == 30 * STRIDE) {
+            sink = 30L;
+        } else if (l == 31 * STRIDE) {
+            sink = 31L;
+        } else if (l == 32 * STRIDE) {
+            sink = 32L;
+        } else if (l == 33 * STRIDE) {
+            sink = 33L;
+        } else if (l == 34 * STRIDE) {
+            sink = 34L;
+        } else if (l == 35 * STRIDE) {
+            sink = 35L;
+        } else if (l == 36 * STRIDE) {
+            sink = 36L;
+        } else if (l == 37 * STRIDE) {
+            sink = 37L;
+        } else if (l == 38 * STRIDE) {
+            sink = 38L;
+        } else if (l == 39 * STRIDE) {
+            sink = 39L;
+        } else if (l == 40 * STRIDE) {
+            sink = 40L;
+        } else if (l == 41 * STRIDE) {
+            sink = 41L;
+        } else if (l == 42 * STRIDE) {
+            sink = 42L;
+        } else if (l == 43 * STRIDE) {
+            sink = 43L;
+        } else if (l == 44 * STRIDE) {
+            sink = 44L;
+        } else if (l == 45 * STRIDE) {
+            sink = 45L;
+        } else if (l == 46 * STRIDE) {
+            sink = 46L;
+        } else if (l == 47 * STRIDE) {
+            sink = 47L;
+        } else if (l == 48 * STRIDE) {
+            sink = 48L;
+        } else if (l == 49 * STRIDE) {
+            sink = 49L;
+        } else if (l == 50 * STRIDE) {
+            sink = 50L;
+        } else if (l == 51 * STRIDE) {
+            sink = 51L;
+        } else if (l == 52 * STRIDE) {
+            sink = 52L;
+        } else if (l == 53 * STRIDE) {
+            sink = 53L;
+        } else if (l == 54 * STRIDE) {
+            sink = 54L;
+        } else if (l == 55 * STRIDE) {
+            sink = 55L;
+        } else if (l == 56 * STRIDE) {
+            sink = 56L;
+        } else if (l == 57 * STRIDE) {
+            sink = 57L;
+        } else if (l == 58 * STRIDE) {
+            sink = 58L;
+        } else if (l == 59 * STRIDE) {
+            sink = 59L;
+        } else if (l == 60 * STRIDE) {
+            sink = 60L;
+        } else if (l == 61 * STRIDE) {
+            sink = 61L;
+        } else if (l == 62 * STRIDE) {
+            sink = 62L;
+        } else if (l == 63 * STRIDE) {
+            sink = 63L;
+        } else {
+            sink = -1L;
+        }
+        return sink;
+    }
+
+    private static long switchCase1(long l) {
+        // Java does not allow switch on long, hand-written code switches on the quotient if it is in range
+        if (l % STRIDE == 0 && l / STRIDE <= Integer.MAX_VALUE) {
+            switch ((int) (l / STRIDE)) {
+                case 0:
+                    sink = 0L;
+                    break;
+                default:
+                    sink = -1L;
+            }
+        } else {
+            sink = -1L;
+        }
+        return sink;
+    }
+
+    private static long switchCase4(long l) {
+        // Java does not allow switch on long, hand-written code switches on the quotient if it is in range
+        if (l % STRIDE == 0 && l / STRIDE <= Integer.MAX_VALUE) {
+            switch ((int) (l / STRIDE)) {
+                case 0:
+                    sink = 0L;
+                    break;
+                case 1:
+                    sink = 1L;
+                    break;
+                case 2:
+                    sink = 2L;
+                    break;
+                case 3:
+                    sink = 3L;
+                    break;
+                default:
+                    sink = -1L;
+            }
+        } else {
+            sink = -1L;
+        }
+        return sink;
+    }
+
+    private static long switchCase16(long l) {
+        // Java does not allow switch on long, hand-written code switches on the quotient if it is in range
+        if (l % STRIDE == 0 && l / STRIDE <= Integer.MAX_VALUE) {
+            switch ((int) (l / STRIDE)) {
+                case 0:
+                    sink = 0L;
+                    break;
+                case 1:
+                    sink = 1L;
+                    break;
+                case 2:
+                    sink = 2L;
+                    break;
+                case 3:
+                    sink = 3L;
+                    break;
+                case 4:
+                    sink = 4L;
+                    break;
+                case 5:
+                    sink = 5L;
+                    break;
+                case 6:
+                    sink = 6L;
+                    break;
+                case 7:
+                    sink = 7L;
+                    break;
+                case 8:
+                    sink = 8L;
+                    break;
+                case 9:
+                    sink = 9L;
+                    break;
+                case 10:
+                    sink = 10L;
+                    break;
+                case 11:
+                    sink = 11L;
+                    break;
+                case 12:
+                    sink = 12L;
+                    break;
+                case 13:
+                    sink = 13L;
+                    break;
+                case 14:
+                    sink = 14L;
+                    break;
+                case 15:
+                    sink = 15L;
+                    break;
+                default:
+                    sink = -1L;
+            }
+        } else {
+            sink = -1L;
+        }
+        return sink;
+    }
+
+    private static long switchCase64(long l) {
+        // Java does not allow switch on long, hand-written code switches on the quotient if it is in range
+        if (l % STRIDE == 0 && l / STRIDE <= Integer.MAX_VALUE) {
+            switch ((int) (l / STRIDE)) {
+                case 0:
+                    sink = 0L;
+                    break;
+                case 1:
+                    sink = 1L;
+                    break;
+                case 2:
+                    sink = 2L;
+                    break;
+                case 3:
+                    sink = 3L;
+                    break;
+                case 4:
+                    sink = 4L;
+                    break;
+                case 5:
+                    sink = 5L;
+                    break;
+                case 6:
+                    sink = 6L;
+                    break;
+                case 7:
+                    sink = 7L;
+                    break;
+                case 8:
+                    sink = 8L;
+                    break;
+                case 9:
+                    sink = 9L;
+                    break;
+                case 10:
+                    sink = 10L;
+                    break;
+                case 11:
+                    sink = 11L;
+                    break;
+                case 12:
+                    sink = 12L;
+                    break;
+                case 13:
+                    sink = 13L;
+                    break;
+                case 14:
+                    sink = 14L;
+                    break;
+                case 15:
+                    sink = 15L;
+                    break;
+                case 16:
+                    sink = 16L;
+                    break;
+                case 17:
+                    sink = 17L;
+                    break;
+                case 18:
+                    sink = 18L;
+                    break;
+                case 19:
+                    sink = 19L;
+                    break;
+                case 20:
+                    sink = 20L;
+                    break;
+                case 21:
+                    sink = 21L;
+                    break;
+                case 22:
+                    sink = 22L;
+                    break;
+                case 23:
+                    sink = 23L;
+                    break;
+                case 24:
+                    sink = 24L;
+                    break;
+                case 25:
+                    sink = 25L;
+                    break;
+                case 26:
+                    sink = 26L;
+                    break;
+                case 27:
+                    sink = 27L;
+                    break;
+                case 28:
+                    sink = 28L;
+                    break;
+                case 29:
+                    sink = 29L;
+                    break;
+                case 30:
+                    sink = 30L;
+                    break;
+                case 31:
+                    sink = 31L;
+                    break;
+                case 32:
+                    sink = 32L;
+                    break;
+                case 33:
+                    sink = 33L;
+                    break;
+                case 34:
+                    sink = 34L;
+                    break;
+                case 35:
+                    sink = 35L;
+                    break;
+                case 36:
+                    sink = 36L;
+                    break;
+                case 37:
+                    sink = 37L;
+                    break;
+                case 38:
+                    sink = 38L;
+                    break;
+                case 39:
+                    sink = 39L;
+                    break;
+                case 40:
+                    sink = 40L;
+                    break;
+                case 41:
+                    sink = 41L;
+                    break;
+                case 42:
+                    sink = 42L;
+                    break;
+                case 43:
+                    sink = 43L;
+                    break;
+                case 44:
+                    sink = 44L;
+                    break;
+                case 45:
+                    sink = 45L;
+                    break;
+                case 46:
+                    sink = 46L;
+                    break;
+                case 47:
+                    sink = 47L;
+                    break;
+                case 48:
+                    sink = 48L;
+                    break;
+                case 49:
+                    sink = 49L;
+                    break;
+                case 50:
+                    sink = 50L;
+                    break;
+                case 51:
+                    sink = 51L;
+                    break;
+                case 52:
+                    sink = 52L;
+                    break;
+                case 53:
+                    sink = 53L;
+                    break;
+                case 54:
+                    sink = 54L;
+                    break;
+                case 55:
+                    sink = 55L;
+                    break;
+                case 56:
+                    sink = 56L;
+                    break;
+                case 57:
+                    sink = 57L;
+                    break;
+                case 58:
+                    sink = 58L;
+                    break;
+                case 59:
+                    sink = 59L;
+                    break;
+                case 60:
+                    sink = 60L;
+                    break;
+                case 61:
+                    sink = 61L;
+                    break;
+                case 62:
+                    sink = 62L;
+                    break;
+                case 63:
+                    sink = 63L;
+                    break;
+                default:
+                    sink = -1L;
+            }
+        } else {
+            sink = -1L;
+        }
+        return sink;
+    }
+}
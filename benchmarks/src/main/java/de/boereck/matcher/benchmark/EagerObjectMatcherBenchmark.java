@@ -0,0 +1,991 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.eager.EagerMatcher;
+import de.boereck.matcher.function.predicate.AdvPredicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the eager object matchers of {@link EagerMatcher} with hand-written code matching String keys.
+ * <p>
+ * Each benchmark runs a chain of {@link #caseCount} cases. The inputs are spread evenly over all cases plus one input
+ * not matched by any case, so every position in the chain (and the no-match path) is hit. The hand-written variants
+ * select the cascade of the configured length by a switch on {@link #caseCount}; this switch is constant during a
+ * trial and therefore perfectly predicted.
+ * </p>
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EagerObjectMatcherBenchmark {
+
+    /**
+     * Amount of cases in the benchmarked chain
+     */
+    @Param({"1", "4", "16", "64"})
+    public int caseCount;
+
+    /**
+     * Written by the actions of the no-result matchers and the hand-written code. Lambdas writing a static field
+     * do not capture anything and are therefore not allocated per evaluation.
+     */
+    private static int sink;
+
+    private Object[] inputs;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        inputs = Inputs.keys(caseCount);
+    }
+
+    private Object next() {
+        return inputs[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Predicates checking for the keys. Predicates are cached in static fields, as advised by {@link EagerMatcher}.
+     */
+    private static final AdvPredicate<Object>[] EQ = Inputs.keyPredicates();
+
+    /**
+     * Eager result matcher, returning the result of the matching case.
+     */
+    @Benchmark
+    public Integer resultMatch() {
+        final Object o = next();
+        switch (caseCount) {
+            case 1:
+                return resultMatch1(o);
+            case 4:
+                return resultMatch4(o);
+            case 16:
+                return resultMatch16(o);
+            case 64:
+                return resultMatch64(o);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Eager result matcher recording the result in place, returning the result of the matching case without allocating.
+     */
+    @Benchmark
+    public Integer resultMatchInPlace() {
+        final Object o = next();
+        switch (caseCount) {
+            case 1:
+                return resultMatchInPlace1(o);
+            case 4:
+                return resultMatchInPlace4(o);
+            case 16:
+                return resultMatchInPlace16(o);
+            case 64:
+                return resultMatchInPlace64(o);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Eager no-result matcher, performing the action of the matching case.
+     */
+    @Benchmark
+    public int match() {
+        final Object o = next();
+        switch (caseCount) {
+            case 1:
+                return match1(o);
+            case 4:
+                return match4(o);
+            case 16:
+                return match16(o);
+            case 64:
+                return match64(o);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Hand-written if/else cascade, the baseline for both matchers.
+     */
+    @Benchmark
+    public int ifElse() {
+        final Object o = next();
+        switch (caseCount) {
+            case 1:
+                return ifElse1(o);
+            case 4:
+                return ifElse4(o);
+            case 16:
+                return ifElse16(o);
+            case 64:
+                return ifElse64(o);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    /**
+     * Hand-written switch statement, the baseline for both matchers.
+     */
+    @Benchmark
+    public int switchCase() {
+        final Object o = next();
+        switch (caseCount) {
+            case 1:
+                return switchCase1(o);
+            case 4:
+                return switchCase4(o);
+            case 16:
+                return switchCase16(o);
+            case 64:
+                return switchCase64(o);
+            default:
+                throw new IllegalStateException("Unsupported case count " + caseCount);
+        }
+    }
+
+    private static Integer resultMatch1(Object o) {
+        return EagerMatcher.<Object, Integer>resultMatch(o)
+                .caseOf(EQ[0], x -> 0)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatch4(Object o) {
+        return EagerMatcher.<Object, Integer>resultMatch(o)
+                .caseOf(EQ[0], x -> 0)
+                .caseOf(EQ[1], x -> 1)
+                .caseOf(EQ[2], x -> 2)
+                .caseOf(EQ[3], x -> 3)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatch16(Object o) {
+        return EagerMatcher.<Object, Integer>resultMatch(o)
+                .caseOf(EQ[0], x -> 0)
+                .caseOf(EQ[1], x -> 1)
+                .caseOf(EQ[2], x -> 2)
+                .caseOf(EQ[3], x -> 3)
+                .caseOf(EQ[4], x -> 4)
+                .caseOf(EQ[5], x -> 5)
+                .caseOf(EQ[6], x -> 6)
+                .caseOf(EQ[7], x -> 7)
+                .caseOf(EQ[8], x -> 8)
+                .caseOf(EQ[9], x -> 9)
+                .caseOf(EQ[10], x -> 10)
+                .caseOf(EQ[11], x -> 11)
+                .caseOf(EQ[12], x -> 12)
+                .caseOf(EQ[13], x -> 13)
+                .caseOf(EQ[14], x -> 14)
+                .caseOf(EQ[15], x -> 15)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatch64(Object o) {
+        return EagerMatcher.<Object, Integer>resultMatch(o)
+                .caseOf(EQ[0], x -> 0)
+                .caseOf(EQ[1], x -> 1)
+                .caseOf(EQ[2], x -> 2)
+                .caseOf(EQ[3], x -> 3)
+                .caseOf(EQ[4], x -> 4)
+                .caseOf(EQ[5], x -> 5)
+                .caseOf(EQ[6], x -> 6)
+                .caseOf(EQ[7], x -> 7)
+                .caseOf(EQ[8], x -> 8)
+                .caseOf(EQ[9], x -> 9)
+                .caseOf(EQ[10], x -> 10)
+                .caseOf(EQ[11], x -> 11)
+                .caseOf(EQ[12], x -> 12)
+                .caseOf(EQ[13], x -> 13)
+                .caseOf(EQ[14], x -> 14)
+                .caseOf(EQ[15], x -> 15)
+                .caseOf(EQ[16], x -> 16)
+                .caseOf(EQ[17], x -> 17)
+                .caseOf(EQ[18], x -> 18)
+                .caseOf(EQ[19], x -> 19)
+                .caseOf(EQ[20], x -> 20)
+                .caseOf(EQ[21], x -> 21)
+                .caseOf(EQ[22], x -> 22)
+                .caseOf(EQ[23], x -> 23)
+                .caseOf(EQ[24], x -> 24)
+                .caseOf(EQ[25], x -> 25)
+                .caseOf(EQ[26], x -> 26)
+                .caseOf(EQ[27], x -> 27)
+                .caseOf(EQ[28], x -> 28)
+                .caseOf(EQ[29], x -> 29)
+                .caseOf(EQ[30], x -> 30)
+                .caseOf(EQ[31], x -> 31)
+                .caseOf(EQ[32], x -> 32)
+                .caseOf(EQ[33], x -> 33)
+                .caseOf(EQ[34], x -> 34)
+                .caseOf(EQ[35], x -> 35)
+                .caseOf(EQ[36], x -> 36)
+                .caseOf(EQ[37], x -> 37)
+                .caseOf(EQ[38], x -> 38)
+                .caseOf(EQ[39], x -> 39)
+                .caseOf(EQ[40], x -> 40)
+                .caseOf(EQ[41], x -> 41)
+                .caseOf(EQ[42], x -> 42)
+                .caseOf(EQ[43], x -> 43)
+                .caseOf(EQ[44], x -> 44)
+                .caseOf(EQ[45], x -> 45)
+                .caseOf(EQ[46], x -> 46)
+                .caseOf(EQ[47], x -> 47)
+                .caseOf(EQ[48], x -> 48)
+                .caseOf(EQ[49], x -> 49)
+                .caseOf(EQ[50], x -> 50)
+                .caseOf(EQ[51], x -> 51)
+                .caseOf(EQ[52], x -> 52)
+                .caseOf(EQ[53], x -> 53)
+                .caseOf(EQ[54], x -> 54)
+                .caseOf(EQ[55], x -> 55)
+                .caseOf(EQ[56], x -> 56)
+                .caseOf(EQ[57], x -> 57)
+                .caseOf(EQ[58], x -> 58)
+                .caseOf(EQ[59], x -> 59)
+                .caseOf(EQ[60], x -> 60)
+                .caseOf(EQ[61], x -> 61)
+                .caseOf(EQ[62], x -> 62)
+                .caseOf(EQ[63], x -> 63)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatchInPlace1(Object o) {
+        return EagerMatcher.<Object, Integer>resultMatchInPlace(o)
+                .caseOf(EQ[0], x -> 0)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatchInPlace4(Object o) {
+        return EagerMatcher.<Object, Integer>resultMatchInPlace(o)
+                .caseOf(EQ[0], x -> 0)
+                .caseOf(EQ[1], x -> 1)
+                .caseOf(EQ[2], x -> 2)
+                .caseOf(EQ[3], x -> 3)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatchInPlace16(Object o) {
+        return EagerMatcher.<Object, Integer>resultMatchInPlace(o)
+                .caseOf(EQ[0], x -> 0)
+                .caseOf(EQ[1], x -> 1)
+                .caseOf(EQ[2], x -> 2)
+                .caseOf(EQ[3], x -> 3)
+                .caseOf(EQ[4], x -> 4)
+                .caseOf(EQ[5], x -> 5)
+                .caseOf(EQ[6], x -> 6)
+                .caseOf(EQ[7], x -> 7)
+                .caseOf(EQ[8], x -> 8)
+                .caseOf(EQ[9], x -> 9)
+                .caseOf(EQ[10], x -> 10)
+                .caseOf(EQ[11], x -> 11)
+                .caseOf(EQ[12], x -> 12)
+                .caseOf(EQ[13], x -> 13)
+                .caseOf(EQ[14], x -> 14)
+                .caseOf(EQ[15], x -> 15)
+                .otherwise(-1);
+    }
+
+    private static Integer resultMatchInPlace64(Object o) {
+        return EagerMatcher.<Object, Integer>resultMatchInPlace(o)
+                .caseOf(EQ[0], x -> 0)
+                .caseOf(EQ[1], x -> 1)
+                .caseOf(EQ[2], x -> 2)
+                .caseOf(EQ[3], x -> 3)
+                .caseOf(EQ[4], x -> 4)
+                .caseOf(EQ[5], x -> 5)
+                .caseOf(EQ[6], x -> 6)
+                .caseOf(EQ[7], x -> 7)
+                .caseOf(EQ[8], x -> 8)
+                .caseOf(EQ[9], x -> 9)
+                .caseOf(EQ[10], x -> 10)
+                .caseOf(EQ[11], x -> 11)
+                .caseOf(EQ[12], x -> 12)
+                .caseOf(EQ[13], x -> 13)
+                .caseOf(EQ[14], x -> 14)
+                .caseOf(EQ[15], x -> 15)
+                .caseOf(EQ[16], x -> 16)
+                .caseOf(EQ[17], x -> 17)
+                .caseOf(EQ[18], x -> 18)
+                .caseOf(EQ[19], x -> 19)
+                .caseOf(EQ[20], x -> 20)
+                .caseOf(EQ[21], x -> 21)
+                .caseOf(EQ[22], x -> 22)
+                .caseOf(EQ[23], x -> 23)
+                .caseOf(EQ[24], x -> 24)
+                .caseOf(EQ[25], x -> 25)
+                .caseOf(EQ[26], x -> 26)
+                .caseOf(EQ[27], x -> 27)
+                .caseOf(EQ[28], x -> 28)
+                .caseOf(EQ[29], x -> 29)
+                .caseOf(EQ[30], x -> 30)
+                .caseOf(EQ[31], x -> 31)
+                .caseOf(EQ[32], x -> 32)
+                .caseOf(EQ[33], x -> 33)
+                .caseOf(EQ[34], x -> 34)
+                .caseOf(EQ[35], x -> 35)
+                .caseOf(EQ[36], x -> 36)
+                .caseOf(EQ[37], x -> 37)
+                .caseOf(EQ[38], x -> 38)
+                .caseOf(EQ[39], x -> 39)
+                .caseOf(EQ[40], x -> 40)
+                .caseOf(EQ[41], x -> 41)
+                .caseOf(EQ[42], x -> 42)
+                .caseOf(EQ[43], x -> 43)
+                .caseOf(EQ[44], x -> 44)
+                .caseOf(EQ[45], x -> 45)
+                .caseOf(EQ[46], x -> 46)
+                .caseOf(EQ[47], x -> 47)
+                .caseOf(EQ[48], x -> 48)
+                .caseOf(EQ[49], x -> 49)
+                .caseOf(EQ[50], x -> 50)
+                .caseOf(EQ[51], x -> 51)
+                .caseOf(EQ[52], x -> 52)
+                .caseOf(EQ[53], x -> 53)
+                .caseOf(EQ[54], x -> 54)
+                .caseOf(EQ[55], x -> 55)
+                .caseOf(EQ[56], x -> 56)
+                .caseOf(EQ[57], x -> 57)
+                .caseOf(EQ[58], x -> 58)
+                .caseOf(EQ[59], x -> 59)
+                .caseOf(EQ[60], x -> 60)
+                .caseOf(EQ[61], x -> 61)
+                .caseOf(EQ[62], x -> 62)
+                .caseOf(EQ[63], x -> 63)
+                .otherwise(-1);
+    }
+
+    private static int match1(Object o) {
+        EagerMatcher.match(o)
+                .caseOf(EQ[0], x -> sink = 0)
+                .otherwise(x -> sink = -1);
+        return sink;
+    }
+
+    private static int match4(Object o) {
+        EagerMatcher.match(o)
+                .caseOf(EQ[0], x -> sink = 0)
+                .caseOf(EQ[1], x -> sink = 1)
+                .caseOf(EQ[2], x -> sink = 2)
+                .caseOf(EQ[3], x -> sink = 3)
+                .otherwise(x -> sink = -1);
+        return sink;
+    }
+
+    private static int match16(Object o) {
+        EagerMatcher.match(o)
+                .caseOf(EQ[0], x -> sink = 0)
+                .caseOf(EQ[1], x -> sink = 1)
+                .caseOf(EQ[2], x -> sink = 2)
+                .caseOf(EQ[3], x -> sink = 3)
+                .caseOf(EQ[4], x -> sink = 4)
+                .caseOf(EQ[5], x -> sink = 5)
+                .caseOf(EQ[6], x -> sink = 6)
+                .caseOf(EQ[7], x -> sink = 7)
+                .caseOf(EQ[8], x -> sink = 8)
+                .caseOf(EQ[9], x -> sink = 9)
+                .caseOf(EQ[10], x -> sink = 10)
+                .caseOf(EQ[11], x -> sink = 11)
+                .caseOf(EQ[12], x -> sink = 12)
+                .caseOf(EQ[13], x -> sink = 13)
+                .caseOf(EQ[14], x -> sink = 14)
+                .caseOf(EQ[15], x -> sink = 15)
+                .otherwise(x -> sink = -1);
+        return sink;
+    }
+
+    private static int match64(Object o) {
+        EagerMatcher.match(o)
+                .caseOf(EQ[0], x -> sink = 0)
+                .caseOf(EQ[1], x -> sink = 1)
+                .caseOf(EQ[2], x -> sink = 2)
+                .caseOf(EQ[3], x -> sink = 3)
+                .caseOf(EQ[4], x -> sink = 4)
+                .caseOf(EQ[5], x -> sink = 5)
+                .caseOf(EQ[6], x -> sink = 6)
+                .caseOf(EQ[7], x -> sink = 7)
+                .caseOf(EQ[8], x -> sink = 8)
+                .caseOf(EQ[9], x -> sink = 9)
+                .caseOf(EQ[10], x -> sink = 10)
+                .caseOf(EQ[11], x -> sink = 11)
+                .caseOf(EQ[12], x -> sink = 12)
+                .caseOf(EQ[13], x -> sink = 13)
+                .caseOf(EQ[14], x -> sink = 14)
+                .caseOf(EQ[15], x -> sink = 15)
+                .caseOf(EQ[16], x -> sink = 16)
+                .caseOf(EQ[17], x -> sink = 17)
+                .caseOf(EQ[18], x -> sink = 18)
+                .caseOf(EQ[19], x -> sink = 19)
+                .caseOf(EQ[20], x -> sink = 20)
+                .caseOf(EQ[21], x -> sink = 21)
+                .caseOf(EQ[22], x -> sink = 22)
+                .caseOf(EQ[23], x -> sink = 23)
+                .caseOf(EQ[24], x -> sink = 24)
+                .caseOf(EQ[25], x -> sink = 25)
+                .caseOf(EQ[26], x -> sink = 26)
+                .caseOf(EQ[27], x -> sink = 27)
+                .caseOf(EQ[28], x -> sink = 28)
+                .caseOf(EQ[29], x -> sink = 29)
+                .caseOf(EQ[30], x -> sink = 30)
+                .caseOf(EQ[31], x -> sink = 31)
+                .caseOf(EQ[32], x -> sink = 32)
+                .caseOf(EQ[33], x -> sink = 33)
+                .caseOf(EQ[34], x -> sink = 34)
+                .caseOf(EQ[35], x -> sink = 35)
+                .caseOf(EQ[36], x -> sink = 36)
+                .caseOf(EQ[37], x -> sink = 37)
+                .caseOf(EQ[38], x -> sink = 38)
+                .caseOf(EQ[39], x -> sink = 39)
+                .caseOf(EQ[40], x -> sink = 40)
+                .caseOf(EQ[41], x -> sink = 41)
+                .caseOf(EQ[42], x -> sink = 42)
+                .caseOf(EQ[43], x -> sink = 43)
+                .caseOf(EQ[44], x -> sink = 44)
+                .caseOf(EQ[45], x -> sink = 45)
+                .caseOf(EQ[46], x -> sink = 46)
+                .caseOf(EQ[47], x -> sink = 47)
+                .caseOf(EQ[48], x -> sink = 48)
+                .caseOf(EQ[49], x -> sink = 49)
+                .caseOf(EQ[50], x -> sink = 50)
+                .caseOf(EQ[51], x -> sink = 51)
+                .caseOf(EQ[52], x -> sink = 52)
+                .caseOf(EQ[53], x -> sink = 53)
+                .caseOf(EQ[54], x -> sink = 54)
+                .caseOf(EQ[55], x -> sink = 55)
+                .caseOf(EQ[56], x -> sink = 56)
+                .caseOf(EQ[57], x -> sink = 57)
+                .caseOf(EQ[58], x -> sink = 58)
+                .caseOf(EQ[59], x -> sink = 59)
+                .caseOf(EQ[60], x -> sink = 60)
+                .caseOf(EQ[61], x -> sink = 61)
+                .caseOf(EQ[62], x -> sink = 62)
+                .caseOf(EQ[63], x -> sink = 63)
+                .otherwise(x -> sink = -1);
+        return sink;
+    }
+
+    private static int ifElse1(Object o) {
+        if ("k0".equals(o)) {
+            sink = 0;
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int ifElse4(Object o) {
+        if ("k0".equals(o)) {
+            sink = 0;
+        } else if ("k1".equals(o)) {
+            sink = 1;
+        } else if ("k2".equals(o)) {
+            sink = 2;
+        } else if ("k3".equals(o)) {
+            sink = 3;
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int ifElse16(Object o) {
+        if ("k0".equals(o)) {
+            sink = 0;
+        } else if ("k1".equals(o)) {
+            sink = 1;
+        } else if ("k2".equals(o)) {
+            sink = 2;
+        } else if ("k3".equals(o)) {
+            sink = 3;
+        } else if ("k4".equals(o)) {
+            sink = 4;
+        } else if ("k5".equals(o)) {
+            sink = 5;
+        } else if ("k6".equals(o)) {
+            sink = 6;
+        } else if ("k7".equals(o)) {
+            sink = 7;
+        } else if ("k8".equals(o)) {
+            sink = 8;
+        } else if ("k9".equals(o)) {
+            sink = 9;
+        } else if ("k10".equals(o)) {
+            sink = 10;
+        } else if ("k11".equals(o)) {
+            sink = 11;
+        } else if ("k12".equals(o)) {
+            sink = 12;
+        } else if ("k13".equals(o)) {
+            sink = 13;
+        } else if ("k14".equals(o)) {
+            sink = 14;
+        } else if ("k15".equals(o)) {
+            sink = 15;
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int ifElse64(Object o) {
+        if ("k0".equals(o)) {
+            sink = 0;
+        } else if ("k1".equals(o)) {
+            sink = 1;
+        } else if ("k2".equals(o)) {
+            sink = 2;
+        } else if ("k3".equals(o)) {
+            sink = 3;
+        } else if ("k4".equals(o)) {
+            sink = 4;
+        } else if ("k5".equals(o)) {
+            sink = 5;
+        } else if ("k6".equals(o)) {
+            sink = 6;
+        } else if ("k7".equals(o)) {
+            sink = 7;
+        } else if ("k8".equals(o)) {
+            sink = 8;
+        } else if ("k9".equals(o)) {
+            sink = 9;
+        } else if ("k10".equals(o)) {
+            sink = 10;
+        } else if ("k11".equals(o)) {
+            sink = 11;
+        } else if ("k12".equals(o)) {
+            sink = 12;
+        } else if ("k13".equals(o)) {
+            sink = 13;
+        } else if ("k14".equals(o)) {
+            sink = 14;
+        } else if ("k15".equals(o)) {
+            sink = 15;
+        } else if ("k16".equals(o)) {
+            sink = 16;
+        } else if ("k17".equals(o)) {
+            sink = 17;
+        } else if ("k18".equals(o)) {
+            sink = 18;
+        } else if ("k19".equals(o)) {
+            sink = 19;
+        } else if ("k20".equals(o)) {
+            sink = 20;
+        } else if ("k21".equals(o)) {
+            sink = 21;
+        } else if ("k22".equals(o)) {
+            sink = 22;
+        } else if ("k23".equals(o)) {
+            sink = 23;
+        } else if ("k24".equals(o)) {
+            sink = 24;
+        } else if ("k25".equals(o)) {
+            sink = 25;
+        } else if ("k26".equals(o)) {
+            sink = 26;
+        } else if ("k27".equals(o)) {
+            sink = 27;
+        } else if ("k28".equals(o)) {
+            sink = 28;
+        } else if ("k29".equals(o)) {
+            sink = 29;
+        } else if ("k30".equals(o)) {
+            sink = 30;
+        } else if ("k31".equals(o)) {
+            sink = 31;
+        } else if ("k32".equals(o)) {
+            sink = 32;
+        } else if ("k33".equals(o)) {
+            sink = 33;
+        } else if ("k34".equals(o)) {
+            sink = 34;
+        } else if ("k35".equals(o)) {
+            sink = 35;
+        } else if ("k36".equals(o)) {
+            sink = 36;
+        } else if ("k37".equals(o)) {
+            sink = 37;
+        } else if ("k38".equals(o)) {
+            sink = 38;
+        } else if ("k39".equals(o)) {
+            sink = 39;
+        } else if ("k40".equals(o)) {
+            sink = 40;
+        } else if ("k41".equals(o)) {
+            sink = 41;
+        } else if ("k42".equals(o)) {
+            sink = 42;
+        } else if ("k43".equals(o)) {
+            sink = 43;
+        } else if ("k44".equals(o)) {
+            sink = 44;
+        } else if ("k45".equals(o)) {
+            sink = 45;
+        } else if ("k46".equals(o)) {
+            sink = 46;
+        } else if ("k47".equals(o)) {
+            sink = 47;
+        } else if ("k48".equals(o)) {
+            sink = 48;
+        } else if ("k49".equals(o)) {
+            sink = 49;
+        } else if ("k50".equals(o)) {
+            sink = 50;
+        } else if ("k51".equals(o)) {
+            sink = 51;
+        } else if ("k52".equals(o)) {
+            sink = 52;
+        } else if ("k53".equals(o)) {
+            sink = 53;
+        } else if ("k54".equals(o)) {
+            sink = 54;
+        } else if ("k55".equals(o)) {
+            sink = 55;
+        } else if ("k56".equals(o)) {
+            sink = 56;
+        } else if ("k57".equals(o)) {
+            sink = 57;
+        } else if ("k58".equals(o)) {
+            sink = 58;
+        } else if ("k59".equals(o)) {
+            sink = 59;
+        } else if ("k60".equals(o)) {
+            sink = 60;
+        } else if ("k61".equals(o)) {
+            sink = 61;
+        } else if ("k62".equals(o)) {
+            sink = 62;
+        } else if ("k63".equals(o)) {
+            sink = 63;
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int switchCase1(Object o) {
+        if (o instanceof String) {
+            switch ((String) o) {
+                case "k0":
+                    sink = 0;
+                    break;
+                default:
+                    sink = -1;
+            }
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int switchCase4(Object o) {
+        if (o instanceof String) {
+            switch ((String) o) {
+                case "k0":
+                    sink = 0;
+                    break;
+                case "k1":
+                    sink = 1;
+                    break;
+                case "k2":
+                    sink = 2;
+                    break;
+                case "k3":
+                    sink = 3;
+                    break;
+                default:
+                    sink = -1;
+            }
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int switchCase16(Object o) {
+        if (o instanceof String) {
+            switch ((String) o) {
+                case "k0":
+                    sink = 0;
+                    break;
+                case "k1":
+                    sink = 1;
+                    break;
+                case "k2":
+                    sink = 2;
+                    break;
+                case "k3":
+                    sink = 3;
+                    break;
+                case "k4":
+                    sink = 4;
+                    break;
+                case "k5":
+                    sink = 5;
+                    break;
+                case "k6":
+                    sink = 6;
+                    break;
+                case "k7":
+                    sink = 7;
+                    break;
+                case "k8":
+                    sink = 8;
+                    break;
+                case "k9":
+                    sink = 9;
+                    break;
+                case "k10":
+                    sink = 10;
+                    break;
+                case "k11":
+                    sink = 11;
+                    break;
+                case "k12":
+                    sink = 12;
+                    break;
+                case "k13":
+                    sink = 13;
+                    break;
+                case "k14":
+                    sink = 14;
+                    break;
+                case "k15":
+                    sink = 15;
+                    break;
+                default:
+                    sink = -1;
+            }
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+
+    private static int switchCase64(Object o) {
+        if (o instanceof String) {
+            switch ((String) o) {
+                case "k0":
+                    sink = 0;
+                    break;
+                case "k1":
+                    sink = 1;
+                    break;
+                case "k2":
+                    sink = 2;
+                    break;
+                case "k3":
+                    sink = 3;
+                    break;
+                case "k4":
+                    sink = 4;
+                    break;
+                case "k5":
+                    sink = 5;
+                    break;
+                case "k6":
+                    sink = 6;
+                    break;
+                case "k7":
+                    sink = 7;
+                    break;
+                case "k8":
+                    sink = 8;
+                    break;
+                case "k9":
+                    sink = 9;
+                    break;
+                case "k10":
+                    sink = 10;
+                    break;
+                case "k11":
+                    sink = 11;
+                    break;
+                case "k12":
+                    sink = 12;
+                    break;
+                case "k13":
+                    sink = 13;
+                    break;
+                case "k14":
+                    sink = 14;
+                    break;
+                case "k15":
+                    sink = 15;
+                    break;
+                case "k16":
+                    sink = 16;
+                    break;
+                case "k17":
+                    sink = 17;
+                    break;
+                case "k18":
+                    sink = 18;
+                    break;
+                case "k19":
+                    sink = 19;
+                    break;
+                case "k20":
+                    sink = 20;
+                    break;
+                case "k21":
+                    sink = 21;
+                    break;
+                case "k22":
+                    sink = 22;
+                    break;
+                case "k23":
+                    sink = 23;
+                    break;
+                case "k24":
+                    sink = 24;
+                    break;
+                case "k25":
+                    sink = 25;
+                    break;
+                case "k26":
+                    sink = 26;
+                    break;
+                case "k27":
+                    sink = 27;
+                    break;
+                case "k28":
+                    sink = 28;
+                    break;
+                case "k29":
+                    sink = 29;
+                    break;
+                case "k30":
+                    sink = 30;
+                    break;
+                case "k31":
+                    sink = 31;
+                    break;
+                case "k32":
+                    sink = 32;
+                    break;
+                case "k33":
+                    sink = 33;
+                    break;
+                case "k34":
+                    sink = 34;
+                    break;
+                case "k35":
+                    sink = 35;
+                    break;
+                case "k36":
+                    sink = 36;
+                    break;
+                case "k37":
+                    sink = 37;
+                    break;
+                case "k38":
+                    sink = 38;
+                    break;
+                case "k39":
+                    sink = 39;
+                    break;
+                case "k40":
+                    sink = 40;
+                    break;
+                case "k41":
+                    sink = 41;
+                    break;
+                case "k42":
+                    sink = 42;
+                    break;
+                case "k43":
+                    sink = 43;
+                    break;
+                case "k44":
+                    sink = 44;
+                    break;
+                case "k45":
+                    sink = 45;
+                    break;
+                case "k46":
+                    sink = 46;
+                    break;
+                case "k47":
+                    sink = 47;
+                    break;
+                case "k48":
+                    sink = 48;
+                    break;
+                case "k49":
+                    sink = 49;
+                    break;
+                case "k50":
+                    sink = 50;
+                    break;
+                case "k51":
+                    sink = 51;
+                    break;
+                case "k52":
+                    sink = 52;
+                    break;
+                case "k53":
+                    sink = 53;
+                    break;
+                case "k54":
+                    sink = 54;
+                    break;
+                case "k55":
+                    sink = 55;
+                    break;
+                case "k56":
+                    sink = 56;
+                    break;
+                case "k57":
+                    sink = 57;
+                    break;
+                case "k58":
+                    sink = 58;
+                    break;
+                case "k59":
+                    sink = 59;
+                    break;
+                case "k60":
+                    sink = 60;
+                    break;
+                case "k61":
+                    sink = 61;
+                    break;
+                case "k62":
+                    sink = 62;
+                    break;
+                case "k63":
+                    sink = 63;
+                    break;
+                default:
+                    sink = -1;
+            }
+        } else {
+            sink = -1;
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,94 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.function.optionalmap.OptionalMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static de.boereck.matcher.eager.EagerMatcher.resultMatchInPlace;
+import static de.boereck.matcher.helpers.MatchHelpers.cast;
+
+/**
+ * Compares a seven stage {@link OptionalMapper} chain, fused into a single stage loop by the combinators, with the
+ * same stages written as a chain of {@code Optional} calls, which creates an optional per stage.
+ * <p>
+ * The chain runs in a {@code caseObj} case of the in-place eager matcher, which probes the fused mapper without
+ * creating an optional for the result. Inputs are the String keys of {@link Inputs#keys(int)}, so some inputs pass all
+ * stages and some are filtered out on the way.
+ * </p>
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FusedMapperBenchmark {
+
+    private static final OptionalMapper<Object, String> FUSED = cast(String.class)
+            .filter(s -> s.length() > 1)
+            .map(s -> s.substring(1))
+            .flatMap(s -> s.isEmpty() ? Optional.empty() : Optional.of(s))
+            .filter(s -> Character.isDigit(s.charAt(0)))
+            .map(s -> s.length() == 1 ? s : null)
+            .nullAware();
+
+    private static final Function<Object, Optional<String>> OPTIONAL_CHAIN = o -> Optional.ofNullable(o)
+            .filter(String.class::isInstance)
+            .map(String.class::cast)
+            .filter(s -> s.length() > 1)
+            .map(s -> s.substring(1))
+            .flatMap(s -> s.isEmpty() ? Optional.empty() : Optional.of(s))
+            .filter(s -> Character.isDigit(s.charAt(0)))
+            .map(s -> s.length() == 1 ? s : null);
+
+    private Object[] inputs;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        inputs = Inputs.keys(16);
+    }
+
+    private Object next() {
+        return inputs[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Case on the fused mapper.
+     */
+    @Benchmark
+    public String fused() {
+        return resultMatchInPlace(String.class, next())
+                .caseObj(FUSED, s -> s)
+                .otherwise("none");
+    }
+
+    /**
+     * Case on the chain of {@code Optional} calls.
+     */
+    @Benchmark
+    public String optionalChain() {
+        return resultMatchInPlace(String.class, next())
+                .caseObj(OPTIONAL_CHAIN, s -> s)
+                .otherwise("none");
+    }
+}
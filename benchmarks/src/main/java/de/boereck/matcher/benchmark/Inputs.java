@@ -0,0 +1,118 @@
+package de.boereck.matcher.benchmark;
+
+import java.util.Random;
+
+import de.boereck.matcher.function.predicate.AdvPredicate;
+
+import static de.boereck.matcher.helpers.MatchHelpers.eq;
+
+/**
+ * Provides input data for the matcher benchmarks. All inputs are generated with a fixed seed, so runs are comparable.
+ * Inputs are spread evenly over all cases of a chain plus one value that is not matched by any case.
+ * <p>
+ * This class is not intended to be instantiated or sub-classed.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+final class Inputs {
+
+    private Inputs() {
+        throw new IllegalStateException("Class Inputs must not be instantiated");
+    }
+
+    /**
+     * Amount of inputs generated per benchmark, must be a power of two.
+     */
+    static final int SIZE = 1024;
+
+    /**
+     * Mask to wrap a running index into the input arrays.
+     */
+    static final int MASK = SIZE - 1;
+
+    /**
+     * Multiplier spreading long case constants over a range not representable by int.
+     */
+    static final long LONG_STRIDE = 1L << 33;
+
+    private static final long SEED = 42L;
+
+    /**
+     * Returns int inputs in range {@code [0, caseCount]}, where {@code caseCount} is not matched by any case.
+     *
+     * @param caseCount amount of cases in the benchmarked chain
+     * @return shuffled int inputs
+     */
+    static int[] ints(int caseCount) {
+        final Random random = new Random(SEED);
+        final int[] result = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            result[i] = random.nextInt(caseCount + 1);
+        }
+        return result;
+    }
+
+    /**
+     * Returns multiples of {@link #LONG_STRIDE} as long inputs, where {@code caseCount * LONG_STRIDE} is not matched by
+     * any case.
+     *
+     * @param caseCount amount of cases in the benchmarked chain
+     * @return shuffled long inputs
+     */
+    static long[] longs(int caseCount) {
+        final int[] ints = ints(caseCount);
+        final long[] result = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            result[i] = ints[i] * LONG_STRIDE;
+        }
+        return result;
+    }
+
+    /**
+     * Returns double inputs in range {@code [0, caseCount + 1)}, where values {@code >= caseCount} are not matched by
+     * any case.
+     *
+     * @param caseCount amount of cases in the benchmarked chain
+     * @return shuffled double inputs
+     */
+    static double[] doubles(int caseCount) {
+        final Random random = new Random(SEED);
+        final double[] result = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            result[i] = random.nextDouble() * (caseCount + 1);
+        }
+        return result;
+    }
+
+    /**
+     * Returns String keys {@code "k0"} to {@code "k<caseCount - 1>"} and {@code "miss"}, which is not matched by any
+     * case. Every key is a fresh String instance, so equality checks cannot short-cut on identity.
+     *
+     * @param caseCount amount of cases in the benchmarked chain
+     * @return shuffled String inputs
+     */
+    static Object[] keys(int caseCount) {
+        final int[] ints = ints(caseCount);
+        final Object[] result = new Object[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            final int key = ints[i];
+            result[i] = key == caseCount ? new String("miss") : new String("k" + key);
+        }
+        return result;
+    }
+
+    /**
+     * Returns predicates checking for equality with the keys provided by {@link #keys(int)}.
+     *
+     * @return predicate at index {@code i} checks for equality with {@code "k" + i}.
+     */
+    @SuppressWarnings("unchecked")
+    static AdvPredicate<Object>[] keyPredicates() {
+        final AdvPredicate<Object>[] result = (AdvPredicate<Object>[]) new AdvPredicate<?>[64];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = eq("k" + i);
+        }
+        return result;
+    }
+}
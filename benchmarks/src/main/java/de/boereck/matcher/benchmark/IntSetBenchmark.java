@@ -0,0 +1,111 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.function.predicate.AdvIntPredicate;
+import de.boereck.matcher.helpers.IntMatchHelpers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link IntMatchHelpers#oneOf(int, int...)} and {@link IntMatchHelpers#allExcept(int, int...)} on sets of
+ * {@code size} values, compared to a binary search on the sorted values. With {@code layout} {@code dense} the values
+ * are every third int starting at zero, with {@code sparse} they are random ints. Half of the inputs are contained in
+ * the set.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IntSetBenchmark {
+
+    /**
+     * Amount of values in the set
+     */
+    @Param({"2", "8", "64", "1024", "65536", "1048576"})
+    public int size;
+
+    /**
+     * Distribution of the values in the set, either {@code dense} or {@code sparse}
+     */
+    @Param({"dense", "sparse"})
+    public String layout;
+
+    private int[] inputs;
+
+    private int index;
+
+    private int[] sorted;
+
+    private AdvIntPredicate oneOf;
+
+    private AdvIntPredicate allExcept;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42L);
+        final int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = "dense".equals(layout) ? 3 * i : random.nextInt();
+        }
+        final int[] more = Arrays.copyOfRange(values, 1, size);
+        oneOf = IntMatchHelpers.oneOf(values[0], more);
+        allExcept = IntMatchHelpers.allExcept(values[0], more);
+        sorted = values.clone();
+        Arrays.sort(sorted);
+        inputs = new int[Inputs.SIZE];
+        for (int i = 0; i < inputs.length; i++) {
+            final int value = values[random.nextInt(size)];
+            // every other input is a neighbour of a value in the set, which is not contained in dense sets
+            inputs[i] = random.nextBoolean() ? value : value + 1;
+        }
+    }
+
+    private int next() {
+        return inputs[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Set created by {@code oneOf}.
+     */
+    @Benchmark
+    public boolean oneOf() {
+        return oneOf.test(next());
+    }
+
+    /**
+     * Set created by {@code allExcept}.
+     */
+    @Benchmark
+    public boolean allExcept() {
+        return allExcept.test(next());
+    }
+
+    /**
+     * Binary search on the sorted values, as used by {@code oneOf} and {@code allExcept} before the representation of
+     * the set was chosen by the size and range of the values.
+     */
+    @Benchmark
+    public boolean binarySearch() {
+        return Arrays.binarySearch(sorted, next()) >= 0;
+    }
+}
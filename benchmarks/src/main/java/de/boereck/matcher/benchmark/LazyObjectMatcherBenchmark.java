@@ -0,0 +1,95 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.function.predicate.AdvPredicate;
+import de.boereck.matcher.lazy.CaseEvaluation;
+import de.boereck.matcher.lazy.LazyMatcher;
+import de.boereck.matcher.lazy.LazyResultCaseMatcher;
+import de.boereck.matcher.lazy.MatchingFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lazy result matcher on the same String keys as {@link EagerObjectMatcherBenchmark}, so the results of
+ * both benchmarks can be compared. The lazy matcher is defined once during setup and then applied to every input.
+ * Parameter {@code evaluation} compares evaluating the case table in a loop with evaluating it in a generated class
+ * or via a tree of method handles.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LazyObjectMatcherBenchmark {
+
+    /**
+     * Amount of cases in the benchmarked case table
+     */
+    @Param({"1", "4", "16", "64"})
+    public int caseCount;
+
+    /**
+     * Strategy evaluating the cases of the benchmarked case table
+     */
+    @Param({"TABLE", "GENERATED_CLASS", "METHOD_HANDLES"})
+    public CaseEvaluation evaluation;
+
+    private Object[] inputs;
+
+    private int index;
+
+    private LazyResultCaseMatcher<Object, Integer> matcher;
+
+    private MatchingFunction<Object, Integer> otherwise;
+
+    @Setup
+    public void setUp() {
+        inputs = Inputs.keys(caseCount);
+        final AdvPredicate<Object>[] eq = Inputs.keyPredicates();
+        LazyResultCaseMatcher<Object, Integer> m = LazyMatcher.<Object, Integer>lazyResultMatch().evaluatedBy(evaluation);
+        for (int i = 0; i < caseCount; i++) {
+            final Integer result = i;
+            m = m.caseOf(eq[i], x -> result);
+        }
+        matcher = m;
+        otherwise = m.otherwise(-1);
+    }
+
+    private Object next() {
+        return inputs[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Lazy matcher closed with {@code otherwise}, returning the plain result without wrapping it.
+     */
+    @Benchmark
+    public Integer otherwise() {
+        return otherwise.apply(next());
+    }
+
+    /**
+     * Lazy matcher applied directly, wrapping the result into an {@link Optional}.
+     */
+    @Benchmark
+    public Optional<Integer> apply() {
+        return matcher.apply(next());
+    }
+}
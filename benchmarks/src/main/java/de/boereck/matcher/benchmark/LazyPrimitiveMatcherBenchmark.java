@@ -0,0 +1,184 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.function.predicate.AdvDoublePredicate;
+import de.boereck.matcher.helpers.DoubleMatchHelpers;
+import de.boereck.matcher.helpers.IntMatchHelpers;
+import de.boereck.matcher.lazy.DoubleMatchingFunction;
+import de.boereck.matcher.lazy.IntMatchingFunction;
+import de.boereck.matcher.lazy.LazyMatcher;
+import de.boereck.matcher.lazy.LazyResultDoubleCaseMatcher;
+import de.boereck.matcher.lazy.LazyResultIntCaseMatcher;
+import de.boereck.matcher.lazy.LazyResultLongCaseMatcher;
+import de.boereck.matcher.lazy.LongMatchingFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lazy int and long result matchers on chains of constant and range cases, which are compiled into lookup
+ * tables. The int and long constants are the same as in {@link EagerIntMatcherBenchmark} and
+ * {@link EagerLongMatcherBenchmark}, so the results can be compared with the eager matchers and the hand-written
+ * switch statements. The int constants are dense and are looked up in an array, the long constants are multiples of
+ * {@link Inputs#LONG_STRIDE} and are looked up in a hash table. The range cases each cover ten values and are
+ * found by binary search. The double threshold chains are the {@code lt} buckets of {@link EagerDoubleMatcherBenchmark},
+ * once compiled into a breakpoint table and once hidden behind plain predicates, which are tested one after another.
+ * The {@code Bulk} benchmarks classify all {@link Inputs#SIZE} inputs in one call; their
+ * scores are reported per input, so they can be compared with the benchmarks matching one input per call.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LazyPrimitiveMatcherBenchmark {
+
+    /**
+     * Width of the range cases
+     */
+    private static final int RANGE_WIDTH = 10;
+
+    /**
+     * Amount of cases in the benchmarked chains
+     */
+    @Param({"1", "4", "16", "64"})
+    public int caseCount;
+
+    private int[] ints;
+
+    private long[] longs;
+
+    private int[] rangeInputs;
+
+    private double[] doubles;
+
+    private int index;
+
+    private IntMatchingFunction<Integer> intConstants;
+
+    private LongMatchingFunction<Integer> longConstants;
+
+    private IntMatchingFunction<Integer> intRanges;
+
+    private LazyResultIntCaseMatcher<Integer> rangeMatcher;
+
+    private DoubleMatchingFunction<Integer> doubleThresholds;
+
+    private DoubleMatchingFunction<Integer> doubleThresholdsLinear;
+
+    private int[] caseIndices;
+
+    private Integer[] results;
+
+    @Setup
+    public void setUp() {
+        ints = Inputs.ints(caseCount);
+        longs = Inputs.longs(caseCount);
+        doubles = Inputs.doubles(caseCount);
+        rangeInputs = new int[Inputs.SIZE];
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            // shifted away from the start of the range, so not only the bounds are hit
+            rangeInputs[i] = ints[i] * RANGE_WIDTH + (i % RANGE_WIDTH);
+        }
+        LazyResultIntCaseMatcher<Integer> intMatcher = LazyMatcher.lazyResultIntMatch();
+        LazyResultLongCaseMatcher<Integer> longMatcher = LazyMatcher.lazyResultLongMatch();
+        LazyResultIntCaseMatcher<Integer> rangeMatcher = LazyMatcher.lazyResultIntMatch();
+        LazyResultDoubleCaseMatcher<Integer> thresholdMatcher = LazyMatcher.lazyResultDoubleMatch();
+        LazyResultDoubleCaseMatcher<Integer> linearMatcher = LazyMatcher.lazyResultDoubleMatch();
+        for (int c = 0; c < caseCount; c++) {
+            final Integer result = c;
+            intMatcher = intMatcher.caseOf(c, i -> result);
+            longMatcher = longMatcher.caseOf(c * Inputs.LONG_STRIDE, l -> result);
+            rangeMatcher = rangeMatcher.caseOf(IntMatchHelpers.inClosedRange(c * RANGE_WIDTH, c * RANGE_WIDTH + RANGE_WIDTH - 1), i -> result);
+            final AdvDoublePredicate lt = DoubleMatchHelpers.lt(c + 1);
+            thresholdMatcher = thresholdMatcher.caseOf(lt, d -> result);
+            // the lambda is not a DoubleRange, so the case is not compiled
+            linearMatcher = linearMatcher.caseOf(d -> lt.test(d), d -> result);
+        }
+        intConstants = intMatcher.otherwise(-1);
+        longConstants = longMatcher.otherwise(-1);
+        intRanges = rangeMatcher.otherwise(-1);
+        this.rangeMatcher = rangeMatcher;
+        doubleThresholds = thresholdMatcher.otherwise(-1);
+        doubleThresholdsLinear = linearMatcher.otherwise(-1);
+        caseIndices = new int[Inputs.SIZE];
+        results = new Integer[Inputs.SIZE];
+    }
+
+    /**
+     * Lazy int matcher with constant cases.
+     */
+    @Benchmark
+    public Integer intConstants() {
+        return intConstants.apply(ints[index++ & Inputs.MASK]);
+    }
+
+    /**
+     * Lazy long matcher with constant cases.
+     */
+    @Benchmark
+    public Integer longConstants() {
+        return longConstants.apply(longs[index++ & Inputs.MASK]);
+    }
+
+    /**
+     * Lazy int matcher with {@link IntMatchHelpers#inClosedRange(int, int) inClosedRange} cases.
+     */
+    @Benchmark
+    public Integer intRanges() {
+        return intRanges.apply(rangeInputs[index++ & Inputs.MASK]);
+    }
+
+    /**
+     * Lazy double matcher with {@link DoubleMatchHelpers#lt(double) lt} cases, compiled into a breakpoint table.
+     */
+    @Benchmark
+    public Integer doubleThresholds() {
+        return doubleThresholds.apply(doubles[index++ & Inputs.MASK]);
+    }
+
+    /**
+     * Lazy double matcher with the same thresholds as {@link #doubleThresholds()}, tested one case after another.
+     */
+    @Benchmark
+    public Integer doubleThresholdsLinear() {
+        return doubleThresholdsLinear.apply(doubles[index++ & Inputs.MASK]);
+    }
+
+    /**
+     * Case indices of all range inputs, computed in one call.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public int[] intRangesBulkIndices() {
+        rangeMatcher.caseIndices(rangeInputs, caseIndices);
+        return caseIndices;
+    }
+
+    /**
+     * Results of all range inputs, computed in one call.
+     */
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public Integer[] intRangesBulkResults() {
+        rangeMatcher.matchAll(rangeInputs, results, -1);
+        return results;
+    }
+}
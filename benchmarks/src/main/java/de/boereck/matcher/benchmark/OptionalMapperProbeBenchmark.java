@@ -0,0 +1,98 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.function.optionalmap.OptionalDoubleMapper;
+import de.boereck.matcher.function.optionalmap.OptionalIntMapper;
+import de.boereck.matcher.function.optionalmap.OptionalLongMapper;
+import de.boereck.matcher.function.testable.TestableToIntFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static de.boereck.matcher.eager.EagerMatcher.resultMatchInPlace;
+
+/**
+ * Compares primitive cases of the in-place eager matcher on chains of optional mapper combinators, once probing the
+ * mappers into the matcher's slot and once applying them like plain functions returning primitive optionals.
+ * <p>
+ * Every case runs a chain of three steps on the length of String keys, so the applying variant allocates an optional
+ * per step, while the probing variant passes the values through the slot.
+ * </p>
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OptionalMapperProbeBenchmark {
+
+    private static final TestableToIntFunction<Object> LENGTH = o -> ((String) o).length();
+
+    private static final OptionalLongMapper<Object> MISS = LENGTH.filter(l -> l == 4).mapI(l -> l * 3).mapL(l -> l + 1);
+
+    private static final OptionalIntMapper<Object> SHORT = LENGTH.filter(l -> l == 2).mapI(l -> l * 3).filter(l -> l > 0);
+
+    private static final OptionalDoubleMapper<Object> LONG = LENGTH.nullAware().mapD(l -> l * 0.5).filter(d -> d > 1);
+
+    private static final Function<Object, OptionalLong> MISS_APPLIED = o -> MISS.apply(o);
+
+    private static final Function<Object, OptionalInt> SHORT_APPLIED = o -> SHORT.apply(o);
+
+    private static final Function<Object, OptionalDouble> LONG_APPLIED = o -> LONG.apply(o);
+
+    private Object[] inputs;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        inputs = Inputs.keys(16);
+    }
+
+    private Object next() {
+        return inputs[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Cases on the mappers, which the matcher probes.
+     */
+    @Benchmark
+    public long probed() {
+        return resultMatchInPlace(Long.class, next())
+                .caseLong(MISS, l -> l)
+                .caseInt(SHORT, i -> (long) i)
+                .caseDouble(LONG, d -> (long) d)
+                .otherwise(-1L);
+    }
+
+    /**
+     * Cases on plain functions applying the mappers, so every step returns an optional.
+     */
+    @Benchmark
+    public long applied() {
+        return resultMatchInPlace(Long.class, next())
+                .caseLong(MISS_APPLIED, l -> l)
+                .caseInt(SHORT_APPLIED, i -> (long) i)
+                .caseDouble(LONG_APPLIED, d -> (long) d)
+                .otherwise(-1L);
+    }
+}
@@ -0,0 +1,78 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.helpers.PatternCache;
+import de.boereck.matcher.helpers.StringMatchHelpers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Measures creating a regular expression predicate and testing one input with it, as done when predicates are built
+ * from configuration inside request handlers. The same {@link #expressionCount} expressions are requested over and
+ * over, once via {@link StringMatchHelpers#matches(String)}, which looks the compiled pattern up in the shared
+ * {@link PatternCache}, and once compiling the expression on every request, as {@code matches} did before the cache.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PatternCacheBenchmark {
+
+    /**
+     * Amount of distinct expressions requested
+     */
+    @Param({"1", "64"})
+    public int expressionCount;
+
+    private String[] expressions;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        expressions = new String[expressionCount];
+        for (int i = 0; i < expressionCount; i++) {
+            expressions[i] = "(?:k" + i + "|key-" + i + ")[a-z]*\\d{0,3}";
+        }
+    }
+
+    private String nextExpression() {
+        return expressions[index++ % expressionCount];
+    }
+
+    /**
+     * Predicate created via the pattern cache.
+     */
+    @Benchmark
+    public boolean cached() {
+        return StringMatchHelpers.matches(nextExpression()).test("key-0abc12");
+    }
+
+    /**
+     * Predicate compiling its expression on every request.
+     */
+    @Benchmark
+    public boolean compiled() {
+        final Pattern pattern = Pattern.compile(nextExpression());
+        return pattern.matcher("key-0abc12").matches();
+    }
+}
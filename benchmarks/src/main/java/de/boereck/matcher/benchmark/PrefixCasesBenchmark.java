@@ -0,0 +1,124 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.function.predicate.AdvPredicate;
+import de.boereck.matcher.helpers.StringMatchHelpers;
+import de.boereck.matcher.lazy.LazyMatcher;
+import de.boereck.matcher.lazy.LazyResultCaseMatcher;
+import de.boereck.matcher.lazy.MatchingFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures routing URL paths by prefix. A lazy matcher defining one case per prefix via
+ * {@link StringMatchHelpers#startsWith(String)} compiles the cases into a trie; for comparison, the same predicates are
+ * wrapped in lambdas, which hides the prefixes from the matcher, so the path is compared with one prefix after
+ * another. Additionally, a single {@link StringMatchHelpers#startsWithAny(String...)} predicate over all prefixes is
+ * compared with testing the prefixes in a loop.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrefixCasesBenchmark {
+
+    /**
+     * Amount of prefix cases
+     */
+    @Param({"10", "900"})
+    public int caseCount;
+
+    private String[] prefixes;
+
+    private MatchingFunction<String, Integer> trie;
+
+    private MatchingFunction<String, Integer> oneByOne;
+
+    private AdvPredicate<String> startsWithAny;
+
+    private String[] paths;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        prefixes = new String[caseCount];
+        LazyResultCaseMatcher<String, Integer> trie = LazyMatcher.lazyResultMatch();
+        LazyResultCaseMatcher<String, Integer> oneByOne = LazyMatcher.lazyResultMatch();
+        for (int i = 0; i < caseCount; i++) {
+            final int result = i;
+            prefixes[i] = "/api/" + (i % 3 == 0 ? "v1" : "v2") + "/resource-" + i + "/";
+            final AdvPredicate<String> p = StringMatchHelpers.startsWith(prefixes[i]);
+            trie = trie.caseIs(p, () -> result);
+            oneByOne = oneByOne.caseIs(s -> p.test(s), () -> result);
+        }
+        this.trie = trie.otherwise(-1);
+        this.oneByOne = oneByOne.otherwise(-1);
+        startsWithAny = StringMatchHelpers.startsWithAny(prefixes);
+        paths = new String[Inputs.SIZE];
+        for (int i = 0; i < paths.length; i++) {
+            final int resource = (i * 7) % (caseCount + caseCount / 4 + 1);
+            paths[i] = "/api/" + (resource % 3 == 0 ? "v1" : "v2") + "/resource-" + resource + "/items/" + i;
+        }
+    }
+
+    private String nextPath() {
+        return paths[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Prefix cases compiled into a trie.
+     */
+    @Benchmark
+    public Integer trie() {
+        return trie.apply(nextPath());
+    }
+
+    /**
+     * Prefix cases matched one after another.
+     */
+    @Benchmark
+    public Integer oneByOne() {
+        return oneByOne.apply(nextPath());
+    }
+
+    /**
+     * One predicate checking all prefixes via a trie.
+     */
+    @Benchmark
+    public boolean startsWithAny() {
+        return startsWithAny.test(nextPath());
+    }
+
+    /**
+     * Checking all prefixes in a loop.
+     */
+    @Benchmark
+    public boolean loop() {
+        final String path = nextPath();
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,96 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.function.optionalmap.OptionalMapper;
+import de.boereck.matcher.helpers.StringMatchHelpers;
+import de.boereck.matcher.lazy.LazyMatcher;
+import de.boereck.matcher.lazy.LazyResultCaseMatcher;
+import de.boereck.matcher.lazy.MatchingFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures classifying log lines with a lazy matcher defining one case per regular expression via
+ * {@link StringMatchHelpers#matching(String)}. The cases are compiled into one automaton, so every line is scanned once.
+ * For comparison, the same expressions are wrapped in lambdas, which hides the patterns from the matcher, so the line
+ * is matched against one expression after another. The lines match cases spread over the whole chain, plus lines no
+ * case matches.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RegexCasesBenchmark {
+
+    /**
+     * Amount of regular expression cases
+     */
+    @Param({"10", "200"})
+    public int caseCount;
+
+    private MatchingFunction<String, Integer> automaton;
+
+    private MatchingFunction<String, Integer> oneByOne;
+
+    private String[] lines;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        LazyResultCaseMatcher<String, Integer> automaton = LazyMatcher.lazyResultMatch();
+        LazyResultCaseMatcher<String, Integer> oneByOne = LazyMatcher.lazyResultMatch();
+        for (int i = 0; i < caseCount; i++) {
+            final int result = i;
+            final String regEx = "\\d{4}-\\d{2}-\\d{2} (INFO|WARN|ERROR) \\[svc-" + i + "\\] .*(failed|timeout \\d+ms)";
+            final OptionalMapper<String, String> mapper = StringMatchHelpers.matching(regEx);
+            automaton = automaton.caseObj(mapper, s -> result);
+            oneByOne = oneByOne.caseObj(s -> mapper.apply(s), s -> result);
+        }
+        this.automaton = automaton.otherwise(-1);
+        this.oneByOne = oneByOne.otherwise(-1);
+        lines = new String[Inputs.SIZE];
+        for (int i = 0; i < lines.length; i++) {
+            final int service = (i * 7) % (caseCount + caseCount / 4 + 1);
+            lines[i] = "2016-02-" + (10 + i % 18) + " WARN [svc-" + service + "] request " + i + " timeout " + i % 500 + "ms";
+        }
+    }
+
+    private String nextLine() {
+        return lines[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Cases compiled into one automaton.
+     */
+    @Benchmark
+    public Integer automaton() {
+        return automaton.apply(nextLine());
+    }
+
+    /**
+     * Cases matched one expression after another.
+     */
+    @Benchmark
+    public Integer oneByOne() {
+        return oneByOne.apply(nextLine());
+    }
+}
@@ -0,0 +1,123 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.function.predicate.AdvPredicate;
+import de.boereck.matcher.helpers.MatchHelpers;
+import de.boereck.matcher.helpers.StringMatchHelpers;
+import de.boereck.matcher.lazy.LazyMatcher;
+import de.boereck.matcher.lazy.LazyResultCaseMatcher;
+import de.boereck.matcher.lazy.MatchingFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures dispatching on names, e.g. commands or header names. A lazy matcher defining one case per name via
+ * {@link MatchHelpers#eq(Object)} or {@link StringMatchHelpers#eqIgnoreCase(String)} compiles the cases into a hash
+ * table; for comparison, the same predicates are wrapped in lambdas, which hides the names from the matcher, so the
+ * input is compared with one name after another.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StringEqualityCasesBenchmark {
+
+    /**
+     * Amount of equality cases
+     */
+    @Param({"10", "200"})
+    public int caseCount;
+
+    private MatchingFunction<String, Integer> hashed;
+
+    private MatchingFunction<String, Integer> oneByOne;
+
+    private MatchingFunction<String, Integer> hashedIgnoreCase;
+
+    private MatchingFunction<String, Integer> oneByOneIgnoreCase;
+
+    private String[] names;
+
+    private String[] mixedCaseNames;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        LazyResultCaseMatcher<String, Integer> hashed = LazyMatcher.lazyResultMatch();
+        LazyResultCaseMatcher<String, Integer> oneByOne = LazyMatcher.lazyResultMatch();
+        LazyResultCaseMatcher<String, Integer> hashedIgnoreCase = LazyMatcher.lazyResultMatch();
+        LazyResultCaseMatcher<String, Integer> oneByOneIgnoreCase = LazyMatcher.lazyResultMatch();
+        for (int i = 0; i < caseCount; i++) {
+            final int result = i;
+            final String name = "X-Header-" + i;
+            final AdvPredicate<String> eq = MatchHelpers.eq(name);
+            final AdvPredicate<String> eqIgnoreCase = StringMatchHelpers.eqIgnoreCase(name);
+            hashed = hashed.caseIs(eq, () -> result);
+            oneByOne = oneByOne.caseIs(s -> eq.test(s), () -> result);
+            hashedIgnoreCase = hashedIgnoreCase.caseIs(eqIgnoreCase, () -> result);
+            oneByOneIgnoreCase = oneByOneIgnoreCase.caseIs(s -> eqIgnoreCase.test(s), () -> result);
+        }
+        this.hashed = hashed.otherwise(-1);
+        this.oneByOne = oneByOne.otherwise(-1);
+        this.hashedIgnoreCase = hashedIgnoreCase.otherwise(-1);
+        this.oneByOneIgnoreCase = oneByOneIgnoreCase.otherwise(-1);
+        names = new String[Inputs.SIZE];
+        mixedCaseNames = new String[Inputs.SIZE];
+        for (int i = 0; i < names.length; i++) {
+            // some names are not defined by any case
+            names[i] = "X-Header-" + (i * 7) % (caseCount + caseCount / 4 + 1);
+            mixedCaseNames[i] = (i % 2 == 0) ? names[i].toLowerCase() : names[i].toUpperCase();
+        }
+    }
+
+    /**
+     * Equality cases compiled into a hash table.
+     */
+    @Benchmark
+    public Integer hashed() {
+        return hashed.apply(names[index++ & Inputs.MASK]);
+    }
+
+    /**
+     * Equality cases matched one after another.
+     */
+    @Benchmark
+    public Integer oneByOne() {
+        return oneByOne.apply(names[index++ & Inputs.MASK]);
+    }
+
+    /**
+     * Equality cases ignoring case compiled into a hash table of folded names.
+     */
+    @Benchmark
+    public Integer hashedIgnoreCase() {
+        return hashedIgnoreCase.apply(mixedCaseNames[index++ & Inputs.MASK]);
+    }
+
+    /**
+     * Equality cases ignoring case matched one after another.
+     */
+    @Benchmark
+    public Integer oneByOneIgnoreCase() {
+        return oneByOneIgnoreCase.apply(mixedCaseNames[index++ & Inputs.MASK]);
+    }
+}
@@ -0,0 +1,94 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.eager.EagerMatcher;
+import de.boereck.matcher.function.optionalmap.OptionalMapper;
+import de.boereck.matcher.function.predicate.AdvPredicate;
+import de.boereck.matcher.helpers.StringMatchHelpers;
+import de.boereck.matcher.helpers.Tokenizer;
+import de.boereck.matcher.helpers.Tokens;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures classifying CSV lines by the amount and content of their fields. The tokenizing variant splits every line
+ * into a reusable {@link Tokens} buffer via {@code caseTokens} cases, the splitting variant maps every line to an array
+ * of strings via {@link StringMatchHelpers#split(String)}. Both use in-place matchers, so the remaining allocations are
+ * caused by splitting.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TokenizeBenchmark {
+
+    private String[] lines;
+
+    private Tokens tokens;
+
+    private AdvPredicate<Tokens> isError;
+
+    private AdvPredicate<Tokens> isEntry;
+
+    private OptionalMapper<String, String[]> split;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        final Tokenizer csv = StringMatchHelpers.tokenizer(",");
+        tokens = csv.newTokens();
+        isError = StringMatchHelpers.tokensMatch(s -> true, "ERROR"::contentEquals, s -> true, s -> true);
+        isEntry = StringMatchHelpers.tokenCount(4);
+        split = StringMatchHelpers.split(",");
+        lines = new String[Inputs.SIZE];
+        for (int i = 0; i < lines.length; i++) {
+            final String level = i % 5 == 0 ? "ERROR" : "INFO";
+            // every seventh line misses the message field
+            lines[i] = "2024-01-" + (i % 28 + 1) + "," + level + ",worker-" + (i % 16)
+                    + (i % 7 == 0 ? "" : ",request " + i + " done");
+        }
+    }
+
+    private String nextLine() {
+        return lines[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Lines split into a reusable token buffer, shared by both cases.
+     */
+    @Benchmark
+    public Integer tokens() {
+        return EagerMatcher.resultMatchInPlace(Integer.class, nextLine())
+                .caseTokens(tokens, isError, t -> 1)
+                .caseTokens(tokens, isEntry, t -> 2)
+                .otherwise(0);
+    }
+
+    /**
+     * Lines split into arrays of strings.
+     */
+    @Benchmark
+    public Integer split() {
+        return EagerMatcher.resultMatchInPlace(Integer.class, nextLine())
+                .caseObj(split, fields -> fields.length == 4 ? ("ERROR".equals(fields[1]) ? 1 : 2) : 0)
+                .otherwise(0);
+    }
+}
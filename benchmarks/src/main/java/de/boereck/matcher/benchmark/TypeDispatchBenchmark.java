@@ -0,0 +1,177 @@
+package de.boereck.matcher.benchmark;
+
+import de.boereck.matcher.eager.EagerMatcher;
+import de.boereck.matcher.eager.EagerResultCaseMatcher;
+import de.boereck.matcher.lazy.LazyMatcher;
+import de.boereck.matcher.lazy.LazyResultCaseMatcher;
+import de.boereck.matcher.lazy.MatchingFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.Vector;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Compares matching the runtime class of inputs with a lazy result matcher, which resolves the cases per input class,
+ * against an eager result matcher, which checks all {@code caseOf(Class, Function)} cases one after the other. Inputs
+ * are instances of all types of the chain, so on average half of the cases have to be checked by the eager matcher.
+ * <p>
+ * Run with {@code gradle :benchmarks:jmh}, which attaches the GC profiler, so the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}, B/op) is reported next to the average time (ns/op).
+ * </p>
+ *
+ * @author Max Bureck
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TypeDispatchBenchmark {
+
+    /**
+     * Types matched by the benchmarked chains, together with a factory for instances of the type.
+     */
+    private static final Object[][] TYPES = {
+            {Integer.class, (Supplier<Object>) () -> 1},
+            {Long.class, (Supplier<Object>) () -> 1L},
+            {Short.class, (Supplier<Object>) () -> (short) 1},
+            {Byte.class, (Supplier<Object>) () -> (byte) 1},
+            {Double.class, (Supplier<Object>) () -> 1.0},
+            {Float.class, (Supplier<Object>) () -> 1.0f},
+            {Character.class, (Supplier<Object>) () -> 'c'},
+            {Boolean.class, (Supplier<Object>) () -> true},
+            {String.class, (Supplier<Object>) () -> "s"},
+            {StringBuilder.class, (Supplier<Object>) StringBuilder::new},
+            {StringBuffer.class, (Supplier<Object>) StringBuffer::new},
+            {BigInteger.class, (Supplier<Object>) () -> BigInteger.ONE},
+            {BigDecimal.class, (Supplier<Object>) () -> BigDecimal.ONE},
+            {ArrayList.class, (Supplier<Object>) ArrayList::new},
+            {LinkedList.class, (Supplier<Object>) LinkedList::new},
+            {CopyOnWriteArrayList.class, (Supplier<Object>) CopyOnWriteArrayList::new},
+            {HashMap.class, (Supplier<Object>) HashMap::new},
+            {TreeMap.class, (Supplier<Object>) TreeMap::new},
+            {LinkedHashMap.class, (Supplier<Object>) LinkedHashMap::new},
+            {IdentityHashMap.class, (Supplier<Object>) IdentityHashMap::new},
+            {WeakHashMap.class, (Supplier<Object>) WeakHashMap::new},
+            {ConcurrentHashMap.class, (Supplier<Object>) ConcurrentHashMap::new},
+            {HashSet.class, (Supplier<Object>) HashSet::new},
+            {TreeSet.class, (Supplier<Object>) TreeSet::new},
+            {LinkedHashSet.class, (Supplier<Object>) LinkedHashSet::new},
+            {ArrayDeque.class, (Supplier<Object>) ArrayDeque::new},
+            {PriorityQueue.class, (Supplier<Object>) PriorityQueue::new},
+            {ConcurrentLinkedQueue.class, (Supplier<Object>) ConcurrentLinkedQueue::new},
+            {Vector.class, (Supplier<Object>) Vector::new},
+            {AtomicInteger.class, (Supplier<Object>) AtomicInteger::new},
+            {AtomicLong.class, (Supplier<Object>) AtomicLong::new},
+            {AtomicBoolean.class, (Supplier<Object>) AtomicBoolean::new},
+            {BitSet.class, (Supplier<Object>) BitSet::new},
+            {Date.class, (Supplier<Object>) Date::new},
+            {UUID.class, (Supplier<Object>) UUID::randomUUID},
+            {Optional.class, (Supplier<Object>) Optional::empty},
+            {int[].class, (Supplier<Object>) () -> new int[0]},
+            {long[].class, (Supplier<Object>) () -> new long[0]},
+            {Object[].class, (Supplier<Object>) () -> new Object[0]},
+            {Random.class, (Supplier<Object>) Random::new},
+    };
+
+    /**
+     * Amount of type cases in the benchmarked chain
+     */
+    @Param({"4", "16", "40"})
+    public int caseCount;
+
+    private Object[] inputs;
+
+    private int index;
+
+    private Class<?>[] types;
+
+    private Function<Object, Integer>[] functions;
+
+    private MatchingFunction<Object, Integer> lazy;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        types = new Class<?>[caseCount];
+        functions = (Function<Object, Integer>[]) new Function<?, ?>[caseCount];
+        LazyResultCaseMatcher<Object, Integer> m = LazyMatcher.lazyResultMatch();
+        for (int i = 0; i < caseCount; i++) {
+            final Integer result = i;
+            types[i] = (Class<?>) TYPES[i][0];
+            functions[i] = o -> result;
+            m = m.caseOf(types[i], functions[i]);
+        }
+        lazy = m.otherwise(-1);
+        final Random random = new Random(42L);
+        inputs = new Object[Inputs.SIZE];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = ((Supplier<Object>) TYPES[random.nextInt(caseCount)][1]).get();
+        }
+    }
+
+    private Object next() {
+        return inputs[index++ & Inputs.MASK];
+    }
+
+    /**
+     * Lazy matcher resolving the cases per input class.
+     */
+    @Benchmark
+    public Integer lazy() {
+        return lazy.apply(next());
+    }
+
+    /**
+     * Eager matcher checking the type cases one after the other.
+     */
+    @Benchmark
+    public Integer eager() {
+        final Object o = next();
+        final Class<?>[] types = this.types;
+        final Function<Object, Integer>[] functions = this.functions;
+        EagerResultCaseMatcher<Object, Integer> m = EagerMatcher.resultMatch(o);
+        for (int i = 0; i < types.length; i++) {
+            m = m.caseOf(types[i], functions[i]);
+        }
+        return m.otherwise(-1);
+    }
+}
@@ -0,0 +1,177 @@
+package de.boereck.matcher.lazy;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static de.boereck.matcher.lazy.ResultCase.NO_MATCH;
+
+/**
+ * Evaluates the cases of a case table in an order adapted to the observed frequency of the matching cases. Only cases
+ * known to be mutually exclusive are reordered: the table is divided into groups of consecutive cases where no input can
+ * match more than one case of a group. Within a group at most one case matches any input, so the cases of the group can
+ * be evaluated in any order without changing the result. Groups stay in place relative to each other and to the cases
+ * not belonging to any group, so the first matching case is still the one that would be found evaluating the cases in
+ * the order they were defined.
+ * <p>
+ * About every {@link #REORDER_INTERVAL} matches, the cases of each group are sorted by the amount of inputs they
+ * matched, so the most frequently matching cases are evaluated first. After sorting, the counts are halved, so the
+ * order adapts to changes of the distribution of the inputs. The order itself is replaced atomically.
+ * </p>
+ * <p>
+ * Since an evaluator is shared by all threads applying the matcher, the matches are not counted one by one: only a
+ * random sample of one in {@link #SAMPLE_RATE} matches, drawn per thread via {@link ThreadLocalRandom}, is recorded in
+ * {@link LongAdder}s, like {@link CaseStatistics} does. Concurrent threads therefore neither lose updates nor contend on
+ * a shared counter on the path of every match. The counters are only summed up when the cases are reordered, which is
+ * done by one thread at a time. The order is based on the sampled counts, which reflect the distribution of all
+ * matches of all threads.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+final class AdaptiveCaseOrder implements Function<Object, Object> {
+
+    /**
+     * Amount of matches after which the order of the cases is recomputed.
+     */
+    static final int REORDER_INTERVAL = 1 << 12;
+
+    /**
+     * On average, one in this amount of matches is counted.
+     */
+    static final int SAMPLE_RATE = 1 << 4;
+
+    /**
+     * Amount of counted matches after which the order of the cases is recomputed.
+     */
+    private static final int REORDER_SAMPLES = REORDER_INTERVAL / SAMPLE_RATE;
+
+    private final ResultCase<Object, ?>[] cases;
+
+    /**
+     * Index of the first case of each group of mutually exclusive cases.
+     */
+    private final int[] groupStarts;
+
+    /**
+     * Index after the last case of each group of mutually exclusive cases.
+     */
+    private final int[] groupEnds;
+
+    /**
+     * Amount of sampled matches per case since the order was computed the last time, indexed by the position of the
+     * case in the table.
+     */
+    private final LongAdder[] hits;
+
+    /**
+     * Amount of sampled matches since the order was computed the last time.
+     */
+    private final LongAdder matches = new LongAdder();
+
+    /**
+     * Decayed amount of sampled matches per case, used to sort the cases. Only accessed while holding the lock of this
+     * evaluator.
+     */
+    private final long[] weights;
+
+    /**
+     * Indices of the cases in the order they are evaluated. The array is never modified after it is published.
+     */
+    private volatile int[] order;
+
+    /**
+     * Creates an evaluator initially evaluating the cases in the order they were defined.
+     *
+     * @param cases       cases of the table
+     * @param groupStarts index of the first case of each group of mutually exclusive cases
+     * @param groupEnds   index after the last case of each group; groups must not overlap
+     */
+    @SuppressWarnings("unchecked")
+    AdaptiveCaseOrder(ResultCase<?, ?>[] cases, int[] groupStarts, int[] groupEnds) {
+        this.cases = (ResultCase<Object, ?>[]) cases;
+        this.groupStarts = groupStarts;
+        this.groupEnds = groupEnds;
+        this.hits = new LongAdder[cases.length];
+        for (int i = 0; i < hits.length; i++) {
+            hits[i] = new LongAdder();
+        }
+        this.weights = new long[cases.length];
+        final int[] order = new int[cases.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        this.order = order;
+    }
+
+    /**
+     * Evaluates the cases in the current order, until the first case matches {@code input}.
+     *
+     * @param input input to match
+     * @return result of the first matching case (may be {@code null}) or {@link ResultCase#NO_MATCH} if no case matches.
+     */
+    @Override
+    public Object apply(Object input) {
+        final int[] order = this.order;
+        final ResultCase<Object, ?>[] cases = this.cases;
+        for (int i = 0; i < order.length; i++) {
+            final int index = order[i];
+            final Object result = cases[index].evaluate(input);
+            if (result != NO_MATCH) {
+                if (ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0) {
+                    count(index);
+                }
+                return result;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Records a sampled match of the case with the given {@code index} and reorders the cases if enough matches were
+     * sampled.
+     *
+     * @param index position of the matching case in the table
+     */
+    private void count(int index) {
+        hits[index].increment();
+        final LongAdder matches = this.matches;
+        matches.increment();
+        if (matches.sum() >= REORDER_SAMPLES) {
+            reorder();
+        }
+    }
+
+    /**
+     * Sorts the cases of every group by their decayed hit count and halves the counts.
+     */
+    private synchronized void reorder() {
+        if (matches.sum() < REORDER_SAMPLES) {
+            // another thread reordered already
+            return;
+        }
+        matches.reset();
+        final long[] weights = this.weights;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] += hits[i].sumThenReset();
+        }
+        final int[] order = this.order.clone();
+        for (int g = 0; g < groupStarts.length; g++) {
+            // insertion sort by descending hits; stable, so cases with equal counts keep their relative order
+            for (int i = groupStarts[g] + 1; i < groupEnds[g]; i++) {
+                final int index = order[i];
+                final long weight = weights[index];
+                int j = i - 1;
+                while (j >= groupStarts[g] && weights[order[j]] < weight) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = index;
+            }
+        }
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] >>>= 1;
+        }
+        this.order = order;
+    }
+}
@@ -0,0 +1,578 @@
+package de.boereck.matcher.lazy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static de.boereck.matcher.lazy.ResultCase.NO_MATCH;
+
+/**
+ * Generates a class per case table, evaluating all cases of the table in one method with the case chain unrolled. Used
+ * for tables evaluated by strategy {@link CaseEvaluation#GENERATED_CLASS}.
+ * <p>
+ * When cases are evaluated by iterating over the case table, the calls to the predicates and functions of all case
+ * tables in the JVM happen at the few call sites in the {@link ResultCase} implementations. These call sites see many
+ * different lambda classes, so the JIT compiler cannot inline the lambdas. In the generated method every predicate and
+ * function of every case is called from its own call site, so for each of them the JIT only sees the one lambda class
+ * used in this case table and can inline it.
+ * </p>
+ * <p>
+ * The generated class implements {@link Function}, returning the result of the first matching case or
+ * {@link ResultCase#NO_MATCH} if no case matched. The predicates and functions are passed to the constructor of the
+ * generated class and are stored in final fields. Each generated class is defined by a class loader of its own, so the
+ * class can be unloaded when the case table is no longer referenced. The generated code therefore only refers to types
+ * of the Java runtime. The class file is generated in version 49, which does not require stack map frames.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+final class CaseClassGenerator {
+
+    /**
+     * Maximum amount of cases put into one generated method. Larger tables are not compiled to a class, since the code
+     * of a method is limited to 64KB.
+     */
+    static final int MAX_CASES = 1000;
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private static final String PACKAGE = "de/boereck/matcher/lazy/generated/";
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String CLASS = "java/lang/Class";
+    private static final String FUNCTION = "java/util/function/Function";
+    private static final String PREDICATE = "java/util/function/Predicate";
+    private static final String SUPPLIER = "java/util/function/Supplier";
+    private static final String BOOLEAN_SUPPLIER = "java/util/function/BooleanSupplier";
+    private static final String INT_FUNCTION = "java/util/function/IntFunction";
+    private static final String LONG_FUNCTION = "java/util/function/LongFunction";
+    private static final String DOUBLE_FUNCTION = "java/util/function/DoubleFunction";
+    private static final String OPTIONAL = "java/util/Optional";
+    private static final String OPTIONAL_INT = "java/util/OptionalInt";
+    private static final String OPTIONAL_LONG = "java/util/OptionalLong";
+    private static final String OPTIONAL_DOUBLE = "java/util/OptionalDouble";
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ALOAD_2 = 0x2c;
+    private static final int ASTORE_2 = 0x4d;
+    private static final int AALOAD = 0x32;
+    private static final int POP = 0x57;
+    private static final int DUP = 0x59;
+    private static final int IFEQ = 0x99;
+    private static final int IF_ACMPEQ = 0xa5;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKEINTERFACE = 0xb9;
+    private static final int CHECKCAST = 0xc0;
+    private static final int SIPUSH = 0x11;
+
+    private CaseClassGenerator() {
+        throw new IllegalStateException("Class CaseClassGenerator must not be instantiated");
+    }
+
+    /**
+     * Generates and instantiates a class evaluating the given cases in order.
+     *
+     * @param cases cases to evaluate; must not hold more than {@link #MAX_CASES} cases.
+     * @return function returning the result of the first matching case, or {@link ResultCase#NO_MATCH}.
+     */
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> generate(ResultCase<?, ?>[] cases) {
+        final String className = PACKAGE + "ResultCases" + COUNTER.incrementAndGet();
+        final Generator generator = new Generator(className);
+        generator.apply(cases);
+        final byte[] classFile = generator.toClassFile();
+        final Class<?> generated = new CaseClassLoader(CaseClassGenerator.class.getClassLoader())
+                .define(className.replace('/', '.'), classFile);
+        try {
+            return (Function<Object, Object>) generated.getConstructor(Object[].class)
+                    .newInstance((Object) generator.fieldValues.toArray());
+        } catch (InstantiationException | IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException("Generated case class cannot be instantiated", e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Generated case class cannot be instantiated", e.getCause());
+        }
+    }
+
+    /**
+     * Class loader defining one generated class.
+     */
+    private static final class CaseClassLoader extends ClassLoader {
+
+        CaseClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] classFile) {
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+
+    /**
+     * Writes the class file of one generated class.
+     */
+    private static final class Generator {
+
+        private final String className;
+
+        private final ConstantPool pool = new ConstantPool();
+
+        private final List<String> fieldTypes = new ArrayList<>();
+
+        final List<Object> fieldValues = new ArrayList<>();
+
+        private final Code apply = new Code();
+
+        private final String noMatchField;
+
+        Generator(String className) {
+            this.className = className;
+            this.noMatchField = field(OBJECT, NO_MATCH);
+        }
+
+        /**
+         * Adds a final field holding {@code value} and returns its name.
+         */
+        private String field(String type, Object value) {
+            fieldTypes.add(type);
+            fieldValues.add(value);
+            return "f" + (fieldTypes.size() - 1);
+        }
+
+        /**
+         * Emits code loading the field with the given name onto the stack.
+         */
+        private void load(String field) {
+            apply.op(ALOAD_0);
+            apply.op(GETFIELD);
+            apply.u2(pool.field(className, field, fieldDescriptor(field)));
+        }
+
+        private String fieldDescriptor(String field) {
+            return "L" + fieldTypes.get(Integer.parseInt(field.substring(1))) + ";";
+        }
+
+        private void invokeInterface(String owner, String name, String descriptor, int argSlots) {
+            apply.op(INVOKEINTERFACE);
+            apply.u2(pool.interfaceMethod(owner, name, descriptor));
+            apply.u1(argSlots + 1);
+            apply.u1(0);
+        }
+
+        private void invokeVirtual(String owner, String name, String descriptor) {
+            apply.op(INVOKEVIRTUAL);
+            apply.u2(pool.method(owner, name, descriptor));
+        }
+
+        /**
+         * Emits {@code return f.apply(input)}.
+         */
+        private void returnApplied(String f) {
+            load(f);
+            apply.op(ALOAD_1);
+            invokeInterface(FUNCTION, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;", 1);
+            apply.op(ARETURN);
+        }
+
+        /**
+         * Emits {@code return supplier.get()}.
+         */
+        private void returnSupplied(String supplier) {
+            load(supplier);
+            invokeInterface(SUPPLIER, "get", "()Ljava/lang/Object;", 0);
+            apply.op(ARETURN);
+        }
+
+        /**
+         * Emits a jump to {@code label} if {@code p.test(input)} is {@code false}.
+         */
+        private void unlessTest(String p, int label) {
+            load(p);
+            apply.op(ALOAD_1);
+            invokeInterface(PREDICATE, "test", "(Ljava/lang/Object;)Z", 1);
+            apply.jump(IFEQ, label);
+        }
+
+        /**
+         * Emits a jump to {@code label} if the input is not an instance of class {@code clazz}.
+         */
+        private void unlessInstance(String clazz, int label) {
+            load(clazz);
+            apply.op(ALOAD_1);
+            invokeVirtual(CLASS, "isInstance", "(Ljava/lang/Object;)Z");
+            apply.jump(IFEQ, label);
+        }
+
+        /**
+         * Emits {@code temp = (optionalType) p.apply(input)} and a jump to {@code label} if {@code temp} is empty.
+         */
+        private void unlessPresent(String p, String optionalType, int label) {
+            load(p);
+            apply.op(ALOAD_1);
+            invokeInterface(FUNCTION, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;", 1);
+            apply.op(CHECKCAST);
+            apply.u2(pool.type(optionalType));
+            apply.op(ASTORE_2);
+            apply.op(ALOAD_2);
+            invokeVirtual(optionalType, "isPresent", "()Z");
+            apply.jump(IFEQ, label);
+        }
+
+        /**
+         * Emits the code of the {@code apply} method, evaluating the given {@code cases} in order.
+         */
+        void apply(ResultCase<?, ?>[] cases) {
+            for (ResultCase<?, ?> c : cases) {
+                final int next = apply.newLabel();
+                if (c instanceof ResultCase.ConstantCase) {
+                    final ResultCase.ConstantCase<?, ?> constantCase = (ResultCase.ConstantCase<?, ?>) c;
+                    if (constantCase.test) {
+                        returnApplied(field(FUNCTION, constantCase.f));
+                        // later cases are never reached
+                        return;
+                    }
+                } else if (c instanceof ResultCase.ConstantSupplyCase) {
+                    final ResultCase.ConstantSupplyCase<?, ?> constantCase = (ResultCase.ConstantSupplyCase<?, ?>) c;
+                    if (constantCase.test) {
+                        returnSupplied(field(SUPPLIER, constantCase.supplier));
+                        // later cases are never reached
+                        return;
+                    }
+                } else if (c instanceof ResultCase.ClassCase) {
+                    final ResultCase.ClassCase<?, ?, ?> classCase = (ResultCase.ClassCase<?, ?, ?>) c;
+                    unlessInstance(field(CLASS, classCase.clazz), next);
+                    returnApplied(field(FUNCTION, classCase.f));
+                } else if (c instanceof ResultCase.ClassConditionCase) {
+                    final ResultCase.ClassConditionCase<?, ?, ?> classCase = (ResultCase.ClassConditionCase<?, ?, ?>) c;
+                    unlessInstance(field(CLASS, classCase.clazz), next);
+                    unlessTest(field(PREDICATE, classCase.condition), next);
+                    returnApplied(field(FUNCTION, classCase.f));
+                } else if (c instanceof ResultCase.PredicateCase) {
+                    final ResultCase.PredicateCase<?, ?> predicateCase = (ResultCase.PredicateCase<?, ?>) c;
+                    unlessTest(field(PREDICATE, predicateCase.p), next);
+                    returnApplied(field(FUNCTION, predicateCase.f));
+                } else if (c instanceof ResultCase.SupplierCase) {
+                    final ResultCase.SupplierCase<?, ?> supplierCase = (ResultCase.SupplierCase<?, ?>) c;
+                    load(field(BOOLEAN_SUPPLIER, supplierCase.s));
+                    invokeInterface(BOOLEAN_SUPPLIER, "getAsBoolean", "()Z", 0);
+                    apply.jump(IFEQ, next);
+                    returnApplied(field(FUNCTION, supplierCase.f));
+                } else if (c instanceof ResultCase.PredicateSupplyCase) {
+                    final ResultCase.PredicateSupplyCase<?, ?> predicateCase = (ResultCase.PredicateSupplyCase<?, ?>) c;
+                    unlessTest(field(PREDICATE, predicateCase.p), next);
+                    returnSupplied(field(SUPPLIER, predicateCase.supplier));
+                } else if (c instanceof ResultCase.ObjCase) {
+                    final ResultCase.ObjCase<?, ?, ?> objCase = (ResultCase.ObjCase<?, ?, ?>) c;
+                    unlessPresent(field(FUNCTION, objCase.p), OPTIONAL, next);
+                    load(field(FUNCTION, objCase.f));
+                    apply.op(ALOAD_2);
+                    invokeVirtual(OPTIONAL, "get", "()Ljava/lang/Object;");
+                    invokeInterface(FUNCTION, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;", 1);
+                    apply.op(ARETURN);
+                } else if (c instanceof ResultCase.IntCase) {
+                    final ResultCase.IntCase<?, ?> intCase = (ResultCase.IntCase<?, ?>) c;
+                    unlessPresent(field(FUNCTION, intCase.p), OPTIONAL_INT, next);
+                    load(field(INT_FUNCTION, intCase.f));
+                    apply.op(ALOAD_2);
+                    invokeVirtual(OPTIONAL_INT, "getAsInt", "()I");
+                    invokeInterface(INT_FUNCTION, "apply", "(I)Ljava/lang/Object;", 1);
+                    apply.op(ARETURN);
+                } else if (c instanceof ResultCase.LongCase) {
+                    final ResultCase.LongCase<?, ?> longCase = (ResultCase.LongCase<?, ?>) c;
+                    unlessPresent(field(FUNCTION, longCase.p), OPTIONAL_LONG, next);
+                    load(field(LONG_FUNCTION, longCase.f));
+                    apply.op(ALOAD_2);
+                    invokeVirtual(OPTIONAL_LONG, "getAsLong", "()J");
+                    invokeInterface(LONG_FUNCTION, "apply", "(J)Ljava/lang/Object;", 2);
+                    apply.op(ARETURN);
+                } else if (c instanceof ResultCase.DoubleCase) {
+                    final ResultCase.DoubleCase<?, ?> doubleCase = (ResultCase.DoubleCase<?, ?>) c;
+                    unlessPresent(field(FUNCTION, doubleCase.p), OPTIONAL_DOUBLE, next);
+                    load(field(DOUBLE_FUNCTION, doubleCase.f));
+                    apply.op(ALOAD_2);
+                    invokeVirtual(OPTIONAL_DOUBLE, "getAsDouble", "()D");
+                    invokeInterface(DOUBLE_FUNCTION, "apply", "(D)Ljava/lang/Object;", 2);
+                    apply.op(ARETURN);
+                } else {
+                    // unknown kind of case: evaluate the case itself and return the result if it is not NO_MATCH
+                    @SuppressWarnings("unchecked")
+                    final ResultCase<Object, ?> other = (ResultCase<Object, ?>) c;
+                    final Function<Object, Object> evaluate = other::evaluate;
+                    final int noMatch = apply.newLabel();
+                    load(field(FUNCTION, evaluate));
+                    apply.op(ALOAD_1);
+                    invokeInterface(FUNCTION, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;", 1);
+                    apply.op(DUP);
+                    load(noMatchField);
+                    apply.jump(IF_ACMPEQ, noMatch);
+                    apply.op(ARETURN);
+                    apply.mark(noMatch);
+                    apply.op(POP);
+                }
+                apply.mark(next);
+            }
+            load(noMatchField);
+            apply.op(ARETURN);
+        }
+
+        /**
+         * Emits the constructor, assigning the elements of the {@code Object[]} parameter to the fields.
+         */
+        private Code constructor() {
+            final Code init = new Code();
+            init.op(ALOAD_0);
+            init.op(INVOKESPECIAL);
+            init.u2(pool.method(OBJECT, "<init>", "()V"));
+            for (int i = 0; i < fieldTypes.size(); i++) {
+                init.op(ALOAD_0);
+                init.op(ALOAD_1);
+                init.op(SIPUSH);
+                init.u2(i);
+                init.op(AALOAD);
+                init.op(CHECKCAST);
+                init.u2(pool.type(fieldTypes.get(i)));
+                init.op(PUTFIELD);
+                init.u2(pool.field(className, "f" + i, "L" + fieldTypes.get(i) + ";"));
+            }
+            init.op(RETURN);
+            return init;
+        }
+
+        byte[] toClassFile() {
+            final Code init = constructor();
+            final int thisClass = pool.type(className);
+            final int superClass = pool.type(OBJECT);
+            final int function = pool.type(FUNCTION);
+            final int codeAttribute = pool.utf8("Code");
+            final int[] fieldNames = new int[fieldTypes.size()];
+            final int[] fieldDescriptors = new int[fieldTypes.size()];
+            for (int i = 0; i < fieldNames.length; i++) {
+                fieldNames[i] = pool.utf8("f" + i);
+                fieldDescriptors[i] = pool.utf8("L" + fieldTypes.get(i) + ";");
+            }
+            final int initName = pool.utf8("<init>");
+            final int initDescriptor = pool.utf8("([Ljava/lang/Object;)V");
+            final int applyName = pool.utf8("apply");
+            final int applyDescriptor = pool.utf8("(Ljava/lang/Object;)Ljava/lang/Object;");
+
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0); // minor version
+                out.writeShort(49); // major version, Java 5
+                pool.write(out);
+                out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+                out.writeShort(1); // interfaces
+                out.writeShort(function);
+                out.writeShort(fieldNames.length);
+                for (int i = 0; i < fieldNames.length; i++) {
+                    out.writeShort(ACC_PRIVATE | ACC_FINAL);
+                    out.writeShort(fieldNames[i]);
+                    out.writeShort(fieldDescriptors[i]);
+                    out.writeShort(0); // attributes
+                }
+                out.writeShort(2); // methods
+                writeMethod(out, initName, initDescriptor, codeAttribute, init, 2);
+                writeMethod(out, applyName, applyDescriptor, codeAttribute, apply, 3);
+                out.writeShort(0); // class attributes
+            } catch (IOException e) {
+                // cannot happen when writing to a byte array
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeAttribute, Code code, int maxLocals) throws IOException {
+            final byte[] bytecode = code.toByteArray();
+            out.writeShort(ACC_PUBLIC);
+            out.writeShort(name);
+            out.writeShort(descriptor);
+            out.writeShort(1); // attributes
+            out.writeShort(codeAttribute);
+            out.writeInt(12 + bytecode.length);
+            out.writeShort(4); // max stack: receiver plus long/double argument, or two objects for reference compare
+            out.writeShort(maxLocals);
+            out.writeInt(bytecode.length);
+            out.write(bytecode);
+            out.writeShort(0); // exception table
+            out.writeShort(0); // code attributes
+        }
+    }
+
+    /**
+     * Bytecode of a method, supporting forward jumps to labels.
+     */
+    private static final class Code {
+
+        private byte[] code = new byte[256];
+
+        private int length;
+
+        private int[] labels = new int[16];
+
+        private int labelCount;
+
+        /**
+         * Positions of jump instructions and the labels they jump to, patched in {@link #toByteArray()}.
+         */
+        private final List<int[]> jumps = new ArrayList<>();
+
+        void u1(int b) {
+            if (length == code.length) {
+                code = Arrays.copyOf(code, length * 2);
+            }
+            code[length++] = (byte) b;
+        }
+
+        void op(int opcode) {
+            u1(opcode);
+        }
+
+        void u2(int value) {
+            u1(value >>> 8);
+            u1(value);
+        }
+
+        int newLabel() {
+            if (labelCount == labels.length) {
+                labels = Arrays.copyOf(labels, labelCount * 2);
+            }
+            labels[labelCount] = -1;
+            return labelCount++;
+        }
+
+        void mark(int label) {
+            labels[label] = length;
+        }
+
+        void jump(int opcode, int label) {
+            jumps.add(new int[]{length, label});
+            op(opcode);
+            u2(0);
+        }
+
+        byte[] toByteArray() {
+            for (int[] jump : jumps) {
+                final int offset = labels[jump[1]] - jump[0];
+                code[jump[0] + 1] = (byte) (offset >>> 8);
+                code[jump[0] + 2] = (byte) offset;
+            }
+            return Arrays.copyOf(code, length);
+        }
+    }
+
+    /**
+     * Constant pool of the generated class, reusing equal entries.
+     */
+    private static final class ConstantPool {
+
+        private static final int UTF8 = 1;
+        private static final int CLASS = 7;
+        private static final int FIELD_REF = 9;
+        private static final int METHOD_REF = 10;
+        private static final int INTERFACE_METHOD_REF = 11;
+        private static final int NAME_AND_TYPE = 12;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        private final Map<String, Integer> entries = new HashMap<>();
+
+        private int count = 1;
+
+        int utf8(String value) {
+            return entry("U" + value, () -> {
+                out.writeByte(UTF8);
+                out.writeUTF(value);
+            });
+        }
+
+        int type(String internalName) {
+            final int name = utf8(internalName);
+            return entry("C" + internalName, () -> {
+                out.writeByte(CLASS);
+                out.writeShort(name);
+            });
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            final int nameIndex = utf8(name);
+            final int descriptorIndex = utf8(descriptor);
+            return entry("N" + name + ":" + descriptor, () -> {
+                out.writeByte(NAME_AND_TYPE);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+        }
+
+        private int member(int tag, String owner, String name, String descriptor) {
+            final int ownerIndex = type(owner);
+            final int nameAndType = nameAndType(name, descriptor);
+            return entry(tag + owner + "." + name + ":" + descriptor, () -> {
+                out.writeByte(tag);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        int field(String owner, String name, String descriptor) {
+            return member(FIELD_REF, owner, name, descriptor);
+        }
+
+        int method(String owner, String name, String descriptor) {
+            return member(METHOD_REF, owner, name, descriptor);
+        }
+
+        int interfaceMethod(String owner, String name, String descriptor) {
+            return member(INTERFACE_METHOD_REF, owner, name, descriptor);
+        }
+
+        private int entry(String key, EntryWriter writer) {
+            final Integer existing = entries.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                writer.write();
+            } catch (IOException e) {
+                // cannot happen when writing to a byte array
+                throw new UncheckedIOException(e);
+            }
+            entries.put(key, count);
+            return count++;
+        }
+
+        void write(DataOutputStream classFile) throws IOException {
+            out.flush();
+            classFile.writeShort(count);
+            bytes.writeTo(classFile);
+        }
+
+        @FunctionalInterface
+        private interface EntryWriter {
+            void write() throws IOException;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package de.boereck.matcher.lazy;
+
+/**
+ * Strategies a {@link LazyResultCaseMatcher} can use to evaluate its cases, selected via
+ * {@link LazyResultCaseMatcher#evaluatedBy(CaseEvaluation)}. All strategies evaluate the cases in the order they were
+ * defined and produce the same results; they only differ in the cost of defining a matcher and in how well the JIT
+ * compiler can optimize the evaluation.
+ *
+ * @author Max Bureck
+ */
+public enum CaseEvaluation {
+
+    /**
+     * The cases are evaluated by iterating over the case table. This is the default strategy, defining a matcher is
+     * cheap and no classes are generated. Since all case tables share the code iterating over the cases, the predicates
+     * and functions of the cases are called from shared call sites, which usually prevents the JIT compiler from
+     * inlining them.
+     */
+    TABLE,
+
+    /**
+     * A class is generated for the case table when the matcher is first applied to an input. The generated class
+     * evaluates all cases in one method, calling every predicate and function from a call site of its own. These call
+     * sites only ever see one implementation, so the JIT compiler can inline the predicates and functions of the cases.
+     * Generating and loading the class is costly, so this strategy should only be used for matchers that are defined
+     * once and applied to many inputs, e.g. matchers stored in static final fields.
+     * <p>
+     * Sequences of cases on strings are compiled into a single lookup, like for {@link #TABLE}. The generated method
+     * checks the cases in order of definition though, so matchers with many {@code caseOf(Class, ...)} cases do not
+     * skip the cases on other types, as {@link #TABLE} does. For such matchers, {@link #TABLE} may be faster.
+     * </p>
+     */
+    GENERATED_CLASS,
+
+    /**
+     * The cases are compiled into a tree of method handles when the matcher is first applied to an input. Every case
+     * becomes a {@link java.lang.invoke.MethodHandles#guardWithTest guardWithTest} with the predicate and function of the
+     * case bound as constants, falling back to the handle of the following cases. Like {@link #GENERATED_CLASS}, this
+     * allows the JIT compiler to inline the predicates and functions, but without generating and loading a class.
+     * Handles built by the JDK are only fully optimized if they are constant for the compiled code, so this strategy
+     * works best for matchers that are stored in static final fields.
+     * <p>
+     * As for {@link #GENERATED_CLASS}, sequences of cases on strings are compiled into a single lookup, but the cases
+     * are checked in order of definition, without skipping the {@code caseOf(Class, ...)} cases on other types.
+     * </p>
+     */
+    METHOD_HANDLES
+}
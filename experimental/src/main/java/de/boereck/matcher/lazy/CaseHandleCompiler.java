@@ -0,0 +1,268 @@
+package de.boereck.matcher.lazy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static de.boereck.matcher.lazy.ResultCase.NO_MATCH;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Compiles a case table into a tree of method handles, used for tables evaluated by strategy
+ * {@link CaseEvaluation#METHOD_HANDLES}.
+ * <p>
+ * The cases are chained from the last case to the first: every case becomes a
+ * {@link MethodHandles#guardWithTest(MethodHandle, MethodHandle, MethodHandle) guardWithTest} over the predicate and the
+ * function of the case, falling back to the handle of the following cases. Cases mapping the input before checking it
+ * (e.g. {@code caseObj}) compute the mapping once via
+ * {@link MethodHandles#foldArguments(MethodHandle, MethodHandle) foldArguments} and pass the unwrapped value to the
+ * function of the case via {@link MethodHandles#filterArguments(MethodHandle, int, MethodHandle...) filterArguments}.
+ * The predicates and functions are bound to the handles as constants, so if the resulting handle is invoked from a
+ * constant (e.g. a handle in a static final field), the JIT compiler can inline the whole chain of cases.
+ * </p>
+ * <p>
+ * The compiled handle is of type {@code (Object)Object} and returns the result of the first matching case or
+ * {@link ResultCase#NO_MATCH} if no case matches.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+final class CaseHandleCompiler {
+
+    /**
+     * Maximum amount of cases compiled into one handle tree. Every case adds a level of nesting to the tree, so larger
+     * tables are not compiled to limit the depth of the stack when evaluating the tree.
+     */
+    static final int MAX_CASES = 1000;
+
+    private static final MethodHandle PREDICATE_TEST;
+    private static final MethodHandle FUNCTION_APPLY;
+    private static final MethodHandle BOOLEAN_SUPPLIER_GET;
+    private static final MethodHandle SUPPLIER_GET;
+    private static final MethodHandle CLASS_IS_INSTANCE;
+    private static final MethodHandle OPTIONAL_IS_PRESENT;
+    private static final MethodHandle OPTIONAL_GET;
+    private static final MethodHandle OPTIONAL_INT_IS_PRESENT;
+    private static final MethodHandle OPTIONAL_INT_GET;
+    private static final MethodHandle INT_FUNCTION_APPLY;
+    private static final MethodHandle OPTIONAL_LONG_IS_PRESENT;
+    private static final MethodHandle OPTIONAL_LONG_GET;
+    private static final MethodHandle LONG_FUNCTION_APPLY;
+    private static final MethodHandle OPTIONAL_DOUBLE_IS_PRESENT;
+    private static final MethodHandle OPTIONAL_DOUBLE_GET;
+    private static final MethodHandle DOUBLE_FUNCTION_APPLY;
+    private static final MethodHandle CASE_EVALUATE;
+    private static final MethodHandle IS_NO_MATCH;
+    private static final MethodHandle REPLACE_NO_MATCH;
+
+    static {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            PREDICATE_TEST = lookup.findVirtual(Predicate.class, "test", methodType(boolean.class, Object.class));
+            FUNCTION_APPLY = lookup.findVirtual(Function.class, "apply", methodType(Object.class, Object.class));
+            BOOLEAN_SUPPLIER_GET = lookup.findVirtual(BooleanSupplier.class, "getAsBoolean", methodType(boolean.class));
+            SUPPLIER_GET = lookup.findVirtual(Supplier.class, "get", methodType(Object.class));
+            CLASS_IS_INSTANCE = lookup.findVirtual(Class.class, "isInstance", methodType(boolean.class, Object.class));
+            OPTIONAL_IS_PRESENT = lookup.findVirtual(Optional.class, "isPresent", methodType(boolean.class));
+            OPTIONAL_GET = lookup.findVirtual(Optional.class, "get", methodType(Object.class));
+            OPTIONAL_INT_IS_PRESENT = lookup.findVirtual(OptionalInt.class, "isPresent", methodType(boolean.class));
+            OPTIONAL_INT_GET = lookup.findVirtual(OptionalInt.class, "getAsInt", methodType(int.class));
+            INT_FUNCTION_APPLY = lookup.findVirtual(IntFunction.class, "apply", methodType(Object.class, int.class));
+            OPTIONAL_LONG_IS_PRESENT = lookup.findVirtual(OptionalLong.class, "isPresent", methodType(boolean.class));
+            OPTIONAL_LONG_GET = lookup.findVirtual(OptionalLong.class, "getAsLong", methodType(long.class));
+            LONG_FUNCTION_APPLY = lookup.findVirtual(LongFunction.class, "apply", methodType(Object.class, long.class));
+            OPTIONAL_DOUBLE_IS_PRESENT = lookup.findVirtual(OptionalDouble.class, "isPresent", methodType(boolean.class));
+            OPTIONAL_DOUBLE_GET = lookup.findVirtual(OptionalDouble.class, "getAsDouble", methodType(double.class));
+            DOUBLE_FUNCTION_APPLY = lookup.findVirtual(DoubleFunction.class, "apply", methodType(Object.class, double.class));
+            CASE_EVALUATE = lookup.findVirtual(ResultCase.class, "evaluate", methodType(Object.class, Object.class));
+            IS_NO_MATCH = lookup.findStatic(CaseHandleCompiler.class, "isNoMatch", methodType(boolean.class, Object.class));
+            REPLACE_NO_MATCH = lookup.findStatic(CaseHandleCompiler.class, "replaceNoMatch", methodType(Object.class, Object.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private CaseHandleCompiler() {
+        throw new IllegalStateException("Class CaseHandleCompiler must not be instantiated");
+    }
+
+    /**
+     * Throws {@code t} without the compiler requiring checked exceptions to be declared. Case predicates and functions
+     * do not declare checked exceptions, but may still throw them, e.g. via {@link Class#newInstance()}.
+     */
+    @SuppressWarnings("unchecked")
+    private static <X extends Throwable> X rethrow(Throwable t) throws X {
+        throw (X) t;
+    }
+
+    private static boolean isNoMatch(Object result) {
+        return result == NO_MATCH;
+    }
+
+    private static Object replaceNoMatch(Object otherwise, Object result) {
+        return result == NO_MATCH ? otherwise : result;
+    }
+
+    /**
+     * Returns a handle of type {@code (Object)Object} invoking {@code cases} and returning {@code otherwise} instead of
+     * {@link ResultCase#NO_MATCH}.
+     *
+     * @param cases     handle of type {@code (Object)Object} evaluating cases
+     * @param otherwise value returned if no case matches
+     * @return handle returning the result of the first matching case, or {@code otherwise}.
+     */
+    static MethodHandle otherwise(MethodHandle cases, Object otherwise) {
+        return MethodHandles.filterReturnValue(cases, REPLACE_NO_MATCH.bindTo(otherwise));
+    }
+
+    /**
+     * Returns a handle of type {@code (Object)Object} applying function {@code f}.
+     *
+     * @param f function to be applied by the handle
+     * @return handle applying {@code f}
+     */
+    static MethodHandle function(Function<?, ?> f) {
+        return FUNCTION_APPLY.bindTo(f);
+    }
+
+    /**
+     * Compiles the given cases into a method handle of type {@code (Object)Object}, evaluating the cases in order.
+     *
+     * @param cases cases to evaluate; must not hold more than {@link #MAX_CASES} cases.
+     * @return handle returning the result of the first matching case, or {@link ResultCase#NO_MATCH}.
+     */
+    static MethodHandle compile(ResultCase<?, ?>[] cases) {
+        MethodHandle next = constant(NO_MATCH);
+        for (int i = cases.length - 1; i >= 0; i--) {
+            next = compile(cases[i], next);
+        }
+        return next;
+    }
+
+    /**
+     * Returns a handle of type {@code (Object)Object} evaluating case {@code c} and, if the case does not match,
+     * handle {@code next}.
+     */
+    private static MethodHandle compile(ResultCase<?, ?> c, MethodHandle next) {
+        if (c instanceof ResultCase.ConstantCase) {
+            final ResultCase.ConstantCase<?, ?> constantCase = (ResultCase.ConstantCase<?, ?>) c;
+            // later cases are never reached if the constant is true, the case itself never matches otherwise
+            return constantCase.test ? FUNCTION_APPLY.bindTo(constantCase.f) : next;
+        } else if (c instanceof ResultCase.ConstantSupplyCase) {
+            final ResultCase.ConstantSupplyCase<?, ?> constantCase = (ResultCase.ConstantSupplyCase<?, ?>) c;
+            return constantCase.test ? supply(constantCase.supplier) : next;
+        } else if (c instanceof ResultCase.ClassCase) {
+            final ResultCase.ClassCase<?, ?, ?> classCase = (ResultCase.ClassCase<?, ?, ?>) c;
+            return MethodHandles.guardWithTest(CLASS_IS_INSTANCE.bindTo(classCase.clazz), FUNCTION_APPLY.bindTo(classCase.f), next);
+        } else if (c instanceof ResultCase.ClassConditionCase) {
+            final ResultCase.ClassConditionCase<?, ?, ?> classCase = (ResultCase.ClassConditionCase<?, ?, ?>) c;
+            final MethodHandle matched = MethodHandles.guardWithTest(PREDICATE_TEST.bindTo(classCase.condition), FUNCTION_APPLY.bindTo(classCase.f), next);
+            return MethodHandles.guardWithTest(CLASS_IS_INSTANCE.bindTo(classCase.clazz), matched, next);
+        } else if (c instanceof ResultCase.PredicateCase) {
+            final ResultCase.PredicateCase<?, ?> predicateCase = (ResultCase.PredicateCase<?, ?>) c;
+            return MethodHandles.guardWithTest(PREDICATE_TEST.bindTo(predicateCase.p), FUNCTION_APPLY.bindTo(predicateCase.f), next);
+        } else if (c instanceof ResultCase.SupplierCase) {
+            final ResultCase.SupplierCase<?, ?> supplierCase = (ResultCase.SupplierCase<?, ?>) c;
+            final MethodHandle test = MethodHandles.dropArguments(BOOLEAN_SUPPLIER_GET.bindTo(supplierCase.s), 0, Object.class);
+            return MethodHandles.guardWithTest(test, FUNCTION_APPLY.bindTo(supplierCase.f), next);
+        } else if (c instanceof ResultCase.PredicateSupplyCase) {
+            final ResultCase.PredicateSupplyCase<?, ?> predicateCase = (ResultCase.PredicateSupplyCase<?, ?>) c;
+            return MethodHandles.guardWithTest(PREDICATE_TEST.bindTo(predicateCase.p), supply(predicateCase.supplier), next);
+        } else if (c instanceof ResultCase.ObjCase) {
+            final ResultCase.ObjCase<?, ?, ?> objCase = (ResultCase.ObjCase<?, ?, ?>) c;
+            return unwrapping(objCase.p, Optional.class, OPTIONAL_IS_PRESENT, OPTIONAL_GET, FUNCTION_APPLY.bindTo(objCase.f), next);
+        } else if (c instanceof ResultCase.IntCase) {
+            final ResultCase.IntCase<?, ?> intCase = (ResultCase.IntCase<?, ?>) c;
+            return unwrapping(intCase.p, OptionalInt.class, OPTIONAL_INT_IS_PRESENT, OPTIONAL_INT_GET, INT_FUNCTION_APPLY.bindTo(intCase.f), next);
+        } else if (c instanceof ResultCase.LongCase) {
+            final ResultCase.LongCase<?, ?> longCase = (ResultCase.LongCase<?, ?>) c;
+            return unwrapping(longCase.p, OptionalLong.class, OPTIONAL_LONG_IS_PRESENT, OPTIONAL_LONG_GET, LONG_FUNCTION_APPLY.bindTo(longCase.f), next);
+        } else if (c instanceof ResultCase.DoubleCase) {
+            final ResultCase.DoubleCase<?, ?> doubleCase = (ResultCase.DoubleCase<?, ?>) c;
+            return unwrapping(doubleCase.p, OptionalDouble.class, OPTIONAL_DOUBLE_IS_PRESENT, OPTIONAL_DOUBLE_GET, DOUBLE_FUNCTION_APPLY.bindTo(doubleCase.f), next);
+        } else {
+            // unknown kind of case: evaluate the case itself and continue with the next case on NO_MATCH
+            final MethodHandle evaluate = CASE_EVALUATE.bindTo(c);
+            // (result, input) -> result == NO_MATCH ? next(input) : result
+            final MethodHandle select = MethodHandles.guardWithTest(
+                    MethodHandles.dropArguments(IS_NO_MATCH, 1, Object.class),
+                    MethodHandles.dropArguments(next, 0, Object.class),
+                    MethodHandles.dropArguments(MethodHandles.identity(Object.class), 1, Object.class));
+            return MethodHandles.foldArguments(select, evaluate);
+        }
+    }
+
+    /**
+     * Returns a handle of type {@code (Object)Object} ignoring its argument and returning the value provided by
+     * {@code supplier}.
+     */
+    private static MethodHandle supply(Supplier<?> supplier) {
+        return MethodHandles.dropArguments(SUPPLIER_GET.bindTo(supplier), 0, Object.class);
+    }
+
+    /**
+     * Returns a handle of type {@code (Object)Object} mapping the input to an optional value using {@code p}. If the
+     * value is present, the handle returns the result of {@code f} applied to the value, otherwise it returns the result
+     * of {@code next} applied to the input.
+     *
+     * @param p            function mapping the input to an optional value
+     * @param optionalType type of the optional value returned by {@code p}
+     * @param isPresent    handle checking if the optional value is present
+     * @param get          handle unwrapping the optional value
+     * @param f            handle computing the result from the unwrapped value
+     * @param next         handle evaluating the following cases
+     */
+    private static MethodHandle unwrapping(Function<?, ?> p, Class<?> optionalType, MethodHandle isPresent,
+                                           MethodHandle get, MethodHandle f, MethodHandle next) {
+        // (optional, input) -> optional.isPresent() ? f(optional.get()) : next(input)
+        final MethodHandle present = MethodHandles.dropArguments(MethodHandles.filterArguments(f, 0, get), 1, Object.class);
+        final MethodHandle select = MethodHandles.guardWithTest(
+                MethodHandles.dropArguments(isPresent, 1, Object.class),
+                present,
+                MethodHandles.dropArguments(next, 0, optionalType));
+        // compute the optional once and pass it to select in front of the input
+        final MethodHandle map = FUNCTION_APPLY.bindTo(p).asType(methodType(optionalType, Object.class));
+        return MethodHandles.foldArguments(select, map);
+    }
+
+    /**
+     * Returns a handle of type {@code (Object)Object} ignoring its argument and returning {@code value}.
+     */
+    private static MethodHandle constant(Object value) {
+        return MethodHandles.dropArguments(MethodHandles.constant(Object.class, value), 0, Object.class);
+    }
+
+    /**
+     * Wraps the compiled handle of a case table into a function. The handle is held in a final field, so the JIT
+     * compiler can inline it whenever the function itself is a constant for the compiled code.
+     */
+    static final class HandleFunction implements Function<Object, Object> {
+
+        private final MethodHandle handle;
+
+        HandleFunction(MethodHandle handle) {
+            this.handle = Objects.requireNonNull(handle);
+        }
+
+        @Override
+        public Object apply(Object input) {
+            try {
+                return (Object) handle.invokeExact(input);
+            } catch (Throwable t) {
+                // rethrow unchanged, as if the cases were evaluated directly
+                throw CaseHandleCompiler.<RuntimeException>rethrow(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package de.boereck.matcher.lazy;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records which cases of an instrumented {@link LazyResultCaseMatcher} match the inputs and how long the evaluation of
+ * the cases takes. A matcher is instrumented via {@link LazyResultCaseMatcher#instrumented(CaseStatistics)}; matchers
+ * that are not instrumented do not record anything and do not pay any cost for the instrumentation.
+ * <p>
+ * For every case the statistics count how often the case matched an input. Additionally the time needed to evaluate the
+ * case is recorded in two latency histograms per case: one for evaluations where the case did not match (meaning only
+ * the check of the case was performed) and one for evaluations where the case matched (meaning the check and the
+ * action computing the result were performed). Inputs no case matched are counted separately.
+ * </p>
+ * <p>
+ * Reading the clock twice per evaluated case costs more than evaluating simple cases, so by default only a random
+ * sample of about one in {@link #DEFAULT_TIMING_RATE} inputs is timed. The hits and the inputs no case matched are
+ * counted for every input, the latency histograms only hold the timed sample. Statistics timing every input can be
+ * created via {@link #CaseStatistics(int) new CaseStatistics(1)}.
+ * </p>
+ * <p>
+ * The statistics are recorded using {@link LongAdder}s, so matchers can be applied concurrently from multiple threads
+ * without contending on shared counters. The recorded values can be read at any time via {@link #snapshot()}. Since
+ * the counters are updated concurrently, a snapshot taken while the matcher is used is not guaranteed to be consistent
+ * across all counters.
+ * </p>
+ * <p>
+ * Cases are identified by their index in the order they were defined, starting at zero. One instance can be shared by
+ * several matchers, e.g. by matchers created by adding cases to an instrumented matcher; the cases at the same index
+ * then share their counters.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+public final class CaseStatistics {
+
+    /**
+     * Amount of buckets of the latency histograms. The last bucket counts all evaluations taking at least
+     * 2<sup>{@code BUCKETS - 2}</sup> nanoseconds.
+     */
+    static final int BUCKETS = 40;
+
+    /**
+     * On average one in this amount of inputs is timed by statistics created via {@link #CaseStatistics()}.
+     */
+    public static final int DEFAULT_TIMING_RATE = 16;
+
+    private final Object lock = new Object();
+
+    private final int timingRate;
+
+    /**
+     * Counters per case. Only grows, the array is replaced when counters for more cases are requested.
+     */
+    private volatile CaseCounter[] counters = new CaseCounter[0];
+
+    private final LongAdder noMatches = new LongAdder();
+
+    /**
+     * Creates statistics timing the evaluation of a random sample of about one in {@link #DEFAULT_TIMING_RATE} inputs.
+     */
+    public CaseStatistics() {
+        this(DEFAULT_TIMING_RATE);
+    }
+
+    /**
+     * Creates statistics timing the evaluation of a random sample of about one in {@code timingRate} inputs. With a
+     * rate of {@code 1} the evaluation of every input is timed.
+     *
+     * @param timingRate on average one in this amount of inputs is timed
+     * @throws IllegalArgumentException if {@code timingRate} is less than {@code 1}.
+     */
+    public CaseStatistics(int timingRate) throws IllegalArgumentException {
+        if (timingRate < 1) {
+            throw new IllegalArgumentException("Timing rate must be at least 1: " + timingRate);
+        }
+        this.timingRate = timingRate;
+    }
+
+    /**
+     * Returns the counters for the cases with index {@code 0} to {@code caseCount - 1}, creating missing counters.
+     *
+     * @param caseCount amount of cases
+     * @return array holding at least {@code caseCount} counters
+     */
+    CaseCounter[] counters(int caseCount) {
+        CaseCounter[] counters = this.counters;
+        if (counters.length < caseCount) {
+            synchronized (lock) {
+                counters = this.counters;
+                if (counters.length < caseCount) {
+                    final CaseCounter[] grown = Arrays.copyOf(counters, caseCount);
+                    for (int i = counters.length; i < caseCount; i++) {
+                        grown[i] = new CaseCounter();
+                    }
+                    this.counters = counters = grown;
+                }
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * Decides if the evaluation of the current input is timed.
+     *
+     * @return {@code true} if the latencies of the cases evaluated for the current input are to be recorded
+     */
+    boolean timed() {
+        return timingRate == 1 || ThreadLocalRandom.current().nextInt(timingRate) == 0;
+    }
+
+    /**
+     * Counts an input no case matched.
+     */
+    void recordNoMatch() {
+        noMatches.increment();
+    }
+
+    /**
+     * Returns the values recorded so far.
+     *
+     * @return snapshot of the recorded values
+     */
+    public Snapshot snapshot() {
+        final CaseCounter[] counters = this.counters;
+        final long[] hits = new long[counters.length];
+        final Histogram[] matchLatencies = new Histogram[counters.length];
+        final Histogram[] missLatencies = new Histogram[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            hits[i] = counters[i].hits.sum();
+            matchLatencies[i] = counters[i].matchLatency.snapshot();
+            missLatencies[i] = counters[i].missLatency.snapshot();
+        }
+        return new Snapshot(hits, noMatches.sum(), matchLatencies, missLatencies);
+    }
+
+    /**
+     * Resets all recorded values to zero. Values recorded concurrently to the reset may or may not be reset.
+     */
+    public void reset() {
+        for (CaseCounter counter : counters) {
+            counter.hits.reset();
+            counter.matchLatency.reset();
+            counter.missLatency.reset();
+        }
+        noMatches.reset();
+    }
+
+    /**
+     * Counters of one case.
+     */
+    static final class CaseCounter {
+
+        final LongAdder hits = new LongAdder();
+
+        final LatencyRecorder matchLatency = new LatencyRecorder();
+
+        final LatencyRecorder missLatency = new LatencyRecorder();
+
+        /**
+         * Counts an input the case matched, without recording the latency.
+         */
+        void recordHit() {
+            hits.increment();
+        }
+
+        /**
+         * Records a timed evaluation of the case.
+         *
+         * @param matched {@code true} if the case matched the input
+         * @param nanos   time the evaluation took in nanoseconds
+         */
+        void record(boolean matched, long nanos) {
+            if (matched) {
+                hits.increment();
+                matchLatency.record(nanos);
+            } else {
+                missLatency.record(nanos);
+            }
+        }
+    }
+
+    /**
+     * Histogram with buckets growing by powers of two, recording durations in nanoseconds.
+     */
+    static final class LatencyRecorder {
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        LatencyRecorder() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos) {
+            // bucket b > 0 holds durations from 2^(b-1) to 2^b - 1, bucket 0 holds durations of zero (or less)
+            final int bucket = nanos <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(nanos);
+            buckets[Math.min(bucket, BUCKETS - 1)].increment();
+        }
+
+        Histogram snapshot() {
+            final long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+            }
+            return new Histogram(counts);
+        }
+
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+        }
+    }
+
+    /**
+     * Values recorded by a {@link CaseStatistics} at the time the snapshot was taken. Instances are immutable.
+     */
+    public static final class Snapshot {
+
+        private final long[] hits;
+
+        private final long noMatches;
+
+        private final Histogram[] matchLatencies;
+
+        private final Histogram[] missLatencies;
+
+        Snapshot(long[] hits, long noMatches, Histogram[] matchLatencies, Histogram[] missLatencies) {
+            this.hits = hits;
+            this.noMatches = noMatches;
+            this.matchLatencies = matchLatencies;
+            this.missLatencies = missLatencies;
+        }
+
+        /**
+         * Returns the amount of cases statistics were recorded for.
+         *
+         * @return amount of cases
+         */
+        public int caseCount() {
+            return hits.length;
+        }
+
+        /**
+         * Returns how often the case with index {@code caseIndex} matched an input.
+         *
+         * @param caseIndex index of the case, in the order the cases were defined
+         * @return amount of inputs the case matched
+         * @throws IndexOutOfBoundsException if {@code caseIndex} is not between {@code 0} and {@code caseCount() - 1}.
+         */
+        public long hits(int caseIndex) throws IndexOutOfBoundsException {
+            return hits[caseIndex];
+        }
+
+        /**
+         * Returns how often no case matched an input.
+         *
+         * @return amount of inputs no case matched
+         */
+        public long noMatches() {
+            return noMatches;
+        }
+
+        /**
+         * Returns the total amount of inputs matched, meaning the sum of the hits of all cases and the inputs no case
+         * matched.
+         *
+         * @return total amount of inputs
+         */
+        public long total() {
+            long total = noMatches;
+            for (long h : hits) {
+                total += h;
+            }
+            return total;
+        }
+
+        /**
+         * Returns the latencies of evaluations where the case with index {@code caseIndex} matched, including the time
+         * needed to compute the result of the case.
+         *
+         * @param caseIndex index of the case, in the order the cases were defined
+         * @return latency histogram of matching evaluations of the case
+         * @throws IndexOutOfBoundsException if {@code caseIndex} is not between {@code 0} and {@code caseCount() - 1}.
+         */
+        public Histogram matchLatency(int caseIndex) throws IndexOutOfBoundsException {
+            return matchLatencies[caseIndex];
+        }
+
+        /**
+         * Returns the latencies of evaluations where the case with index {@code caseIndex} did not match.
+         *
+         * @param caseIndex index of the case, in the order the cases were defined
+         * @return latency histogram of evaluations of the case that did not match
+         * @throws IndexOutOfBoundsException if {@code caseIndex} is not between {@code 0} and {@code caseCount() - 1}.
+         */
+        public Histogram missLatency(int caseIndex) throws IndexOutOfBoundsException {
+            return missLatencies[caseIndex];
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("CaseStatistics[");
+            for (int i = 0; i < hits.length; i++) {
+                sb.append("case ").append(i).append('=').append(hits[i]).append(", ");
+            }
+            return sb.append("noMatch=").append(noMatches).append(']').toString();
+        }
+    }
+
+    /**
+     * Snapshot of a latency histogram. Bucket {@code 0} counts durations of zero nanoseconds, bucket {@code b > 0} counts
+     * durations from 2<sup>b-1</sup> to 2<sup>b</sup>-1 nanoseconds. The last bucket additionally counts all longer
+     * durations. Instances are immutable.
+     */
+    public static final class Histogram {
+
+        private final long[] counts;
+
+        Histogram(long[] counts) {
+            this.counts = Objects.requireNonNull(counts);
+        }
+
+        /**
+         * Returns the amount of buckets of the histogram.
+         *
+         * @return amount of buckets
+         */
+        public int bucketCount() {
+            return counts.length;
+        }
+
+        /**
+         * Returns the amount of durations recorded in bucket {@code bucket}.
+         *
+         * @param bucket index of the bucket
+         * @return amount of durations in the bucket
+         * @throws IndexOutOfBoundsException if {@code bucket} is not between {@code 0} and {@code bucketCount() - 1}.
+         */
+        public long count(int bucket) throws IndexOutOfBoundsException {
+            return counts[bucket];
+        }
+
+        /**
+         * Returns the largest duration in nanoseconds counted in bucket {@code bucket}. The last bucket is unbounded,
+         * for this bucket {@link Long#MAX_VALUE} is returned.
+         *
+         * @param bucket index of the bucket
+         * @return upper bound of the bucket in nanoseconds (inclusive)
+         * @throws IndexOutOfBoundsException if {@code bucket} is not between {@code 0} and {@code bucketCount() - 1}.
+         */
+        public long upperBound(int bucket) throws IndexOutOfBoundsException {
+            if (bucket < 0 || bucket >= counts.length) {
+                throw new IndexOutOfBoundsException("No bucket " + bucket);
+            }
+            return bucket == counts.length - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+        }
+
+        /**
+         * Returns the total amount of recorded durations.
+         *
+         * @return amount of recorded durations
+         */
+        public long count() {
+            long count = 0;
+            for (long c : counts) {
+                count += c;
+            }
+            return count;
+        }
+
+        /**
+         * Returns an upper bound of the given percentile of the recorded durations, meaning the upper bound of the
+         * bucket containing the percentile. If no durations are recorded, {@code 0} is returned.
+         *
+         * @param percentile percentile between {@code 0} and {@code 100}
+         * @return upper bound of the percentile in nanoseconds
+         * @throws IllegalArgumentException if {@code percentile} is not between {@code 0} and {@code 100}.
+         */
+        public long percentile(double percentile) throws IllegalArgumentException {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+            }
+            final long count = count();
+            if (count == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+            for (int b = 0; b < counts.length; b++) {
+                seen += counts[b];
+                if (seen >= rank) {
+                    return upperBound(b);
+                }
+            }
+            return upperBound(counts.length - 1);
+        }
+    }
+}
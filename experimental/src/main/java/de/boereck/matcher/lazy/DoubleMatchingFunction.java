@@ -0,0 +1,53 @@
+package de.boereck.matcher.lazy;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Version of {@link DoubleFunction} that additionally specifies {@link #match(double) match(double)} method which has
+ * the same effect as calling {@link #apply(double) apply(double)}. All contracts from function apply to this function.
+ *
+ * @param <O> type of the output of the function
+ * @author Max Bureck
+ */
+@FunctionalInterface
+public interface DoubleMatchingFunction<O> extends DoubleFunction<O> {
+
+    /**
+     * Returns a function that first applies this function and then applies the function {@code after} on the result.
+     *
+     * @param after function applied on the output of this function. Must not be {@code null}.
+     * @param <V>   type of the output of function {@code after}
+     * @return composed function
+     * @throws NullPointerException if {@code after} is {@code null}.
+     */
+    default <V> DoubleMatchingFunction<V> andThen(Function<? super O, ? extends V> after) throws NullPointerException {
+        Objects.requireNonNull(after);
+        return d -> after.apply(apply(d));
+    }
+
+    /**
+     * Has the same effect as calling {@link #apply(double)}. All contracts from apply are valid for this function as well.
+     *
+     * @param d input to the function
+     * @return output of the function
+     * @see #apply(double)
+     */
+    default O match(double d) {
+        return apply(d);
+    }
+
+    /**
+     * Calls {@link #match(double)} with the value provided by {@code inputSupplier}.
+     *
+     * @param inputSupplier provides the input to the function. Must not be {@code null}.
+     * @return output of the function
+     * @throws NullPointerException if {@code inputSupplier} is {@code null}.
+     */
+    default O match(DoubleSupplier inputSupplier) throws NullPointerException {
+        Objects.requireNonNull(inputSupplier);
+        return match(inputSupplier.getAsDouble());
+    }
+}
@@ -0,0 +1,410 @@
+package de.boereck.matcher.lazy;
+
+import de.boereck.matcher.helpers.DoubleRange;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.OptionalInt;
+import java.util.OptionalDouble;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.Supplier;
+
+import static de.boereck.matcher.lazy.ResultCase.NO_MATCH;
+
+/**
+ * One entry of the case table held by {@link DoubleResultCaseTable}. Like {@link ResultCase}, a case combines the check if it
+ * matches an input and the computation of the result into one method, {@link #evaluate(double)}, which returns
+ * {@link ResultCase#NO_MATCH} if the case does not match. All implementations are immutable.
+ *
+ * @param <O> type of the result object
+ * @author Max Bureck
+ */
+abstract class DoubleResultCase<O> {
+
+    /**
+     * Checks if this case matches the given {@code input} and if it does, computes the result of the case.
+     *
+     * @param input value to be matched
+     * @return either the result of this case (may be {@code null}) or {@link ResultCase#NO_MATCH} if the case does not
+     * match the {@code input}.
+     */
+    abstract Object evaluate(double input);
+
+    /**
+     * Checks if this case matches the given {@code input}, without computing the result of the case.
+     *
+     * @param input value to be matched
+     * @return index of the matching case relative to the first case represented by this case (always {@code 0}, unless
+     * this case represents several cases, see {@link #caseCount()}), or {@link KeySwitch#NO_CASE} if no case matches.
+     */
+    abstract int matchIndex(double input);
+
+    /**
+     * Returns the amount of defined cases represented by this case. This is {@code 1}, unless several cases were
+     * compiled into this case.
+     *
+     * @return amount of cases represented by this case
+     */
+    int caseCount() {
+        return 1;
+    }
+
+    /**
+     * Case matching all values in a closed range, defined by a case on a
+     * {@link de.boereck.matcher.helpers.DoubleRange DoubleRange} predicate, or matching NaN, defined by a case on
+     * {@link de.boereck.matcher.helpers.DoubleMatchHelpers#isNaN isNaN}. Consecutive key cases are compiled into a
+     * {@link SwitchCase}.
+     */
+    static final class KeyCase<O> extends DoubleResultCase<O> {
+
+        final double start;
+
+        final double end;
+
+        /**
+         * If {@code true} the case only matches NaN, {@link #start} and {@link #end} are ignored.
+         */
+        final boolean nan;
+
+        final DoubleFunction<? extends O> f;
+
+        KeyCase(double start, double end, DoubleFunction<? extends O> f) {
+            this(start, end, false, f);
+        }
+
+        private KeyCase(double start, double end, boolean nan, DoubleFunction<? extends O> f) {
+            this.start = start;
+            this.end = end;
+            this.nan = nan;
+            this.f = f;
+        }
+
+        /**
+         * Creates a case only matching NaN.
+         */
+        static <O> KeyCase<O> nan(DoubleFunction<? extends O> f) {
+            return new KeyCase<>(Double.NaN, Double.NaN, true, f);
+        }
+
+        private boolean matches(double input) {
+            return nan ? input != input : input >= start && input <= end;
+        }
+
+        @Override
+        Object evaluate(double input) {
+            return matches(input) ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(double input) {
+            return matches(input) ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Replaces a sequence of {@link KeyCase}s by a breakpoint table: the bounds of the ranges are mapped to long keys
+     * via {@link DoubleRange#key(double)} and the first matching range is found via a {@link KeySwitch}. NaN is not ordered
+     * relative to any value, so it does not get a key; instead the index of the first case matching NaN is stored in
+     * a dedicated slot.
+     */
+    static final class SwitchCase<O> extends DoubleResultCase<O> {
+
+        /**
+         * Switch over the range cases, {@code null} if all cases match NaN.
+         */
+        private final KeySwitch keySwitch;
+
+        /**
+         * Index of the case for every case of the {@link #keySwitch}, NaN cases are not part of the switch.
+         */
+        private final int[] rangeCases;
+
+        private final int nanIndex;
+
+        private final DoubleFunction<? extends O>[] functions;
+
+        @SuppressWarnings("unchecked")
+        SwitchCase(KeyCase<O>[] keyCases) {
+            final long[] starts = new long[keyCases.length];
+            final long[] ends = new long[keyCases.length];
+            final int[] rangeCases = new int[keyCases.length];
+            int rangeCount = 0;
+            int nanIndex = KeySwitch.NO_CASE;
+            functions = (DoubleFunction<? extends O>[]) new DoubleFunction<?>[keyCases.length];
+            for (int i = 0; i < keyCases.length; i++) {
+                final KeyCase<O> keyCase = keyCases[i];
+                functions[i] = keyCase.f;
+                if (keyCase.nan) {
+                    if (nanIndex == KeySwitch.NO_CASE) {
+                        nanIndex = i;
+                    }
+                } else if (keyCase.start <= keyCase.end) {
+                    // empty or NaN bounded ranges never match and are left out
+                    starts[rangeCount] = DoubleRange.key(keyCase.start);
+                    ends[rangeCount] = DoubleRange.key(keyCase.end);
+                    rangeCases[rangeCount] = i;
+                    rangeCount++;
+                }
+            }
+            this.keySwitch = rangeCount == 0 ? null
+                    : KeySwitch.compile(Arrays.copyOf(starts, rangeCount), Arrays.copyOf(ends, rangeCount));
+            this.rangeCases = rangeCases;
+            this.nanIndex = nanIndex;
+        }
+
+        @Override
+        Object evaluate(double input) {
+            final int index = matchIndex(input);
+            return index == KeySwitch.NO_CASE ? NO_MATCH : functions[index].apply(input);
+        }
+
+        @Override
+        int matchIndex(double input) {
+            if (input != input) {
+                return nanIndex;
+            }
+            final int range = keySwitch == null ? KeySwitch.NO_CASE : keySwitch.indexOf(DoubleRange.key(input));
+            return range == KeySwitch.NO_CASE ? KeySwitch.NO_CASE : rangeCases[range];
+        }
+
+        @Override
+        int caseCount() {
+            return functions.length;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultDoubleCaseMatcher#caseOf(DoublePredicate, DoubleFunction)}.
+     */
+    static final class PredicateCase<O> extends DoubleResultCase<O> {
+
+        private final DoublePredicate p;
+
+        private final DoubleFunction<? extends O> f;
+
+        PredicateCase(DoublePredicate p, DoubleFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(double input) {
+            return p.test(input) ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(double input) {
+            return p.test(input) ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultDoubleCaseMatcher#caseOf(BooleanSupplier, DoubleFunction)}.
+     */
+    static final class SupplierCase<O> extends DoubleResultCase<O> {
+
+        private final BooleanSupplier s;
+
+        private final DoubleFunction<? extends O> f;
+
+        SupplierCase(BooleanSupplier s, DoubleFunction<? extends O> f) {
+            this.s = s;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(double input) {
+            return s.getAsBoolean() ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(double input) {
+            return s.getAsBoolean() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultDoubleCaseMatcher#caseOf(boolean, DoubleFunction)}.
+     */
+    static final class ConstantCase<O> extends DoubleResultCase<O> {
+
+        private final boolean test;
+
+        private final DoubleFunction<? extends O> f;
+
+        ConstantCase(boolean test, DoubleFunction<? extends O> f) {
+            this.test = test;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(double input) {
+            return test ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(double input) {
+            return test ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultDoubleCaseMatcher#caseIs(DoublePredicate, Supplier)}.
+     */
+    static final class PredicateSupplyCase<O> extends DoubleResultCase<O> {
+
+        private final DoublePredicate p;
+
+        private final Supplier<? extends O> supplier;
+
+        PredicateSupplyCase(DoublePredicate p, Supplier<? extends O> supplier) {
+            this.p = p;
+            this.supplier = supplier;
+        }
+
+        @Override
+        Object evaluate(double input) {
+            return p.test(input) ? supplier.get() : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(double input) {
+            return p.test(input) ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultDoubleCaseMatcher#caseIs(boolean, Supplier)}.
+     */
+    static final class ConstantSupplyCase<O> extends DoubleResultCase<O> {
+
+        private final boolean test;
+
+        private final Supplier<? extends O> supplier;
+
+        ConstantSupplyCase(boolean test, Supplier<? extends O> supplier) {
+            this.test = test;
+            this.supplier = supplier;
+        }
+
+        @Override
+        Object evaluate(double input) {
+            return test ? supplier.get() : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(double input) {
+            return test ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultDoubleCaseMatcher#caseObj(DoubleFunction, Function)}.
+     */
+    static final class ObjCase<O, T> extends DoubleResultCase<O> {
+
+        private final DoubleFunction<Optional<T>> p;
+
+        private final Function<? super T, ? extends O> f;
+
+        ObjCase(DoubleFunction<Optional<T>> p, Function<? super T, ? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(double input) {
+            final Optional<T> opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.get()) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(double input) {
+            return p.apply(input).isPresent() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultDoubleCaseMatcher#caseInt(DoubleFunction, IntFunction)}.
+     */
+    static final class IntCase<O> extends DoubleResultCase<O> {
+
+        private final DoubleFunction<OptionalInt> p;
+
+        private final IntFunction<? extends O> f;
+
+        IntCase(DoubleFunction<OptionalInt> p, IntFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(double input) {
+            final OptionalInt opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.getAsInt()) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(double input) {
+            return p.apply(input).isPresent() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultDoubleCaseMatcher#caseDouble(DoubleFunction, DoubleFunction)}.
+     */
+    static final class DoubleCase<O> extends DoubleResultCase<O> {
+
+        private final DoubleFunction<OptionalDouble> p;
+
+        private final DoubleFunction<? extends O> f;
+
+        DoubleCase(DoubleFunction<OptionalDouble> p, DoubleFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(double input) {
+            final OptionalDouble opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.getAsDouble()) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(double input) {
+            return p.apply(input).isPresent() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultDoubleCaseMatcher#caseLong(DoubleFunction, LongFunction)}.
+     */
+    static final class LongCase<O> extends DoubleResultCase<O> {
+
+        private final DoubleFunction<OptionalLong> p;
+
+        private final LongFunction<? extends O> f;
+
+        LongCase(DoubleFunction<OptionalLong> p, LongFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(double input) {
+            final OptionalLong opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.getAsLong()) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(double input) {
+            return p.apply(input).isPresent() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package de.boereck.matcher.lazy;
+
+import de.boereck.matcher.helpers.DoubleMatchHelpers;
+import de.boereck.matcher.helpers.DoubleRange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.OptionalInt;
+import java.util.OptionalDouble;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.Supplier;
+
+import static de.boereck.matcher.lazy.ResultCase.NO_MATCH;
+
+/**
+ * Implementation of {@link LazyResultDoubleCaseMatcher} holding the defined cases in an immutable array. To instantiate use static
+ * method {@link LazyMatcher#lazyResultDoubleMatch()}. Like {@link ResultCaseTable}, every case method returns a new
+ * instance with the new case appended to a copy of the case array.
+ * <p>
+ * When the matcher is applied for the first time, every sequence of at least {@link #SWITCH_THRESHOLD} consecutive
+ * cases defined on ranges created by {@link DoubleRange#fromHelpers(DoublePredicate) helpers} or on
+ * {@link DoubleMatchHelpers#isNaN isNaN} is compiled into a single {@link DoubleResultCase.SwitchCase}, which finds the first matching case of the sequence via a breakpoint table. Since the cases of the sequence
+ * are only compared with the input, the order of evaluation of the remaining cases is not changed by this.
+ * </p>
+ *
+ * @param <O> type of the output/result object
+ * @author Max Bureck
+ */
+final class DoubleResultCaseTable<O> implements LazyResultDoubleCaseMatcher<O> {
+
+    /**
+     * Case table without any cases.
+     */
+    private static final DoubleResultCaseTable<?> EMPTY = new DoubleResultCaseTable<>(new DoubleResultCase<?>[0]);
+
+    /**
+     * Minimum amount of consecutive key cases that are compiled into a lookup. For less cases, comparing the input
+     * with every case is cheaper than the lookup.
+     */
+    static final int SWITCH_THRESHOLD = 4;
+
+    /**
+     * Cases in the order they were defined. The array is never modified after construction.
+     */
+    private final DoubleResultCase<O>[] cases;
+
+    /**
+     * Cases with sequences of key cases replaced by lookups. Computed on first use, since the cases of intermediate
+     * tables created while defining a matcher are never evaluated.
+     */
+    private volatile DoubleResultCase<O>[] compiled;
+
+    /**
+     * Private constructor, instances are created via {@link #empty()} and by the case methods.
+     *
+     * @param cases case table; the array must not be modified after passing it to this constructor.
+     */
+    @SuppressWarnings("unchecked")
+    private DoubleResultCaseTable(DoubleResultCase<?>[] cases) {
+        this.cases = (DoubleResultCase<O>[]) cases;
+    }
+
+    /**
+     * Returns a case table without cases.
+     *
+     * @param <O> type of the output/result object
+     * @return case table without cases
+     */
+    @SuppressWarnings("unchecked") // Safe, since table without cases never produces outputs
+    static <O> DoubleResultCaseTable<O> empty() {
+        return (DoubleResultCaseTable<O>) EMPTY;
+    }
+
+    /**
+     * Returns a new case table with all cases of this table, followed by the given case {@code c}.
+     *
+     * @param c case to append
+     * @return new case table ending with case {@code c}
+     */
+    private DoubleResultCaseTable<O> with(DoubleResultCase<O> c) {
+        final DoubleResultCase<O>[] cases = this.cases;
+        final DoubleResultCase<O>[] newCases = Arrays.copyOf(cases, cases.length + 1);
+        newCases[cases.length] = c;
+        return new DoubleResultCaseTable<>(newCases);
+    }
+
+    /**
+     * Returns the cases to evaluate, with sequences of key cases compiled to lookups. Concurrent first calls may compile
+     * the cases more than once, but all of them compute equivalent tables.
+     *
+     * @return compiled cases
+     */
+    private DoubleResultCase<O>[] compiled() {
+        DoubleResultCase<O>[] compiled = this.compiled;
+        if (compiled == null) {
+            compiled = compile(cases);
+            this.compiled = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Replaces every sequence of at least {@link #SWITCH_THRESHOLD} consecutive {@link DoubleResultCase.KeyCase}s by a
+     * {@link DoubleResultCase.SwitchCase}.
+     *
+     * @param cases cases in order of definition
+     * @param <O>   type of the output/result object
+     * @return cases with compiled key cases
+     */
+    @SuppressWarnings("unchecked")
+    private static <O> DoubleResultCase<O>[] compile(DoubleResultCase<O>[] cases) {
+        final List<DoubleResultCase<O>> result = new ArrayList<>(cases.length);
+        int index = 0;
+        while (index < cases.length) {
+            int end = index;
+            while (end < cases.length && cases[end] instanceof DoubleResultCase.KeyCase) {
+                end++;
+            }
+            if (end - index >= SWITCH_THRESHOLD) {
+                final DoubleResultCase.KeyCase<O>[] keyCases = Arrays.copyOfRange(cases, index, end, DoubleResultCase.KeyCase[].class);
+                result.add(new DoubleResultCase.SwitchCase<>(keyCases));
+                index = end;
+            } else {
+                // too few key cases (maybe none) before next other case
+                final int next = Math.max(end, index + 1);
+                for (; index < next; index++) {
+                    result.add(cases[index]);
+                }
+            }
+        }
+        return result.toArray((DoubleResultCase<O>[]) new DoubleResultCase<?>[result.size()]);
+    }
+
+    /**
+     * Evaluates the cases in the given order, until the first case matches the input {@code d}.
+     *
+     * @param cases compiled cases
+     * @param d     input to match
+     * @param <O>   type of the output/result object
+     * @return result of the first matching case (may be {@code null}) or {@link ResultCase#NO_MATCH} if no case matches.
+     */
+    private static <O> Object evaluate(DoubleResultCase<O>[] cases, double d) {
+        for (int index = 0; index < cases.length; index++) {
+            final Object result = cases[index].evaluate(d);
+            if (result != NO_MATCH) {
+                return result;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultDoubleCaseMatcher<O> caseOf(DoublePredicate p, DoubleFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        final DoubleRange range = DoubleRange.fromHelpers(p);
+        if (range != null) {
+            return with(new DoubleResultCase.KeyCase<>(range.startIncluding(), range.endIncluding(), f));
+        }
+        if (p == DoubleMatchHelpers.isNaN) {
+            return with(DoubleResultCase.KeyCase.nan(f));
+        }
+        return with(new DoubleResultCase.PredicateCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultDoubleCaseMatcher<O> caseOf(BooleanSupplier s, DoubleFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(s);
+        Objects.requireNonNull(f);
+        return with(new DoubleResultCase.SupplierCase<>(s, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultDoubleCaseMatcher<O> caseOf(boolean test, DoubleFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(f);
+        return with(new DoubleResultCase.ConstantCase<>(test, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultDoubleCaseMatcher<O> caseIs(DoublePredicate p, Supplier<? extends O> supplier) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(supplier);
+        final DoubleRange range = DoubleRange.fromHelpers(p);
+        if (range != null) {
+            return with(new DoubleResultCase.KeyCase<O>(range.startIncluding(), range.endIncluding(), d -> supplier.get()));
+        }
+        if (p == DoubleMatchHelpers.isNaN) {
+            return with(DoubleResultCase.KeyCase.<O>nan(d -> supplier.get()));
+        }
+        return with(new DoubleResultCase.PredicateSupplyCase<>(p, supplier));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultDoubleCaseMatcher<O> caseIs(boolean test, Supplier<? extends O> supplier) throws NullPointerException {
+        Objects.requireNonNull(supplier);
+        return with(new DoubleResultCase.ConstantSupplyCase<>(test, supplier));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> LazyResultDoubleCaseMatcher<O> caseObj(DoubleFunction<Optional<T>> p, Function<? super T, ? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new DoubleResultCase.ObjCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultDoubleCaseMatcher<O> caseInt(DoubleFunction<OptionalInt> p, IntFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new DoubleResultCase.IntCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultDoubleCaseMatcher<O> caseDouble(DoubleFunction<OptionalDouble> p, DoubleFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new DoubleResultCase.DoubleCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultDoubleCaseMatcher<O> caseLong(DoubleFunction<OptionalLong> p, LongFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new DoubleResultCase.LongCase<>(p, f));
+    }
+
+    /**
+     * Returns for every compiled case the index of the first defined case it represents.
+     *
+     * @param cases compiled cases
+     * @return index of the first defined case per compiled case
+     */
+    private static int[] offsets(DoubleResultCase<?>[] cases) {
+        final int[] offsets = new int[cases.length];
+        int offset = 0;
+        for (int index = 0; index < cases.length; index++) {
+            offsets[index] = offset;
+            offset += cases[index].caseCount();
+        }
+        return offsets;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] caseIndices(double[] values) throws NullPointerException {
+        final int[] indices = new int[values.length];
+        caseIndices(values, indices);
+        return indices;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void caseIndices(double[] values, int[] indices) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(indices);
+        if (indices.length < values.length) {
+            throw new IllegalArgumentException("Array indices is shorter than array values");
+        }
+        final DoubleResultCase<O>[] cases = compiled();
+        if (cases.length == 1) {
+            // single case or single lookup, e.g. when classifying values into ranges
+            final DoubleResultCase<O> c = cases[0];
+            for (int v = 0; v < values.length; v++) {
+                indices[v] = c.matchIndex(values[v]);
+            }
+            return;
+        }
+        final int[] offsets = offsets(cases);
+        for (int v = 0; v < values.length; v++) {
+            final double value = values[v];
+            int found = NO_CASE;
+            for (int index = 0; index < cases.length; index++) {
+                final int match = cases[index].matchIndex(value);
+                if (match != KeySwitch.NO_CASE) {
+                    found = offsets[index] + match;
+                    break;
+                }
+            }
+            indices[v] = found;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public void matchAll(double[] values, O[] results, O otherwise) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(results);
+        if (results.length < values.length) {
+            throw new IllegalArgumentException("Array results is shorter than array values");
+        }
+        final DoubleResultCase<O>[] cases = compiled();
+        for (int v = 0; v < values.length; v++) {
+            final Object result = evaluate(cases, values[v]);
+            results[v] = result == NO_MATCH ? otherwise : (O) result;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public Optional<O> apply(double d) {
+        final Object result = evaluate(compiled(), d);
+        return result == NO_MATCH ? Optional.empty() : Optional.ofNullable((O) result);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public DoubleMatchingFunction<O> otherwise(O o) {
+        final DoubleResultCase<O>[] cases = compiled();
+        return d -> {
+            final Object result = evaluate(cases, d);
+            return result == NO_MATCH ? o : (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public DoubleMatchingFunction<O> otherwise(DoubleFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(f);
+        final DoubleResultCase<O>[] cases = compiled();
+        return d -> {
+            final Object result = evaluate(cases, d);
+            return result == NO_MATCH ? f.apply(d) : (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public DoubleMatchingFunction<O> orElse(O o) throws NullPointerException {
+        Objects.requireNonNull(o);
+        final DoubleResultCase<O>[] cases = compiled();
+        return d -> {
+            final Object result = evaluate(cases, d);
+            // null results are treated as absent, like in Optional#orElse
+            return (result == NO_MATCH || result == null) ? o : (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public DoubleMatchingFunction<O> otherwiseThrowRuntime(Supplier<? extends RuntimeException> exceptionSupplier) throws NullPointerException {
+        Objects.requireNonNull(exceptionSupplier);
+        final DoubleResultCase<O>[] cases = compiled();
+        return d -> {
+            final Object result = evaluate(cases, d);
+            if (result == NO_MATCH) {
+                throw Objects.requireNonNull(exceptionSupplier.get());
+            }
+            return (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public DoubleMatchingFunction<O> partial() {
+        final DoubleResultCase<O>[] cases = compiled();
+        return d -> {
+            final Object result = evaluate(cases, d);
+            if (result == NO_MATCH) {
+                throw new NoSuchElementException("No case matched input " + d);
+            }
+            return (O) result;
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package de.boereck.matcher.lazy;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * Version of {@link IntFunction} that additionally specifies {@link #match(int) match(int)} method which has
+ * the same effect as calling {@link #apply(int) apply(int)}. All contracts from function apply to this function.
+ *
+ * @param <O> type of the output of the function
+ * @author Max Bureck
+ */
+@FunctionalInterface
+public interface IntMatchingFunction<O> extends IntFunction<O> {
+
+    /**
+     * Returns a function that first applies this function and then applies the function {@code after} on the result.
+     *
+     * @param after function applied on the output of this function. Must not be {@code null}.
+     * @param <V>   type of the output of function {@code after}
+     * @return composed function
+     * @throws NullPointerException if {@code after} is {@code null}.
+     */
+    default <V> IntMatchingFunction<V> andThen(Function<? super O, ? extends V> after) throws NullPointerException {
+        Objects.requireNonNull(after);
+        return i -> after.apply(apply(i));
+    }
+
+    /**
+     * Has the same effect as calling {@link #apply(int)}. All contracts from apply are valid for this function as well.
+     *
+     * @param i input to the function
+     * @return output of the function
+     * @see #apply(int)
+     */
+    default O match(int i) {
+        return apply(i);
+    }
+
+    /**
+     * Calls {@link #match(int)} with the value provided by {@code inputSupplier}.
+     *
+     * @param inputSupplier provides the input to the function. Must not be {@code null}.
+     * @return output of the function
+     * @throws NullPointerException if {@code inputSupplier} is {@code null}.
+     */
+    default O match(IntSupplier inputSupplier) throws NullPointerException {
+        Objects.requireNonNull(inputSupplier);
+        return match(inputSupplier.getAsInt());
+    }
+}
@@ -0,0 +1,352 @@
+package de.boereck.matcher.lazy;
+
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+import static de.boereck.matcher.lazy.ResultCase.NO_MATCH;
+
+/**
+ * One entry of the case table held by {@link IntResultCaseTable}. Like {@link ResultCase}, a case combines the check if it
+ * matches an input and the computation of the result into one method, {@link #evaluate(int)}, which returns
+ * {@link ResultCase#NO_MATCH} if the case does not match. All implementations are immutable.
+ *
+ * @param <O> type of the result object
+ * @author Max Bureck
+ */
+abstract class IntResultCase<O> {
+
+    /**
+     * Checks if this case matches the given {@code input} and if it does, computes the result of the case.
+     *
+     * @param input value to be matched
+     * @return either the result of this case (may be {@code null}) or {@link ResultCase#NO_MATCH} if the case does not
+     * match the {@code input}.
+     */
+    abstract Object evaluate(int input);
+
+    /**
+     * Checks if this case matches the given {@code input}, without computing the result of the case.
+     *
+     * @param input value to be matched
+     * @return index of the matching case relative to the first case represented by this case (always {@code 0}, unless
+     * this case represents several cases, see {@link #caseCount()}), or {@link KeySwitch#NO_CASE} if no case matches.
+     */
+    abstract int matchIndex(int input);
+
+    /**
+     * Returns the amount of defined cases represented by this case. This is {@code 1}, unless several cases were
+     * compiled into this case.
+     *
+     * @return amount of cases represented by this case
+     */
+    int caseCount() {
+        return 1;
+    }
+
+    /**
+     * Case matching all values in a closed range, defined by {@link LazyResultIntCaseMatcher#caseOf(int, IntFunction)} (with
+     * equal start and end) or by a case on a {@link de.boereck.matcher.helpers.IntRange IntRange} predicate. Consecutive key
+     * cases are compiled into a {@link SwitchCase}.
+     */
+    static final class KeyCase<O> extends IntResultCase<O> {
+
+        final int start;
+
+        final int end;
+
+        final IntFunction<? extends O> f;
+
+        KeyCase(int start, int end, IntFunction<? extends O> f) {
+            this.start = start;
+            this.end = end;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(int input) {
+            return (input >= start && input <= end) ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(int input) {
+            return (input >= start && input <= end) ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Replaces a sequence of {@link KeyCase}s, finding the matching case via a {@link KeySwitch}.
+     */
+    static final class SwitchCase<O> extends IntResultCase<O> {
+
+        private final KeySwitch keySwitch;
+
+        private final IntFunction<? extends O>[] functions;
+
+        @SuppressWarnings("unchecked")
+        SwitchCase(KeyCase<O>[] keyCases) {
+            final long[] starts = new long[keyCases.length];
+            final long[] ends = new long[keyCases.length];
+            functions = (IntFunction<? extends O>[]) new IntFunction<?>[keyCases.length];
+            for (int i = 0; i < keyCases.length; i++) {
+                starts[i] = keyCases[i].start;
+                ends[i] = keyCases[i].end;
+                functions[i] = keyCases[i].f;
+            }
+            keySwitch = KeySwitch.compile(starts, ends);
+        }
+
+        @Override
+        Object evaluate(int input) {
+            final int index = keySwitch.indexOf(input);
+            return index == KeySwitch.NO_CASE ? NO_MATCH : functions[index].apply(input);
+        }
+
+        @Override
+        int matchIndex(int input) {
+            return keySwitch.indexOf(input);
+        }
+
+        @Override
+        int caseCount() {
+            return functions.length;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultIntCaseMatcher#caseOf(IntPredicate, IntFunction)}.
+     */
+    static final class PredicateCase<O> extends IntResultCase<O> {
+
+        private final IntPredicate p;
+
+        private final IntFunction<? extends O> f;
+
+        PredicateCase(IntPredicate p, IntFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(int input) {
+            return p.test(input) ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(int input) {
+            return p.test(input) ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultIntCaseMatcher#caseOf(BooleanSupplier, IntFunction)}.
+     */
+    static final class SupplierCase<O> extends IntResultCase<O> {
+
+        private final BooleanSupplier s;
+
+        private final IntFunction<? extends O> f;
+
+        SupplierCase(BooleanSupplier s, IntFunction<? extends O> f) {
+            this.s = s;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(int input) {
+            return s.getAsBoolean() ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(int input) {
+            return s.getAsBoolean() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultIntCaseMatcher#caseOf(boolean, IntFunction)}.
+     */
+    static final class ConstantCase<O> extends IntResultCase<O> {
+
+        private final boolean test;
+
+        private final IntFunction<? extends O> f;
+
+        ConstantCase(boolean test, IntFunction<? extends O> f) {
+            this.test = test;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(int input) {
+            return test ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(int input) {
+            return test ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultIntCaseMatcher#caseIs(IntPredicate, Supplier)}.
+     */
+    static final class PredicateSupplyCase<O> extends IntResultCase<O> {
+
+        private final IntPredicate p;
+
+        private final Supplier<? extends O> supplier;
+
+        PredicateSupplyCase(IntPredicate p, Supplier<? extends O> supplier) {
+            this.p = p;
+            this.supplier = supplier;
+        }
+
+        @Override
+        Object evaluate(int input) {
+            return p.test(input) ? supplier.get() : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(int input) {
+            return p.test(input) ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultIntCaseMatcher#caseIs(boolean, Supplier)}.
+     */
+    static final class ConstantSupplyCase<O> extends IntResultCase<O> {
+
+        private final boolean test;
+
+        private final Supplier<? extends O> supplier;
+
+        ConstantSupplyCase(boolean test, Supplier<? extends O> supplier) {
+            this.test = test;
+            this.supplier = supplier;
+        }
+
+        @Override
+        Object evaluate(int input) {
+            return test ? supplier.get() : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(int input) {
+            return test ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultIntCaseMatcher#caseObj(IntFunction, Function)}.
+     */
+    static final class ObjCase<O, T> extends IntResultCase<O> {
+
+        private final IntFunction<Optional<T>> p;
+
+        private final Function<? super T, ? extends O> f;
+
+        ObjCase(IntFunction<Optional<T>> p, Function<? super T, ? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(int input) {
+            final Optional<T> opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.get()) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(int input) {
+            return p.apply(input).isPresent() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultIntCaseMatcher#caseInt(IntFunction, IntFunction)}.
+     */
+    static final class IntCase<O> extends IntResultCase<O> {
+
+        private final IntFunction<OptionalInt> p;
+
+        private final IntFunction<? extends O> f;
+
+        IntCase(IntFunction<OptionalInt> p, IntFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(int input) {
+            final OptionalInt opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.getAsInt()) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(int input) {
+            return p.apply(input).isPresent() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultIntCaseMatcher#caseLong(IntFunction, LongFunction)}.
+     */
+    static final class LongCase<O> extends IntResultCase<O> {
+
+        private final IntFunction<OptionalLong> p;
+
+        private final LongFunction<? extends O> f;
+
+        LongCase(IntFunction<OptionalLong> p, LongFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(int input) {
+            final OptionalLong opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.getAsLong()) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(int input) {
+            return p.apply(input).isPresent() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultIntCaseMatcher#caseDouble(IntFunction, DoubleFunction)}.
+     */
+    static final class DoubleCase<O> extends IntResultCase<O> {
+
+        private final IntFunction<OptionalDouble> p;
+
+        private final DoubleFunction<? extends O> f;
+
+        DoubleCase(IntFunction<OptionalDouble> p, DoubleFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(int input) {
+            final OptionalDouble opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.getAsDouble()) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(int input) {
+            return p.apply(input).isPresent() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package de.boereck.matcher.lazy;
+
+import de.boereck.matcher.helpers.IntRange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+import static de.boereck.matcher.lazy.ResultCase.NO_MATCH;
+
+/**
+ * Implementation of {@link LazyResultIntCaseMatcher} holding the defined cases in an immutable array. To instantiate use static
+ * method {@link LazyMatcher#lazyResultIntMatch()}. Like {@link ResultCaseTable}, every case method returns a new
+ * instance with the new case appended to a copy of the case array.
+ * <p>
+ * When the matcher is applied for the first time, every sequence of at least {@link #SWITCH_THRESHOLD} consecutive
+ * cases defined on constants or on ranges created by {@link IntRange#fromHelpers(IntPredicate) helpers} is compiled
+ * into a single {@link IntResultCase.SwitchCase}, which finds the first matching case of the sequence via a {@link KeySwitch} lookup. Since the cases of the sequence
+ * are only compared with the input, the order of evaluation of the remaining cases is not changed by this.
+ * </p>
+ *
+ * @param <O> type of the output/result object
+ * @author Max Bureck
+ */
+final class IntResultCaseTable<O> implements LazyResultIntCaseMatcher<O> {
+
+    /**
+     * Case table without any cases.
+     */
+    private static final IntResultCaseTable<?> EMPTY = new IntResultCaseTable<>(new IntResultCase<?>[0]);
+
+    /**
+     * Minimum amount of consecutive key cases that are compiled into a lookup. For less cases, comparing the input
+     * with every case is cheaper than the lookup.
+     */
+    static final int SWITCH_THRESHOLD = 4;
+
+    /**
+     * Cases in the order they were defined. The array is never modified after construction.
+     */
+    private final IntResultCase<O>[] cases;
+
+    /**
+     * Cases with sequences of key cases replaced by lookups. Computed on first use, since the cases of intermediate
+     * tables created while defining a matcher are never evaluated.
+     */
+    private volatile IntResultCase<O>[] compiled;
+
+    /**
+     * Private constructor, instances are created via {@link #empty()} and by the case methods.
+     *
+     * @param cases case table; the array must not be modified after passing it to this constructor.
+     */
+    @SuppressWarnings("unchecked")
+    private IntResultCaseTable(IntResultCase<?>[] cases) {
+        this.cases = (IntResultCase<O>[]) cases;
+    }
+
+    /**
+     * Returns a case table without cases.
+     *
+     * @param <O> type of the output/result object
+     * @return case table without cases
+     */
+    @SuppressWarnings("unchecked") // Safe, since table without cases never produces outputs
+    static <O> IntResultCaseTable<O> empty() {
+        return (IntResultCaseTable<O>) EMPTY;
+    }
+
+    /**
+     * Returns a new case table with all cases of this table, followed by the given case {@code c}.
+     *
+     * @param c case to append
+     * @return new case table ending with case {@code c}
+     */
+    private IntResultCaseTable<O> with(IntResultCase<O> c) {
+        final IntResultCase<O>[] cases = this.cases;
+        final IntResultCase<O>[] newCases = Arrays.copyOf(cases, cases.length + 1);
+        newCases[cases.length] = c;
+        return new IntResultCaseTable<>(newCases);
+    }
+
+    /**
+     * Returns the cases to evaluate, with sequences of key cases compiled to lookups. Concurrent first calls may compile
+     * the cases more than once, but all of them compute equivalent tables.
+     *
+     * @return compiled cases
+     */
+    private IntResultCase<O>[] compiled() {
+        IntResultCase<O>[] compiled = this.compiled;
+        if (compiled == null) {
+            compiled = compile(cases);
+            this.compiled = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Replaces every sequence of at least {@link #SWITCH_THRESHOLD} consecutive {@link IntResultCase.KeyCase}s by a
+     * {@link IntResultCase.SwitchCase}.
+     *
+     * @param cases cases in order of definition
+     * @param <O>   type of the output/result object
+     * @return cases with compiled key cases
+     */
+    @SuppressWarnings("unchecked")
+    private static <O> IntResultCase<O>[] compile(IntResultCase<O>[] cases) {
+        final List<IntResultCase<O>> result = new ArrayList<>(cases.length);
+        int index = 0;
+        while (index < cases.length) {
+            int end = index;
+            while (end < cases.length && cases[end] instanceof IntResultCase.KeyCase) {
+                end++;
+            }
+            if (end - index >= SWITCH_THRESHOLD) {
+                final IntResultCase.KeyCase<O>[] keyCases = Arrays.copyOfRange(cases, index, end, IntResultCase.KeyCase[].class);
+                result.add(new IntResultCase.SwitchCase<>(keyCases));
+                index = end;
+            } else {
+                // too few key cases (maybe none) before next other case
+                final int next = Math.max(end, index + 1);
+                for (; index < next; index++) {
+                    result.add(cases[index]);
+                }
+            }
+        }
+        return result.toArray((IntResultCase<O>[]) new IntResultCase<?>[result.size()]);
+    }
+
+    /**
+     * Evaluates the cases in the given order, until the first case matches the input {@code i}.
+     *
+     * @param cases compiled cases
+     * @param i     input to match
+     * @param <O>   type of the output/result object
+     * @return result of the first matching case (may be {@code null}) or {@link ResultCase#NO_MATCH} if no case matches.
+     */
+    private static <O> Object evaluate(IntResultCase<O>[] cases, int i) {
+        for (int index = 0; index < cases.length; index++) {
+            final Object result = cases[index].evaluate(i);
+            if (result != NO_MATCH) {
+                return result;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultIntCaseMatcher<O> caseOf(int i, IntFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(f);
+        return with(new IntResultCase.KeyCase<>(i, i, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultIntCaseMatcher<O> caseOf(IntPredicate p, IntFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        final IntRange range = IntRange.fromHelpers(p);
+        if (range != null) {
+            return with(new IntResultCase.KeyCase<>(range.startIncluding(), range.endIncluding(), f));
+        }
+        return with(new IntResultCase.PredicateCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultIntCaseMatcher<O> caseOf(BooleanSupplier s, IntFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(s);
+        Objects.requireNonNull(f);
+        return with(new IntResultCase.SupplierCase<>(s, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultIntCaseMatcher<O> caseOf(boolean test, IntFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(f);
+        return with(new IntResultCase.ConstantCase<>(test, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultIntCaseMatcher<O> caseIs(IntPredicate p, Supplier<? extends O> supplier) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(supplier);
+        final IntRange range = IntRange.fromHelpers(p);
+        if (range != null) {
+            return with(new IntResultCase.KeyCase<O>(range.startIncluding(), range.endIncluding(), i -> supplier.get()));
+        }
+        return with(new IntResultCase.PredicateSupplyCase<>(p, supplier));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultIntCaseMatcher<O> caseIs(boolean test, Supplier<? extends O> supplier) throws NullPointerException {
+        Objects.requireNonNull(supplier);
+        return with(new IntResultCase.ConstantSupplyCase<>(test, supplier));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> LazyResultIntCaseMatcher<O> caseObj(IntFunction<Optional<T>> p, Function<? super T, ? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new IntResultCase.ObjCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultIntCaseMatcher<O> caseInt(IntFunction<OptionalInt> p, IntFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new IntResultCase.IntCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultIntCaseMatcher<O> caseLong(IntFunction<OptionalLong> p, LongFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new IntResultCase.LongCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultIntCaseMatcher<O> caseDouble(IntFunction<OptionalDouble> p, DoubleFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new IntResultCase.DoubleCase<>(p, f));
+    }
+
+    /**
+     * Returns for every compiled case the index of the first defined case it represents.
+     *
+     * @param cases compiled cases
+     * @return index of the first defined case per compiled case
+     */
+    private static int[] offsets(IntResultCase<?>[] cases) {
+        final int[] offsets = new int[cases.length];
+        int offset = 0;
+        for (int index = 0; index < cases.length; index++) {
+            offsets[index] = offset;
+            offset += cases[index].caseCount();
+        }
+        return offsets;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] caseIndices(int[] values) throws NullPointerException {
+        final int[] indices = new int[values.length];
+        caseIndices(values, indices);
+        return indices;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void caseIndices(int[] values, int[] indices) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(indices);
+        if (indices.length < values.length) {
+            throw new IllegalArgumentException("Array indices is shorter than array values");
+        }
+        final IntResultCase<O>[] cases = compiled();
+        if (cases.length == 1) {
+            // single case or single lookup, e.g. when classifying values into ranges
+            final IntResultCase<O> c = cases[0];
+            for (int v = 0; v < values.length; v++) {
+                indices[v] = c.matchIndex(values[v]);
+            }
+            return;
+        }
+        final int[] offsets = offsets(cases);
+        for (int v = 0; v < values.length; v++) {
+            final int value = values[v];
+            int found = NO_CASE;
+            for (int index = 0; index < cases.length; index++) {
+                final int match = cases[index].matchIndex(value);
+                if (match != KeySwitch.NO_CASE) {
+                    found = offsets[index] + match;
+                    break;
+                }
+            }
+            indices[v] = found;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public void matchAll(int[] values, O[] results, O otherwise) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(results);
+        if (results.length < values.length) {
+            throw new IllegalArgumentException("Array results is shorter than array values");
+        }
+        final IntResultCase<O>[] cases = compiled();
+        for (int v = 0; v < values.length; v++) {
+            final Object result = evaluate(cases, values[v]);
+            results[v] = result == NO_MATCH ? otherwise : (O) result;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public Optional<O> apply(int i) {
+        final Object result = evaluate(compiled(), i);
+        return result == NO_MATCH ? Optional.empty() : Optional.ofNullable((O) result);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public IntMatchingFunction<O> otherwise(O o) {
+        final IntResultCase<O>[] cases = compiled();
+        return i -> {
+            final Object result = evaluate(cases, i);
+            return result == NO_MATCH ? o : (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public IntMatchingFunction<O> otherwise(IntFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(f);
+        final IntResultCase<O>[] cases = compiled();
+        return i -> {
+            final Object result = evaluate(cases, i);
+            return result == NO_MATCH ? f.apply(i) : (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public IntMatchingFunction<O> orElse(O o) throws NullPointerException {
+        Objects.requireNonNull(o);
+        final IntResultCase<O>[] cases = compiled();
+        return i -> {
+            final Object result = evaluate(cases, i);
+            // null results are treated as absent, like in Optional#orElse
+            return (result == NO_MATCH || result == null) ? o : (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public IntMatchingFunction<O> otherwiseThrowRuntime(Supplier<? extends RuntimeException> exceptionSupplier) throws NullPointerException {
+        Objects.requireNonNull(exceptionSupplier);
+        final IntResultCase<O>[] cases = compiled();
+        return i -> {
+            final Object result = evaluate(cases, i);
+            if (result == NO_MATCH) {
+                throw Objects.requireNonNull(exceptionSupplier.get());
+            }
+            return (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public IntMatchingFunction<O> partial() {
+        final IntResultCase<O>[] cases = compiled();
+        return i -> {
+            final Object result = evaluate(cases, i);
+            if (result == NO_MATCH) {
+                throw new NoSuchElementException("No case matched input " + i);
+            }
+            return (O) result;
+        };
+    }
+}
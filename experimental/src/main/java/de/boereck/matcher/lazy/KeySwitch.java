@@ -0,0 +1,226 @@
+package de.boereck.matcher.lazy;
+
+import java.util.Arrays;
+
+/**
+ * Lookup structure mapping int or long keys to the index of the first of several cases matching the key. A case is
+ * described by the closed range of keys it matches; cases defined on a single constant have a range with equal start
+ * and end. Depending on the distribution of the keys, {@link #compile(long[], long[])} selects one of these lookup
+ * strategies:
+ * <ul>
+ * <li>If the keys covered by all cases lie in a small span, a dense array indexed by the key is used,
+ * comparable to a {@code tableswitch} instruction.</li>
+ * <li>If all cases are defined on single constants, the constants are stored in an open addressing hash table,
+ * comparable to a {@code lookupswitch} instruction, but with a constant number of probes on average.</li>
+ * <li>Otherwise the cases are split into disjoint intervals, which are searched by binary search.</li>
+ * </ul>
+ * All implementations are immutable and can be shared between threads.
+ *
+ * @author Max Bureck
+ */
+abstract class KeySwitch {
+
+    /**
+     * Value returned by {@link #indexOf(long)} if no case matches a key.
+     */
+    static final int NO_CASE = -1;
+
+    /**
+     * Maximum size of the dense array per case. If the span of the keys is larger than this factor times the number of
+     * cases (plus {@link #DENSE_MIN_SPAN}), a sparse lookup structure is used.
+     */
+    private static final int DENSE_FACTOR = 4;
+
+    /**
+     * Span of keys that will always be mapped using a dense array.
+     */
+    private static final int DENSE_MIN_SPAN = 64;
+
+    /**
+     * Returns the index of the first case matching the given {@code key}.
+     *
+     * @param key int or long value to be matched
+     * @return index of the first case matching {@code key}, or {@link #NO_CASE} if no case matches.
+     */
+    abstract int indexOf(long key);
+
+    /**
+     * Compiles the cases, defined by their closed key ranges, into a lookup structure. The case at index {@code i} is
+     * matching all keys from {@code starts[i]} to {@code ends[i]} (both including). If cases overlap, the case with the
+     * lower index wins.
+     *
+     * @param starts lower bounds of the key ranges of the cases
+     * @param ends   upper bounds of the key ranges of the cases, {@code ends[i] >= starts[i]} must hold for all cases.
+     * @return lookup structure finding the first matching case for a key
+     */
+    static KeySwitch compile(long[] starts, long[] ends) {
+        final int count = starts.length;
+        // split the key space into elementary intervals, no interval contains a start or end boundary of a case
+        final long[] bounds = new long[count * 2];
+        int boundCount = 0;
+        boolean allConstants = true;
+        for (int i = 0; i < count; i++) {
+            bounds[boundCount++] = starts[i];
+            if (ends[i] != Long.MAX_VALUE) {
+                bounds[boundCount++] = ends[i] + 1;
+            }
+            allConstants &= starts[i] == ends[i];
+        }
+        Arrays.sort(bounds, 0, boundCount);
+        final long[] intervalStarts = new long[boundCount];
+        final int[] intervalCases = new int[boundCount];
+        int intervalCount = 0;
+        for (int b = 0; b < boundCount; b++) {
+            final long start = bounds[b];
+            if (intervalCount > 0 && intervalStarts[intervalCount - 1] == start) {
+                continue;
+            }
+            // elementary interval does not cross case boundaries, so a case covers it if it covers its start
+            int first = NO_CASE;
+            for (int i = 0; i < count; i++) {
+                if (starts[i] <= start && start <= ends[i]) {
+                    first = i;
+                    break;
+                }
+            }
+            // merge adjacent intervals resolving to the same case
+            if (intervalCount > 0 && intervalCases[intervalCount - 1] == first) {
+                continue;
+            }
+            intervalStarts[intervalCount] = start;
+            intervalCases[intervalCount] = first;
+            intervalCount++;
+        }
+        // the last interval always resolves to NO_CASE, unless a case ends at Long.MAX_VALUE
+        final long min = intervalStarts[0];
+        final boolean unbounded = intervalCases[intervalCount - 1] != NO_CASE;
+        final long max = unbounded ? Long.MAX_VALUE : intervalStarts[intervalCount - 1] - 1;
+        final long span = max - min; // may overflow to negative value for huge ranges
+        if (span >= 0 && span < (long) DENSE_FACTOR * count + DENSE_MIN_SPAN) {
+            return new Dense(min, intervalStarts, intervalCases, intervalCount, (int) span + 1);
+        } else if (allConstants) {
+            return new Hash(starts);
+        } else {
+            return new Intervals(Arrays.copyOf(intervalStarts, intervalCount), Arrays.copyOf(intervalCases, intervalCount));
+        }
+    }
+
+    /**
+     * Lookup of cases via an array holding the case index for every key in a small span.
+     */
+    static final class Dense extends KeySwitch {
+
+        private final long min;
+
+        private final int[] table;
+
+        Dense(long min, long[] intervalStarts, int[] intervalCases, int intervalCount, int size) {
+            this.min = min;
+            final int[] table = new int[size];
+            for (int i = 0; i < intervalCount; i++) {
+                final int from = (int) (intervalStarts[i] - min);
+                final int to = (i + 1 < intervalCount) ? (int) (intervalStarts[i + 1] - min) : size;
+                Arrays.fill(table, from, Math.min(to, size), intervalCases[i]);
+            }
+            this.table = table;
+        }
+
+        @Override
+        int indexOf(long key) {
+            final long offset = key - min;
+            // if the subtraction overflows, the offset is still outside of the (small) table
+            return (offset >= 0 && offset < table.length) ? table[(int) offset] : NO_CASE;
+        }
+    }
+
+    /**
+     * Lookup of cases defined on constants via an open addressing hash table with linear probing.
+     */
+    static final class Hash extends KeySwitch {
+
+        private final long[] keys;
+
+        /**
+         * Case index plus one per slot, zero marks an empty slot.
+         */
+        private final int[] cases;
+
+        private final int shift;
+
+        Hash(long[] constants) {
+            int capacity = Integer.highestOneBit(Math.max(constants.length, 2) * 2 - 1) << 1;
+            this.keys = new long[capacity];
+            this.cases = new int[capacity];
+            this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+            final int mask = capacity - 1;
+            for (int i = 0; i < constants.length; i++) {
+                final long key = constants[i];
+                int slot = slot(key);
+                while (cases[slot] != 0 && keys[slot] != key) {
+                    slot = (slot + 1) & mask;
+                }
+                // first definition of a constant wins
+                if (cases[slot] == 0) {
+                    keys[slot] = key;
+                    cases[slot] = i + 1;
+                }
+            }
+        }
+
+        private int slot(long key) {
+            // Fibonacci hashing, the high bits of the product are well distributed
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        }
+
+        @Override
+        int indexOf(long key) {
+            final long[] keys = this.keys;
+            final int[] cases = this.cases;
+            final int mask = keys.length - 1;
+            int slot = slot(key);
+            int c;
+            while ((c = cases[slot]) != 0) {
+                if (keys[slot] == key) {
+                    return c - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NO_CASE;
+        }
+    }
+
+    /**
+     * Lookup of cases via binary search over sorted, disjoint intervals.
+     */
+    static final class Intervals extends KeySwitch {
+
+        private final long[] starts;
+
+        private final int[] cases;
+
+        Intervals(long[] starts, int[] cases) {
+            this.starts = starts;
+            this.cases = cases;
+        }
+
+        @Override
+        int indexOf(long key) {
+            final long[] starts = this.starts;
+            // find last interval starting at or before key
+            int low = 0;
+            int high = starts.length - 1;
+            if (key < starts[0]) {
+                return NO_CASE;
+            }
+            while (low < high) {
+                final int mid = (low + high + 1) >>> 1;
+                if (starts[mid] <= key) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return cases[low];
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package de.boereck.matcher.lazy;
 
-import java.util.Optional;
-import java.util.function.Function;
-
-import static de.boereck.matcher.helpers.StringMatchHelpers.matches;
+import java.lang.invoke.MethodHandle;
+import java.util.Objects;
 
 /**
  * Created by mbu on 16.06.2015.
@@ -25,7 +23,78 @@ public class LazyMatcher {
         return lazyResultMatch();
     }
 
+    /**
+     * Returns a {@link LazyResultCaseMatcher} without any cases. Cases can be added via the case methods, each of them
+     * returning a new immutable case matcher. The returned case matcher can be shared and stored in a static field.
+     *
+     * @param <I> type of the input object
+     * @param <O> type of the output/result object
+     * @return case matcher without cases
+     * @see LazyResultMatcher
+     */
     public static <I,O> LazyResultCaseMatcher<I,O> lazyResultMatch() {
-        throw new UnsupportedOperationException("Not implemented yet");
+        return ResultCaseTable.empty();
+    }
+
+    /**
+     * Returns a {@link LazyResultIntCaseMatcher} without any cases. Cases can be added via the case methods, each of
+     * them returning a new immutable case matcher. The returned case matcher can be shared and stored in a static field.
+     *
+     * @param <O> type of the output/result object
+     * @return case matcher for int values without cases
+     */
+    public static <O> LazyResultIntCaseMatcher<O> lazyResultIntMatch() {
+        return IntResultCaseTable.empty();
+    }
+
+    /**
+     * Returns a {@link LazyResultLongCaseMatcher} without any cases. Cases can be added via the case methods, each of
+     * them returning a new immutable case matcher. The returned case matcher can be shared and stored in a static field.
+     *
+     * @param <O> type of the output/result object
+     * @return case matcher for long values without cases
+     */
+    public static <O> LazyResultLongCaseMatcher<O> lazyResultLongMatch() {
+        return LongResultCaseTable.empty();
+    }
+
+    /**
+     * Returns a {@link LazyResultDoubleCaseMatcher} without any cases. Cases can be added via the case methods, each of
+     * them returning a new immutable case matcher. The returned case matcher can be shared and stored in a static field.
+     *
+     * @param <O> type of the output/result object
+     * @return case matcher for double values without cases
+     */
+    public static <O> LazyResultDoubleCaseMatcher<O> lazyResultDoubleMatch() {
+        return DoubleResultCaseTable.empty();
+    }
+
+    /**
+     * Compiles the cases of the given {@code matcher} into a method handle of type {@code (Object)Object}, returning the
+     * result of the first matching case or {@code otherwise} if no case matches. The handle has the same behavior as the
+     * function returned by {@link LazyResultCaseMatcher#otherwise(Object) matcher.otherwise(otherwise)}. The handle is
+     * built from {@link java.lang.invoke.MethodHandles#guardWithTest guardWithTest} combinators, with the predicates and
+     * functions of the cases bound as constants. If the handle is stored in a static final field or bound to a
+     * {@link java.lang.invoke.ConstantCallSite}, the JIT compiler can inline the complete evaluation of the cases into
+     * the code invoking the handle, e.g. via {@code (Object) HANDLE.invokeExact((Object) input)}. Sequences of cases on
+     * strings are compiled into a single lookup, the other cases are checked in order of definition. Unlike the function
+     * returned by {@code otherwise}, the handle does not skip {@code caseOf(Class, ...)} cases on other types than the
+     * type of the input.
+     *
+     * @param matcher   case matcher to compile. Must not be {@code null}.
+     * @param otherwise value returned by the handle if no case matches
+     * @param <I>       type of the input object
+     * @param <O>       type of the output/result object
+     * @return method handle evaluating the cases of {@code matcher}
+     * @throws NullPointerException if {@code matcher} is {@code null}.
+     * @see CaseEvaluation#METHOD_HANDLES
+     */
+    public static <I,O> MethodHandle toMethodHandle(LazyResultCaseMatcher<I,O> matcher, O otherwise) throws NullPointerException {
+        Objects.requireNonNull(matcher);
+        if (matcher instanceof ResultCaseTable) {
+            return ((ResultCaseTable<I, O>) matcher).toMethodHandle(otherwise);
+        }
+        // other implementations can only be invoked via their closing function
+        return CaseHandleCompiler.function(matcher.otherwise(otherwise));
     }
 }
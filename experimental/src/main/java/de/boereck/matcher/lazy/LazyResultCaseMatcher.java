@@ -21,6 +21,9 @@ import java.util.function.*;
  * once and can be reused whenever the matching is needed. The other advantage is that the case matcher can be used
  * whenever a function is needed, e.g. in a higher level map method, such as
  * {@link java.util.stream.Stream#map(Function) Stream.map(Function)}<p/>
+ * <p>Instances are immutable: every case method returns a new case matcher and leaves the instance it was called on
+ * unchanged. A fully defined case matcher can therefore be stored (e.g. in a static final field) and be applied
+ * concurrently from multiple threads.</p>
  */
 public interface LazyResultCaseMatcher<I,O> extends ResultCaseMatcher<I,O>, MatchingFunction<I, Optional<O>> {
 
@@ -90,6 +93,52 @@ public interface LazyResultCaseMatcher<I,O> extends ResultCaseMatcher<I,O>, Matc
     @Override
     LazyResultCaseMatcher<I, O> caseDouble(Function<? super I, OptionalDouble> p, DoubleFunction<? extends O> f) throws NullPointerException;
 
+    /**
+     * Returns a case matcher with the same cases as this matcher, evaluating the cases using the given strategy. The
+     * strategy does not change which case matches an input; it only determines how the cases are evaluated. Cases
+     * defined on the returned matcher are evaluated using the same strategy. The default strategy is
+     * {@link CaseEvaluation#TABLE}.
+     *
+     * @param evaluation strategy used to evaluate the cases. Must not be {@code null}.
+     * @return case matcher with the cases of this matcher, evaluated using strategy {@code evaluation}.
+     * @throws NullPointerException if {@code evaluation} is {@code null}.
+     */
+    LazyResultCaseMatcher<I, O> evaluatedBy(CaseEvaluation evaluation) throws NullPointerException;
+
+    /**
+     * Declares that all cases defined since the last call of this method (or since the first case, if this method was
+     * not called before) are mutually exclusive, meaning that no input is matched by more than one of these cases. The
+     * returned case matcher may then evaluate these cases in a different order than they were defined, e.g. testing
+     * the case matching most of the inputs first. Cases not declared to be mutually exclusive are still evaluated in
+     * the order they were defined. If the declared cases are not mutually exclusive, it is not specified which of
+     * the cases matching an input is selected.
+     * <p>Consecutive cases defined via {@code caseOf(Class, ...)} on distinct final classes are known to be mutually
+     * exclusive without calling this method.</p>
+     * <p>The declaration is only a hint and does not change the order of evaluation if the matcher is
+     * {@link #instrumented(CaseStatistics) instrumented}, if it is {@link #evaluatedBy(CaseEvaluation) evaluated} by
+     * another strategy than {@link CaseEvaluation#TABLE}, or if it holds four or more cases defined via
+     * {@code caseOf(Class, ...)}. In the latter case the cases are selected by the type of the input instead, which
+     * already skips the cases on other types.</p>
+     *
+     * @return case matcher with the cases of this matcher, where the cases since the last call of this method are
+     * declared to be mutually exclusive.
+     */
+    LazyResultCaseMatcher<I, O> disjoint();
+
+    /**
+     * Returns a case matcher with the same cases as this matcher, recording into {@code statistics} which cases match
+     * the inputs and how long the evaluation of the cases takes. Cases defined on the returned matcher are recorded into
+     * the same statistics. The instrumented matcher evaluates the cases one by one in the order they were defined,
+     * regardless of the {@link #evaluatedBy(CaseEvaluation) evaluation strategy}. Matchers that are not instrumented
+     * are not slowed down by the instrumentation. The latencies are only recorded for a sample of the inputs, see
+     * {@link CaseStatistics#CaseStatistics(int)}.
+     *
+     * @param statistics receives the statistics of the evaluated cases. Must not be {@code null}.
+     * @return case matcher with the cases of this matcher, recording statistics when evaluating the cases.
+     * @throws NullPointerException if {@code statistics} is {@code null}.
+     */
+    LazyResultCaseMatcher<I, O> instrumented(CaseStatistics statistics) throws NullPointerException;
+
     /**
      * Starts the matching process on the given input object {@code i}.
      * @param i parameter to match on.
@@ -99,13 +148,46 @@ public interface LazyResultCaseMatcher<I,O> extends ResultCaseMatcher<I,O>, Matc
     @Override
     Optional<O> apply(I i);
 
+    /**
+     * Returns a function that will perform matches and if there is a matching case will return its result (even if
+     * the result is {@code null}). If no case matches, the function will return {@code o}.
+     *
+     * @param o value returned by the function if no case matches an input.
+     * @return function returning the result of the matching case, or {@code o} if no case matches.
+     */
     MatchingFunction<I,O> otherwise(O o);
 
-    MatchingFunction<I,O> orElse(O o);
+    /**
+     * Returns a function that will perform matches and if there is a matching case with a non-{@code null} result will
+     * return this result. If no case matches or the result of the matching case is {@code null}, the function will
+     * return {@code o}.
+     *
+     * @param o value returned by the function if no case matches or the result is {@code null}. Must not be {@code null}.
+     * @return function returning the non-{@code null} result of the matching case, or {@code o}.
+     * @throws NullPointerException if {@code o} is {@code null}.
+     */
+    MatchingFunction<I,O> orElse(O o) throws NullPointerException;
 
-    <X extends Exception> ThrowingMatchingFunction<I,O,X> otherwiseThrow(Supplier<X> exceptionSupplier);
+    /**
+     * Returns a function that will perform matches and if there is a matching case will return its result. If no case
+     * matches, the function will throw the exception provided by {@code exceptionSupplier}.
+     *
+     * @param exceptionSupplier provides the exception thrown if no case matches. Must not be {@code null}.
+     * @param <X> type of the exception thrown if no case matches.
+     * @return function returning the result of the matching case, or throwing if no case matches.
+     * @throws NullPointerException if {@code exceptionSupplier} is {@code null}.
+     */
+    <X extends Exception> ThrowingMatchingFunction<I,O,X> otherwiseThrow(Supplier<X> exceptionSupplier) throws NullPointerException;
 
-    MatchingFunction<I,O> otherwiseThrowRuntime(Supplier<? extends RuntimeException> exceptionSupplier);
+    /**
+     * Returns a function that will perform matches and if there is a matching case will return its result. If no case
+     * matches, the function will throw the runtime exception provided by {@code exceptionSupplier}.
+     *
+     * @param exceptionSupplier provides the exception thrown if no case matches. Must not be {@code null}.
+     * @return function returning the result of the matching case, or throwing if no case matches.
+     * @throws NullPointerException if {@code exceptionSupplier} is {@code null}.
+     */
+    MatchingFunction<I,O> otherwiseThrowRuntime(Supplier<? extends RuntimeException> exceptionSupplier) throws NullPointerException;
 
     /**
      * Returns a function that will perform matches and if there is a result available will return it, if there was no
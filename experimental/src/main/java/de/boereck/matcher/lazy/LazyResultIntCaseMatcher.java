@@ -0,0 +1,197 @@
+package de.boereck.matcher.lazy;
+
+import de.boereck.matcher.ResultIntCaseMatcher;
+import de.boereck.matcher.helpers.IntMatchHelpers;
+
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.*;
+
+/**
+ * Lazy version of {@link ResultIntCaseMatcher}. Like {@link LazyResultCaseMatcher} the cases are defined once and can
+ * then be applied to any number of int values via {@link #apply(int)} or one of the functions returned by the closing
+ * methods. The cases are guaranteed to be evaluated in the order they were defined and on the thread calling the
+ * function. Instances are immutable: every case method returns a new case matcher and leaves the instance it was called
+ * on unchanged, so a fully defined case matcher can be stored in a static final field and be applied concurrently.
+ * <p>
+ * Cases defined via {@link #caseOf(int, IntFunction)} and cases defined on predicates created by
+ * {@link IntMatchHelpers#inClosedRange(int, int) inClosedRange} are compiled into a lookup table when consecutive cases of
+ * this kind are defined. Long chains of such cases (e.g. dispatching on protocol opcodes) are then matched with a single
+ * lookup instead of comparing the input with every case.
+ * </p>
+ *
+ * @param <O> type of the output/result object
+ * @author Max Bureck
+ */
+public interface LazyResultIntCaseMatcher<O> extends ResultIntCaseMatcher<O>, IntMatchingFunction<Optional<O>> {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    LazyResultIntCaseMatcher<O> caseOf(int i, IntFunction<? extends O> f) throws NullPointerException;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    LazyResultIntCaseMatcher<O> caseOf(IntPredicate p, IntFunction<? extends O> f) throws NullPointerException;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    LazyResultIntCaseMatcher<O> caseOf(BooleanSupplier s, IntFunction<? extends O> f) throws NullPointerException;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    LazyResultIntCaseMatcher<O> caseOf(boolean test, IntFunction<? extends O> f) throws NullPointerException;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    LazyResultIntCaseMatcher<O> caseIs(IntPredicate p, Supplier<? extends O> supplier) throws NullPointerException;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    LazyResultIntCaseMatcher<O> caseIs(boolean test, Supplier<? extends O> supplier) throws NullPointerException;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    <T> LazyResultIntCaseMatcher<O> caseObj(IntFunction<Optional<T>> p, Function<? super T, ? extends O> f) throws NullPointerException;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    LazyResultIntCaseMatcher<O> caseInt(IntFunction<OptionalInt> p, IntFunction<? extends O> f) throws NullPointerException;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    LazyResultIntCaseMatcher<O> caseLong(IntFunction<OptionalLong> p, LongFunction<? extends O> f) throws NullPointerException;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    LazyResultIntCaseMatcher<O> caseDouble(IntFunction<OptionalDouble> p, DoubleFunction<? extends O> f) throws NullPointerException;
+
+    /**
+     * Index stored by {@link #caseIndices(int[], int[])} for values no case matches.
+     */
+    int NO_CASE = -1;
+
+    /**
+     * Determines for every element of {@code values} the index of the first case matching the element, in the order
+     * the cases were defined (starting at {@code 0}). The actions of the cases are not executed. This is equivalent to
+     * {@code caseIndices(values, new int[values.length])}.
+     *
+     * @param values values to match. Must not be {@code null}.
+     * @return array holding at index {@code i} the index of the first case matching {@code values[i]}, or
+     * {@link #NO_CASE} if no case matches the value.
+     * @throws NullPointerException if {@code values} is {@code null}.
+     */
+    int[] caseIndices(int[] values) throws NullPointerException;
+
+    /**
+     * Determines for every element of {@code values} the index of the first case matching the element, in the order
+     * the cases were defined (starting at {@code 0}), and stores it at the same position in {@code indices}. The actions
+     * of the cases are not executed. All values are matched in one loop, without allocating objects per value, so this
+     * method is suited to classify large batches of values, e.g. by using the case indices to index into an array of
+     * counters or of results.
+     *
+     * @param values  values to match. Must not be {@code null}.
+     * @param indices receives at index {@code i} the index of the first case matching {@code values[i]}, or
+     *                {@link #NO_CASE} if no case matches the value. Must not be {@code null} and must be at least as
+     *                long as {@code values}.
+     * @throws NullPointerException     if {@code values} or {@code indices} is {@code null}.
+     * @throws IllegalArgumentException if {@code indices} is shorter than {@code values}.
+     */
+    void caseIndices(int[] values, int[] indices) throws NullPointerException, IllegalArgumentException;
+
+    /**
+     * Matches every element of {@code values} and stores the result of the first matching case (even if the result is
+     * {@code null}) at the same position in {@code results}. If no case matches an element, {@code otherwise} is stored.
+     * This has the same effect as applying the function returned by {@link #otherwise(Object) otherwise(otherwise)} to
+     * every element, but matches all values in one loop.
+     *
+     * @param values    values to match. Must not be {@code null}.
+     * @param results   receives the results; must not be {@code null} and must be at least as long as {@code values}.
+     * @param otherwise value stored for elements no case matches
+     * @throws NullPointerException     if {@code values} or {@code results} is {@code null}.
+     * @throws IllegalArgumentException if {@code results} is shorter than {@code values}.
+     * @throws ArrayStoreException      if a result is not assignable to the component type of {@code results}.
+     */
+    void matchAll(int[] values, O[] results, O otherwise) throws NullPointerException, IllegalArgumentException;
+
+    /**
+     * Starts the matching process on the given input value {@code i}.
+     *
+     * @param i value to match on.
+     * @return optional holding the result of the matching case. The optional is empty if no case matched or the
+     * matching case returned {@code null}.
+     * @see #match(int)
+     */
+    @Override
+    Optional<O> apply(int i);
+
+    /**
+     * Returns a function that will perform matches and if there is a matching case will return its result (even if
+     * the result is {@code null}). If no case matches, the function will return {@code o}.
+     *
+     * @param o value returned by the function if no case matches an input.
+     * @return function returning the result of the matching case, or {@code o} if no case matches.
+     */
+    IntMatchingFunction<O> otherwise(O o);
+
+    /**
+     * Returns a function that will perform matches and if there is a matching case will return its result (even if
+     * the result is {@code null}). If no case matches, the function will return the result of {@code f} applied to the
+     * input value.
+     *
+     * @param f computes the value returned if no case matches an input. Must not be {@code null}.
+     * @return function returning the result of the matching case, or the result of {@code f} if no case matches.
+     * @throws NullPointerException if {@code f} is {@code null}.
+     */
+    IntMatchingFunction<O> otherwise(IntFunction<? extends O> f) throws NullPointerException;
+
+    /**
+     * Returns a function that will perform matches and if there is a matching case with a non-{@code null} result will
+     * return this result. If no case matches or the result of the matching case is {@code null}, the function will
+     * return {@code o}.
+     *
+     * @param o value returned by the function if no case matches or the result is {@code null}. Must not be {@code null}.
+     * @return function returning the non-{@code null} result of the matching case, or {@code o}.
+     * @throws NullPointerException if {@code o} is {@code null}.
+     */
+    IntMatchingFunction<O> orElse(O o) throws NullPointerException;
+
+    /**
+     * Returns a function that will perform matches and if there is a matching case will return its result. If no case
+     * matches, the function will throw the runtime exception provided by {@code exceptionSupplier}.
+     *
+     * @param exceptionSupplier provides the exception thrown if no case matches. Must not be {@code null}.
+     * @return function returning the result of the matching case, or throwing if no case matches.
+     * @throws NullPointerException if {@code exceptionSupplier} is {@code null}.
+     */
+    IntMatchingFunction<O> otherwiseThrowRuntime(Supplier<? extends RuntimeException> exceptionSupplier) throws NullPointerException;
+
+    /**
+     * Returns a function that will perform matches and if there is a result available will return it, if there was no
+     * match, the function will throw a {@link java.util.NoSuchElementException}.
+     *
+     * @return function not defined on inputs that do not have a matching case defined for this input.
+     */
+    IntMatchingFunction<O> partial();
+}
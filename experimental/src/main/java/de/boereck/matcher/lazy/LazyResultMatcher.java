@@ -29,43 +29,43 @@ public class LazyResultMatcher {
     }
 
     public static <I,O,T> LazyResultCaseMatcher<I, O> caseOf(Class<T> clazz, Predicate<? super T> condition, Function<? super T, ? extends O> f) throws NullPointerException {
-        throw new UnsupportedOperationException("Not implemented yet");
+        return LazyMatcher.<I,O>lazyResultMatch().caseOf(clazz, condition, f);
     }
 
     public static <I,O> LazyResultCaseMatcher<I, O> caseOf(Predicate<? super I> p, Function<? super I, ? extends O> f) throws NullPointerException{
-        throw new UnsupportedOperationException("Not implemented yet");
+        return LazyMatcher.<I,O>lazyResultMatch().caseOf(p, f);
     }
 
     public static <I,O> LazyResultCaseMatcher<I, O> caseOf(BooleanSupplier s, Function<? super I, ? extends O> f) throws NullPointerException{
-        throw new UnsupportedOperationException("Not implemented yet");
+        return LazyMatcher.<I,O>lazyResultMatch().caseOf(s, f);
     }
 
     public static <I,O> LazyResultCaseMatcher<I, O> caseOf(boolean test, Function<? super I, ? extends O> f) throws NullPointerException{
-        throw new UnsupportedOperationException("Not implemented yet");
+        return LazyMatcher.<I,O>lazyResultMatch().caseOf(test, f);
     }
 
     public static <I,O> LazyResultCaseMatcher<I,O> caseIs(Predicate<? super I> p, Supplier<? extends O> supplier) throws NullPointerException{
-        throw new UnsupportedOperationException("Not implemented yet");
+        return LazyMatcher.<I,O>lazyResultMatch().caseIs(p, supplier);
     }
 
     public static <I,O> LazyResultCaseMatcher<I,O> caseIs(boolean test, Supplier<? extends O> supplier) throws NullPointerException{
-        throw new UnsupportedOperationException("Not implemented yet");
+        return LazyMatcher.<I,O>lazyResultMatch().caseIs(test, supplier);
     }
 
     public static <I,O,T> LazyResultCaseMatcher<I, O> caseObj(Function<? super I, Optional<T>> p, Function<? super T, ? extends O> f) throws NullPointerException{
-        throw new UnsupportedOperationException("Not implemented yet");
+        return LazyMatcher.<I,O>lazyResultMatch().caseObj(p, f);
     }
 
 
     public static <I,O> LazyResultCaseMatcher<I, O> caseInt(Function<? super I, OptionalInt> p, IntFunction<? extends O> f) throws NullPointerException{
-        throw new UnsupportedOperationException("Not implemented yet");
+        return LazyMatcher.<I,O>lazyResultMatch().caseInt(p, f);
     }
 
     public static <I,O> LazyResultCaseMatcher<I, O> caseLong(Function<? super I, OptionalLong> p, LongFunction<? extends O> f) throws NullPointerException{
-        throw new UnsupportedOperationException("Not implemented yet");
+        return LazyMatcher.<I,O>lazyResultMatch().caseLong(p, f);
     }
 
     public static <I,O> LazyResultCaseMatcher<I, O> caseDouble(Function<? super I, OptionalDouble> p, DoubleFunction<? extends O> f) throws NullPointerException{
-        throw new UnsupportedOperationException("Not implemented yet");
+        return LazyMatcher.<I,O>lazyResultMatch().caseDouble(p, f);
     }
 }
@@ -0,0 +1,53 @@
+package de.boereck.matcher.lazy;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Version of {@link LongFunction} that additionally specifies {@link #match(long) match(long)} method which has
+ * the same effect as calling {@link #apply(long) apply(long)}. All contracts from function apply to this function.
+ *
+ * @param <O> type of the output of the function
+ * @author Max Bureck
+ */
+@FunctionalInterface
+public interface LongMatchingFunction<O> extends LongFunction<O> {
+
+    /**
+     * Returns a function that first applies this function and then applies the function {@code after} on the result.
+     *
+     * @param after function applied on the output of this function. Must not be {@code null}.
+     * @param <V>   type of the output of function {@code after}
+     * @return composed function
+     * @throws NullPointerException if {@code after} is {@code null}.
+     */
+    default <V> LongMatchingFunction<V> andThen(Function<? super O, ? extends V> after) throws NullPointerException {
+        Objects.requireNonNull(after);
+        return l -> after.apply(apply(l));
+    }
+
+    /**
+     * Has the same effect as calling {@link #apply(long)}. All contracts from apply are valid for this function as well.
+     *
+     * @param l input to the function
+     * @return output of the function
+     * @see #apply(long)
+     */
+    default O match(long l) {
+        return apply(l);
+    }
+
+    /**
+     * Calls {@link #match(long)} with the value provided by {@code inputSupplier}.
+     *
+     * @param inputSupplier provides the input to the function. Must not be {@code null}.
+     * @return output of the function
+     * @throws NullPointerException if {@code inputSupplier} is {@code null}.
+     */
+    default O match(LongSupplier inputSupplier) throws NullPointerException {
+        Objects.requireNonNull(inputSupplier);
+        return match(inputSupplier.getAsLong());
+    }
+}
@@ -0,0 +1,352 @@
+package de.boereck.matcher.lazy;
+
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+import static de.boereck.matcher.lazy.ResultCase.NO_MATCH;
+
+/**
+ * One entry of the case table held by {@link LongResultCaseTable}. Like {@link ResultCase}, a case combines the check if it
+ * matches an input and the computation of the result into one method, {@link #evaluate(long)}, which returns
+ * {@link ResultCase#NO_MATCH} if the case does not match. All implementations are immutable.
+ *
+ * @param <O> type of the result object
+ * @author Max Bureck
+ */
+abstract class LongResultCase<O> {
+
+    /**
+     * Checks if this case matches the given {@code input} and if it does, computes the result of the case.
+     *
+     * @param input value to be matched
+     * @return either the result of this case (may be {@code null}) or {@link ResultCase#NO_MATCH} if the case does not
+     * match the {@code input}.
+     */
+    abstract Object evaluate(long input);
+
+    /**
+     * Checks if this case matches the given {@code input}, without computing the result of the case.
+     *
+     * @param input value to be matched
+     * @return index of the matching case relative to the first case represented by this case (always {@code 0}, unless
+     * this case represents several cases, see {@link #caseCount()}), or {@link KeySwitch#NO_CASE} if no case matches.
+     */
+    abstract int matchIndex(long input);
+
+    /**
+     * Returns the amount of defined cases represented by this case. This is {@code 1}, unless several cases were
+     * compiled into this case.
+     *
+     * @return amount of cases represented by this case
+     */
+    int caseCount() {
+        return 1;
+    }
+
+    /**
+     * Case matching all values in a closed range, defined by {@link LazyResultLongCaseMatcher#caseOf(long, LongFunction)} (with
+     * equal start and end) or by a case on a {@link de.boereck.matcher.helpers.LongRange LongRange} predicate. Consecutive key
+     * cases are compiled into a {@link SwitchCase}.
+     */
+    static final class KeyCase<O> extends LongResultCase<O> {
+
+        final long start;
+
+        final long end;
+
+        final LongFunction<? extends O> f;
+
+        KeyCase(long start, long end, LongFunction<? extends O> f) {
+            this.start = start;
+            this.end = end;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(long input) {
+            return (input >= start && input <= end) ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(long input) {
+            return (input >= start && input <= end) ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Replaces a sequence of {@link KeyCase}s, finding the matching case via a {@link KeySwitch}.
+     */
+    static final class SwitchCase<O> extends LongResultCase<O> {
+
+        private final KeySwitch keySwitch;
+
+        private final LongFunction<? extends O>[] functions;
+
+        @SuppressWarnings("unchecked")
+        SwitchCase(KeyCase<O>[] keyCases) {
+            final long[] starts = new long[keyCases.length];
+            final long[] ends = new long[keyCases.length];
+            functions = (LongFunction<? extends O>[]) new LongFunction<?>[keyCases.length];
+            for (int i = 0; i < keyCases.length; i++) {
+                starts[i] = keyCases[i].start;
+                ends[i] = keyCases[i].end;
+                functions[i] = keyCases[i].f;
+            }
+            keySwitch = KeySwitch.compile(starts, ends);
+        }
+
+        @Override
+        Object evaluate(long input) {
+            final int index = keySwitch.indexOf(input);
+            return index == KeySwitch.NO_CASE ? NO_MATCH : functions[index].apply(input);
+        }
+
+        @Override
+        int matchIndex(long input) {
+            return keySwitch.indexOf(input);
+        }
+
+        @Override
+        int caseCount() {
+            return functions.length;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultLongCaseMatcher#caseOf(LongPredicate, LongFunction)}.
+     */
+    static final class PredicateCase<O> extends LongResultCase<O> {
+
+        private final LongPredicate p;
+
+        private final LongFunction<? extends O> f;
+
+        PredicateCase(LongPredicate p, LongFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(long input) {
+            return p.test(input) ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(long input) {
+            return p.test(input) ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultLongCaseMatcher#caseOf(BooleanSupplier, LongFunction)}.
+     */
+    static final class SupplierCase<O> extends LongResultCase<O> {
+
+        private final BooleanSupplier s;
+
+        private final LongFunction<? extends O> f;
+
+        SupplierCase(BooleanSupplier s, LongFunction<? extends O> f) {
+            this.s = s;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(long input) {
+            return s.getAsBoolean() ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(long input) {
+            return s.getAsBoolean() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultLongCaseMatcher#caseOf(boolean, LongFunction)}.
+     */
+    static final class ConstantCase<O> extends LongResultCase<O> {
+
+        private final boolean test;
+
+        private final LongFunction<? extends O> f;
+
+        ConstantCase(boolean test, LongFunction<? extends O> f) {
+            this.test = test;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(long input) {
+            return test ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(long input) {
+            return test ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultLongCaseMatcher#caseIs(LongPredicate, Supplier)}.
+     */
+    static final class PredicateSupplyCase<O> extends LongResultCase<O> {
+
+        private final LongPredicate p;
+
+        private final Supplier<? extends O> supplier;
+
+        PredicateSupplyCase(LongPredicate p, Supplier<? extends O> supplier) {
+            this.p = p;
+            this.supplier = supplier;
+        }
+
+        @Override
+        Object evaluate(long input) {
+            return p.test(input) ? supplier.get() : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(long input) {
+            return p.test(input) ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultLongCaseMatcher#caseIs(boolean, Supplier)}.
+     */
+    static final class ConstantSupplyCase<O> extends LongResultCase<O> {
+
+        private final boolean test;
+
+        private final Supplier<? extends O> supplier;
+
+        ConstantSupplyCase(boolean test, Supplier<? extends O> supplier) {
+            this.test = test;
+            this.supplier = supplier;
+        }
+
+        @Override
+        Object evaluate(long input) {
+            return test ? supplier.get() : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(long input) {
+            return test ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultLongCaseMatcher#caseObj(LongFunction, Function)}.
+     */
+    static final class ObjCase<O, T> extends LongResultCase<O> {
+
+        private final LongFunction<Optional<T>> p;
+
+        private final Function<? super T, ? extends O> f;
+
+        ObjCase(LongFunction<Optional<T>> p, Function<? super T, ? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(long input) {
+            final Optional<T> opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.get()) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(long input) {
+            return p.apply(input).isPresent() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultLongCaseMatcher#caseInt(LongFunction, IntFunction)}.
+     */
+    static final class IntCase<O> extends LongResultCase<O> {
+
+        private final LongFunction<OptionalInt> p;
+
+        private final IntFunction<? extends O> f;
+
+        IntCase(LongFunction<OptionalInt> p, IntFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(long input) {
+            final OptionalInt opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.getAsInt()) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(long input) {
+            return p.apply(input).isPresent() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultLongCaseMatcher#caseLong(LongFunction, LongFunction)}.
+     */
+    static final class LongCase<O> extends LongResultCase<O> {
+
+        private final LongFunction<OptionalLong> p;
+
+        private final LongFunction<? extends O> f;
+
+        LongCase(LongFunction<OptionalLong> p, LongFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(long input) {
+            final OptionalLong opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.getAsLong()) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(long input) {
+            return p.apply(input).isPresent() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultLongCaseMatcher#caseDouble(LongFunction, DoubleFunction)}.
+     */
+    static final class DoubleCase<O> extends LongResultCase<O> {
+
+        private final LongFunction<OptionalDouble> p;
+
+        private final DoubleFunction<? extends O> f;
+
+        DoubleCase(LongFunction<OptionalDouble> p, DoubleFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(long input) {
+            final OptionalDouble opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.getAsDouble()) : NO_MATCH;
+        }
+
+        @Override
+        int matchIndex(long input) {
+            return p.apply(input).isPresent() ? 0 : KeySwitch.NO_CASE;
+        }
+    }
+}
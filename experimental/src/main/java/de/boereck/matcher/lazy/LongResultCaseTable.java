@@ -0,0 +1,428 @@
+package de.boereck.matcher.lazy;
+
+import de.boereck.matcher.helpers.LongRange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+import static de.boereck.matcher.lazy.ResultCase.NO_MATCH;
+
+/**
+ * Implementation of {@link LazyResultLongCaseMatcher} holding the defined cases in an immutable array. To instantiate use static
+ * method {@link LazyMatcher#lazyResultLongMatch()}. Like {@link ResultCaseTable}, every case method returns a new
+ * instance with the new case appended to a copy of the case array.
+ * <p>
+ * When the matcher is applied for the first time, every sequence of at least {@link #SWITCH_THRESHOLD} consecutive
+ * cases defined on constants or on ranges created by {@link LongRange#fromHelpers(LongPredicate) helpers} is compiled
+ * into a single {@link LongResultCase.SwitchCase}, which finds the first matching case of the sequence via a {@link KeySwitch} lookup. Since the cases of the sequence
+ * are only compared with the input, the order of evaluation of the remaining cases is not changed by this.
+ * </p>
+ *
+ * @param <O> type of the output/result object
+ * @author Max Bureck
+ */
+final class LongResultCaseTable<O> implements LazyResultLongCaseMatcher<O> {
+
+    /**
+     * Case table without any cases.
+     */
+    private static final LongResultCaseTable<?> EMPTY = new LongResultCaseTable<>(new LongResultCase<?>[0]);
+
+    /**
+     * Minimum amount of consecutive key cases that are compiled into a lookup. For less cases, comparing the input
+     * with every case is cheaper than the lookup.
+     */
+    static final int SWITCH_THRESHOLD = 4;
+
+    /**
+     * Cases in the order they were defined. The array is never modified after construction.
+     */
+    private final LongResultCase<O>[] cases;
+
+    /**
+     * Cases with sequences of key cases replaced by lookups. Computed on first use, since the cases of intermediate
+     * tables created while defining a matcher are never evaluated.
+     */
+    private volatile LongResultCase<O>[] compiled;
+
+    /**
+     * Private constructor, instances are created via {@link #empty()} and by the case methods.
+     *
+     * @param cases case table; the array must not be modified after passing it to this constructor.
+     */
+    @SuppressWarnings("unchecked")
+    private LongResultCaseTable(LongResultCase<?>[] cases) {
+        this.cases = (LongResultCase<O>[]) cases;
+    }
+
+    /**
+     * Returns a case table without cases.
+     *
+     * @param <O> type of the output/result object
+     * @return case table without cases
+     */
+    @SuppressWarnings("unchecked") // Safe, since table without cases never produces outputs
+    static <O> LongResultCaseTable<O> empty() {
+        return (LongResultCaseTable<O>) EMPTY;
+    }
+
+    /**
+     * Returns a new case table with all cases of this table, followed by the given case {@code c}.
+     *
+     * @param c case to append
+     * @return new case table ending with case {@code c}
+     */
+    private LongResultCaseTable<O> with(LongResultCase<O> c) {
+        final LongResultCase<O>[] cases = this.cases;
+        final LongResultCase<O>[] newCases = Arrays.copyOf(cases, cases.length + 1);
+        newCases[cases.length] = c;
+        return new LongResultCaseTable<>(newCases);
+    }
+
+    /**
+     * Returns the cases to evaluate, with sequences of key cases compiled to lookups. Concurrent first calls may compile
+     * the cases more than once, but all of them compute equivalent tables.
+     *
+     * @return compiled cases
+     */
+    private LongResultCase<O>[] compiled() {
+        LongResultCase<O>[] compiled = this.compiled;
+        if (compiled == null) {
+            compiled = compile(cases);
+            this.compiled = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Replaces every sequence of at least {@link #SWITCH_THRESHOLD} consecutive {@link LongResultCase.KeyCase}s by a
+     * {@link LongResultCase.SwitchCase}.
+     *
+     * @param cases cases in order of definition
+     * @param <O>   type of the output/result object
+     * @return cases with compiled key cases
+     */
+    @SuppressWarnings("unchecked")
+    private static <O> LongResultCase<O>[] compile(LongResultCase<O>[] cases) {
+        final List<LongResultCase<O>> result = new ArrayList<>(cases.length);
+        int index = 0;
+        while (index < cases.length) {
+            int end = index;
+            while (end < cases.length && cases[end] instanceof LongResultCase.KeyCase) {
+                end++;
+            }
+            if (end - index >= SWITCH_THRESHOLD) {
+                final LongResultCase.KeyCase<O>[] keyCases = Arrays.copyOfRange(cases, index, end, LongResultCase.KeyCase[].class);
+                result.add(new LongResultCase.SwitchCase<>(keyCases));
+                index = end;
+            } else {
+                // too few key cases (maybe none) before next other case
+                final int next = Math.max(end, index + 1);
+                for (; index < next; index++) {
+                    result.add(cases[index]);
+                }
+            }
+        }
+        return result.toArray((LongResultCase<O>[]) new LongResultCase<?>[result.size()]);
+    }
+
+    /**
+     * Evaluates the cases in the given order, until the first case matches the input {@code l}.
+     *
+     * @param cases compiled cases
+     * @param l     input to match
+     * @param <O>   type of the output/result object
+     * @return result of the first matching case (may be {@code null}) or {@link ResultCase#NO_MATCH} if no case matches.
+     */
+    private static <O> Object evaluate(LongResultCase<O>[] cases, long l) {
+        for (int index = 0; index < cases.length; index++) {
+            final Object result = cases[index].evaluate(l);
+            if (result != NO_MATCH) {
+                return result;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultLongCaseMatcher<O> caseOf(long l, LongFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(f);
+        return with(new LongResultCase.KeyCase<>(l, l, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultLongCaseMatcher<O> caseOf(LongPredicate p, LongFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        final LongRange range = LongRange.fromHelpers(p);
+        if (range != null) {
+            return with(new LongResultCase.KeyCase<>(range.startIncluding(), range.endIncluding(), f));
+        }
+        return with(new LongResultCase.PredicateCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultLongCaseMatcher<O> caseOf(BooleanSupplier s, LongFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(s);
+        Objects.requireNonNull(f);
+        return with(new LongResultCase.SupplierCase<>(s, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultLongCaseMatcher<O> caseOf(boolean test, LongFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(f);
+        return with(new LongResultCase.ConstantCase<>(test, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultLongCaseMatcher<O> caseIs(LongPredicate p, Supplier<? extends O> supplier) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(supplier);
+        final LongRange range = LongRange.fromHelpers(p);
+        if (range != null) {
+            return with(new LongResultCase.KeyCase<O>(range.startIncluding(), range.endIncluding(), l -> supplier.get()));
+        }
+        return with(new LongResultCase.PredicateSupplyCase<>(p, supplier));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultLongCaseMatcher<O> caseIs(boolean test, Supplier<? extends O> supplier) throws NullPointerException {
+        Objects.requireNonNull(supplier);
+        return with(new LongResultCase.ConstantSupplyCase<>(test, supplier));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> LazyResultLongCaseMatcher<O> caseObj(LongFunction<Optional<T>> p, Function<? super T, ? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new LongResultCase.ObjCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultLongCaseMatcher<O> caseInt(LongFunction<OptionalInt> p, IntFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new LongResultCase.IntCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultLongCaseMatcher<O> caseLong(LongFunction<OptionalLong> p, LongFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new LongResultCase.LongCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultLongCaseMatcher<O> caseDouble(LongFunction<OptionalDouble> p, DoubleFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new LongResultCase.DoubleCase<>(p, f));
+    }
+
+    /**
+     * Returns for every compiled case the index of the first defined case it represents.
+     *
+     * @param cases compiled cases
+     * @return index of the first defined case per compiled case
+     */
+    private static int[] offsets(LongResultCase<?>[] cases) {
+        final int[] offsets = new int[cases.length];
+        int offset = 0;
+        for (int index = 0; index < cases.length; index++) {
+            offsets[index] = offset;
+            offset += cases[index].caseCount();
+        }
+        return offsets;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int[] caseIndices(long[] values) throws NullPointerException {
+        final int[] indices = new int[values.length];
+        caseIndices(values, indices);
+        return indices;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void caseIndices(long[] values, int[] indices) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(indices);
+        if (indices.length < values.length) {
+            throw new IllegalArgumentException("Array indices is shorter than array values");
+        }
+        final LongResultCase<O>[] cases = compiled();
+        if (cases.length == 1) {
+            // single case or single lookup, e.g. when classifying values into ranges
+            final LongResultCase<O> c = cases[0];
+            for (int v = 0; v < values.length; v++) {
+                indices[v] = c.matchIndex(values[v]);
+            }
+            return;
+        }
+        final int[] offsets = offsets(cases);
+        for (int v = 0; v < values.length; v++) {
+            final long value = values[v];
+            int found = NO_CASE;
+            for (int index = 0; index < cases.length; index++) {
+                final int match = cases[index].matchIndex(value);
+                if (match != KeySwitch.NO_CASE) {
+                    found = offsets[index] + match;
+                    break;
+                }
+            }
+            indices[v] = found;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public void matchAll(long[] values, O[] results, O otherwise) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(results);
+        if (results.length < values.length) {
+            throw new IllegalArgumentException("Array results is shorter than array values");
+        }
+        final LongResultCase<O>[] cases = compiled();
+        for (int v = 0; v < values.length; v++) {
+            final Object result = evaluate(cases, values[v]);
+            results[v] = result == NO_MATCH ? otherwise : (O) result;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public Optional<O> apply(long l) {
+        final Object result = evaluate(compiled(), l);
+        return result == NO_MATCH ? Optional.empty() : Optional.ofNullable((O) result);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public LongMatchingFunction<O> otherwise(O o) {
+        final LongResultCase<O>[] cases = compiled();
+        return l -> {
+            final Object result = evaluate(cases, l);
+            return result == NO_MATCH ? o : (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public LongMatchingFunction<O> otherwise(LongFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(f);
+        final LongResultCase<O>[] cases = compiled();
+        return l -> {
+            final Object result = evaluate(cases, l);
+            return result == NO_MATCH ? f.apply(l) : (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public LongMatchingFunction<O> orElse(O o) throws NullPointerException {
+        Objects.requireNonNull(o);
+        final LongResultCase<O>[] cases = compiled();
+        return l -> {
+            final Object result = evaluate(cases, l);
+            // null results are treated as absent, like in Optional#orElse
+            return (result == NO_MATCH || result == null) ? o : (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public LongMatchingFunction<O> otherwiseThrowRuntime(Supplier<? extends RuntimeException> exceptionSupplier) throws NullPointerException {
+        Objects.requireNonNull(exceptionSupplier);
+        final LongResultCase<O>[] cases = compiled();
+        return l -> {
+            final Object result = evaluate(cases, l);
+            if (result == NO_MATCH) {
+                throw Objects.requireNonNull(exceptionSupplier.get());
+            }
+            return (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public LongMatchingFunction<O> partial() {
+        final LongResultCase<O>[] cases = compiled();
+        return l -> {
+            final Object result = evaluate(cases, l);
+            if (result == NO_MATCH) {
+                throw new NoSuchElementException("No case matched input " + l);
+            }
+            return (O) result;
+        };
+    }
+}
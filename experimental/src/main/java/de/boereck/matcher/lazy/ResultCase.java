@@ -0,0 +1,513 @@
+package de.boereck.matcher.lazy;
+
+import de.boereck.matcher.helpers.EqualsIgnoreCasePredicate;
+import de.boereck.matcher.helpers.EqualsPredicate;
+import de.boereck.matcher.helpers.PatternMapper;
+import de.boereck.matcher.helpers.PatternPredicate;
+import de.boereck.matcher.helpers.PrefixPredicate;
+
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * One entry of the case table held by {@link ResultCaseTable}. A case combines the check if it matches an input and the
+ * computation of the result for a matching input into one method, {@link #evaluate(Object)}. This way a case that maps
+ * the input before checking (e.g. a case defined by {@link LazyResultCaseMatcher#caseObj(Function, Function) caseObj})
+ * does not have to compute the mapping twice and the evaluation of a case does not have to allocate any object.
+ * <p>
+ * All implementations are immutable, so cases can be shared between case tables and threads.
+ * </p>
+ *
+ * @param <I> type of the input object
+ * @param <O> type of the result object
+ * @author Max Bureck
+ */
+abstract class ResultCase<I, O> {
+
+    /**
+     * Marker returned by {@link #evaluate(Object)} if a case does not match the input. It is never handed out to users,
+     * so it cannot be confused with a result value.
+     */
+    static final Object NO_MATCH = new Object();
+
+    /**
+     * Checks if this case matches the given {@code input} and if it does, computes the result of the case.
+     *
+     * @param input object to be matched
+     * @return either the result of this case (may be {@code null}) or {@link #NO_MATCH} if the case does not match
+     * the {@code input}.
+     */
+    abstract Object evaluate(I input);
+
+    /**
+     * Checks if this case can possibly match an input of the given {@code type}. Used to narrow down the cases that have
+     * to be evaluated for inputs of a certain runtime class.
+     *
+     * @param type runtime class of an input, or {@code null} for a {@code null} input.
+     * @return {@code false} if this case never matches inputs of the given {@code type}, {@code true} otherwise.
+     */
+    boolean canMatch(Class<?> type) {
+        return true;
+    }
+
+    /**
+     * Checks if this case matches every input of the given {@code type}, regardless of the value of the input. Cases
+     * after such a case are never evaluated for inputs of this type.
+     *
+     * @param type runtime class of an input, or {@code null} for a {@code null} input.
+     * @return {@code true} if this case matches all inputs of the given {@code type}, {@code false} if it may not.
+     */
+    boolean matchesAll(Class<?> type) {
+        return false;
+    }
+
+    /**
+     * Checks if this case is restricted to inputs of a certain type, meaning it was defined by one of the
+     * {@code caseOf(Class, ...)} methods.
+     *
+     * @return {@code true} if the case only matches instances of a certain type
+     */
+    boolean isTypeCase() {
+        return false;
+    }
+
+    /**
+     * Returns the type all inputs matched by this case are instances of, if the case was defined by one of the
+     * {@code caseOf(Class, ...)} methods.
+     *
+     * @return type of the inputs matched by this case, or {@code null} if the case is not restricted to a type
+     */
+    Class<?> type() {
+        return null;
+    }
+
+    /**
+     * Returns the description of the strings an input has to be equal to for this case to match, if the case was
+     * defined on a {@link PatternPredicate}, a {@link PrefixPredicate}, a {@link PatternMapper}, or on an
+     * {@link EqualsPredicate} or {@link EqualsIgnoreCasePredicate} comparing to a string other than {@code null}, created
+     * by the helpers of this library. Other implementations of these interfaces may match differently than their key
+     * describes. Consecutive cases with a key are compiled into a {@link StringSwitchCase}.
+     *
+     * @return key of the case, or {@code null} if the case does not describe the strings it matches
+     */
+    StringKey stringKey() {
+        return null;
+    }
+
+    /**
+     * Returns the key describing the strings matched by the predicate {@code p}, if it is a predicate created by
+     * {@link de.boereck.matcher.helpers.StringMatchHelpers StringMatchHelpers} that describes the strings it matches.
+     *
+     * @param p predicate of a case
+     * @return key of the predicate, or {@code null} if the predicate does not describe the strings it matches
+     */
+    static StringKey stringKey(Predicate<?> p) {
+        final PatternPredicate pattern = PatternPredicate.fromHelpers(p);
+        final PrefixPredicate prefix = PrefixPredicate.fromHelpers(p);
+        final EqualsPredicate<?> equal = EqualsPredicate.fromHelpers(p);
+        final EqualsIgnoreCasePredicate equalIgnoreCase = EqualsIgnoreCasePredicate.fromHelpers(p);
+        if (pattern != null) {
+            return new StringKey.Regex(pattern.pattern());
+        } else if (prefix != null) {
+            return new StringKey.Prefixes(prefix.prefixes());
+        } else if (equal != null) {
+            final Object value = equal.value();
+            return value instanceof String ? new StringKey.Literal((String) value, false) : null;
+        } else if (equalIgnoreCase != null) {
+            final String value = equalIgnoreCase.value();
+            return value == null ? null : new StringKey.Literal(value, true);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Computes the result of this case for an input known to match the {@link #stringKey() key} of this case, without
+     * matching the input again. Only called on cases with a key.
+     *
+     * @param input string matching the key of this case
+     * @return result of this case (may be {@code null})
+     */
+    Object resultOfMatch(I input) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Case defined by {@link LazyResultCaseMatcher#caseOf(Class, Function)}.
+     */
+    static final class ClassCase<I, O, T> extends ResultCase<I, O> {
+
+        final Class<T> clazz;
+
+        final Function<? super T, ? extends O> f;
+
+        ClassCase(Class<T> clazz, Function<? super T, ? extends O> f) {
+            this.clazz = clazz;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(I input) {
+            if (clazz.isInstance(input)) {
+                @SuppressWarnings("unchecked") // Safe cast, checked if input is instance of T
+                final T casted = (T) input;
+                return f.apply(casted);
+            } else {
+                return NO_MATCH;
+            }
+        }
+
+        @Override
+        boolean canMatch(Class<?> type) {
+            return type != null && clazz.isAssignableFrom(type);
+        }
+
+        @Override
+        boolean matchesAll(Class<?> type) {
+            return canMatch(type);
+        }
+
+        @Override
+        boolean isTypeCase() {
+            return true;
+        }
+
+        @Override
+        Class<?> type() {
+            return clazz;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultCaseMatcher#caseOf(Class, Predicate, Function)}.
+     */
+    static final class ClassConditionCase<I, O, T> extends ResultCase<I, O> {
+
+        final Class<T> clazz;
+
+        final Predicate<? super T> condition;
+
+        final Function<? super T, ? extends O> f;
+
+        ClassConditionCase(Class<T> clazz, Predicate<? super T> condition, Function<? super T, ? extends O> f) {
+            this.clazz = clazz;
+            this.condition = condition;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(I input) {
+            if (clazz.isInstance(input)) {
+                @SuppressWarnings("unchecked") // Safe cast, checked if input is instance of T
+                final T casted = (T) input;
+                return condition.test(casted) ? f.apply(casted) : NO_MATCH;
+            } else {
+                return NO_MATCH;
+            }
+        }
+
+        @Override
+        boolean canMatch(Class<?> type) {
+            return type != null && clazz.isAssignableFrom(type);
+        }
+
+        @Override
+        boolean isTypeCase() {
+            return true;
+        }
+
+        @Override
+        Class<?> type() {
+            return clazz;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultCaseMatcher#caseOf(Predicate, Function)}.
+     */
+    static final class PredicateCase<I, O> extends ResultCase<I, O> {
+
+        final Predicate<? super I> p;
+
+        final Function<? super I, ? extends O> f;
+
+        PredicateCase(Predicate<? super I> p, Function<? super I, ? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(I input) {
+            return p.test(input) ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        StringKey stringKey() {
+            return stringKey(p);
+        }
+
+        @Override
+        Object resultOfMatch(I input) {
+            return f.apply(input);
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultCaseMatcher#caseOf(BooleanSupplier, Function)}.
+     */
+    static final class SupplierCase<I, O> extends ResultCase<I, O> {
+
+        final BooleanSupplier s;
+
+        final Function<? super I, ? extends O> f;
+
+        SupplierCase(BooleanSupplier s, Function<? super I, ? extends O> f) {
+            this.s = s;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(I input) {
+            return s.getAsBoolean() ? f.apply(input) : NO_MATCH;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultCaseMatcher#caseOf(boolean, Function)}.
+     */
+    static final class ConstantCase<I, O> extends ResultCase<I, O> {
+
+        final boolean test;
+
+        final Function<? super I, ? extends O> f;
+
+        ConstantCase(boolean test, Function<? super I, ? extends O> f) {
+            this.test = test;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(I input) {
+            return test ? f.apply(input) : NO_MATCH;
+        }
+
+        @Override
+        boolean canMatch(Class<?> type) {
+            return test;
+        }
+
+        @Override
+        boolean matchesAll(Class<?> type) {
+            return test;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultCaseMatcher#caseIs(Predicate, Supplier)}.
+     */
+    static final class PredicateSupplyCase<I, O> extends ResultCase<I, O> {
+
+        final Predicate<? super I> p;
+
+        final Supplier<? extends O> supplier;
+
+        PredicateSupplyCase(Predicate<? super I> p, Supplier<? extends O> supplier) {
+            this.p = p;
+            this.supplier = supplier;
+        }
+
+        @Override
+        Object evaluate(I input) {
+            return p.test(input) ? supplier.get() : NO_MATCH;
+        }
+
+        @Override
+        StringKey stringKey() {
+            return stringKey(p);
+        }
+
+        @Override
+        Object resultOfMatch(I input) {
+            return supplier.get();
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultCaseMatcher#caseIs(boolean, Supplier)}.
+     */
+    static final class ConstantSupplyCase<I, O> extends ResultCase<I, O> {
+
+        final boolean test;
+
+        final Supplier<? extends O> supplier;
+
+        ConstantSupplyCase(boolean test, Supplier<? extends O> supplier) {
+            this.test = test;
+            this.supplier = supplier;
+        }
+
+        @Override
+        Object evaluate(I input) {
+            return test ? supplier.get() : NO_MATCH;
+        }
+
+        @Override
+        boolean canMatch(Class<?> type) {
+            return test;
+        }
+
+        @Override
+        boolean matchesAll(Class<?> type) {
+            return test;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultCaseMatcher#caseObj(Function, Function)}.
+     */
+    static final class ObjCase<I, O, T> extends ResultCase<I, O> {
+
+        final Function<? super I, Optional<T>> p;
+
+        final Function<? super T, ? extends O> f;
+
+        ObjCase(Function<? super I, Optional<T>> p, Function<? super T, ? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(I input) {
+            final Optional<T> opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.get()) : NO_MATCH;
+        }
+
+        @Override
+        StringKey stringKey() {
+            final PatternMapper mapper = PatternMapper.fromHelpers(p);
+            return mapper == null ? null : new StringKey.Regex(mapper.pattern());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked") // Safe cast, a PatternMapper maps a matching input to itself
+        Object resultOfMatch(I input) {
+            return f.apply((T) input);
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultCaseMatcher#caseInt(Function, IntFunction)}.
+     */
+    static final class IntCase<I, O> extends ResultCase<I, O> {
+
+        final Function<? super I, OptionalInt> p;
+
+        final IntFunction<? extends O> f;
+
+        IntCase(Function<? super I, OptionalInt> p, IntFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(I input) {
+            final OptionalInt opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.getAsInt()) : NO_MATCH;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultCaseMatcher#caseLong(Function, LongFunction)}.
+     */
+    static final class LongCase<I, O> extends ResultCase<I, O> {
+
+        final Function<? super I, OptionalLong> p;
+
+        final LongFunction<? extends O> f;
+
+        LongCase(Function<? super I, OptionalLong> p, LongFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(I input) {
+            final OptionalLong opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.getAsLong()) : NO_MATCH;
+        }
+    }
+
+    /**
+     * Case defined by {@link LazyResultCaseMatcher#caseDouble(Function, DoubleFunction)}.
+     */
+    static final class DoubleCase<I, O> extends ResultCase<I, O> {
+
+        final Function<? super I, OptionalDouble> p;
+
+        final DoubleFunction<? extends O> f;
+
+        DoubleCase(Function<? super I, OptionalDouble> p, DoubleFunction<? extends O> f) {
+            this.p = p;
+            this.f = f;
+        }
+
+        @Override
+        Object evaluate(I input) {
+            final OptionalDouble opt = p.apply(input);
+            return opt.isPresent() ? f.apply(opt.getAsDouble()) : NO_MATCH;
+        }
+    }
+
+    /**
+     * Sequence of consecutive cases with a {@link #stringKey() key}, finding the first case matching an input via a
+     * {@link StringSwitch}. Since the predicates and mappers describing their keys never match {@code null}, a
+     * {@code null} input matches none of the cases. Cases comparing for equality may be defined on inputs of any type,
+     * so inputs that are no strings are evaluated by the cases one after another.
+     */
+    static final class StringSwitchCase<I, O> extends ResultCase<I, O> {
+
+        private final StringSwitch stringSwitch;
+
+        private final ResultCase<I, O>[] cases;
+
+        StringSwitchCase(ResultCase<I, O>[] cases) {
+            final StringKey[] keys = new StringKey[cases.length];
+            for (int i = 0; i < cases.length; i++) {
+                keys[i] = cases[i].stringKey();
+            }
+            this.stringSwitch = StringSwitch.compile(keys);
+            this.cases = cases;
+        }
+
+        @Override
+        Object evaluate(I input) {
+            if (input == null) {
+                return NO_MATCH;
+            }
+            if (!(input instanceof String)) {
+                return evaluateOneByOne(input);
+            }
+            final int index = stringSwitch.indexOf((String) input);
+            return index == StringSwitch.NO_CASE ? NO_MATCH : cases[index].resultOfMatch(input);
+        }
+
+        private Object evaluateOneByOne(I input) {
+            for (ResultCase<I, O> c : cases) {
+                final Object result = c.evaluate(input);
+                if (result != NO_MATCH) {
+                    return result;
+                }
+            }
+            return NO_MATCH;
+        }
+    }
+}
@@ -0,0 +1,741 @@
+package de.boereck.matcher.lazy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static de.boereck.matcher.lazy.ResultCase.NO_MATCH;
+
+/**
+ * Implementation of {@link LazyResultCaseMatcher} holding the defined cases in an immutable array. To instantiate use
+ * static method {@link LazyMatcher#lazyResultMatch()}. Every case method returns a new instance with the new case appended
+ * to a copy of the case array, the instance the method was called on is not changed. This means the cost of recording
+ * the cases is only paid once when the matcher is defined; matching an input then only iterates over the array and does
+ * not allocate any objects per evaluated case. Since instances are immutable they can safely be shared between threads,
+ * e.g. by storing them in static final fields.
+ * <p>
+ * If the table holds at least {@link #TYPE_DISPATCH_THRESHOLD} cases defined via {@code caseOf(Class, ...)}, the cases
+ * that can possibly match an input are resolved once per runtime class of the inputs and cached in a {@link ClassValue}.
+ * Cases restricted to types the input is no instance of are then skipped without being evaluated, and cases following a
+ * case that matches every instance of the input type are not visited at all. For chains of type cases this means a
+ * match costs one lookup instead of a linear walk of {@link Class#isInstance(Object)} checks. Cases not defined via
+ * {@code caseOf(Class, ...)} stay in the resolved case lists, so the first matching case is still the one that was
+ * defined first.
+ * </p>
+ * <p>
+ * When a table without type dispatch iterates over its cases for the first time, every sequence of at least
+ * {@link #SWITCH_THRESHOLD} consecutive cases defined on regular expressions (via
+ * {@link de.boereck.matcher.helpers.StringMatchHelpers#matches(String) matches} predicates or
+ * {@link de.boereck.matcher.helpers.StringMatchHelpers#matching(String) matching} mappers) or on prefixes (via
+ * {@link de.boereck.matcher.helpers.StringMatchHelpers#startsWith(String) startsWith} or
+ * {@link de.boereck.matcher.helpers.StringMatchHelpers#startsWithAny(String...) startsWithAny} predicates) or on
+ * string equality (via {@link de.boereck.matcher.helpers.MatchHelpers#eq(Object) eq} or
+ * {@link de.boereck.matcher.helpers.StringMatchHelpers#eqIgnoreCase(String) eqIgnoreCase} predicates) is compiled into a
+ * single {@link ResultCase.StringSwitchCase}. The input is then matched against all cases of the sequence in a single
+ * pass, by a hash table if all cases compare for equality, by a trie if all cases are defined on prefixes and by one
+ * automaton otherwise, instead of scanning the input once per case.
+ * </p>
+ * <p>
+ * If the table is evaluated by strategy {@link CaseEvaluation#GENERATED_CLASS} or
+ * {@link CaseEvaluation#METHOD_HANDLES}, the cases are compiled by {@link CaseClassGenerator} or
+ * {@link CaseHandleCompiler} when the table is first applied to an input. The compiled function is shared by all closing
+ * functions of the table. Sequences of cases on strings are compiled into lookups before, but the compiled function
+ * evaluates the remaining cases in order, without the dispatch on the type of the input.
+ * </p>
+ * <p>
+ * Tables instrumented via {@link #instrumented(CaseStatistics)} evaluate their cases one by one and record the outcome
+ * of every input and the duration of every evaluated case for a sample of the inputs. Tables that are not instrumented do not check for statistics when evaluating
+ * the cases, since this is decided once in the constructor.
+ * </p>
+ * <p>
+ * Tables holding groups of mutually exclusive cases, declared via {@link #disjoint()} or defined on distinct final
+ * classes, evaluate the cases via {@link AdaptiveCaseOrder}, which tests the most frequently matching case of each group
+ * first. This only applies to tables evaluated by strategy {@link CaseEvaluation#TABLE} that do not use type dispatch.
+ * </p>
+ *
+ * @param <I> type of the input object
+ * @param <O> type of the output/result object
+ * @author Max Bureck
+ */
+final class ResultCaseTable<I, O> implements LazyResultCaseMatcher<I, O> {
+
+    /**
+     * Case table without any cases.
+     */
+    private static final ResultCaseTable<?, ?> EMPTY = new ResultCaseTable<>(new ResultCase<?, ?>[0], CaseEvaluation.TABLE, null, new int[0]);
+
+    /**
+     * Minimum amount of cases defined via {@code caseOf(Class, ...)} for which the cases are resolved per input type.
+     * For less type cases, the linear walk over the cases is cheaper than the lookup.
+     */
+    static final int TYPE_DISPATCH_THRESHOLD = 4;
+
+    /**
+     * Minimum amount of consecutive cases on strings described by a {@link ResultCase#stringKey() key} that are compiled
+     * into a {@link ResultCase.StringSwitchCase}. For less cases, matching the cases one by one is cheaper than the
+     * lookup.
+     */
+    static final int SWITCH_THRESHOLD = 4;
+
+    /**
+     * Cases in the order they were defined. The array is never modified after construction.
+     */
+    private final ResultCase<I, O>[] cases;
+
+    /**
+     * Cases with sequences of cases on strings replaced by {@link ResultCase.StringSwitchCase}s. Computed
+     * on first use, since the cases of intermediate tables created while defining a matcher are never evaluated.
+     */
+    private volatile ResultCase<I, O>[] switched;
+
+    /**
+     * Indices of the cases that may match inputs of a given runtime class. Is {@code null} if the table holds less than
+     * {@link #TYPE_DISPATCH_THRESHOLD} type cases.
+     */
+    private final CaseIndex casesByType;
+
+    /**
+     * Strategy used to evaluate the cases.
+     */
+    private final CaseEvaluation evaluation;
+
+    /**
+     * Function evaluating the cases, compiled on first use if {@link #evaluation} is not {@link CaseEvaluation#TABLE}.
+     */
+    private volatile Function<Object, Object> compiled;
+
+    /**
+     * Statistics recorded when evaluating the cases, or {@code null} if the table is not instrumented.
+     */
+    private final CaseStatistics statistics;
+
+    /**
+     * Amount of cases defined at each call of {@link #disjoint()}, in ascending order. The cases between two marks are
+     * declared to be mutually exclusive.
+     */
+    private final int[] disjointMarks;
+
+    /**
+     * {@code true} if the table holds cases that are mutually exclusive and may be reordered by
+     * {@link AdaptiveCaseOrder}.
+     */
+    private final boolean reorderable;
+
+    /**
+     * {@code true} if the cases are evaluated by iterating over the table without recording statistics and without
+     * reordering. In this case {@link #compiled} is never used.
+     */
+    private final boolean direct;
+
+    /**
+     * Private constructor, instances are created via {@link #empty()} and by the case methods.
+     *
+     * @param cases      case table; the array must not be modified after passing it to this constructor.
+     * @param evaluation strategy used to evaluate the cases
+     * @param statistics    statistics to record, or {@code null} if the table is not instrumented
+     * @param disjointMarks amount of cases defined at each call of {@link #disjoint()}
+     */
+    @SuppressWarnings("unchecked")
+    private ResultCaseTable(ResultCase<?, ?>[] cases, CaseEvaluation evaluation, CaseStatistics statistics, int[] disjointMarks) {
+        this.cases = (ResultCase<I, O>[]) cases;
+        this.evaluation = evaluation;
+        this.statistics = statistics;
+        this.disjointMarks = disjointMarks;
+        int typeCases = 0;
+        int finalTypeCases = 0;
+        for (ResultCase<?, ?> c : cases) {
+            if (c.isTypeCase()) {
+                typeCases++;
+                if (Modifier.isFinal(c.type().getModifiers())) {
+                    finalTypeCases++;
+                }
+            }
+        }
+        if (typeCases >= TYPE_DISPATCH_THRESHOLD) {
+            this.casesByType = new CaseIndex(cases);
+        } else {
+            this.casesByType = null;
+        }
+        // type dispatch already skips cases on other types, reordering would not pay off; documented on disjoint()
+        this.reorderable = casesByType == null && (disjointMarks.length > 0 || finalTypeCases >= 2);
+        this.direct = evaluation == CaseEvaluation.TABLE && statistics == null && !reorderable;
+    }
+
+    /**
+     * Returns a case table without cases.
+     *
+     * @param <I> type of the input object
+     * @param <O> type of the output/result object
+     * @return case table without cases
+     */
+    @SuppressWarnings("unchecked") // Safe, since table without cases never touches inputs or outputs
+    static <I, O> ResultCaseTable<I, O> empty() {
+        return (ResultCaseTable<I, O>) EMPTY;
+    }
+
+    /**
+     * Returns a new case table with all cases of this table, followed by the given case {@code c}.
+     *
+     * @param c case to append
+     * @return new case table ending with case {@code c}
+     */
+    private ResultCaseTable<I, O> with(ResultCase<I, O> c) {
+        final ResultCase<I, O>[] cases = this.cases;
+        final ResultCase<I, O>[] newCases = Arrays.copyOf(cases, cases.length + 1);
+        newCases[cases.length] = c;
+        return new ResultCaseTable<>(newCases, evaluation, statistics, disjointMarks);
+    }
+
+    /**
+     * Evaluates the cases in the order they were defined, until the first case matches the input {@code i}.
+     *
+     * @param i input to match
+     * @return result of the first matching case (may be {@code null}) or {@link ResultCase#NO_MATCH} if no case matches.
+     */
+    Object evaluate(I i) {
+        if (!direct) {
+            return compiled().apply(i);
+        }
+        return evaluateTable(i);
+    }
+
+    /**
+     * Returns the function evaluating the cases as determined by {@link #evaluation}, compiling the cases on first
+     * call. Tables with more cases than the compiling strategy supports are evaluated by iterating over the table.
+     * Instrumented tables always evaluate the cases one by one, recording the statistics of every evaluated case.
+     *
+     * @return function returning the result of the first matching case, or {@link ResultCase#NO_MATCH}.
+     */
+    @SuppressWarnings("unchecked") // Safe cast, the function only passes inputs to the cases of this table
+    private Function<Object, Object> compiled() {
+        Function<Object, Object> compiled = this.compiled;
+        if (compiled == null) {
+            synchronized (this) {
+                compiled = this.compiled;
+                if (compiled == null) {
+                    if (statistics != null) {
+                        final CaseStatistics.CaseCounter[] counters = statistics.counters(cases.length);
+                        compiled = i -> evaluateInstrumented((I) i, counters);
+                    } else if (evaluation == CaseEvaluation.GENERATED_CLASS && switched().length <= CaseClassGenerator.MAX_CASES) {
+                        compiled = CaseClassGenerator.generate(switched());
+                    } else if (evaluation == CaseEvaluation.METHOD_HANDLES && switched().length <= CaseHandleCompiler.MAX_CASES) {
+                        compiled = new CaseHandleCompiler.HandleFunction(CaseHandleCompiler.compile(switched()));
+                    } else if (evaluation == CaseEvaluation.TABLE && reorderable) {
+                        compiled = adaptiveOrder();
+                    } else {
+                        compiled = i -> evaluateTable((I) i);
+                    }
+                    this.compiled = compiled;
+                }
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Returns a function evaluating the cases, reordering the groups of mutually exclusive cases by their observed hit
+     * frequency. Cases between two calls of {@link #disjoint()} form a group. Additionally, consecutive cases defined
+     * via {@code caseOf(Class, ...)} on distinct final classes form a group, since no object is an instance of two
+     * distinct final classes. Sequences of cases on strings are compiled into lookups within the groups and between
+     * them, a group of cases on strings compiled into a single lookup is not reordered.
+     *
+     * @return function returning the result of the first matching case, or {@link ResultCase#NO_MATCH}.
+     */
+    @SuppressWarnings("unchecked") // Safe cast, the function only passes inputs to the cases of this table
+    private Function<Object, Object> adaptiveOrder() {
+        final ResultCase<I, O>[] cases = this.cases;
+        final int[] marks = this.disjointMarks;
+        final int[] groupStarts = new int[cases.length];
+        final int[] groupEnds = new int[cases.length];
+        int groups = 0;
+        int start = 0;
+        for (int mark : marks) {
+            if (mark - start >= 2) {
+                groupStarts[groups] = start;
+                groupEnds[groups++] = mark;
+            }
+            start = mark;
+        }
+        // cases after the last mark: find runs of type cases on distinct final classes
+        int runStart = start;
+        final Set<Class<?>> runTypes = new HashSet<>();
+        for (int i = start; i <= cases.length; i++) {
+            final Class<?> type = i < cases.length ? cases[i].type() : null;
+            final boolean finalType = type != null && Modifier.isFinal(type.getModifiers());
+            if (!finalType || !runTypes.add(type)) {
+                if (i - runStart >= 2) {
+                    groupStarts[groups] = runStart;
+                    groupEnds[groups++] = i;
+                }
+                runTypes.clear();
+                if (finalType) {
+                    // type repeated, start a new run with this case
+                    runTypes.add(type);
+                    runStart = i;
+                } else {
+                    runStart = i + 1;
+                }
+            }
+        }
+        // compile the string switches per segment, so every switch lies either completely inside or outside a group
+        final List<ResultCase<I, O>> switchedCases = new ArrayList<>(cases.length);
+        int switchedGroups = 0;
+        int segmentStart = 0;
+        for (int g = 0; g < groups; g++) {
+            final int groupStart = groupStarts[g];
+            final int groupEnd = groupEnds[g];
+            switchedCases.addAll(Arrays.asList(compileSwitches(Arrays.copyOfRange(cases, segmentStart, groupStart))));
+            final int switchedStart = switchedCases.size();
+            switchedCases.addAll(Arrays.asList(compileSwitches(Arrays.copyOfRange(cases, groupStart, groupEnd))));
+            if (switchedCases.size() - switchedStart >= 2) {
+                // switchedGroups <= g, only groups already read are overwritten
+                groupStarts[switchedGroups] = switchedStart;
+                groupEnds[switchedGroups++] = switchedCases.size();
+            }
+            segmentStart = groupEnd;
+        }
+        if (switchedGroups == 0) {
+            return i -> evaluateTable((I) i);
+        }
+        switchedCases.addAll(Arrays.asList(compileSwitches(Arrays.copyOfRange(cases, segmentStart, cases.length))));
+        final ResultCase<I, O>[] switched = switchedCases.toArray((ResultCase<I, O>[]) new ResultCase<?, ?>[switchedCases.size()]);
+        return new AdaptiveCaseOrder(switched, Arrays.copyOf(groupStarts, switchedGroups), Arrays.copyOf(groupEnds, switchedGroups));
+    }
+
+    /**
+     * Evaluates the cases in the order they were defined, counting the matching case. For the inputs sampled by
+     * {@link CaseStatistics#timed()}, the duration of every evaluated case is recorded as well.
+     *
+     * @param i        input to match
+     * @param counters counters of the cases, holding at least one counter per case
+     * @return result of the first matching case (may be {@code null}) or {@link ResultCase#NO_MATCH} if no case matches.
+     */
+    private Object evaluateInstrumented(I i, CaseStatistics.CaseCounter[] counters) {
+        final ResultCase<I, O>[] cases = this.cases;
+        if (statistics.timed()) {
+            for (int index = 0; index < cases.length; index++) {
+                final long start = System.nanoTime();
+                final Object result = cases[index].evaluate(i);
+                final long nanos = System.nanoTime() - start;
+                final boolean matched = result != NO_MATCH;
+                counters[index].record(matched, nanos);
+                if (matched) {
+                    return result;
+                }
+            }
+        } else {
+            for (int index = 0; index < cases.length; index++) {
+                final Object result = cases[index].evaluate(i);
+                if (result != NO_MATCH) {
+                    counters[index].recordHit();
+                    return result;
+                }
+            }
+        }
+        statistics.recordNoMatch();
+        return NO_MATCH;
+    }
+
+    /**
+     * Returns a method handle of type {@code (Object)Object}, evaluating the cases of this table and returning the result
+     * of the first matching case or {@code otherwise} if no case matches.
+     *
+     * @param otherwise value returned by the handle if no case matches
+     * @return handle evaluating the cases of this table
+     * @see LazyMatcher#toMethodHandle(LazyResultCaseMatcher, Object)
+     */
+    @SuppressWarnings("unchecked") // Safe cast, the function only passes inputs to the cases of this table
+    MethodHandle toMethodHandle(O otherwise) {
+        final MethodHandle handle;
+        if (statistics != null) {
+            // keep recording statistics
+            handle = CaseHandleCompiler.function(compiled());
+        } else if (switched().length <= CaseHandleCompiler.MAX_CASES) {
+            handle = CaseHandleCompiler.compile(switched());
+        } else {
+            handle = CaseHandleCompiler.function((Function<Object, Object>) i -> evaluateTable((I) i));
+        }
+        return CaseHandleCompiler.otherwise(handle, otherwise);
+    }
+
+    /**
+     * Returns the cases to iterate over, with sequences of cases on strings compiled to lookups. Concurrent
+     * first calls may compile the cases more than once, but all of them compute equivalent tables.
+     *
+     * @return compiled cases
+     */
+    private ResultCase<I, O>[] switched() {
+        ResultCase<I, O>[] switched = this.switched;
+        if (switched == null) {
+            switched = compileSwitches(cases);
+            this.switched = switched;
+        }
+        return switched;
+    }
+
+    /**
+     * Replaces every sequence of at least {@link #SWITCH_THRESHOLD} consecutive cases with a
+     * {@link ResultCase#stringKey() key} by a {@link ResultCase.StringSwitchCase}.
+     *
+     * @param cases cases in order of definition
+     * @param <I>   type of the input object
+     * @param <O>   type of the output/result object
+     * @return cases with compiled cases on strings
+     */
+    @SuppressWarnings("unchecked")
+    private static <I, O> ResultCase<I, O>[] compileSwitches(ResultCase<I, O>[] cases) {
+        final List<ResultCase<I, O>> result = new ArrayList<>(cases.length);
+        int index = 0;
+        while (index < cases.length) {
+            int end = index;
+            while (end < cases.length && cases[end].stringKey() != null) {
+                end++;
+            }
+            if (end - index >= SWITCH_THRESHOLD) {
+                result.add(new ResultCase.StringSwitchCase<>(Arrays.copyOfRange(cases, index, end)));
+                index = end;
+            } else {
+                // too few cases on strings (maybe none) before next other case
+                final int next = Math.max(end, index + 1);
+                for (; index < next; index++) {
+                    result.add(cases[index]);
+                }
+            }
+        }
+        return result.toArray((ResultCase<I, O>[]) new ResultCase<?, ?>[result.size()]);
+    }
+
+    /**
+     * Evaluates the cases by iterating over the case table.
+     *
+     * @param i input to match
+     * @return result of the first matching case (may be {@code null}) or {@link ResultCase#NO_MATCH} if no case matches.
+     */
+    private Object evaluateTable(I i) {
+        final CaseIndex casesByType = this.casesByType;
+        if (casesByType == null) {
+            final ResultCase<I, O>[] cases = switched();
+            for (int index = 0; index < cases.length; index++) {
+                final Object result = cases[index].evaluate(i);
+                if (result != NO_MATCH) {
+                    return result;
+                }
+            }
+        } else {
+            final ResultCase<I, O>[] cases = this.cases;
+            final int[] candidates = (i == null) ? casesByType.casesForNull() : casesByType.get(i.getClass());
+            for (int index = 0; index < candidates.length; index++) {
+                final Object result = cases[candidates[index]].evaluate(i);
+                if (result != NO_MATCH) {
+                    return result;
+                }
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Resolves the indices of the cases that may match inputs of a runtime class. The result is computed once per class
+     * and then cached by the JVM. The indices for {@code null} inputs are computed on the first {@code null} input, so
+     * intermediate tables created while defining a matcher do not pay for them.
+     */
+    private static final class CaseIndex extends ClassValue<int[]> {
+
+        private final ResultCase<?, ?>[] cases;
+
+        /**
+         * Indices of the cases that may match a {@code null} input, computed on first use.
+         */
+        private volatile int[] casesForNull;
+
+        CaseIndex(ResultCase<?, ?>[] cases) {
+            this.cases = cases;
+        }
+
+        /**
+         * Returns the indices of the cases that may match a {@code null} input. Concurrent first calls may compute the
+         * indices more than once, but all of them compute equal arrays.
+         *
+         * @return indices of cases to evaluate for {@code null} inputs
+         */
+        int[] casesForNull() {
+            int[] casesForNull = this.casesForNull;
+            if (casesForNull == null) {
+                casesForNull = casesFor(cases, null);
+                this.casesForNull = casesForNull;
+            }
+            return casesForNull;
+        }
+
+        @Override
+        protected int[] computeValue(Class<?> type) {
+            return casesFor(cases, type);
+        }
+
+        /**
+         * Returns the indices of all cases that can match inputs of the given {@code type}, in the order of definition.
+         * The indices end at the first case matching every input of the {@code type}.
+         *
+         * @param cases all cases of the table
+         * @param type  runtime class of the input, or {@code null} for {@code null} inputs.
+         * @return indices of cases to evaluate for inputs of the given {@code type}
+         */
+        static int[] casesFor(ResultCase<?, ?>[] cases, Class<?> type) {
+            final int[] candidates = new int[cases.length];
+            int count = 0;
+            for (int index = 0; index < cases.length; index++) {
+                final ResultCase<?, ?> c = cases[index];
+                if (c.canMatch(type)) {
+                    candidates[count++] = index;
+                    if (c.matchesAll(type)) {
+                        // later cases can never be reached
+                        break;
+                    }
+                }
+            }
+            return Arrays.copyOf(candidates, count);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> LazyResultCaseMatcher<I, O> caseOf(Class<T> clazz, Function<? super T, ? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(clazz);
+        Objects.requireNonNull(f);
+        return with(new ResultCase.ClassCase<>(clazz, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> LazyResultCaseMatcher<I, O> caseOf(Class<T> clazz, Predicate<? super T> condition, Function<? super T, ? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(clazz);
+        Objects.requireNonNull(condition);
+        Objects.requireNonNull(f);
+        return with(new ResultCase.ClassConditionCase<>(clazz, condition, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultCaseMatcher<I, O> caseOf(Predicate<? super I> p, Function<? super I, ? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new ResultCase.PredicateCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultCaseMatcher<I, O> caseOf(BooleanSupplier s, Function<? super I, ? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(s);
+        Objects.requireNonNull(f);
+        return with(new ResultCase.SupplierCase<>(s, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultCaseMatcher<I, O> caseOf(boolean test, Function<? super I, ? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(f);
+        return with(new ResultCase.ConstantCase<>(test, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultCaseMatcher<I, O> caseIs(Predicate<? super I> p, Supplier<? extends O> supplier) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(supplier);
+        return with(new ResultCase.PredicateSupplyCase<>(p, supplier));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultCaseMatcher<I, O> caseIs(boolean test, Supplier<? extends O> supplier) throws NullPointerException {
+        Objects.requireNonNull(supplier);
+        return with(new ResultCase.ConstantSupplyCase<>(test, supplier));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> LazyResultCaseMatcher<I, O> caseObj(Function<? super I, Optional<T>> p, Function<? super T, ? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new ResultCase.ObjCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultCaseMatcher<I, O> caseInt(Function<? super I, OptionalInt> p, IntFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new ResultCase.IntCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultCaseMatcher<I, O> caseLong(Function<? super I, OptionalLong> p, LongFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new ResultCase.LongCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultCaseMatcher<I, O> caseDouble(Function<? super I, OptionalDouble> p, DoubleFunction<? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return with(new ResultCase.DoubleCase<>(p, f));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultCaseMatcher<I, O> evaluatedBy(CaseEvaluation evaluation) throws NullPointerException {
+        Objects.requireNonNull(evaluation);
+        return evaluation == this.evaluation ? this : new ResultCaseTable<>(cases, evaluation, statistics, disjointMarks);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultCaseMatcher<I, O> disjoint() {
+        final int[] marks = this.disjointMarks;
+        final int last = marks.length == 0 ? 0 : marks[marks.length - 1];
+        if (cases.length == last) {
+            return this;
+        }
+        final int[] newMarks = Arrays.copyOf(marks, marks.length + 1);
+        newMarks[marks.length] = cases.length;
+        return new ResultCaseTable<>(cases, evaluation, statistics, newMarks);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LazyResultCaseMatcher<I, O> instrumented(CaseStatistics statistics) throws NullPointerException {
+        Objects.requireNonNull(statistics);
+        return statistics == this.statistics ? this : new ResultCaseTable<>(cases, evaluation, statistics, disjointMarks);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public Optional<O> apply(I i) {
+        final Object result = evaluate(i);
+        return result == NO_MATCH ? Optional.empty() : Optional.ofNullable((O) result);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public MatchingFunction<I, O> otherwise(O o) {
+        return i -> {
+            final Object result = evaluate(i);
+            return result == NO_MATCH ? o : (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public MatchingFunction<I, O> orElse(O o) throws NullPointerException {
+        Objects.requireNonNull(o);
+        return i -> {
+            final Object result = evaluate(i);
+            // null results are treated as absent, like in Optional#orElse
+            return (result == NO_MATCH || result == null) ? o : (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public <X extends Exception> ThrowingMatchingFunction<I, O, X> otherwiseThrow(Supplier<X> exceptionSupplier) throws NullPointerException {
+        Objects.requireNonNull(exceptionSupplier);
+        return i -> {
+            final Object result = evaluate(i);
+            if (result == NO_MATCH) {
+                throw Objects.requireNonNull(exceptionSupplier.get());
+            }
+            return (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public MatchingFunction<I, O> otherwiseThrowRuntime(Supplier<? extends RuntimeException> exceptionSupplier) throws NullPointerException {
+        Objects.requireNonNull(exceptionSupplier);
+        return i -> {
+            final Object result = evaluate(i);
+            if (result == NO_MATCH) {
+                throw Objects.requireNonNull(exceptionSupplier.get());
+            }
+            return (O) result;
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked") // Safe cast, every result other than NO_MATCH was computed by a case function
+    public MatchingFunction<I, O> partial() {
+        return i -> {
+            final Object result = evaluate(i);
+            if (result == NO_MATCH) {
+                throw new NoSuchElementException("No case matched input " + i);
+            }
+            return (O) result;
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package de.boereck.matcher.lazy;
+
+import java.util.regex.Pattern;
+
+/**
+ * Description of the strings matched by a case on strings, which allows {@link StringSwitch} to compile sequences of
+ * such cases into a single lookup structure. All implementations are immutable.
+ *
+ * @author Max Bureck
+ */
+abstract class StringKey {
+
+    /**
+     * Checks if the string {@code s} is matched by this key, without a lookup structure.
+     *
+     * @param s string to check, must not be {@code null}.
+     * @return {@code true} if {@code s} is matched by this key
+     */
+    abstract boolean matches(String s);
+
+    /**
+     * Key matching strings matching a regular expression as a whole, defined by a
+     * {@link de.boereck.matcher.helpers.PatternPredicate PatternPredicate} or a
+     * {@link de.boereck.matcher.helpers.PatternMapper PatternMapper}.
+     */
+    static final class Regex extends StringKey {
+
+        final Pattern pattern;
+
+        Regex(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        boolean matches(String s) {
+            return pattern.matcher(s).matches();
+        }
+    }
+
+    /**
+     * Key matching strings starting with one of several prefixes, defined by a
+     * {@link de.boereck.matcher.helpers.PrefixPredicate PrefixPredicate}.
+     */
+    static final class Prefixes extends StringKey {
+
+        final String[] prefixes;
+
+        Prefixes(String[] prefixes) {
+            this.prefixes = prefixes;
+        }
+
+        @Override
+        boolean matches(String s) {
+            for (String prefix : prefixes) {
+                if (s.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Key matching strings equal to a string, defined by an
+     * {@link de.boereck.matcher.helpers.EqualsPredicate EqualsPredicate} or, ignoring case, by an
+     * {@link de.boereck.matcher.helpers.EqualsIgnoreCasePredicate EqualsIgnoreCasePredicate}.
+     */
+    static final class Literal extends StringKey {
+
+        final String value;
+
+        final boolean ignoreCase;
+
+        Literal(String value, boolean ignoreCase) {
+            this.value = value;
+            this.ignoreCase = ignoreCase;
+        }
+
+        @Override
+        boolean matches(String s) {
+            return ignoreCase ? s.equalsIgnoreCase(value) : s.equals(value);
+        }
+
+        /**
+         * Maps a character to the same value as all characters it is equal to by
+         * {@link String#equalsIgnoreCase(String)}, which compares the upper case and the lower case of the upper case
+         * of the characters. Surrogates are all mapped to the same value, so strings equal ignoring case are folded to
+         * equal strings even if surrogate pairs are compared as code points.
+         *
+         * @param c character to fold
+         * @return representative of the characters equal to {@code c} ignoring case
+         */
+        static char fold(char c) {
+            if (Character.isSurrogate(c)) {
+                return Character.MIN_SURROGATE;
+            }
+            return Character.toLowerCase(Character.toUpperCase(c));
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package de.boereck.matcher.lazy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Lookup structure mapping strings to the index of the first of several cases matching the string. Like
+ * {@link KeySwitch} for int and long keys, it allows a sequence of cases to be matched without evaluating every case
+ * one after another. Cases are described by {@link StringKey}s; depending on the kinds of keys,
+ * {@link #compile(StringKey[])} selects one of these lookup strategies:
+ * <ul>
+ * <li>If all cases compare the input to strings, the strings are stored in a hash table, the way {@code javac}
+ * compiles a {@code switch} on strings: a lookup computes the hash code of the input once, finds the slot of the hash
+ * code and performs a single {@code equals} check. Strings compared ignoring case are stored in a second table, hashed
+ * by their case-folded characters.</li>
+ * <li>If all cases are defined on prefixes, the prefixes are stored in a trie, which is walked along the input. The
+ * cost of a lookup is linear in the length of the longest prefix, not in the amount of prefixes.</li>
+ * <li>Otherwise the keys are compiled into a {@link UnionAutomaton}, so an input is scanned only once, regardless of the
+ * amount of cases. Keys that cannot be compiled into the automaton (e.g. expressions compiled with flags or using
+ * unsupported constructs) are matched one by one, but only if no case with a lower index was found by the
+ * automaton.</li>
+ * </ul>
+ * All implementations are immutable and can be shared between threads.
+ *
+ * @author Max Bureck
+ */
+abstract class StringSwitch {
+
+    /**
+     * Value returned by {@link #indexOf(String)} if no case matches a string.
+     */
+    static final int NO_CASE = KeySwitch.NO_CASE;
+
+    /**
+     * Returns the index of the first case matching the given string {@code s}.
+     *
+     * @param s string to be matched, must not be {@code null}.
+     * @return index of the first case matching {@code s}, or {@link #NO_CASE} if no case matches.
+     */
+    abstract int indexOf(String s);
+
+    /**
+     * Compiles cases, described by the keys of the strings they match, into a lookup structure. The case at index
+     * {@code i} matches all strings matched by {@code keys[i]}.
+     *
+     * @param keys keys of the cases
+     * @return lookup structure finding the first matching case for a string
+     */
+    static StringSwitch compile(StringKey[] keys) {
+        boolean allPrefixes = true;
+        boolean allLiterals = true;
+        for (StringKey key : keys) {
+            allPrefixes &= key instanceof StringKey.Prefixes;
+            allLiterals &= key instanceof StringKey.Literal;
+        }
+        if (allLiterals) {
+            return new Hash(Arrays.copyOf(keys, keys.length, StringKey.Literal[].class));
+        }
+        if (allPrefixes) {
+            final String[][] prefixes = new String[keys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                prefixes[i] = ((StringKey.Prefixes) keys[i]).prefixes;
+            }
+            return new Trie(prefixes);
+        }
+        final UnionAutomaton.Builder builder = new UnionAutomaton.Builder();
+        final int[] fallbacks = new int[keys.length];
+        int fallbackCount = 0;
+        for (int i = 0; i < keys.length; i++) {
+            final StringKey key = keys[i];
+            final boolean added;
+            if (key instanceof StringKey.Regex) {
+                final Pattern pattern = ((StringKey.Regex) key).pattern;
+                added = pattern.flags() == 0 && builder.add(pattern.pattern(), i);
+            } else if (key instanceof StringKey.Prefixes) {
+                added = builder.addPrefixes(((StringKey.Prefixes) key).prefixes, i);
+            } else if (key instanceof StringKey.Literal) {
+                final StringKey.Literal literal = (StringKey.Literal) key;
+                added = builder.addLiteral(literal.value, literal.ignoreCase, i);
+            } else {
+                added = false;
+            }
+            if (!added) {
+                fallbacks[fallbackCount++] = i;
+            }
+        }
+        final UnionAutomaton automaton = builder.isEmpty() ? null : builder.build();
+        return new Automaton(automaton, keys.clone(), Arrays.copyOf(fallbacks, fallbackCount));
+    }
+
+    /**
+     * Lookup of cases comparing the input to strings via hash tables. Strings compared exactly are stored by their
+     * {@link String#hashCode() hash code}, strings compared ignoring case by the hash code of their
+     * {@link StringKey.Literal#fold(char) folded} characters. Both tables use open addressing with linear probing and
+     * store the hash codes of the strings next to them, so {@code equals} is only called on strings with the same hash
+     * code. If several cases compare to the same string, only the first one is stored.
+     */
+    static final class Hash extends StringSwitch {
+
+        /**
+         * Multiplier spreading hash codes over the slots of a table, 2<sup>32</sup> divided by the golden ratio.
+         */
+        private static final int PHI = 0x9E3779B9;
+
+        /**
+         * Table of the strings compared exactly, {@code null} if there are none.
+         */
+        private final Table exact;
+
+        /**
+         * Table of the strings compared ignoring case, {@code null} if there are none.
+         */
+        private final Table folded;
+
+        Hash(StringKey.Literal[] keys) {
+            int ignoreCaseCount = 0;
+            for (StringKey.Literal key : keys) {
+                if (key.ignoreCase) {
+                    ignoreCaseCount++;
+                }
+            }
+            final int exactCount = keys.length - ignoreCaseCount;
+            this.exact = exactCount == 0 ? null : new Table(exactCount, false);
+            this.folded = ignoreCaseCount == 0 ? null : new Table(ignoreCaseCount, true);
+            for (int i = 0; i < keys.length; i++) {
+                final StringKey.Literal key = keys[i];
+                if (key.ignoreCase) {
+                    folded.add(key.value, foldedHash(key.value), i);
+                } else {
+                    exact.add(key.value, key.value.hashCode(), i);
+                }
+            }
+        }
+
+        @Override
+        int indexOf(String s) {
+            final int found = exact == null ? NO_CASE : exact.indexOf(s, s.hashCode());
+            if (folded == null || found == 0) {
+                return found;
+            }
+            final int foundIgnoringCase = folded.indexOf(s, foldedHash(s));
+            if (found == NO_CASE) {
+                return foundIgnoringCase;
+            }
+            return foundIgnoringCase == NO_CASE ? found : Math.min(found, foundIgnoringCase);
+        }
+
+        /**
+         * Computes the hash code of {@code s} like {@link String#hashCode()}, but on the folded characters of the
+         * string, so strings equal ignoring case have the same hash code.
+         */
+        private static int foldedHash(String s) {
+            int hash = 0;
+            for (int i = 0, len = s.length(); i < len; i++) {
+                hash = 31 * hash + StringKey.Literal.fold(s.charAt(i));
+            }
+            return hash;
+        }
+
+        /**
+         * Open-addressing hash table mapping strings to the indices of their cases.
+         */
+        private static final class Table {
+
+            private final String[] strings;
+
+            private final int[] hashes;
+
+            private final int[] cases;
+
+            private final int shift;
+
+            private final int mask;
+
+            private final boolean ignoreCase;
+
+            Table(int size, boolean ignoreCase) {
+                // at most half of the slots are used, so probe sequences stay short
+                final int length = 1 << (33 - Integer.numberOfLeadingZeros(size - 1));
+                this.strings = new String[length];
+                this.hashes = new int[length];
+                this.cases = new int[length];
+                this.shift = Integer.numberOfLeadingZeros(length - 1);
+                this.mask = length - 1;
+                this.ignoreCase = ignoreCase;
+            }
+
+            void add(String string, int hash, int index) {
+                if (indexOf(string, hash) != NO_CASE) {
+                    // an earlier case compares to the same string
+                    return;
+                }
+                int slot = (hash * PHI) >>> shift;
+                while (strings[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                strings[slot] = string;
+                hashes[slot] = hash;
+                cases[slot] = index;
+            }
+
+            int indexOf(String s, int hash) {
+                final String[] strings = this.strings;
+                int slot = (hash * PHI) >>> shift;
+                String present;
+                while ((present = strings[slot]) != null) {
+                    if (hashes[slot] == hash && (ignoreCase ? present.equalsIgnoreCase(s) : present.equals(s))) {
+                        return cases[slot];
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                return NO_CASE;
+            }
+        }
+    }
+
+    /**
+     * Lookup of cases on prefixes via a trie. The nodes are numbered in breadth first order, so the children of every
+     * node are stored consecutively in arrays, sorted by their character. Every node stores the lowest index of the
+     * cases with a prefix ending at the node or at one of its ancestors, so the result of a lookup is the value of the
+     * last node reached when walking the trie along the input.
+     */
+    static final class Trie extends StringSwitch {
+
+        /**
+         * Nodes with more children than this are searched by binary search instead of a linear scan.
+         */
+        private static final int LINEAR_SEARCH_LIMIT = 8;
+
+        /**
+         * Children of node {@code n} are stored at the indices {@code firstChild[n]} to {@code firstChild[n + 1] - 1}
+         * of {@link #labels}. The node reached via the child at index {@code i} is node {@code i + 1}.
+         */
+        private final int[] firstChild;
+
+        /**
+         * Character of the edge leading to node {@code i + 1}.
+         */
+        private final char[] labels;
+
+        /**
+         * Lowest index of the cases with a prefix ending at the node or one of its ancestors, or {@link #NO_CASE}.
+         */
+        private final int[] cases;
+
+        Trie(String[][] prefixes) {
+            final TrieNode root = new TrieNode();
+            for (int i = prefixes.length - 1; i >= 0; i--) {
+                // insert in reverse order, so the first case defining a prefix wins
+                for (String prefix : prefixes[i]) {
+                    TrieNode node = root;
+                    for (int c = 0; c < prefix.length(); c++) {
+                        node = node.children.computeIfAbsent(prefix.charAt(c), k -> new TrieNode());
+                    }
+                    node.index = i;
+                }
+            }
+            root.inherited = root.index;
+            if (root.inherited == 0) {
+                root.children.clear();
+            }
+            final List<TrieNode> nodes = new ArrayList<>();
+            nodes.add(root);
+            for (int n = 0; n < nodes.size(); n++) {
+                final TrieNode node = nodes.get(n);
+                for (TrieNode child : node.children.values()) {
+                    child.inherited = min(node.inherited, child.index);
+                    if (child.inherited == 0) {
+                        // no descendant of a node reporting the first case can report another case
+                        child.children.clear();
+                    }
+                    nodes.add(child);
+                }
+            }
+            final int count = nodes.size();
+            this.firstChild = new int[count + 1];
+            this.labels = new char[count - 1];
+            this.cases = new int[count];
+            int child = 0;
+            for (int n = 0; n < count; n++) {
+                final TrieNode node = nodes.get(n);
+                firstChild[n] = child;
+                cases[n] = node.inherited;
+                for (char c : node.children.keySet()) {
+                    labels[child++] = c;
+                }
+            }
+            firstChild[count] = child;
+        }
+
+        private static int min(int index1, int index2) {
+            if (index1 == NO_CASE) {
+                return index2;
+            }
+            return index2 == NO_CASE ? index1 : Math.min(index1, index2);
+        }
+
+        @Override
+        int indexOf(String s) {
+            final int[] firstChild = this.firstChild;
+            final char[] labels = this.labels;
+            int node = 0;
+            for (int i = 0, len = s.length(); i < len; i++) {
+                final int from = firstChild[node];
+                final int to = firstChild[node + 1];
+                if (from == to) {
+                    break;
+                }
+                final int child = child(from, to, labels, s.charAt(i));
+                if (child < 0) {
+                    break;
+                }
+                node = child + 1;
+            }
+            return cases[node];
+        }
+
+        /**
+         * Returns the index of the child labeled {@code c} between {@code from} (inclusive) and {@code to} (exclusive).
+         */
+        private static int child(int from, int to, char[] labels, char c) {
+            if (to - from <= LINEAR_SEARCH_LIMIT) {
+                for (int i = from; i < to; i++) {
+                    if (labels[i] == c) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            int low = from;
+            int high = to - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final char label = labels[mid];
+                if (label < c) {
+                    low = mid + 1;
+                } else if (label > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Node of the trie while it is built.
+         */
+        private static final class TrieNode {
+
+            private final TreeMap<Character, TrieNode> children = new TreeMap<>();
+
+            /**
+             * Index of the first case with a prefix ending at this node.
+             */
+            private int index = NO_CASE;
+
+            /**
+             * Lowest index of the cases with a prefix ending at this node or one of its ancestors.
+             */
+            private int inherited = NO_CASE;
+        }
+    }
+
+    /**
+     * Lookup of cases via a {@link UnionAutomaton}, falling back to matching keys one by one for keys not supported by
+     * the automaton.
+     */
+    static final class Automaton extends StringSwitch {
+
+        /**
+         * Automaton matching all supported keys, {@code null} if no key is supported.
+         */
+        private final UnionAutomaton automaton;
+
+        private final StringKey[] keys;
+
+        /**
+         * Indices of the keys not compiled into the automaton, ascending.
+         */
+        private final int[] fallbacks;
+
+        Automaton(UnionAutomaton automaton, StringKey[] keys, int[] fallbacks) {
+            this.automaton = automaton;
+            this.keys = keys;
+            this.fallbacks = fallbacks;
+        }
+
+        @Override
+        int indexOf(String s) {
+            final int found = automaton == null ? NO_CASE : automaton.indexOf(s);
+            if (found == UnionAutomaton.UNDECIDED) {
+                // the automaton does not read surrogate pairs as code points
+                return indexOf(s, keys.length);
+            }
+            // only fallback cases defined before the case found by the automaton can take precedence
+            final int limit = found == NO_CASE ? keys.length : found;
+            for (int index : fallbacks) {
+                if (index >= limit) {
+                    break;
+                }
+                if (keys[index].matches(s)) {
+                    return index;
+                }
+            }
+            return found;
+        }
+
+        /**
+         * Matches {@code s} against the keys one by one.
+         *
+         * @param s     string to match
+         * @param limit amount of keys to check
+         * @return index of the first key matching {@code s}, or {@link #NO_CASE}.
+         */
+        private int indexOf(String s, int limit) {
+            for (int index = 0; index < limit; index++) {
+                if (keys[index].matches(s)) {
+                    return index;
+                }
+            }
+            return NO_CASE;
+        }
+    }
+}
@@ -0,0 +1,1159 @@
+package de.boereck.matcher.lazy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Automaton matching strings against several regular expressions at once, reporting the lowest index of the
+ * expressions matching a whole input string. The expressions are parsed and compiled into a single nondeterministic
+ * automaton (Thompson construction). The deterministic automaton is constructed lazily from it while inputs are matched:
+ * every state of the deterministic automaton is the set of nondeterministic states reachable after the characters read
+ * so far, and transitions are computed the first time they are taken. This way the input is scanned exactly once,
+ * regardless of the number of expressions, and the exponential blow-up of constructing the full deterministic automaton
+ * is avoided. At most {@link #MAX_STATES} states are cached; transitions to states beyond this limit are computed again
+ * every time they are taken.
+ * <p>
+ * Only a subset of the {@link java.util.regex.Pattern} syntax is supported: literals and escaped characters, character
+ * classes without nested classes or intersections, the predefined classes {@code . \d \D \s \S \w \W}, capturing,
+ * named and non-capturing groups, alternation, greedy and reluctant quantifiers, and {@code ^} and {@code $} at the
+ * very start and end of the expression. {@link Builder#add(String, int)} rejects expressions using other constructs,
+ * e.g. back references, look-around, possessive quantifiers, boundary matchers or inline flags, so they can be matched
+ * by {@code java.util.regex} instead. Since all supported constructs describe regular languages, matching an
+ * expression against a whole input has the same result as {@link java.util.regex.Matcher#matches()}.
+ * </p>
+ * <p>
+ * The automaton reads the input one {@code char} at a time, while {@code java.util.regex} treats surrogate pairs as
+ * one code point. For inputs containing surrogates, {@link #indexOf(String)} therefore returns {@link #UNDECIDED}.
+ * </p>
+ * <p>
+ * Instances can be shared between threads. The cache of states is a concurrent map, and transitions are published
+ * by racy writes of references to immutable states, so threads may compute the same transition concurrently, but
+ * always observe fully constructed states.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+final class UnionAutomaton {
+
+    /**
+     * Value returned by {@link #indexOf(String)} if no expression matches an input.
+     */
+    static final int NO_CASE = KeySwitch.NO_CASE;
+
+    /**
+     * Value returned by {@link #indexOf(String)} if an input contains surrogate characters.
+     */
+    static final int UNDECIDED = -2;
+
+    /**
+     * Maximum amount of states of the deterministic automaton that are cached.
+     */
+    static final int MAX_STATES = 10_000;
+
+    /**
+     * Maximum amount of states of the nondeterministic automaton. Expressions exceeding this limit, e.g. because of
+     * large repetition counts, are rejected.
+     */
+    static final int MAX_NFA_STATES = 100_000;
+
+    private static final int CHARS = 0;
+
+    private static final int SPLIT = 1;
+
+    private static final int ACCEPT = 2;
+
+    private static final int MAX_CHAR = Character.MAX_VALUE;
+
+    /**
+     * Kind of every nondeterministic state, {@link #CHARS}, {@link #SPLIT} or {@link #ACCEPT}.
+     */
+    private final int[] kinds;
+
+    /**
+     * Per {@link #CHARS} state the bit set of character classes the state has a transition on.
+     */
+    private final long[][] classSets;
+
+    /**
+     * Per {@link #CHARS} state the successor state, per {@link #ACCEPT} state the index of the accepted expression.
+     */
+    private final int[] targets;
+
+    /**
+     * Per {@link #SPLIT} state the successor states reached without reading a character.
+     */
+    private final int[][] splits;
+
+    /**
+     * First character of every character class, in ascending order. Characters of a class are not distinguished by
+     * any expression.
+     */
+    private final int[] classStarts;
+
+    /**
+     * Character class of every ASCII character.
+     */
+    private final int[] asciiClasses;
+
+    /**
+     * Character class of the surrogate characters.
+     */
+    private final int surrogateClass;
+
+    private final ConcurrentHashMap<StateKey, State> states = new ConcurrentHashMap<>();
+
+    private final State start;
+
+    private UnionAutomaton(Builder builder, int[] starts) {
+        final int count = builder.count + 1;
+        this.kinds = Arrays.copyOf(builder.kinds, count);
+        this.targets = Arrays.copyOf(builder.targets, count);
+        this.splits = Arrays.copyOf(builder.splits, count);
+        final int initial = count - 1;
+        kinds[initial] = SPLIT;
+        splits[initial] = starts;
+        // partition the characters into classes not split by any character set
+        final int[] bounds = new int[builder.boundCount + 3];
+        System.arraycopy(builder.bounds, 0, bounds, 0, builder.boundCount);
+        bounds[builder.boundCount] = 0;
+        bounds[builder.boundCount + 1] = Character.MIN_SURROGATE;
+        bounds[builder.boundCount + 2] = Character.MAX_SURROGATE + 1;
+        Arrays.sort(bounds);
+        int classCount = 0;
+        for (int b : bounds) {
+            if (b <= MAX_CHAR && (classCount == 0 || bounds[classCount - 1] != b)) {
+                bounds[classCount++] = b;
+            }
+        }
+        this.classStarts = Arrays.copyOf(bounds, classCount);
+        this.asciiClasses = new int[128];
+        for (int c = 0; c < asciiClasses.length; c++) {
+            asciiClasses[c] = classOf(classStarts, c);
+        }
+        this.surrogateClass = classOf(classStarts, Character.MIN_SURROGATE);
+        this.classSets = new long[count][];
+        for (int q = 0; q < count - 1; q++) {
+            if (kinds[q] == CHARS) {
+                final int[] ranges = builder.ranges[q];
+                final long[] set = new long[(classCount + 63) >>> 6];
+                for (int cls = 0; cls < classCount; cls++) {
+                    // no class crosses a range boundary, so a range covers a class if it covers the first character
+                    if (contains(ranges, classStarts[cls])) {
+                        set[cls >>> 6] |= 1L << cls;
+                    }
+                }
+                classSets[q] = set;
+            }
+        }
+        this.start = state(closure(new int[]{initial}, 1));
+    }
+
+    /**
+     * Returns the index of the character class holding character {@code c}.
+     *
+     * @param classStarts first character of every class, ascending
+     * @param c           character
+     * @return index of the class holding {@code c}
+     */
+    private static int classOf(int[] classStarts, int c) {
+        final int index = Arrays.binarySearch(classStarts, c);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Checks if sorted, disjoint closed ranges contain character {@code c}.
+     *
+     * @param ranges start and end of every range
+     * @param c      character to check
+     * @return {@code true} if one range contains {@code c}
+     */
+    private static boolean contains(int[] ranges, int c) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (c < ranges[i]) {
+                return false;
+            }
+            if (c <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the lowest index of the expressions matching the whole input {@code s}.
+     *
+     * @param s input string
+     * @return index of the first expression matching {@code s}, {@link #NO_CASE} if no expression matches, or
+     * {@link #UNDECIDED} if {@code s} contains surrogate characters.
+     */
+    int indexOf(String s) {
+        final int[] asciiClasses = this.asciiClasses;
+        final int surrogateClass = this.surrogateClass;
+        State state = start;
+        for (int i = 0, len = s.length(); i < len; i++) {
+            final char c = s.charAt(i);
+            final int cls = c < 128 ? asciiClasses[c] : classOf(classStarts, c);
+            if (cls == surrogateClass) {
+                return UNDECIDED;
+            }
+            State next = state.next[cls];
+            if (next == null) {
+                next = step(state, cls);
+            }
+            if (next.dead) {
+                return NO_CASE;
+            }
+            state = next;
+        }
+        return state.accept;
+    }
+
+    /**
+     * Computes the state reached from {@code state} on a character of class {@code cls} and caches the transition, if
+     * the state is cached.
+     *
+     * @param state current state
+     * @param cls   class of the character read
+     * @return successor state
+     */
+    private State step(State state, int cls) {
+        final int[] from = state.nfaStates;
+        final int[] seeds = new int[from.length];
+        int seedCount = 0;
+        final int word = cls >>> 6;
+        final long bit = 1L << cls;
+        for (int q : from) {
+            if (kinds[q] == CHARS && (classSets[q][word] & bit) != 0) {
+                seeds[seedCount++] = targets[q];
+            }
+        }
+        final State next = state(closure(seeds, seedCount));
+        if (next.cached) {
+            state.next[cls] = next;
+        }
+        return next;
+    }
+
+    /**
+     * Returns the set of character and accepting states reachable from the given states without reading a character.
+     *
+     * @param seeds     states to start from
+     * @param seedCount amount of states in {@code seeds}
+     * @return sorted state set
+     */
+    private int[] closure(int[] seeds, int seedCount) {
+        final boolean[] seen = new boolean[kinds.length];
+        int[] stack = new int[Math.max(16, seedCount)];
+        int top = 0;
+        for (int i = 0; i < seedCount; i++) {
+            stack[top++] = seeds[i];
+        }
+        int[] result = new int[16];
+        int size = 0;
+        while (top > 0) {
+            final int q = stack[--top];
+            if (seen[q]) {
+                continue;
+            }
+            seen[q] = true;
+            if (kinds[q] == SPLIT) {
+                for (int t : splits[q]) {
+                    if (!seen[t]) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                        }
+                        stack[top++] = t;
+                    }
+                }
+            } else {
+                if (size == result.length) {
+                    result = Arrays.copyOf(result, size * 2);
+                }
+                result[size++] = q;
+            }
+        }
+        final int[] set = Arrays.copyOf(result, size);
+        Arrays.sort(set);
+        return set;
+    }
+
+    /**
+     * Returns the cached state for the given set of nondeterministic states, creating it if necessary.
+     *
+     * @param nfaStates sorted set of character and accepting states
+     * @return state of the deterministic automaton
+     */
+    private State state(int[] nfaStates) {
+        final StateKey key = new StateKey(nfaStates);
+        final State cached = states.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        int accept = NO_CASE;
+        for (int q : nfaStates) {
+            if (kinds[q] == ACCEPT && (accept == NO_CASE || targets[q] < accept)) {
+                accept = targets[q];
+            }
+        }
+        if (states.size() >= MAX_STATES) {
+            return new State(nfaStates, accept, classStarts.length, false);
+        }
+        final State created = new State(nfaStates, accept, classStarts.length, true);
+        final State present = states.putIfAbsent(key, created);
+        return present != null ? present : created;
+    }
+
+    /**
+     * State of the deterministic automaton. The fields are final, so threads reading a reference to a state written by
+     * another thread without synchronization always see the initialized fields.
+     */
+    private static final class State {
+
+        private final int[] nfaStates;
+
+        /**
+         * Lowest index of the expressions accepting in this state, or {@link #NO_CASE}.
+         */
+        private final int accept;
+
+        /**
+         * {@code true} if no expression can match after this state was reached.
+         */
+        private final boolean dead;
+
+        /**
+         * {@code true} if the state is held by the cache, only transitions to cached states are stored.
+         */
+        private final boolean cached;
+
+        /**
+         * Successor state per character class, {@code null} if not computed yet.
+         */
+        private final State[] next;
+
+        State(int[] nfaStates, int accept, int classCount, boolean cached) {
+            this.nfaStates = nfaStates;
+            this.accept = accept;
+            this.dead = nfaStates.length == 0;
+            this.cached = cached;
+            this.next = new State[classCount];
+        }
+    }
+
+    /**
+     * Key of a cached state, the sorted set of nondeterministic states.
+     */
+    private static final class StateKey {
+
+        private final int[] nfaStates;
+
+        private final int hash;
+
+        StateKey(int[] nfaStates) {
+            this.nfaStates = nfaStates;
+            this.hash = Arrays.hashCode(nfaStates);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey && Arrays.equals(nfaStates, ((StateKey) o).nfaStates);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Collects the expressions of an automaton. Not thread safe.
+     */
+    static final class Builder {
+
+        private int[] kinds = new int[64];
+
+        private int[] targets = new int[64];
+
+        private int[][] splits = new int[64][];
+
+        private int[][] ranges = new int[64][];
+
+        private int count;
+
+        private int[] bounds = new int[64];
+
+        private int boundCount;
+
+        private final List<Integer> starts = new ArrayList<>();
+
+        /**
+         * Adds the regular expression {@code regEx}, which is accepted with the given {@code index}. If the expression
+         * uses constructs not supported by the automaton, the builder is not changed.
+         *
+         * @param regEx regular expression, must be valid {@link java.util.regex.Pattern} syntax.
+         * @param index index reported by {@link #indexOf(String)} for inputs matching {@code regEx}
+         * @return {@code true} if the expression was added, {@code false} if it is not supported.
+         */
+        boolean add(String regEx, int index) {
+            final Node node;
+            try {
+                node = new Parser(regEx).parse();
+            } catch (Unsupported e) {
+                return false;
+            }
+            return add(node, index);
+        }
+
+        /**
+         * Adds an expression matching all strings starting with one of the given {@code prefixes}, which is accepted
+         * with the given {@code index}. If a prefix contains surrogate characters, the builder is not changed.
+         *
+         * @param prefixes prefixes of the accepted strings
+         * @param index    index reported by {@link #indexOf(String)} for inputs starting with one of the prefixes
+         * @return {@code true} if the expression was added, {@code false} if it is not supported.
+         */
+        boolean addPrefixes(String[] prefixes, int index) {
+            final Node[] alternatives = new Node[prefixes.length];
+            try {
+                for (int p = 0; p < prefixes.length; p++) {
+                    final String prefix = prefixes[p];
+                    final Node[] chars = new Node[prefix.length()];
+                    for (int i = 0; i < chars.length; i++) {
+                        chars[i] = new Chars(Parser.single(Parser.literal(prefix.charAt(i))));
+                    }
+                    alternatives[p] = new Seq(chars);
+                }
+            } catch (Unsupported e) {
+                return false;
+            }
+            final Node any = new Repeat(new Chars(new int[]{0, MAX_CHAR}), 0, Repeat.UNBOUNDED);
+            return add(new Seq(new Node[]{new Alt(alternatives), any}), index);
+        }
+
+        /**
+         * Adds an expression matching exactly the string {@code literal}, or with {@code ignoreCase} every string equal
+         * to {@code literal} by {@link String#equalsIgnoreCase(String)}. If the literal contains surrogate characters,
+         * the builder is not changed.
+         *
+         * @param literal    the accepted string
+         * @param ignoreCase if {@code true}, every character of the literal also matches the characters equal to it
+         *                   ignoring case
+         * @param index      index reported by {@link #indexOf(String)} for inputs equal to the literal
+         * @return {@code true} if the expression was added, {@code false} if it is not supported.
+         */
+        boolean addLiteral(String literal, boolean ignoreCase, int index) {
+            final Node[] chars = new Node[literal.length()];
+            try {
+                for (int i = 0; i < chars.length; i++) {
+                    final int c = Parser.literal(literal.charAt(i));
+                    chars[i] = new Chars(ignoreCase ? CaseFolding.ranges((char) c) : Parser.single(c));
+                }
+            } catch (Unsupported e) {
+                return false;
+            }
+            return add(new Seq(chars), index);
+        }
+
+        /**
+         * Compiles the syntax tree of an expression, which is accepted with the given {@code index}. If the automaton
+         * would get too large, the builder is not changed.
+         *
+         * @param node  syntax tree of the expression
+         * @param index index reported by {@link #indexOf(String)} for inputs matching the expression
+         * @return {@code true} if the expression was added, {@code false} if it is not supported.
+         */
+        private boolean add(Node node, int index) {
+            final int countBefore = count;
+            final int boundsBefore = boundCount;
+            try {
+                starts.add(compile(node, add(ACCEPT, index, null, null)));
+                return true;
+            } catch (Unsupported e) {
+                // roll back the states of the rejected expression
+                count = countBefore;
+                boundCount = boundsBefore;
+                return false;
+            }
+        }
+
+        /**
+         * Returns {@code true} if no expression was added.
+         *
+         * @return {@code true} if the builder is empty
+         */
+        boolean isEmpty() {
+            return starts.isEmpty();
+        }
+
+        /**
+         * Creates the automaton matching all added expressions.
+         *
+         * @return automaton, never {@code null}.
+         */
+        UnionAutomaton build() {
+            final int[] startStates = new int[starts.size()];
+            for (int i = 0; i < startStates.length; i++) {
+                startStates[i] = starts.get(i);
+            }
+            // reserve a slot for the initial state
+            ensureCapacity(count + 1);
+            return new UnionAutomaton(this, startStates);
+        }
+
+        /**
+         * Compiles {@code node} to states leading to state {@code next}, building the automaton backwards.
+         *
+         * @param node node to compile
+         * @param next state reached after {@code node} matched
+         * @return first state of the compiled node
+         * @throws Unsupported if the automaton gets too large
+         */
+        private int compile(Node node, int next) throws Unsupported {
+            if (node instanceof Chars) {
+                final int[] r = ((Chars) node).ranges;
+                for (int i = 0; i < r.length; i++) {
+                    addBound(i % 2 == 0 ? r[i] : r[i] + 1);
+                }
+                return add(CHARS, next, null, r);
+            } else if (node instanceof Seq) {
+                final Node[] nodes = ((Seq) node).nodes;
+                int state = next;
+                for (int i = nodes.length - 1; i >= 0; i--) {
+                    state = compile(nodes[i], state);
+                }
+                return state;
+            } else if (node instanceof Alt) {
+                final Node[] nodes = ((Alt) node).nodes;
+                final int[] alternatives = new int[nodes.length];
+                for (int i = 0; i < nodes.length; i++) {
+                    alternatives[i] = compile(nodes[i], next);
+                }
+                return add(SPLIT, 0, alternatives, null);
+            } else {
+                final Repeat repeat = (Repeat) node;
+                int state = next;
+                if (repeat.max == Repeat.UNBOUNDED) {
+                    final int loop = add(SPLIT, 0, null, null);
+                    // compile the body first, compiling may replace the splits array
+                    final int body = compile(repeat.node, loop);
+                    splits[loop] = new int[]{body, next};
+                    state = loop;
+                } else {
+                    for (int i = repeat.min; i < repeat.max; i++) {
+                        state = add(SPLIT, 0, new int[]{compile(repeat.node, state), state}, null);
+                    }
+                }
+                for (int i = 0; i < repeat.min; i++) {
+                    state = compile(repeat.node, state);
+                }
+                return state;
+            }
+        }
+
+        private int add(int kind, int target, int[] split, int[] charRanges) throws Unsupported {
+            if (count >= MAX_NFA_STATES) {
+                throw Unsupported.INSTANCE;
+            }
+            ensureCapacity(count + 1);
+            kinds[count] = kind;
+            targets[count] = target;
+            splits[count] = split;
+            ranges[count] = charRanges;
+            return count++;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > kinds.length) {
+                final int length = Math.max(capacity, kinds.length * 2);
+                kinds = Arrays.copyOf(kinds, length);
+                targets = Arrays.copyOf(targets, length);
+                splits = Arrays.copyOf(splits, length);
+                ranges = Arrays.copyOf(ranges, length);
+            }
+        }
+
+        private void addBound(int bound) {
+            if (boundCount == bounds.length) {
+                bounds = Arrays.copyOf(bounds, boundCount * 2);
+            }
+            bounds[boundCount++] = bound;
+        }
+    }
+
+    /**
+     * Sets of characters equal to each other ignoring case, as defined by {@link String#equalsIgnoreCase(String)}.
+     * The table is only computed when the first literal ignoring case is compiled.
+     */
+    private static final class CaseFolding {
+
+        /**
+         * Ranges of the characters equal to a character ignoring case, for all characters equal to other characters.
+         */
+        private static final Map<Character, int[]> CLASSES = classes();
+
+        static int[] ranges(char c) {
+            final int[] ranges = CLASSES.get(c);
+            return ranges == null ? Parser.single(c) : ranges;
+        }
+
+        private static Map<Character, int[]> classes() {
+            final Map<Character, List<Character>> byFold = new HashMap<>();
+            for (int c = 0; c <= MAX_CHAR; c++) {
+                if (c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE) {
+                    byFold.computeIfAbsent(StringKey.Literal.fold((char) c), k -> new ArrayList<>()).add((char) c);
+                }
+            }
+            final Map<Character, int[]> classes = new HashMap<>();
+            for (List<Character> equal : byFold.values()) {
+                if (equal.size() > 1) {
+                    // characters were added in ascending order
+                    final int[] ranges = new int[equal.size() * 2];
+                    int size = 0;
+                    for (char c : equal) {
+                        if (size > 0 && ranges[size - 1] == c - 1) {
+                            ranges[size - 1] = c;
+                        } else {
+                            ranges[size++] = c;
+                            ranges[size++] = c;
+                        }
+                    }
+                    final int[] trimmed = Arrays.copyOf(ranges, size);
+                    for (char c : equal) {
+                        classes.put(c, trimmed);
+                    }
+                }
+            }
+            return classes;
+        }
+    }
+
+    /**
+     * Thrown internally if an expression cannot be compiled into the automaton.
+     */
+    private static final class Unsupported extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        static final Unsupported INSTANCE = new Unsupported();
+
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Node of the syntax tree of an expression.
+     */
+    private abstract static class Node {
+    }
+
+    /**
+     * Matches one character in a set of closed ranges.
+     */
+    private static final class Chars extends Node {
+
+        /**
+         * Start and end of every range, sorted and disjoint.
+         */
+        final int[] ranges;
+
+        Chars(int[] ranges) {
+            this.ranges = ranges;
+        }
+    }
+
+    /**
+     * Matches the nodes one after another. Matches the empty string if there are no nodes.
+     */
+    private static final class Seq extends Node {
+
+        final Node[] nodes;
+
+        Seq(Node[] nodes) {
+            this.nodes = nodes;
+        }
+    }
+
+    /**
+     * Matches one of the nodes.
+     */
+    private static final class Alt extends Node {
+
+        final Node[] nodes;
+
+        Alt(Node[] nodes) {
+            this.nodes = nodes;
+        }
+    }
+
+    /**
+     * Matches a node repeatedly.
+     */
+    private static final class Repeat extends Node {
+
+        static final int UNBOUNDED = -1;
+
+        final Node node;
+
+        final int min;
+
+        final int max;
+
+        Repeat(Node node, int min, int max) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    /**
+     * Recursive descent parser for the supported subset of the {@link java.util.regex.Pattern} syntax. Since
+     * expressions are compiled by {@code java.util.regex} before, the parser does not report syntax errors, but rejects
+     * everything it does not understand.
+     */
+    private static final class Parser {
+
+        private static final int[] DIGITS = {'0', '9'};
+
+        private static final int[] SPACES = {'\t', '\r', ' ', ' '};
+
+        private static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+
+        /**
+         * Characters matched by {@code .}, all except line terminators.
+         */
+        private static final int[] DOT = complement(new int[]{'\n', '\n', '\r', '\r', '\u0085', '\u0085', '\u2028', '\u2029'});
+
+        private final String regEx;
+
+        private final int end;
+
+        private int pos;
+
+        Parser(String regEx) {
+            this.regEx = regEx;
+            // a full match always starts at the beginning of the input and ends at its end
+            int start = 0;
+            int end = regEx.length();
+            if (end > 0 && regEx.charAt(0) == '^') {
+                start = 1;
+            }
+            if (end > start && regEx.charAt(end - 1) == '$' && !escaped(regEx, end - 1) && !regEx.contains("\\Q")) {
+                end--;
+            }
+            this.pos = start;
+            this.end = end;
+        }
+
+        /**
+         * Checks if the character at {@code index} is escaped by an odd number of backslashes.
+         */
+        private static boolean escaped(String s, int index) {
+            int backslashes = 0;
+            for (int i = index - 1; i >= 0 && s.charAt(i) == '\\'; i--) {
+                backslashes++;
+            }
+            return backslashes % 2 == 1;
+        }
+
+        Node parse() throws Unsupported {
+            final Node node = alternation();
+            if (pos != end) {
+                throw Unsupported.INSTANCE;
+            }
+            return node;
+        }
+
+        private Node alternation() throws Unsupported {
+            final List<Node> alternatives = new ArrayList<>();
+            alternatives.add(sequence());
+            while (pos < end && regEx.charAt(pos) == '|') {
+                pos++;
+                alternatives.add(sequence());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new Alt(alternatives.toArray(new Node[0]));
+        }
+
+        private Node sequence() throws Unsupported {
+            final List<Node> nodes = new ArrayList<>();
+            while (pos < end) {
+                final char c = regEx.charAt(pos);
+                if (c == '|' || c == ')') {
+                    break;
+                }
+                if (c == '\\' && pos + 1 < end && regEx.charAt(pos + 1) == 'Q') {
+                    quoted(nodes);
+                } else {
+                    nodes.add(quantified(atom()));
+                }
+            }
+            return nodes.size() == 1 ? nodes.get(0) : new Seq(nodes.toArray(new Node[0]));
+        }
+
+        /**
+         * Adds the characters quoted by {@code \Q...\E} as literals.
+         */
+        private void quoted(List<Node> nodes) throws Unsupported {
+            pos += 2;
+            int quoteEnd = regEx.indexOf("\\E", pos);
+            if (quoteEnd < 0 || quoteEnd > end) {
+                quoteEnd = end;
+            }
+            for (; pos < quoteEnd; pos++) {
+                nodes.add(new Chars(single(literal(regEx.charAt(pos)))));
+            }
+            pos = Math.min(end, quoteEnd + 2);
+            // a quantifier after a quote applies to the last quoted character only
+            if (!nodes.isEmpty() && pos < end && isQuantifier(regEx.charAt(pos))) {
+                nodes.add(quantified(nodes.remove(nodes.size() - 1)));
+            }
+        }
+
+        private static boolean isQuantifier(char c) {
+            return c == '*' || c == '+' || c == '?' || c == '{';
+        }
+
+        private Node quantified(Node node) throws Unsupported {
+            if (pos >= end) {
+                return node;
+            }
+            final int min;
+            final int max;
+            switch (regEx.charAt(pos)) {
+                case '*':
+                    min = 0;
+                    max = Repeat.UNBOUNDED;
+                    pos++;
+                    break;
+                case '+':
+                    min = 1;
+                    max = Repeat.UNBOUNDED;
+                    pos++;
+                    break;
+                case '?':
+                    min = 0;
+                    max = 1;
+                    pos++;
+                    break;
+                case '{':
+                    pos++;
+                    min = number();
+                    if (pos < end && regEx.charAt(pos) == ',') {
+                        pos++;
+                        max = (pos < end && regEx.charAt(pos) == '}') ? Repeat.UNBOUNDED : number();
+                    } else {
+                        max = min;
+                    }
+                    expect('}');
+                    break;
+                default:
+                    return node;
+            }
+            if (pos < end) {
+                final char modifier = regEx.charAt(pos);
+                if (modifier == '?') {
+                    // reluctant quantifiers match the same whole inputs as greedy ones
+                    pos++;
+                } else if (modifier == '+') {
+                    // possessive quantifiers do not backtrack, which changes the matched inputs
+                    throw Unsupported.INSTANCE;
+                }
+            }
+            if (pos < end && isQuantifier(regEx.charAt(pos))) {
+                throw Unsupported.INSTANCE;
+            }
+            if (max != Repeat.UNBOUNDED && max < min) {
+                throw Unsupported.INSTANCE;
+            }
+            return new Repeat(node, min, max);
+        }
+
+        private int number() throws Unsupported {
+            final int from = pos;
+            int value = 0;
+            while (pos < end && regEx.charAt(pos) >= '0' && regEx.charAt(pos) <= '9') {
+                value = value * 10 + (regEx.charAt(pos++) - '0');
+                if (value > MAX_NFA_STATES) {
+                    throw Unsupported.INSTANCE;
+                }
+            }
+            if (pos == from) {
+                throw Unsupported.INSTANCE;
+            }
+            return value;
+        }
+
+        private void expect(char c) throws Unsupported {
+            if (pos >= end || regEx.charAt(pos) != c) {
+                throw Unsupported.INSTANCE;
+            }
+            pos++;
+        }
+
+        private Node atom() throws Unsupported {
+            final char c = regEx.charAt(pos++);
+            switch (c) {
+                case '(':
+                    return group();
+                case '[':
+                    return new Chars(charClass());
+                case '.':
+                    return new Chars(DOT);
+                case '\\':
+                    return new Chars(escape(false));
+                case '^':
+                case '$':
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw Unsupported.INSTANCE;
+                default:
+                    return new Chars(single(literal(c)));
+            }
+        }
+
+        private Node group() throws Unsupported {
+            if (pos < end && regEx.charAt(pos) == '?') {
+                pos++;
+                if (pos < end && regEx.charAt(pos) == ':') {
+                    pos++;
+                } else if (pos + 1 < end && regEx.charAt(pos) == '<' && Character.isLetter(regEx.charAt(pos + 1))) {
+                    // named capturing group
+                    final int nameEnd = regEx.indexOf('>', pos);
+                    if (nameEnd < 0 || nameEnd >= end) {
+                        throw Unsupported.INSTANCE;
+                    }
+                    pos = nameEnd + 1;
+                } else {
+                    // look-around, atomic groups and inline flags
+                    throw Unsupported.INSTANCE;
+                }
+            }
+            final Node node = alternation();
+            expect(')');
+            return node;
+        }
+
+        /**
+         * Parses a character class after the opening bracket.
+         */
+        private int[] charClass() throws Unsupported {
+            boolean negated = false;
+            if (pos < end && regEx.charAt(pos) == '^') {
+                negated = true;
+                pos++;
+            }
+            if (pos < end && regEx.charAt(pos) == ']') {
+                throw Unsupported.INSTANCE;
+            }
+            int[] set = new int[0];
+            while (true) {
+                if (pos >= end) {
+                    throw Unsupported.INSTANCE;
+                }
+                final char c = regEx.charAt(pos++);
+                if (c == ']') {
+                    break;
+                }
+                if (c == '[' || (c == '&' && pos < end && regEx.charAt(pos) == '&')) {
+                    // unions and intersections of nested classes
+                    throw Unsupported.INSTANCE;
+                }
+                final int[] item;
+                if (c == '\\') {
+                    item = escape(true);
+                } else {
+                    item = single(literal(c));
+                }
+                if (pos + 1 < end && regEx.charAt(pos) == '-' && regEx.charAt(pos + 1) != ']') {
+                    if (item.length != 2 || item[0] != item[1]) {
+                        // range starting at a predefined class
+                        throw Unsupported.INSTANCE;
+                    }
+                    pos++;
+                    final char to = regEx.charAt(pos++);
+                    final int[] toItem = to == '\\' ? escape(true) : single(literal(to));
+                    if (toItem.length != 2 || toItem[0] != toItem[1] || toItem[0] < item[0]) {
+                        throw Unsupported.INSTANCE;
+                    }
+                    set = union(set, new int[]{item[0], toItem[0]});
+                } else {
+                    set = union(set, item);
+                }
+            }
+            return negated ? complement(set) : set;
+        }
+
+        /**
+         * Parses an escape sequence after the backslash.
+         *
+         * @param inClass {@code true} if the escape is part of a character class
+         * @return set of characters matched by the escape sequence
+         */
+        private int[] escape(boolean inClass) throws Unsupported {
+            if (pos >= end) {
+                throw Unsupported.INSTANCE;
+            }
+            final char c = regEx.charAt(pos++);
+            switch (c) {
+                case 'd':
+                    return DIGITS;
+                case 'D':
+                    return complement(DIGITS);
+                case 's':
+                    return SPACES;
+                case 'S':
+                    return complement(SPACES);
+                case 'w':
+                    return WORD;
+                case 'W':
+                    return complement(WORD);
+                case 't':
+                    return single('\t');
+                case 'n':
+                    return single('\n');
+                case 'r':
+                    return single('\r');
+                case 'f':
+                    return single('\f');
+                case 'a':
+                    return single('\u0007');
+                case 'e':
+                    return single('\u001B');
+                case '0':
+                    return single(literal(octal()));
+                case 'x':
+                    if (pos < end && regEx.charAt(pos) == '{') {
+                        pos++;
+                        final int close = regEx.indexOf('}', pos);
+                        if (close < 0 || close >= end || close - pos > 4) {
+                            throw Unsupported.INSTANCE;
+                        }
+                        final int value = hex(close - pos);
+                        pos++;
+                        return single(literal(value));
+                    }
+                    return single(literal(hex(2)));
+                case 'u':
+                    return single(literal(hex(4)));
+                case 'c':
+                    if (pos >= end) {
+                        throw Unsupported.INSTANCE;
+                    }
+                    return single(literal(regEx.charAt(pos++) ^ 64));
+                default:
+                    if (inClass && c == 'Q') {
+                        throw Unsupported.INSTANCE;
+                    }
+                    if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                        // back references, boundary matchers, property classes and other special constructs
+                        throw Unsupported.INSTANCE;
+                    }
+                    return single(literal(c));
+            }
+        }
+
+        private int octal() throws Unsupported {
+            // \0n, \0nn or \0mnn with m <= 3
+            int value = 0;
+            int digits = 0;
+            while (pos < end && digits < 3) {
+                final char c = regEx.charAt(pos);
+                if (c < '0' || c > '7') {
+                    break;
+                }
+                final int next = value * 8 + (c - '0');
+                if (next > 0377) {
+                    break;
+                }
+                value = next;
+                digits++;
+                pos++;
+            }
+            if (digits == 0) {
+                throw Unsupported.INSTANCE;
+            }
+            return value;
+        }
+
+        private int hex(int digits) throws Unsupported {
+            if (digits == 0 || pos + digits > end) {
+                throw Unsupported.INSTANCE;
+            }
+            int value = 0;
+            for (int i = 0; i < digits; i++) {
+                final int digit = Character.digit(regEx.charAt(pos++), 16);
+                if (digit < 0) {
+                    throw Unsupported.INSTANCE;
+                }
+                value = value * 16 + digit;
+            }
+            return value;
+        }
+
+        /**
+         * Checks that a literal character can be matched by the automaton, which does not match surrogates.
+         */
+        private static int literal(int c) throws Unsupported {
+            if (c > MAX_CHAR || (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)) {
+                throw Unsupported.INSTANCE;
+            }
+            return c;
+        }
+
+        private static int[] single(int c) {
+            return new int[]{c, c};
+        }
+
+        private static int[] complement(int[] ranges) {
+            final int[] result = new int[ranges.length + 2];
+            int size = 0;
+            int next = 0;
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (ranges[i] > next) {
+                    result[size++] = next;
+                    result[size++] = ranges[i] - 1;
+                }
+                next = ranges[i + 1] + 1;
+            }
+            if (next <= MAX_CHAR) {
+                result[size++] = next;
+                result[size++] = MAX_CHAR;
+            }
+            return Arrays.copyOf(result, size);
+        }
+
+        /**
+         * Returns the union of two sets of sorted, disjoint ranges as sorted, disjoint ranges.
+         */
+        private static int[] union(int[] a, int[] b) {
+            final int[] all = new int[a.length + b.length];
+            final int count = all.length / 2;
+            final long[] packed = new long[count];
+            for (int i = 0; i < a.length; i += 2) {
+                packed[i / 2] = ((long) a[i] << 32) | a[i + 1];
+            }
+            for (int i = 0; i < b.length; i += 2) {
+                packed[(a.length + i) / 2] = ((long) b[i] << 32) | b[i + 1];
+            }
+            Arrays.sort(packed);
+            int size = 0;
+            for (long range : packed) {
+                final int from = (int) (range >>> 32);
+                final int to = (int) range;
+                if (size > 0 && from <= all[size - 1] + 1) {
+                    all[size - 1] = Math.max(all[size - 1], to);
+                } else {
+                    all[size++] = from;
+                    all[size++] = to;
+                }
+            }
+            return Arrays.copyOf(all, size);
+        }
+    }
+}
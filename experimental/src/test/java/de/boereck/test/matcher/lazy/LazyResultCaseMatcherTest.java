@@ -0,0 +1,1144 @@
+package de.boereck.test.matcher.lazy;
+
+import static de.boereck.matcher.helpers.MatchHelpers.cast;
+import static de.boereck.matcher.helpers.MatchHelpers.eq;
+import static de.boereck.matcher.helpers.MatchHelpers.isInteger;
+import static de.boereck.matcher.helpers.MatchHelpers.isLong;
+import static de.boereck.matcher.helpers.MatchHelpers.isDouble;
+import static de.boereck.matcher.helpers.StringMatchHelpers.eqIgnoreCase;
+import static de.boereck.matcher.helpers.StringMatchHelpers.matches;
+import static de.boereck.matcher.helpers.StringMatchHelpers.matching;
+import static de.boereck.matcher.helpers.StringMatchHelpers.startsWith;
+import static de.boereck.matcher.helpers.StringMatchHelpers.startsWithAny;
+import static de.boereck.matcher.lazy.LazyMatcher.lazyResultMatch;
+import static org.junit.Assert.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import de.boereck.matcher.helpers.EqualsIgnoreCasePredicate;
+import de.boereck.matcher.helpers.EqualsPredicate;
+import de.boereck.matcher.helpers.PatternMapper;
+import de.boereck.matcher.helpers.PatternPredicate;
+import de.boereck.matcher.helpers.PrefixPredicate;
+import de.boereck.matcher.lazy.CaseEvaluation;
+import de.boereck.matcher.lazy.CaseStatistics;
+import de.boereck.matcher.lazy.LazyMatcher;
+import de.boereck.matcher.lazy.LazyResultCaseMatcher;
+import de.boereck.matcher.lazy.LazyResultMatcher;
+import de.boereck.matcher.lazy.MatchingFunction;
+import org.junit.Test;
+
+public class LazyResultCaseMatcherTest {
+
+    private static final LazyResultCaseMatcher<Object, String> typeMatcher = LazyMatcher.<Object, String>lazyResultMatch()
+            .caseOf(String.class, s -> "String " + s)
+            .caseOf(Integer.class, i -> i > 10, i -> "big Integer")
+            .caseOf(Integer.class, i -> "Integer")
+            .caseOf(Number.class, n -> "Number");
+
+    @Test
+    public void testNoCases() {
+        LazyResultCaseMatcher<Object, String> m = lazyResultMatch();
+        assertFalse(m.apply("foo").isPresent());
+        assertEquals("none", m.otherwise("none").apply("foo"));
+    }
+
+    @Test
+    public void testCaseOfClass() {
+        assertEquals(Optional.of("String foo"), typeMatcher.apply("foo"));
+        assertEquals(Optional.of("Integer"), typeMatcher.apply(3));
+        assertEquals(Optional.of("Number"), typeMatcher.apply(3L));
+        assertFalse(typeMatcher.apply(new Object()).isPresent());
+        assertFalse(typeMatcher.apply(null).isPresent());
+    }
+
+    @Test
+    public void testCaseOfClassCondition() {
+        assertEquals(Optional.of("big Integer"), typeMatcher.apply(42));
+    }
+
+    @Test
+    public void testReuse() {
+        // the same matcher can be applied to many inputs
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Optional.of(i > 10 ? "big Integer" : "Integer"), typeMatcher.match(i));
+        }
+    }
+
+    @Test
+    public void testImmutable() {
+        LazyResultCaseMatcher<Object, String> base = lazyResultMatch();
+        LazyResultCaseMatcher<Object, String> first = base.caseOf(String.class, s -> "first");
+        LazyResultCaseMatcher<Object, String> second = first.caseOf(Integer.class, i -> "second");
+        LazyResultCaseMatcher<Object, String> other = first.caseOf(Integer.class, i -> "other");
+        assertFalse(base.apply("foo").isPresent());
+        assertFalse(first.apply(1).isPresent());
+        assertEquals(Optional.of("second"), second.apply(1));
+        assertEquals(Optional.of("other"), other.apply(1));
+    }
+
+    @Test
+    public void testFirstMatchWins() {
+        AtomicInteger calls = new AtomicInteger();
+        LazyResultCaseMatcher<String, Integer> m = LazyResultMatcher.<String, Integer>caseOf((String s) -> s.startsWith("a"), s -> 1)
+                .caseOf(s -> {
+                    calls.incrementAndGet();
+                    return true;
+                }, s -> 2);
+        assertEquals(Optional.of(1), m.apply("abc"));
+        assertEquals(0, calls.get());
+        assertEquals(Optional.of(2), m.apply("bcd"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testCaseOfBooleanSupplierEvaluatedLazily() {
+        AtomicInteger calls = new AtomicInteger();
+        LazyResultCaseMatcher<String, Integer> m = LazyResultMatcher.caseOf(() -> calls.incrementAndGet() > 1, String::length);
+        assertEquals(0, calls.get());
+        assertFalse(m.apply("foo").isPresent());
+        assertEquals(Optional.of(3), m.apply("foo"));
+    }
+
+    @Test
+    public void testCaseOfBoolean() {
+        LazyResultCaseMatcher<String, Integer> m = LazyMatcher.<String, Integer>lazyResultMatch()
+                .caseOf(false, s -> 1)
+                .caseOf(true, s -> 2);
+        assertEquals(Optional.of(2), m.apply("foo"));
+    }
+
+    @Test
+    public void testCaseIs() {
+        LazyResultCaseMatcher<String, Integer> m = LazyMatcher.<String, Integer>lazyResultMatch()
+                .caseIs(false, () -> 1)
+                .caseIs(s -> s.isEmpty(), () -> 2)
+                .caseIs(true, () -> 3);
+        assertEquals(Optional.of(2), m.apply(""));
+        assertEquals(Optional.of(3), m.apply("foo"));
+    }
+
+    @Test
+    public void testCaseObj() {
+        LazyResultCaseMatcher<Object, String> m = LazyResultMatcher.caseObj(cast(String.class), String::toUpperCase);
+        assertEquals(Optional.of("FOO"), m.apply("foo"));
+        assertFalse(m.apply(1).isPresent());
+    }
+
+    @Test
+    public void testCasePrimitives() {
+        LazyResultCaseMatcher<Object, String> m = LazyMatcher.<Object, String>lazyResultMatch()
+                .caseInt(isInteger, i -> "int " + i)
+                .caseLong(isLong, l -> "long " + l)
+                .caseDouble(isDouble, d -> "double " + d);
+        assertEquals(Optional.of("int 1"), m.apply(1));
+        assertEquals(Optional.of("long 2"), m.apply(2L));
+        assertEquals(Optional.of("double 3.0"), m.apply(3.0));
+        assertFalse(m.apply("4").isPresent());
+    }
+
+    @Test
+    public void testNullResult() {
+        LazyResultCaseMatcher<String, String> m = LazyResultMatcher.caseOf((String s) -> true, s -> null);
+        assertFalse(m.apply("foo").isPresent());
+        assertNull(m.otherwise("other").apply("foo"));
+        assertEquals("other", m.orElse("other").apply("foo"));
+        assertNull(m.partial().apply("foo"));
+    }
+
+    @Test
+    public void testOtherwise() {
+        MatchingFunction<Object, String> f = typeMatcher.otherwise("other");
+        assertEquals("Integer", f.apply(1));
+        assertEquals("other", f.apply(new Object()));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOrElseNull() {
+        typeMatcher.orElse(null);
+    }
+
+    @Test
+    public void testOtherwiseThrow() throws Exception {
+        assertEquals("Integer", typeMatcher.otherwiseThrow(Exception::new).apply(1));
+        try {
+            typeMatcher.otherwiseThrow(Exception::new).apply(new Object());
+            fail();
+        } catch (Exception e) {
+            assertEquals(Exception.class, e.getClass());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOtherwiseThrowRuntime() {
+        typeMatcher.otherwiseThrowRuntime(IllegalStateException::new).apply(new Object());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPartial() {
+        typeMatcher.partial().apply(new Object());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseOfNullFunction() {
+        LazyResultMatcher.caseOf(String.class, null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseOfNullPredicate() {
+        LazyResultMatcher.<Object, String>caseOf((java.util.function.Predicate<Object>) null, o -> "");
+    }
+
+    ///
+
+    private static final LazyResultCaseMatcher<Object, String> manyTypes = LazyMatcher.<Object, String>lazyResultMatch()
+            .caseOf(String.class, s -> s.isEmpty(), s -> "empty String")
+            .caseOf(Integer.class, i -> "Integer")
+            .caseOf((Object o) -> o instanceof Long && (Long) o > 10, o -> "big Long")
+            .caseOf(Long.class, l -> "Long")
+            .caseOf(CharSequence.class, c -> "CharSequence")
+            .caseOf(Number.class, n -> "Number")
+            .caseOf(String.class, s -> "unreachable")
+            .caseOf(o -> o == null, o -> "null")
+            .caseOf(Object.class, o -> "Object");
+
+    @Test
+    public void testTypeDispatch() {
+        assertEquals(Optional.of("empty String"), manyTypes.apply(""));
+        assertEquals(Optional.of("CharSequence"), manyTypes.apply("foo"));
+        assertEquals(Optional.of("CharSequence"), manyTypes.apply(new StringBuilder()));
+        assertEquals(Optional.of("Integer"), manyTypes.apply(1));
+        assertEquals(Optional.of("Long"), manyTypes.apply(1L));
+        assertEquals(Optional.of("big Long"), manyTypes.apply(11L));
+        assertEquals(Optional.of("Number"), manyTypes.apply(1.0));
+        assertEquals(Optional.of("null"), manyTypes.apply(null));
+        assertEquals(Optional.of("Object"), manyTypes.apply(new Object()));
+        // repeated lookups use cached case indices
+        assertEquals(Optional.of("Long"), manyTypes.apply(2L));
+        assertEquals(Optional.of("big Long"), manyTypes.apply(12L));
+    }
+
+    @Test
+    public void testTypeDispatchKeepsOrderOfOtherCases() {
+        AtomicInteger calls = new AtomicInteger();
+        LazyResultCaseMatcher<Object, String> m = LazyMatcher.<Object, String>lazyResultMatch()
+                .caseOf(Integer.class, i -> "Integer")
+                .caseOf(Long.class, l -> "Long")
+                .caseOf(() -> calls.incrementAndGet() > 1, o -> "supplied")
+                .caseOf(Short.class, s -> "Short")
+                .caseOf(Byte.class, b -> "Byte");
+        assertEquals(Optional.of("Integer"), m.apply(1));
+        assertEquals(0, calls.get());
+        assertEquals(Optional.of("Short"), m.apply((short) 1));
+        assertEquals(1, calls.get());
+        assertEquals(Optional.of("supplied"), m.apply((byte) 1));
+    }
+
+    @Test
+    public void testTypeDispatchSharedBetweenThreads() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        AtomicInteger failures = new AtomicInteger();
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (!manyTypes.apply((long) i).equals(Optional.of(i > 10 ? "big Long" : "Long"))) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failures.get());
+    }
+
+    ///
+
+    @Test
+    public void testGeneratedClass() {
+        LazyResultCaseMatcher<Object, String> m = manyTypes.evaluatedBy(CaseEvaluation.GENERATED_CLASS);
+        assertEquals(Optional.of("empty String"), m.apply(""));
+        assertEquals(Optional.of("CharSequence"), m.apply("foo"));
+        assertEquals(Optional.of("Integer"), m.apply(1));
+        assertEquals(Optional.of("Long"), m.apply(1L));
+        assertEquals(Optional.of("big Long"), m.apply(11L));
+        assertEquals(Optional.of("Number"), m.apply(1.0));
+        assertEquals(Optional.of("null"), m.apply(null));
+        assertEquals(Optional.of("Object"), m.apply(new Object()));
+    }
+
+    @Test
+    public void testGeneratedClassAllCaseKinds() {
+        assertAllCaseKinds(CaseEvaluation.GENERATED_CLASS);
+    }
+
+    @Test
+    public void testMethodHandlesAllCaseKinds() {
+        assertAllCaseKinds(CaseEvaluation.METHOD_HANDLES);
+    }
+
+    private static void assertAllCaseKinds(CaseEvaluation evaluation) {
+        AtomicInteger calls = new AtomicInteger();
+        LazyResultCaseMatcher<Object, String> m = LazyMatcher.<Object, String>lazyResultMatch()
+                .evaluatedBy(evaluation)
+                .caseOf(false, o -> "false")
+                .caseIs(false, () -> "false")
+                .caseOf(() -> calls.incrementAndGet() > 1, o -> "supplied")
+                .caseOf(Boolean.class, b -> b, b -> "true")
+                .caseOf((Object o) -> "foo".equals(o), o -> "foo")
+                .caseIs((Object o) -> "bar".equals(o), () -> "bar")
+                .caseObj(cast(String.class), String::toUpperCase)
+                .caseInt(isInteger, i -> "int " + i)
+                .caseLong(isLong, l -> "long " + l)
+                .caseDouble(isDouble, d -> "double " + d)
+                .caseOf(Boolean.class, b -> "false Boolean")
+                .caseIs(true, () -> "other");
+        assertEquals(Optional.of("true"), m.apply(true));
+        assertEquals(1, calls.get());
+        assertEquals(Optional.of("supplied"), m.apply(false));
+        assertEquals(2, calls.get());
+        calls.set(Integer.MIN_VALUE);
+        assertEquals(Optional.of("false Boolean"), m.apply(false));
+        assertEquals(Optional.of("foo"), m.apply("foo"));
+        assertEquals(Optional.of("bar"), m.apply("bar"));
+        assertEquals(Optional.of("BAZ"), m.apply("baz"));
+        assertEquals(Optional.of("int 1"), m.apply(1));
+        assertEquals(Optional.of("long 2"), m.apply(2L));
+        assertEquals(Optional.of("double 3.0"), m.apply(3.0));
+        assertEquals(Optional.of("other"), m.apply(new Object()));
+    }
+
+    @Test
+    public void testGeneratedClassConstantCaseEndsChain() {
+        LazyResultCaseMatcher<String, Integer> m = LazyMatcher.<String, Integer>lazyResultMatch()
+                .evaluatedBy(CaseEvaluation.GENERATED_CLASS)
+                .caseOf(String::isEmpty, s -> 0)
+                .caseOf(true, String::length)
+                .caseOf(s -> true, s -> -1);
+        assertEquals(Optional.of(0), m.apply(""));
+        assertEquals(Optional.of(3), m.apply("foo"));
+    }
+
+    @Test
+    public void testGeneratedClassNoMatchAndNullResult() {
+        LazyResultCaseMatcher<String, String> m = LazyResultMatcher.<String, String>caseOf(String::isEmpty, s -> null)
+                .evaluatedBy(CaseEvaluation.GENERATED_CLASS);
+        assertFalse(m.apply("").isPresent());
+        assertNull(m.otherwise("other").apply(""));
+        assertEquals("other", m.otherwise("other").apply("foo"));
+        assertEquals("other", m.orElse("other").apply(""));
+        assertFalse(m.evaluatedBy(CaseEvaluation.GENERATED_CLASS).apply("foo").isPresent());
+        assertFalse(LazyMatcher.<String, String>lazyResultMatch().evaluatedBy(CaseEvaluation.GENERATED_CLASS).apply("foo").isPresent());
+    }
+
+    @Test
+    public void testGeneratedClassTooManyCases() {
+        LazyResultCaseMatcher<Integer, Integer> m = LazyMatcher.<Integer, Integer>lazyResultMatch()
+                .evaluatedBy(CaseEvaluation.GENERATED_CLASS);
+        for (int i = 0; i < 2000; i++) {
+            final int value = i;
+            m = m.caseOf((Integer in) -> in == value, in -> in * 2);
+        }
+        assertEquals(Optional.of(10), m.apply(5));
+        assertEquals(Optional.of(3998), m.apply(1999));
+        assertFalse(m.apply(2000).isPresent());
+    }
+
+    @Test
+    public void testEvaluatedByKeepsCases() {
+        LazyResultCaseMatcher<Object, String> generated = typeMatcher.evaluatedBy(CaseEvaluation.GENERATED_CLASS);
+        LazyResultCaseMatcher<Object, String> table = generated.evaluatedBy(CaseEvaluation.TABLE);
+        for (Object o : new Object[]{"foo", 1, 42, 1L, new Object(), null}) {
+            assertEquals(typeMatcher.apply(o), generated.apply(o));
+            assertEquals(typeMatcher.apply(o), table.apply(o));
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testEvaluatedByNull() {
+        typeMatcher.evaluatedBy(null);
+    }
+
+    @Test
+    public void testMethodHandles() {
+        LazyResultCaseMatcher<Object, String> m = manyTypes.evaluatedBy(CaseEvaluation.METHOD_HANDLES);
+        for (Object o : new Object[]{"", "foo", 1, 1L, 11L, 1.0, null, new Object()}) {
+            assertEquals(manyTypes.apply(o), m.apply(o));
+        }
+        LazyResultCaseMatcher<String, Integer> constant = LazyMatcher.<String, Integer>lazyResultMatch()
+                .evaluatedBy(CaseEvaluation.METHOD_HANDLES)
+                .caseOf(String::isEmpty, s -> null)
+                .caseOf(true, String::length)
+                .caseOf(s -> true, s -> -1);
+        assertFalse(constant.apply("").isPresent());
+        assertEquals(Optional.of(3), constant.apply("foo"));
+    }
+
+    @Test
+    public void testMethodHandlesRethrowsException() {
+        LazyResultCaseMatcher<Object, Object> m = LazyMatcher.<Object, Object>lazyResultMatch()
+                .evaluatedBy(CaseEvaluation.METHOD_HANDLES)
+                .caseOf(Object.class, o -> {
+                    throw new IllegalArgumentException("foo");
+                });
+        try {
+            m.apply("");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("foo", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testToMethodHandle() throws Throwable {
+        MethodHandle handle = LazyMatcher.toMethodHandle(typeMatcher, "other");
+        assertEquals("String foo", (Object) handle.invokeExact((Object) "foo"));
+        assertEquals("big Integer", (Object) handle.invokeExact((Object) 42));
+        assertEquals("other", (Object) handle.invokeExact(new Object()));
+        assertEquals("other", (Object) handle.invokeExact((Object) null));
+        MethodHandle empty = LazyMatcher.toMethodHandle(LazyMatcher.lazyResultMatch(), null);
+        assertNull((Object) empty.invokeExact((Object) "foo"));
+    }
+
+    @Test
+    public void testToMethodHandleStringCases() throws Throwable {
+        MethodHandle handle = LazyMatcher.toMethodHandle(LazyMatcher.<String, String>lazyResultMatch()
+                .caseIs(eq("GET"), () -> "get")
+                .caseIs(eq("PUT"), () -> "put")
+                .caseIs(startsWith("PO"), () -> "post")
+                .caseIs(eqIgnoreCase("delete"), () -> "delete")
+                .caseOf(String::isEmpty, s -> "empty"), "other");
+        assertEquals("put", (Object) handle.invokeExact((Object) "PUT"));
+        assertEquals("post", (Object) handle.invokeExact((Object) "POST"));
+        assertEquals("delete", (Object) handle.invokeExact((Object) "Delete"));
+        assertEquals("empty", (Object) handle.invokeExact((Object) ""));
+        assertEquals("other", (Object) handle.invokeExact((Object) "get"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testToMethodHandleNull() {
+        LazyMatcher.toMethodHandle(null, "");
+    }
+
+    ///
+
+    @Test
+    public void testInstrumentedCountsHits() {
+        CaseStatistics stats = new CaseStatistics(1);
+        LazyResultCaseMatcher<Object, String> m = typeMatcher.instrumented(stats);
+        assertEquals(Optional.of("String foo"), m.apply("foo"));
+        assertEquals(Optional.of("big Integer"), m.apply(42));
+        assertEquals(Optional.of("Integer"), m.apply(1));
+        assertEquals(Optional.of("Integer"), m.apply(2));
+        assertFalse(m.apply(new Object()).isPresent());
+        assertEquals("other", m.otherwise("other").apply(new Object()));
+        CaseStatistics.Snapshot snapshot = stats.snapshot();
+        assertEquals(4, snapshot.caseCount());
+        assertEquals(1, snapshot.hits(0));
+        assertEquals(1, snapshot.hits(1));
+        assertEquals(2, snapshot.hits(2));
+        assertEquals(0, snapshot.hits(3));
+        assertEquals(2, snapshot.noMatches());
+        assertEquals(6, snapshot.total());
+        assertEquals(1, snapshot.matchLatency(0).count());
+        // case 0 was evaluated for all inputs but "foo"
+        assertEquals(5, snapshot.missLatency(0).count());
+        assertEquals(2, snapshot.missLatency(3).count());
+    }
+
+    @Test
+    public void testInstrumentedKeepsStatisticsForNewCases() {
+        CaseStatistics stats = new CaseStatistics(1);
+        LazyResultCaseMatcher<Object, String> m = typeMatcher.instrumented(stats)
+                .caseOf(Object.class, o -> "Object")
+                .evaluatedBy(CaseEvaluation.GENERATED_CLASS);
+        assertEquals(Optional.of("Object"), m.apply(new Object()));
+        assertEquals(Optional.of("Number"), m.apply(1L));
+        CaseStatistics.Snapshot snapshot = stats.snapshot();
+        assertEquals(5, snapshot.caseCount());
+        assertEquals(1, snapshot.hits(3));
+        assertEquals(1, snapshot.hits(4));
+        assertEquals(0, snapshot.noMatches());
+        // the matcher the instrumented one was created from does not record
+        typeMatcher.apply(1);
+        assertEquals(2, stats.snapshot().total());
+        stats.reset();
+        assertEquals(0, stats.snapshot().total());
+        assertEquals(0, stats.snapshot().matchLatency(4).count());
+    }
+
+    @Test
+    public void testInstrumentedSharedBetweenThreads() throws InterruptedException {
+        CaseStatistics stats = new CaseStatistics();
+        LazyResultCaseMatcher<Object, String> m = manyTypes.instrumented(stats);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    m.apply((long) i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        CaseStatistics.Snapshot snapshot = stats.snapshot();
+        assertEquals(4 * 11, snapshot.hits(3));
+        assertEquals(4 * (10_000 - 11), snapshot.hits(2));
+        assertEquals(40_000, snapshot.total());
+    }
+
+    @Test
+    public void testHistogram() {
+        CaseStatistics stats = new CaseStatistics(1);
+        LazyResultCaseMatcher<String, Integer> m = LazyResultMatcher.<String, Integer>caseOf(String::isEmpty, s -> 0)
+                .instrumented(stats);
+        for (int i = 0; i < 100; i++) {
+            m.apply("");
+        }
+        CaseStatistics.Histogram histogram = stats.snapshot().matchLatency(0);
+        assertEquals(100, histogram.count());
+        long counted = 0;
+        for (int b = 0; b < histogram.bucketCount(); b++) {
+            counted += histogram.count(b);
+        }
+        assertEquals(100, counted);
+        assertTrue(histogram.percentile(50) <= histogram.percentile(99));
+        assertEquals(Long.MAX_VALUE, histogram.upperBound(histogram.bucketCount() - 1));
+        assertEquals(0, histogram.upperBound(0));
+        assertEquals(1, histogram.upperBound(1));
+        assertEquals(3, histogram.upperBound(2));
+        assertEquals(0, stats.snapshot().missLatency(0).percentile(99));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHistogramInvalidPercentile() {
+        CaseStatistics stats = new CaseStatistics(1);
+        LazyResultMatcher.<String, Integer>caseOf(String::isEmpty, s -> 0).instrumented(stats).apply("");
+        stats.snapshot().matchLatency(0).percentile(101);
+    }
+
+    @Test
+    public void testInstrumentedSampledTiming() {
+        CaseStatistics stats = new CaseStatistics();
+        LazyResultCaseMatcher<String, Integer> m = LazyResultMatcher.<String, Integer>caseOf(String::isEmpty, s -> 0)
+                .caseOf(s -> true, String::length)
+                .instrumented(stats);
+        for (int i = 0; i < 10_000; i++) {
+            m.apply(i % 2 == 0 ? "" : "foo");
+        }
+        CaseStatistics.Snapshot snapshot = stats.snapshot();
+        // hits are counted for every input, latencies only for a sample
+        assertEquals(5_000, snapshot.hits(0));
+        assertEquals(5_000, snapshot.hits(1));
+        long timed = snapshot.matchLatency(0).count() + snapshot.matchLatency(1).count();
+        assertTrue(timed > 0 && timed < 10_000);
+        assertEquals(snapshot.matchLatency(1).count(), snapshot.missLatency(0).count());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStatisticsInvalidTimingRate() {
+        new CaseStatistics(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testInstrumentedNull() {
+        typeMatcher.instrumented(null);
+    }
+
+    ///
+
+    @Test
+    public void testDisjointReordersByFrequency() {
+        final AtomicInteger[] calls = new AtomicInteger[20];
+        LazyResultCaseMatcher<Integer, Integer> m = LazyMatcher.lazyResultMatch();
+        for (int i = 0; i < calls.length; i++) {
+            final int value = i;
+            final AtomicInteger counter = calls[i] = new AtomicInteger();
+            m = m.caseOf((Integer in) -> {
+                counter.incrementAndGet();
+                return in == value;
+            }, in -> in * 2);
+        }
+        m = m.disjoint().caseOf((Integer in) -> true, in -> -1);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(Optional.of(26), m.apply(13));
+        }
+        calls[0].set(0);
+        calls[13].set(0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Optional.of(26), m.apply(13));
+        }
+        // most frequent case is tested first
+        assertEquals(0, calls[0].get());
+        assertEquals(100, calls[13].get());
+        // other cases still match, the case after the disjoint cases is still tested last
+        assertEquals(Optional.of(0), m.apply(0));
+        assertEquals(Optional.of(38), m.apply(19));
+        assertEquals(Optional.of(-1), m.apply(20));
+    }
+
+    @Test
+    public void testDisjointSharedBetweenThreads() throws InterruptedException {
+        final AtomicInteger firstCaseCalls = new AtomicInteger();
+        final LazyResultCaseMatcher<Integer, Integer> m = LazyMatcher.<Integer, Integer>lazyResultMatch()
+                .caseOf((Integer in) -> firstCaseCalls.incrementAndGet() > 0 && in == 0, in -> 0)
+                .caseOf((Integer in) -> in == 1, in -> 1)
+                .caseOf((Integer in) -> in == 2, in -> 2)
+                .disjoint();
+        Thread[] threads = new Thread[4];
+        AtomicInteger failures = new AtomicInteger();
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    final int in = i % 10 == 0 ? 1 : 2;
+                    if (!m.apply(in).equals(Optional.of(in))) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failures.get());
+        // the case never matching was moved behind the cases matching the inputs
+        firstCaseCalls.set(0);
+        assertEquals(Optional.of(2), m.apply(2));
+        assertEquals(Optional.of(1), m.apply(1));
+        assertEquals(0, firstCaseCalls.get());
+        assertEquals(Optional.of(0), m.apply(0));
+    }
+
+    @Test
+    public void testDisjointWithStringCases() {
+        final AtomicInteger xChecks = new AtomicInteger();
+        LazyResultCaseMatcher<String, String> m = LazyMatcher.<String, String>lazyResultMatch()
+                .caseIs(eq("a"), () -> "a")
+                .caseIs(eq("b"), () -> "b")
+                .caseIs(eq("c"), () -> "c")
+                .caseIs(eq("d"), () -> "d")
+                .disjoint()
+                .caseIs(s -> xChecks.incrementAndGet() > 0 && s.equals("x"), () -> "x")
+                .caseIs(s -> s.equals("y"), () -> "y")
+                .caseIs(eq("e"), () -> "e")
+                .caseIs(eq("f"), () -> "f")
+                .caseIs(eq("g"), () -> "g")
+                .caseIs(eq("h"), () -> "h")
+                .caseIs(s -> s.equals("z"), () -> "z")
+                .disjoint()
+                .caseOf(s -> true, s -> "other " + s);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(Optional.of("z"), m.apply("z"));
+        }
+        xChecks.set(0);
+        assertEquals(Optional.of("z"), m.apply("z"));
+        assertEquals(0, xChecks.get());
+        for (String s : new String[]{"a", "b", "c", "d", "e", "f", "g", "h", "x", "y"}) {
+            assertEquals(Optional.of(s), m.apply(s));
+        }
+        assertEquals(Optional.of("other i"), m.apply("i"));
+    }
+
+    @Test
+    public void testNotDisjointKeepsOrder() {
+        LazyResultCaseMatcher<Integer, String> m = LazyMatcher.<Integer, String>lazyResultMatch()
+                .caseOf((Integer i) -> i == 0, i -> "zero")
+                .disjoint()
+                .caseOf((Integer i) -> i < 10, i -> "small")
+                .caseOf((Integer i) -> i < 100, i -> "medium")
+                .caseOf((Integer i) -> i == 1, i -> "one");
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(Optional.of("medium"), m.apply(50));
+        }
+        assertEquals(Optional.of("zero"), m.apply(0));
+        assertEquals(Optional.of("small"), m.apply(1));
+        assertEquals(Optional.of("medium"), m.apply(99));
+    }
+
+    @Test
+    public void testDistinctFinalClassesReordered() {
+        AtomicInteger stringChecks = new AtomicInteger();
+        LazyResultCaseMatcher<Object, String> m = LazyMatcher.<Object, String>lazyResultMatch()
+                .caseOf(String.class, s -> stringChecks.incrementAndGet() > 0, s -> "String")
+                .caseOf(Integer.class, i -> "Integer")
+                .caseOf(Long.class, l -> "Long")
+                .caseOf(Number.class, n -> "Number");
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(Optional.of("Long"), m.apply(1L));
+        }
+        assertEquals(Optional.of("String"), m.apply("foo"));
+        assertEquals(Optional.of("Integer"), m.apply(1));
+        // Number is not final, so it stays after the final types
+        assertEquals(Optional.of("Number"), m.apply(1.0));
+        assertEquals(1, stringChecks.get());
+    }
+
+    ///
+
+    private static final LazyResultCaseMatcher<String, String> logLevels = LazyMatcher.<String, String>lazyResultMatch()
+            .caseObj(matching("ERROR .*"), s -> "error")
+            .caseObj(matching("WARN(ING)? .*"), s -> "warn")
+            .caseObj(matching("\\d{4}-\\d{2}-\\d{2} .*"), s -> "dated")
+            .caseObj(matching("[A-Z]+ .*"), s -> "other level")
+            .caseIs(matches(".*timeout.*"), () -> "timeout");
+
+    @Test
+    public void testRegexCases() {
+        assertEquals(Optional.of("error"), logLevels.apply("ERROR disk full"));
+        assertEquals(Optional.of("warn"), logLevels.apply("WARN low memory"));
+        assertEquals(Optional.of("warn"), logLevels.apply("WARNING low memory"));
+        assertEquals(Optional.of("dated"), logLevels.apply("2016-01-31 started"));
+        assertEquals(Optional.of("other level"), logLevels.apply("INFO started"));
+        assertEquals(Optional.of("timeout"), logLevels.apply("connection timeout"));
+        assertFalse(logLevels.apply("info started").isPresent());
+        assertFalse(logLevels.apply("").isPresent());
+        assertFalse(logLevels.apply(null).isPresent());
+    }
+
+    @Test
+    public void testRegexCasesFirstDefinedWins() {
+        // overlapping expressions, the automaton has to report the lowest case index
+        LazyResultCaseMatcher<String, Integer> m = LazyMatcher.<String, Integer>lazyResultMatch()
+                .caseObj(matching("a+"), s -> 0)
+                .caseObj(matching("a*b"), s -> 1)
+                .caseObj(matching("a.*"), s -> 2)
+                .caseObj(matching(".*"), s -> 3);
+        assertEquals(Optional.of(0), m.apply("aaa"));
+        assertEquals(Optional.of(1), m.apply("aab"));
+        assertEquals(Optional.of(1), m.apply("b"));
+        assertEquals(Optional.of(2), m.apply("abc"));
+        assertEquals(Optional.of(3), m.apply("xyz"));
+        assertEquals(Optional.of(3), m.apply(""));
+        assertFalse(m.apply("x\ny").isPresent());
+    }
+
+    @Test
+    public void testRegexCasesInterruptedByOtherCase() {
+        AtomicInteger calls = new AtomicInteger();
+        LazyResultCaseMatcher<String, String> m = LazyMatcher.<String, String>lazyResultMatch()
+                .caseObj(matching("a"), s -> "a")
+                .caseObj(matching("b"), s -> "b")
+                .caseOf(s -> calls.incrementAndGet() > 0 && s.startsWith("c"), s -> "predicate")
+                .caseObj(matching("c+"), s -> "c")
+                .caseObj(matching("d"), s -> "d")
+                .caseObj(matching("e"), s -> "e")
+                .caseObj(matching("f"), s -> "f");
+        assertEquals(Optional.of("a"), m.apply("a"));
+        assertEquals(0, calls.get());
+        assertEquals(Optional.of("predicate"), m.apply("cc"));
+        assertEquals(Optional.of("f"), m.apply("f"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testRegexCasesUnsupportedConstructs() {
+        // expressions the automaton cannot compile are matched by java.util.regex, keeping the order of the cases
+        LazyResultCaseMatcher<String, String> m = LazyMatcher.<String, String>lazyResultMatch()
+                .caseObj(matching("(a+)\\1"), s -> "back reference")
+                .caseObj(matching("a+"), s -> "a")
+                .caseObj(matching("foo", Pattern.CASE_INSENSITIVE), s -> "foo")
+                .caseObj(matching("(?=b)\\w+"), s -> "look-ahead")
+                .caseObj(matching("\\w+"), s -> "word");
+        assertEquals(Optional.of("back reference"), m.apply("aaaa"));
+        assertEquals(Optional.of("a"), m.apply("aaa"));
+        assertEquals(Optional.of("foo"), m.apply("FoO"));
+        assertEquals(Optional.of("look-ahead"), m.apply("bar"));
+        assertEquals(Optional.of("word"), m.apply("xyz"));
+        assertFalse(m.apply("x y").isPresent());
+    }
+
+    @Test
+    public void testRegexCasesUserImplementations() {
+        // user implementations may override the matching, so only the pattern of the helpers is compiled
+        PatternPredicate never = new PatternPredicate() {
+            @Override
+            public Pattern pattern() {
+                return Pattern.compile("a");
+            }
+
+            @Override
+            public boolean test(String s) {
+                return false;
+            }
+        };
+        PatternMapper none = new PatternMapper() {
+            @Override
+            public Pattern pattern() {
+                return Pattern.compile("b");
+            }
+
+            @Override
+            public String probe(String s) {
+                return null;
+            }
+
+            @Override
+            public Optional<String> apply(String s) {
+                return Optional.empty();
+            }
+        };
+        LazyResultCaseMatcher<String, String> m = LazyMatcher.<String, String>lazyResultMatch()
+                .caseIs(never, () -> "never")
+                .caseObj(none, s -> "none")
+                .caseObj(matching("a|b"), s -> "a or b")
+                .caseObj(matching("c"), s -> "c")
+                .caseIs(matches("d"), () -> "d");
+        assertEquals(Optional.of("a or b"), m.apply("a"));
+        assertEquals(Optional.of("a or b"), m.apply("b"));
+        assertEquals(Optional.of("c"), m.apply("c"));
+        assertEquals(Optional.of("d"), m.apply("d"));
+        assertFalse(m.apply("e").isPresent());
+    }
+
+    @Test
+    public void testRegexCasesMatchLikePattern() {
+        String[] regExes = {
+                "abc", "a*b+c?", "(ab|cd)*", "a{2,3}", "a{2}b{1,}", "x{0,2}?y", "[a-c]+", "[^a-c]*", "[-a]b", "[a-]c",
+                "\\d+\\.\\d*", "\\D\\s\\S", "\\w\\W", ".", "..", "a.*", "^ab$", "ab$|^c", "a\\$", "\\Qa+b\\E*",
+                "(?:a|b)(?<name>c|)", "\\x61\\u0062\\0143", "\\t|\\n|\\r", "[\\d\\s]+", "(a*)*b", "a++", "a*+b",
+                "(?i)ab", "\\bab", "\\p{Lower}+", "(a)\\1", "a(?!b).", "[a-z&&[^b]]+", "\\x{1F600}", "[\\u00e0-\\u00ff]",
+                "\\u00e4.\\u2028?", "(a|ab)(c|bcd)(d*)", "[\\[\\]]+", "a|", "|b", "()", "a{0}", "[.]", "\\.", "}", "]",
+        };
+        LazyResultCaseMatcher<String, Integer> m = LazyMatcher.<String, Integer>lazyResultMatch();
+        Pattern[] patterns = new Pattern[regExes.length];
+        for (int i = 0; i < regExes.length; i++) {
+            int index = i;
+            m = m.caseObj(matching(regExes[i]), s -> index);
+            patterns[i] = Pattern.compile(regExes[i]);
+        }
+        char[] alphabet = {'a', 'b', 'c', 'd', 'x', 'y', 'A', '1', '.', '-', '$', '+', ' ', '\t', '\n', '\r', '[', ']',
+                '}', '\u00e4', '\u2028', '\uD83D', '\uDE00'};
+        Random random = new Random(42);
+        for (int run = 0; run < 20_000; run++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(6);
+            for (int i = 0; i < length; i++) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String input = sb.toString();
+            Optional<Integer> expected = Optional.empty();
+            for (int i = 0; i < patterns.length; i++) {
+                if (patterns[i].matcher(input).matches()) {
+                    expected = Optional.of(i);
+                    break;
+                }
+            }
+            assertEquals(input, expected, m.apply(input));
+        }
+    }
+
+    @Test
+    public void testRegexCasesSharedBetweenThreads() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        AtomicInteger failures = new AtomicInteger();
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    String expected = (i % 3 == 0) ? "dated" : "other level";
+                    String line = (i % 3 == 0) ? "2016-01-" + (10 + i % 20) + " line " + i : "LEVEL line " + i;
+                    if (!logLevels.apply(line).equals(Optional.of(expected))) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failures.get());
+    }
+
+    @Test
+    public void testPrefixCases() {
+        LazyResultCaseMatcher<String, String> router = LazyMatcher.<String, String>lazyResultMatch()
+                .caseIs(startsWith("/api/v1/"), () -> "v1")
+                .caseIs(startsWith("/api/"), () -> "api")
+                .caseIs(startsWithAny("/static/", "/assets/", "/favicon"), () -> "static")
+                .caseIs(startsWith("/api/v2/"), () -> "unreachable")
+                .caseOf(startsWith("/"), s -> "page " + s);
+        assertEquals(Optional.of("v1"), router.apply("/api/v1/users"));
+        assertEquals(Optional.of("api"), router.apply("/api/v2/users"));
+        assertEquals(Optional.of("api"), router.apply("/api/"));
+        assertEquals(Optional.of("static"), router.apply("/assets/logo.png"));
+        assertEquals(Optional.of("static"), router.apply("/favicon.ico"));
+        assertEquals(Optional.of("page /api"), router.apply("/api"));
+        assertEquals(Optional.of("page /"), router.apply("/"));
+        assertFalse(router.apply("api").isPresent());
+        assertFalse(router.apply("").isPresent());
+        assertFalse(router.apply(null).isPresent());
+    }
+
+    @Test
+    public void testPrefixCasesEmptyPrefix() {
+        LazyResultCaseMatcher<String, Integer> m = LazyMatcher.<String, Integer>lazyResultMatch()
+                .caseIs(startsWith("ab"), () -> 0)
+                .caseIs(startsWith(""), () -> 1)
+                .caseIs(startsWith("a"), () -> 2)
+                .caseIs(startsWithAny(), () -> 3);
+        assertEquals(Optional.of(0), m.apply("abc"));
+        assertEquals(Optional.of(1), m.apply("a"));
+        assertEquals(Optional.of(1), m.apply(""));
+    }
+
+    @Test
+    public void testPrefixCasesUserImplementation() {
+        // a user implementation may not check its prefixes, so it is evaluated as a plain predicate
+        PrefixPredicate exact = new PrefixPredicate() {
+            @Override
+            public String[] prefixes() {
+                return new String[]{"/api/"};
+            }
+
+            @Override
+            public boolean test(String s) {
+                return "/api/".equals(s);
+            }
+        };
+        LazyResultCaseMatcher<String, String> m = LazyMatcher.<String, String>lazyResultMatch()
+                .caseIs(exact, () -> "exact")
+                .caseIs(startsWith("/api/v1/"), () -> "v1")
+                .caseIs(startsWith("/api/"), () -> "api")
+                .caseIs(startsWithAny("/static/", "/assets/"), () -> "static");
+        assertEquals(Optional.of("exact"), m.apply("/api/"));
+        assertEquals(Optional.of("v1"), m.apply("/api/v1/users"));
+        assertEquals(Optional.of("api"), m.apply("/api/v2/users"));
+        assertEquals(Optional.of("static"), m.apply("/assets/logo.png"));
+        assertFalse(m.apply("/").isPresent());
+    }
+
+    @Test
+    public void testPrefixAndRegexCases() {
+        // mixed sequences are compiled into the automaton
+        LazyResultCaseMatcher<String, String> m = LazyMatcher.<String, String>lazyResultMatch()
+                .caseIs(startsWith("GET /"), () -> "get")
+                .caseObj(matching("POST /\\w+"), s -> "post")
+                .caseIs(startsWithAny("POST /", "PUT /"), () -> "write")
+                .caseIs(matches("[A-Z]+ .*"), () -> "other")
+                .caseIs(startsWith("\uD83D"), () -> "emoji");
+        assertEquals(Optional.of("get"), m.apply("GET /index\nmore"));
+        assertEquals(Optional.of("post"), m.apply("POST /users"));
+        assertEquals(Optional.of("write"), m.apply("POST /users/1"));
+        assertEquals(Optional.of("write"), m.apply("PUT /users/1"));
+        assertEquals(Optional.of("other"), m.apply("DELETE /users/1"));
+        assertEquals(Optional.of("emoji"), m.apply("\uD83D\uDE00"));
+        assertEquals(Optional.of("get"), m.apply("GET /\uD83D\uDE00"));
+        assertFalse(m.apply("get /").isPresent());
+    }
+
+    @Test
+    public void testPrefixCasesMatchLikeStartsWith() {
+        Random random = new Random(7);
+        String[][] prefixes = new String[40][];
+        LazyResultCaseMatcher<String, Integer> m = LazyMatcher.<String, Integer>lazyResultMatch();
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = new String[1 + random.nextInt(3)];
+            for (int p = 0; p < prefixes[i].length; p++) {
+                prefixes[i][p] = randomString(random, 1 + random.nextInt(4));
+            }
+            int index = i;
+            m = m.caseIs(startsWithAny(prefixes[i]), () -> index);
+        }
+        for (int run = 0; run < 20_000; run++) {
+            String input = randomString(random, random.nextInt(7));
+            Optional<Integer> expected = Optional.empty();
+            search:
+            for (int i = 0; i < prefixes.length; i++) {
+                for (String prefix : prefixes[i]) {
+                    if (input.startsWith(prefix)) {
+                        expected = Optional.of(i);
+                        break search;
+                    }
+                }
+            }
+            assertEquals(input, expected, m.apply(input));
+        }
+    }
+
+    @Test
+    public void testEqualityCases() {
+        assertEqualityCases(CaseEvaluation.TABLE);
+    }
+
+    @Test
+    public void testGeneratedClassEqualityCases() {
+        assertEqualityCases(CaseEvaluation.GENERATED_CLASS);
+    }
+
+    @Test
+    public void testMethodHandlesEqualityCases() {
+        assertEqualityCases(CaseEvaluation.METHOD_HANDLES);
+    }
+
+    @Test
+    public void testEqualityCasesUserImplementations() {
+        // user implementations may override the comparison, so only the values of the helpers are hashed
+        EqualsPredicate<String> never = new EqualsPredicate<String>() {
+            @Override
+            public String value() {
+                return "GET";
+            }
+
+            @Override
+            public boolean test(String s) {
+                return false;
+            }
+        };
+        EqualsIgnoreCasePredicate exactCase = new EqualsIgnoreCasePredicate() {
+            @Override
+            public String value() {
+                return "put";
+            }
+
+            @Override
+            public boolean test(String s) {
+                return "put".equals(s);
+            }
+        };
+        LazyResultCaseMatcher<String, String> m = LazyMatcher.<String, String>lazyResultMatch()
+                .caseIs(never, () -> "never")
+                .caseIs(exactCase, () -> "exact case")
+                .caseIs(eq("GET"), () -> "get")
+                .caseIs(eqIgnoreCase("put"), () -> "put")
+                .caseIs(eq("POST"), () -> "post");
+        assertEquals(Optional.of("get"), m.apply("GET"));
+        assertEquals(Optional.of("exact case"), m.apply("put"));
+        assertEquals(Optional.of("put"), m.apply("PUT"));
+        assertEquals(Optional.of("post"), m.apply("POST"));
+        assertFalse(m.apply("DELETE").isPresent());
+    }
+
+    private static void assertEqualityCases(CaseEvaluation evaluation) {
+        LazyResultCaseMatcher<String, String> commands = LazyMatcher.<String, String>lazyResultMatch()
+                .evaluatedBy(evaluation)
+                .caseIs(eq("GET"), () -> "get")
+                .caseIs(eq("PUT"), () -> "put")
+                .caseIs(eqIgnoreCase("post"), () -> "post")
+                .caseIs(eqIgnoreCase("put"), () -> "put ignoring case")
+                .caseIs(eq("POST"), () -> "unreachable")
+                .caseOf(eq("DELETE"), s -> "delete " + s);
+        assertEquals(Optional.of("get"), commands.apply("GET"));
+        assertEquals(Optional.of("put"), commands.apply("PUT"));
+        assertEquals(Optional.of("put ignoring case"), commands.apply("Put"));
+        assertEquals(Optional.of("post"), commands.apply("POST"));
+        assertEquals(Optional.of("post"), commands.apply("pOsT"));
+        assertEquals(Optional.of("delete DELETE"), commands.apply("DELETE"));
+        assertFalse(commands.apply("get").isPresent());
+        assertFalse(commands.apply("delete").isPresent());
+        assertFalse(commands.apply("").isPresent());
+        assertFalse(commands.apply(null).isPresent());
+    }
+
+    @Test
+    public void testEqualityCasesNull() {
+        LazyResultCaseMatcher<String, Integer> m = LazyMatcher.<String, Integer>lazyResultMatch()
+                .caseIs(eq("a"), () -> 0)
+                .caseIs(eq("b"), () -> 1)
+                .caseIs(eq(null), () -> 2)
+                .caseIs(eqIgnoreCase("c"), () -> 3)
+                .caseIs(eqIgnoreCase(null), () -> 4)
+                .caseIs(eq("d"), () -> 5);
+        assertEquals(Optional.of(2), m.apply(null));
+        assertEquals(Optional.of(3), m.apply("C"));
+        assertEquals(Optional.of(5), m.apply("d"));
+    }
+
+    @Test
+    public void testEqualityCasesOnObjects() {
+        LazyResultCaseMatcher<Object, Integer> m = LazyMatcher.<Object, Integer>lazyResultMatch()
+                .caseIs(eq("one"), () -> 1)
+                .caseIs(eq("two"), () -> 2)
+                .caseIs(eq("three"), () -> 3)
+                .caseIs(eq("four"), () -> 4)
+                .caseIs(eq(5), () -> 5);
+        assertEquals(Optional.of(3), m.apply("three"));
+        assertEquals(Optional.of(5), m.apply(5));
+        assertFalse(m.apply(new StringBuilder("one")).isPresent());
+        assertFalse(m.apply(4).isPresent());
+        assertFalse(m.apply(null).isPresent());
+    }
+
+    @Test
+    public void testEqualityCasesIgnoreCaseSpecialCharacters() {
+        // kelvin sign, long s, dotted capital I and a surrogate pair
+        String[] values = {"k", "\u212a", "s", "\u017f", "i", "\u0130", "\ud801\udc00", "\ud801\udc28", "\u00df"};
+        LazyResultCaseMatcher<String, Integer> hashed = LazyMatcher.<String, Integer>lazyResultMatch();
+        LazyResultCaseMatcher<String, Integer> automaton = LazyMatcher.<String, Integer>lazyResultMatch()
+                .caseIs(matches("x+"), () -> -1);
+        for (int i = 0; i < values.length; i++) {
+            int index = i;
+            hashed = hashed.caseIs(eqIgnoreCase(values[i]), () -> index);
+            automaton = automaton.caseIs(eqIgnoreCase(values[i]), () -> index);
+        }
+        for (String input : new String[]{"K", "S", "I", "SS", "\u0131", "\u1e9e", "\ud801\udc00", "\ud801\udc28", "x"}) {
+            Optional<Integer> expected = Optional.empty();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].equalsIgnoreCase(input)) {
+                    expected = Optional.of(i);
+                    break;
+                }
+            }
+            assertEquals(input, expected, hashed.apply(input));
+            assertEquals(input, input.equals("x") ? Optional.of(-1) : expected, automaton.apply(input));
+        }
+    }
+
+    @Test
+    public void testEqualityCasesMatchLikeEquals() {
+        Random random = new Random(11);
+        String[] values = new String[60];
+        boolean[] ignoreCase = new boolean[values.length];
+        LazyResultCaseMatcher<String, Integer> hashed = LazyMatcher.<String, Integer>lazyResultMatch();
+        LazyResultCaseMatcher<String, Integer> mixed = LazyMatcher.<String, Integer>lazyResultMatch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = randomMixedCaseString(random, random.nextInt(4));
+            ignoreCase[i] = random.nextBoolean();
+            int index = i;
+            hashed = hashed.caseIs(ignoreCase[i] ? eqIgnoreCase(values[i]) : eq(values[i]), () -> index);
+            // a prefix case in every tenth position forces the cases into an automaton
+            mixed = mixed.caseIs(i % 10 == 9 ? startsWith(values[i]) : ignoreCase[i] ? eqIgnoreCase(values[i]) : eq(values[i]), () -> index);
+        }
+        for (int run = 0; run < 20_000; run++) {
+            String input = randomMixedCaseString(random, random.nextInt(5));
+            Optional<Integer> expected = Optional.empty();
+            Optional<Integer> expectedMixed = Optional.empty();
+            for (int i = values.length - 1; i >= 0; i--) {
+                boolean equal = ignoreCase[i] ? values[i].equalsIgnoreCase(input) : values[i].equals(input);
+                if (equal) {
+                    expected = Optional.of(i);
+                }
+                if (i % 10 == 9 ? input.startsWith(values[i]) : equal) {
+                    expectedMixed = Optional.of(i);
+                }
+            }
+            assertEquals(input, expected, hashed.apply(input));
+            assertEquals(input, expectedMixed, mixed.apply(input));
+        }
+    }
+
+    private static String randomMixedCaseString(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append("aAkK\u212a".charAt(random.nextInt(5)));
+        }
+        return sb.toString();
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(3)));
+        }
+        return sb.toString();
+    }
+}
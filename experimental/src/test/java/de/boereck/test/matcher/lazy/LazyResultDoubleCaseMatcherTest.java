@@ -0,0 +1,382 @@
+package de.boereck.test.matcher.lazy;
+
+import static de.boereck.matcher.helpers.DoubleMatchHelpers.*;
+import static de.boereck.matcher.lazy.LazyMatcher.lazyResultDoubleMatch;
+import static org.junit.Assert.*;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.function.DoublePredicate;
+
+import de.boereck.matcher.helpers.DoubleRange;
+import de.boereck.matcher.lazy.DoubleMatchingFunction;
+import de.boereck.matcher.lazy.LazyMatcher;
+import de.boereck.matcher.lazy.LazyResultDoubleCaseMatcher;
+import org.junit.Test;
+
+public class LazyResultDoubleCaseMatcherTest {
+
+    @Test
+    public void testNoCases() {
+        LazyResultDoubleCaseMatcher<String> m = lazyResultDoubleMatch();
+        assertFalse(m.apply(1.0).isPresent());
+        assertEquals("none", m.otherwise("none").apply(1.0));
+    }
+
+    @Test
+    public void testFewRanges() {
+        LazyResultDoubleCaseMatcher<String> m = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(lt(0.0), d -> "negative")
+                .caseOf(inClosedRange(0.0, 1.0), d -> "unit");
+        assertEquals(Optional.of("negative"), m.apply(-0.5));
+        assertEquals(Optional.of("unit"), m.apply(1.0));
+        assertFalse(m.apply(1.5).isPresent());
+    }
+
+    @Test
+    public void testThresholdChain() {
+        final DoubleMatchingFunction<String> f = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(lt(0.0), d -> "negative")
+                .caseOf(lt(10.0), d -> "small")
+                .caseOf(lt(100.0), d -> "medium")
+                .caseOf(lt(1000.0), d -> "large")
+                .caseOf(gt(1_000_000.0), d -> "huge")
+                .otherwise("none");
+        assertEquals("negative", f.apply(Double.NEGATIVE_INFINITY));
+        assertEquals("negative", f.apply(-Double.MIN_VALUE));
+        assertEquals("small", f.apply(0.0));
+        assertEquals("small", f.apply(-0.0));
+        assertEquals("small", f.apply(Math.nextDown(10.0)));
+        assertEquals("medium", f.apply(10.0));
+        assertEquals("large", f.apply(999.999));
+        assertEquals("none", f.apply(1000.0));
+        assertEquals("none", f.apply(1_000_000.0));
+        assertEquals("huge", f.apply(Math.nextUp(1_000_000.0)));
+        assertEquals("huge", f.apply(Double.POSITIVE_INFINITY));
+        assertEquals("none", f.apply(Double.NaN));
+    }
+
+    @Test
+    public void testSignedZero() {
+        final DoubleMatchingFunction<String> f = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(inClosedRange(0.0, 0.0), d -> "zero")
+                .caseOf(inClosedRange(-1.0, -0.5), d -> "a")
+                .caseOf(inClosedRange(0.5, 1.0), d -> "b")
+                .caseOf(inClosedRange(-0.0, 2.0), d -> "c")
+                .otherwise("none");
+        assertEquals("zero", f.apply(0.0));
+        assertEquals("zero", f.apply(-0.0));
+        assertEquals("none", f.apply(-Double.MIN_VALUE));
+        assertEquals("c", f.apply(Double.MIN_VALUE));
+        assertEquals("a", f.apply(-0.75));
+        assertEquals("b", f.apply(0.75));
+        assertEquals("c", f.apply(1.5));
+    }
+
+    @Test
+    public void testNaN() {
+        final DoubleMatchingFunction<String> f = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(lt(0.0), d -> "negative")
+                .caseIs(isNaN, () -> "nan")
+                .caseOf(inClosedRange(0.0, 1.0), d -> "unit")
+                .caseOf(isNaN, d -> "second nan")
+                .caseOf(gt(1.0), d -> "positive")
+                .otherwise("none");
+        assertEquals("nan", f.apply(Double.NaN));
+        assertEquals("nan", f.apply(Double.longBitsToDouble(0xFFF8_0000_0000_0001L)));
+        assertEquals("negative", f.apply(Double.NEGATIVE_INFINITY));
+        assertEquals("unit", f.apply(0.5));
+        assertEquals("positive", f.apply(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void testNaNOnlyMatchedByIsNaN() {
+        final DoubleMatchingFunction<String> f = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(notNaN, d -> "number")
+                .caseOf(finite, d -> "finite")
+                .caseOf(lt(Double.NEGATIVE_INFINITY), d -> "below -inf")
+                .caseOf(gt(Double.POSITIVE_INFINITY), d -> "above inf")
+                .otherwise("none");
+        assertEquals("none", f.apply(Double.NaN));
+        assertEquals("number", f.apply(Double.POSITIVE_INFINITY));
+        assertEquals("number", f.apply(Double.NEGATIVE_INFINITY));
+        assertEquals("number", f.apply(-Double.MAX_VALUE));
+    }
+
+    @Test
+    public void testInfinities() {
+        final DoubleMatchingFunction<String> f = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(finite, d -> "finite")
+                .caseOf(inClosedRange(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY), d -> "-inf")
+                .caseOf(inClosedRange(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY), d -> "inf")
+                .caseOf(isNaN, d -> "nan")
+                .otherwise("none");
+        assertEquals("finite", f.apply(Double.MAX_VALUE));
+        assertEquals("finite", f.apply(-Double.MAX_VALUE));
+        assertEquals("-inf", f.apply(Double.NEGATIVE_INFINITY));
+        assertEquals("inf", f.apply(Double.POSITIVE_INFINITY));
+        assertEquals("nan", f.apply(Double.NaN));
+    }
+
+    @Test
+    public void testOnlyNaNCases() {
+        final DoubleMatchingFunction<String> f = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(isNaN, d -> "a")
+                .caseOf(isNaN, d -> "b")
+                .caseOf(isNaN, d -> "c")
+                .caseOf(isNaN, d -> "d")
+                .otherwise("none");
+        assertEquals("a", f.apply(Double.NaN));
+        assertEquals("none", f.apply(0.0));
+    }
+
+    @Test
+    public void testEmptyRanges() {
+        final DoubleMatchingFunction<String> f = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(range(2.0, 1.0), d -> "empty")
+                .caseOf(range(Double.NaN, 1.0), d -> "nan start")
+                .caseOf(range(0.0, Double.NaN), d -> "nan end")
+                .caseOf(inClosedRange(0.0, 3.0), d -> "range")
+                .otherwise("none");
+        assertEquals("range", f.apply(1.5));
+        assertEquals("none", f.apply(Double.NaN));
+    }
+
+    /**
+     * Creates a range without checking the bounds, unlike {@code inClosedRange}.
+     */
+    private static DoubleRange range(double start, double end) {
+        return new DoubleRange() {
+            @Override
+            public double startIncluding() {
+                return start;
+            }
+
+            @Override
+            public double endIncluding() {
+                return end;
+            }
+        };
+    }
+
+    @Test
+    public void testUserRangeNotCompiled() {
+        // user implementation with the same bounds as the second range, but only matching integral values
+        final DoubleRange integral = new DoubleRange() {
+            @Override
+            public double startIncluding() {
+                return 0.0;
+            }
+
+            @Override
+            public double endIncluding() {
+                return 10.0;
+            }
+
+            @Override
+            public boolean test(double d) {
+                return DoubleRange.super.test(d) && d == Math.rint(d);
+            }
+        };
+        final DoubleMatchingFunction<String> f = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(integral, d -> "integral")
+                .caseIs(integral, () -> "unreachable")
+                .caseOf(inClosedRange(0.0, 10.0), d -> "range")
+                .caseOf(lt(0.0), d -> "negative")
+                .caseOf(gt(10.0), d -> "large")
+                .otherwise("none");
+        assertEquals("integral", f.apply(3.0));
+        assertEquals("range", f.apply(3.5));
+        assertEquals("negative", f.apply(-3.5));
+        assertEquals("large", f.apply(11.0));
+        assertEquals("none", f.apply(Double.NaN));
+    }
+
+    @Test
+    public void testOtherCasesKeepOrder() {
+        final DoubleMatchingFunction<String> f = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(lt(1.0), d -> "1")
+                .caseOf(lt(2.0), d -> "2")
+                .caseOf(lt(3.0), d -> "3")
+                .caseOf(lt(4.0), d -> "4")
+                .caseOf(d -> d == Math.rint(d), d -> "integral")
+                .caseOf(lt(6.0), d -> "6")
+                .caseOf(lt(7.0), d -> "7")
+                .caseOf(lt(8.0), d -> "8")
+                .caseOf(lt(9.0), d -> "9")
+                .caseOf(true, d -> "any")
+                .otherwise("none");
+        assertEquals("2", f.apply(1.0));
+        assertEquals("integral", f.apply(5.0));
+        assertEquals("6", f.apply(5.5));
+        assertEquals("integral", f.apply(8.0));
+        assertEquals("any", f.apply(9.5));
+    }
+
+    @Test
+    public void testRandomAgainstLinearEvaluation() {
+        final Random random = new Random(42);
+        final double[] specials = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (int round = 0; round < 50; round++) {
+            final int caseCount = 1 + random.nextInt(40);
+            final DoublePredicate[] predicates = new DoublePredicate[caseCount];
+            final double[] bounds = new double[caseCount];
+            LazyResultDoubleCaseMatcher<Integer> m = lazyResultDoubleMatch();
+            for (int c = 0; c < caseCount; c++) {
+                final double start = (random.nextDouble() - 0.5) * 100;
+                bounds[c] = start;
+                switch (random.nextInt(5)) {
+                    case 0:
+                        predicates[c] = lt(start);
+                        break;
+                    case 1:
+                        predicates[c] = gt(start);
+                        break;
+                    case 2:
+                        predicates[c] = isNaN;
+                        break;
+                    default:
+                        predicates[c] = inClosedRange(start, start + random.nextDouble() * 10);
+                }
+                final Integer result = c;
+                m = m.caseOf(predicates[c], d -> result);
+            }
+            final DoubleMatchingFunction<Integer> f = m.otherwise(-1);
+            for (int t = 0; t < 500; t++) {
+                final double d;
+                switch (t % 3) {
+                    case 0:
+                        d = specials[random.nextInt(specials.length)];
+                        break;
+                    case 1:
+                        d = bounds[random.nextInt(caseCount)] + (random.nextInt(3) - 1) * Math.ulp(1.0);
+                        break;
+                    default:
+                        d = (random.nextDouble() - 0.5) * 120;
+                }
+                int expected = -1;
+                for (int c = 0; c < caseCount; c++) {
+                    if (predicates[c].test(d)) {
+                        expected = c;
+                        break;
+                    }
+                }
+                assertEquals(Integer.valueOf(expected), f.apply(d));
+            }
+        }
+    }
+
+    @Test
+    public void testImmutable() {
+        final LazyResultDoubleCaseMatcher<String> base = lazyResultDoubleMatch();
+        final LazyResultDoubleCaseMatcher<String> one = base.caseOf(lt(1.0), d -> "one");
+        one.caseOf(lt(2.0), d -> "two");
+        assertFalse(base.apply(0.0).isPresent());
+        assertFalse(one.apply(1.5).isPresent());
+        assertEquals(Optional.of("one"), one.apply(0.0));
+    }
+
+    @Test
+    public void testOtherCaseKinds() {
+        final DoubleMatchingFunction<String> f = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(() -> false, d -> "supplier")
+                .caseOf(false, d -> "constant")
+                .caseIs(d -> d == 1, () -> "is")
+                .caseIs(false, () -> "constant is")
+                .caseObj(d -> d == 2 ? Optional.of("obj") : Optional.empty(), s -> s)
+                .caseInt(d -> d == 3 ? OptionalInt.of(30) : OptionalInt.empty(), x -> "int " + x)
+                .caseLong(d -> d == 4 ? OptionalLong.of(40) : OptionalLong.empty(), x -> "long " + x)
+                .caseDouble(d -> d == 5 ? OptionalDouble.of(0.5) : OptionalDouble.empty(), x -> "double " + x)
+                .otherwise(d -> "otherwise " + d);
+        assertEquals("is", f.apply(1.0));
+        assertEquals("obj", f.apply(2.0));
+        assertEquals("int 30", f.apply(3.0));
+        assertEquals("long 40", f.apply(4.0));
+        assertEquals("double 0.5", f.apply(5.0));
+        assertEquals("otherwise 6.0", f.match(6.0));
+    }
+
+    @Test
+    public void testNullResult() {
+        final LazyResultDoubleCaseMatcher<String> m = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(lt(1.0), d -> null);
+        assertFalse(m.apply(0.0).isPresent());
+        assertNull(m.otherwise("none").apply(0.0));
+        assertEquals("else", m.orElse("else").apply(0.0));
+        assertNull(m.partial().apply(0.0));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPartialNoMatch() {
+        LazyMatcher.<String>lazyResultDoubleMatch().caseOf(lt(1.0), d -> "one").partial().apply(2.0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOtherwiseThrowRuntime() {
+        LazyMatcher.<String>lazyResultDoubleMatch().caseOf(lt(1.0), d -> "one").otherwiseThrowRuntime(IllegalStateException::new).apply(2.0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseOfRangeNullFunction() {
+        LazyMatcher.<String>lazyResultDoubleMatch().caseOf(inClosedRange(1.0, 2.0), null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseIsNaNNullSupplier() {
+        LazyMatcher.<String>lazyResultDoubleMatch().caseIs(isNaN, null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOrElseNull() {
+        lazyResultDoubleMatch().orElse(null);
+    }
+
+    ///
+
+    @Test
+    public void testCaseIndices() {
+        LazyResultDoubleCaseMatcher<String> m = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(isNaN, x -> "nan")
+                .caseOf(lt(0.0), x -> "negative")
+                .caseOf(lt(10.0), x -> "small")
+                .caseOf(lt(100.0), x -> "medium")
+                .caseOf(x -> x > 1000, x -> "large")
+                .caseOf(inClosedRange(100.0, 200.0), x -> "hundreds");
+        double[] values = {Double.NaN, -5, -0.0, 9.5, 10, 99, 150, 2000, 500};
+        assertArrayEquals(new int[]{0, 1, 2, 2, 3, 3, 5, 4, LazyResultDoubleCaseMatcher.NO_CASE}, m.caseIndices(values));
+        String[] results = new String[values.length];
+        m.matchAll(values, results, "none");
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(m.otherwise("none").apply(values[i]), results[i]);
+        }
+    }
+
+    @Test
+    public void testCaseIndicesDoNotExecuteActions() {
+        LazyResultDoubleCaseMatcher<String> m = LazyMatcher.<String>lazyResultDoubleMatch()
+                .caseOf(lt(1.0), x -> {
+                    throw new IllegalStateException();
+                });
+        assertArrayEquals(new int[]{0, LazyResultDoubleCaseMatcher.NO_CASE}, m.caseIndices(new double[]{0.5, 2}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCaseIndicesOutputTooShort() {
+        LazyMatcher.<String>lazyResultDoubleMatch().caseIndices(new double[2], new int[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMatchAllOutputTooShort() {
+        LazyMatcher.<String>lazyResultDoubleMatch().matchAll(new double[2], new String[1], "");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseIndicesNull() {
+        LazyMatcher.<String>lazyResultDoubleMatch().caseIndices(null);
+    }
+}
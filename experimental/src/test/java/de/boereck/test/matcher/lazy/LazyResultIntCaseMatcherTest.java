@@ -0,0 +1,337 @@
+package de.boereck.test.matcher.lazy;
+
+import static de.boereck.matcher.helpers.IntMatchHelpers.inClosedRange;
+import static de.boereck.matcher.lazy.LazyMatcher.lazyResultIntMatch;
+import static org.junit.Assert.*;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Random;
+
+import de.boereck.matcher.helpers.IntRange;
+import de.boereck.matcher.lazy.LazyMatcher;
+import de.boereck.matcher.lazy.LazyResultIntCaseMatcher;
+import de.boereck.matcher.lazy.IntMatchingFunction;
+import org.junit.Test;
+
+public class LazyResultIntCaseMatcherTest {
+
+    @Test
+    public void testNoCases() {
+        LazyResultIntCaseMatcher<String> m = lazyResultIntMatch();
+        assertFalse(m.apply(1).isPresent());
+        assertEquals("none", m.otherwise("none").apply(1));
+    }
+
+    @Test
+    public void testFewConstants() {
+        LazyResultIntCaseMatcher<String> m = LazyMatcher.<String>lazyResultIntMatch()
+                .caseOf(1, i -> "one")
+                .caseOf(2, i -> "two");
+        assertEquals(Optional.of("one"), m.apply(1));
+        assertEquals(Optional.of("two"), m.apply(2));
+        assertFalse(m.apply(3).isPresent());
+    }
+
+    @Test
+    public void testDenseConstants() {
+        LazyResultIntCaseMatcher<String> m = lazyResultIntMatch();
+        for (int i = 0; i < 200; i++) {
+            final int value = i;
+            m = m.caseOf(value, x -> "c" + x);
+        }
+        final IntMatchingFunction<String> f = m.otherwise("none");
+        for (int i = -10; i < 210; i++) {
+            assertEquals((i >= 0 && i < 200) ? "c" + i : "none", f.apply(i));
+        }
+        assertEquals("none", f.apply(Integer.MIN_VALUE));
+        assertEquals("none", f.apply(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testSparseConstants() {
+        LazyResultIntCaseMatcher<String> m = lazyResultIntMatch();
+        for (int i = 0; i < 100; i++) {
+            m = m.caseOf(i * 1_000_003, x -> "c" + x);
+        }
+        m = m.caseOf(Integer.MIN_VALUE, x -> "min").caseOf(Integer.MAX_VALUE, x -> "max");
+        final IntMatchingFunction<String> f = m.otherwise("none");
+        for (int i = 0; i < 100; i++) {
+            assertEquals("c" + (i * 1_000_003), f.apply(i * 1_000_003));
+            assertEquals("none", f.apply(i * 1_000_003 + 1));
+        }
+        assertEquals("min", f.apply(Integer.MIN_VALUE));
+        assertEquals("max", f.apply(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testDuplicateConstantFirstWins() {
+        final IntMatchingFunction<String> f = LazyMatcher.<String>lazyResultIntMatch()
+                .caseOf(1, i -> "first")
+                .caseOf(1_000_000, i -> "a")
+                .caseOf(1, i -> "second")
+                .caseOf(-1_000_000, i -> "b")
+                .caseOf(5, i -> "c")
+                .otherwise("none");
+        assertEquals("first", f.apply(1));
+        assertEquals("a", f.apply(1_000_000));
+        assertEquals("b", f.apply(-1_000_000));
+        assertEquals("none", f.apply(2));
+    }
+
+    @Test
+    public void testRanges() {
+        final IntMatchingFunction<String> f = LazyMatcher.<String>lazyResultIntMatch()
+                .caseOf(inClosedRange(0, 9), i -> "digit")
+                .caseOf(inClosedRange(5, 1_000_000), i -> "big")
+                .caseIs(inClosedRange(-1_000_000, -1), () -> "negative")
+                .caseOf(3_000_000, i -> "three million")
+                .caseOf(inClosedRange(Integer.MIN_VALUE, Integer.MIN_VALUE + 1), i -> "min")
+                .otherwise("none");
+        assertEquals("digit", f.apply(0));
+        assertEquals("digit", f.apply(7));
+        assertEquals("big", f.apply(10));
+        assertEquals("big", f.apply(1_000_000));
+        assertEquals("none", f.apply(1_000_001));
+        assertEquals("negative", f.apply(-1));
+        assertEquals("negative", f.apply(-1_000_000));
+        assertEquals("none", f.apply(-1_000_001));
+        assertEquals("three million", f.apply(3_000_000));
+        assertEquals("min", f.apply(Integer.MIN_VALUE));
+        assertEquals("min", f.apply(Integer.MIN_VALUE + 1));
+        assertEquals("none", f.apply(Integer.MIN_VALUE + 2));
+        assertEquals("none", f.apply(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testRangeToMaxValue() {
+        final IntMatchingFunction<String> f = LazyMatcher.<String>lazyResultIntMatch()
+                .caseOf(inClosedRange(100, Integer.MAX_VALUE), i -> "large")
+                .caseOf(1, i -> "one")
+                .caseOf(2, i -> "two")
+                .caseOf(inClosedRange(Integer.MIN_VALUE, -1), i -> "negative")
+                .otherwise("none");
+        assertEquals("large", f.apply(Integer.MAX_VALUE));
+        assertEquals("large", f.apply(100));
+        assertEquals("none", f.apply(99));
+        assertEquals("one", f.apply(1));
+        assertEquals("negative", f.apply(Integer.MIN_VALUE));
+        assertEquals("none", f.apply(0));
+    }
+
+    @Test
+    public void testUserRangeNotCompiled() {
+        // user implementation with the same bounds as the first range, but matching only even values
+        final IntRange evenDigits = new IntRange() {
+            @Override
+            public int startIncluding() {
+                return 0;
+            }
+
+            @Override
+            public int endIncluding() {
+                return 9;
+            }
+
+            @Override
+            public boolean test(int i) {
+                return IntRange.super.test(i) && i % 2 == 0;
+            }
+        };
+        final IntMatchingFunction<String> f = LazyMatcher.<String>lazyResultIntMatch()
+                .caseOf(evenDigits, i -> "even digit")
+                .caseIs(evenDigits, () -> "unreachable")
+                .caseOf(inClosedRange(0, 9), i -> "digit")
+                .caseOf(10, i -> "ten")
+                .caseOf(11, i -> "eleven")
+                .otherwise("none");
+        assertEquals("even digit", f.apply(4));
+        assertEquals("digit", f.apply(3));
+        assertEquals("ten", f.apply(10));
+        assertEquals("none", f.apply(12));
+    }
+
+    @Test
+    public void testOtherCasesKeepOrder() {
+        final IntMatchingFunction<String> f = LazyMatcher.<String>lazyResultIntMatch()
+                .caseOf(1, i -> "one")
+                .caseOf(2, i -> "two")
+                .caseOf(3, i -> "three")
+                .caseOf(4, i -> "four")
+                .caseOf(i -> i % 2 == 0, i -> "even")
+                .caseOf(6, i -> "six")
+                .caseOf(7, i -> "seven")
+                .caseOf(8, i -> "eight")
+                .caseOf(9, i -> "nine")
+                .caseOf(true, i -> "any")
+                .otherwise("none");
+        assertEquals("two", f.apply(2));
+        assertEquals("even", f.apply(6));
+        assertEquals("seven", f.apply(7));
+        assertEquals("even", f.apply(8));
+        assertEquals("any", f.apply(11));
+    }
+
+    @Test
+    public void testRandomAgainstLinearEvaluation() {
+        final Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            final int caseCount = 1 + random.nextInt(40);
+            final int[] starts = new int[caseCount];
+            final int[] ends = new int[caseCount];
+            LazyResultIntCaseMatcher<Integer> m = lazyResultIntMatch();
+            for (int c = 0; c < caseCount; c++) {
+                final int spread = (round % 2 == 0) ? 100 : 100_000;
+                starts[c] = random.nextInt(spread) - spread / 2;
+                ends[c] = random.nextBoolean() ? starts[c] : starts[c] + random.nextInt(spread / 10);
+                final Integer result = c;
+                m = (starts[c] == ends[c]) ? m.caseOf(starts[c], i -> result) : m.caseOf(inClosedRange(starts[c], ends[c]), i -> result);
+            }
+            final IntMatchingFunction<Integer> f = m.otherwise(-1);
+            for (int t = 0; t < 500; t++) {
+                final int i = (t % 2 == 0) ? starts[random.nextInt(caseCount)] + random.nextInt(3) - 1 : random.nextInt(200_000) - 100_000;
+                int expected = -1;
+                for (int c = 0; c < caseCount; c++) {
+                    if (i >= starts[c] && i <= ends[c]) {
+                        expected = c;
+                        break;
+                    }
+                }
+                assertEquals(Integer.valueOf(expected), f.apply(i));
+            }
+        }
+    }
+
+    @Test
+    public void testImmutable() {
+        final LazyResultIntCaseMatcher<String> base = lazyResultIntMatch();
+        final LazyResultIntCaseMatcher<String> one = base.caseOf(1, i -> "one");
+        one.caseOf(2, i -> "two");
+        assertFalse(base.apply(1).isPresent());
+        assertFalse(one.apply(2).isPresent());
+        assertEquals(Optional.of("one"), one.apply(1));
+    }
+
+    @Test
+    public void testOtherCaseKinds() {
+        final IntMatchingFunction<String> f = LazyMatcher.<String>lazyResultIntMatch()
+                .caseOf(() -> false, i -> "supplier")
+                .caseOf(false, i -> "constant")
+                .caseIs(i -> i == 1, () -> "is")
+                .caseIs(false, () -> "constant is")
+                .caseObj(i -> i == 2 ? Optional.of("obj") : Optional.empty(), s -> s)
+                .caseInt(i -> i == 3 ? OptionalInt.of(30) : OptionalInt.empty(), x -> "int " + x)
+                .caseLong(i -> i == 4 ? OptionalLong.of(40) : OptionalLong.empty(), x -> "long " + x)
+                .caseDouble(i -> i == 5 ? OptionalDouble.of(0.5) : OptionalDouble.empty(), x -> "double " + x)
+                .otherwise(i -> "otherwise " + i);
+        assertEquals("is", f.apply(1));
+        assertEquals("obj", f.apply(2));
+        assertEquals("int 30", f.apply(3));
+        assertEquals("long 40", f.apply(4));
+        assertEquals("double 0.5", f.apply(5));
+        assertEquals("otherwise 6", f.match(6));
+    }
+
+    @Test
+    public void testNullResult() {
+        final LazyResultIntCaseMatcher<String> m = LazyMatcher.<String>lazyResultIntMatch()
+                .caseOf(1, i -> null);
+        assertFalse(m.apply(1).isPresent());
+        assertNull(m.otherwise("none").apply(1));
+        assertEquals("else", m.orElse("else").apply(1));
+        assertNull(m.partial().apply(1));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPartialNoMatch() {
+        LazyMatcher.<String>lazyResultIntMatch().caseOf(1, i -> "one").partial().apply(2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOtherwiseThrowRuntime() {
+        LazyMatcher.<String>lazyResultIntMatch().caseOf(1, i -> "one").otherwiseThrowRuntime(IllegalStateException::new).apply(2);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseOfNullFunction() {
+        LazyMatcher.<String>lazyResultIntMatch().caseOf(1, null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseOfRangeNullFunction() {
+        LazyMatcher.<String>lazyResultIntMatch().caseOf(inClosedRange(1, 2), null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOrElseNull() {
+        lazyResultIntMatch().orElse(null);
+    }
+
+    ///
+
+    @Test
+    public void testCaseIndices() {
+        LazyResultIntCaseMatcher<String> m = LazyMatcher.<String>lazyResultIntMatch()
+                .caseOf(x -> x < 0, x -> "negative")
+                .caseOf(inClosedRange(0, 9), x -> "digit")
+                .caseOf(inClosedRange(10, 99), x -> "two digits")
+                .caseOf(100, x -> "hundred")
+                .caseOf(inClosedRange(100, 999), x -> "three digits")
+                .caseOf(x -> x % 2 == 0, x -> "even");
+        int[] values = {-5, 0, 9, 10, 99, 100, 101, 1000, 1001};
+        assertArrayEquals(new int[]{0, 1, 1, 2, 2, 3, 4, 5, LazyResultIntCaseMatcher.NO_CASE}, m.caseIndices(values));
+        String[] results = new String[values.length];
+        m.matchAll(values, results, "none");
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(m.otherwise("none").apply(values[i]), results[i]);
+        }
+    }
+
+    @Test
+    public void testCaseIndicesSingleLookup() {
+        LazyResultIntCaseMatcher<String> m = LazyMatcher.<String>lazyResultIntMatch()
+                .caseOf(inClosedRange(0, 9), x -> "low")
+                .caseOf(inClosedRange(10, 19), x -> "medium")
+                .caseOf(inClosedRange(20, 29), x -> "high")
+                .caseOf(inClosedRange(30, 39), x -> "very high");
+        int[] values = new int[50];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        int[] indices = new int[values.length + 1];
+        indices[values.length] = 42;
+        m.caseIndices(values, indices);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i < 40 ? i / 10 : LazyResultIntCaseMatcher.NO_CASE, indices[i]);
+        }
+        // elements after the values are not touched
+        assertEquals(42, indices[values.length]);
+    }
+
+    @Test
+    public void testCaseIndicesDoNotExecuteActions() {
+        LazyResultIntCaseMatcher<String> m = LazyMatcher.<String>lazyResultIntMatch()
+                .caseOf(1, x -> {
+                    throw new IllegalStateException();
+                });
+        assertArrayEquals(new int[]{0, LazyResultIntCaseMatcher.NO_CASE}, m.caseIndices(new int[]{1, 2}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCaseIndicesOutputTooShort() {
+        LazyMatcher.<String>lazyResultIntMatch().caseIndices(new int[2], new int[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMatchAllOutputTooShort() {
+        LazyMatcher.<String>lazyResultIntMatch().matchAll(new int[2], new String[1], "");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseIndicesNull() {
+        LazyMatcher.<String>lazyResultIntMatch().caseIndices(null);
+    }
+}
@@ -0,0 +1,337 @@
+package de.boereck.test.matcher.lazy;
+
+import static de.boereck.matcher.helpers.LongMatchHelpers.inClosedRange;
+import static de.boereck.matcher.lazy.LazyMatcher.lazyResultLongMatch;
+import static org.junit.Assert.*;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Random;
+
+import de.boereck.matcher.helpers.LongRange;
+import de.boereck.matcher.lazy.LazyMatcher;
+import de.boereck.matcher.lazy.LazyResultLongCaseMatcher;
+import de.boereck.matcher.lazy.LongMatchingFunction;
+import org.junit.Test;
+
+public class LazyResultLongCaseMatcherTest {
+
+    @Test
+    public void testNoCases() {
+        LazyResultLongCaseMatcher<String> m = lazyResultLongMatch();
+        assertFalse(m.apply(1L).isPresent());
+        assertEquals("none", m.otherwise("none").apply(1L));
+    }
+
+    @Test
+    public void testFewConstants() {
+        LazyResultLongCaseMatcher<String> m = LazyMatcher.<String>lazyResultLongMatch()
+                .caseOf(1L, l -> "one")
+                .caseOf(2L, l -> "two");
+        assertEquals(Optional.of("one"), m.apply(1L));
+        assertEquals(Optional.of("two"), m.apply(2L));
+        assertFalse(m.apply(3L).isPresent());
+    }
+
+    @Test
+    public void testDenseConstants() {
+        LazyResultLongCaseMatcher<String> m = lazyResultLongMatch();
+        for (long l = 0; l < 200; l++) {
+            final long value = l;
+            m = m.caseOf(value, x -> "c" + x);
+        }
+        final LongMatchingFunction<String> f = m.otherwise("none");
+        for (long l = -10; l < 210; l++) {
+            assertEquals((l >= 0 && l < 200) ? "c" + l : "none", f.apply(l));
+        }
+        assertEquals("none", f.apply(Long.MIN_VALUE));
+        assertEquals("none", f.apply(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testSparseConstants() {
+        LazyResultLongCaseMatcher<String> m = lazyResultLongMatch();
+        for (long l = 0; l < 100; l++) {
+            m = m.caseOf(l * 1_000_003L, x -> "c" + x);
+        }
+        m = m.caseOf(Long.MIN_VALUE, x -> "min").caseOf(Long.MAX_VALUE, x -> "max");
+        final LongMatchingFunction<String> f = m.otherwise("none");
+        for (long l = 0; l < 100; l++) {
+            assertEquals("c" + (l * 1_000_003L), f.apply(l * 1_000_003L));
+            assertEquals("none", f.apply(l * 1_000_003L + 1));
+        }
+        assertEquals("min", f.apply(Long.MIN_VALUE));
+        assertEquals("max", f.apply(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testDuplicateConstantFirstWins() {
+        final LongMatchingFunction<String> f = LazyMatcher.<String>lazyResultLongMatch()
+                .caseOf(1L, l -> "first")
+                .caseOf(1_000_000L, l -> "a")
+                .caseOf(1L, l -> "second")
+                .caseOf(-1_000_000L, l -> "b")
+                .caseOf(5L, l -> "c")
+                .otherwise("none");
+        assertEquals("first", f.apply(1L));
+        assertEquals("a", f.apply(1_000_000L));
+        assertEquals("b", f.apply(-1_000_000L));
+        assertEquals("none", f.apply(2L));
+    }
+
+    @Test
+    public void testRanges() {
+        final LongMatchingFunction<String> f = LazyMatcher.<String>lazyResultLongMatch()
+                .caseOf(inClosedRange(0L, 9L), l -> "digit")
+                .caseOf(inClosedRange(5L, 1_000_000L), l -> "big")
+                .caseIs(inClosedRange(-1_000_000L, -1L), () -> "negative")
+                .caseOf(3_000_000L, l -> "three million")
+                .caseOf(inClosedRange(Long.MIN_VALUE, Long.MIN_VALUE + 1), l -> "min")
+                .otherwise("none");
+        assertEquals("digit", f.apply(0L));
+        assertEquals("digit", f.apply(7L));
+        assertEquals("big", f.apply(10L));
+        assertEquals("big", f.apply(1_000_000L));
+        assertEquals("none", f.apply(1_000_001L));
+        assertEquals("negative", f.apply(-1L));
+        assertEquals("negative", f.apply(-1_000_000L));
+        assertEquals("none", f.apply(-1_000_001L));
+        assertEquals("three million", f.apply(3_000_000L));
+        assertEquals("min", f.apply(Long.MIN_VALUE));
+        assertEquals("min", f.apply(Long.MIN_VALUE + 1));
+        assertEquals("none", f.apply(Long.MIN_VALUE + 2));
+        assertEquals("none", f.apply(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testRangeToMaxValue() {
+        final LongMatchingFunction<String> f = LazyMatcher.<String>lazyResultLongMatch()
+                .caseOf(inClosedRange(100L, Long.MAX_VALUE), l -> "large")
+                .caseOf(1L, l -> "one")
+                .caseOf(2L, l -> "two")
+                .caseOf(inClosedRange(Long.MIN_VALUE, -1L), l -> "negative")
+                .otherwise("none");
+        assertEquals("large", f.apply(Long.MAX_VALUE));
+        assertEquals("large", f.apply(100L));
+        assertEquals("none", f.apply(99L));
+        assertEquals("one", f.apply(1L));
+        assertEquals("negative", f.apply(Long.MIN_VALUE));
+        assertEquals("none", f.apply(0L));
+    }
+
+    @Test
+    public void testUserRangeNotCompiled() {
+        // user implementation with the same bounds as the first range, but matching only even values
+        final LongRange evenDigits = new LongRange() {
+            @Override
+            public long startIncluding() {
+                return 0L;
+            }
+
+            @Override
+            public long endIncluding() {
+                return 9L;
+            }
+
+            @Override
+            public boolean test(long l) {
+                return LongRange.super.test(l) && l % 2 == 0;
+            }
+        };
+        final LongMatchingFunction<String> f = LazyMatcher.<String>lazyResultLongMatch()
+                .caseOf(evenDigits, l -> "even digit")
+                .caseIs(evenDigits, () -> "unreachable")
+                .caseOf(inClosedRange(0L, 9L), l -> "digit")
+                .caseOf(10L, l -> "ten")
+                .caseOf(11L, l -> "eleven")
+                .otherwise("none");
+        assertEquals("even digit", f.apply(4L));
+        assertEquals("digit", f.apply(3L));
+        assertEquals("ten", f.apply(10L));
+        assertEquals("none", f.apply(12L));
+    }
+
+    @Test
+    public void testOtherCasesKeepOrder() {
+        final LongMatchingFunction<String> f = LazyMatcher.<String>lazyResultLongMatch()
+                .caseOf(1L, l -> "one")
+                .caseOf(2L, l -> "two")
+                .caseOf(3L, l -> "three")
+                .caseOf(4L, l -> "four")
+                .caseOf(l -> l % 2 == 0, l -> "even")
+                .caseOf(6L, l -> "six")
+                .caseOf(7L, l -> "seven")
+                .caseOf(8L, l -> "eight")
+                .caseOf(9L, l -> "nine")
+                .caseOf(true, l -> "any")
+                .otherwise("none");
+        assertEquals("two", f.apply(2L));
+        assertEquals("even", f.apply(6L));
+        assertEquals("seven", f.apply(7L));
+        assertEquals("even", f.apply(8L));
+        assertEquals("any", f.apply(11L));
+    }
+
+    @Test
+    public void testRandomAgainstLinearEvaluation() {
+        final Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            final int caseCount = 1 + random.nextInt(40);
+            final long[] starts = new long[caseCount];
+            final long[] ends = new long[caseCount];
+            LazyResultLongCaseMatcher<Integer> m = lazyResultLongMatch();
+            for (int c = 0; c < caseCount; c++) {
+                final int spread = (round % 2 == 0) ? 100 : 100_000;
+                starts[c] = (long) random.nextInt(spread) - spread / 2;
+                ends[c] = random.nextBoolean() ? starts[c] : starts[c] + (long) random.nextInt(spread / 10);
+                final Integer result = c;
+                m = (starts[c] == ends[c]) ? m.caseOf(starts[c], l -> result) : m.caseOf(inClosedRange(starts[c], ends[c]), l -> result);
+            }
+            final LongMatchingFunction<Integer> f = m.otherwise(-1);
+            for (int t = 0; t < 500; t++) {
+                final long l = (t % 2 == 0) ? starts[random.nextInt(caseCount)] + random.nextInt(3) - 1 : (long) random.nextInt(200_000) - 100_000;
+                int expected = -1;
+                for (int c = 0; c < caseCount; c++) {
+                    if (l >= starts[c] && l <= ends[c]) {
+                        expected = c;
+                        break;
+                    }
+                }
+                assertEquals(Integer.valueOf(expected), f.apply(l));
+            }
+        }
+    }
+
+    @Test
+    public void testImmutable() {
+        final LazyResultLongCaseMatcher<String> base = lazyResultLongMatch();
+        final LazyResultLongCaseMatcher<String> one = base.caseOf(1L, l -> "one");
+        one.caseOf(2L, l -> "two");
+        assertFalse(base.apply(1L).isPresent());
+        assertFalse(one.apply(2L).isPresent());
+        assertEquals(Optional.of("one"), one.apply(1L));
+    }
+
+    @Test
+    public void testOtherCaseKinds() {
+        final LongMatchingFunction<String> f = LazyMatcher.<String>lazyResultLongMatch()
+                .caseOf(() -> false, l -> "supplier")
+                .caseOf(false, l -> "constant")
+                .caseIs(l -> l == 1, () -> "is")
+                .caseIs(false, () -> "constant is")
+                .caseObj(l -> l == 2 ? Optional.of("obj") : Optional.empty(), s -> s)
+                .caseInt(l -> l == 3 ? OptionalInt.of(30) : OptionalInt.empty(), x -> "int " + x)
+                .caseLong(l -> l == 4 ? OptionalLong.of(40) : OptionalLong.empty(), x -> "long " + x)
+                .caseDouble(l -> l == 5 ? OptionalDouble.of(0.5) : OptionalDouble.empty(), x -> "double " + x)
+                .otherwise(l -> "otherwise " + l);
+        assertEquals("is", f.apply(1L));
+        assertEquals("obj", f.apply(2L));
+        assertEquals("int 30", f.apply(3L));
+        assertEquals("long 40", f.apply(4L));
+        assertEquals("double 0.5", f.apply(5L));
+        assertEquals("otherwise 6", f.match(6L));
+    }
+
+    @Test
+    public void testNullResult() {
+        final LazyResultLongCaseMatcher<String> m = LazyMatcher.<String>lazyResultLongMatch()
+                .caseOf(1L, l -> null);
+        assertFalse(m.apply(1L).isPresent());
+        assertNull(m.otherwise("none").apply(1L));
+        assertEquals("else", m.orElse("else").apply(1L));
+        assertNull(m.partial().apply(1L));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPartialNoMatch() {
+        LazyMatcher.<String>lazyResultLongMatch().caseOf(1L, l -> "one").partial().apply(2L);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOtherwiseThrowRuntime() {
+        LazyMatcher.<String>lazyResultLongMatch().caseOf(1L, l -> "one").otherwiseThrowRuntime(IllegalStateException::new).apply(2L);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseOfNullFunction() {
+        LazyMatcher.<String>lazyResultLongMatch().caseOf(1L, null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseOfRangeNullFunction() {
+        LazyMatcher.<String>lazyResultLongMatch().caseOf(inClosedRange(1L, 2L), null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOrElseNull() {
+        lazyResultLongMatch().orElse(null);
+    }
+
+    ///
+
+    @Test
+    public void testCaseIndices() {
+        LazyResultLongCaseMatcher<String> m = LazyMatcher.<String>lazyResultLongMatch()
+                .caseOf(x -> x < 0, x -> "negative")
+                .caseOf(inClosedRange(0L, 9L), x -> "digit")
+                .caseOf(inClosedRange(10L, 99L), x -> "two digits")
+                .caseOf(100L, x -> "hundred")
+                .caseOf(inClosedRange(100L, 999L), x -> "three digits")
+                .caseOf(x -> x % 2 == 0, x -> "even");
+        long[] values = {-5, 0, 9, 10, 99, 100, 101, 1000, 1001};
+        assertArrayEquals(new int[]{0, 1, 1, 2, 2, 3, 4, 5, LazyResultLongCaseMatcher.NO_CASE}, m.caseIndices(values));
+        String[] results = new String[values.length];
+        m.matchAll(values, results, "none");
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(m.otherwise("none").apply(values[i]), results[i]);
+        }
+    }
+
+    @Test
+    public void testCaseIndicesSingleLookup() {
+        LazyResultLongCaseMatcher<String> m = LazyMatcher.<String>lazyResultLongMatch()
+                .caseOf(inClosedRange(0L, 9L), x -> "low")
+                .caseOf(inClosedRange(10L, 19L), x -> "medium")
+                .caseOf(inClosedRange(20L, 29L), x -> "high")
+                .caseOf(inClosedRange(30L, 39L), x -> "very high");
+        long[] values = new long[50];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        int[] indices = new int[values.length + 1];
+        indices[values.length] = 42;
+        m.caseIndices(values, indices);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i < 40 ? i / 10 : LazyResultLongCaseMatcher.NO_CASE, indices[i]);
+        }
+        // elements after the values are not touched
+        assertEquals(42, indices[values.length]);
+    }
+
+    @Test
+    public void testCaseIndicesDoNotExecuteActions() {
+        LazyResultLongCaseMatcher<String> m = LazyMatcher.<String>lazyResultLongMatch()
+                .caseOf(1L, x -> {
+                    throw new IllegalStateException();
+                });
+        assertArrayEquals(new int[]{0, LazyResultLongCaseMatcher.NO_CASE}, m.caseIndices(new long[]{1, 2}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCaseIndicesOutputTooShort() {
+        LazyMatcher.<String>lazyResultLongMatch().caseIndices(new long[2], new int[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMatchAllOutputTooShort() {
+        LazyMatcher.<String>lazyResultLongMatch().matchAll(new long[2], new String[1], "");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseIndicesNull() {
+        LazyMatcher.<String>lazyResultLongMatch().caseIndices(null);
+    }
+}
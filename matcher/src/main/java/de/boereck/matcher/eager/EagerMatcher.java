@@ -79,6 +79,39 @@ public final class EagerMatcher {
         return resultMatch(i);
     }
 
+    /**
+     * Returns a {@link EagerResultCaseMatcher} for the given input object, that behaves like the one returned by
+     * {@link #resultMatch(Object)}, but does not allocate an object when a case matches. Instead of creating a new
+     * matcher holding the result in an {@link java.util.Optional Optional}, the returned matcher records the raw result
+     * of the matching case and returns itself from all case methods. Closing the chain with a method returning the
+     * result directly (e.g. {@code otherwise} or {@code orElse}) therefore allows the JIT compiler to eliminate the
+     * matcher entirely. Since the returned matcher changes its state when a case matches, a matcher returned from a case
+     * method must not be used to define more than one follow-up case.
+     *
+     * @param <I> Type of match input object
+     * @param <O> Type of output/result object of case matcher
+     * @param i object to find a matching case for
+     * @return CaseMatcher object to define cases on that will be checked immediately.
+     */
+    public static <I, O> EagerResultCaseMatcher<I, O> resultMatchInPlace(I i) {
+        return new ResultCaseMatcherInPlace<I, O>(i);
+    }
+
+    /**
+     * Returns a {@link EagerResultCaseMatcher} for the given input object, that does not allocate an object when a
+     * case matches. The type of the returned object can be defined by parameter {@code outputType}. See
+     * {@link #resultMatchInPlace(Object)} for details.
+     *
+     * @param <I> Type of match input object
+     * @param <O> Type of output/result object of case matcher
+     * @param outputType expected type of the result object, that can be retrieved via closing methods.
+     * @param i          object to find a matching case for
+     * @return CaseMatcher object to define cases on that will be checked immediately.
+     */
+    public static <I, O> EagerResultCaseMatcher<I, O> resultMatchInPlace(Class<O> outputType, I i) {
+        return resultMatchInPlace(i);
+    }
+
     /**
      * This method will return a {@link NoResultIntCaseMatcher} object for the given input int value. It allows definition of
      * cases and associated actions. The cases will be evaluated eagerly when being defined and in order of their definition.
@@ -121,6 +154,37 @@ public final class EagerMatcher {
         return resultMatch(i);
     }
 
+    /**
+     * Returns a {@link EagerResultIntCaseMatcher} for the given input int value, that behaves like the one returned by
+     * {@link #resultMatch(int)}, but does not allocate an object when a case matches. Instead of creating a new
+     * matcher holding the result in an {@link java.util.Optional Optional}, the returned matcher records the raw result
+     * of the matching case and returns itself from all case methods. Closing the chain with a method returning the
+     * result directly (e.g. {@code otherwise} or {@code orElse}) therefore allows the JIT compiler to eliminate the
+     * matcher entirely. Since the returned matcher changes its state when a case matches, a matcher returned from a case
+     * method must not be used to define more than one follow-up case.
+     *
+     * @param <O> Type of output/result object of case matcher
+     * @param i int value to find a matching case for
+     * @return CaseMatcher object to define cases on that will be checked immediately.
+     */
+    public static <O> EagerResultIntCaseMatcher<O> resultMatchInPlace(int i) {
+        return new ResultIntCaseMatcherInPlace<O>(i);
+    }
+
+    /**
+     * Returns a {@link EagerResultIntCaseMatcher} for the given input int value, that does not allocate an object when a
+     * case matches. The type of the returned object can be defined by parameter {@code outputType}. See
+     * {@link #resultMatchInPlace(int)} for details.
+     *
+     * @param <O> Type of output/result object of case matcher
+     * @param outputType expected type of the result object, that can be retrieved via closing methods.
+     * @param i          int value to find a matching case for
+     * @return CaseMatcher object to define cases on that will be checked immediately.
+     */
+    public static <O> EagerResultIntCaseMatcher<O> resultMatchInPlace(Class<O> outputType, int i) {
+        return resultMatchInPlace(i);
+    }
+
     /**
      * This method will return a {@link EagerNoResultLongCaseMatcher} object for the given input long value. It allows definition of
      * cases and associated actions. The cases will be evaluated eagerly when being defined and in order of their definition.
@@ -163,6 +227,37 @@ public final class EagerMatcher {
         return resultMatch(l);
     }
 
+    /**
+     * Returns a {@link EagerResultLongCaseMatcher} for the given input long value, that behaves like the one returned by
+     * {@link #resultMatch(long)}, but does not allocate an object when a case matches. Instead of creating a new
+     * matcher holding the result in an {@link java.util.Optional Optional}, the returned matcher records the raw result
+     * of the matching case and returns itself from all case methods. Closing the chain with a method returning the
+     * result directly (e.g. {@code otherwise} or {@code orElse}) therefore allows the JIT compiler to eliminate the
+     * matcher entirely. Since the returned matcher changes its state when a case matches, a matcher returned from a case
+     * method must not be used to define more than one follow-up case.
+     *
+     * @param <O> Type of output/result object of case matcher
+     * @param l long value to find a matching case for
+     * @return CaseMatcher object to define cases on that will be checked immediately.
+     */
+    public static <O> EagerResultLongCaseMatcher<O> resultMatchInPlace(long l) {
+        return new ResultLongCaseMatcherInPlace<O>(l);
+    }
+
+    /**
+     * Returns a {@link EagerResultLongCaseMatcher} for the given input long value, that does not allocate an object when a
+     * case matches. The type of the returned object can be defined by parameter {@code outputType}. See
+     * {@link #resultMatchInPlace(long)} for details.
+     *
+     * @param <O> Type of output/result object of case matcher
+     * @param outputType expected type of the result object, that can be retrieved via closing methods.
+     * @param l          long value to find a matching case for
+     * @return CaseMatcher object to define cases on that will be checked immediately.
+     */
+    public static <O> EagerResultLongCaseMatcher<O> resultMatchInPlace(Class<O> outputType, long l) {
+        return resultMatchInPlace(l);
+    }
+
     /**
      * This method will return a {@link NoResultDoubleCaseMatcher} object for the given input double value. It allows definition of
      * cases and associated actions. The cases will be evaluated eagerly when being defined and in order of their definition.
@@ -204,4 +299,35 @@ public final class EagerMatcher {
     public static <O> EagerResultDoubleCaseMatcher<O> resultMatch(Class<O> outputType, double d) {
         return resultMatch(d);
     }
+
+    /**
+     * Returns a {@link EagerResultDoubleCaseMatcher} for the given input double value, that behaves like the one returned by
+     * {@link #resultMatch(double)}, but does not allocate an object when a case matches. Instead of creating a new
+     * matcher holding the result in an {@link java.util.Optional Optional}, the returned matcher records the raw result
+     * of the matching case and returns itself from all case methods. Closing the chain with a method returning the
+     * result directly (e.g. {@code otherwise} or {@code orElse}) therefore allows the JIT compiler to eliminate the
+     * matcher entirely. Since the returned matcher changes its state when a case matches, a matcher returned from a case
+     * method must not be used to define more than one follow-up case.
+     *
+     * @param <O> Type of output/result object of case matcher
+     * @param d double value to find a matching case for
+     * @return CaseMatcher object to define cases on that will be checked immediately.
+     */
+    public static <O> EagerResultDoubleCaseMatcher<O> resultMatchInPlace(double d) {
+        return new ResultDoubleCaseMatcherInPlace<O>(d);
+    }
+
+    /**
+     * Returns a {@link EagerResultDoubleCaseMatcher} for the given input double value, that does not allocate an object when a
+     * case matches. The type of the returned object can be defined by parameter {@code outputType}. See
+     * {@link #resultMatchInPlace(double)} for details.
+     *
+     * @param <O> Type of output/result object of case matcher
+     * @param outputType expected type of the result object, that can be retrieved via closing methods.
+     * @param d          double value to find a matching case for
+     * @return CaseMatcher object to define cases on that will be checked immediately.
+     */
+    public static <O> EagerResultDoubleCaseMatcher<O> resultMatchInPlace(Class<O> outputType, double d) {
+        return resultMatchInPlace(d);
+    }
 }
@@ -1,7 +1,10 @@
 package de.boereck.matcher.eager;
 
 import de.boereck.matcher.ResultCaseMatcher;
+import de.boereck.matcher.helpers.Tokenizer;
+import de.boereck.matcher.helpers.Tokens;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
@@ -94,6 +97,38 @@ public interface EagerResultCaseMatcher<I,O> extends ResultCaseMatcher<I,O> {
     @Override
      EagerResultCaseMatcher<I, O> caseDouble(Function<? super I, OptionalDouble> p, DoubleFunction<? extends O> f) throws NullPointerException;
 
+    /**
+     * Defines a case on the tokens of the input. If the input is a {@link CharSequence}, it is split into the caller-owned
+     * buffer {@code tokens}; if the predicate {@code p} matches the buffer, the result of this case is computed by
+     * {@code f} from the buffer. If the input is no {@code CharSequence} (e.g. {@code null}), the case does not match.
+     * The input is not split again if the buffer already holds the tokens of the very same input object, so consecutive
+     * cases on the same buffer split the input only once; the input must therefore not be modified while the cases are
+     * checked. Splitting does not allocate any object, unless the buffer has to grow, so a buffer reused for many inputs
+     * (e.g. the lines of a file) avoids creating a string per token.
+     * <p>The default implementation delegates to {@link #caseOf(Predicate, Function)}.</p>
+     *
+     * @param tokens buffer the input is split into, see {@link Tokenizer#newTokens()}. Must not be {@code null}.
+     * @param p      predicate on the tokens, e.g. {@link de.boereck.matcher.helpers.StringMatchHelpers#tokensMatch(Predicate[]) tokensMatch}.
+     *               Must not be {@code null}.
+     * @param f      computes the result of this case from the tokens. Must not be {@code null}.
+     * @return matcher to define further cases or close the match
+     * @throws NullPointerException might be thrown if {@code tokens}, {@code p} or {@code f} is {@code null}.
+     */
+     default EagerResultCaseMatcher<I, O> caseTokens(Tokens tokens, Predicate<? super Tokens> p, Function<? super Tokens, ? extends O> f) throws NullPointerException {
+        Objects.requireNonNull(tokens);
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return caseOf(i -> {
+            if (!(i instanceof CharSequence)) {
+                return false;
+            }
+            if (tokens.source() != i) {
+                tokens.split((CharSequence) i);
+            }
+            return p.test(tokens);
+        }, i -> f.apply(tokens));
+    }
+
     /////////////////////
     // Closing Methods //
     /////////////////////
@@ -14,6 +14,7 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import de.boereck.matcher.NoResultCaseMatcher;
+import de.boereck.matcher.helpers.Tokens;
 
 
 /**
@@ -133,6 +134,15 @@ final class NoResultCaseMatcherFinished<I> implements EagerNoResultCaseMatcher<I
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerNoResultCaseMatcher<I> caseTokens(Tokens tokens, Predicate<? super Tokens> p, Consumer<? super Tokens> consumer) {
+        // we already have a result, so nothing to check
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -15,6 +15,12 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import de.boereck.matcher.NoResultCaseMatcher;
+import de.boereck.matcher.function.optionalmap.OptionalDoubleMapper;
+import de.boereck.matcher.function.optionalmap.OptionalIntMapper;
+import de.boereck.matcher.function.optionalmap.OptionalLongMapper;
+import de.boereck.matcher.function.optionalmap.OptionalMapper;
+import de.boereck.matcher.function.optionalmap.ProbeSlot;
+import de.boereck.matcher.helpers.Tokens;
 
 /**
  * Eager implementation of {@link NoResultCaseMatcher}. To instantiate use static method {@link EagerMatcher#match(Object)}.
@@ -42,6 +48,23 @@ final class NoResultCaseMatcherUnfinished<I> implements EagerNoResultCaseMatcher
         this.toCheck = toCheck;
     }
 
+    /**
+     * Splits the input into {@code tokens}, unless the buffer already holds the tokens of the input, e.g. split by a
+     * previous case. The buffer is checked instead of remembering it, since it may have been re-split by other code
+     * in the meantime.
+     *
+     * @return {@code false} if the input is no {@link CharSequence} and cannot be split
+     */
+    private boolean split(Tokens tokens) {
+        if (!(toCheck instanceof CharSequence)) {
+            return false;
+        }
+        if (tokens.source() != toCheck) {
+            tokens.split((CharSequence) toCheck);
+        }
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -164,9 +187,9 @@ final class NoResultCaseMatcherUnfinished<I> implements EagerNoResultCaseMatcher
         Objects.requireNonNull(p);
         Objects.requireNonNull(consumer);
         // check if case matches
-        final Optional<T> opt = p.apply(toCheck);
-        if (opt.isPresent()) {
-            consumer.accept(opt.get());
+        final T value = OptionalMapper.probe(p, toCheck);
+        if (value != null) {
+            consumer.accept(value);
             return NoResultCaseMatcherFinished.instance();
         } else {
             return this;
@@ -181,9 +204,9 @@ final class NoResultCaseMatcherUnfinished<I> implements EagerNoResultCaseMatcher
         Objects.requireNonNull(p);
         Objects.requireNonNull(consumer);
         // check if case matches
-        final OptionalInt opt = p.apply(toCheck);
-        if (opt.isPresent()) {
-            consumer.accept(opt.getAsInt());
+        final ProbeSlot slot = new ProbeSlot();
+        if (OptionalIntMapper.probe(p, toCheck, slot)) {
+            consumer.accept(slot.getInt());
             return NoResultCaseMatcherFinished.instance();
         } else {
             return this;
@@ -198,9 +221,9 @@ final class NoResultCaseMatcherUnfinished<I> implements EagerNoResultCaseMatcher
         Objects.requireNonNull(p);
         Objects.requireNonNull(consumer);
         // check if case matches
-        final OptionalLong opt = p.apply(toCheck);
-        if (opt.isPresent()) {
-            consumer.accept(opt.getAsLong());
+        final ProbeSlot slot = new ProbeSlot();
+        if (OptionalLongMapper.probe(p, toCheck, slot)) {
+            consumer.accept(slot.getLong());
             return NoResultCaseMatcherFinished.instance();
         } else {
             return this;
@@ -215,9 +238,26 @@ final class NoResultCaseMatcherUnfinished<I> implements EagerNoResultCaseMatcher
         Objects.requireNonNull(p);
         Objects.requireNonNull(consumer);
         // check if case matches
-        final OptionalDouble opt = p.apply(toCheck);
-        if (opt.isPresent()) {
-            consumer.accept(opt.getAsDouble());
+        final ProbeSlot slot = new ProbeSlot();
+        if (OptionalDoubleMapper.probe(p, toCheck, slot)) {
+            consumer.accept(slot.getDouble());
+            return NoResultCaseMatcherFinished.instance();
+        } else {
+            return this;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerNoResultCaseMatcher<I> caseTokens(Tokens tokens, Predicate<? super Tokens> p, Consumer<? super Tokens> consumer) {
+        Objects.requireNonNull(tokens);
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(consumer);
+        // check if case matches
+        if (split(tokens) && p.test(tokens)) {
+            consumer.accept(tokens);
             return NoResultCaseMatcherFinished.instance();
         } else {
             return this;
@@ -16,6 +16,7 @@ import java.util.function.Supplier;
 
 import de.boereck.matcher.NoResultCaseMatcher;
 import de.boereck.matcher.ResultCaseMatcher;
+import de.boereck.matcher.helpers.Tokens;
 
 /**
  * This class represents a {@link ResultCaseMatcher} that already had a matching case. A new instance holding the result
@@ -135,6 +136,15 @@ final class ResultCaseMatcherFinished<I, O> implements EagerResultCaseMatcher<I,
         return this;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultCaseMatcher<I, O> caseTokens(Tokens tokens, Predicate<? super Tokens> p, Function<? super Tokens, ? extends O> f) {
+        // we already have the result and don't need to check case
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,388 @@
+package de.boereck.matcher.eager;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import de.boereck.matcher.ResultCaseMatcher;
+import de.boereck.matcher.function.optionalmap.OptionalDoubleMapper;
+import de.boereck.matcher.function.optionalmap.OptionalIntMapper;
+import de.boereck.matcher.function.optionalmap.OptionalLongMapper;
+import de.boereck.matcher.function.optionalmap.OptionalMapper;
+import de.boereck.matcher.function.optionalmap.ProbeSlot;
+import de.boereck.matcher.helpers.Tokens;
+
+/**
+ * Eager implementation of {@link ResultCaseMatcher} that records the result of the matching case in its own fields instead of
+ * creating a new matcher holding an {@link Optional} when a case matches. To instantiate use static method
+ * {@link EagerMatcher#resultMatchInPlace(Object)}. The result is kept as raw value together with a flag stating if a case matched, so a chain of
+ * cases closed by one of the methods returning the raw result (e.g. {@link #otherwise(Object) otherwise} or
+ * {@link #orElse(Object) orElse}) does not allocate any object besides the matcher itself, which can be removed by the
+ * JIT compiler's escape analysis. Only {@link #result()} creates an {@code Optional}. Cases on primitive optional
+ * mappers probe the mappers into a {@link ProbeSlot} owned by the matcher, so they do not allocate optionals either.
+ * <p>
+ * Since every case method returns this instance, matchers of this class must not be used to branch off multiple chains
+ * of cases from a common prefix. This is fine for the usual fluent style, where the returned matcher of the previous
+ * case is only used to define the next case.
+ * </p>
+ *
+ * @param <I> type of the input object
+ * @param <O> type of the output object
+ * @author Max Bureck
+ */
+final class ResultCaseMatcherInPlace<I, O> implements EagerResultCaseMatcher<I, O> {
+
+    /**
+     * Value cases are defined for
+     */
+    private final I toCheck;
+
+    /**
+     * Receives the values of optional mappers probed by {@code caseInt}, {@code caseLong} and {@code caseDouble}.
+     * Created on first use.
+     */
+    private ProbeSlot slot;
+
+    /**
+     * Result of the matching case, only valid if {@link #found} is {@code true}. May be {@code null}.
+     */
+    private O result;
+
+    /**
+     * Set to {@code true} when a case matched
+     */
+    private boolean found;
+
+    /**
+     * Package private constructor. Should only be called from {@link EagerMatcher#resultMatchInPlace(Object)}.
+     *
+     * @param toCheck element cases are defined for.
+     */
+    ResultCaseMatcherInPlace(I toCheck) {
+        this.toCheck = toCheck;
+    }
+
+    /**
+     * Returns the slot receiving the values of probed optional mappers, creating it on first use.
+     */
+    private ProbeSlot slot() {
+        ProbeSlot slot = this.slot;
+        if (slot == null) {
+            slot = new ProbeSlot();
+            this.slot = slot;
+        }
+        return slot;
+    }
+
+    /**
+     * Splits the input into {@code tokens}, unless the buffer already holds the tokens of the input, e.g. split by a
+     * previous case. The buffer is checked instead of remembering it, since it may have been re-split by other code
+     * in the meantime.
+     *
+     * @return {@code false} if the input is no {@link CharSequence} and cannot be split
+     */
+    private boolean split(Tokens tokens) {
+        if (!(toCheck instanceof CharSequence)) {
+            return false;
+        }
+        if (tokens.source() != toCheck) {
+            tokens.split((CharSequence) toCheck);
+        }
+        return true;
+    }
+
+    /**
+     * Records the given {@code result} of the matching case.
+     *
+     * @param result result of the matching case, may be {@code null}.
+     * @return {@code this}
+     */
+    private EagerResultCaseMatcher<I, O> finish(O result) {
+        this.result = result;
+        this.found = true;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> EagerResultCaseMatcher<I, O> caseOf(Class<T> clazz, Function<? super T, ? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(clazz);
+        Objects.requireNonNull(f);
+        final I toCheck = this.toCheck;
+        if (clazz.isInstance(toCheck)) {
+            @SuppressWarnings("unchecked") // Safe cast, checked if toCheck is instance of T
+            final T casted = (T) toCheck;
+            return finish(f.apply(casted));
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> EagerResultCaseMatcher<I, O> caseOf(Class<T> clazz, Predicate<? super T> condition, Function<? super T, ? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(clazz);
+        Objects.requireNonNull(condition);
+        Objects.requireNonNull(f);
+        final I toCheck = this.toCheck;
+        if (clazz.isInstance(toCheck)) {
+            @SuppressWarnings("unchecked") // Safe cast, checked if toCheck is instance of T
+            final T casted = (T) toCheck;
+            if (condition.test(casted)) {
+                return finish(f.apply(casted));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultCaseMatcher<I, O> caseOf(Predicate<? super I> p, Function<? super I, ? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return p.test(toCheck) ? finish(f.apply(toCheck)) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultCaseMatcher<I, O> caseOf(BooleanSupplier s, Function<? super I, ? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(s);
+        Objects.requireNonNull(f);
+        return s.getAsBoolean() ? finish(f.apply(toCheck)) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultCaseMatcher<I, O> caseOf(boolean test, Function<? super I, ? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(f);
+        return test ? finish(f.apply(toCheck)) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultCaseMatcher<I, O> caseIs(Predicate<? super I> p, Supplier<? extends O> supplier) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(supplier);
+        return p.test(toCheck) ? finish(supplier.get()) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultCaseMatcher<I, O> caseIs(boolean test, Supplier<? extends O> supplier) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(supplier);
+        return test ? finish(supplier.get()) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> EagerResultCaseMatcher<I, O> caseObj(Function<? super I, Optional<T>> p, Function<? super T, ? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        final T value = OptionalMapper.probe(p, toCheck);
+        return value != null ? finish(f.apply(value)) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultCaseMatcher<I, O> caseInt(Function<? super I, OptionalInt> p, IntFunction<? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        final ProbeSlot slot = slot();
+        return OptionalIntMapper.probe(p, toCheck, slot) ? finish(f.apply(slot.getInt())) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultCaseMatcher<I, O> caseLong(Function<? super I, OptionalLong> p, LongFunction<? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        final ProbeSlot slot = slot();
+        return OptionalLongMapper.probe(p, toCheck, slot) ? finish(f.apply(slot.getLong())) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultCaseMatcher<I, O> caseDouble(Function<? super I, OptionalDouble> p, DoubleFunction<? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        final ProbeSlot slot = slot();
+        return OptionalDoubleMapper.probe(p, toCheck, slot) ? finish(f.apply(slot.getDouble())) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultCaseMatcher<I, O> caseTokens(Tokens tokens, Predicate<? super Tokens> p, Function<? super Tokens, ? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(tokens);
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return split(tokens) && p.test(tokens) ? finish(f.apply(tokens)) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<O> result() {
+        return found ? Optional.ofNullable(result) : Optional.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void ifResult(Consumer<? super O> consumer) throws NullPointerException {
+        Objects.requireNonNull(consumer);
+        final O result = this.result;
+        if (result != null) {
+            consumer.accept(result);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void then(Consumer<? super O> onResult, Runnable onAbsent) throws NullPointerException {
+        Objects.requireNonNull(onResult);
+        Objects.requireNonNull(onAbsent);
+        final O result = this.result;
+        if (result != null) {
+            onResult.accept(result);
+        } else {
+            onAbsent.run();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public O otherwise(O o) {
+        // result of matching case is returned, even if it is null
+        return found ? result : o;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public O otherwise(Function<? super I, ? extends O> supplier) throws NullPointerException {
+        Objects.requireNonNull(supplier);
+        return found ? result : supplier.apply(toCheck);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <X extends Throwable> O otherwiseThrow(Supplier<X> exSupplier) throws X, NullPointerException {
+        Objects.requireNonNull(exSupplier);
+        if (found) {
+            return result;
+        }
+        throw Objects.requireNonNull(exSupplier.get());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public O orElse(O o) throws NullPointerException {
+        Objects.requireNonNull(o);
+        // a null result is treated like an absent result (result is only set if a case matched)
+        final O result = this.result;
+        return result != null ? result : o;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public O orElse(Supplier<? extends O> supplier) throws NullPointerException {
+        Objects.requireNonNull(supplier);
+        final O result = this.result;
+        return result != null ? result : Objects.requireNonNull(supplier.get());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <X extends Throwable> O orElseThrow(Supplier<X> exSupplier) throws X, NullPointerException {
+        Objects.requireNonNull(exSupplier);
+        final O result = this.result;
+        if (result != null) {
+            return result;
+        }
+        throw Objects.requireNonNull(exSupplier.get());
+    }
+}
@@ -15,6 +15,12 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import de.boereck.matcher.ResultCaseMatcher;
+import de.boereck.matcher.function.optionalmap.OptionalDoubleMapper;
+import de.boereck.matcher.function.optionalmap.OptionalIntMapper;
+import de.boereck.matcher.function.optionalmap.OptionalLongMapper;
+import de.boereck.matcher.function.optionalmap.OptionalMapper;
+import de.boereck.matcher.function.optionalmap.ProbeSlot;
+import de.boereck.matcher.helpers.Tokens;
 
 /**
  * Eager implementation of {@link ResultCaseMatcher}. To instantiate use static method {@link EagerMatcher#resultMatch(Object)}.
@@ -42,6 +48,23 @@ final class ResultCaseMatcherUnfinished<I, O> implements EagerResultCaseMatcher<
         this.toCheck = toCheck;
     }
 
+    /**
+     * Splits the input into {@code tokens}, unless the buffer already holds the tokens of the input, e.g. split by a
+     * previous case. The buffer is checked instead of remembering it, since it may have been re-split by other code
+     * in the meantime.
+     *
+     * @return {@code false} if the input is no {@link CharSequence} and cannot be split
+     */
+    private boolean split(Tokens tokens) {
+        if (!(toCheck instanceof CharSequence)) {
+            return false;
+        }
+        if (tokens.source() != toCheck) {
+            tokens.split((CharSequence) toCheck);
+        }
+        return true;
+    }
+
     /**
      * If the {@code condition} is {@code true}, the {@code consumer} function will be called
      * with the object {@link de.boereck.matcher.eager.ResultCaseMatcherUnfinished#toCheck toCheck}. The result will be
@@ -160,9 +183,9 @@ final class ResultCaseMatcherUnfinished<I, O> implements EagerResultCaseMatcher<
     public <T> EagerResultCaseMatcher<I, O> caseObj(Function<? super I, Optional<T>> p, Function<? super T, ? extends O> consumer) {
         Objects.requireNonNull(p);
         Objects.requireNonNull(consumer);
-        final Optional<T> opt = p.apply(toCheck);
-        if (opt.isPresent()) {
-            final O result = consumer.apply(opt.get());
+        final T value = OptionalMapper.probe(p, toCheck);
+        if (value != null) {
+            final O result = consumer.apply(value);
             return new ResultCaseMatcherFinished<I, O>(result);
         } else {
             return this;
@@ -176,9 +199,9 @@ final class ResultCaseMatcherUnfinished<I, O> implements EagerResultCaseMatcher<
     public EagerResultCaseMatcher<I, O> caseInt(Function<? super I, OptionalInt> p, IntFunction<? extends O> consumer) {
         Objects.requireNonNull(p);
         Objects.requireNonNull(consumer);
-        final OptionalInt opt = p.apply(toCheck);
-        if (opt.isPresent()) {
-            final O result = consumer.apply(opt.getAsInt());
+        final ProbeSlot slot = new ProbeSlot();
+        if (OptionalIntMapper.probe(p, toCheck, slot)) {
+            final O result = consumer.apply(slot.getInt());
             return new ResultCaseMatcherFinished<I, O>(result);
         } else {
             return this;
@@ -192,9 +215,9 @@ final class ResultCaseMatcherUnfinished<I, O> implements EagerResultCaseMatcher<
     public EagerResultCaseMatcher<I, O> caseLong(Function<? super I, OptionalLong> p, LongFunction<? extends O> consumer) {
         Objects.requireNonNull(p);
         Objects.requireNonNull(consumer);
-        final OptionalLong opt = p.apply(toCheck);
-        if (opt.isPresent()) {
-            final O result = consumer.apply(opt.getAsLong());
+        final ProbeSlot slot = new ProbeSlot();
+        if (OptionalLongMapper.probe(p, toCheck, slot)) {
+            final O result = consumer.apply(slot.getLong());
             return new ResultCaseMatcherFinished<I, O>(result);
         } else {
             return this;
@@ -208,9 +231,25 @@ final class ResultCaseMatcherUnfinished<I, O> implements EagerResultCaseMatcher<
     public EagerResultCaseMatcher<I, O> caseDouble(Function<? super I, OptionalDouble> p, DoubleFunction<? extends O> consumer) {
         Objects.requireNonNull(p);
         Objects.requireNonNull(consumer);
-        final OptionalDouble opt = p.apply(toCheck);
-        if (opt.isPresent()) {
-            final O result = consumer.apply(opt.getAsDouble());
+        final ProbeSlot slot = new ProbeSlot();
+        if (OptionalDoubleMapper.probe(p, toCheck, slot)) {
+            final O result = consumer.apply(slot.getDouble());
+            return new ResultCaseMatcherFinished<I, O>(result);
+        } else {
+            return this;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultCaseMatcher<I, O> caseTokens(Tokens tokens, Predicate<? super Tokens> p, Function<? super Tokens, ? extends O> f) {
+        Objects.requireNonNull(tokens);
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        if (split(tokens) && p.test(tokens)) {
+            final O result = f.apply(tokens);
             return new ResultCaseMatcherFinished<I, O>(result);
         } else {
             return this;
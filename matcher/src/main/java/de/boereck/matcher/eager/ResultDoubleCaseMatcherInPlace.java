@@ -0,0 +1,290 @@
+package de.boereck.matcher.eager;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+import de.boereck.matcher.ResultDoubleCaseMatcher;
+
+/**
+ * Eager implementation of {@link ResultDoubleCaseMatcher} that records the result of the matching case in its own fields instead of
+ * creating a new matcher holding an {@link Optional} when a case matches. To instantiate use static method
+ * {@link EagerMatcher#resultMatchInPlace(double)}. The result is kept as raw value together with a flag stating if a case matched, so a chain of
+ * cases closed by one of the methods returning the raw result (e.g. {@link #otherwise(Object) otherwise} or
+ * {@link #orElse(Object) orElse}) does not allocate any object besides the matcher itself, which can be removed by the
+ * JIT compiler's escape analysis. Only {@link #result()} creates an {@code Optional}.
+ * <p>
+ * Since every case method returns this instance, matchers of this class must not be used to branch off multiple chains
+ * of cases from a common prefix. This is fine for the usual fluent style, where the returned matcher of the previous
+ * case is only used to define the next case.
+ * </p>
+ *
+ * @param <O> type of the output object
+ * @author Max Bureck
+ */
+final class ResultDoubleCaseMatcherInPlace<O> implements EagerResultDoubleCaseMatcher<O> {
+
+    /**
+     * Value cases are defined for
+     */
+    private final double toCheck;
+
+    /**
+     * Result of the matching case, only valid if {@link #found} is {@code true}. May be {@code null}.
+     */
+    private O result;
+
+    /**
+     * Set to {@code true} when a case matched
+     */
+    private boolean found;
+
+    /**
+     * Package private constructor. Should only be called from {@link EagerMatcher#resultMatchInPlace(double)}.
+     *
+     * @param toCheck value cases are defined for.
+     */
+    ResultDoubleCaseMatcherInPlace(double toCheck) {
+        this.toCheck = toCheck;
+    }
+
+    /**
+     * Records the given {@code result} of the matching case.
+     *
+     * @param result result of the matching case, may be {@code null}.
+     * @return {@code this}
+     */
+    private EagerResultDoubleCaseMatcher<O> finish(O result) {
+        this.result = result;
+        this.found = true;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultDoubleCaseMatcher<O> caseOf(DoublePredicate p, DoubleFunction<? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        return p.test(toCheck) ? finish(f.apply(toCheck)) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultDoubleCaseMatcher<O> caseOf(BooleanSupplier s, DoubleFunction<? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(s);
+        Objects.requireNonNull(f);
+        return s.getAsBoolean() ? finish(f.apply(toCheck)) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultDoubleCaseMatcher<O> caseOf(boolean test, DoubleFunction<? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(f);
+        return test ? finish(f.apply(toCheck)) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultDoubleCaseMatcher<O> caseIs(DoublePredicate p, Supplier<? extends O> supplier) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(supplier);
+        return p.test(toCheck) ? finish(supplier.get()) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultDoubleCaseMatcher<O> caseIs(boolean test, Supplier<? extends O> supplier) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(supplier);
+        return test ? finish(supplier.get()) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> EagerResultDoubleCaseMatcher<O> caseObj(DoubleFunction<Optional<T>> p, Function<? super T, ? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        final Optional<T> opt = p.apply(toCheck);
+        return opt.isPresent() ? finish(f.apply(opt.get())) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultDoubleCaseMatcher<O> caseInt(DoubleFunction<OptionalInt> p, IntFunction<? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        final OptionalInt opt = p.apply(toCheck);
+        return opt.isPresent() ? finish(f.apply(opt.getAsInt())) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultDoubleCaseMatcher<O> caseLong(DoubleFunction<OptionalLong> p, LongFunction<? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        final OptionalLong opt = p.apply(toCheck);
+        return opt.isPresent() ? finish(f.apply(opt.getAsLong())) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EagerResultDoubleCaseMatcher<O> caseDouble(DoubleFunction<OptionalDouble> p, DoubleFunction<? extends O> f) throws NullPointerException {
+        if (found) {
+            return this;
+        }
+        Objects.requireNonNull(p);
+        Objects.requireNonNull(f);
+        final OptionalDouble opt = p.apply(toCheck);
+        return opt.isPresent() ? finish(f.apply(opt.getAsDouble())) : this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<O> result() {
+        return found ? Optional.ofNullable(result) : Optional.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void ifResult(Consumer<? super O> consumer) throws NullPointerException {
+        Objects.requireNonNull(consumer);
+        final O result = this.result;
+        if (result != null) {
+            consumer.accept(result);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void then(Consumer<? super O> onResult, Runnable onAbsent) throws NullPointerException {
+        Objects.requireNonNull(onResult);
+        Objects.requireNonNull(onAbsent);
+        final O result = this.result;
+        if (result != null) {
+            onResult.accept(result);
+        } else {
+            onAbsent.run();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public O otherwise(O o) {
+        // result of matching case is returned, even if it is null
+        return found ? result : o;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public O otherwise(DoubleFunction<? extends O> supplier) throws NullPointerException {
+        Objects.requireNonNull(supplier);
+        return found ? result : supplier.apply(toCheck);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <X extends Throwable> O otherwiseThrow(Supplier<X> exSupplier) throws X, NullPointerException {
+        Objects.requireNonNull(exSupplier);
+        if (found) {
+            return result;
+        }
+        throw Objects.requireNonNull(exSupplier.get());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public O orElse(O o) throws NullPointerException {
+        Objects.requireNonNull(o);
+        // a null result is treated like an absent result (result is only set if a case matched)
+        final O result = this.result;
+        return result != null ? result : o;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public O orElse(Supplier<? extends O> supplier) throws NullPointerException {
+        Objects.requireNonNull(supplier);
+        final O result = this.result;
+        return result != null ? result : Objects.requireNonNull(supplier.get());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <X extends Throwable> O orElseThrow(Supplier<X> exSupplier) throws X, NullPointerException {
+        Objects.requireNonNull(exSupplier);
+        final O result = this.result;
+        if (result != null) {
+            return result;
+        }
+        throw Objects.requireNonNull(exSupplier.get());
+    }
+}
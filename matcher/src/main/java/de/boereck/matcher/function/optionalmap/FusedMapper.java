@@ -0,0 +1,141 @@
+package de.boereck.matcher.function.optionalmap;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * OptionalMapper running a list of stages recorded by the combinators {@link OptionalMapper#map(Function) map},
+ * {@link OptionalMapper#flatMap(Function) flatMap}, {@link OptionalMapper#filter(Predicate) filter},
+ * {@link OptionalMapper#filter(Class) filter(Class)} and {@link OptionalMapper#nullAware() nullAware}. Instead of
+ * nesting one function per stage, every combinator returns a new fused mapper with the stage appended to a copy of the
+ * stage list. All stages then run in a single loop, passing the current value from stage to stage, where {@code null}
+ * stands for an empty optional. The loop starts with the result of probing a head mapper (or with the input, if there
+ * is no head) and only {@link #apply(Object) apply} wraps the final value in an {@code Optional}.
+ * <p>
+ * Fused mappers are immutable, so a chain can be shared and extended into several chains.
+ * </p>
+ *
+ * @param <I> type of input to function
+ * @param <O> type of optional output of function
+ * @author Max Bureck
+ */
+final class FusedMapper<I, O> implements OptionalMapper<I, O> {
+
+    static final int MAP = 0;
+
+    static final int FLAT_MAP = 1;
+
+    static final int FILTER = 2;
+
+    static final int FILTER_CLASS = 3;
+
+    private static final int[] NO_KINDS = new int[0];
+
+    private static final Object[] NO_STAGES = new Object[0];
+
+    /**
+     * Mapper computing the value passed to the first stage, if {@code null} the input itself is passed.
+     */
+    private final OptionalMapper<? super I, ?> head;
+
+    /**
+     * If {@code true}, a {@code null} input results in an empty optional without calling {@link #head}.
+     */
+    private final boolean nullAware;
+
+    /**
+     * Kind of every stage, one of {@link #MAP}, {@link #FLAT_MAP}, {@link #FILTER} and {@link #FILTER_CLASS}.
+     */
+    private final int[] kinds;
+
+    /**
+     * Function, predicate or class of every stage, at the same index as its kind.
+     */
+    private final Object[] stages;
+
+    private FusedMapper(OptionalMapper<? super I, ?> head, boolean nullAware, int[] kinds, Object[] stages) {
+        this.head = head;
+        this.nullAware = nullAware;
+        this.kinds = kinds;
+        this.stages = stages;
+    }
+
+    /**
+     * Returns a fused mapper without stages, wrapping its input in an optional.
+     */
+    static <I> FusedMapper<I, I> ofNullable() {
+        return new FusedMapper<>(null, false, NO_KINDS, NO_STAGES);
+    }
+
+    /**
+     * Returns {@code mapper} if it is a fused mapper, otherwise a fused mapper without stages using {@code mapper} as
+     * head.
+     */
+    static <I, O> FusedMapper<I, O> of(OptionalMapper<I, O> mapper) {
+        if (mapper instanceof FusedMapper) {
+            return (FusedMapper<I, O>) mapper;
+        }
+        return new FusedMapper<>(mapper, false, NO_KINDS, NO_STAGES);
+    }
+
+    /**
+     * Returns a fused mapper running the stages of this mapper and afterwards the stage of the given {@code kind}.
+     */
+    <V> FusedMapper<I, V> then(int kind, Object stage) {
+        final int length = kinds.length;
+        final int[] kinds = Arrays.copyOf(this.kinds, length + 1);
+        final Object[] stages = Arrays.copyOf(this.stages, length + 1);
+        kinds[length] = kind;
+        stages[length] = stage;
+        return new FusedMapper<>(head, nullAware, kinds, stages);
+    }
+
+    /**
+     * Returns a fused mapper running the stages of this mapper, but checking its input for {@code null} first. Since
+     * {@code null} values stop the stage loop anyway, this check covers all stages, no matter where in the chain
+     * {@code nullAware} was called.
+     */
+    FusedMapper<I, O> nullChecking() {
+        return nullAware ? this : new FusedMapper<>(head, true, kinds, stages);
+    }
+
+    @Override
+    public Optional<O> apply(I input) {
+        return Optional.ofNullable(probe(input));
+    }
+
+    @SuppressWarnings("unchecked") // the stages were appended by the combinators of OptionalMapper in a typesafe way
+    @Override
+    public O probe(I input) {
+        if (input == null && nullAware) {
+            return null;
+        }
+        Object value = head == null ? input : head.probe(input);
+        final int[] kinds = this.kinds;
+        final Object[] stages = this.stages;
+        for (int k = 0; value != null && k < kinds.length; k++) {
+            final Object stage = stages[k];
+            switch (kinds[k]) {
+                case MAP:
+                    value = ((Function<Object, Object>) stage).apply(value);
+                    break;
+                case FLAT_MAP:
+                    // like Optional#flatMap, a null result of the function throws a NullPointerException
+                    value = ((Function<Object, Optional<?>>) stage).apply(value).orElse(null);
+                    break;
+                case FILTER:
+                    if (!((Predicate<Object>) stage).test(value)) {
+                        value = null;
+                    }
+                    break;
+                default:
+                    if (!((Class<?>) stage).isInstance(value)) {
+                        value = null;
+                    }
+            }
+        }
+        return (O) value;
+    }
+}
@@ -0,0 +1,22 @@
+package de.boereck.matcher.function.optionalmap;
+
+/**
+ * Function computing an optional int value for an input of type I without allocating an {@link java.util.OptionalInt}.
+ * If the function has a result, it stores the value in the given {@link ProbeSlot} and returns {@code true}. Use
+ * {@link OptionalIntMapper#ofProbe(IntProbe)} to create an {@link OptionalIntMapper} from a probe.
+ *
+ * @param <I> Type of input to the function
+ * @author Max Bureck
+ */
+@FunctionalInterface
+public interface IntProbe<I> {
+
+    /**
+     * Computes the result for {@code input}. If there is a result, it is stored via {@link ProbeSlot#setInt(int)}.
+     *
+     * @param input input to compute the result for
+     * @param slot  receives the result, if there is one
+     * @return {@code true} if a result was stored in {@code slot}, {@code false} if there is no result
+     */
+    boolean probe(I input, ProbeSlot slot);
+}
@@ -19,6 +19,63 @@ import java.util.function.*;
 @FunctionalInterface
 public interface OptionalDoubleMapper<I> extends Function<I, OptionalDouble> {
 
+    /**
+     * Calls this OptionalDoubleMapper with {@code input} and, if the result holds a value, stores the value in
+     * {@code slot}. Mappers created by the combinators of this interface override this method, so they pass the
+     * values of all steps through {@code slot} instead of allocating an {@code OptionalDouble} per step. If this
+     * OptionalDoubleMapper returns {@code null}, it is treated as an empty optional.
+     *
+     * @param input input to this OptionalDoubleMapper
+     * @param slot  receives the value of the result, if there is one. Must not be {@code null}.
+     * @return {@code true} if the result holds a value, which was stored via {@link ProbeSlot#setDouble(double)}
+     */
+    default boolean probe(I input, ProbeSlot slot) {
+        final OptionalDouble result = apply(input);
+        if (result != null && result.isPresent()) {
+            slot.setDouble(result.getAsDouble());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns an OptionalDoubleMapper that probes with {@code probe}. Applying the mapper wraps the stored value in an
+     * {@code OptionalDouble}, probing it calls {@code probe} directly.
+     *
+     * @param probe computes the results of the returned mapper. Must not be {@code null}.
+     * @param <I>   Type of input to the function
+     * @return mapper implemented by {@code probe}
+     * @throws NullPointerException if {@code probe} is {@code null}.
+     */
+    static <I> OptionalDoubleMapper<I> ofProbe(DoubleProbe<I> probe) throws NullPointerException {
+        Objects.requireNonNull(probe);
+        return new ProbingMappers.DoubleMapper<>(probe);
+    }
+
+    /**
+     * Probes any function returning an {@code OptionalDouble}. If {@code f} is an OptionalDoubleMapper, its
+     * {@link #probe(Object, ProbeSlot) probe} method is used, otherwise {@code f} is applied and the value of the
+     * result, which must not be {@code null}, is stored in {@code slot}.
+     *
+     * @param f     function to probe. Must not be {@code null}.
+     * @param input input to {@code f}
+     * @param slot  receives the value of the result, if there is one. Must not be {@code null}.
+     * @param <I>   Type of input to the function
+     * @return {@code true} if the result holds a value, which was stored via {@link ProbeSlot#setDouble(double)}
+     */
+    @SuppressWarnings("unchecked") // the mapper accepts I, since f does
+    static <I> boolean probe(Function<? super I, OptionalDouble> f, I input, ProbeSlot slot) {
+        if (f instanceof OptionalDoubleMapper) {
+            return ((OptionalDoubleMapper<? super I>) f).probe(input, slot);
+        }
+        final OptionalDouble result = f.apply(input);
+        if (result.isPresent()) {
+            slot.setDouble(result.getAsDouble());
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Returns a function that will first call this OptionalDoubleMapper and afterwards calls
      * checks if the OptionalDouble contains a value. If so, the value in the optional will be used as an input to
@@ -57,15 +114,13 @@ public interface OptionalDoubleMapper<I> extends Function<I, OptionalDouble> {
      */
     default OptionalIntMapper<I> mapI(DoubleToIntFunction after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalDouble thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final int afterResult = after.applyAsInt(thisResult.getAsDouble());
-                return OptionalInt.of(afterResult);
-            } else {
-                return OptionalInt.empty();
+        return OptionalIntMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                slot.setInt(after.applyAsInt(slot.getDouble()));
+                return true;
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -81,15 +136,13 @@ public interface OptionalDoubleMapper<I> extends Function<I, OptionalDouble> {
      */
     default OptionalLongMapper<I> mapL(DoubleToLongFunction after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalDouble thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final long afterResult = after.applyAsLong(thisResult.getAsDouble());
-                return OptionalLong.of(afterResult);
-            } else {
-                return OptionalLong.empty();
+        return OptionalLongMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                slot.setLong(after.applyAsLong(slot.getDouble()));
+                return true;
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -105,15 +158,13 @@ public interface OptionalDoubleMapper<I> extends Function<I, OptionalDouble> {
      */
     default OptionalDoubleMapper<I> mapD(DoubleUnaryOperator after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalDouble thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final double afterResult = after.applyAsDouble(thisResult.getAsDouble());
-                return OptionalDouble.of(afterResult);
-            } else {
-                return OptionalDouble.empty();
+        return OptionalDoubleMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                slot.setDouble(after.applyAsDouble(slot.getDouble()));
+                return true;
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -159,14 +210,16 @@ public interface OptionalDoubleMapper<I> extends Function<I, OptionalDouble> {
      */
     default OptionalIntMapper<I> flatMapI(DoubleFunction<OptionalInt> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalDouble thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                return after.apply(thisResult.getAsDouble());
-            } else {
-                return OptionalInt.empty();
+        return OptionalIntMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                final OptionalInt afterResult = after.apply(slot.getDouble());
+                if (afterResult != null && afterResult.isPresent()) {
+                    slot.setInt(afterResult.getAsInt());
+                    return true;
+                }
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -185,14 +238,16 @@ public interface OptionalDoubleMapper<I> extends Function<I, OptionalDouble> {
      */
     default OptionalLongMapper<I> flatMapL(DoubleFunction<OptionalLong> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalDouble thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                return after.apply(thisResult.getAsDouble());
-            } else {
-                return OptionalLong.empty();
+        return OptionalLongMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                final OptionalLong afterResult = after.apply(slot.getDouble());
+                if (afterResult != null && afterResult.isPresent()) {
+                    slot.setLong(afterResult.getAsLong());
+                    return true;
+                }
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -211,14 +266,16 @@ public interface OptionalDoubleMapper<I> extends Function<I, OptionalDouble> {
      */
     default OptionalDoubleMapper<I> flatMapD(DoubleFunction<OptionalDouble> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalDouble thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                return after.apply(thisResult.getAsDouble());
-            } else {
-                return OptionalDouble.empty();
+        return OptionalDoubleMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                final OptionalDouble afterResult = after.apply(slot.getDouble());
+                if (afterResult != null && afterResult.isPresent()) {
+                    slot.setDouble(afterResult.getAsDouble());
+                    return true;
+                }
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -237,14 +294,7 @@ public interface OptionalDoubleMapper<I> extends Function<I, OptionalDouble> {
      */
     default OptionalDoubleMapper<I> filter(DoublePredicate after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalDouble thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent() && after.test(thisResult.getAsDouble())) {
-                return thisResult;
-            } else {
-                return OptionalDouble.empty();
-            }
-        };
+        return ofProbe((I i, ProbeSlot slot) -> probe(i, slot) && after.test(slot.getDouble()));
     }
 
     /**
@@ -377,19 +427,7 @@ public interface OptionalDoubleMapper<I> extends Function<I, OptionalDouble> {
      * If the result is {@code null}, an empty OptionalDouble will be returned.
      */
     default OptionalDoubleMapper<I> nullAware() {
-        return i -> {
-            // check if input is null
-            if (i == null) {
-                return OptionalDouble.empty();
-            }
-            final OptionalDouble result = this.apply(i);
-            // check if output is null
-            if (result != null) {
-                return result;
-            } else {
-                return OptionalDouble.empty();
-            }
-        };
+        return ofProbe((I i, ProbeSlot slot) -> i != null && probe(i, slot));
     }
 
     /**
@@ -19,6 +19,63 @@ import java.util.function.*;
 @FunctionalInterface
 public interface OptionalIntMapper<I> extends Function<I, OptionalInt> {
 
+    /**
+     * Calls this OptionalIntMapper with {@code input} and, if the result holds a value, stores the value in
+     * {@code slot}. Mappers created by the combinators of this interface override this method, so they pass the
+     * values of all steps through {@code slot} instead of allocating an {@code OptionalInt} per step. If this
+     * OptionalIntMapper returns {@code null}, it is treated as an empty optional.
+     *
+     * @param input input to this OptionalIntMapper
+     * @param slot  receives the value of the result, if there is one. Must not be {@code null}.
+     * @return {@code true} if the result holds a value, which was stored via {@link ProbeSlot#setInt(int)}
+     */
+    default boolean probe(I input, ProbeSlot slot) {
+        final OptionalInt result = apply(input);
+        if (result != null && result.isPresent()) {
+            slot.setInt(result.getAsInt());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns an OptionalIntMapper that probes with {@code probe}. Applying the mapper wraps the stored value in an
+     * {@code OptionalInt}, probing it calls {@code probe} directly.
+     *
+     * @param probe computes the results of the returned mapper. Must not be {@code null}.
+     * @param <I>   Type of input to the function
+     * @return mapper implemented by {@code probe}
+     * @throws NullPointerException if {@code probe} is {@code null}.
+     */
+    static <I> OptionalIntMapper<I> ofProbe(IntProbe<I> probe) throws NullPointerException {
+        Objects.requireNonNull(probe);
+        return new ProbingMappers.IntMapper<>(probe);
+    }
+
+    /**
+     * Probes any function returning an {@code OptionalInt}. If {@code f} is an OptionalIntMapper, its
+     * {@link #probe(Object, ProbeSlot) probe} method is used, otherwise {@code f} is applied and the value of the
+     * result, which must not be {@code null}, is stored in {@code slot}.
+     *
+     * @param f     function to probe. Must not be {@code null}.
+     * @param input input to {@code f}
+     * @param slot  receives the value of the result, if there is one. Must not be {@code null}.
+     * @param <I>   Type of input to the function
+     * @return {@code true} if the result holds a value, which was stored via {@link ProbeSlot#setInt(int)}
+     */
+    @SuppressWarnings("unchecked") // the mapper accepts I, since f does
+    static <I> boolean probe(Function<? super I, OptionalInt> f, I input, ProbeSlot slot) {
+        if (f instanceof OptionalIntMapper) {
+            return ((OptionalIntMapper<? super I>) f).probe(input, slot);
+        }
+        final OptionalInt result = f.apply(input);
+        if (result.isPresent()) {
+            slot.setInt(result.getAsInt());
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Returns a function that will first call this OptionalIntMapper and afterwards calls
      * checks if the OptionalInt contains a value. If so, the value in the optional will be used as an input to
@@ -57,15 +114,13 @@ public interface OptionalIntMapper<I> extends Function<I, OptionalInt> {
      */
     default OptionalIntMapper<I> mapI(IntUnaryOperator after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalInt thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final int afterResult = after.applyAsInt(thisResult.getAsInt());
-                return OptionalInt.of(afterResult);
-            } else {
-                return OptionalInt.empty();
+        return OptionalIntMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                slot.setInt(after.applyAsInt(slot.getInt()));
+                return true;
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -81,15 +136,13 @@ public interface OptionalIntMapper<I> extends Function<I, OptionalInt> {
      */
     default OptionalLongMapper<I> mapL(IntToLongFunction after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalInt thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final long afterResult = after.applyAsLong(thisResult.getAsInt());
-                return OptionalLong.of(afterResult);
-            } else {
-                return OptionalLong.empty();
+        return OptionalLongMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                slot.setLong(after.applyAsLong(slot.getInt()));
+                return true;
             }
-        };
+            return false;
+        });
     }
 
 
@@ -106,15 +159,13 @@ public interface OptionalIntMapper<I> extends Function<I, OptionalInt> {
      */
     default OptionalDoubleMapper<I> mapD(IntToDoubleFunction after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalInt thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final double afterResult = after.applyAsDouble(thisResult.getAsInt());
-                return OptionalDouble.of(afterResult);
-            } else {
-                return OptionalDouble.empty();
+        return OptionalDoubleMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                slot.setDouble(after.applyAsDouble(slot.getInt()));
+                return true;
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -160,14 +211,16 @@ public interface OptionalIntMapper<I> extends Function<I, OptionalInt> {
      */
     default OptionalIntMapper<I> flatMapI(IntFunction<OptionalInt> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalInt thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                return after.apply(thisResult.getAsInt());
-            } else {
-                return OptionalInt.empty();
+        return OptionalIntMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                final OptionalInt afterResult = after.apply(slot.getInt());
+                if (afterResult != null && afterResult.isPresent()) {
+                    slot.setInt(afterResult.getAsInt());
+                    return true;
+                }
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -186,14 +239,16 @@ public interface OptionalIntMapper<I> extends Function<I, OptionalInt> {
      */
     default OptionalLongMapper<I> flatMapL(IntFunction<OptionalLong> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalInt thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                return after.apply(thisResult.getAsInt());
-            } else {
-                return OptionalLong.empty();
+        return OptionalLongMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                final OptionalLong afterResult = after.apply(slot.getInt());
+                if (afterResult != null && afterResult.isPresent()) {
+                    slot.setLong(afterResult.getAsLong());
+                    return true;
+                }
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -212,14 +267,16 @@ public interface OptionalIntMapper<I> extends Function<I, OptionalInt> {
      */
     default OptionalDoubleMapper<I> flatMapD(IntFunction<OptionalDouble> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalInt thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                return after.apply(thisResult.getAsInt());
-            } else {
-                return OptionalDouble.empty();
+        return OptionalDoubleMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                final OptionalDouble afterResult = after.apply(slot.getInt());
+                if (afterResult != null && afterResult.isPresent()) {
+                    slot.setDouble(afterResult.getAsDouble());
+                    return true;
+                }
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -238,14 +295,7 @@ public interface OptionalIntMapper<I> extends Function<I, OptionalInt> {
      */
     default OptionalIntMapper<I> filter(IntPredicate after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalInt thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent() && after.test(thisResult.getAsInt())) {
-                return thisResult;
-            } else {
-                return OptionalInt.empty();
-            }
-        };
+        return ofProbe((I i, ProbeSlot slot) -> probe(i, slot) && after.test(slot.getInt()));
     }
 
     /**
@@ -379,19 +429,7 @@ public interface OptionalIntMapper<I> extends Function<I, OptionalInt> {
      * If the result is {@code null}, an empty OptionalInt will be returned.
      */
     default OptionalIntMapper<I> nullAware() {
-        return i -> {
-            // check if input is null
-            if (i == null) {
-                return OptionalInt.empty();
-            }
-            final OptionalInt result = this.apply(i);
-            // check if output is null
-            if (result != null) {
-                return result;
-            } else {
-                return OptionalInt.empty();
-            }
-        };
+        return ofProbe((I i, ProbeSlot slot) -> i != null && probe(i, slot));
     }
 
     /**
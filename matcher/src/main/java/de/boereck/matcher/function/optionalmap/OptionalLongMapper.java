@@ -20,6 +20,63 @@ import java.util.function.*;
 @FunctionalInterface
 public interface OptionalLongMapper<I> extends Function<I, OptionalLong> {
 
+    /**
+     * Calls this OptionalLongMapper with {@code input} and, if the result holds a value, stores the value in
+     * {@code slot}. Mappers created by the combinators of this interface override this method, so they pass the
+     * values of all steps through {@code slot} instead of allocating an {@code OptionalLong} per step. If this
+     * OptionalLongMapper returns {@code null}, it is treated as an empty optional.
+     *
+     * @param input input to this OptionalLongMapper
+     * @param slot  receives the value of the result, if there is one. Must not be {@code null}.
+     * @return {@code true} if the result holds a value, which was stored via {@link ProbeSlot#setLong(long)}
+     */
+    default boolean probe(I input, ProbeSlot slot) {
+        final OptionalLong result = apply(input);
+        if (result != null && result.isPresent()) {
+            slot.setLong(result.getAsLong());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns an OptionalLongMapper that probes with {@code probe}. Applying the mapper wraps the stored value in an
+     * {@code OptionalLong}, probing it calls {@code probe} directly.
+     *
+     * @param probe computes the results of the returned mapper. Must not be {@code null}.
+     * @param <I>   Type of input to the function
+     * @return mapper implemented by {@code probe}
+     * @throws NullPointerException if {@code probe} is {@code null}.
+     */
+    static <I> OptionalLongMapper<I> ofProbe(LongProbe<I> probe) throws NullPointerException {
+        Objects.requireNonNull(probe);
+        return new ProbingMappers.LongMapper<>(probe);
+    }
+
+    /**
+     * Probes any function returning an {@code OptionalLong}. If {@code f} is an OptionalLongMapper, its
+     * {@link #probe(Object, ProbeSlot) probe} method is used, otherwise {@code f} is applied and the value of the
+     * result, which must not be {@code null}, is stored in {@code slot}.
+     *
+     * @param f     function to probe. Must not be {@code null}.
+     * @param input input to {@code f}
+     * @param slot  receives the value of the result, if there is one. Must not be {@code null}.
+     * @param <I>   Type of input to the function
+     * @return {@code true} if the result holds a value, which was stored via {@link ProbeSlot#setLong(long)}
+     */
+    @SuppressWarnings("unchecked") // the mapper accepts I, since f does
+    static <I> boolean probe(Function<? super I, OptionalLong> f, I input, ProbeSlot slot) {
+        if (f instanceof OptionalLongMapper) {
+            return ((OptionalLongMapper<? super I>) f).probe(input, slot);
+        }
+        final OptionalLong result = f.apply(input);
+        if (result.isPresent()) {
+            slot.setLong(result.getAsLong());
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Returns a function that will first call this OptionalLongMapper and afterwards
      * checks if the OptionalLong contains a value. If so, the value in the optional will be used as an input to
@@ -58,15 +115,13 @@ public interface OptionalLongMapper<I> extends Function<I, OptionalLong> {
      */
     default OptionalIntMapper<I> mapI(LongToIntFunction after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalLong thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final int afterResult = after.applyAsInt(thisResult.getAsLong());
-                return OptionalInt.of(afterResult);
-            } else {
-                return OptionalInt.empty();
+        return OptionalIntMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                slot.setInt(after.applyAsInt(slot.getLong()));
+                return true;
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -82,15 +137,13 @@ public interface OptionalLongMapper<I> extends Function<I, OptionalLong> {
      */
     default OptionalLongMapper<I> mapL(LongUnaryOperator after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalLong thisResult = apply(i);
-            if (thisResult!=null && thisResult.isPresent()) {
-                final long afterResult = after.applyAsLong(thisResult.getAsLong());
-                return OptionalLong.of(afterResult);
-            } else {
-                return OptionalLong.empty();
+        return OptionalLongMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                slot.setLong(after.applyAsLong(slot.getLong()));
+                return true;
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -106,15 +159,13 @@ public interface OptionalLongMapper<I> extends Function<I, OptionalLong> {
      */
     default OptionalDoubleMapper<I> mapD(LongToDoubleFunction after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalLong thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final double afterResult = after.applyAsDouble(thisResult.getAsLong());
-                return OptionalDouble.of(afterResult);
-            } else {
-                return OptionalDouble.empty();
+        return OptionalDoubleMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                slot.setDouble(after.applyAsDouble(slot.getLong()));
+                return true;
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -160,14 +211,16 @@ public interface OptionalLongMapper<I> extends Function<I, OptionalLong> {
      */
     default OptionalIntMapper<I> flatMapI(LongFunction<OptionalInt> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalLong thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                return after.apply(thisResult.getAsLong());
-            } else {
-                return OptionalInt.empty();
+        return OptionalIntMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                final OptionalInt afterResult = after.apply(slot.getLong());
+                if (afterResult != null && afterResult.isPresent()) {
+                    slot.setInt(afterResult.getAsInt());
+                    return true;
+                }
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -186,14 +239,16 @@ public interface OptionalLongMapper<I> extends Function<I, OptionalLong> {
      */
     default OptionalLongMapper<I> flatMapL(LongFunction<OptionalLong> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalLong thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                return after.apply(thisResult.getAsLong());
-            } else {
-                return OptionalLong.empty();
+        return OptionalLongMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                final OptionalLong afterResult = after.apply(slot.getLong());
+                if (afterResult != null && afterResult.isPresent()) {
+                    slot.setLong(afterResult.getAsLong());
+                    return true;
+                }
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -212,14 +267,16 @@ public interface OptionalLongMapper<I> extends Function<I, OptionalLong> {
      */
     default OptionalDoubleMapper<I> flatMapD(LongFunction<OptionalDouble> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalLong thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                return after.apply(thisResult.getAsLong());
-            } else {
-                return OptionalDouble.empty();
+        return OptionalDoubleMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (probe(i, slot)) {
+                final OptionalDouble afterResult = after.apply(slot.getLong());
+                if (afterResult != null && afterResult.isPresent()) {
+                    slot.setDouble(afterResult.getAsDouble());
+                    return true;
+                }
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -238,14 +295,7 @@ public interface OptionalLongMapper<I> extends Function<I, OptionalLong> {
      */
     default OptionalLongMapper<I> filter(LongPredicate after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final OptionalLong thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent() && after.test(thisResult.getAsLong())) {
-                return thisResult;
-            } else {
-                return OptionalLong.empty();
-            }
-        };
+        return ofProbe((I i, ProbeSlot slot) -> probe(i, slot) && after.test(slot.getLong()));
     }
 
     /**
@@ -380,19 +430,7 @@ public interface OptionalLongMapper<I> extends Function<I, OptionalLong> {
      * If the result is {@code null}, an empty OptionalLong will be returned.
      */
     default OptionalLongMapper<I> nullAware() {
-        return i -> {
-            // check if input is null
-            if (i == null) {
-                return OptionalLong.empty();
-            }
-            final OptionalLong result = this.apply(i);
-            // check if output is null
-            if (result != null) {
-                return result;
-            } else {
-                return OptionalLong.empty();
-            }
-        };
+        return ofProbe((I i, ProbeSlot slot) -> i != null && probe(i, slot));
     }
 
     /**
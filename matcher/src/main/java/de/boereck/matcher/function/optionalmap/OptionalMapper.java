@@ -22,6 +22,53 @@ import de.boereck.matcher.helpers.MatchHelpers;
 @FunctionalInterface
 public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
 
+    /**
+     * Calls this OptionalMapper with {@code input} and returns the value of the result, or {@code null} if the result
+     * is empty or {@code null}. Since optionals never hold {@code null}, this reports the result without allocating
+     * an {@code Optional}. Mappers created by {@link #map(Function) map}, {@link #flatMap(Function) flatMap},
+     * {@link #filter(Predicate) filter}, {@link #filter(Class) filter(Class)} and {@link #nullAware() nullAware}
+     * record their stages in a single fused mapper, which overrides this method to run all stages in one loop
+     * without creating intermediate optionals.
+     *
+     * @param input input to this OptionalMapper
+     * @return value of the optional result, or {@code null} if there is no result.
+     */
+    default O probe(I input) {
+        final Optional<O> result = apply(input);
+        return result != null ? result.orElse(null) : null;
+    }
+
+    /**
+     * Returns an OptionalMapper wrapping its input in an optional, which is empty if the input is {@code null}.
+     * Combinators called on the returned mapper are fused into a single mapper, so a chain starting with this mapper
+     * only creates an {@code Optional} when it is applied, not when it is {@link #probe(Object) probed}.
+     *
+     * @param <I> type of input to function
+     * @return mapper wrapping its input in an optional
+     */
+    static <I> OptionalMapper<I, I> ofNullable() {
+        return FusedMapper.ofNullable();
+    }
+
+    /**
+     * Probes any function returning an {@code Optional}. If {@code f} is an OptionalMapper, its
+     * {@link #probe(Object) probe} method is used, otherwise {@code f} is applied and the value of the result, which
+     * must not be {@code null}, is returned.
+     *
+     * @param f     function to probe. Must not be {@code null}.
+     * @param input input to {@code f}
+     * @param <I>   type of input to function
+     * @param <O>   type of optional output of function
+     * @return value of the optional result, or {@code null} if there is no result.
+     */
+    @SuppressWarnings("unchecked") // the mapper accepts I, since f does
+    static <I, O> O probe(Function<? super I, Optional<O>> f, I input) {
+        if (f instanceof OptionalMapper) {
+            return ((OptionalMapper<? super I, O>) f).probe(input);
+        }
+        return f.apply(input).orElse(null);
+    }
+
     /**
      * Returns a {@code Function} that will first call this OptionalMapper and afterwards calls
      * the {@link Optional#map(Function) map} function of the returned {@code Optional}
@@ -38,10 +85,7 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      */
     default <V> OptionalMapper<I, V> map(Function<? super O, ? extends V> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final Optional<O> thisResult = apply(i);
-            return thisResult != null ? thisResult.map(after) : Optional.empty();
-        };
+        return FusedMapper.of(this).then(FusedMapper.MAP, after);
     }
 
     /**
@@ -60,15 +104,14 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      */
     default OptionalIntMapper<I> mapI(ToIntFunction<? super O> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final Optional<O> thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final O val = thisResult.get();
-                return OptionalInt.of(after.applyAsInt(val));
-            } else {
-                return OptionalInt.empty();
+        return OptionalIntMapper.ofProbe((I i, ProbeSlot slot) -> {
+            final O thisResult = probe(i);
+            if (thisResult != null) {
+                slot.setInt(after.applyAsInt(thisResult));
+                return true;
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -87,15 +130,14 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      */
     default OptionalLongMapper<I> mapL(ToLongFunction<? super O> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final Optional<O> thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final O val = thisResult.get();
-                return OptionalLong.of(after.applyAsLong(val));
-            } else {
-                return OptionalLong.empty();
+        return OptionalLongMapper.ofProbe((I i, ProbeSlot slot) -> {
+            final O thisResult = probe(i);
+            if (thisResult != null) {
+                slot.setLong(after.applyAsLong(thisResult));
+                return true;
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -114,15 +156,14 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      */
     default OptionalDoubleMapper<I> mapD(ToDoubleFunction<? super O> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final Optional<O> thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final O val = thisResult.get();
-                return OptionalDouble.of(after.applyAsDouble(val));
-            } else {
-                return OptionalDouble.empty();
+        return OptionalDoubleMapper.ofProbe((I i, ProbeSlot slot) -> {
+            final O thisResult = probe(i);
+            if (thisResult != null) {
+                slot.setDouble(after.applyAsDouble(thisResult));
+                return true;
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -142,10 +183,7 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      */
     default <V> OptionalMapper<I, V> flatMap(Function<? super O, Optional<V>> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final Optional<O> thisResult = apply(i);
-            return (thisResult != null) ? thisResult.flatMap(after) : Optional.empty();
-        };
+        return FusedMapper.of(this).then(FusedMapper.FLAT_MAP, after);
     }
 
     /**
@@ -163,15 +201,17 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      */
     default OptionalIntMapper<I> flatMapI(Function<? super O, OptionalInt> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final Optional<O> thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final O val = thisResult.get();
-                return after.apply(val);
-            } else {
-                return OptionalInt.empty();
+        return OptionalIntMapper.ofProbe((I i, ProbeSlot slot) -> {
+            final O thisResult = probe(i);
+            if (thisResult != null) {
+                final OptionalInt afterResult = after.apply(thisResult);
+                if (afterResult != null && afterResult.isPresent()) {
+                    slot.setInt(afterResult.getAsInt());
+                    return true;
+                }
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -189,15 +229,17 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      */
     default OptionalLongMapper<I> flatMapL(Function<? super O, OptionalLong> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final Optional<O> thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final O val = thisResult.get();
-                return after.apply(val);
-            } else {
-                return OptionalLong.empty();
+        return OptionalLongMapper.ofProbe((I i, ProbeSlot slot) -> {
+            final O thisResult = probe(i);
+            if (thisResult != null) {
+                final OptionalLong afterResult = after.apply(thisResult);
+                if (afterResult != null && afterResult.isPresent()) {
+                    slot.setLong(afterResult.getAsLong());
+                    return true;
+                }
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -215,15 +257,17 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      */
     default OptionalDoubleMapper<I> flatMapD(Function<? super O, OptionalDouble> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final Optional<O> thisResult = apply(i);
-            if (thisResult != null && thisResult.isPresent()) {
-                final O val = thisResult.get();
-                return after.apply(val);
-            } else {
-                return OptionalDouble.empty();
+        return OptionalDoubleMapper.ofProbe((I i, ProbeSlot slot) -> {
+            final O thisResult = probe(i);
+            if (thisResult != null) {
+                final OptionalDouble afterResult = after.apply(thisResult);
+                if (afterResult != null && afterResult.isPresent()) {
+                    slot.setDouble(afterResult.getAsDouble());
+                    return true;
+                }
             }
-        };
+            return false;
+        });
     }
 
     /**
@@ -242,10 +286,7 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      */
     default OptionalMapper<I, O> filter(Predicate<O> after) throws NullPointerException {
         Objects.requireNonNull(after);
-        return (I i) -> {
-            final Optional<O> thisResult = apply(i);
-            return (thisResult != null) ? thisResult.filter(after) : Optional.empty();
-        };
+        return FusedMapper.of(this).then(FusedMapper.FILTER, after);
     }
 
     /**
@@ -262,17 +303,9 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      * by class {@code clazz}.
      * @throws NullPointerException will be thrown if {@code clazz} is {@code null}.
      */
-    @SuppressWarnings("unchecked") // we know that Optional can only contain instance of R or be empty.
     default <R> OptionalMapper<I, R> filter(Class<R> clazz) throws NullPointerException {
         Objects.requireNonNull(clazz);
-        return (I i) -> {
-            final Optional<O> thisResult = apply(i);
-            if (thisResult != null) {
-                return (Optional<R>) thisResult.filter(clazz::isInstance);
-            } else {
-                return Optional.empty();
-            }
-        };
+        return FusedMapper.of(this).then(FusedMapper.FILTER_CLASS, clazz);
     }
 
     /**
@@ -283,10 +316,7 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      * is not {@code null} and holds a value.
      */
     default Predicate<I> hasResult() {
-        return i -> {
-            final Optional<O> thisResult = this.apply(i);
-            return (thisResult != null) && thisResult.isPresent();
-        };
+        return i -> this.probe(i) != null;
     }
 
     /**
@@ -301,8 +331,8 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
     default Predicate<I> hasResultAnd(Predicate<O> test) throws NullPointerException {
         Objects.requireNonNull(test);
         return i -> {
-            final Optional<O> result = apply(i);
-            return result != null && result.isPresent() && test.test(result.get());
+            final O result = probe(i);
+            return result != null && test.test(result);
         };
     }
 
@@ -339,9 +369,9 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
     default Consumer<I> thenIfPresent(Consumer<? super O> consumer) throws NullPointerException {
         Objects.requireNonNull(consumer);
         return i -> {
-            Optional<O> result = this.apply(i);
+            final O result = this.probe(i);
             if (result != null) {
-                result.ifPresent(consumer);
+                consumer.accept(result);
             }
         };
     }
@@ -359,12 +389,8 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      */
     default TestableFunction<I, O> orElse(O o) {
         return i -> {
-            Optional<O> result = this.apply(i);
-            if (result != null) {
-                return result.orElse(o);
-            } else {
-                return o;
-            }
+            final O result = this.probe(i);
+            return result != null ? result : o;
         };
     }
 
@@ -385,12 +411,8 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
     default TestableFunction<I, O> orElseGet(Supplier<O> supplier) throws NullPointerException {
         Objects.requireNonNull(supplier);
         return i -> {
-            Optional<O> result = this.apply(i);
-            if (result != null) {
-                return result.orElseGet(supplier);
-            } else {
-                return supplier.get();
-            }
+            final O result = this.probe(i);
+            return result != null ? result : supplier.get();
         };
     }
 
@@ -406,19 +428,7 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      * If the result is {@code null}, an empty Optional will be returned.
      */
     default OptionalMapper<I, O> nullAware() {
-        return i -> {
-            // check if input is null
-            if (i == null) {
-                return Optional.empty();
-            }
-            final Optional<O> result = this.apply(i);
-            // check if output is null
-            if (result != null) {
-                return result;
-            } else {
-                return Optional.empty();
-            }
-        };
+        return FusedMapper.of(this).nullChecking();
     }
 
     /**
@@ -563,11 +573,11 @@ public interface OptionalMapper<I, O> extends Function<I, Optional<O>> {
      */
     default  TestableFunction<I,O> partial() {
         return i -> {
-            Optional<O> result = apply(i);
-            if(result == null || !result.isPresent()) {
+            final O result = probe(i);
+            if (result == null) {
                 throw new NoSuchElementException();
             }
-            return result.get();
+            return result;
         };
     }
 }
\ No newline at end of file
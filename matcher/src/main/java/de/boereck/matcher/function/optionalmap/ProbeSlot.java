@@ -0,0 +1,72 @@
+package de.boereck.matcher.function.optionalmap;
+
+/**
+ * Mutable holder receiving the value of a successful probe of an {@link OptionalIntMapper}, {@link OptionalLongMapper}
+ * or {@link OptionalDoubleMapper}. A slot is owned by the caller of a probe, who can reuse it for any number of
+ * probes, so probing a chain of mappers does not allocate optionals to pass values from one step to the next. A slot
+ * only holds the value of the last probe reporting a value; it must not be shared between threads.
+ *
+ * @author Max Bureck
+ */
+public final class ProbeSlot {
+
+    private int intValue;
+
+    private long longValue;
+
+    private double doubleValue;
+
+    /**
+     * Stores an int value in this slot.
+     *
+     * @param value value to store
+     */
+    public void setInt(int value) {
+        this.intValue = value;
+    }
+
+    /**
+     * Returns the int value last stored in this slot.
+     *
+     * @return int value last stored via {@link #setInt(int)}
+     */
+    public int getInt() {
+        return intValue;
+    }
+
+    /**
+     * Stores a long value in this slot.
+     *
+     * @param value value to store
+     */
+    public void setLong(long value) {
+        this.longValue = value;
+    }
+
+    /**
+     * Returns the long value last stored in this slot.
+     *
+     * @return long value last stored via {@link #setLong(long)}
+     */
+    public long getLong() {
+        return longValue;
+    }
+
+    /**
+     * Stores a double value in this slot.
+     *
+     * @param value value to store
+     */
+    public void setDouble(double value) {
+        this.doubleValue = value;
+    }
+
+    /**
+     * Returns the double value last stored in this slot.
+     *
+     * @return double value last stored via {@link #setDouble(double)}
+     */
+    public double getDouble() {
+        return doubleValue;
+    }
+}
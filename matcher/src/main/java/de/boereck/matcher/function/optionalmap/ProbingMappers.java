@@ -0,0 +1,124 @@
+package de.boereck.matcher.function.optionalmap;
+
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+/**
+ * Optional mappers implemented by a probe. Probing such a mapper directly calls the probe, applying it probes into a
+ * {@link ProbeSlot} reused by the current thread and wraps the stored value in an optional. The combinators of the primitive optional
+ * mappers return these mappers, so probing a chain of combinators passes the values of all steps through the
+ * caller's slot.
+ * This class is not intended to be instantiated or sub-classed.
+ *
+ * @author Max Bureck
+ */
+final class ProbingMappers {
+
+    /**
+     * Slot reused by the {@code apply} methods of the current thread.
+     */
+    private static final ThreadLocal<SlotHolder> SLOTS = ThreadLocal.withInitial(SlotHolder::new);
+
+    private ProbingMappers() {
+        throw new IllegalStateException("Class ProbingMappers must not be instantiated");
+    }
+
+    /**
+     * Holds the slot of a thread while no probe uses it. A probe may apply another probing mapper, e.g. in the
+     * predicate of a filter step, so the slot is taken out while a probe runs and nested probes get a new slot instead
+     * of overwriting the value of the running probe.
+     */
+    private static final class SlotHolder {
+
+        private ProbeSlot free = new ProbeSlot();
+
+        ProbeSlot take() {
+            final ProbeSlot slot = free;
+            if (slot == null) {
+                return new ProbeSlot();
+            }
+            free = null;
+            return slot;
+        }
+
+        void release(ProbeSlot slot) {
+            free = slot;
+        }
+    }
+
+    static final class IntMapper<I> implements OptionalIntMapper<I> {
+
+        private final IntProbe<I> probe;
+
+        IntMapper(IntProbe<I> probe) {
+            this.probe = probe;
+        }
+
+        @Override
+        public OptionalInt apply(I input) {
+            final SlotHolder holder = SLOTS.get();
+            final ProbeSlot slot = holder.take();
+            try {
+                return probe.probe(input, slot) ? OptionalInt.of(slot.getInt()) : OptionalInt.empty();
+            } finally {
+                holder.release(slot);
+            }
+        }
+
+        @Override
+        public boolean probe(I input, ProbeSlot slot) {
+            return probe.probe(input, slot);
+        }
+    }
+
+    static final class LongMapper<I> implements OptionalLongMapper<I> {
+
+        private final LongProbe<I> probe;
+
+        LongMapper(LongProbe<I> probe) {
+            this.probe = probe;
+        }
+
+        @Override
+        public OptionalLong apply(I input) {
+            final SlotHolder holder = SLOTS.get();
+            final ProbeSlot slot = holder.take();
+            try {
+                return probe.probe(input, slot) ? OptionalLong.of(slot.getLong()) : OptionalLong.empty();
+            } finally {
+                holder.release(slot);
+            }
+        }
+
+        @Override
+        public boolean probe(I input, ProbeSlot slot) {
+            return probe.probe(input, slot);
+        }
+    }
+
+    static final class DoubleMapper<I> implements OptionalDoubleMapper<I> {
+
+        private final DoubleProbe<I> probe;
+
+        DoubleMapper(DoubleProbe<I> probe) {
+            this.probe = probe;
+        }
+
+        @Override
+        public OptionalDouble apply(I input) {
+            final SlotHolder holder = SLOTS.get();
+            final ProbeSlot slot = holder.take();
+            try {
+                return probe.probe(input, slot) ? OptionalDouble.of(slot.getDouble()) : OptionalDouble.empty();
+            } finally {
+                holder.release(slot);
+            }
+        }
+
+        @Override
+        public boolean probe(I input, ProbeSlot slot) {
+            return probe.probe(input, slot);
+        }
+    }
+}
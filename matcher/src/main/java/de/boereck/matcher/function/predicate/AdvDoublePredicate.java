@@ -391,4 +391,61 @@ public interface AdvDoublePredicate extends DoublePredicate {
     default Predicate<Double> boxed() {
         return i -> i != null && this.test(i);
     }
+
+    /**
+     * Tests all values of {@code in} and stores the results as bits in {@code bitmaskOut}: bit {@code i % 64} of
+     * {@code bitmaskOut[i / 64]} is set if this predicate returns {@code true} for {@code in[i]}, otherwise it is
+     * cleared. The elements of {@code bitmaskOut} holding results are overwritten completely, so the bits of the last
+     * of these elements beyond {@code in.length} are cleared. Further elements of {@code bitmaskOut} are not modified.
+     * <p>The default implementation calls {@link #test(double)} for every value. Predicates created by helpers such as
+     * {@link de.boereck.matcher.helpers.DoubleMatchHelpers#gt(double) gt} or
+     * {@link de.boereck.matcher.helpers.DoubleMatchHelpers#inClosedRange(double, double) inClosedRange} override this method,
+     * testing the values in a loop without branches or method calls per value.</p>
+     * @param in values to test. Must not be {@code null}.
+     * @param bitmaskOut receives the results. Must not be {@code null} and must hold at least
+     *                   {@code (in.length + 63) / 64} elements.
+     * @throws NullPointerException if {@code in} or {@code bitmaskOut} is {@code null}.
+     * @throws IllegalArgumentException if {@code bitmaskOut} is too short to hold the results.
+     */
+    default void testAll(double[] in, long[] bitmaskOut) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(in);
+        Objects.requireNonNull(bitmaskOut);
+        final int length = in.length;
+        final int words = (int) ((length + 63L) >>> 6);
+        if (bitmaskOut.length < words) {
+            throw new IllegalArgumentException("bitmaskOut must hold at least (in.length + 63) / 64 elements");
+        }
+        for (int w = 0; w < words; w++) {
+            final int start = w << 6;
+            final int end = Math.min(length - start, 64) + start;
+            long word = 0L;
+            for (int i = start; i < end; i++) {
+                if (test(in[i])) {
+                    word |= 1L << i;
+                }
+            }
+            bitmaskOut[w] = word;
+        }
+    }
+
+    /**
+     * Returns the amount of values in {@code in} this predicate returns {@code true} for.
+     * <p>The default implementation calls {@link #test(double)} for every value. Predicates created by helpers such as
+     * {@link de.boereck.matcher.helpers.DoubleMatchHelpers#gt(double) gt} or
+     * {@link de.boereck.matcher.helpers.DoubleMatchHelpers#inClosedRange(double, double) inClosedRange} override this method,
+     * testing the values in a loop without branches or method calls per value.</p>
+     * @param in values to test. Must not be {@code null}.
+     * @return amount of values this predicate returns {@code true} for.
+     * @throws NullPointerException if {@code in} is {@code null}.
+     */
+    default int countMatches(double[] in) throws NullPointerException {
+        Objects.requireNonNull(in);
+        int count = 0;
+        for (double value : in) {
+            if (test(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
 }
@@ -6,6 +6,7 @@ import java.util.OptionalDouble;
 import java.util.function.*;
 
 import de.boereck.matcher.function.optionalmap.OptionalDoubleMapper;
+import de.boereck.matcher.function.optionalmap.ProbeSlot;
 import de.boereck.matcher.function.optionalmap.OptionalMapper;
 import de.boereck.matcher.function.predicate.AdvPredicate;
 
@@ -92,10 +93,14 @@ public interface TestableToDoubleFunction<I> extends ToDoubleFunction<I> {
      */
     default OptionalDoubleMapper<I> filter(DoublePredicate test) throws NullPointerException {
         Objects.requireNonNull(test);
-        return i -> {
+        return OptionalDoubleMapper.ofProbe((I i, ProbeSlot slot) -> {
             final double result = this.applyAsDouble(i);
-            return test.test(result) ? OptionalDouble.of(result) : OptionalDouble.empty();
-        };
+            if (test.test(result)) {
+                slot.setDouble(result);
+                return true;
+            }
+            return false;
+        });
     }
 
     /**
@@ -129,7 +134,13 @@ public interface TestableToDoubleFunction<I> extends ToDoubleFunction<I> {
      */
     default OptionalDoubleMapper<I> requires(Predicate<? super I> precondition) throws NullPointerException {
         Objects.requireNonNull(precondition);
-        return i -> precondition.test(i) ? OptionalDouble.of(this.applyAsDouble(i)) : OptionalDouble.empty();
+        return OptionalDoubleMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (precondition.test(i)) {
+                slot.setDouble(this.applyAsDouble(i));
+                return true;
+            }
+            return false;
+        });
     }
 
     /**
@@ -142,13 +153,14 @@ public interface TestableToDoubleFunction<I> extends ToDoubleFunction<I> {
      * optional. Otherwise it will call this TestableToDoubleFunction and wrap the result in an OptionalDouble.
      */
     default OptionalDoubleMapper<I> nullAware() {
-        return i -> {
+        return OptionalDoubleMapper.ofProbe((I i, ProbeSlot slot) -> {
             // check if input is null
             if (i == null) {
-                return OptionalDouble.empty();
+                return false;
             }
-            return OptionalDouble.of(this.applyAsDouble(i));
-        };
+            slot.setDouble(this.applyAsDouble(i));
+            return true;
+        });
     }
 
     /**
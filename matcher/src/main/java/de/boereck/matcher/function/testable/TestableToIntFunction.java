@@ -7,6 +7,7 @@ import java.util.function.*;
 
 import de.boereck.matcher.function.optionalmap.OptionalDoubleMapper;
 import de.boereck.matcher.function.optionalmap.OptionalIntMapper;
+import de.boereck.matcher.function.optionalmap.ProbeSlot;
 import de.boereck.matcher.function.predicate.AdvPredicate;
 
 /**
@@ -92,10 +93,14 @@ public interface TestableToIntFunction<I> extends ToIntFunction<I> {
      */
     default OptionalIntMapper<I> filter(IntPredicate test) throws NullPointerException {
         Objects.requireNonNull(test);
-        return i -> {
+        return OptionalIntMapper.ofProbe((I i, ProbeSlot slot) -> {
             final int result = this.applyAsInt(i);
-            return test.test(result) ? OptionalInt.of(result) : OptionalInt.empty();
-        };
+            if (test.test(result)) {
+                slot.setInt(result);
+                return true;
+            }
+            return false;
+        });
     }
 
     /**
@@ -129,7 +134,13 @@ public interface TestableToIntFunction<I> extends ToIntFunction<I> {
      */
     default OptionalIntMapper<I> requires(Predicate<? super I> precondition) throws NullPointerException {
         Objects.requireNonNull(precondition);
-        return i -> precondition.test(i) ? OptionalInt.of(this.applyAsInt(i)) : OptionalInt.empty();
+        return OptionalIntMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (precondition.test(i)) {
+                slot.setInt(this.applyAsInt(i));
+                return true;
+            }
+            return false;
+        });
     }
 
     /**
@@ -142,13 +153,14 @@ public interface TestableToIntFunction<I> extends ToIntFunction<I> {
      * optional. Otherwise it will call this TestableToIntFunction and wrap the result in an OptionalInt.
      */
     default OptionalIntMapper<I> nullAware() {
-        return i -> {
+        return OptionalIntMapper.ofProbe((I i, ProbeSlot slot) -> {
             // check if input is null
             if (i == null) {
-                return OptionalInt.empty();
+                return false;
             }
-            return OptionalInt.of(this.applyAsInt(i));
-        };
+            slot.setInt(this.applyAsInt(i));
+            return true;
+        });
     }
 
     /**
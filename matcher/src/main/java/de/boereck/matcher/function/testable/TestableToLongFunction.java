@@ -7,6 +7,7 @@ import java.util.function.*;
 
 import de.boereck.matcher.function.optionalmap.OptionalIntMapper;
 import de.boereck.matcher.function.optionalmap.OptionalLongMapper;
+import de.boereck.matcher.function.optionalmap.ProbeSlot;
 import de.boereck.matcher.function.predicate.AdvPredicate;
 
 /**
@@ -92,10 +93,14 @@ public interface TestableToLongFunction<I> extends ToLongFunction<I> {
      */
     default OptionalLongMapper<I> filter(LongPredicate test) {
         Objects.requireNonNull(test);
-        return i -> {
+        return OptionalLongMapper.ofProbe((I i, ProbeSlot slot) -> {
             final long result = this.applyAsLong(i);
-            return test.test(result) ? OptionalLong.of(result) : OptionalLong.empty();
-        };
+            if (test.test(result)) {
+                slot.setLong(result);
+                return true;
+            }
+            return false;
+        });
     }
 
     /**
@@ -129,7 +134,13 @@ public interface TestableToLongFunction<I> extends ToLongFunction<I> {
      */
     default OptionalLongMapper<I> requires(Predicate<? super I> precondition) {
         Objects.requireNonNull(precondition);
-        return i -> precondition.test(i) ? OptionalLong.of(this.applyAsLong(i)) : OptionalLong.empty();
+        return OptionalLongMapper.ofProbe((I i, ProbeSlot slot) -> {
+            if (precondition.test(i)) {
+                slot.setLong(this.applyAsLong(i));
+                return true;
+            }
+            return false;
+        });
     }
 
     /**
@@ -142,13 +153,14 @@ public interface TestableToLongFunction<I> extends ToLongFunction<I> {
      * optional. Otherwise it will call this TestableToLongFunction and wrap the result in an OptionalLong.
      */
     default OptionalLongMapper<I> nullAware() {
-        return i -> {
+        return OptionalLongMapper.ofProbe((I i, ProbeSlot slot) -> {
             // check if input is null
             if (i == null) {
-                return OptionalLong.empty();
+                return false;
             }
-            return OptionalLong.of(this.applyAsLong(i));
-        };
+            slot.setLong(this.applyAsLong(i));
+            return true;
+        });
     }
 
     /**
@@ -0,0 +1,48 @@
+package de.boereck.matcher.helpers;
+
+import java.util.Objects;
+
+/**
+ * Methods shared by the bulk test implementations of the predicates created by the match helpers.
+ * <p>
+ * This class is not intended to be instantiated or sub-classed.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+final class Bitmasks {
+
+    private Bitmasks() {
+        throw new IllegalStateException("Class Bitmasks must not be instantiated");
+    }
+
+    /**
+     * Returns the amount of elements of a bit mask needed to hold {@code length} results and checks that
+     * {@code bitmaskOut} holds at least this amount of elements.
+     *
+     * @param length     amount of tested values
+     * @param bitmaskOut bit mask receiving the results
+     * @return amount of elements of {@code bitmaskOut} receiving results
+     * @throws NullPointerException     if {@code bitmaskOut} is {@code null}
+     * @throws IllegalArgumentException if {@code bitmaskOut} is too short
+     */
+    static int words(int length, long[] bitmaskOut) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(bitmaskOut);
+        final int words = (int) ((length + 63L) >>> 6);
+        if (bitmaskOut.length < words) {
+            throw new IllegalArgumentException("bitmaskOut must hold at least (in.length + 63) / 64 elements");
+        }
+        return words;
+    }
+
+    /**
+     * Compares two long values without branching and without overflowing (see Hacker's Delight, section 2-12).
+     *
+     * @param a first value
+     * @param b second value
+     * @return {@code 1} if {@code a < b}, otherwise {@code 0}
+     */
+    static long lessThan(long a, long b) {
+        return ((a & ~b) | (~(a ^ b) & (a - b))) >>> 63;
+    }
+}
@@ -0,0 +1,252 @@
+package de.boereck.matcher.helpers;
+
+import static de.boereck.matcher.helpers.MatchHelpers.instanceOf;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import de.boereck.matcher.function.optionalmap.OptionalMapper;
+import de.boereck.matcher.function.predicate.AdvPredicate;
+
+/**
+ * Provides static helper functions for defining matches in CaseMatchers based on {@link CharSequence} values. The
+ * helpers correspond to the ones of {@link StringMatchHelpers}, but accept any character sequence, e.g. a
+ * {@link java.nio.CharBuffer} decoded from a byte buffer or wrapping a memory-mapped file, without materializing a
+ * {@code String} for every input.
+ * <p>
+ * None of the helpers copy the characters of an input: the predicates and mappers read the input via
+ * {@link CharSequence#charAt(int)} and {@link CharSequence#length()}, or match it with a {@link Matcher}, which reads
+ * its input the same way. The parts produced by {@link #split(String) split} are created by
+ * {@link CharSequence#subSequence(int, int)}, which for a {@code CharBuffer} is a view sharing the characters of the
+ * buffer. Note that such a view is only valid as long as the content of the underlying buffer is not changed. Like all
+ * {@code CharBuffer} methods, the helpers work on the characters between the position and the limit of a buffer.
+ * </p>
+ * <p>
+ * Regular expressions are compiled via the {@link PatternCache#shared() shared} {@link PatternCache}.
+ * </p>
+ * <p>
+ * This class is not intended to be instantiated or sub-classed.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+public final class CharSequenceMatchHelpers {
+
+    private CharSequenceMatchHelpers() {
+        throw new IllegalStateException("Class CharSequenceMatchHelpers must not be instantiated");
+    }
+
+    /**
+     * Predicate checking if an object is instance of {@link CharSequence}.
+     */
+    public static final TypeCheck<Object, CharSequence> isCharSequence = instanceOf(CharSequence.class);
+
+    /**
+     * Returns predicate, checking if the tested character sequence starts with the characters of {@code other}. Input
+     * values to the returned predicate can be {@code null}, in this case the predicate will return {@code false}.
+     *
+     * @param other predicate inputs will be checked if they start with the characters of this sequence. The characters
+     *              are copied when the predicate is created, so later changes to {@code other} do not affect the
+     *              predicate. This parameter must not be {@code null}.
+     * @return predicate checking if input sequences start with the characters of {@code other}.
+     * @throws NullPointerException thrown, if {@code other} is {@code null}.
+     */
+    public static AdvPredicate<CharSequence> startsWith(CharSequence other) throws NullPointerException {
+        Objects.requireNonNull(other);
+        final String prefix = other.toString();
+        return s -> s != null && startsWith(s, prefix);
+    }
+
+    private static boolean startsWith(CharSequence s, String prefix) {
+        final int length = prefix.length();
+        if (s.length() < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a predicate checking if tested character sequences match the given regular expression {@code regEx} as
+     * a whole. Input values to the returned predicate can be {@code null}, in this case the predicate will return
+     * {@code false}.
+     *
+     * @param regEx the regular expressions inputs to the returned predicate will be checked against.
+     *              Must not be {@code null}.
+     * @return predicate checking if tested character sequences are matching the given regular expression {@code regEx}.
+     * @throws NullPointerException   thrown, if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException if expression syntax of {@code regEx} is invalid.
+     */
+    public static AdvPredicate<CharSequence> matches(String regEx) throws NullPointerException, PatternSyntaxException {
+        return matches(regEx, 0);
+    }
+
+    /**
+     * Returns a predicate checking if tested character sequences match the given regular expression {@code regEx},
+     * compiled with the given {@code flags}, as a whole. Input values to the returned predicate can be {@code null}, in
+     * this case the predicate will return {@code false}.
+     *
+     * @param regEx the regular expressions inputs to the returned predicate will be checked against.
+     *              Must not be {@code null}.
+     * @param flags match flags, a bit mask of the flags defined in {@link Pattern}
+     * @return predicate checking if tested character sequences are matching the given regular expression {@code regEx}.
+     * @throws NullPointerException     thrown, if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException   if expression syntax of {@code regEx} is invalid.
+     * @throws IllegalArgumentException if {@code flags} contains bits not defined as match flags.
+     */
+    public static AdvPredicate<CharSequence> matches(String regEx, int flags) throws NullPointerException, PatternSyntaxException, IllegalArgumentException {
+        Objects.requireNonNull(regEx);
+        final Pattern pattern = PatternCache.shared().compile(regEx, flags);
+        return s -> s != null && pattern.matcher(s).matches();
+    }
+
+    /**
+     * Returns a function mapping a character sequence to an optional holding the same sequence, if it matches the given
+     * regular expression {@code regEx} as a whole. The returned function will return an empty optional if the input to
+     * the function is {@code null} or does not match the given regular expression.
+     *
+     * @param regEx regular expression that is being checked in the returned function. Must not be {@code null}.
+     * @param <C>   type of the mapped character sequences
+     * @return function mapping from {@code C} to {@code Optional&lt;C&gt;}, based on the given regular expression
+     * {@code regEx}.
+     * @throws NullPointerException   thrown, if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException if expression syntax of {@code regEx} is invalid.
+     */
+    public static <C extends CharSequence> OptionalMapper<C, C> matching(String regEx) throws NullPointerException, PatternSyntaxException {
+        return matching(regEx, 0);
+    }
+
+    /**
+     * Returns a function mapping a character sequence to an optional holding the same sequence, if it matches the given
+     * regular expression {@code regEx}, compiled with the given {@code flags}, as a whole. The returned function will
+     * return an empty optional if the input to the function is {@code null} or does not match the regular expression.
+     *
+     * @param regEx regular expression that is being checked in the returned function. Must not be {@code null}.
+     * @param flags match flags, a bit mask of the flags defined in {@link Pattern}
+     * @param <C>   type of the mapped character sequences
+     * @return function mapping from {@code C} to {@code Optional&lt;C&gt;}, based on the given regular expression
+     * {@code regEx}.
+     * @throws NullPointerException     thrown, if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException   if expression syntax of {@code regEx} is invalid.
+     * @throws IllegalArgumentException if {@code flags} contains bits not defined as match flags.
+     */
+    public static <C extends CharSequence> OptionalMapper<C, C> matching(String regEx, int flags) throws NullPointerException, PatternSyntaxException, IllegalArgumentException {
+        Objects.requireNonNull(regEx);
+        final Pattern pattern = PatternCache.shared().compile(regEx, flags);
+        return s -> (s != null && pattern.matcher(s).matches()) ? Optional.of(s) : Optional.empty();
+    }
+
+    /**
+     * Returns a function splitting character sequences around matches of the regular expression {@code regEx}, with
+     * the same result as {@link Pattern#split(CharSequence)}. If the input to the function is {@code null}, the returned
+     * Optional will be empty. Other than {@code Pattern#split(CharSequence)}, the parts are not converted to strings,
+     * but are the {@link CharSequence#subSequence(int, int) sub-sequences} of the input.
+     *
+     * @param regEx the delimiting regular expression. Must not be {@code null}.
+     * @return function splitting an input sequence around matches of {@code regEx}
+     * @throws NullPointerException   thrown, if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException if expression syntax of {@code regEx} is invalid.
+     */
+    public static OptionalMapper<CharSequence, CharSequence[]> split(String regEx) throws NullPointerException, PatternSyntaxException {
+        return split(regEx, 0);
+    }
+
+    /**
+     * Returns a function splitting character sequences around matches of the regular expression {@code regEx}, with
+     * the same result as {@link Pattern#split(CharSequence, int)}. If the input to the function is {@code null}, the
+     * returned Optional will be empty. The input will be split in at most as many parts as specified in parameter
+     * {@code limit}, if it is positive. Other than {@code Pattern#split(CharSequence, int)}, the parts are not
+     * converted to strings, but are the {@link CharSequence#subSequence(int, int) sub-sequences} of the input.
+     *
+     * @param regEx the delimiting regular expression. Must not be {@code null}.
+     * @param limit maximum amount of parts if positive; if zero, trailing empty parts are discarded
+     * @return function splitting an input sequence around matches of {@code regEx}
+     * @throws NullPointerException   thrown, if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException if expression syntax of {@code regEx} is invalid.
+     */
+    public static OptionalMapper<CharSequence, CharSequence[]> split(String regEx, int limit) throws NullPointerException, PatternSyntaxException {
+        Objects.requireNonNull(regEx);
+        final Tokenizer tokenizer = new Tokenizer(regEx, limit);
+        return s -> s == null ? Optional.empty() : Optional.of(split(s, tokenizer));
+    }
+
+    /**
+     * Splits {@code s} with the {@code tokenizer} and returns the tokens as sub-sequences of {@code s}. If the whole
+     * input is the only token, the input itself is returned as single part.
+     */
+    private static CharSequence[] split(CharSequence s, Tokenizer tokenizer) {
+        final Tokens tokens = tokenizer.newTokens().split(s);
+        final int count = tokens.count();
+        if (count == 1 && tokens.end(0) == s.length()) {
+            // no delimiter found
+            return new CharSequence[]{s};
+        }
+        final CharSequence[] parts = new CharSequence[count];
+        for (int i = 0; i < count; i++) {
+            parts[i] = tokens.token(i);
+        }
+        return parts;
+    }
+
+    /**
+     * Provides a predicate checking if a character sequence has at least the length {@code minLen}. The input parameter
+     * to the predicate may be {@code null}. In this case the predicate will return false.
+     *
+     * @param minLen the input sequence to the returned predicate will be checked to have at least the length equal to
+     *               this parameter
+     * @return predicate checking input sequences to have at least length {@code minLen}.
+     */
+    public static AdvPredicate<CharSequence> minLength(int minLen) {
+        return s -> s != null && s.length() >= minLen;
+    }
+
+    /**
+     * Provides a predicate checking if a character sequence has at least the length of the value provided by
+     * {@code minSupplier}. The input parameter to the predicate may be {@code null}. In this case the predicate will
+     * return false.
+     *
+     * @param minSupplier the input sequence to the returned predicate will be checked to have at least the length equal
+     *                    to value provided by this supplier.
+     * @return predicate checking input sequences to have at least length equal to value provided by {@code minSupplier}.
+     * @throws NullPointerException thrown, if {@code minSupplier} is {@code null}.
+     */
+    public static AdvPredicate<CharSequence> minLength(IntSupplier minSupplier) throws NullPointerException {
+        Objects.requireNonNull(minSupplier);
+        return s -> s != null && s.length() >= minSupplier.getAsInt();
+    }
+
+    /**
+     * Provides a predicate checking if a character sequence has at most the length {@code maxLen}. The input parameter
+     * to the predicate may be {@code null}. In this case the predicate will return false.
+     *
+     * @param maxLen the input sequence to the returned predicate will be checked to have at most the length equal to
+     *               this parameter
+     * @return predicate checking input sequences to have at most length {@code maxLen}.
+     */
+    public static AdvPredicate<CharSequence> maxLength(int maxLen) {
+        return s -> s != null && s.length() <= maxLen;
+    }
+
+    /**
+     * Provides a predicate checking if a character sequence has at most the length of the value provided by
+     * {@code maxSupplier}. The input parameter to the predicate may be {@code null}. In this case the predicate will
+     * return false.
+     *
+     * @param maxSupplier the input sequence to the returned predicate will be checked to have at most the length equal
+     *                    to value provided by this supplier.
+     * @return predicate checking input sequences to have at most length equal to value provided by {@code maxSupplier}.
+     * @throws NullPointerException thrown, if {@code maxSupplier} is {@code null}.
+     */
+    public static AdvPredicate<CharSequence> maxLength(IntSupplier maxSupplier) throws NullPointerException {
+        Objects.requireNonNull(maxSupplier);
+        return s -> s != null && s.length() <= maxSupplier.getAsInt();
+    }
+}
@@ -0,0 +1,277 @@
+package de.boereck.matcher.helpers;
+
+import java.util.function.IntSupplier;
+
+import de.boereck.matcher.function.predicate.AdvIntPredicate;
+import de.boereck.matcher.function.predicate.AdvLongPredicate;
+
+/**
+ * Creates predicates checking if int or long values are dividable by a divisor without computing a remainder. The
+ * check is prepared when the predicate is created:
+ * <ul>
+ * <li>For divisors that are powers of two (or their negation), the low bits of the value are masked.</li>
+ * <li>For all other divisors {@code d = d0 * 2^k} with odd {@code d0}, the magnitude of the value is multiplied with
+ * the multiplicative inverse of {@code d0} modulo 2<sup>32</sup> (or 2<sup>64</sup>) and rotated right by {@code k}
+ * bits. The value is dividable by {@code d} exactly if the result, read as unsigned number, is not larger than
+ * {@code (2^32 - 1) / |d|} (Granlund and Montgomery, "Division by Invariant Integers using Multiplication").</li>
+ * <li>The divisor zero keeps the remainder operation, so testing a value throws an {@link ArithmeticException}.</li>
+ * </ul>
+ * This class is not intended to be instantiated or sub-classed.
+ *
+ * @author Max Bureck
+ */
+final class Divisibility {
+
+    private Divisibility() {
+        throw new IllegalStateException("Class Divisibility must not be instantiated");
+    }
+
+    /**
+     * Returns a predicate checking if an int value is dividable by {@code divisor}.
+     *
+     * @param divisor   divisor of the values
+     * @param dividable if {@code true} the predicate returns {@code true} for dividable values, if {@code false} it
+     *                  returns {@code true} for values leaving a rest.
+     * @return predicate checking if int values are dividable by {@code divisor}
+     */
+    static AdvIntPredicate of(int divisor, boolean dividable) {
+        return compile(divisor, dividable);
+    }
+
+    /**
+     * Returns a predicate checking if an int value is dividable by the value provided by {@code divisor}. The supplier
+     * is called on every test, but the check is only prepared again if the supplier provides a different divisor than
+     * on the previous test, so the preparation is paid once per period the divisor does not change.
+     *
+     * @param divisor   provides the divisor of the values, must not be {@code null}
+     * @param dividable if {@code true} the predicate returns {@code true} for dividable values, if {@code false} it
+     *                  returns {@code true} for values leaving a rest.
+     * @return predicate checking if int values are dividable by the divisor provided by {@code divisor}
+     */
+    static AdvIntPredicate supplied(IntSupplier divisor, boolean dividable) {
+        return new IntSupplied(divisor, dividable);
+    }
+
+    /**
+     * Returns a predicate checking if a long value is dividable by {@code divisor}.
+     *
+     * @param divisor   divisor of the values
+     * @param dividable if {@code true} the predicate returns {@code true} for dividable values, if {@code false} it
+     *                  returns {@code true} for values leaving a rest.
+     * @return predicate checking if long values are dividable by {@code divisor}
+     */
+    static AdvLongPredicate of(long divisor, boolean dividable) {
+        if (divisor == 0) {
+            return new LongRemainder(dividable);
+        }
+        // the magnitude of Long.MIN_VALUE is Long.MIN_VALUE, which is 2^63 read as unsigned number
+        final long magnitude = Math.abs(divisor);
+        if (Long.bitCount(magnitude) == 1) {
+            return new LongMask(magnitude - 1, dividable);
+        }
+        return new LongInverse(magnitude, dividable);
+    }
+
+    private static IntDivisor compile(int divisor, boolean dividable) {
+        if (divisor == 0) {
+            return new IntRemainder(dividable);
+        }
+        // the magnitude of Integer.MIN_VALUE is Integer.MIN_VALUE, which is 2^31 read as unsigned number
+        final int magnitude = Math.abs(divisor);
+        if (Integer.bitCount(magnitude) == 1) {
+            return new IntMask(divisor, magnitude - 1, dividable);
+        }
+        return new IntInverse(divisor, magnitude, dividable);
+    }
+
+    /**
+     * Base class of the int predicates, holding the divisor the check was prepared for.
+     */
+    abstract static class IntDivisor implements AdvIntPredicate {
+
+        final int divisor;
+
+        final boolean dividable;
+
+        IntDivisor(int divisor, boolean dividable) {
+            this.divisor = divisor;
+            this.dividable = dividable;
+        }
+    }
+
+    /**
+     * Check for the divisor zero, throwing an {@link ArithmeticException} like the remainder operation.
+     */
+    static final class IntRemainder extends IntDivisor {
+
+        IntRemainder(boolean dividable) {
+            super(0, dividable);
+        }
+
+        @Override
+        public boolean test(int value) {
+            return ((value % divisor) == 0) == dividable;
+        }
+    }
+
+    /**
+     * Check for divisors that are powers of two, which divide a value exactly if its low bits are zero.
+     */
+    static final class IntMask extends IntDivisor {
+
+        private final int mask;
+
+        IntMask(int divisor, int mask, boolean dividable) {
+            super(divisor, dividable);
+            this.mask = mask;
+        }
+
+        @Override
+        public boolean test(int value) {
+            return ((value & mask) == 0) == dividable;
+        }
+    }
+
+    /**
+     * Check multiplying with the modular inverse of the odd part of the divisor.
+     */
+    static final class IntInverse extends IntDivisor {
+
+        private final int inverse;
+
+        private final int shift;
+
+        /**
+         * Largest quotient of a dividable value, offset by {@code Integer.MIN_VALUE} for an unsigned comparison.
+         */
+        private final int limit;
+
+        IntInverse(int divisor, int magnitude, boolean dividable) {
+            super(divisor, dividable);
+            this.shift = Integer.numberOfTrailingZeros(magnitude);
+            final int odd = magnitude >>> shift;
+            // Newton iteration, every step doubles the amount of correct low bits (starting with 3)
+            int inverse = odd;
+            for (int i = 0; i < 4; i++) {
+                inverse *= 2 - odd * inverse;
+            }
+            this.inverse = inverse;
+            this.limit = Integer.divideUnsigned(-1, magnitude) + Integer.MIN_VALUE;
+        }
+
+        @Override
+        public boolean test(int value) {
+            final int quotient = Integer.rotateRight(Math.abs(value) * inverse, shift);
+            return (quotient + Integer.MIN_VALUE <= limit) == dividable;
+        }
+    }
+
+    /**
+     * Reads the divisor from a supplier on every test and keeps the check prepared for the last divisor read.
+     */
+    static final class IntSupplied implements AdvIntPredicate {
+
+        private final IntSupplier divisor;
+
+        private final boolean dividable;
+
+        /**
+         * Check prepared for the last divisor. Written without synchronization: the checks only have final fields, so
+         * another thread either sees a completely initialized check or an older one, which is replaced if the divisor
+         * does not match.
+         */
+        private IntDivisor last;
+
+        IntSupplied(IntSupplier divisor, boolean dividable) {
+            this.divisor = divisor;
+            this.dividable = dividable;
+        }
+
+        @Override
+        public boolean test(int value) {
+            final int d = divisor.getAsInt();
+            IntDivisor check = last;
+            if (check == null || check.divisor != d) {
+                check = compile(d, dividable);
+                last = check;
+            }
+            return check.test(value);
+        }
+    }
+
+    /**
+     * Check for the divisor zero, throwing an {@link ArithmeticException} like the remainder operation.
+     */
+    static final class LongRemainder implements AdvLongPredicate {
+
+        private final long divisor;
+
+        private final boolean dividable;
+
+        LongRemainder(boolean dividable) {
+            this.divisor = 0L;
+            this.dividable = dividable;
+        }
+
+        @Override
+        public boolean test(long value) {
+            return ((value % divisor) == 0) == dividable;
+        }
+    }
+
+    /**
+     * Check for divisors that are powers of two, which divide a value exactly if its low bits are zero.
+     */
+    static final class LongMask implements AdvLongPredicate {
+
+        private final long mask;
+
+        private final boolean dividable;
+
+        LongMask(long mask, boolean dividable) {
+            this.mask = mask;
+            this.dividable = dividable;
+        }
+
+        @Override
+        public boolean test(long value) {
+            return ((value & mask) == 0) == dividable;
+        }
+    }
+
+    /**
+     * Check multiplying with the modular inverse of the odd part of the divisor.
+     */
+    static final class LongInverse implements AdvLongPredicate {
+
+        private final long inverse;
+
+        private final int shift;
+
+        /**
+         * Largest quotient of a dividable value, offset by {@code Long.MIN_VALUE} for an unsigned comparison.
+         */
+        private final long limit;
+
+        private final boolean dividable;
+
+        LongInverse(long magnitude, boolean dividable) {
+            this.shift = Long.numberOfTrailingZeros(magnitude);
+            final long odd = magnitude >>> shift;
+            // Newton iteration, every step doubles the amount of correct low bits (starting with 3)
+            long inverse = odd;
+            for (int i = 0; i < 5; i++) {
+                inverse *= 2 - odd * inverse;
+            }
+            this.inverse = inverse;
+            this.limit = Long.divideUnsigned(-1L, magnitude) + Long.MIN_VALUE;
+            this.dividable = dividable;
+        }
+
+        @Override
+        public boolean test(long value) {
+            final long quotient = Long.rotateRight(Math.abs(value) * inverse, shift);
+            return (quotient + Long.MIN_VALUE <= limit) == dividable;
+        }
+    }
+}
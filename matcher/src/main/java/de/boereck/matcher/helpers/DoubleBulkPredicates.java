@@ -0,0 +1,227 @@
+package de.boereck.matcher.helpers;
+
+import java.util.Objects;
+
+import de.boereck.matcher.function.predicate.AdvDoublePredicate;
+
+/**
+ * Predicates on double values created by {@link DoubleMatchHelpers}, overriding the bulk methods
+ * {@link AdvDoublePredicate#testAll(double[], long[])} and {@link AdvDoublePredicate#countMatches(double[])}. There is
+ * no arithmetic form of floating point comparisons, so the loops select the bit of a value by a conditional expression
+ * with constant operands, which the JIT compiler translates into a conditional move or set instruction instead of a
+ * branch. The non-short-circuit {@code &} combines the checks of a range for the same reason. All predicates describe
+ * the values they match as {@link DoubleRangeSet}.
+ * <p>
+ * This class is not intended to be instantiated or sub-classed.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+final class DoubleBulkPredicates {
+
+    private DoubleBulkPredicates() {
+        throw new IllegalStateException("Class DoubleBulkPredicates must not be instantiated");
+    }
+
+    /**
+     * Checks if a value is greater than {@code c}. As a range, the predicate starts at the smallest double
+     * value greater than {@code c}, so {@code c} must be lower than positive infinity and must not be {@code NaN}.
+     */
+    static final class Gt implements DoubleRange, DoubleRangeSet {
+
+        private final double c;
+
+        Gt(double c) {
+            this.c = c;
+        }
+
+        @Override
+        public double startIncluding() {
+            return Math.nextUp(c);
+        }
+
+        @Override
+        public double endIncluding() {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.keyInterval(startIncluding(), endIncluding());
+        }
+
+        @Override
+        public boolean containsNaN() {
+            return false;
+        }
+
+        @Override
+        public boolean test(double x) {
+            return x > c;
+        }
+
+        @Override
+        public void testAll(double[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final double c = this.c;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final double x = in[i];
+                    word |= (x > c ? 1L : 0L) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(double[] in) {
+            Objects.requireNonNull(in);
+            final double c = this.c;
+            int count = 0;
+            for (double x : in) {
+                count += (int) (x > c ? 1L : 0L);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is lower than {@code c}. As a range, the predicate ends at the largest double value
+     * lower than {@code c}, so {@code c} must be greater than negative infinity and must not be {@code NaN}.
+     */
+    static final class Lt implements DoubleRange, DoubleRangeSet {
+
+        private final double c;
+
+        Lt(double c) {
+            this.c = c;
+        }
+
+        @Override
+        public double startIncluding() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        @Override
+        public double endIncluding() {
+            return Math.nextDown(c);
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.keyInterval(startIncluding(), endIncluding());
+        }
+
+        @Override
+        public boolean containsNaN() {
+            return false;
+        }
+
+        @Override
+        public boolean test(double x) {
+            return x < c;
+        }
+
+        @Override
+        public void testAll(double[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final double c = this.c;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final double x = in[i];
+                    word |= (x < c ? 1L : 0L) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(double[] in) {
+            Objects.requireNonNull(in);
+            final double c = this.c;
+            int count = 0;
+            for (double x : in) {
+                count += (int) (x < c ? 1L : 0L);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is in the closed range from {@code start} to {@code end}.
+     */
+    static final class ClosedRange implements DoubleRange, DoubleRangeSet {
+
+        private final double start;
+
+        private final double end;
+
+        ClosedRange(double start, double end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public double startIncluding() {
+            return start;
+        }
+
+        @Override
+        public double endIncluding() {
+            return end;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.keyInterval(startIncluding(), endIncluding());
+        }
+
+        @Override
+        public boolean containsNaN() {
+            return false;
+        }
+
+        @Override
+        public boolean test(double x) {
+            return x >= start && x <= end;
+        }
+
+        @Override
+        public void testAll(double[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final double start = this.start;
+            final double end = this.end;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final double x = in[i];
+                    word |= ((x >= start & x <= end) ? 1L : 0L) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(double[] in) {
+            Objects.requireNonNull(in);
+            final double start = this.start;
+            final double end = this.end;
+            int count = 0;
+            for (double x : in) {
+                count += (int) ((x >= start & x <= end) ? 1L : 0L);
+            }
+            return count;
+        }
+    }
+}
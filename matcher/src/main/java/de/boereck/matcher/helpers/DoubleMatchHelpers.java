@@ -1,7 +1,10 @@
 package de.boereck.matcher.helpers;
 
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.OptionalDouble;
 import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
 import java.util.function.DoubleSupplier;
 
 import de.boereck.matcher.function.predicate.AdvDoublePredicate;
@@ -32,22 +35,28 @@ public class DoubleMatchHelpers {
      */
     public static final DoubleFunction<OptionalDouble> filterInfinity = in -> Double.isInfinite(in) ? OptionalDouble.empty() : OptionalDouble.of(in);
 
-    // TODO ranges of double
+    /**
+     * Predicate checking if a double value is finite, like {@code Double::isFinite}. The predicate is a
+     * {@link DoubleRange} from {@code -Double.MAX_VALUE} to {@code Double.MAX_VALUE}.
+     */
+    public static final AdvDoublePredicate finite = inClosedRange(-Double.MAX_VALUE, Double.MAX_VALUE);
 
     /**
-     * Shortcut for {@code Double::isFinite}.
+     * Predicate checking if a double value is NaN. Combining the predicate with other predicates of this class keeps
+     * the NaN check as part of a range set.
      */
-    public static final AdvDoublePredicate finite = Double::isFinite;
+    public static final AdvDoublePredicate isNaN = RangeSets.NAN;
 
     /**
-     * Predicate checking if a double value is NaN.
+     * Predicate checking if a double value is not NaN. The predicate is a {@link DoubleRange} from negative to positive
+     * infinity.
      */
-    public static final AdvDoublePredicate isNaN = Double::isNaN; // method reference did not work in IntelliJ
+    public static final AdvDoublePredicate notNaN = inClosedRange(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
 
     /**
-     * Predicate checking if a double value is not NaN.
+     * Predicate returning {@code false} for all double values, returned by comparisons no value can fulfill.
      */
-    public static final AdvDoublePredicate notNaN = isNaN.negate();
+    private static final AdvDoublePredicate none = RangeSets.NO_DOUBLES;
 
     /**
      * Returns a predicate checking if an input double value is equal to the given value {@code val}.
@@ -96,10 +105,13 @@ public class DoubleMatchHelpers {
      * Returns a predicate checking if an input double value is lower than the given value {@code compareTo}.
      *
      * @param compareTo value that input values will be compared with.
-     * @return function checking if an input double value is lower than the given value {@code compareTo}.
+     * @return function checking if an input double value is lower than the given value {@code compareTo}. Unless
+     * {@code compareTo} is negative infinity or {@code NaN}, the predicate is a {@link DoubleRange} starting at negative
+     * infinity.
      */
     public static AdvDoublePredicate lt(double compareTo) {
-        return d -> d < compareTo;
+        // no value is lower than negative infinity or NaN
+        return compareTo > Double.NEGATIVE_INFINITY ? new DoubleBulkPredicates.Lt(compareTo) : none;
     }
 
     /**
@@ -116,10 +128,13 @@ public class DoubleMatchHelpers {
      * Returns a predicate checking if an input double value is greater than the given value {@code compareTo}.
      *
      * @param compareTo value that input values will be compared with.
-     * @return function checking if an input double value is greater than the given value {@code compareTo}.
+     * @return function checking if an input double value is greater than the given value {@code compareTo}. Unless
+     * {@code compareTo} is positive infinity or {@code NaN}, the predicate is a {@link DoubleRange} ending at positive
+     * infinity.
      */
     public static AdvDoublePredicate gt(double compareTo) {
-        return d -> d > compareTo;
+        // no value is greater than positive infinity or NaN
+        return compareTo < Double.POSITIVE_INFINITY ? new DoubleBulkPredicates.Gt(compareTo) : none;
     }
 
     /**
@@ -132,6 +147,72 @@ public class DoubleMatchHelpers {
         return d -> d > compareTo.getAsDouble();
     }
 
+    /**
+     * Returns a predicate that checks if an input double is in the closed range from {@code startIncluding} to
+     * {@code endIncluding}. {@code NaN} is not in the range.
+     *
+     * @param startIncluding start value. Input may be greater or equal to this.
+     * @param endIncluding   end value. Input may be lower or equal to this.
+     * @return predicate checking if an input value is in the closed range from {@code startIncluding} to
+     * {@code endIncluding}. The predicate is a {@link DoubleRange}, from which the bounds can be queried.
+     * @throws IllegalArgumentException if {@code startIncluding > endIncluding} or if one of the bounds is {@code NaN}.
+     */
+    public static AdvDoublePredicate inClosedRange(double startIncluding, double endIncluding) throws IllegalArgumentException {
+        if (!(startIncluding <= endIncluding)) {
+            throw new IllegalArgumentException("startIncluding must be <= endIncluding and bounds must not be NaN");
+        }
+        return new DoubleBulkPredicates.ClosedRange(startIncluding, endIncluding);
+    }
+
+    /**
+     * Returns a predicate that checks if an input double is in the half-open range from {@code startIncluding} to
+     * {@code endExcluding}. The returned range is the closed range from {@code startIncluding} to the largest double
+     * value lower than {@code endExcluding} (see {@link Math#nextDown(double)}). {@code NaN} is not in the range.
+     *
+     * @param startIncluding start value. Input may be greater or equal to this.
+     * @param endExcluding   end value. Input must be lower than this.
+     * @return predicate checking if an input value is in the half-open range from {@code startIncluding} to
+     * {@code endExcluding}. The predicate is a {@link DoubleRange}, from which the bounds can be queried.
+     * @throws IllegalArgumentException if {@code startIncluding >= endExcluding}, since the range would be empty, or if
+     *                                  one of the bounds is {@code NaN}.
+     */
+    public static AdvDoublePredicate inHalfOpenRange(double startIncluding, double endExcluding) throws IllegalArgumentException {
+        if (!(startIncluding < endExcluding)) {
+            throw new IllegalArgumentException("startIncluding must be < endExcluding and bounds must not be NaN");
+        }
+        return inClosedRange(startIncluding, Math.nextDown(endExcluding));
+    }
+
+    /**
+     * Returns a predicate that checks if an input double is in any of the given ranges. Ranges can be created via
+     * {@link #inClosedRange(double, double)} and {@link #inHalfOpenRange(double, double)}. Overlapping and adjacent
+     * ranges are merged when the predicate is created and the range an input may be in is found by binary search, so
+     * testing a value against many ranges is considerably faster than combining the ranges via {@code or}.
+     * {@code NaN} is not in any range.
+     *
+     * Predicates returned by this method can be passed as ranges as well.
+     *
+     * @param range first range
+     * @param more  further ranges. This parameter must not be {@code null}, but may be an empty array.
+     * @return predicate checking if an input value is in {@code range} or in any of {@code more}. If the ranges
+     * merge into a single range, the predicate is a {@link DoubleRange}.
+     * @throws NullPointerException     if {@code range}, {@code more} or any of the elements of {@code more} is
+     *                                  {@code null}.
+     * @throws IllegalArgumentException if {@code range} or any of the elements of {@code more} was not created by
+     *                                  {@link #inClosedRange(double, double)}, {@link #inHalfOpenRange(double, double)} or this
+     *                                  method.
+     */
+    public static AdvDoublePredicate inRanges(DoublePredicate range, DoublePredicate... more) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(range);
+        Objects.requireNonNull(more);
+        final DoublePredicate[] ranges = Arrays.copyOf(more, more.length + 1);
+        ranges[more.length] = range;
+        for (DoublePredicate r : ranges) {
+            Objects.requireNonNull(r);
+        }
+        return RangeSets.ofDoubles(ranges);
+    }
+
     /**
      * If the argument is NaN or less than zero, this method will return an empty {@link java.util.OptionalDouble}, otherwise it will
      * return the square root of the given value wrapped into an OptionalDouble.
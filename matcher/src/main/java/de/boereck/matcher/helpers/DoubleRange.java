@@ -0,0 +1,74 @@
+package de.boereck.matcher.helpers;
+
+import java.util.function.DoublePredicate;
+
+import de.boereck.matcher.function.predicate.AdvDoublePredicate;
+
+/**
+ * Predicate checking if a double value is in the closed range from {@link #startIncluding()} to
+ * {@link #endIncluding()}. Other than a predicate defined by a lambda, the bounds of the range can be queried. Half-open
+ * ranges are represented by the closed range ending at the largest double value below the excluded end, so every range
+ * over double values can be described by its closed bounds. {@code NaN} is never in a range. Instances are created by
+ * {@link DoubleMatchHelpers#inClosedRange(double, double)} and {@link DoubleMatchHelpers#inHalfOpenRange(double, double)};
+ * the predicates returned by {@link DoubleMatchHelpers#lt(double)} and {@link DoubleMatchHelpers#gt(double)} as well as
+ * {@link DoubleMatchHelpers#finite} and {@link DoubleMatchHelpers#notNaN} are ranges as well, so case matchers can
+ * compile cases defined by these predicates into lookup tables.
+ *
+ * @author Max Bureck
+ */
+public interface DoubleRange extends AdvDoublePredicate {
+
+    /**
+     * Lower bound of the range. Values tested by this predicate may be greater than or equal to this value.
+     *
+     * @return lower bound of the range, never {@code NaN} and always {@code <=} {@link #endIncluding()}.
+     */
+    double startIncluding();
+
+    /**
+     * Upper bound of the range. Values tested by this predicate may be lower than or equal to this value.
+     *
+     * @return upper bound of the range, never {@code NaN} and always {@code >=} {@link #startIncluding()}.
+     */
+    double endIncluding();
+
+    /**
+     * Checks if {@code d} is in the closed range from {@link #startIncluding()} to {@link #endIncluding()}.
+     *
+     * @param d value to check
+     * @return {@code true} if {@code startIncluding() <= d <= endIncluding()}, {@code false} for {@code NaN}.
+     */
+    @Override
+    default boolean test(double d) {
+        return d >= startIncluding() && d <= endIncluding();
+    }
+
+    /**
+     * Returns {@code p} as range, if it was created by {@link DoubleMatchHelpers#inClosedRange(double, double)},
+     * {@link DoubleMatchHelpers#inHalfOpenRange(double, double)} or another helper of this library. Only such ranges are
+     * known to match exactly the values between their bounds. Other implementations of this interface may override
+     * {@link #test(double)}, so their bounds must not be used in place of the predicate.
+     *
+     * @param p predicate to check, may be {@code null}
+     * @return {@code p} if it is a range created by the helpers of this library, otherwise {@code null}
+     */
+    static DoubleRange fromHelpers(DoublePredicate p) {
+        // all ranges of the library also implement the package-private DoubleRangeSet
+        return p instanceof DoubleRange && p instanceof DoubleRangeSet ? (DoubleRange) p : null;
+    }
+
+    /**
+     * Maps a double value other than {@code NaN} to a long key, such that {@code a < b} holds exactly if
+     * {@code key(a) < key(b)} and that the keys of adjacent double values differ by one. {@code -0.0} and {@code 0.0}
+     * are both mapped to zero, as they are equal for the comparison operators. The keys of the bounds of ranges can be
+     * used to find the range a value is in by comparing long values, e.g. in lookup tables.
+     *
+     * @param d value, must not be {@code NaN}
+     * @return key of {@code d}
+     */
+    static long key(double d) {
+        final long bits = Double.doubleToRawLongBits(d);
+        // the bits of positive values are ordered like the values, negative values are sign and magnitude
+        return bits >= 0 ? bits : -(bits & Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,61 @@
+package de.boereck.matcher.helpers;
+
+import java.util.function.DoublePredicate;
+
+import de.boereck.matcher.function.predicate.AdvDoublePredicate;
+
+/**
+ * Predicate on double values that describes the set of values it returns {@code true} for as sorted, disjoint closed
+ * ranges plus the information whether it returns {@code true} for {@code NaN}. The ranges are described on the keys
+ * of the values (see {@link DoubleRange#key(double)}), which are ordered like the values and have no gaps between
+ * adjacent values, so double ranges are combined like int or long ranges. Predicates created by
+ * {@link DoubleMatchHelpers}, such as range checks, comparisons and {@link DoubleMatchHelpers#isNaN isNaN}, implement
+ * this interface. Combining such a predicate with another one describing its values computes the resulting set when
+ * the predicate is combined and returns a single predicate testing membership in the set (see
+ * {@link RangeSets#doubles(long[], boolean)}). Combinations with other predicates, including implementations of
+ * {@link DoubleRange} outside this library, behave like the default methods of {@link AdvDoublePredicate}.
+ *
+ * @author Max Bureck
+ */
+interface DoubleRangeSet extends AdvDoublePredicate {
+
+    /**
+     * Returns the set of non-NaN values this predicate returns {@code true} for, as described in {@link RangeSets}.
+     *
+     * @return bounds of the ranges as keys, must not be modified
+     */
+    long[] intervals();
+
+    /**
+     * Returns if this predicate returns {@code true} for {@code NaN}.
+     *
+     * @return {@code true} if {@code NaN} is in the set
+     */
+    boolean containsNaN();
+
+    @Override
+    default AdvDoublePredicate and(DoublePredicate that) {
+        final long[] other = RangeSets.doubleIntervals(that);
+        return other == null ? AdvDoublePredicate.super.and(that)
+                : RangeSets.doubles(RangeSets.intersection(intervals(), other), containsNaN() && RangeSets.containsNaN(that));
+    }
+
+    @Override
+    default AdvDoublePredicate or(DoublePredicate that) {
+        final long[] other = RangeSets.doubleIntervals(that);
+        return other == null ? AdvDoublePredicate.super.or(that)
+                : RangeSets.doubles(RangeSets.union(intervals(), other), containsNaN() || RangeSets.containsNaN(that));
+    }
+
+    @Override
+    default AdvDoublePredicate xor(DoublePredicate that) {
+        final long[] other = RangeSets.doubleIntervals(that);
+        return other == null ? AdvDoublePredicate.super.xor(that)
+                : RangeSets.doubles(RangeSets.symmetricDifference(intervals(), other), containsNaN() ^ RangeSets.containsNaN(that));
+    }
+
+    @Override
+    default AdvDoublePredicate negate() {
+        return RangeSets.doubles(RangeSets.complement(intervals(), RangeSets.MIN_KEY, RangeSets.MAX_KEY), !containsNaN());
+    }
+}
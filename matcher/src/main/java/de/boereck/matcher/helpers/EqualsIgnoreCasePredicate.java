@@ -0,0 +1,47 @@
+package de.boereck.matcher.helpers;
+
+import java.util.function.Predicate;
+
+import de.boereck.matcher.function.predicate.AdvPredicate;
+
+/**
+ * Predicate checking if a string is equal to the string {@link #value()}, ignoring case. Other than a predicate defined
+ * by a lambda, the compared string can be queried, so case matchers can compile consecutive cases comparing strings
+ * into a hash table of case-folded strings. Instances are created by {@link StringMatchHelpers#eqIgnoreCase(String)}.
+ *
+ * @author Max Bureck
+ */
+public interface EqualsIgnoreCasePredicate extends AdvPredicate<String> {
+
+    /**
+     * String tested strings are compared with, ignoring case.
+     *
+     * @return string checked by this predicate, may be {@code null}.
+     */
+    String value();
+
+    /**
+     * Checks if {@code s} is equal to {@link #value()} ignoring case, using {@link String#equalsIgnoreCase(String)}.
+     * If the value is {@code null}, only {@code null} is matched.
+     *
+     * @param s string to check
+     * @return {@code true} if {@code s} is equal to the value of this predicate, ignoring case.
+     */
+    @Override
+    default boolean test(String s) {
+        return (s == null) ? value() == null : s.equalsIgnoreCase(value());
+    }
+
+    /**
+     * Returns {@code p} as predicate ignoring case, if it was created by {@link StringMatchHelpers#eqIgnoreCase(String)}.
+     * Only such predicates are known to match exactly the strings equal to their value ignoring case. Other
+     * implementations of this interface may override {@link #test(String)}, so their value must not be used in place
+     * of the predicate.
+     *
+     * @param p predicate to check, may be {@code null}
+     * @return {@code p} if it is a predicate created by the helpers of this library, otherwise {@code null}
+     */
+    static EqualsIgnoreCasePredicate fromHelpers(Predicate<?> p) {
+        return p instanceof StringChecks.EqualsIgnoreCase ? (EqualsIgnoreCasePredicate) p : null;
+    }
+}
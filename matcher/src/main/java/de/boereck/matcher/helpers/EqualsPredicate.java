@@ -0,0 +1,48 @@
+package de.boereck.matcher.helpers;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import de.boereck.matcher.function.predicate.AdvPredicate;
+
+/**
+ * Predicate checking if an object is equal to the object {@link #value()}. Other than a predicate defined by a lambda,
+ * the compared object can be queried, so case matchers can compile consecutive cases comparing strings for equality
+ * into a hash table, the way {@code javac} compiles a {@code switch} on strings. Instances are created by
+ * {@link MatchHelpers#eq(Object)}.
+ *
+ * @param <T> type of the checked objects
+ * @author Max Bureck
+ */
+public interface EqualsPredicate<T> extends AdvPredicate<T> {
+
+    /**
+     * Object tested objects are compared with.
+     *
+     * @return object checked by this predicate, may be {@code null}.
+     */
+    T value();
+
+    /**
+     * Checks if {@code t} is equal to {@link #value()}, using {@link Objects#equals(Object, Object)}.
+     *
+     * @param t object to check
+     * @return {@code true} if {@code t} is equal to the value of this predicate.
+     */
+    @Override
+    default boolean test(T t) {
+        return Objects.equals(t, value());
+    }
+
+    /**
+     * Returns {@code p} as equality predicate, if it was created by {@link MatchHelpers#eq(Object)}. Only such
+     * predicates are known to match exactly the objects equal to their value. Other implementations of this interface
+     * may override {@link #test(Object)}, so their value must not be used in place of the predicate.
+     *
+     * @param p predicate to check, may be {@code null}
+     * @return {@code p} if it is an equality predicate created by the helpers of this library, otherwise {@code null}
+     */
+    static EqualsPredicate<?> fromHelpers(Predicate<?> p) {
+        return p instanceof ObjectSets.Equal ? (EqualsPredicate<?>) p : null;
+    }
+}
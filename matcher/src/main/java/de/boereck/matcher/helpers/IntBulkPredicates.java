@@ -0,0 +1,451 @@
+package de.boereck.matcher.helpers;
+
+import java.util.Objects;
+
+import de.boereck.matcher.function.predicate.AdvIntPredicate;
+
+/**
+ * Predicates on int values created by {@link IntMatchHelpers}, overriding the bulk methods
+ * {@link AdvIntPredicate#testAll(int[], long[])} and {@link AdvIntPredicate#countMatches(int[])}. The bulk methods
+ * compute the result for every value arithmetically instead of by a conditional branch: the values are widened to long,
+ * so the difference of a value and the compared constant cannot overflow and its sign bit is the result of the
+ * comparison. The loops therefore neither call a method nor branch per value, so they are not slowed down by
+ * mispredicted branches on unsorted data and can be unrolled by the JIT compiler. Except for {@link Even} and
+ * {@link Odd}, the predicates describe the values they match as {@link IntRangeSet}.
+ * <p>
+ * This class is not intended to be instantiated or sub-classed.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+final class IntBulkPredicates {
+
+    private IntBulkPredicates() {
+        throw new IllegalStateException("Class IntBulkPredicates must not be instantiated");
+    }
+
+    /**
+     * Checks if a value is greater than {@code c}.
+     */
+    static final class Gt implements IntRangeSet {
+
+        private final int c;
+
+        Gt(int c) {
+            this.c = c;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.interval(c + 1L, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean test(int x) {
+            return x > c;
+        }
+
+        @Override
+        public void testAll(int[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final long c = this.c;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final int x = in[i];
+                    word |= ((c - x) >>> 63) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(int[] in) {
+            Objects.requireNonNull(in);
+            final long c = this.c;
+            int count = 0;
+            for (int x : in) {
+                count += (int) ((c - x) >>> 63);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is greater than or equal to {@code c}.
+     */
+    static final class Ge implements IntRangeSet {
+
+        private final int c;
+
+        Ge(int c) {
+            this.c = c;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.interval(c, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean test(int x) {
+            return x >= c;
+        }
+
+        @Override
+        public void testAll(int[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final long c = this.c;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final int x = in[i];
+                    word |= (~(x - c) >>> 63) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(int[] in) {
+            Objects.requireNonNull(in);
+            final long c = this.c;
+            int count = 0;
+            for (int x : in) {
+                count += (int) (~(x - c) >>> 63);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is lower than {@code c}.
+     */
+    static final class Lt implements IntRangeSet {
+
+        private final int c;
+
+        Lt(int c) {
+            this.c = c;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.interval(Integer.MIN_VALUE, c - 1L);
+        }
+
+        @Override
+        public boolean test(int x) {
+            return x < c;
+        }
+
+        @Override
+        public void testAll(int[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final long c = this.c;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final int x = in[i];
+                    word |= ((x - c) >>> 63) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(int[] in) {
+            Objects.requireNonNull(in);
+            final long c = this.c;
+            int count = 0;
+            for (int x : in) {
+                count += (int) ((x - c) >>> 63);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is lower than or equal to {@code c}.
+     */
+    static final class Le implements IntRangeSet {
+
+        private final int c;
+
+        Le(int c) {
+            this.c = c;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.interval(Integer.MIN_VALUE, c);
+        }
+
+        @Override
+        public boolean test(int x) {
+            return x <= c;
+        }
+
+        @Override
+        public void testAll(int[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final long c = this.c;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final int x = in[i];
+                    word |= (~(c - x) >>> 63) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(int[] in) {
+            Objects.requireNonNull(in);
+            final long c = this.c;
+            int count = 0;
+            for (int x : in) {
+                count += (int) (~(c - x) >>> 63);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is greater than zero.
+     */
+    static final class Positive implements IntRangeSet {
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.interval(1, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean test(int x) {
+            return x > 0;
+        }
+
+        @Override
+        public void testAll(int[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final int x = in[i];
+                    word |= (-(long) x >>> 63) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(int[] in) {
+            Objects.requireNonNull(in);
+            int count = 0;
+            for (int x : in) {
+                count += (int) (-(long) x >>> 63);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is lower than zero.
+     */
+    static final class Negative implements IntRangeSet {
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.interval(Integer.MIN_VALUE, -1);
+        }
+
+        @Override
+        public boolean test(int x) {
+            return x < 0;
+        }
+
+        @Override
+        public void testAll(int[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final int x = in[i];
+                    word |= ((long) (x >>> 31)) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(int[] in) {
+            Objects.requireNonNull(in);
+            int count = 0;
+            for (int x : in) {
+                count += (int) ((long) (x >>> 31));
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is dividable by two.
+     */
+    static final class Even implements AdvIntPredicate {
+
+        @Override
+        public boolean test(int x) {
+            return (x & 1) == 0;
+        }
+
+        @Override
+        public void testAll(int[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final int x = in[i];
+                    word |= ((long) (~x & 1)) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(int[] in) {
+            Objects.requireNonNull(in);
+            int count = 0;
+            for (int x : in) {
+                count += (int) ((long) (~x & 1));
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is not dividable by two.
+     */
+    static final class Odd implements AdvIntPredicate {
+
+        @Override
+        public boolean test(int x) {
+            return (x & 1) != 0;
+        }
+
+        @Override
+        public void testAll(int[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final int x = in[i];
+                    word |= ((long) (x & 1)) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(int[] in) {
+            Objects.requireNonNull(in);
+            int count = 0;
+            for (int x : in) {
+                count += (int) ((long) (x & 1));
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is in the closed range from {@code start} to {@code end}. The offset of a value
+     * from {@code start} is compared unsigned with the width of the range, so values below {@code start} are out of range
+     * as well.
+     */
+    static final class ClosedRange implements IntRange, IntRangeSet {
+
+        private final int start;
+
+        private final int end;
+
+        ClosedRange(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int startIncluding() {
+            return start;
+        }
+
+        @Override
+        public int endIncluding() {
+            return end;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.interval(start, end);
+        }
+
+        @Override
+        public boolean test(int x) {
+            return x >= start && x <= end;
+        }
+
+        @Override
+        public void testAll(int[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final int start = this.start;
+            final long width = (end - start) & 0xFFFFFFFFL;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final int x = in[i];
+                    word |= (~(width - ((x - start) & 0xFFFFFFFFL)) >>> 63) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(int[] in) {
+            Objects.requireNonNull(in);
+            final int start = this.start;
+            final long width = (end - start) & 0xFFFFFFFFL;
+            int count = 0;
+            for (int x : in) {
+                count += (int) (~(width - ((x - start) & 0xFFFFFFFFL)) >>> 63);
+            }
+            return count;
+        }
+    }
+}
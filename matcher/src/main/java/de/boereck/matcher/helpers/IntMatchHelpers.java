@@ -33,7 +33,7 @@ public final class IntMatchHelpers {
      * @return predicate checking if an int value is greater than {@code compareWith}.
      */
     public static AdvIntPredicate gt(int compareWith) {
-        return i -> i > compareWith;
+        return new IntBulkPredicates.Gt(compareWith);
     }
 
     /**
@@ -56,7 +56,7 @@ public final class IntMatchHelpers {
      * @return predicate checking if an int value is greater than or equal to {@code compareWith}.
      */
     public static AdvIntPredicate ge(int compareWith) {
-        return i -> i >= compareWith;
+        return new IntBulkPredicates.Ge(compareWith);
     }
 
     /**
@@ -79,7 +79,7 @@ public final class IntMatchHelpers {
      * @return predicate checking if an int value is lower than {@code compareWith}.
      */
     public static AdvIntPredicate lt(int compareWith) {
-        return i -> i < compareWith;
+        return new IntBulkPredicates.Lt(compareWith);
     }
 
     /**
@@ -102,7 +102,7 @@ public final class IntMatchHelpers {
      * @return predicate checking if an int value is lower than or equal to {@code compareWith}.
      */
     public static AdvIntPredicate le(int compareWith) {
-        return i -> i <= compareWith;
+        return new IntBulkPredicates.Le(compareWith);
     }
 
     /**
@@ -121,12 +121,12 @@ public final class IntMatchHelpers {
     /**
      * Holds a predicate checking if an int value is positive.
      */
-    public static final AdvIntPredicate positive = i -> i > 0;
+    public static final AdvIntPredicate positive = new IntBulkPredicates.Positive();
 
     /**
      * Holds a predicate checking if an int value is negative.
      */
-    public static final AdvIntPredicate negative = i -> i < 0;
+    public static final AdvIntPredicate negative = new IntBulkPredicates.Negative();
 
     /**
      * Returns predicate that returns true if the input int is one of
@@ -143,24 +143,21 @@ public final class IntMatchHelpers {
         // make defensive copy
         final int[] ts = Arrays.copyOf(more, more.length + 1);
         ts[more.length] = el;
-        // sort copied array, so we can do lookup by binary search
-        Arrays.sort(ts);
-        // return predicate performing binary search on elements
-        // it returns ture if element is in array, false if it does not.
-        return input -> Arrays.binarySearch(ts, input) >= 0;
+        // representation of the set (compare, bitmap or hash table) is chosen by size and range of the values
+        return IntSets.contains(ts, true);
     }
 
     /**
      * Holds a predicate checking if an int value is even (dividable by 2).
      * Zero is regarded to be zero.
      */
-    public static final AdvIntPredicate even = dividableBy(2);
+    public static final AdvIntPredicate even = new IntBulkPredicates.Even();
 
     /**
      * Holds a predicate checking if an int value is odd (not dividable by 2).
      * Zero is not regarded as odd.
      */
-    public static final AdvIntPredicate odd = notDividableBy(2);
+    public static final AdvIntPredicate odd = new IntBulkPredicates.Odd();
 
     /**
      * Returns a predicate checking if an int value is dividable by {@code divisor} without leaving a rest.
@@ -172,7 +169,7 @@ public final class IntMatchHelpers {
      * @return predicate checking if an input int value is dividable by {@code divisor} without leaving a rest.
      */
     public static AdvIntPredicate dividableBy(int divisor) {
-        return i -> (i % divisor) == 0;
+        return Divisibility.of(divisor, true);
     }
 
     /**
@@ -185,12 +182,14 @@ public final class IntMatchHelpers {
      * @return predicate checking if an input int value is not dividable by {@code divisor} (integer division leaves a rest).
      */
     public static AdvIntPredicate notDividableBy(int divisor) {
-        return i -> (i % divisor) != 0;
+        return Divisibility.of(divisor, false);
     }
 
     /**
      * Returns a predicate checking if an int value is dividable by the value provided by {@code divisor} without leaving
      * a rest.
+     * The supplier is called on every test, but the check is only prepared again when it provides a different divisor
+     * than on the previous test.
      *
      * @param divisor is used in the returned predicate to check if a value is dividable by the
      *                value provided by {@code divisor} without leaving a rest. This parameter must not be {@code null}.
@@ -199,12 +198,14 @@ public final class IntMatchHelpers {
      */
     public static AdvIntPredicate dividableBy(IntSupplier divisor) throws NullPointerException {
         Objects.requireNonNull(divisor);
-        return i -> (i % divisor.getAsInt()) == 0;
+        return Divisibility.supplied(divisor, true);
     }
 
     /**
      * Returns a predicate checking if an int value is not dividable by the value provided by {@code divisor}.
      * Meaning an integer division leaves a rest.
+     * The supplier is called on every test, but the check is only prepared again when it provides a different divisor
+     * than on the previous test.
      *
      * @param divisor is used in the returned predicate to check if a value is not dividable by the value provided by
      *                {@code divisor} (integer division leaves a rest). This parameter must not be {@code null}.
@@ -214,7 +215,7 @@ public final class IntMatchHelpers {
      */
     public static AdvIntPredicate notDividableBy(IntSupplier divisor) throws NullPointerException {
         Objects.requireNonNull(divisor);
-        return i -> (i % divisor.getAsInt()) != 0;
+        return Divisibility.supplied(divisor, false);
     }
 
     /**
@@ -240,14 +241,61 @@ public final class IntMatchHelpers {
      * @param startIncluding start value. Input may be greater or equal to this.
      * @param endIncluding   end value. Input may be lower or equal to this.
      * @return predicate checking if an input value is in the closed range from {@code startIncluding} to
-     * {@code endIncluding}.
+     * {@code endIncluding}. The predicate is a {@link IntRange}, from which the bounds can be queried.
      * @throws IllegalArgumentException if {@code startIncluding > endIncluding}.
      */
     public static AdvIntPredicate inClosedRange(int startIncluding, int endIncluding) throws IllegalArgumentException {
         if (startIncluding > endIncluding) {
             throw new IllegalArgumentException("startIncluding must be <= endIncluding");
         }
-        return i -> (i >= startIncluding && i <= endIncluding);
+        return new IntBulkPredicates.ClosedRange(startIncluding, endIncluding);
+    }
+
+    /**
+     * Returns a predicate that checks if an input int is in the half-open range from {@code startIncluding} to
+     * {@code endExcluding}. The returned range is the closed range from {@code startIncluding} to
+     * {@code endExcluding - 1}.
+     *
+     * @param startIncluding start value. Input may be greater or equal to this.
+     * @param endExcluding   end value. Input must be lower than this.
+     * @return predicate checking if an input value is in the half-open range from {@code startIncluding} to
+     * {@code endExcluding}. The predicate is a {@link IntRange}, from which the bounds can be queried.
+     * @throws IllegalArgumentException if {@code startIncluding >= endExcluding}, since the range would be empty.
+     */
+    public static AdvIntPredicate inHalfOpenRange(int startIncluding, int endExcluding) throws IllegalArgumentException {
+        if (startIncluding >= endExcluding) {
+            throw new IllegalArgumentException("startIncluding must be < endExcluding");
+        }
+        return inClosedRange(startIncluding, endExcluding - 1);
+    }
+
+    /**
+     * Returns a predicate that checks if an input int is in any of the given ranges. Ranges can be created via
+     * {@link #inClosedRange(int, int)} and {@link #inHalfOpenRange(int, int)}. Overlapping and adjacent ranges are
+     * merged when the predicate is created and the range an input may be in is found by binary search, so testing a
+     * value against many ranges is considerably faster than combining the ranges via {@code or}.
+     *
+     * Predicates returned by this method can be passed as ranges as well.
+     *
+     * @param range first range
+     * @param more  further ranges. This parameter must not be {@code null}, but may be an empty array.
+     * @return predicate checking if an input value is in {@code range} or in any of {@code more}. If the ranges
+     * merge into a single range, the predicate is a {@link IntRange}.
+     * @throws NullPointerException     if {@code range}, {@code more} or any of the elements of {@code more} is
+     *                                  {@code null}.
+     * @throws IllegalArgumentException if {@code range} or any of the elements of {@code more} was not created by
+     *                                  {@link #inClosedRange(int, int)}, {@link #inHalfOpenRange(int, int)} or this
+     *                                  method.
+     */
+    public static AdvIntPredicate inRanges(IntPredicate range, IntPredicate... more) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(range);
+        Objects.requireNonNull(more);
+        final IntPredicate[] ranges = Arrays.copyOf(more, more.length + 1);
+        ranges[more.length] = range;
+        for (IntPredicate r : ranges) {
+            Objects.requireNonNull(r);
+        }
+        return RangeSets.ofInts(ranges);
     }
 
     /**
@@ -264,17 +312,11 @@ public final class IntMatchHelpers {
     public static AdvIntPredicate allExcept(int excluding, int... excludingMore) throws NullPointerException {
         Objects.requireNonNull(excludingMore);
         final int excludingMoreLen = excludingMore.length;
-        // if we have just one exclude, we can have a simple check
-        if (excludingMoreLen == 0) {
-            return i -> i != excluding;
-        } else {
-            // defensive copy of parameters
-            final int[] exclude = Arrays.copyOf(excludingMore, excludingMoreLen + 1);
-            // add first parameter to new array, so we have only one array as search source
-            exclude[excludingMoreLen] = excluding;
-            // sort for faster find using binary search
-            Arrays.sort(exclude);
-            return i -> (Arrays.binarySearch(exclude, i) < 0);
-        }
+        // defensive copy of parameters
+        final int[] exclude = Arrays.copyOf(excludingMore, excludingMoreLen + 1);
+        // add first parameter to new array, so we have only one array as search source
+        exclude[excludingMoreLen] = excluding;
+        // representation of the set (compare, bitmap or hash table) is chosen by size and range of the values
+        return IntSets.contains(exclude, false);
     }
 }
@@ -0,0 +1,55 @@
+package de.boereck.matcher.helpers;
+
+import java.util.function.IntPredicate;
+
+import de.boereck.matcher.function.predicate.AdvIntPredicate;
+
+/**
+ * Predicate checking if an int value is in the closed range from {@link #startIncluding()} to {@link #endIncluding()}.
+ * Other than a predicate defined by a lambda, the bounds of the range can be queried, so case matchers can compile
+ * cases defined by range checks into lookup tables. Instances are created by
+ * {@link IntMatchHelpers#inClosedRange(int, int)} and {@link IntMatchHelpers#inHalfOpenRange(int, int)}.
+ *
+ * @author Max Bureck
+ */
+public interface IntRange extends AdvIntPredicate {
+
+    /**
+     * Lower bound of the range. Values tested by this predicate may be greater than or equal to this value.
+     *
+     * @return lower bound of the range, always {@code <=} {@link #endIncluding()}.
+     */
+    int startIncluding();
+
+    /**
+     * Upper bound of the range. Values tested by this predicate may be lower than or equal to this value.
+     *
+     * @return upper bound of the range, always {@code >=} {@link #startIncluding()}.
+     */
+    int endIncluding();
+
+    /**
+     * Checks if {@code i} is in the closed range from {@link #startIncluding()} to {@link #endIncluding()}.
+     *
+     * @param i value to check
+     * @return {@code true} if {@code startIncluding() <= i <= endIncluding()}
+     */
+    @Override
+    default boolean test(int i) {
+        return i >= startIncluding() && i <= endIncluding();
+    }
+
+    /**
+     * Returns {@code p} as range, if it was created by {@link IntMatchHelpers#inClosedRange(int, int)},
+     * {@link IntMatchHelpers#inHalfOpenRange(int, int)} or another helper of this library. Only such ranges are
+     * known to match exactly the values between their bounds. Other implementations of this interface may override
+     * {@link #test(int)}, so their bounds must not be used in place of the predicate.
+     *
+     * @param p predicate to check, may be {@code null}
+     * @return {@code p} if it is a range created by the helpers of this library, otherwise {@code null}
+     */
+    static IntRange fromHelpers(IntPredicate p) {
+        // all ranges of the library also implement the package-private IntRangeSet
+        return p instanceof IntRange && p instanceof IntRangeSet ? (IntRange) p : null;
+    }
+}
@@ -0,0 +1,49 @@
+package de.boereck.matcher.helpers;
+
+import java.util.function.IntPredicate;
+
+import de.boereck.matcher.function.predicate.AdvIntPredicate;
+
+/**
+ * Predicate on int values that describes the set of values it returns {@code true} for as sorted, disjoint closed
+ * ranges. Predicates created by {@link IntMatchHelpers}, such as range checks, comparisons and checks for one of
+ * several values, implement this interface. Combining such a predicate with another one describing its values
+ * computes the resulting set when the predicate is combined and returns a single predicate testing membership in the
+ * set (see {@link RangeSets#ints(long[])}), instead of a lambda calling both predicates on every test. Combinations with
+ * other predicates, including implementations of {@link IntRange} outside this library, behave like the default
+ * methods of {@link AdvIntPredicate}.
+ *
+ * @author Max Bureck
+ */
+interface IntRangeSet extends AdvIntPredicate {
+
+    /**
+     * Returns the set of values this predicate returns {@code true} for, as described in {@link RangeSets}.
+     *
+     * @return bounds of the ranges, must not be modified
+     */
+    long[] intervals();
+
+    @Override
+    default AdvIntPredicate and(IntPredicate that) {
+        final long[] other = RangeSets.intIntervals(that);
+        return other == null ? AdvIntPredicate.super.and(that) : RangeSets.ints(RangeSets.intersection(intervals(), other));
+    }
+
+    @Override
+    default AdvIntPredicate or(IntPredicate that) {
+        final long[] other = RangeSets.intIntervals(that);
+        return other == null ? AdvIntPredicate.super.or(that) : RangeSets.ints(RangeSets.union(intervals(), other));
+    }
+
+    @Override
+    default AdvIntPredicate xor(IntPredicate that) {
+        final long[] other = RangeSets.intIntervals(that);
+        return other == null ? AdvIntPredicate.super.xor(that) : RangeSets.ints(RangeSets.symmetricDifference(intervals(), other));
+    }
+
+    @Override
+    default AdvIntPredicate negate() {
+        return RangeSets.ints(RangeSets.complement(intervals(), Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,386 @@
+package de.boereck.matcher.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.boereck.matcher.function.predicate.AdvIntPredicate;
+
+/**
+ * Creates predicates checking if an int value is contained in a fixed set of values. The representation of the set is
+ * chosen when the predicate is created, based on the amount of values and the range they span:
+ * <ul>
+ * <li>Up to {@link #LINEAR_MAX_SIZE} values are compared one after another.</li>
+ * <li>Values spanning a small range compared to the amount of values are stored in a bitmap of {@code long}s,
+ * so a lookup is a single shift and mask.</li>
+ * <li>All other sets are stored in an open-addressing hash table with linear probing, so a lookup usually reads a
+ * single slot, regardless of the size of the set.</li>
+ * </ul>
+ * All predicates describe their set as an {@link IntRangeSet}, so combining them with other range sets computes the
+ * combined set once instead of testing both predicates on every value.
+ * This class is not intended to be instantiated or sub-classed.
+ *
+ * @author Max Bureck
+ */
+final class IntSets {
+
+    /**
+     * Maximum amount of values in a set tested by comparing the values one after another.
+     */
+    static final int LINEAR_MAX_SIZE = 8;
+
+    /**
+     * Bitmaps are used for sets spanning at most this amount of values, regardless of the amount of values in the set.
+     */
+    static final long BITMAP_MIN_SPAN = 1L << 16;
+
+    /**
+     * Bitmaps are used for sets spanning at most this amount of values per value in the set; a bitmap for such a set is
+     * not larger than the hash table holding the same values.
+     */
+    static final int BITMAP_SPAN_PER_VALUE = 64;
+
+    /**
+     * Maximum amount of values stored in a hash table. Larger sets are stored in a bitmap, which for such sets is
+     * smaller than the array holding the values.
+     */
+    static final int HASH_MAX_SIZE = 1 << 29;
+
+    private IntSets() {
+        throw new IllegalStateException("Class IntSets must not be instantiated");
+    }
+
+    /**
+     * Returns a predicate checking if an int value is contained in {@code values}.
+     *
+     * @param values set of values; may contain duplicates and is modified (sorted) by this method. Must not be empty.
+     * @param member if {@code true} the predicate returns {@code true} for values in the set, if {@code false} the
+     *               predicate returns {@code true} for all values not in the set.
+     * @return predicate testing membership of values in {@code values}
+     */
+    static AdvIntPredicate contains(int[] values, boolean member) {
+        Arrays.sort(values);
+        final int[] distinct = distinct(values);
+        if (distinct.length <= LINEAR_MAX_SIZE) {
+            return linear(distinct, member);
+        }
+        final int min = distinct[0];
+        final long span = (long) distinct[distinct.length - 1] - min + 1;
+        if (span <= Math.max(BITMAP_MIN_SPAN, (long) distinct.length * BITMAP_SPAN_PER_VALUE)
+                || distinct.length > HASH_MAX_SIZE) {
+            return new Bitmap(distinct, min, span, member);
+        }
+        return new Hash(distinct, member);
+    }
+
+    /**
+     * Removes duplicates from the sorted array {@code sorted}.
+     *
+     * @param sorted sorted values
+     * @return {@code sorted} if it has no duplicates, otherwise a new array holding each value once
+     */
+    private static int[] distinct(int[] sorted) {
+        int len = sorted.length == 0 ? 0 : 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[len - 1]) {
+                sorted[len++] = sorted[i];
+            }
+        }
+        return len == sorted.length ? sorted : Arrays.copyOf(sorted, len);
+    }
+
+    private static AdvIntPredicate linear(int[] vs, boolean member) {
+        // the smallest sets get their own predicates, so the values are held in fields instead of an array
+        switch (vs.length) {
+            case 1:
+                return new One(vs[0], member);
+            case 2:
+                return new Two(vs[0], vs[1], member);
+            case 3:
+                return new Three(vs[0], vs[1], vs[2], member);
+            default:
+                return new Linear(vs, member);
+        }
+    }
+
+    /**
+     * Returns a predicate checking if an int value is in the set of ranges {@code set}, stored in a bitmap.
+     *
+     * @param set set of ranges as described in {@link RangeSets}, spanning at most {@link #BITMAP_MIN_SPAN} values
+     * @return predicate testing membership of values in {@code set}
+     */
+    static AdvIntPredicate bitmap(long[] set) {
+        final int min = (int) set[0];
+        final Bitmap bitmap = new Bitmap(min, set[set.length - 1] - min + 1, true);
+        for (int i = 0; i < set.length; i += 2) {
+            for (long v = set[i]; v <= set[i + 1]; v++) {
+                bitmap.add((int) v);
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Set of a single value.
+     */
+    static final class One implements IntRangeSet {
+
+        private final int a;
+
+        private final boolean member;
+
+        One(int a, boolean member) {
+            this.a = a;
+            this.member = member;
+        }
+
+        @Override
+        public boolean test(int value) {
+            return (value == a) == member;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.ofValues(new int[]{a}, member);
+        }
+    }
+
+    /**
+     * Set of two values.
+     */
+    static final class Two implements IntRangeSet {
+
+        private final int a;
+
+        private final int b;
+
+        private final boolean member;
+
+        Two(int a, int b, boolean member) {
+            this.a = a;
+            this.b = b;
+            this.member = member;
+        }
+
+        @Override
+        public boolean test(int value) {
+            return (value == a || value == b) == member;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.ofValues(new int[]{a, b}, member);
+        }
+    }
+
+    /**
+     * Set of three values.
+     */
+    static final class Three implements IntRangeSet {
+
+        private final int a;
+
+        private final int b;
+
+        private final int c;
+
+        private final boolean member;
+
+        Three(int a, int b, int c, boolean member) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.member = member;
+        }
+
+        @Override
+        public boolean test(int value) {
+            return (value == a || value == b || value == c) == member;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.ofValues(new int[]{a, b, c}, member);
+        }
+    }
+
+    /**
+     * Set compared with the tested value one by one.
+     */
+    static final class Linear implements IntRangeSet {
+
+        private final int[] values;
+
+        private final boolean member;
+
+        Linear(int[] values, boolean member) {
+            this.values = values;
+            this.member = member;
+        }
+
+        @Override
+        public boolean test(int value) {
+            for (int v : values) {
+                if (v == value) {
+                    return member;
+                }
+            }
+            return !member;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.ofValues(values, member);
+        }
+    }
+
+    /**
+     * Set stored as one bit per value in the range from the smallest to the largest value of the set.
+     */
+    static final class Bitmap implements IntRangeSet {
+
+        private final long[] words;
+
+        private final int min;
+
+        private final int span;
+
+        private final boolean member;
+
+        Bitmap(int[] values, int min, long span, boolean member) {
+            this(min, span, member);
+            for (int v : values) {
+                add(v);
+            }
+        }
+
+        Bitmap(int min, long span, boolean member) {
+            // span - 1 is stored, so a span of all 2^32 int values is stored as -1, the largest unsigned int
+            this.words = new long[(int) ((span + 63) >>> 6)];
+            this.min = min;
+            this.span = (int) (span - 1);
+            this.member = member;
+        }
+
+        private void add(int value) {
+            final int offset = value - min;
+            words[offset >>> 6] |= 1L << offset;
+        }
+
+        @Override
+        public boolean test(int value) {
+            final int offset = value - min;
+            // unsigned comparison, so values below min are out of range as well
+            if (Integer.compareUnsigned(offset, span) > 0) {
+                return !member;
+            }
+            return ((words[offset >>> 6] & (1L << offset)) != 0) == member;
+        }
+
+        @Override
+        public long[] intervals() {
+            // runs of set bits are the ranges of the set, no bits beyond the span are set
+            final long end = Integer.toUnsignedLong(span) + 1;
+            final List<Long> bounds = new ArrayList<>();
+            long offset = 0;
+            while (offset < end) {
+                final long bits = words[(int) (offset >>> 6)] >>> offset;
+                if (bits == 0) {
+                    offset = (offset | 63) + 1;
+                    continue;
+                }
+                offset += Long.numberOfTrailingZeros(bits);
+                final long start = offset;
+                while (offset < end) {
+                    final int ones = Long.numberOfTrailingZeros(~(words[(int) (offset >>> 6)] >>> offset));
+                    offset += ones;
+                    // continue with the next word only if the run reaches the end of the word
+                    if (ones == 0 || (offset & 63) != 0) {
+                        break;
+                    }
+                }
+                bounds.add(min + start);
+                bounds.add(min + offset - 1);
+            }
+            final long[] set = bounds.stream().mapToLong(Long::longValue).toArray();
+            return member ? set : RangeSets.complement(set, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Set stored in an open-addressing hash table with linear probing. Empty slots hold a value not contained in the set.
+     */
+    static final class Hash implements IntRangeSet {
+
+        /**
+         * Multiplier of the Fibonacci hashing of the values, 2<sup>32</sup> divided by the golden ratio.
+         */
+        private static final int PHI = 0x9E3779B9;
+
+        private final int[] table;
+
+        private final int shift;
+
+        private final int mask;
+
+        private final int free;
+
+        private final boolean member;
+
+        Hash(int[] sorted, boolean member) {
+            // at most half of the slots are used, keeping probe sequences short
+            final int bits = 33 - Integer.numberOfLeadingZeros(sorted.length - 1);
+            this.table = new int[1 << bits];
+            this.shift = 32 - bits;
+            this.mask = table.length - 1;
+            this.free = freeValue(sorted);
+            this.member = member;
+            Arrays.fill(table, free);
+            for (int v : sorted) {
+                int slot = (v * PHI) >>> shift;
+                while (table[slot] != free) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = v;
+            }
+        }
+
+        /**
+         * Finds a value not contained in the sorted array {@code sorted}.
+         */
+        private static int freeValue(int[] sorted) {
+            if (sorted[0] != Integer.MIN_VALUE) {
+                return Integer.MIN_VALUE;
+            }
+            // an int[] cannot hold all int values, so there is a gap
+            int i = 1;
+            while (i < sorted.length && sorted[i] == sorted[i - 1] + 1) {
+                i++;
+            }
+            return sorted[i - 1] + 1;
+        }
+
+        @Override
+        public boolean test(int value) {
+            if (value == free) {
+                return !member;
+            }
+            final int[] table = this.table;
+            int slot = (value * PHI) >>> shift;
+            int v;
+            while ((v = table[slot]) != free) {
+                if (v == value) {
+                    return member;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return !member;
+        }
+
+        @Override
+        public long[] intervals() {
+            final int[] values = Arrays.stream(table).filter(v -> v != free).sorted().toArray();
+            return RangeSets.ofValues(values, member);
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package de.boereck.matcher.helpers;
+
+import java.util.Objects;
+
+import de.boereck.matcher.function.predicate.AdvLongPredicate;
+
+/**
+ * Predicates on long values created by {@link LongMatchHelpers}, overriding the bulk methods
+ * {@link AdvLongPredicate#testAll(long[], long[])} and {@link AdvLongPredicate#countMatches(long[])}. The bulk methods
+ * compute the result for every value arithmetically instead of by a conditional branch, using
+ * {@link Bitmasks#lessThan(long, long)} for comparisons. The loops therefore neither call a method nor branch per
+ * value, so they are not slowed down by mispredicted branches on unsorted data and can be unrolled by the JIT
+ * compiler. Except for {@link Even} and {@link Odd}, the predicates describe the values they match as
+ * {@link LongRangeSet}.
+ * <p>
+ * This class is not intended to be instantiated or sub-classed.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+final class LongBulkPredicates {
+
+    private LongBulkPredicates() {
+        throw new IllegalStateException("Class LongBulkPredicates must not be instantiated");
+    }
+
+    /**
+     * Checks if a value is greater than {@code c}.
+     */
+    static final class Gt implements LongRangeSet {
+
+        private final long c;
+
+        Gt(long c) {
+            this.c = c;
+        }
+
+        @Override
+        public long[] intervals() {
+            return c == Long.MAX_VALUE ? RangeSets.EMPTY : RangeSets.interval(c + 1, Long.MAX_VALUE);
+        }
+
+        @Override
+        public boolean test(long x) {
+            return x > c;
+        }
+
+        @Override
+        public void testAll(long[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final long c = this.c;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final long x = in[i];
+                    word |= (Bitmasks.lessThan(c, x)) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(long[] in) {
+            Objects.requireNonNull(in);
+            final long c = this.c;
+            int count = 0;
+            for (long x : in) {
+                count += (int) (Bitmasks.lessThan(c, x));
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is greater than or equal to {@code c}.
+     */
+    static final class Ge implements LongRangeSet {
+
+        private final long c;
+
+        Ge(long c) {
+            this.c = c;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.interval(c, Long.MAX_VALUE);
+        }
+
+        @Override
+        public boolean test(long x) {
+            return x >= c;
+        }
+
+        @Override
+        public void testAll(long[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final long c = this.c;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final long x = in[i];
+                    word |= (Bitmasks.lessThan(x, c) ^ 1L) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(long[] in) {
+            Objects.requireNonNull(in);
+            final long c = this.c;
+            int count = 0;
+            for (long x : in) {
+                count += (int) (Bitmasks.lessThan(x, c) ^ 1L);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is lower than {@code c}.
+     */
+    static final class Lt implements LongRangeSet {
+
+        private final long c;
+
+        Lt(long c) {
+            this.c = c;
+        }
+
+        @Override
+        public long[] intervals() {
+            return c == Long.MIN_VALUE ? RangeSets.EMPTY : RangeSets.interval(Long.MIN_VALUE, c - 1);
+        }
+
+        @Override
+        public boolean test(long x) {
+            return x < c;
+        }
+
+        @Override
+        public void testAll(long[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final long c = this.c;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final long x = in[i];
+                    word |= (Bitmasks.lessThan(x, c)) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(long[] in) {
+            Objects.requireNonNull(in);
+            final long c = this.c;
+            int count = 0;
+            for (long x : in) {
+                count += (int) (Bitmasks.lessThan(x, c));
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is lower than or equal to {@code c}.
+     */
+    static final class Le implements LongRangeSet {
+
+        private final long c;
+
+        Le(long c) {
+            this.c = c;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.interval(Long.MIN_VALUE, c);
+        }
+
+        @Override
+        public boolean test(long x) {
+            return x <= c;
+        }
+
+        @Override
+        public void testAll(long[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final long c = this.c;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final long x = in[i];
+                    word |= (Bitmasks.lessThan(c, x) ^ 1L) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(long[] in) {
+            Objects.requireNonNull(in);
+            final long c = this.c;
+            int count = 0;
+            for (long x : in) {
+                count += (int) (Bitmasks.lessThan(c, x) ^ 1L);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is greater than zero.
+     */
+    static final class Positive implements LongRangeSet {
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.interval(1, Long.MAX_VALUE);
+        }
+
+        @Override
+        public boolean test(long x) {
+            return x > 0;
+        }
+
+        @Override
+        public void testAll(long[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final long x = in[i];
+                    word |= ((-x & ~x) >>> 63) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(long[] in) {
+            Objects.requireNonNull(in);
+            int count = 0;
+            for (long x : in) {
+                count += (int) ((-x & ~x) >>> 63);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is lower than zero.
+     */
+    static final class Negative implements LongRangeSet {
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.interval(Long.MIN_VALUE, -1);
+        }
+
+        @Override
+        public boolean test(long x) {
+            return x < 0;
+        }
+
+        @Override
+        public void testAll(long[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final long x = in[i];
+                    word |= (x >>> 63) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(long[] in) {
+            Objects.requireNonNull(in);
+            int count = 0;
+            for (long x : in) {
+                count += (int) (x >>> 63);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is dividable by two.
+     */
+    static final class Even implements AdvLongPredicate {
+
+        @Override
+        public boolean test(long x) {
+            return (x & 1L) == 0;
+        }
+
+        @Override
+        public void testAll(long[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final long x = in[i];
+                    word |= (~x & 1L) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(long[] in) {
+            Objects.requireNonNull(in);
+            int count = 0;
+            for (long x : in) {
+                count += (int) (~x & 1L);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is not dividable by two.
+     */
+    static final class Odd implements AdvLongPredicate {
+
+        @Override
+        public boolean test(long x) {
+            return (x & 1L) != 0;
+        }
+
+        @Override
+        public void testAll(long[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final long x = in[i];
+                    word |= (x & 1L) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(long[] in) {
+            Objects.requireNonNull(in);
+            int count = 0;
+            for (long x : in) {
+                count += (int) (x & 1L);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Checks if a value is in the closed range from {@code start} to {@code end}. The offset of a value
+     * from {@code start} is compared unsigned with the width of the range, so values below {@code start} are out of range
+     * as well.
+     */
+    static final class ClosedRange implements LongRange, LongRangeSet {
+
+        private final long start;
+
+        private final long end;
+
+        ClosedRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public long startIncluding() {
+            return start;
+        }
+
+        @Override
+        public long endIncluding() {
+            return end;
+        }
+
+        @Override
+        public long[] intervals() {
+            return RangeSets.interval(start, end);
+        }
+
+        @Override
+        public boolean test(long x) {
+            return x >= start && x <= end;
+        }
+
+        @Override
+        public void testAll(long[] in, long[] bitmaskOut) {
+            Objects.requireNonNull(in);
+            final int words = Bitmasks.words(in.length, bitmaskOut);
+            final long start = this.start;
+            final long width = (end - start) ^ Long.MIN_VALUE;
+            for (int w = 0; w < words; w++) {
+                final int from = w << 6;
+                final int to = Math.min(in.length - from, 64) + from;
+                long word = 0L;
+                for (int i = from; i < to; i++) {
+                    final long x = in[i];
+                    word |= (Bitmasks.lessThan(width, (x - start) ^ Long.MIN_VALUE) ^ 1L) << i;
+                }
+                bitmaskOut[w] = word;
+            }
+        }
+
+        @Override
+        public int countMatches(long[] in) {
+            Objects.requireNonNull(in);
+            final long start = this.start;
+            final long width = (end - start) ^ Long.MIN_VALUE;
+            int count = 0;
+            for (long x : in) {
+                count += (int) (Bitmasks.lessThan(width, (x - start) ^ Long.MIN_VALUE) ^ 1L);
+            }
+            return count;
+        }
+    }
+}
@@ -29,7 +29,7 @@ public final class LongMatchHelpers {
      * @return predicate checking if a long value is greater than {@code compareWith}.
      */
     public static AdvLongPredicate gt(long compareWith) {
-        return l -> l > compareWith;
+        return new LongBulkPredicates.Gt(compareWith);
     }
 
     /**
@@ -52,7 +52,7 @@ public final class LongMatchHelpers {
      * @return predicate checking if a long value is greater than or equal to {@code compareWith}.
      */
     public static AdvLongPredicate ge(long compareWith) {
-        return i -> i >= compareWith;
+        return new LongBulkPredicates.Ge(compareWith);
     }
 
     /**
@@ -75,7 +75,7 @@ public final class LongMatchHelpers {
      * @return predicate checking if a long value is lower than {@code compareWith}.
      */
     public static AdvLongPredicate lt(long compareWith) {
-        return l -> l < compareWith;
+        return new LongBulkPredicates.Lt(compareWith);
     }
 
     /**
@@ -98,7 +98,7 @@ public final class LongMatchHelpers {
      * @return predicate checking if a long value is lower than or equal to {@code compareWith}.
      */
     public static AdvLongPredicate le(long compareWith) {
-        return i -> i <= compareWith;
+        return new LongBulkPredicates.Le(compareWith);
     }
 
     /**
@@ -130,20 +130,19 @@ public final class LongMatchHelpers {
         ts[more.length] = el;
         // sort copied array, so we can do lookup by binary search
         Arrays.sort(ts);
-        // return predicate performing binary search on elements
-        // it returns ture if element is in array, false if it does not.
-        return input -> Arrays.binarySearch(ts,input) >= 0;
+        // the set looks up the distinct elements and can be combined with other range sets
+        return new RangeSets.LongValues(distinct(ts), true);
     }
 
     /**
      * Holds a predicate checking if a long value is positive.
      */
-    public static final AdvLongPredicate positive = l -> l > 0;
+    public static final AdvLongPredicate positive = new LongBulkPredicates.Positive();
 
     /**
      * Holds a predicate checking if a long value is negative.
      */
-    public static final AdvLongPredicate negative = l -> l < 0;
+    public static final AdvLongPredicate negative = new LongBulkPredicates.Negative();
 
     /**
      * Returns a predicate checking if a long value is dividable by {@code divisor} without leaving a rest.
@@ -153,7 +152,7 @@ public final class LongMatchHelpers {
      * @return predicate checking if an input long value is dividable by {@code divisor} without leaving a rest.
      */
     public static AdvLongPredicate dividableBy(long divisor) {
-        return l -> (l % divisor) == 0;
+        return Divisibility.of(divisor, true);
     }
 
     /**
@@ -165,18 +164,18 @@ public final class LongMatchHelpers {
      * @return predicate checking if an input long value is not dividable by {@code divisor} (long division leaves a rest).
      */
     public static AdvLongPredicate notDividableBy(long divisor) {
-        return i -> (i % divisor) != 0;
+        return Divisibility.of(divisor, false);
     }
 
     /**
      * Holds a predicate checking if a long value is even (dividable by 2).
      */
-    public static final AdvLongPredicate evenLong = dividableBy(2L);
+    public static final AdvLongPredicate evenLong = new LongBulkPredicates.Even();
 
     /**
      * Holds a predicate checking if a long value is odd (not dividable by 2).
      */
-    public static final AdvLongPredicate oddLong = notDividableBy(2L);
+    public static final AdvLongPredicate oddLong = new LongBulkPredicates.Odd();
 
     /**
      * Returns a predicate that checks if an input long is in the closed range from {@code startIncluding} to
@@ -185,14 +184,61 @@ public final class LongMatchHelpers {
      * @param startIncluding start value. Input may be greater or equal to this.
      * @param endIncluding   end value. Input may be lower or equal to this.
      * @return predicate checking if an input value is in the closed range from {@code startIncluding} to
-     * {@code endIncluding}.
+     * {@code endIncluding}. The predicate is a {@link LongRange}, from which the bounds can be queried.
      * @throws IllegalArgumentException if {@code startIncluding > endIncluding}.
      */
     public static AdvLongPredicate inClosedRange(long startIncluding, long endIncluding) throws IllegalArgumentException {
         if (startIncluding > endIncluding) {
             throw new IllegalArgumentException("startIncluding must be <= endIncluding");
         }
-        return l -> (l >= startIncluding && l <= endIncluding);
+        return new LongBulkPredicates.ClosedRange(startIncluding, endIncluding);
+    }
+
+    /**
+     * Returns a predicate that checks if an input long is in the half-open range from {@code startIncluding} to
+     * {@code endExcluding}. The returned range is the closed range from {@code startIncluding} to
+     * {@code endExcluding - 1}.
+     *
+     * @param startIncluding start value. Input may be greater or equal to this.
+     * @param endExcluding   end value. Input must be lower than this.
+     * @return predicate checking if an input value is in the half-open range from {@code startIncluding} to
+     * {@code endExcluding}. The predicate is a {@link LongRange}, from which the bounds can be queried.
+     * @throws IllegalArgumentException if {@code startIncluding >= endExcluding}, since the range would be empty.
+     */
+    public static AdvLongPredicate inHalfOpenRange(long startIncluding, long endExcluding) throws IllegalArgumentException {
+        if (startIncluding >= endExcluding) {
+            throw new IllegalArgumentException("startIncluding must be < endExcluding");
+        }
+        return inClosedRange(startIncluding, endExcluding - 1);
+    }
+
+    /**
+     * Returns a predicate that checks if an input long is in any of the given ranges. Ranges can be created via
+     * {@link #inClosedRange(long, long)} and {@link #inHalfOpenRange(long, long)}. Overlapping and adjacent ranges are
+     * merged when the predicate is created and the range an input may be in is found by binary search, so testing a
+     * value against many ranges is considerably faster than combining the ranges via {@code or}.
+     *
+     * Predicates returned by this method can be passed as ranges as well.
+     *
+     * @param range first range
+     * @param more  further ranges. This parameter must not be {@code null}, but may be an empty array.
+     * @return predicate checking if an input value is in {@code range} or in any of {@code more}. If the ranges
+     * merge into a single range, the predicate is a {@link LongRange}.
+     * @throws NullPointerException     if {@code range}, {@code more} or any of the elements of {@code more} is
+     *                                  {@code null}.
+     * @throws IllegalArgumentException if {@code range} or any of the elements of {@code more} was not created by
+     *                                  {@link #inClosedRange(long, long)}, {@link #inHalfOpenRange(long, long)} or this
+     *                                  method.
+     */
+    public static AdvLongPredicate inRanges(LongPredicate range, LongPredicate... more) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(range);
+        Objects.requireNonNull(more);
+        final LongPredicate[] ranges = Arrays.copyOf(more, more.length + 1);
+        ranges[more.length] = range;
+        for (LongPredicate r : ranges) {
+            Objects.requireNonNull(r);
+        }
+        return RangeSets.ofLongs(ranges);
     }
 
     /**
@@ -219,7 +265,20 @@ public final class LongMatchHelpers {
             exclude[excludingMoreLen] = excluding;
             // sort for faster find using binary search
             Arrays.sort(exclude);
-            return i -> (Arrays.binarySearch(exclude, i) < 0);
+            return new RangeSets.LongValues(distinct(exclude), false);
+        }
+    }
+
+    /**
+     * Returns the distinct values of the sorted array {@code sorted}, which may be the array itself.
+     */
+    private static long[] distinct(long[] sorted) {
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
         }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
     }
 }
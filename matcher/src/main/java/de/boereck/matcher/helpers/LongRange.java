@@ -0,0 +1,55 @@
+package de.boereck.matcher.helpers;
+
+import java.util.function.LongPredicate;
+
+import de.boereck.matcher.function.predicate.AdvLongPredicate;
+
+/**
+ * Predicate checking if a long value is in the closed range from {@link #startIncluding()} to {@link #endIncluding()}.
+ * Other than a predicate defined by a lambda, the bounds of the range can be queried, so case matchers can compile
+ * cases defined by range checks into lookup tables. Instances are created by
+ * {@link LongMatchHelpers#inClosedRange(long, long)} and {@link LongMatchHelpers#inHalfOpenRange(long, long)}.
+ *
+ * @author Max Bureck
+ */
+public interface LongRange extends AdvLongPredicate {
+
+    /**
+     * Lower bound of the range. Values tested by this predicate may be greater than or equal to this value.
+     *
+     * @return lower bound of the range, always {@code <=} {@link #endIncluding()}.
+     */
+    long startIncluding();
+
+    /**
+     * Upper bound of the range. Values tested by this predicate may be lower than or equal to this value.
+     *
+     * @return upper bound of the range, always {@code >=} {@link #startIncluding()}.
+     */
+    long endIncluding();
+
+    /**
+     * Checks if {@code l} is in the closed range from {@link #startIncluding()} to {@link #endIncluding()}.
+     *
+     * @param l value to check
+     * @return {@code true} if {@code startIncluding() <= l <= endIncluding()}
+     */
+    @Override
+    default boolean test(long l) {
+        return l >= startIncluding() && l <= endIncluding();
+    }
+
+    /**
+     * Returns {@code p} as range, if it was created by {@link LongMatchHelpers#inClosedRange(long, long)},
+     * {@link LongMatchHelpers#inHalfOpenRange(long, long)} or another helper of this library. Only such ranges are
+     * known to match exactly the values between their bounds. Other implementations of this interface may override
+     * {@link #test(long)}, so their bounds must not be used in place of the predicate.
+     *
+     * @param p predicate to check, may be {@code null}
+     * @return {@code p} if it is a range created by the helpers of this library, otherwise {@code null}
+     */
+    static LongRange fromHelpers(LongPredicate p) {
+        // all ranges of the library also implement the package-private LongRangeSet
+        return p instanceof LongRange && p instanceof LongRangeSet ? (LongRange) p : null;
+    }
+}
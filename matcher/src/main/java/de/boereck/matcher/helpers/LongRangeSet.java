@@ -0,0 +1,49 @@
+package de.boereck.matcher.helpers;
+
+import java.util.function.LongPredicate;
+
+import de.boereck.matcher.function.predicate.AdvLongPredicate;
+
+/**
+ * Predicate on long values that describes the set of values it returns {@code true} for as sorted, disjoint closed
+ * ranges. Predicates created by {@link LongMatchHelpers}, such as range checks, comparisons and checks for one of
+ * several values, implement this interface. Combining such a predicate with another one describing its values
+ * computes the resulting set when the predicate is combined and returns a single predicate testing membership in the
+ * set (see {@link RangeSets#longs(long[])}), instead of a lambda calling both predicates on every test. Combinations
+ * with other predicates, including implementations of {@link LongRange} outside this library, behave like the default
+ * methods of {@link AdvLongPredicate}.
+ *
+ * @author Max Bureck
+ */
+interface LongRangeSet extends AdvLongPredicate {
+
+    /**
+     * Returns the set of values this predicate returns {@code true} for, as described in {@link RangeSets}.
+     *
+     * @return bounds of the ranges, must not be modified
+     */
+    long[] intervals();
+
+    @Override
+    default AdvLongPredicate and(LongPredicate that) {
+        final long[] other = RangeSets.longIntervals(that);
+        return other == null ? AdvLongPredicate.super.and(that) : RangeSets.longs(RangeSets.intersection(intervals(), other));
+    }
+
+    @Override
+    default AdvLongPredicate or(LongPredicate that) {
+        final long[] other = RangeSets.longIntervals(that);
+        return other == null ? AdvLongPredicate.super.or(that) : RangeSets.longs(RangeSets.union(intervals(), other));
+    }
+
+    @Override
+    default AdvLongPredicate xor(LongPredicate that) {
+        final long[] other = RangeSets.longIntervals(that);
+        return other == null ? AdvLongPredicate.super.xor(that) : RangeSets.longs(RangeSets.symmetricDifference(intervals(), other));
+    }
+
+    @Override
+    default AdvLongPredicate negate() {
+        return RangeSets.longs(RangeSets.complement(intervals(), Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+}
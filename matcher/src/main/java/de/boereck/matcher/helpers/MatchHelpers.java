@@ -37,10 +37,10 @@ public final class MatchHelpers {
      * {@link OptionalMapper}.
      *
      * @param <I> type of input object to be wrapped into an optional
-     * @return mapper that is reference to static method {@link java.util.Optional#ofNullable(Object)}
+     * @return mapper wrapping its input like {@link java.util.Optional#ofNullable(Object)}
      */
     private static <I> OptionalMapper<I, I> toOptional() {
-        return Optional::ofNullable;
+        return OptionalMapper.ofNullable();
     }
 
     /**
@@ -644,7 +644,7 @@ public final class MatchHelpers {
      */
     public static <I> OptionalMapper<I, I> filterNullAware(Predicate<I> test) throws NullPointerException {
         Objects.requireNonNull(test);
-        return i -> Optional.ofNullable(i).filter(test);
+        return MatchHelpers.<I>toOptional().filter(test);
     }
 
     /**
@@ -658,7 +658,8 @@ public final class MatchHelpers {
      */
     public static <T> OptionalMapper<Object, T> cast(Class<T> clazz) throws NullPointerException {
         Objects.requireNonNull(clazz);
-        return t -> cast(t, clazz);
+        // fused mapper, so stages appended to the cast run in the same loop
+        return MatchHelpers.toOptional().filter(clazz);
     }
 
     /**
@@ -697,10 +698,11 @@ public final class MatchHelpers {
      *
      * @param t   object to check for equality
      * @param <T> Type of element to be checked for equality
-     * @return predicate, checking input objects for equality to {@code t}.
+     * @return predicate, checking input objects for equality to {@code t}. The predicate is an {@link EqualsPredicate},
+     * from which the value {@code t} can be queried.
      */
     public static <T> AdvPredicate<T> eq(T t) {
-        return o -> Objects.equals(o, t);
+        return new ObjectSets.Equal<>(t);
     }
 
     /**
@@ -722,16 +724,38 @@ public final class MatchHelpers {
         // make defensive copy
         final T[] ts = Arrays.copyOf(more, more.length + 1);
         ts[more.length] = t;
-        return o -> contains(ts, o);
+        // large sets are looked up in a hash table based on the identity hash codes
+        return ObjectSets.identity(ts);
     }
 
-    private static <T> boolean contains(T[] ts, T input) {
-        for (int i = 0; i < ts.length; i++) {
-            if (ts[i] == input) {
-                return true;
-            }
+    /**
+     * Returns predicate that returns true if the input object is equal to one of
+     * the given objects {@code t} or {@code more}. Other than {@link #oneOf(Object, Object[])},
+     * the predicate checks for equality using {@link Objects#equals(Object, Object)}, so
+     * e.g. Strings with the same characters are matched regardless of whether they are the same
+     * instances. Be aware that changes to the given elements {@code more} will have no effect on
+     * the returned predicate. The hash codes of the given objects must not change after the
+     * predicate was created, since large sets are looked up in a hash table. Sets of enum constants
+     * are looked up by the ordinal of the constants.
+     *
+     * @param t    one element predicate will check if input is equal to it
+     * @param more further elements the predicate will check if element
+     *             is equal to one of them.
+     * @param <T>  type of elements to be checked
+     * @return predicate checking if the input object is equal to either {@code t} or one of {@code more}.
+     * @throws NullPointerException will be thrown if {@code more} is {@code null}.
+     */
+    @SafeVarargs
+    public static <T> AdvPredicate<T> oneOfEq(T t, T... more) throws NullPointerException {
+        Objects.requireNonNull(more);
+        // make defensive copy, element by element, since passing the varargs array on would expose it
+        @SuppressWarnings("unchecked") // Safe, the array is only read by the predicate
+        final T[] ts = (T[]) new Object[more.length + 1];
+        for (int i = 0; i < more.length; i++) {
+            ts[i] = more[i];
         }
-        return false;
+        ts[more.length] = t;
+        return ObjectSets.equality(ts);
     }
 
     /**
@@ -0,0 +1,248 @@
+package de.boereck.matcher.helpers;
+
+import java.util.Objects;
+
+import de.boereck.matcher.function.predicate.AdvPredicate;
+
+/**
+ * Creates predicates checking if an object is contained in a fixed set of objects, either comparing the objects by
+ * reference or by {@link Object#equals(Object) equals}. The representation of the set is chosen when the predicate is
+ * created:
+ * <ul>
+ * <li>Up to {@link #LINEAR_MAX_SIZE} objects are compared one after another.</li>
+ * <li>Constants of a single enum type are looked up by their ordinal, which is a perfect hash of the constants.</li>
+ * <li>All other sets are stored in an open-addressing hash table with linear probing. For equality-based sets the
+ * hash codes of the objects are stored next to them, so {@code equals} is only called on objects with the same hash
+ * code.</li>
+ * </ul>
+ * This class is not intended to be instantiated or sub-classed.
+ *
+ * @author Max Bureck
+ */
+final class ObjectSets {
+
+    /**
+     * Maximum amount of objects in a set tested by comparing the objects one after another.
+     */
+    static final int LINEAR_MAX_SIZE = 8;
+
+    /**
+     * Multiplier spreading hash codes over the slots of a table, 2<sup>32</sup> divided by the golden ratio.
+     */
+    private static final int PHI = 0x9E3779B9;
+
+    private ObjectSets() {
+        throw new IllegalStateException("Class ObjectSets must not be instantiated");
+    }
+
+    /**
+     * Returns a predicate checking if an object is the same instance as one of {@code elements}.
+     *
+     * @param elements set of objects, may contain {@code null} and duplicates. The array must not be modified afterwards.
+     * @param <T>      type of the objects
+     * @return predicate checking if an object is one of {@code elements}
+     */
+    static <T> AdvPredicate<T> identity(T[] elements) {
+        if (elements.length <= LINEAR_MAX_SIZE) {
+            return o -> containsRef(elements, o);
+        }
+        final AdvPredicate<T> enums = enumConstants(elements);
+        if (enums != null) {
+            return enums;
+        }
+        return new IdentityHash<>(elements);
+    }
+
+    /**
+     * Returns a predicate checking if an object equals one of {@code elements}.
+     *
+     * @param elements set of objects, may contain {@code null} and duplicates. The array must not be modified afterwards
+     *                 and the hash codes of the objects must not change.
+     * @param <T>      type of the objects
+     * @return predicate checking if an object equals one of {@code elements}
+     */
+    static <T> AdvPredicate<T> equality(T[] elements) {
+        if (elements.length <= LINEAR_MAX_SIZE) {
+            return o -> containsEqual(elements, o);
+        }
+        final AdvPredicate<T> enums = enumConstants(elements);
+        if (enums != null) {
+            return enums;
+        }
+        return new EqualityHash<>(elements);
+    }
+
+    private static boolean containsRef(Object[] elements, Object input) {
+        for (Object element : elements) {
+            if (element == input) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsEqual(Object[] elements, Object input) {
+        for (Object element : elements) {
+            if (Objects.equals(element, input)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a predicate looking up enum constants by ordinal, if all {@code elements} are constants of the same enum
+     * type. Enum constants are singletons, so comparing them by reference and by equality is the same.
+     *
+     * @return predicate or {@code null} if not all elements are constants of the same enum type
+     */
+    private static <T> AdvPredicate<T> enumConstants(T[] elements) {
+        if (!(elements[0] instanceof Enum)) {
+            return null;
+        }
+        final Class<?> type = ((Enum<?>) elements[0]).getDeclaringClass();
+        final boolean[] contained = new boolean[type.getEnumConstants().length];
+        for (T element : elements) {
+            // constants with a body are instances of a subclass, so compare the declaring class
+            if (!(element instanceof Enum) || ((Enum<?>) element).getDeclaringClass() != type) {
+                return null;
+            }
+            contained[((Enum<?>) element).ordinal()] = true;
+        }
+        return o -> o instanceof Enum && ((Enum<?>) o).getDeclaringClass() == type && contained[((Enum<?>) o).ordinal()];
+    }
+
+    /**
+     * Returns the amount of slots of a table holding {@code size} objects, so at most half of the slots are used.
+     */
+    private static int tableSize(int size) {
+        return 1 << (33 - Integer.numberOfLeadingZeros(size - 1));
+    }
+
+    /**
+     * Set of a single object, compared by equality.
+     */
+    static final class Equal<T> implements EqualsPredicate<T> {
+
+        private final T value;
+
+        Equal(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public T value() {
+            return value;
+        }
+    }
+
+    /**
+     * Set comparing objects by reference, stored in an open-addressing hash table indexed by the identity hash codes
+     * of the objects.
+     */
+    static final class IdentityHash<T> implements AdvPredicate<T> {
+
+        private final Object[] table;
+
+        private final int shift;
+
+        private final int mask;
+
+        private final boolean containsNull;
+
+        IdentityHash(T[] elements) {
+            this.table = new Object[tableSize(elements.length)];
+            this.shift = Integer.numberOfLeadingZeros(table.length - 1);
+            this.mask = table.length - 1;
+            boolean containsNull = false;
+            for (T element : elements) {
+                if (element == null) {
+                    containsNull = true;
+                    continue;
+                }
+                int slot = (System.identityHashCode(element) * PHI) >>> shift;
+                Object present;
+                while ((present = table[slot]) != null && present != element) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = element;
+            }
+            this.containsNull = containsNull;
+        }
+
+        @Override
+        public boolean test(T t) {
+            if (t == null) {
+                return containsNull;
+            }
+            final Object[] table = this.table;
+            int slot = (System.identityHashCode(t) * PHI) >>> shift;
+            Object present;
+            while ((present = table[slot]) != null) {
+                if (present == t) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Set comparing objects by equality, stored in an open-addressing hash table. The hash code of every object is
+     * stored at the same index in a separate array, so probing compares ints and only calls {@code equals} on objects
+     * with the same hash code.
+     */
+    static final class EqualityHash<T> implements AdvPredicate<T> {
+
+        private final Object[] table;
+
+        private final int[] hashes;
+
+        private final int shift;
+
+        private final int mask;
+
+        private final boolean containsNull;
+
+        EqualityHash(T[] elements) {
+            this.table = new Object[tableSize(elements.length)];
+            this.hashes = new int[table.length];
+            this.shift = Integer.numberOfLeadingZeros(table.length - 1);
+            this.mask = table.length - 1;
+            boolean containsNull = false;
+            for (T element : elements) {
+                if (element == null) {
+                    containsNull = true;
+                } else if (!test(element)) {
+                    final int hash = element.hashCode();
+                    int slot = (hash * PHI) >>> shift;
+                    while (table[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = element;
+                    hashes[slot] = hash;
+                }
+            }
+            this.containsNull = containsNull;
+        }
+
+        @Override
+        public boolean test(T t) {
+            if (t == null) {
+                return containsNull;
+            }
+            final Object[] table = this.table;
+            final int hash = t.hashCode();
+            int slot = (hash * PHI) >>> shift;
+            Object present;
+            while ((present = table[slot]) != null) {
+                if (hashes[slot] == hash && (present == t || present.equals(t))) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+    }
+}
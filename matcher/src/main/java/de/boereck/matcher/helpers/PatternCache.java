@@ -0,0 +1,267 @@
+package de.boereck.matcher.helpers;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Bounded cache of compiled regular expressions, keyed by the expression and the compile flags. The regular expression
+ * helpers of {@link StringMatchHelpers} compile their expressions via the {@link #shared() shared} cache, so predicates
+ * and mappers created repeatedly for the same expression (e.g. from configuration inside request handlers) do not
+ * compile the expression again.
+ * <p>
+ * Lookups of cached patterns are lock-free. Patterns are compiled outside of any lock, so concurrent lookups may compile
+ * the same expression at the same time, but only one of the compiled patterns is added. Adding a pattern holds a lock,
+ * under which the pattern is put into the map and the eviction queue together. When adding a pattern makes the cache
+ * exceed its maximum size, entries are evicted in insertion order, but every entry that was looked up since it was last
+ * considered for eviction gets a second chance and is moved to the end of the queue (the "clock" algorithm).
+ * Frequently used expressions therefore stay in the cache, while expressions used only once are evicted first.
+ * </p>
+ * <p>
+ * Hits, misses and evictions are counted using {@link LongAdder}s, so the statistics do not contend on shared counters.
+ * Expressions with invalid syntax are not cached; every lookup of such an expression throws a
+ * {@link PatternSyntaxException} and counts as a miss.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+public final class PatternCache {
+
+    /**
+     * Maximum amount of patterns held by the {@link #shared() shared} cache.
+     */
+    public static final int SHARED_MAXIMUM_SIZE = 512;
+
+    private static final PatternCache shared = new PatternCache(SHARED_MAXIMUM_SIZE);
+
+    private final int maximumSize;
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Entries in the order they are considered for eviction. Only accessed while holding {@link #lock}.
+     */
+    private final Queue<Entry> clock = new ArrayDeque<>();
+
+    /**
+     * Lock held while adding, evicting and clearing entries, so every entry in {@link #entries} is in the
+     * {@link #clock} and only one thread walks the clock at a time.
+     */
+    private final Object lock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates an empty cache holding at most {@code maximumSize} patterns.
+     *
+     * @param maximumSize maximum amount of cached patterns, must be positive.
+     * @throws IllegalArgumentException if {@code maximumSize} is not positive.
+     */
+    public PatternCache(int maximumSize) throws IllegalArgumentException {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive, but is " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the cache used by {@link StringMatchHelpers}, holding at most {@link #SHARED_MAXIMUM_SIZE} patterns.
+     *
+     * @return cache shared by the regular expression helpers
+     */
+    public static PatternCache shared() {
+        return shared;
+    }
+
+    /**
+     * Returns the compiled pattern of {@code regEx}, like {@link Pattern#compile(String)}.
+     *
+     * @param regEx regular expression to compile. Must not be {@code null}.
+     * @return compiled pattern, either from the cache or compiled and added to the cache.
+     * @throws NullPointerException   if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException if expression syntax of {@code regEx} is invalid.
+     */
+    public Pattern compile(String regEx) throws NullPointerException, PatternSyntaxException {
+        return compile(regEx, 0);
+    }
+
+    /**
+     * Returns the compiled pattern of {@code regEx} with the given {@code flags}, like
+     * {@link Pattern#compile(String, int)}.
+     *
+     * @param regEx regular expression to compile. Must not be {@code null}.
+     * @param flags match flags, a bit mask of the flags defined in {@link Pattern}
+     * @return compiled pattern, either from the cache or compiled and added to the cache.
+     * @throws NullPointerException     if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException   if expression syntax of {@code regEx} is invalid.
+     * @throws IllegalArgumentException if {@code flags} contains bits not defined as match flags.
+     */
+    public Pattern compile(String regEx, int flags) throws NullPointerException, PatternSyntaxException, IllegalArgumentException {
+        Objects.requireNonNull(regEx);
+        final Key key = new Key(regEx, flags);
+        final Entry cached = entries.get(key);
+        if (cached != null) {
+            // avoid writing the shared field if it is already set
+            if (!cached.referenced) {
+                cached.referenced = true;
+            }
+            hits.increment();
+            return cached.pattern;
+        }
+        misses.increment();
+        // compile outside of the map, so invalid expressions are not cached and lookups are not blocked
+        final Entry entry = new Entry(key, Pattern.compile(regEx, flags));
+        synchronized (lock) {
+            final Entry present = entries.putIfAbsent(key, entry);
+            if (present != null) {
+                return present.pattern;
+            }
+            clock.add(entry);
+            if (entries.size() > maximumSize) {
+                evict();
+            }
+        }
+        return entry.pattern;
+    }
+
+    /**
+     * Evicts entries until the cache does not exceed its maximum size, giving referenced entries a second chance. Must
+     * be called while holding {@link #lock}.
+     */
+    private void evict() {
+        while (entries.size() > maximumSize) {
+            final Entry entry = clock.remove();
+            if (entry.referenced) {
+                entry.referenced = false;
+                clock.add(entry);
+            } else {
+                entries.remove(entry.key);
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum amount of patterns held by this cache.
+     *
+     * @return maximum size of this cache
+     */
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the amount of patterns currently held by this cache.
+     *
+     * @return current size of this cache
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns how often a requested pattern was found in this cache.
+     *
+     * @return amount of cache hits since creation or the last {@link #resetStatistics() reset}
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns how often a requested pattern was not found in this cache and had to be compiled.
+     *
+     * @return amount of cache misses since creation or the last {@link #resetStatistics() reset}
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns how often a pattern was evicted to keep the cache within its maximum size.
+     *
+     * @return amount of evictions since creation or the last {@link #resetStatistics() reset}
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Resets the hit, miss and eviction counts to zero. Values counted concurrently to the reset may or may not be reset.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Removes all patterns from this cache. Does not reset the statistics.
+     */
+    public void clear() {
+        synchronized (lock) {
+            entries.clear();
+            clock.clear();
+        }
+    }
+
+    /**
+     * Regular expression together with its compile flags.
+     */
+    private static final class Key {
+
+        private final String regEx;
+
+        private final int flags;
+
+        Key(String regEx, int flags) {
+            this.regEx = regEx;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return flags == other.flags && regEx.equals(other.regEx);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * regEx.hashCode() + flags;
+        }
+    }
+
+    /**
+     * Cached pattern with its key and the reference bit of the clock algorithm.
+     */
+    private static final class Entry {
+
+        private final Key key;
+
+        private final Pattern pattern;
+
+        /**
+         * Set on every hit, cleared when the entry gets its second chance. Racy updates only affect the eviction order.
+         */
+        private volatile boolean referenced;
+
+        Entry(Key key, Pattern pattern) {
+            this.key = key;
+            this.pattern = pattern;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package de.boereck.matcher.helpers;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import de.boereck.matcher.function.optionalmap.OptionalMapper;
+
+/**
+ * Mapper returning its input string if it matches the regular expression {@link #pattern()} as a whole, or an empty
+ * optional otherwise. Other than a mapper defined by a lambda, the pattern can be queried, so case matchers can compile
+ * consecutive cases defined by regular expressions into a single automaton. Instances are created by
+ * {@link StringMatchHelpers#matching(String)} and {@link StringMatchHelpers#matching(String, int)}.
+ *
+ * @author Max Bureck
+ */
+public interface PatternMapper extends OptionalMapper<String, String> {
+
+    /**
+     * Compiled regular expression input strings are matched against.
+     *
+     * @return pattern checked by this mapper, never {@code null}.
+     */
+    Pattern pattern();
+
+    /**
+     * Returns {@code s} if it is not {@code null} and matches {@link #pattern()} as a whole.
+     *
+     * @param s string to check
+     * @return {@code s} if it matches the pattern, {@code null} if it does not match or is {@code null}.
+     */
+    @Override
+    default String probe(String s) {
+        return (s != null && pattern().matcher(s).matches()) ? s : null;
+    }
+
+    /**
+     * Returns an optional holding {@code s} if it is not {@code null} and matches {@link #pattern()} as a whole.
+     *
+     * @param s string to check
+     * @return optional holding {@code s} if it matches the pattern, an empty optional otherwise.
+     */
+    @Override
+    default Optional<String> apply(String s) {
+        return Optional.ofNullable(probe(s));
+    }
+
+    /**
+     * Returns {@code f} as pattern mapper, if it was created by {@link StringMatchHelpers#matching(String)} or
+     * {@link StringMatchHelpers#matching(String, int)}. Only such mappers are known to map exactly the strings
+     * matching their pattern to themselves. Other implementations of this interface may override
+     * {@link #probe(String)} or {@link #apply(String)}, so their pattern must not be used in place of the mapper.
+     *
+     * @param f function to check, may be {@code null}
+     * @return {@code f} if it is a pattern mapper created by the helpers of this library, otherwise {@code null}
+     */
+    static PatternMapper fromHelpers(Function<?, ?> f) {
+        return f instanceof StringChecks.Matching ? (PatternMapper) f : null;
+    }
+}
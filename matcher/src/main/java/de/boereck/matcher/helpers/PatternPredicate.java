@@ -0,0 +1,48 @@
+package de.boereck.matcher.helpers;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import de.boereck.matcher.function.predicate.AdvPredicate;
+
+/**
+ * Predicate checking if a string matches the regular expression {@link #pattern()} as a whole. Other than a predicate
+ * defined by a lambda, the pattern can be queried, so case matchers can compile consecutive cases defined by regular
+ * expressions into a single automaton. Instances are created by {@link StringMatchHelpers#matches(String)} and
+ * {@link StringMatchHelpers#matches(String, int)}.
+ *
+ * @author Max Bureck
+ */
+public interface PatternPredicate extends AdvPredicate<String> {
+
+    /**
+     * Compiled regular expression tested strings are matched against.
+     *
+     * @return pattern checked by this predicate, never {@code null}.
+     */
+    Pattern pattern();
+
+    /**
+     * Checks if {@code s} is not {@code null} and matches {@link #pattern()} as a whole.
+     *
+     * @param s string to check
+     * @return {@code true} if {@code s} matches the pattern, {@code false} if it does not match or is {@code null}.
+     */
+    @Override
+    default boolean test(String s) {
+        return s != null && pattern().matcher(s).matches();
+    }
+
+    /**
+     * Returns {@code p} as pattern predicate, if it was created by {@link StringMatchHelpers#matches(String)} or
+     * {@link StringMatchHelpers#matches(String, int)}. Only such predicates are known to match exactly the strings
+     * matching their pattern. Other implementations of this interface may override {@link #test(String)}, so their
+     * pattern must not be used in place of the predicate.
+     *
+     * @param p predicate to check, may be {@code null}
+     * @return {@code p} if it is a pattern predicate created by the helpers of this library, otherwise {@code null}
+     */
+    static PatternPredicate fromHelpers(Predicate<?> p) {
+        return p instanceof StringChecks.Matches ? (PatternPredicate) p : null;
+    }
+}
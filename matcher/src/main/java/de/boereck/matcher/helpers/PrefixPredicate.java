@@ -0,0 +1,36 @@
+package de.boereck.matcher.helpers;
+
+import java.util.function.Predicate;
+
+import de.boereck.matcher.function.predicate.AdvPredicate;
+
+/**
+ * Predicate checking if a string starts with one of the strings {@link #prefixes()}. Other than a predicate defined by a
+ * lambda, the prefixes can be queried, so case matchers can compile consecutive cases defined by prefix checks into a
+ * single trie. Instances are created by {@link StringMatchHelpers#startsWith(String)} and
+ * {@link StringMatchHelpers#startsWithAny(String...)}. The predicates never match {@code null}.
+ *
+ * @author Max Bureck
+ */
+public interface PrefixPredicate extends AdvPredicate<String> {
+
+    /**
+     * Returns the prefixes checked by this predicate. Changes to the returned array do not affect the predicate.
+     *
+     * @return copy of the prefixes checked by this predicate, never {@code null}.
+     */
+    String[] prefixes();
+
+    /**
+     * Returns {@code p} as prefix predicate, if it was created by {@link StringMatchHelpers#startsWith(String)} or
+     * {@link StringMatchHelpers#startsWithAny(String...)}. Only such predicates are known to match exactly the strings
+     * starting with one of their prefixes. Other implementations of this interface may implement
+     * {@link #test(Object)} differently, so their prefixes must not be used in place of the predicate.
+     *
+     * @param p predicate to check, may be {@code null}
+     * @return {@code p} if it is a prefix predicate created by the helpers of this library, otherwise {@code null}
+     */
+    static PrefixPredicate fromHelpers(Predicate<?> p) {
+        return p instanceof StringChecks.StartsWith || p instanceof StringChecks.StartsWithAny ? (PrefixPredicate) p : null;
+    }
+}
@@ -0,0 +1,686 @@
+package de.boereck.matcher.helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+import de.boereck.matcher.function.predicate.AdvDoublePredicate;
+import de.boereck.matcher.function.predicate.AdvIntPredicate;
+import de.boereck.matcher.function.predicate.AdvLongPredicate;
+
+/**
+ * Creates predicates checking if a value is in any of a number of closed ranges and combines such sets of ranges. A
+ * set of ranges is described by a {@code long[]} holding the bounds of the ranges, start and end of the first range at
+ * index 0 and 1, of the second range at index 2 and 3, and so on. The ranges of a set are disjoint and not adjacent
+ * and they are sorted in ascending order, so every set of values has exactly one description. Sets of int values use
+ * the same description as sets of long values; sets of double values describe the ranges on the keys of the values
+ * (see {@link DoubleRange#key(double)}), which do not include {@code NaN}.
+ * <p>
+ * Predicates on sets holding several ranges find the range a value may be in by binary search on the starts of the
+ * ranges, so a test takes logarithmic time in the amount of ranges. Sets holding a single range are tested by a range
+ * check and int sets consisting of single values (or all values except single values) are tested by the set
+ * representations of {@link IntSets}.
+ * </p>
+ * <p>
+ * This class is not intended to be instantiated or sub-classed.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+final class RangeSets {
+
+    /**
+     * Set without any range.
+     */
+    static final long[] EMPTY = new long[0];
+
+    /**
+     * Key of negative infinity, the lowest key of all double values.
+     */
+    static final long MIN_KEY = DoubleRange.key(Double.NEGATIVE_INFINITY);
+
+    /**
+     * Key of positive infinity, the greatest key of all double values.
+     */
+    static final long MAX_KEY = DoubleRange.key(Double.POSITIVE_INFINITY);
+
+    /**
+     * Predicate only returning {@code true} for {@code NaN}.
+     */
+    static final AdvDoublePredicate NAN = new Doubles(EMPTY, true);
+
+    /**
+     * Predicate returning {@code false} for all double values.
+     */
+    static final AdvDoublePredicate NO_DOUBLES = new Doubles(EMPTY, false);
+
+    private RangeSets() {
+        throw new IllegalStateException("Class RangeSets must not be instantiated");
+    }
+
+    /**
+     * Returns a predicate checking if an int value is in any of the given {@code ranges}.
+     *
+     * @param ranges ranges, must be predicates {@link #intIntervals(IntPredicate)} knows the set of
+     * @return predicate checking if an int value is in any of {@code ranges}
+     * @throws IllegalArgumentException if the set of any of the ranges is unknown
+     */
+    static AdvIntPredicate ofInts(IntPredicate[] ranges) throws IllegalArgumentException {
+        final List<long[]> intervals = new ArrayList<>(ranges.length);
+        for (IntPredicate range : ranges) {
+            final long[] set = intIntervals(range);
+            if (set == null) {
+                throw new IllegalArgumentException("Not a range: " + range);
+            }
+            addIntervals(intervals, set);
+        }
+        return ints(merge(intervals.toArray(new long[intervals.size()][])));
+    }
+
+    /**
+     * Returns a predicate checking if a long value is in any of the given {@code ranges}.
+     *
+     * @param ranges ranges, must be predicates {@link #longIntervals(LongPredicate)} knows the set of
+     * @return predicate checking if a long value is in any of {@code ranges}
+     * @throws IllegalArgumentException if the set of any of the ranges is unknown
+     */
+    static AdvLongPredicate ofLongs(LongPredicate[] ranges) throws IllegalArgumentException {
+        final List<long[]> intervals = new ArrayList<>(ranges.length);
+        for (LongPredicate range : ranges) {
+            final long[] set = longIntervals(range);
+            if (set == null) {
+                throw new IllegalArgumentException("Not a range: " + range);
+            }
+            addIntervals(intervals, set);
+        }
+        return longs(merge(intervals.toArray(new long[intervals.size()][])));
+    }
+
+    /**
+     * Returns a predicate checking if a double value is in any of the given {@code ranges}.
+     *
+     * @param ranges ranges, must be predicates {@link #doubleIntervals(DoublePredicate)} knows the set of
+     * @return predicate checking if a double value is in any of {@code ranges}
+     * @throws IllegalArgumentException if the set of any of the ranges is unknown
+     */
+    static AdvDoublePredicate ofDoubles(DoublePredicate[] ranges) throws IllegalArgumentException {
+        final List<long[]> intervals = new ArrayList<>(ranges.length);
+        boolean nan = false;
+        for (DoublePredicate range : ranges) {
+            final long[] set = doubleIntervals(range);
+            if (set == null) {
+                throw new IllegalArgumentException("Not a range: " + range);
+            }
+            addIntervals(intervals, set);
+            nan |= containsNaN(range);
+        }
+        return doubles(merge(intervals.toArray(new long[intervals.size()][])), nan);
+    }
+
+    /**
+     * Returns the predicate best suited to test if an int value is in the set {@code set}.
+     *
+     * @param set set of int values, must not be modified afterwards
+     * @return predicate checking if a value is in {@code set}
+     */
+    static AdvIntPredicate ints(long[] set) {
+        if (set.length == 2) {
+            return IntMatchHelpers.inClosedRange((int) set[0], (int) set[1]);
+        }
+        if (set.length > 2) {
+            if (isValues(set)) {
+                return IntSets.contains(values(set), true);
+            }
+            final long[] complement = complement(set, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            if (isValues(complement)) {
+                return IntSets.contains(values(complement), false);
+            }
+            // many ranges in a small span are looked up in a bitmap
+            if (set.length > 2 * IntSets.LINEAR_MAX_SIZE && set[set.length - 1] - set[0] < IntSets.BITMAP_MIN_SPAN) {
+                return IntSets.bitmap(set);
+            }
+        }
+        return new Ints(set);
+    }
+
+    /**
+     * Returns the predicate best suited to test if a long value is in the set {@code set}.
+     *
+     * @param set set of long values, must not be modified afterwards
+     * @return predicate checking if a value is in {@code set}
+     */
+    static AdvLongPredicate longs(long[] set) {
+        if (set.length == 2) {
+            return LongMatchHelpers.inClosedRange(set[0], set[1]);
+        }
+        if (set.length > 2) {
+            if (isValues(set)) {
+                return new LongValues(starts(set), true);
+            }
+            final long[] complement = complement(set, Long.MIN_VALUE, Long.MAX_VALUE);
+            if (isValues(complement)) {
+                return new LongValues(starts(complement), false);
+            }
+        }
+        return new Longs(set);
+    }
+
+    /**
+     * Returns the predicate best suited to test if a double value is in the set {@code keys} or is {@code NaN}, if
+     * {@code nan} is {@code true}.
+     *
+     * @param keys set of the keys of double values, must not be modified afterwards
+     * @param nan  if {@code true} the predicate returns {@code true} for {@code NaN}
+     * @return predicate checking if a value is in the set
+     */
+    static AdvDoublePredicate doubles(long[] keys, boolean nan) {
+        if (keys.length == 0) {
+            return nan ? NAN : NO_DOUBLES;
+        }
+        if (keys.length == 2 && !nan) {
+            return DoubleMatchHelpers.inClosedRange(value(keys[0]), value(keys[1]));
+        }
+        return new Doubles(keys, nan);
+    }
+
+    /**
+     * Returns the set of values the int predicate {@code p} returns {@code true} for, if {@code p} is a predicate of
+     * this library describing it. The bounds of other {@link IntRange}s are not used, since their {@code test} method
+     * may be overridden.
+     *
+     * @param p predicate, must not be {@code null}
+     * @return set of values or {@code null} if the set is unknown
+     * @throws NullPointerException if {@code p} is {@code null}
+     */
+    static long[] intIntervals(IntPredicate p) throws NullPointerException {
+        Objects.requireNonNull(p);
+        if (p instanceof IntRangeSet) {
+            return ((IntRangeSet) p).intervals();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the set of values the long predicate {@code p} returns {@code true} for, if {@code p} is a predicate of
+     * this library describing it. The bounds of other {@link LongRange}s are not used, since their {@code test}
+     * method may be overridden.
+     *
+     * @param p predicate, must not be {@code null}
+     * @return set of values or {@code null} if the set is unknown
+     * @throws NullPointerException if {@code p} is {@code null}
+     */
+    static long[] longIntervals(LongPredicate p) throws NullPointerException {
+        Objects.requireNonNull(p);
+        if (p instanceof LongRangeSet) {
+            return ((LongRangeSet) p).intervals();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the set of keys of the non-NaN values the double predicate {@code p} returns {@code true} for, if
+     * {@code p} is a predicate of this library describing it. The bounds of other {@link DoubleRange}s are not used,
+     * since their {@code test} method may be overridden.
+     *
+     * @param p predicate, must not be {@code null}
+     * @return set of keys or {@code null} if the set is unknown
+     * @throws NullPointerException if {@code p} is {@code null}
+     */
+    static long[] doubleIntervals(DoublePredicate p) throws NullPointerException {
+        Objects.requireNonNull(p);
+        if (p instanceof DoubleRangeSet) {
+            return ((DoubleRangeSet) p).intervals();
+        }
+        return null;
+    }
+
+    /**
+     * Returns if the double predicate {@code p}, of which {@link #doubleIntervals(DoublePredicate)} is known, returns
+     * {@code true} for {@code NaN}.
+     */
+    static boolean containsNaN(DoublePredicate p) {
+        return p instanceof DoubleRangeSet && ((DoubleRangeSet) p).containsNaN();
+    }
+
+    /**
+     * Returns the set holding the closed range from {@code start} to {@code end}.
+     *
+     * @return set of the range, empty if {@code start > end}
+     */
+    static long[] interval(long start, long end) {
+        return start <= end ? new long[]{start, end} : EMPTY;
+    }
+
+    /**
+     * Returns the set holding the keys of the closed range of double values from {@code start} to {@code end}.
+     *
+     * @return set of the range, empty if {@code start > end} or if a bound is {@code NaN}
+     */
+    static long[] keyInterval(double start, double end) {
+        return start <= end ? new long[]{DoubleRange.key(start), DoubleRange.key(end)} : EMPTY;
+    }
+
+    /**
+     * Maps a key back to the double value, reversing {@link DoubleRange#key(double)}.
+     *
+     * @param key key of a double value
+     * @return double value of {@code key}, {@code 0.0} for the key of {@code -0.0}
+     */
+    static double value(long key) {
+        return key >= 0 ? Double.longBitsToDouble(key) : -Double.longBitsToDouble(-key);
+    }
+
+    /**
+     * Returns the set holding all values of the sorted, distinct values {@code sorted} if {@code member} is
+     * {@code true}, otherwise all int values not in {@code sorted}.
+     */
+    static long[] ofValues(int[] sorted, boolean member) {
+        final long[] values = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            values[i] = sorted[i];
+        }
+        return ofValues(values, member, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the set holding all values of the sorted, distinct values {@code sorted} if {@code member} is
+     * {@code true}, otherwise all values from {@code min} to {@code max} not in {@code sorted}.
+     */
+    static long[] ofValues(long[] sorted, boolean member, long min, long max) {
+        final long[] set = new long[sorted.length * 2];
+        int count = 0;
+        for (long value : sorted) {
+            if (count > 0 && value - 1 == set[count - 1]) {
+                set[count - 1] = value;
+            } else {
+                set[count++] = value;
+                set[count++] = value;
+            }
+        }
+        final long[] result = trim(set, count);
+        return member ? result : complement(result, min, max);
+    }
+
+    /**
+     * Returns the union of the sets {@code a} and {@code b}.
+     */
+    static long[] union(long[] a, long[] b) {
+        final long[] result = new long[a.length + b.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            final long start;
+            final long end;
+            if (j >= b.length || (i < a.length && a[i] <= b[j])) {
+                start = a[i];
+                end = a[i + 1];
+                i += 2;
+            } else {
+                start = b[j];
+                end = b[j + 1];
+                j += 2;
+            }
+            if (count > 0 && joins(result[count - 1], start)) {
+                result[count - 1] = Math.max(result[count - 1], end);
+            } else {
+                result[count++] = start;
+                result[count++] = end;
+            }
+        }
+        return trim(result, count);
+    }
+
+    /**
+     * Returns the intersection of the sets {@code a} and {@code b}.
+     */
+    static long[] intersection(long[] a, long[] b) {
+        final long[] result = new long[a.length + b.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            final long start = Math.max(a[i], b[j]);
+            final long end = Math.min(a[i + 1], b[j + 1]);
+            if (start <= end) {
+                result[count++] = start;
+                result[count++] = end;
+            }
+            // the range ending first cannot overlap with further ranges of the other set
+            if (a[i + 1] < b[j + 1]) {
+                i += 2;
+            } else {
+                j += 2;
+            }
+        }
+        return trim(result, count);
+    }
+
+    /**
+     * Returns the set of all values from {@code min} to {@code max} not in {@code set}.
+     *
+     * @param set set of values, all from {@code min} to {@code max}
+     * @param min lowest value of the type of the values
+     * @param max greatest value of the type of the values
+     * @return complement of {@code set}
+     */
+    static long[] complement(long[] set, long min, long max) {
+        final long[] result = new long[set.length + 2];
+        int count = 0;
+        long next = min;
+        for (int i = 0; i < set.length; i += 2) {
+            if (set[i] > next) {
+                result[count++] = next;
+                result[count++] = set[i] - 1;
+            }
+            if (set[i + 1] == max) {
+                return trim(result, count);
+            }
+            next = set[i + 1] + 1;
+        }
+        result[count++] = next;
+        result[count++] = max;
+        return trim(result, count);
+    }
+
+    /**
+     * Returns the set of values in exactly one of the sets {@code a} and {@code b}.
+     */
+    static long[] symmetricDifference(long[] a, long[] b) {
+        final long[] notA = complement(a, Long.MIN_VALUE, Long.MAX_VALUE);
+        final long[] notB = complement(b, Long.MIN_VALUE, Long.MAX_VALUE);
+        return union(intersection(a, notB), intersection(b, notA));
+    }
+
+    /**
+     * Checks if a range starting at {@code start} overlaps with or is adjacent to a range ending at {@code end} that
+     * does not start after it.
+     */
+    private static boolean joins(long end, long start) {
+        // the second check cannot overflow, since a range of a set ending at Long.MAX_VALUE is the last one
+        return start <= end || start - 1 == end;
+    }
+
+    /**
+     * Merges sets holding at most one range into one set.
+     */
+    private static long[] merge(long[][] intervals) {
+        final List<long[]> ranges = new ArrayList<>(intervals.length);
+        for (long[] interval : intervals) {
+            if (interval.length > 0) {
+                ranges.add(interval);
+            }
+        }
+        ranges.sort(Comparator.comparingLong(r -> r[0]));
+        final long[] result = new long[ranges.size() * 2];
+        int count = 0;
+        for (long[] range : ranges) {
+            if (count > 0 && joins(result[count - 1], range[0])) {
+                result[count - 1] = Math.max(result[count - 1], range[1]);
+            } else {
+                result[count++] = range[0];
+                result[count++] = range[1];
+            }
+        }
+        return trim(result, count);
+    }
+
+    /**
+     * Adds every range of {@code set} as interval of its own to {@code intervals}, as expected by
+     * {@link #merge(long[][])}.
+     */
+    private static void addIntervals(List<long[]> intervals, long[] set) {
+        for (int i = 0; i < set.length; i += 2) {
+            intervals.add(new long[]{set[i], set[i + 1]});
+        }
+    }
+
+    private static long[] trim(long[] set, int count) {
+        return count == set.length ? set : Arrays.copyOf(set, count);
+    }
+
+    /**
+     * Checks if all ranges of {@code set} hold a single value.
+     */
+    private static boolean isValues(long[] set) {
+        for (int i = 0; i < set.length; i += 2) {
+            if (set[i] != set[i + 1]) {
+                return false;
+            }
+        }
+        return set.length > 0;
+    }
+
+    /**
+     * Returns the single values of the ranges of {@code set}, for which {@link #isValues(long[])} holds.
+     */
+    private static int[] values(long[] set) {
+        final int[] values = new int[set.length / 2];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (int) set[2 * i];
+        }
+        return values;
+    }
+
+    /**
+     * Returns the starts of the ranges of {@code set}.
+     */
+    private static long[] starts(long[] set) {
+        final long[] starts = new long[set.length / 2];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = set[2 * i];
+        }
+        return starts;
+    }
+
+    /**
+     * Returns the index of the largest value in {@code sorted} that is lower than or equal to {@code key}.
+     *
+     * @return index or {@code -1} if all values are greater than {@code key}
+     */
+    private static int floor(int[] sorted, int key) {
+        int low = 0;
+        int high = sorted.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Returns the index of the largest value in {@code sorted} that is lower than or equal to {@code key}.
+     *
+     * @return index or {@code -1} if all values are greater than {@code key}
+     */
+    private static int floor(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Returns the index of the largest value in {@code sorted} that is lower than or equal to {@code key}. Other than
+     * {@link Arrays#binarySearch(double[], double)} the values are compared by the {@code <=} operator, so {@code -0.0}
+     * equals {@code 0.0} and {@code NaN} is lower than or equal to no value.
+     *
+     * @return index or {@code -1} if no value is lower than or equal to {@code key}
+     */
+    private static int floor(double[] sorted, double key) {
+        int low = 0;
+        int high = sorted.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Set of int values in several ranges.
+     */
+    static final class Ints implements IntRangeSet {
+
+        private final long[] set;
+
+        private final int[] starts;
+
+        private final int[] ends;
+
+        Ints(long[] set) {
+            this.set = set;
+            this.starts = new int[set.length / 2];
+            this.ends = new int[set.length / 2];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = (int) set[2 * i];
+                ends[i] = (int) set[2 * i + 1];
+            }
+        }
+
+        @Override
+        public boolean test(int i) {
+            final int index = floor(starts, i);
+            return index >= 0 && i <= ends[index];
+        }
+
+        @Override
+        public long[] intervals() {
+            return set;
+        }
+    }
+
+    /**
+     * Set of long values in several ranges.
+     */
+    static final class Longs implements LongRangeSet {
+
+        private final long[] set;
+
+        private final long[] starts;
+
+        private final long[] ends;
+
+        Longs(long[] set) {
+            this.set = set;
+            this.starts = starts(set);
+            this.ends = new long[set.length / 2];
+            for (int i = 0; i < ends.length; i++) {
+                ends[i] = set[2 * i + 1];
+            }
+        }
+
+        @Override
+        public boolean test(long l) {
+            final int index = floor(starts, l);
+            return index >= 0 && l <= ends[index];
+        }
+
+        @Override
+        public long[] intervals() {
+            return set;
+        }
+    }
+
+    /**
+     * Set of single long values, or of all long values except single values.
+     */
+    static final class LongValues implements LongRangeSet {
+
+        private final long[] values;
+
+        private final boolean member;
+
+        /**
+         * @param values sorted, distinct values
+         * @param member if {@code true} the set holds {@code values}, otherwise all other values
+         */
+        LongValues(long[] values, boolean member) {
+            this.values = values;
+            this.member = member;
+        }
+
+        @Override
+        public boolean test(long l) {
+            final long[] values = this.values;
+            if (values.length <= IntSets.LINEAR_MAX_SIZE) {
+                for (long value : values) {
+                    if (value == l) {
+                        return member;
+                    }
+                }
+                return !member;
+            }
+            return (Arrays.binarySearch(values, l) >= 0) == member;
+        }
+
+        @Override
+        public long[] intervals() {
+            return ofValues(values, member, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Set of double values in several ranges, which may contain {@code NaN}.
+     */
+    static final class Doubles implements DoubleRangeSet {
+
+        private final long[] keys;
+
+        private final double[] starts;
+
+        private final double[] ends;
+
+        private final boolean nan;
+
+        Doubles(long[] keys, boolean nan) {
+            this.keys = keys;
+            this.starts = new double[keys.length / 2];
+            this.ends = new double[keys.length / 2];
+            this.nan = nan;
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = value(keys[2 * i]);
+                ends[i] = value(keys[2 * i + 1]);
+            }
+        }
+
+        @Override
+        public boolean test(double d) {
+            if (d != d) {
+                return nan;
+            }
+            final int index = floor(starts, d);
+            return index >= 0 && d <= ends[index];
+        }
+
+        @Override
+        public long[] intervals() {
+            return keys;
+        }
+
+        @Override
+        public boolean containsNaN() {
+            return nan;
+        }
+    }
+}
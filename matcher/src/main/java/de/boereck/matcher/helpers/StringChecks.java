@@ -0,0 +1,232 @@
+package de.boereck.matcher.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Predicates and mappers on strings created by {@link StringMatchHelpers}, which describe the strings they match, so
+ * case matchers can compile cases defined on them into lookup structures.
+ * <p>
+ * This class is not intended to be instantiated or sub-classed.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+final class StringChecks {
+
+    private StringChecks() {
+        throw new IllegalStateException("Class StringChecks must not be instantiated");
+    }
+
+    /**
+     * Checks if a string matches a regular expression.
+     */
+    static final class Matches implements PatternPredicate {
+
+        private final Pattern pattern;
+
+        Matches(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public Pattern pattern() {
+            return pattern;
+        }
+    }
+
+    /**
+     * Maps a string to itself, if it matches a regular expression.
+     */
+    static final class Matching implements PatternMapper {
+
+        private final Pattern pattern;
+
+        Matching(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public Pattern pattern() {
+            return pattern;
+        }
+    }
+
+    /**
+     * Checks if a string equals a string, ignoring case.
+     */
+    static final class EqualsIgnoreCase implements EqualsIgnoreCasePredicate {
+
+        private final String value;
+
+        EqualsIgnoreCase(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String value() {
+            return value;
+        }
+    }
+
+    /**
+     * Checks if a string starts with a prefix.
+     */
+    static final class StartsWith implements PrefixPredicate {
+
+        private final String prefix;
+
+        StartsWith(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public String[] prefixes() {
+            return new String[]{prefix};
+        }
+
+        @Override
+        public boolean test(String s) {
+            return s != null && s.startsWith(prefix);
+        }
+    }
+
+    /**
+     * Checks if a string starts with one of several prefixes, by walking a trie of the prefixes along the string. The
+     * cost of a check is linear in the length of the longest prefix, regardless of the amount of prefixes.
+     * <p>
+     * The trie is stored compactly in arrays: the nodes are numbered in breadth first order, so the children of every
+     * node are stored consecutively, sorted by their character.
+     * </p>
+     */
+    static final class StartsWithAny implements PrefixPredicate {
+
+        /**
+         * Nodes with more children than this are searched by binary search instead of a linear scan.
+         */
+        private static final int LINEAR_SEARCH_LIMIT = 8;
+
+        private final String[] prefixes;
+
+        /**
+         * Children of node {@code n} are stored at the indices {@code firstChild[n]} to {@code firstChild[n + 1] - 1}
+         * of {@link #labels}. The node reached via the child at index {@code i} is node {@code i + 1}.
+         */
+        private final int[] firstChild;
+
+        /**
+         * Character of the edge leading to node {@code i + 1}.
+         */
+        private final char[] labels;
+
+        /**
+         * {@code true} for every node at the end of a prefix.
+         */
+        private final boolean[] terminal;
+
+        StartsWithAny(String[] prefixes) {
+            this.prefixes = prefixes;
+            final TrieNode root = new TrieNode();
+            for (String prefix : prefixes) {
+                TrieNode node = root;
+                for (int i = 0; i < prefix.length(); i++) {
+                    node = node.children.computeIfAbsent(prefix.charAt(i), c -> new TrieNode());
+                }
+                node.terminal = true;
+            }
+            // number the nodes in breadth first order
+            final List<TrieNode> nodes = new ArrayList<>();
+            nodes.add(root);
+            for (int n = 0; n < nodes.size(); n++) {
+                final TrieNode node = nodes.get(n);
+                // a terminal node ends the walk, its descendants are never visited
+                if (!node.terminal) {
+                    nodes.addAll(node.children.values());
+                }
+            }
+            final int count = nodes.size();
+            this.firstChild = new int[count + 1];
+            this.labels = new char[count - 1];
+            this.terminal = new boolean[count];
+            int child = 0;
+            for (int n = 0; n < count; n++) {
+                final TrieNode node = nodes.get(n);
+                firstChild[n] = child;
+                terminal[n] = node.terminal;
+                if (!node.terminal) {
+                    for (char c : node.children.keySet()) {
+                        labels[child++] = c;
+                    }
+                }
+            }
+            firstChild[count] = child;
+        }
+
+        @Override
+        public String[] prefixes() {
+            return prefixes.clone();
+        }
+
+        @Override
+        public boolean test(String s) {
+            if (s == null) {
+                return false;
+            }
+            final int[] firstChild = this.firstChild;
+            final char[] labels = this.labels;
+            final boolean[] terminal = this.terminal;
+            int node = 0;
+            for (int i = 0, len = s.length(); !terminal[node]; i++) {
+                if (i == len) {
+                    return false;
+                }
+                final int child = child(firstChild[node], firstChild[node + 1], labels, s.charAt(i));
+                if (child < 0) {
+                    return false;
+                }
+                node = child + 1;
+            }
+            return true;
+        }
+
+        /**
+         * Returns the index of the child labeled {@code c} between {@code from} (inclusive) and {@code to} (exclusive).
+         */
+        private static int child(int from, int to, char[] labels, char c) {
+            if (to - from <= LINEAR_SEARCH_LIMIT) {
+                for (int i = from; i < to; i++) {
+                    if (labels[i] == c) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            int low = from;
+            int high = to - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final char label = labels[mid];
+                if (label < c) {
+                    low = mid + 1;
+                } else if (label > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Node of the trie while it is built.
+         */
+        private static final class TrieNode {
+
+            private final TreeMap<Character, TrieNode> children = new TreeMap<>();
+
+            private boolean terminal;
+        }
+    }
+}
@@ -17,6 +17,10 @@ import de.boereck.matcher.function.predicate.AdvPredicate;
 /**
  * Provides static helper functions for defining matches in CaseMatchers based on String values.
  * <p>
+ * Regular expressions are compiled via the {@link PatternCache#shared() shared} {@link PatternCache}, so creating
+ * predicates and mappers repeatedly for the same expression only compiles the expression once.
+ * </p>
+ * <p>
  * This class is not intended to be instantiated or sub-classed.
  * </p>
  *
@@ -67,12 +71,34 @@ public final class StringMatchHelpers {
      * Returns predicate, checking if the tested string starts with the string passed in as parameter {@code other}. Input
      * values to the returned predicate can be {@code null}, in this case the predicate will return {@code false}.
      * @param other predicate inputs will be checked if they start with this String. This parameter must not be {@code null}.
-     * @return predicate checking if input strings start with string {@code other}
+     * @return predicate checking if input strings start with string {@code other}. The predicate is a
+     * {@link PrefixPredicate}, from which the prefix can be queried.
      * @throws NullPointerException thrown, if {@code other} is {@code null}.
      */
     public static AdvPredicate<String> startsWith(String other) throws NullPointerException {
         Objects.requireNonNull(other);
-        return str -> str != null && str.startsWith(other);
+        return new StringChecks.StartsWith(other);
+    }
+
+    /**
+     * Returns predicate, checking if the tested string starts with any of the strings passed in as {@code prefixes}.
+     * Input values to the returned predicate can be {@code null}, in this case the predicate will return {@code false}.
+     * The prefixes are stored in a trie, so the cost of a check is linear in the length of the longest prefix, not in
+     * the amount of prefixes. Be aware that changes to the array {@code prefixes} will have no effect on the returned
+     * predicate.
+     *
+     * @param prefixes predicate inputs will be checked if they start with one of these strings. Neither the array nor
+     *                 its elements must be {@code null}.
+     * @return predicate checking if input strings start with one of the {@code prefixes}. If no prefixes are given,
+     * the predicate never matches. The predicate is a {@link PrefixPredicate}, from which the prefixes can be queried.
+     * @throws NullPointerException thrown, if {@code prefixes} or one of its elements is {@code null}.
+     */
+    public static AdvPredicate<String> startsWithAny(String... prefixes) throws NullPointerException {
+        final String[] copy = prefixes.clone();
+        for (String prefix : copy) {
+            Objects.requireNonNull(prefix);
+        }
+        return new StringChecks.StartsWithAny(copy);
     }
 
     /**
@@ -100,14 +126,31 @@ public final class StringMatchHelpers {
      *
      * @param regEx the regular expressions inputs to the returned predicate will be checked against.
      *              Must not be {@code null}.
-     * @return predicate checking if tested strings are matching the given regular expression {@code regEx}
+     * @return predicate checking if tested strings are matching the given regular expression {@code regEx}. The
+     * predicate is a {@link PatternPredicate}, from which the compiled pattern can be queried.
      * @throws NullPointerException thrown, if {@code regEx} is {@code null}.
      * @throws PatternSyntaxException if expression syntax of {@code regEx} is invalid.
      */
     public static AdvPredicate<String> matches(String regEx) throws NullPointerException, PatternSyntaxException {
+        return matches(regEx, 0);
+    }
+
+    /**
+     * Returns a predicate checking if tested strings match the given regular expression {@code regEx}, compiled with
+     * the given {@code flags}.
+     *
+     * @param regEx the regular expressions inputs to the returned predicate will be checked against.
+     *              Must not be {@code null}.
+     * @param flags match flags, a bit mask of the flags defined in {@link Pattern}
+     * @return predicate checking if tested strings are matching the given regular expression {@code regEx}. The
+     * predicate is a {@link PatternPredicate}, from which the compiled pattern can be queried.
+     * @throws NullPointerException     thrown, if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException   if expression syntax of {@code regEx} is invalid.
+     * @throws IllegalArgumentException if {@code flags} contains bits not defined as match flags.
+     */
+    public static AdvPredicate<String> matches(String regEx, int flags) throws NullPointerException, PatternSyntaxException, IllegalArgumentException {
         Objects.requireNonNull(regEx);
-        final Pattern compiledPattern = Pattern.compile(regEx);
-        return str -> str != null && compiledPattern.matcher(str).matches();
+        return new StringChecks.Matches(PatternCache.shared().compile(regEx, flags));
     }
 
     /**
@@ -117,20 +160,32 @@ public final class StringMatchHelpers {
      * returned optional will contain the input string.
      * @param regEx regular expression that is being checked in the returned function. Must not be {@code null}.
      * @return function mapping from {@code String} to {@code Optional&lt;String&gt;}, based on the given
-     *         regular expression {@code regEx}.
+     *         regular expression {@code regEx}. The function is a {@link PatternMapper}, from which the
+     *         compiled pattern can be queried.
      * @throws NullPointerException thrown, if {@code regEx} is {@code null}.
      * @throws PatternSyntaxException if expression syntax of {@code regEx} is invalid.
      */
     public static OptionalMapper<String, String> matching(String regEx) throws NullPointerException, PatternSyntaxException  {
+        return matching(regEx, 0);
+    }
+
+    /**
+     * Returns a function mapping from {@code String} to {@code Optional&lt;String&gt;}, based on the given
+     * regular expression {@code regEx}, compiled with the given {@code flags}. The returned function will return an
+     * empty optional if the input string to the function does not match the regular expression. If the regular
+     * expression does match, the returned optional will contain the input string.
+     * @param regEx regular expression that is being checked in the returned function. Must not be {@code null}.
+     * @param flags match flags, a bit mask of the flags defined in {@link Pattern}
+     * @return function mapping from {@code String} to {@code Optional&lt;String&gt;}, based on the given
+     *         regular expression {@code regEx}. The function is a {@link PatternMapper}, from which the
+     *         compiled pattern can be queried.
+     * @throws NullPointerException thrown, if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException if expression syntax of {@code regEx} is invalid.
+     * @throws IllegalArgumentException if {@code flags} contains bits not defined as match flags.
+     */
+    public static OptionalMapper<String, String> matching(String regEx, int flags) throws NullPointerException, PatternSyntaxException, IllegalArgumentException {
         Objects.requireNonNull(regEx);
-        final Pattern compiledPattern = Pattern.compile(regEx);
-        return s -> {
-            if(s == null) {
-                return Optional.empty();
-            }
-            final Matcher m = compiledPattern.matcher(s);
-            return m.matches() ? Optional.of(s) : Optional.empty();
-        };
+        return new StringChecks.Matching(PatternCache.shared().compile(regEx, flags));
     }
 
     /**
@@ -146,8 +201,25 @@ public final class StringMatchHelpers {
      * @throws PatternSyntaxException if expression syntax of {@code regEx} is invalid.
      */
     public static OptionalMapper<String, Matcher> matcher(String regEx) throws NullPointerException, PatternSyntaxException {
+        return matcher(regEx, 0);
+    }
+
+    /**
+     * Returns a function mapping from {@code String} to {@code Optional&lt;Matcher&gt;}, based on the given
+     * regular expression {@code regEx}, compiled with the given {@code flags}. The returned function will return an
+     * empty optional if the input string to the function does not match the regular expression. If the regular
+     * expression does match, the returned optional will contain the Matcher of the match.
+     * @param regEx regular expression that is being checked in the returned function. Must not be {@code null}.
+     * @param flags match flags, a bit mask of the flags defined in {@link Pattern}
+     * @return function mapping from {@code String} to {@code Optional&lt;Matcher&gt;}, based on the given
+     *         regular expression {@code regEx}.
+     * @throws NullPointerException thrown, if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException if expression syntax of {@code regEx} is invalid.
+     * @throws IllegalArgumentException if {@code flags} contains bits not defined as match flags.
+     */
+    public static OptionalMapper<String, Matcher> matcher(String regEx, int flags) throws NullPointerException, PatternSyntaxException, IllegalArgumentException {
         Objects.requireNonNull(regEx);
-        final Pattern compiledPattern = Pattern.compile(regEx);
+        final Pattern compiledPattern = PatternCache.shared().compile(regEx, flags);
         return s -> {
             if(s == null) {
                 return Optional.empty();
@@ -167,7 +239,7 @@ public final class StringMatchHelpers {
         Arrays.sort(specialChar);
     }
 
-    private static boolean isSingleCharNotSpecial(String regEx) {
+    static boolean isSingleCharNotSpecial(String regEx) {
         return regEx.length() == 1 && Arrays.binarySearch(specialChar, regEx.charAt(0)) < 0;
     }
 
@@ -192,7 +264,7 @@ public final class StringMatchHelpers {
             return i -> i == null ? Optional.empty() : Optional.of(i.split(regEx));
         } else {
             // compile pattern and use for split
-            final Pattern splitPattern = Pattern.compile(regEx);
+            final Pattern splitPattern = PatternCache.shared().compile(regEx);
             return i -> i == null ? Optional.empty() : Optional.of(splitPattern.split(i));
         }
     }
@@ -219,20 +291,96 @@ public final class StringMatchHelpers {
             return i -> i == null ? Optional.empty() : Optional.of(i.split(regEx, limit));
         } else {
             // compile pattern and use for split
-            final Pattern splitPattern = Pattern.compile(regEx);
+            final Pattern splitPattern = PatternCache.shared().compile(regEx);
             return i -> i == null ? Optional.empty() : Optional.of(splitPattern.split(i, limit));
         }
     }
 
+    /**
+     * Returns a tokenizer splitting character sequences around matches of the regular expression {@code regEx}, with
+     * the same tokens as {@link #split(String)}. Other than the function returned by {@code split}, the tokenizer does
+     * not create an array and a string per token, but records the offsets of the tokens in a reusable {@link Tokens}
+     * buffer created by {@link Tokenizer#newTokens()}.
+     *
+     * @param regEx the delimiting regular expression. Must not be {@code null}.
+     * @return tokenizer splitting inputs around matches of {@code regEx}
+     * @throws NullPointerException   thrown, if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException if expression syntax of {@code regEx} is invalid.
+     */
+    public static Tokenizer tokenizer(String regEx) throws NullPointerException, PatternSyntaxException {
+        return tokenizer(regEx, 0);
+    }
+
+    /**
+     * Returns a tokenizer splitting character sequences around matches of the regular expression {@code regEx} into at
+     * most {@code limit} tokens, with the same tokens as {@link #split(String, int)}. Other than the function returned
+     * by {@code split}, the tokenizer does not create an array and a string per token, but records the offsets of the
+     * tokens in a reusable {@link Tokens} buffer created by {@link Tokenizer#newTokens()}.
+     *
+     * @param regEx the delimiting regular expression. Must not be {@code null}.
+     * @param limit maximum amount of tokens if positive; if zero, trailing empty tokens are discarded
+     * @return tokenizer splitting inputs around matches of {@code regEx}
+     * @throws NullPointerException   thrown, if {@code regEx} is {@code null}.
+     * @throws PatternSyntaxException if expression syntax of {@code regEx} is invalid.
+     */
+    public static Tokenizer tokenizer(String regEx, int limit) throws NullPointerException, PatternSyntaxException {
+        Objects.requireNonNull(regEx);
+        return new Tokenizer(regEx, limit);
+    }
+
+    /**
+     * Provides a predicate checking if a token buffer holds exactly {@code count} tokens. Input values to the returned
+     * predicate can be {@code null}, in this case the predicate will return {@code false}.
+     *
+     * @param count expected amount of tokens
+     * @return predicate checking the amount of tokens
+     */
+    public static AdvPredicate<Tokens> tokenCount(int count) {
+        return t -> t != null && t.count() == count;
+    }
+
+    /**
+     * Provides a predicate checking if a token buffer holds exactly one token per given predicate and if every token
+     * matches the predicate at the same index. The predicates are tested with a flyweight view on the tokens (see
+     * {@link Tokens#test(int, Predicate)}), so they must not store their input. Input values to the returned predicate
+     * can be {@code null}, in this case the predicate will return {@code false}.
+     *
+     * @param perToken predicates the tokens are tested with, in the order of the tokens. Must not be {@code null} or
+     *                 contain {@code null}.
+     * @return predicate checking the amount of tokens and every token
+     * @throws NullPointerException thrown, if {@code perToken} is or contains {@code null}.
+     */
+    @SafeVarargs
+    public static AdvPredicate<Tokens> tokensMatch(Predicate<? super CharSequence>... perToken) throws NullPointerException {
+        // copied element by element, passing the varargs array on would expose it
+        @SuppressWarnings("unchecked")
+        final Predicate<? super CharSequence>[] predicates = (Predicate<? super CharSequence>[]) new Predicate<?>[perToken.length];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = Objects.requireNonNull(perToken[i]);
+        }
+        return t -> {
+            if (t == null || t.count() != predicates.length) {
+                return false;
+            }
+            for (int i = 0; i < predicates.length; i++) {
+                if (!t.test(i, predicates[i])) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
     /**
      * Provides a predicate checking if a string equals the given string {@code comp} ignoring the case of both input and
      * reference string. Both reference and input string are allowed to be {@code null}.
      *
      * @param comp reference string input strings are compared with, ignoring case
-     * @return a predicate checking if an input string equals the string {@code comp}.
+     * @return a predicate checking if an input string equals the string {@code comp}. The predicate is an
+     * {@link EqualsIgnoreCasePredicate}, from which the string {@code comp} can be queried.
      */
     public static AdvPredicate<String> eqIgnoreCase(String comp) {
-        return s -> (s == null) ? comp == null : s.equalsIgnoreCase(comp);
+        return new StringChecks.EqualsIgnoreCase(comp);
     }
 
     /**
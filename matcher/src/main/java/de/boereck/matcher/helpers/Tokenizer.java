@@ -0,0 +1,104 @@
+package de.boereck.matcher.helpers;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits character sequences around matches of a delimiting regular expression, with the same tokens as
+ * {@link Pattern#split(CharSequence, int)}, but without creating an array or a string per token. The offsets of the
+ * tokens are recorded in a reusable {@link Tokens} buffer created by {@link #newTokens()}. Instances are created by
+ * {@link StringMatchHelpers#tokenizer(String)} and {@link StringMatchHelpers#tokenizer(String, int)}. The parts
+ * returned by {@link CharSequenceMatchHelpers#split(String, int)} are the tokens of a tokenizer as well.
+ * <p>
+ * A tokenizer is immutable and can be shared between threads, while every thread splits into its own {@code Tokens}.
+ * Delimiters consisting of a single character without special meaning in regular expressions are found by a plain scan
+ * over the characters, like {@link String#split(String)} does, all other delimiters by a {@link Matcher} owned by the
+ * {@code Tokens} buffer.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+public final class Tokenizer {
+
+    /**
+     * Pattern of the delimiter, {@code null} if the delimiter is the single character {@link #delimiter}.
+     */
+    private final Pattern pattern;
+
+    private final char delimiter;
+
+    private final int limit;
+
+    Tokenizer(String regEx, int limit) {
+        if (StringMatchHelpers.isSingleCharNotSpecial(regEx)) {
+            this.pattern = null;
+            this.delimiter = regEx.charAt(0);
+        } else {
+            this.pattern = PatternCache.shared().compile(regEx);
+            this.delimiter = 0;
+        }
+        this.limit = limit;
+    }
+
+    /**
+     * Creates an empty token buffer, splitting inputs with this tokenizer. The buffer must only be used by one thread at
+     * a time.
+     *
+     * @return new token buffer
+     */
+    public Tokens newTokens() {
+        return new Tokens(this);
+    }
+
+    /**
+     * Records the tokens of {@code input} in {@code tokens}, replacing the previous tokens.
+     *
+     * @param input  character sequence to split
+     * @param tokens buffer receiving the offsets of the tokens
+     */
+    void split(CharSequence input, Tokens tokens) {
+        tokens.reset(input);
+        final int index = pattern == null ? splitAtDelimiter(input, tokens) : splitAtMatches(input, tokens);
+        if (index == 0) {
+            // no delimiter found, the whole input is the only token
+            tokens.add(0, input.length());
+            return;
+        }
+        tokens.add(index, input.length());
+        if (limit == 0) {
+            tokens.removeTrailingEmpty();
+        }
+    }
+
+    /**
+     * Records the tokens before every delimiter character and returns the start of the remaining token.
+     */
+    private int splitAtDelimiter(CharSequence input, Tokens tokens) {
+        final char delimiter = this.delimiter;
+        int index = 0;
+        for (int i = 0, len = input.length(); i < len && (limit <= 0 || tokens.count() < limit - 1); i++) {
+            if (input.charAt(i) == delimiter) {
+                tokens.add(index, i);
+                index = i + 1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Records the tokens before every match of the pattern and returns the start of the remaining token.
+     */
+    private int splitAtMatches(CharSequence input, Tokens tokens) {
+        final Matcher m = tokens.matcher(pattern, input);
+        int index = 0;
+        while ((limit <= 0 || tokens.count() < limit - 1) && m.find()) {
+            if (index == 0 && m.end() == 0) {
+                // a zero-width match at the beginning never produces an empty leading token
+                continue;
+            }
+            tokens.add(index, m.start());
+            index = m.end();
+        }
+        return index;
+    }
+}
@@ -0,0 +1,239 @@
+package de.boereck.matcher.helpers;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reusable buffer holding the tokens of a character sequence split by a {@link Tokenizer}. The tokens are not copied:
+ * the buffer records the start and end offset of every token in an int array, which only grows if an input has more
+ * tokens than any input split before. Splitting an input into a buffer and inspecting the tokens via
+ * {@link #start(int)}, {@link #end(int)}, {@link #contentEquals(int, CharSequence)} or
+ * {@link #test(int, Predicate)} therefore does not allocate any object. Only {@link #token(int)} creates a
+ * sub-sequence of the input.
+ * <p>
+ * Predicates passed to {@link #test(int, Predicate)} are called with a flyweight view on the token, which is reused
+ * for every token of the buffer. The view is only valid during the call and must not be stored by the predicate.
+ * </p>
+ * <p>
+ * A buffer is not thread-safe; it must only be used by one thread at a time. Buffers are created by
+ * {@link Tokenizer#newTokens()}.
+ * </p>
+ *
+ * @author Max Bureck
+ */
+public final class Tokens {
+
+    private final Tokenizer tokenizer;
+
+    /**
+     * Start and end offset of every token.
+     */
+    private int[] offsets = new int[16];
+
+    private int count;
+
+    private CharSequence source;
+
+    /**
+     * Matcher of the tokenizer's delimiter, created on first use.
+     */
+    private Matcher matcher;
+
+    private final View view = new View();
+
+    Tokens(Tokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Splits {@code input} with the tokenizer of this buffer, replacing the tokens of the previously split input.
+     *
+     * @param input character sequence to split, must not be {@code null}. The sequence must not be modified as long as
+     *              the tokens are inspected.
+     * @return this buffer
+     * @throws NullPointerException if {@code input} is {@code null}.
+     */
+    public Tokens split(CharSequence input) throws NullPointerException {
+        Objects.requireNonNull(input);
+        tokenizer.split(input, this);
+        return this;
+    }
+
+    /**
+     * Returns the character sequence split last.
+     *
+     * @return sequence the tokens are part of, or {@code null} if no sequence was split yet.
+     */
+    public CharSequence source() {
+        return source;
+    }
+
+    /**
+     * Returns the amount of tokens of the sequence split last.
+     *
+     * @return amount of tokens
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Returns the offset in the {@link #source() source} at which the token with index {@code i} starts.
+     *
+     * @param i index of the token
+     * @return offset of the first character of the token
+     * @throws IndexOutOfBoundsException if {@code i} is negative or not less than {@link #count()}.
+     */
+    public int start(int i) throws IndexOutOfBoundsException {
+        checkIndex(i);
+        return offsets[2 * i];
+    }
+
+    /**
+     * Returns the offset in the {@link #source() source} after the last character of the token with index {@code i}.
+     *
+     * @param i index of the token
+     * @return offset after the last character of the token
+     * @throws IndexOutOfBoundsException if {@code i} is negative or not less than {@link #count()}.
+     */
+    public int end(int i) throws IndexOutOfBoundsException {
+        checkIndex(i);
+        return offsets[2 * i + 1];
+    }
+
+    /**
+     * Returns the token with index {@code i} as {@link CharSequence#subSequence(int, int) sub-sequence} of the
+     * {@link #source() source}. Depending on the source, this may copy the characters of the token.
+     *
+     * @param i index of the token
+     * @return the token
+     * @throws IndexOutOfBoundsException if {@code i} is negative or not less than {@link #count()}.
+     */
+    public CharSequence token(int i) throws IndexOutOfBoundsException {
+        checkIndex(i);
+        return source.subSequence(offsets[2 * i], offsets[2 * i + 1]);
+    }
+
+    /**
+     * Checks if the token with index {@code i} consists of the same characters as {@code s}.
+     *
+     * @param i index of the token
+     * @param s characters to compare the token with, must not be {@code null}.
+     * @return {@code true} if the token has the same characters as {@code s}
+     * @throws IndexOutOfBoundsException if {@code i} is negative or not less than {@link #count()}.
+     * @throws NullPointerException      if {@code s} is {@code null}.
+     */
+    public boolean contentEquals(int i, CharSequence s) throws IndexOutOfBoundsException, NullPointerException {
+        checkIndex(i);
+        final int start = offsets[2 * i];
+        final int length = offsets[2 * i + 1] - start;
+        if (s.length() != length) {
+            return false;
+        }
+        final CharSequence source = this.source;
+        for (int c = 0; c < length; c++) {
+            if (source.charAt(start + c) != s.charAt(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests the token with index {@code i} with the predicate {@code p}, which is called with a flyweight view on the
+     * token. The view must not be stored by the predicate.
+     *
+     * @param i index of the token
+     * @param p predicate to test the token with, must not be {@code null}.
+     * @return result of {@code p} for the token
+     * @throws IndexOutOfBoundsException if {@code i} is negative or not less than {@link #count()}.
+     * @throws NullPointerException      if {@code p} is {@code null}.
+     */
+    public boolean test(int i, Predicate<? super CharSequence> p) throws IndexOutOfBoundsException, NullPointerException {
+        checkIndex(i);
+        final View view = this.view;
+        view.start = offsets[2 * i];
+        view.end = offsets[2 * i + 1];
+        return p.test(view);
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= count) {
+            throw new IndexOutOfBoundsException("Token index " + i + " out of range, token count is " + count);
+        }
+    }
+
+    /**
+     * Removes all tokens and sets the sequence the next tokens are part of.
+     */
+    void reset(CharSequence source) {
+        this.source = source;
+        this.count = 0;
+    }
+
+    void add(int start, int end) {
+        final int i = 2 * count;
+        if (i == offsets.length) {
+            offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+        }
+        offsets[i] = start;
+        offsets[i + 1] = end;
+        count++;
+    }
+
+    void removeTrailingEmpty() {
+        while (count > 0 && offsets[2 * count - 2] == offsets[2 * count - 1]) {
+            count--;
+        }
+    }
+
+    /**
+     * Returns the matcher of {@code pattern}, reset to match {@code input}.
+     */
+    Matcher matcher(Pattern pattern, CharSequence input) {
+        final Matcher matcher = this.matcher;
+        if (matcher == null) {
+            return this.matcher = pattern.matcher(input);
+        }
+        return matcher.reset(input);
+    }
+
+    /**
+     * Flyweight view on one token of the source.
+     */
+    private final class View implements CharSequence {
+
+        private int start;
+
+        private int end;
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + (end - start));
+            }
+            return source.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > this.end - this.start || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + (this.end - this.start));
+            }
+            return source.subSequence(this.start + start, this.start + end);
+        }
+
+        @Override
+        public String toString() {
+            return source.subSequence(start, end).toString();
+        }
+    }
+}
@@ -2,6 +2,9 @@ package de.boereck.test.matcher.eager;
 
 import static de.boereck.matcher.eager.EagerMatcher.*;
 import static de.boereck.matcher.helpers.MatchHelpers.*;
+import static de.boereck.matcher.helpers.StringMatchHelpers.tokenCount;
+import static de.boereck.matcher.helpers.StringMatchHelpers.tokenizer;
+import static de.boereck.matcher.helpers.StringMatchHelpers.tokensMatch;
 import static org.junit.Assert.*;
 
 import java.util.*;
@@ -10,6 +13,8 @@ import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import de.boereck.matcher.eager.EagerNoResultCaseMatcher;
+import de.boereck.matcher.helpers.Tokens;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -736,4 +741,41 @@ public class EagerNoResultCaseMatcherTest {
         assertTrue(success.get());
     }
 
+    /////////////////////////////////////////////////////////////////////////////////////
+    // Tests for EagerNoResultCaseMatcher#caseTokens(Tokens, Predicate, Consumer)      //
+    /////////////////////////////////////////////////////////////////////////////////////
+
+    @Test
+    public void testCaseTokensMatch() {
+        Tokens tokens = tokenizer("\\s+").newTokens();
+        AtomicBoolean success = new AtomicBoolean(false);
+        match("GET /index.html")
+                .caseTokens(tokens, tokensMatch(s -> s.length() == 3, s -> s.charAt(0) == '/'), t -> {
+                    assertTrue(t.contentEquals(0, "GET"));
+                    assertTrue(t.contentEquals(1, "/index.html"));
+                    success.set(true);
+                })
+                .caseTokens(tokens, t -> true, t -> fail());
+        assertTrue(success.get());
+    }
+
+    @Test
+    public void testCaseTokensNoMatch() {
+        Tokens tokens = tokenizer("\\s+").newTokens();
+        match("GET")
+                .caseTokens(tokens, tokenCount(2), t -> fail())
+                .caseTokens(tokens, tokensMatch(s -> false), t -> fail());
+        match((Object) 12).caseTokens(tokens, t -> true, t -> fail());
+    }
+
+    @Test
+    public void testCaseTokensBufferReusedByOtherMatcher() {
+        Tokens tokens = tokenizer("\\s+").newTokens();
+        AtomicBoolean success = new AtomicBoolean(false);
+        EagerNoResultCaseMatcher<String> prefix = match("GET /index.html")
+                .caseTokens(tokens, tokenCount(3), t -> fail());
+        match("a b c").caseTokens(tokens, tokenCount(3), t -> {});
+        prefix.caseTokens(tokens, tokenCount(2), t -> success.set(t.contentEquals(0, "GET")));
+        assertTrue(success.get());
+    }
 }
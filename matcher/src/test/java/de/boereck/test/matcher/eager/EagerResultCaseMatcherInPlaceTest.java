@@ -0,0 +1,186 @@
+package de.boereck.test.matcher.eager;
+
+import de.boereck.matcher.eager.EagerResultCaseMatcher;
+import de.boereck.matcher.eager.EagerResultDoubleCaseMatcher;
+import de.boereck.matcher.eager.EagerResultIntCaseMatcher;
+import de.boereck.matcher.eager.EagerResultLongCaseMatcher;
+import de.boereck.matcher.function.optionalmap.OptionalIntMapper;
+import de.boereck.matcher.helpers.Tokens;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static de.boereck.matcher.eager.EagerMatcher.resultMatchInPlace;
+import static de.boereck.matcher.helpers.StringMatchHelpers.tokenCount;
+import static de.boereck.matcher.helpers.StringMatchHelpers.tokenizer;
+import static de.boereck.matcher.helpers.StringMatchHelpers.tokensMatch;
+import static org.junit.Assert.*;
+
+public class EagerResultCaseMatcherInPlaceTest {
+
+    @Test
+    public void testSameInstanceReturned() {
+        EagerResultCaseMatcher<Object, String> m = resultMatchInPlace("foo");
+        assertSame(m, m.caseOf(Integer.class, i -> "int"));
+        assertSame(m, m.caseOf(String.class, s -> "string"));
+        assertSame(m, m.caseOf(true, s -> "any"));
+        assertEquals("string", m.otherwise("none"));
+
+        EagerResultIntCaseMatcher<String> mi = resultMatchInPlace(1);
+        assertSame(mi, mi.caseOf(1, i -> "one"));
+        EagerResultLongCaseMatcher<String> ml = resultMatchInPlace(1L);
+        assertSame(ml, ml.caseOf(1L, l -> "one"));
+        EagerResultDoubleCaseMatcher<String> md = resultMatchInPlace(1.0);
+        assertSame(md, md.caseOf(d -> d > 0, d -> "positive"));
+    }
+
+    @Test
+    public void testFirstMatchWins() {
+        final AtomicBoolean evaluated = new AtomicBoolean(false);
+        String result = resultMatchInPlace(String.class, (Object) 42)
+                .caseOf(String.class, s -> "string")
+                .caseOf(Integer.class, i -> i > 40, i -> "big")
+                .caseOf(Integer.class, i -> "int")
+                .caseOf(o -> {
+                    evaluated.set(true);
+                    return true;
+                }, o -> "any")
+                .otherwise("none");
+        assertEquals("big", result);
+        assertFalse(evaluated.get());
+    }
+
+    @Test
+    public void testPrimitiveInputs() {
+        assertEquals("two", resultMatchInPlace(String.class, 2)
+                .caseOf(1, i -> "one")
+                .caseOf(2, i -> "two")
+                .otherwise("none"));
+        assertEquals("two", resultMatchInPlace(String.class, 2L)
+                .caseOf(1L, l -> "one")
+                .caseOf(2L, l -> "two")
+                .otherwise("none"));
+        assertEquals("big", resultMatchInPlace(String.class, 2.5)
+                .caseOf(d -> d < 1.0, d -> "small")
+                .caseOf(d -> d < 10.0, d -> "big")
+                .otherwise("none"));
+        assertEquals("none", resultMatchInPlace(String.class, 3)
+                .caseOf(1, i -> "one")
+                .otherwise(i -> "none"));
+    }
+
+    @Test
+    public void testNoMatch() {
+        EagerResultIntCaseMatcher<String> m = resultMatchInPlace(String.class, 3)
+                .caseOf(1, i -> "one");
+        assertFalse(m.result().isPresent());
+        assertEquals("none", m.otherwise("none"));
+        assertEquals("else", m.orElse("else"));
+        assertEquals("else", m.orElse(() -> "else"));
+        final AtomicBoolean absent = new AtomicBoolean(false);
+        m.then(s -> fail(), () -> absent.set(true));
+        assertTrue(absent.get());
+        m.ifResult(s -> fail());
+    }
+
+    @Test
+    public void testNullResult() {
+        EagerResultLongCaseMatcher<String> m = resultMatchInPlace(String.class, 1L)
+                .caseOf(1L, l -> null)
+                .caseOf(1L, l -> "one");
+        assertEquals(Optional.empty(), m.result());
+        assertNull(m.otherwise("none"));
+        assertNull(m.otherwise(l -> "none"));
+        assertNull(m.otherwiseThrow(IllegalStateException::new));
+        assertEquals("else", m.orElse("else"));
+        final AtomicBoolean absent = new AtomicBoolean(false);
+        m.then(s -> fail(), () -> absent.set(true));
+        assertTrue(absent.get());
+    }
+
+    @Test
+    public void testResult() {
+        EagerResultDoubleCaseMatcher<String> m = resultMatchInPlace(String.class, 1.0)
+                .caseOf(true, d -> "found");
+        assertEquals(Optional.of("found"), m.result());
+        assertEquals("found", m.orElseThrow(IllegalStateException::new));
+        final StringBuilder sb = new StringBuilder();
+        m.ifResult(sb::append);
+        assertEquals("found", sb.toString());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testOtherwiseThrow() {
+        resultMatchInPlace(String.class, 1.0)
+                .caseOf(false, d -> "never")
+                .otherwiseThrow(NoSuchElementException::new);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseOfNullBeforeMatch() {
+        resultMatchInPlace(String.class, 1).caseOf(1, null);
+    }
+
+    @Test
+    public void testCaseOfNullAfterMatch() {
+        // like matchers holding a result, cases after the matching case are not checked
+        assertEquals("one", resultMatchInPlace(String.class, 1)
+                .caseOf(1, i -> "one")
+                .caseOf(1, null)
+                .otherwise("none"));
+    }
+
+    @Test
+    public void testPrimitiveCasesProbeMappers() {
+        OptionalIntMapper<String> length = s -> s.isEmpty() ? OptionalInt.empty() : OptionalInt.of(s.length());
+        String res = resultMatchInPlace(String.class, "foo")
+                .caseInt(length.filter(i -> i > 5), i -> "long " + i)
+                .caseDouble(length.mapD(i -> i / 2.0), d -> "half " + d)
+                .caseInt(length, i -> "length " + i)
+                .otherwise("none");
+        assertEquals("half 1.5", res);
+        String empty = resultMatchInPlace(String.class, "")
+                .caseLong(length.mapL(i -> i), l -> "length " + l)
+                .caseLong(s -> OptionalLong.of(0L), l -> "plain " + l)
+                .otherwise("none");
+        assertEquals("plain 0", empty);
+    }
+
+    @Test
+    public void testCaseTokens() {
+        Tokens tokens = tokenizer(",").newTokens();
+        String res = resultMatchInPlace(String.class, "id,42")
+                .caseTokens(tokens, tokensMatch(s -> s.length() == 2, s -> s.length() == 3), t -> "short")
+                .caseTokens(tokens, tokensMatch(s -> s.length() == 2, s -> s.length() == 2), t -> t.token(1).toString())
+                .caseTokens(tokens, t -> {
+                    fail();
+                    return true;
+                }, t -> "unreachable")
+                .otherwise("none");
+        assertEquals("42", res);
+        String none = resultMatchInPlace(String.class, (Object) null)
+                .caseTokens(tokens, t -> true, t -> "tokens")
+                .otherwise("none");
+        assertEquals("none", none);
+    }
+
+    @Test
+    public void testCaseTokensBufferReusedByOtherMatcher() {
+        Tokens tokens = tokenizer(",").newTokens();
+        String res = resultMatchInPlace(String.class, "a,b,c")
+                .caseTokens(tokens, t -> {
+                    // a nested matcher re-splits the shared buffer
+                    assertEquals("two", resultMatchInPlace(String.class, "x,y")
+                            .caseTokens(tokens, tokenCount(2), u -> "two")
+                            .otherwise("none"));
+                    return false;
+                }, t -> "nested")
+                .caseTokens(tokens, tokenCount(3), t -> "three")
+                .otherwise("none");
+        assertEquals("three", res);
+    }
+}
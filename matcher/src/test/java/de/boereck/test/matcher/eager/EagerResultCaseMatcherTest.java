@@ -2,6 +2,8 @@ package de.boereck.test.matcher.eager;
 
 import static de.boereck.matcher.eager.EagerMatcher.*;
 import static de.boereck.matcher.helpers.MatchHelpers.cast;
+import static de.boereck.matcher.helpers.StringMatchHelpers.tokenCount;
+import static de.boereck.matcher.helpers.StringMatchHelpers.tokenizer;
 import static org.junit.Assert.*;
 
 import java.util.*;
@@ -11,6 +13,9 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import de.boereck.matcher.eager.EagerResultCaseMatcher;
+import de.boereck.matcher.helpers.Tokenizer;
+import de.boereck.matcher.helpers.Tokens;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -1089,4 +1094,97 @@ public class EagerResultCaseMatcherTest {
                 .then(r -> fail(), null);
         fail();
     }
+
+    /////////////////////////////////////////////////////////////////////////////////////
+    // Tests for EagerResultCaseMatcher#caseTokens(Tokens, Predicate, Function)        //
+    /////////////////////////////////////////////////////////////////////////////////////
+
+    private static final Tokenizer csv = tokenizer(",", -1);
+
+    @Test
+    public void testCaseTokensMatch() {
+        Tokens tokens = csv.newTokens();
+        Optional<String> res = resultMatch(String.class, "a,b,")
+                .caseTokens(tokens, tokenCount(2), t -> "two")
+                .caseTokens(tokens, tokenCount(3), t -> t.token(0) + ":" + t.token(1) + ":" + t.token(2))
+                .result();
+        assertEquals(Optional.of("a:b:"), res);
+    }
+
+    @Test
+    public void testCaseTokensNoCharSequence() {
+        Tokens tokens = csv.newTokens();
+        Optional<String> res = resultMatch(String.class, (Object) 42)
+                .caseTokens(tokens, t -> true, t -> "tokens")
+                .result();
+        assertFalse(res.isPresent());
+        Optional<String> resNull = resultMatch(String.class, (Object) null)
+                .caseTokens(tokens, t -> true, t -> "tokens")
+                .result();
+        assertFalse(resNull.isPresent());
+    }
+
+    @Test
+    public void testCaseTokensSplitOnce() {
+        Tokens tokens = csv.newTokens();
+        StringBuilder line = new StringBuilder("x,1");
+        Optional<String> res = resultMatch(String.class, line)
+                .caseTokens(tokens, t -> {
+                    // the second case only sees the change if it splits the input again
+                    line.append(",2");
+                    return false;
+                }, t -> "changed")
+                .caseTokens(tokens, tokenCount(2), t -> "two")
+                .result();
+        assertEquals(Optional.of("two"), res);
+    }
+
+    @Test
+    public void testCaseTokensBufferSplitByOtherMatcher() {
+        Tokens tokens = csv.newTokens();
+        Optional<String> res = resultMatch(String.class, "a,b,c")
+                .caseTokens(tokens, t -> {
+                    // a nested matcher re-splits the shared buffer
+                    resultMatch(String.class, "x,y").caseTokens(tokens, tokenCount(2), u -> "two");
+                    return false;
+                }, t -> "nested")
+                .caseTokens(tokens, tokenCount(3), t -> "three")
+                .result();
+        assertEquals(Optional.of("three"), res);
+        Optional<String> other = resultMatch(String.class, "x,y")
+                .caseTokens(tokens, tokenCount(3), t -> "three")
+                .caseTokens(tokens, tokenCount(2), t -> t.token(0) + ":" + t.token(1))
+                .result();
+        assertEquals(Optional.of("x:y"), other);
+    }
+
+    @Test
+    public void testCaseTokensBranchedPrefix() {
+        Tokens tokens = csv.newTokens();
+        EagerResultCaseMatcher<String, String> prefix = resultMatch(String.class, "a,b,c")
+                .caseTokens(tokens, tokenCount(5), t -> "five");
+        // the buffer is reused for another input before the chain is continued
+        resultMatch(String.class, "x,y").caseTokens(tokens, tokenCount(2), t -> "two");
+        assertEquals(Optional.of("three"), prefix.caseTokens(tokens, tokenCount(3), t -> "three").result());
+        resultMatch(String.class, "x,y").caseTokens(tokens, tokenCount(2), t -> "two");
+        assertEquals(Optional.of("c"), prefix.caseTokens(tokens, tokenCount(3), t -> t.token(2).toString()).result());
+    }
+
+    @Test
+    public void testCaseTokensMatchThenDoNotEvaluate() {
+        Tokens tokens = csv.newTokens();
+        Optional<Boolean> res = resultMatch(Boolean.class, "a")
+                .caseTokens(tokens, tokenCount(1), t -> true)
+                .caseTokens(tokens, t -> {
+                    fail();
+                    return true;
+                }, t -> false)
+                .result();
+        isTrue(res);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCaseTokensNullTokens() {
+        resultMatch(String.class, "a").caseTokens(null, t -> true, t -> "");
+    }
 }
@@ -4,6 +4,7 @@ import de.boereck.matcher.function.optionalmap.OptionalDoubleMapper;
 import de.boereck.matcher.function.optionalmap.OptionalIntMapper;
 import de.boereck.matcher.function.optionalmap.OptionalLongMapper;
 import de.boereck.matcher.function.optionalmap.OptionalMapper;
+import de.boereck.matcher.function.optionalmap.ProbeSlot;
 import de.boereck.matcher.function.testable.TestableToDoubleFunction;
 import org.junit.Test;
 
@@ -948,4 +949,24 @@ public class OptionalDoubleMapperTest {
         om.partial().applyAsDouble(in);
         fail();
     }
+
+    ///
+
+    @Test
+    public void testProbeChain() {
+        OptionalDoubleMapper<String> om = s -> s.isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(s.length());
+        OptionalLongMapper<String> chain = om.mapD(d -> d / 2).filter(d -> d > 1).mapL(d -> (long) (d * 10));
+        ProbeSlot slot = new ProbeSlot();
+        assertTrue(chain.probe("foo", slot));
+        assertEquals(15L, slot.getLong());
+        assertFalse(chain.probe("fo", slot));
+        assertFalse(chain.probe("", slot));
+        assertEquals(OptionalLong.of(15L), chain.apply("foo"));
+    }
+
+    @Test
+    public void testProbeThisReturnsNull() {
+        OptionalDoubleMapper<String> om = s -> null;
+        assertFalse(om.mapI(d -> (int) d).probe("foo", new ProbeSlot()));
+    }
 }
@@ -4,6 +4,7 @@ import de.boereck.matcher.function.optionalmap.OptionalDoubleMapper;
 import de.boereck.matcher.function.optionalmap.OptionalIntMapper;
 import de.boereck.matcher.function.optionalmap.OptionalLongMapper;
 import de.boereck.matcher.function.optionalmap.OptionalMapper;
+import de.boereck.matcher.function.optionalmap.ProbeSlot;
 import de.boereck.matcher.function.testable.TestableFunction;
 import de.boereck.matcher.function.testable.TestableToIntFunction;
 import org.junit.Test;
@@ -950,4 +951,81 @@ public class OptionalIntMapperTest {
         om.partial().applyAsInt(in);
         fail();
     }
+
+    ///
+
+    @Test
+    public void testProbeChain() {
+        OptionalIntMapper<String> om = s -> s.isEmpty() ? OptionalInt.empty() : OptionalInt.of(s.length());
+        OptionalLongMapper<String> chain = om.mapI(i -> i * 2).filter(i -> i > 2).nullAware().mapL(i -> i + 1L);
+        ProbeSlot slot = new ProbeSlot();
+        assertTrue(chain.probe("foo", slot));
+        assertEquals(7L, slot.getLong());
+        assertFalse(chain.probe("f", slot));
+        assertFalse(chain.probe("", slot));
+        assertFalse(chain.probe(null, slot));
+        assertEquals(OptionalLong.of(7L), chain.apply("foo"));
+        assertFalse(chain.apply("f").isPresent());
+    }
+
+    @Test
+    public void testApplyNestedInProbe() {
+        OptionalIntMapper<String> length = s -> OptionalInt.of(s.length());
+        OptionalIntMapper<String> doubled = length.mapI(i -> i * 2);
+        // the filter applies another probing mapper while the outer chain holds its value in a slot
+        OptionalIntMapper<String> chain = doubled.filter(i -> doubled.apply("abcdefghij").getAsInt() == 20).mapI(i -> i + 1);
+        assertEquals(OptionalInt.of(7), chain.apply("foo"));
+        assertEquals(OptionalInt.of(9), chain.apply("abcd"));
+    }
+
+    @Test
+    public void testProbeThisReturnsNull() {
+        OptionalIntMapper<String> om = s -> null;
+        ProbeSlot slot = new ProbeSlot();
+        assertFalse(om.probe("foo", slot));
+        assertFalse(om.flatMapD(i -> OptionalDouble.of(i)).probe("foo", slot));
+    }
+
+    @Test
+    public void testProbeFlatMapReturnsNull() {
+        OptionalIntMapper<String> om = s -> OptionalInt.of(1);
+        ProbeSlot slot = new ProbeSlot();
+        assertFalse(om.flatMapI(i -> null).probe("foo", slot));
+        assertTrue(om.flatMapI(i -> OptionalInt.of(i + 1)).probe("foo", slot));
+        assertEquals(2, slot.getInt());
+    }
+
+    @Test
+    public void testOfProbe() {
+        OptionalIntMapper<String> om = OptionalIntMapper.ofProbe((s, slot) -> {
+            slot.setInt(s.length());
+            return s.length() > 1;
+        });
+        assertEquals(OptionalInt.of(3), om.apply("foo"));
+        assertFalse(om.apply("f").isPresent());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOfProbeNull() {
+        OptionalIntMapper.ofProbe(null);
+    }
+
+    @Test
+    public void testStaticProbeFunction() {
+        java.util.function.Function<String, OptionalInt> f = s -> s.isEmpty() ? OptionalInt.empty() : OptionalInt.of(s.length());
+        ProbeSlot slot = new ProbeSlot();
+        assertTrue(OptionalIntMapper.probe(f, "foo", slot));
+        assertEquals(3, slot.getInt());
+        assertFalse(OptionalIntMapper.probe(f, "", slot));
+    }
+
+    @Test
+    public void testProbeTestable() {
+        TestableToIntFunction<String> f = String::length;
+        ProbeSlot slot = new ProbeSlot();
+        assertTrue(f.filter(i -> i > 2).probe("foo", slot));
+        assertEquals(3, slot.getInt());
+        assertFalse(f.requires(s -> s.startsWith("b")).probe("foo", slot));
+        assertFalse(f.nullAware().probe(null, slot));
+    }
 }
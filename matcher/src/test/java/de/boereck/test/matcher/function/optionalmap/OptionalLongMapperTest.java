@@ -4,6 +4,7 @@ import de.boereck.matcher.function.optionalmap.OptionalDoubleMapper;
 import de.boereck.matcher.function.optionalmap.OptionalIntMapper;
 import de.boereck.matcher.function.optionalmap.OptionalLongMapper;
 import de.boereck.matcher.function.optionalmap.OptionalMapper;
+import de.boereck.matcher.function.optionalmap.ProbeSlot;
 import de.boereck.matcher.function.testable.TestableToLongFunction;
 import org.junit.Test;
 
@@ -948,4 +949,24 @@ public class OptionalLongMapperTest {
         om.partial().applyAsLong(in);
         fail();
     }
+
+    ///
+
+    @Test
+    public void testProbeChain() {
+        OptionalLongMapper<String> om = s -> s.isEmpty() ? OptionalLong.empty() : OptionalLong.of(s.length());
+        OptionalIntMapper<String> chain = om.mapL(l -> l * 2).filter(l -> l > 2).mapI(l -> (int) l + 1);
+        ProbeSlot slot = new ProbeSlot();
+        assertTrue(chain.probe("foo", slot));
+        assertEquals(7, slot.getInt());
+        assertFalse(chain.probe("f", slot));
+        assertFalse(chain.probe("", slot));
+        assertEquals(OptionalInt.of(7), chain.apply("foo"));
+    }
+
+    @Test
+    public void testProbeThisReturnsNull() {
+        OptionalLongMapper<String> om = s -> null;
+        assertFalse(om.mapD(l -> l).probe("foo", new ProbeSlot()));
+    }
 }
@@ -1022,4 +1022,67 @@ public class OptionalMapperTest {
         om.partial().apply(in);
         fail();
     }
+
+    ///
+
+    @Test
+    public void testFusedChainLikeOptional() {
+        OptionalMapper<Object, Integer> chain = OptionalMapper.ofNullable()
+                .filter(String.class)
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .flatMap(s -> s.length() < 10 ? Optional.of(s) : Optional.empty())
+                .map(s -> s.length() > 3 ? null : s)
+                .nullAware()
+                .map(String::length);
+        for (Object in : new Object[]{null, 42, " ", " foo ", "fooo", "01234567890"}) {
+            Optional<Integer> expected = Optional.ofNullable(in)
+                    .filter(String.class::isInstance)
+                    .map(o -> ((String) o).trim())
+                    .filter(s -> !s.isEmpty())
+                    .flatMap(s -> s.length() < 10 ? Optional.of(s) : Optional.empty())
+                    .map(s -> s.length() > 3 ? null : s)
+                    .map(String::length);
+            assertEquals(expected, chain.apply(in));
+            assertEquals(expected.orElse(null), chain.probe(in));
+        }
+    }
+
+    @Test
+    public void testFusedChainSharedPrefix() {
+        OptionalMapper<String, String> prefix = OptionalMapper.<String>ofNullable().map(String::trim);
+        OptionalMapper<String, Integer> length = prefix.map(String::length);
+        OptionalMapper<String, String> upper = prefix.map(String::toUpperCase);
+        assertEquals(Optional.of(3), length.apply(" foo "));
+        assertEquals(Optional.of("FOO"), upper.apply(" foo "));
+        assertEquals(Optional.of("foo"), prefix.apply(" foo "));
+    }
+
+    @Test
+    public void testFusedNullAwareHead() {
+        OptionalMapper<String, String> om = s -> {
+            if (s == null) {
+                throw new IllegalArgumentException();
+            }
+            return null;
+        };
+        OptionalMapper<String, Integer> chain = om.map(String::length).nullAware();
+        assertFalse(chain.apply(null).isPresent());
+        assertFalse(chain.apply("foo").isPresent());
+        assertNull(chain.probe("foo"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testFusedFlatMapReturnsNull() {
+        OptionalMapper.<String>ofNullable().map(String::trim).flatMap(s -> null).apply("foo");
+    }
+
+    @Test
+    public void testProbeFunction() {
+        java.util.function.Function<String, Optional<String>> f = Optional::ofNullable;
+        assertEquals("foo", OptionalMapper.probe(f, "foo"));
+        assertNull(OptionalMapper.probe(f, null));
+        OptionalMapper<String, String> om = s -> null;
+        assertNull(OptionalMapper.probe(om, "foo"));
+    }
 }
@@ -392,4 +392,44 @@ public class AdvDoublePredicateTest {
         assertTrue(alwaysTrue.boxed().test(0.0));
         assertFalse(alwaysFalse.boxed().test(0.0));
     }
+
+    @Test
+    public void testTestAll() {
+        AdvDoublePredicate p = d -> d > 10.0;
+        double[] in = new double[130];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = (double) i;
+        }
+        long[] bitmask = {-1L, -1L, -1L, 42L};
+        p.testAll(in, bitmask);
+        for (int i = 0; i < in.length; i++) {
+            assertEquals(p.test(in[i]), (bitmask[i / 64] & (1L << i)) != 0);
+        }
+        // bits beyond the input are cleared, further words are untouched
+        assertEquals(0L, bitmask[2] >>> 2);
+        assertEquals(42L, bitmask[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTestAllBitmaskTooShort() {
+        AdvDoublePredicate p = d -> true;
+        p.testAll(new double[65], new long[1]);
+    }
+
+    @Test
+    public void testTestAllEmpty() {
+        AdvDoublePredicate p = d -> true;
+        p.testAll(new double[0], new long[0]);
+    }
+
+    @Test
+    public void testCountMatches() {
+        AdvDoublePredicate p = d -> d > 10.0;
+        double[] in = new double[100];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = (double) i;
+        }
+        assertEquals(89, p.countMatches(in));
+        assertEquals(0, p.countMatches(new double[0]));
+    }
 }
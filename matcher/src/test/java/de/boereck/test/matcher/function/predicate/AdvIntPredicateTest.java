@@ -392,4 +392,44 @@ public class AdvIntPredicateTest {
         assertTrue(alwaysTrue.boxed().test(42));
         assertFalse(alwaysFalse.boxed().test(42));
     }
+
+    @Test
+    public void testTestAll() {
+        AdvIntPredicate p = i -> i % 3 == 0;
+        int[] in = new int[130];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = i;
+        }
+        long[] bitmask = {-1L, -1L, -1L, 42L};
+        p.testAll(in, bitmask);
+        for (int i = 0; i < in.length; i++) {
+            assertEquals(p.test(in[i]), (bitmask[i / 64] & (1L << i)) != 0);
+        }
+        // bits beyond the input are cleared, further words are untouched
+        assertEquals(0L, bitmask[2] >>> 2);
+        assertEquals(42L, bitmask[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTestAllBitmaskTooShort() {
+        AdvIntPredicate p = i -> true;
+        p.testAll(new int[65], new long[1]);
+    }
+
+    @Test
+    public void testTestAllEmpty() {
+        AdvIntPredicate p = i -> true;
+        p.testAll(new int[0], new long[0]);
+    }
+
+    @Test
+    public void testCountMatches() {
+        AdvIntPredicate p = i -> i % 3 == 0;
+        int[] in = new int[100];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = i;
+        }
+        assertEquals(34, p.countMatches(in));
+        assertEquals(0, p.countMatches(new int[0]));
+    }
 }
@@ -391,4 +391,44 @@ public class AdvLongPredicateTest {
         assertTrue(alwaysTrue.boxed().test(42L));
         assertFalse(alwaysFalse.boxed().test(42L));
     }
+
+    @Test
+    public void testTestAll() {
+        AdvLongPredicate p = l -> l % 3 == 0;
+        long[] in = new long[130];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = (long) i;
+        }
+        long[] bitmask = {-1L, -1L, -1L, 42L};
+        p.testAll(in, bitmask);
+        for (int i = 0; i < in.length; i++) {
+            assertEquals(p.test(in[i]), (bitmask[i / 64] & (1L << i)) != 0);
+        }
+        // bits beyond the input are cleared, further words are untouched
+        assertEquals(0L, bitmask[2] >>> 2);
+        assertEquals(42L, bitmask[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTestAllBitmaskTooShort() {
+        AdvLongPredicate p = l -> true;
+        p.testAll(new long[65], new long[1]);
+    }
+
+    @Test
+    public void testTestAllEmpty() {
+        AdvLongPredicate p = l -> true;
+        p.testAll(new long[0], new long[0]);
+    }
+
+    @Test
+    public void testCountMatches() {
+        AdvLongPredicate p = l -> l % 3 == 0;
+        long[] in = new long[100];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = (long) i;
+        }
+        assertEquals(34, p.countMatches(in));
+        assertEquals(0, p.countMatches(new long[0]));
+    }
 }
@@ -0,0 +1,170 @@
+package de.boereck.test.matcher.helpers;
+
+import de.boereck.matcher.function.optionalmap.OptionalMapper;
+import org.junit.Test;
+
+import java.nio.CharBuffer;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static de.boereck.matcher.helpers.CharSequenceMatchHelpers.*;
+import static org.junit.Assert.*;
+
+public class CharSequenceMatchHelpersTest {
+
+    /**
+     * Returns a buffer holding {@code s} between its position and limit, surrounded by other characters.
+     */
+    private static CharBuffer view(String s) {
+        return CharBuffer.wrap(("<<" + s + ">>").toCharArray(), 2, s.length()).slice();
+    }
+
+    @Test
+    public void testIsCharSequence() {
+        assertTrue(isCharSequence.test("foo"));
+        assertTrue(isCharSequence.test(new StringBuilder("foo")));
+        assertTrue(isCharSequence.test(view("foo")));
+        assertFalse(isCharSequence.test(new Object()));
+        assertFalse(isCharSequence.test(null));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testStartsWithNullPointer() {
+        startsWith(null);
+    }
+
+    @Test
+    public void testStartsWith() {
+        assertTrue(startsWith("foo").test(view("foobar")));
+        assertTrue(startsWith("foo").test(view("foo")));
+        assertTrue(startsWith("").test(view("")));
+        assertFalse(startsWith("foo").test(view("fo")));
+        assertFalse(startsWith("foo").test(view("barfoo")));
+        assertFalse(startsWith("foo").test(null));
+    }
+
+    @Test
+    public void testStartsWithCopiesPrefix() {
+        StringBuilder prefix = new StringBuilder("foo");
+        Predicate<CharSequence> p = startsWith(prefix);
+        prefix.setLength(0);
+        assertTrue(p.test("foobar"));
+        assertFalse(p.test("bar"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testMatchesNullPointer() {
+        matches(null);
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testMatchesIllegalPattern() {
+        matches("(");
+    }
+
+    @Test
+    public void testMatches() {
+        assertTrue(matches("a\\d+").test(view("a123")));
+        assertFalse(matches("a\\d+").test(view("a123b")));
+        assertFalse(matches("a\\d+").test(null));
+        assertTrue(matches("foo", Pattern.CASE_INSENSITIVE).test(view("FoO")));
+    }
+
+    @Test
+    public void testMatching() {
+        CharBuffer buffer = view("a123");
+        OptionalMapper<CharBuffer, CharBuffer> m = matching("a\\d+");
+        Optional<CharBuffer> result = m.apply(buffer);
+        assertTrue(result.isPresent());
+        assertSame(buffer, result.get());
+        assertFalse(matching("a\\d+").apply(view("b1")).isPresent());
+        assertFalse(matching("a\\d+").apply(null).isPresent());
+        assertTrue(matching("foo", Pattern.CASE_INSENSITIVE).apply(view("FOO")).isPresent());
+    }
+
+    @Test
+    public void testMinLength() {
+        assertTrue(minLength(3).test(view("foo")));
+        assertFalse(minLength(4).test(view("foo")));
+        assertFalse(minLength(0).test(null));
+        assertTrue(minLength(() -> 3).test(view("foo")));
+        assertFalse(minLength(() -> 4).test(view("foo")));
+    }
+
+    @Test
+    public void testMaxLength() {
+        assertTrue(maxLength(3).test(view("foo")));
+        assertFalse(maxLength(2).test(view("foo")));
+        assertFalse(maxLength(10).test(null));
+        assertTrue(maxLength(() -> 3).test(view("foo")));
+        assertFalse(maxLength(() -> 2).test(view("foo")));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testLengthSupplierNullPointer() {
+        minLength(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSplitNullPointer() {
+        split(null);
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testSplitIllegalPattern() {
+        split("(");
+    }
+
+    @Test
+    public void testSplitOnNull() {
+        assertFalse(split(",").apply(null).isPresent());
+        assertFalse(split(",\\s*").apply(null).isPresent());
+    }
+
+    @Test
+    public void testSplitReturnsViews() {
+        CharBuffer buffer = view("foo,bar");
+        CharSequence[] parts = split(",").apply(buffer).get();
+        assertEquals(2, parts.length);
+        assertTrue(parts[0] instanceof CharBuffer);
+        assertEquals("foo", parts[0].toString());
+        assertEquals("bar", parts[1].toString());
+        // parts share the characters of the input
+        buffer.put(4, 'c');
+        assertEquals("car", parts[1].toString());
+    }
+
+    @Test
+    public void testSplitNoMatch() {
+        CharBuffer buffer = view("foo");
+        CharSequence[] parts = split(";").apply(buffer).get();
+        assertEquals(1, parts.length);
+        assertSame(buffer, parts[0]);
+    }
+
+    @Test
+    public void testSplitLikePattern() {
+        Random random = new Random(3);
+        String[] regExes = {",", "a", ",+", "a*", "", "\\s*,\\s*", "(?=b)", "\\."};
+        int[] limits = {-1, 0, 1, 2, 3};
+        for (int run = 0; run < 5_000; run++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(8); i > 0; i--) {
+                sb.append("ab, .".charAt(random.nextInt(5)));
+            }
+            String input = sb.toString();
+            String regEx = regExes[random.nextInt(regExes.length)];
+            int limit = limits[random.nextInt(limits.length)];
+            String[] expected = Pattern.compile(regEx).split(input, limit);
+            CharSequence[] parts = (limit == 0 ? split(regEx) : split(regEx, limit)).apply(view(input)).get();
+            String[] actual = new String[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                actual[i] = parts[i].toString();
+            }
+            assertArrayEquals(regEx + " " + limit + " \"" + input + "\"", expected, actual);
+        }
+    }
+}
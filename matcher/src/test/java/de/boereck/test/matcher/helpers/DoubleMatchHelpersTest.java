@@ -1,8 +1,12 @@
 package de.boereck.test.matcher.helpers;
 
+import de.boereck.matcher.function.predicate.AdvDoublePredicate;
+import de.boereck.matcher.helpers.DoubleRange;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.OptionalDouble;
+import java.util.Random;
 
 import static de.boereck.matcher.helpers.DoubleMatchHelpers.*;
 import static org.junit.Assert.*;
@@ -264,4 +268,288 @@ public class DoubleMatchHelpersTest {
         OptionalDouble opt = validSqrt.apply(Double.NaN);
         assertFalse(opt.isPresent());
     }
+
+    ///
+
+    @Test
+    public void testInClosedRange() {
+        DoubleRange range = (DoubleRange) inClosedRange(2.0, 5.0);
+        assertFalse(range.test(1.99));
+        assertTrue(range.test(2.0));
+        assertTrue(range.test(5.0));
+        assertFalse(range.test(Math.nextUp(5.0)));
+        assertFalse(range.test(Double.NaN));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInClosedRangeNaN() {
+        inClosedRange(Double.NaN, 1.0);
+    }
+
+    @Test
+    public void testInHalfOpenRange() {
+        DoubleRange range = (DoubleRange) inHalfOpenRange(-1.0, 0.0);
+        assertTrue(range.test(-1.0));
+        assertTrue(range.test(-Double.MIN_VALUE));
+        assertFalse(range.test(0.0));
+        assertFalse(range.test(-0.0));
+        assertEquals(-Double.MIN_VALUE, range.endIncluding(), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInHalfOpenRangeEmpty() {
+        inHalfOpenRange(1.0, 1.0);
+    }
+
+    @Test
+    public void testInRanges() {
+        AdvDoublePredicate ranges = inRanges(inHalfOpenRange(0.0, 1.0), inClosedRange(2.0, 3.0),
+                inHalfOpenRange(2.5, Double.POSITIVE_INFINITY), inClosedRange(-10.0, -5.0));
+        assertFalse(ranges.test(-10.5));
+        assertTrue(ranges.test(-10.0));
+        assertTrue(ranges.test(-5.0));
+        assertFalse(ranges.test(-4.0));
+        assertTrue(ranges.test(-0.0));
+        assertTrue(ranges.test(0.5));
+        assertFalse(ranges.test(1.0));
+        assertFalse(ranges.test(1.5));
+        assertTrue(ranges.test(2.0));
+        assertTrue(ranges.test(1e300));
+        assertFalse(ranges.test(Double.POSITIVE_INFINITY));
+        assertFalse(ranges.test(Double.NEGATIVE_INFINITY));
+        assertFalse(ranges.test(Double.NaN));
+    }
+
+    @Test
+    public void testInRangesMergesAdjacent() {
+        AdvDoublePredicate ranges = inRanges(inHalfOpenRange(0.0, 1.0), inClosedRange(1.0, 2.0));
+        assertTrue(ranges instanceof DoubleRange);
+        assertEquals(0.0, ((DoubleRange) ranges).startIncluding(), 0.0);
+        assertEquals(2.0, ((DoubleRange) ranges).endIncluding(), 0.0);
+    }
+
+    @Test
+    public void testInRangesOfInRanges() {
+        AdvDoublePredicate ranges = inRanges(inRanges(inClosedRange(0.0, 1.0), inClosedRange(5.0, 6.0)), inClosedRange(1.0, 2.0));
+        assertTrue(ranges.test(1.5));
+        assertTrue(ranges.test(5.5));
+        assertFalse(ranges.test(3.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInRangesNoRange() {
+        inRanges(inClosedRange(1.0, 2.0), d -> d == 5.0);
+    }
+
+    @Test
+    public void testRangeKey() {
+        double[] ordered = {Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.0, -Double.MIN_VALUE, 0.0,
+                Double.MIN_VALUE, 1.0, Double.MAX_VALUE, Double.POSITIVE_INFINITY};
+        for (int i = 1; i < ordered.length; i++) {
+            assertTrue(DoubleRange.key(ordered[i - 1]) < DoubleRange.key(ordered[i]));
+        }
+        assertEquals(DoubleRange.key(0.0), DoubleRange.key(-0.0));
+        assertEquals(DoubleRange.key(1.0) + 1, DoubleRange.key(Math.nextUp(1.0)));
+        assertEquals(DoubleRange.key(-1.0) + 1, DoubleRange.key(Math.nextUp(-1.0)));
+        assertEquals(DoubleRange.key(-Double.MIN_VALUE) + 1, DoubleRange.key(0.0));
+    }
+
+    @Test
+    public void testComparisonsAreRanges() {
+        assertRange(Double.NEGATIVE_INFINITY, Math.nextDown(1.0), lt(1.0));
+        assertRange(Math.nextUp(1.0), Double.POSITIVE_INFINITY, gt(1.0));
+        assertRange(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, lt(-Double.MAX_VALUE));
+        assertRange(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, gt(Double.MAX_VALUE));
+        assertRange(-Double.MAX_VALUE, Double.MAX_VALUE, finite);
+        assertRange(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, notNaN);
+        // -0.0 is equal to 0.0, so both are excluded from the ranges
+        assertFalse(lt(0.0).test(-0.0));
+        assertFalse(gt(-0.0).test(0.0));
+        assertTrue(lt(0.0).test(-Double.MIN_VALUE));
+    }
+
+    private static void assertRange(double start, double end, AdvDoublePredicate p) {
+        assertTrue(p instanceof DoubleRange);
+        assertEquals(start, ((DoubleRange) p).startIncluding(), 0.0);
+        assertEquals(end, ((DoubleRange) p).endIncluding(), 0.0);
+        assertTrue(p.test(start));
+        assertTrue(p.test(end));
+        assertFalse(p.test(Double.NaN));
+    }
+
+    @Test
+    public void testComparisonsNoValueFulfills() {
+        for (AdvDoublePredicate p : new AdvDoublePredicate[]{lt(Double.NEGATIVE_INFINITY), gt(Double.POSITIVE_INFINITY), lt(Double.NaN), gt(Double.NaN)}) {
+            assertFalse(p instanceof DoubleRange);
+            for (double d : new double[]{Double.NEGATIVE_INFINITY, -1.0, 0.0, 1.0, Double.POSITIVE_INFINITY, Double.NaN}) {
+                assertFalse(p.test(d));
+            }
+        }
+    }
+
+    @Test
+    public void testFiniteNotNaN() {
+        assertTrue(finite.test(0.0));
+        assertFalse(finite.test(Double.POSITIVE_INFINITY));
+        assertFalse(finite.test(Double.NEGATIVE_INFINITY));
+        assertFalse(finite.test(Double.NaN));
+        assertTrue(notNaN.test(Double.POSITIVE_INFINITY));
+        assertTrue(notNaN.test(Double.NEGATIVE_INFINITY));
+        assertFalse(notNaN.test(Double.NaN));
+    }
+
+    ///
+
+    @Test
+    public void testBulkMatchesTest() {
+        final double[] constants = {Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1.5, -0.0, 0.0, Double.MIN_VALUE, 2.0,
+                Double.POSITIVE_INFINITY};
+        final Random random = new Random(42L);
+        final double[] in = new double[1000];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = i % 17 == 0 ? Double.NaN : (i % 3 == 0 ? random.nextGaussian() * 10 : constants[random.nextInt(constants.length)]);
+        }
+        for (double c : constants) {
+            assertBulk(gt(c), in);
+            assertBulk(lt(c), in);
+            for (double end : constants) {
+                if (c <= end) {
+                    assertBulk(inClosedRange(c, end), in);
+                }
+            }
+        }
+    }
+
+    private static void assertBulk(AdvDoublePredicate p, double[] in) {
+        for (int length : new int[]{0, 1, 63, 64, 65, 130, in.length}) {
+            final double[] values = Arrays.copyOf(in, length);
+            final long[] bitmask = new long[(length + 63) / 64];
+            p.testAll(values, bitmask);
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                final boolean expected = p.test(values[i]);
+                assertEquals(expected, (bitmask[i / 64] & (1L << i)) != 0);
+                count += expected ? 1 : 0;
+            }
+            assertEquals(count, p.countMatches(values));
+        }
+    }
+
+    @Test
+    public void testCombineWithUserRange() {
+        // user implementation with bounds 0 to 9, but only matching even values
+        DoubleRange even = new DoubleRange() {
+            @Override
+            public double startIncluding() {
+                return 0.0;
+            }
+
+            @Override
+            public double endIncluding() {
+                return 9.0;
+            }
+
+            @Override
+            public boolean test(double d) {
+                return DoubleRange.super.test(d) && d % 2 == 0;
+            }
+        };
+        AdvDoublePredicate or = inClosedRange(20.0, 30.0).or(even);
+        assertTrue(or.test(4.0));
+        assertFalse(or.test(5.0));
+        assertTrue(or.test(25.0));
+        AdvDoublePredicate and = inClosedRange(0.0, 9.0).and(even);
+        assertTrue(and.test(4.0));
+        assertFalse(and.test(5.0));
+        AdvDoublePredicate xor = inClosedRange(0.0, 9.0).xor(even);
+        assertFalse(xor.test(4.0));
+        assertTrue(xor.test(5.0));
+    }
+
+    @Test
+    public void testNegateKeepsNaN() {
+        assertTrue(notNaN.negate().test(Double.NaN));
+        assertFalse(notNaN.negate().test(Double.POSITIVE_INFINITY));
+        assertFalse(isNaN.negate().test(Double.NaN));
+        assertTrue(isNaN.negate().test(Double.NEGATIVE_INFINITY));
+        AdvDoublePredicate p = gt(1.0).negate();
+        assertTrue(p.test(Double.NaN));
+        assertTrue(p.test(1.0));
+        assertFalse(p.test(Math.nextUp(1.0)));
+        AdvDoublePredicate q = gt(1.0).or(isNaN).and(lt(3.0));
+        assertTrue(q instanceof DoubleRange);
+        assertFalse(q.test(Double.NaN));
+        assertTrue(q.test(2.0));
+    }
+
+    @Test
+    public void testSignedZeroInAlgebra() {
+        AdvDoublePredicate p = inClosedRange(0.0, 1.0).and(lt(0.5));
+        assertTrue(p.test(-0.0));
+        assertTrue(p.test(0.0));
+        assertFalse(p.test(-Double.MIN_VALUE));
+    }
+
+    @Test
+    public void testAlgebraLikeComposition() {
+        final Random random = new Random(42);
+        final double[] values = new double[300];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 100 ? (i - 50) / 4.0 : random.nextGaussian() * 20;
+        }
+        values[0] = Double.NaN;
+        values[1] = Double.NEGATIVE_INFINITY;
+        values[2] = Double.POSITIVE_INFINITY;
+        values[3] = -0.0;
+        for (int round = 0; round < 500; round++) {
+            AdvDoublePredicate normalized = randomPredicate(random);
+            AdvDoublePredicate composed = lambda(normalized);
+            for (int step = 0; step < 4; step++) {
+                final AdvDoublePredicate other = randomPredicate(random);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        normalized = normalized.and(other);
+                        composed = composed.and(lambda(other));
+                        break;
+                    case 1:
+                        normalized = normalized.or(other);
+                        composed = composed.or(lambda(other));
+                        break;
+                    case 2:
+                        normalized = normalized.xor(other);
+                        composed = composed.xor(lambda(other));
+                        break;
+                    default:
+                        normalized = normalized.negate();
+                        composed = composed.negate();
+                }
+            }
+            for (double v : values) {
+                assertEquals(composed.test(v), normalized.test(v));
+            }
+        }
+    }
+
+    private static AdvDoublePredicate randomPredicate(Random random) {
+        final double a = (random.nextInt(100) - 50) / 4.0;
+        final double b = (random.nextInt(100) - 50) / 4.0;
+        switch (random.nextInt(6)) {
+            case 0:
+                return gt(a);
+            case 1:
+                return lt(a);
+            case 2:
+                return inClosedRange(Math.min(a, b), Math.max(a, b));
+            case 3:
+                return isNaN;
+            case 4:
+                return finite;
+            default:
+                return lambda(gt(a));
+        }
+    }
+
+    private static AdvDoublePredicate lambda(AdvDoublePredicate p) {
+        return d -> p.test(d);
+    }
 }
@@ -4,9 +4,12 @@ import static de.boereck.matcher.helpers.IntMatchHelpers.*;
 import static org.junit.Assert.*;
 
 import de.boereck.matcher.function.predicate.AdvIntPredicate;
+import de.boereck.matcher.helpers.IntRange;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.OptionalInt;
 
 public class IntMatchHelpersTest {
@@ -170,6 +173,86 @@ public class IntMatchHelpersTest {
         assertFalse(oneOf(13).test(42));
     }
 
+    @Test
+    public void testOneOfDuplicates() {
+        final AdvIntPredicate p = oneOf(7, 7, 3, 7, 3);
+        assertTrue(p.test(7));
+        assertTrue(p.test(3));
+        assertFalse(p.test(5));
+    }
+
+    @Test
+    public void testOneOfSmallSets() {
+        for (int size = 1; size <= 12; size++) {
+            assertSetMembership(randomValues(size, size * 1000), size);
+        }
+    }
+
+    @Test
+    public void testOneOfDenseSet() {
+        // values spanning a small range
+        final int[] values = new int[500];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -1000 + 3 * i;
+        }
+        assertSetMembership(values, 10_000);
+    }
+
+    @Test
+    public void testOneOfSparseSet() {
+        assertSetMembership(randomValues(5_000, Integer.MAX_VALUE), 10_000);
+    }
+
+    @Test
+    public void testOneOfExtremeValues() {
+        final int[] values = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MIN_VALUE + 2, -1, 0, 1,
+                1 << 20, 1 << 30, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+        assertSetMembership(values, 10_000);
+        assertFalse(oneOf(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10).test(Integer.MIN_VALUE));
+        assertFalse(oneOf(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10).test(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testOneOfConsecutiveFromMinValue() {
+        final int[] values = new int[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Integer.MIN_VALUE + i;
+        }
+        assertSetMembership(values, 1_000);
+    }
+
+    private static int[] randomValues(int size, int bound) {
+        final Random random = new Random(size);
+        final int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(bound) - bound / 2;
+        }
+        return values;
+    }
+
+    /**
+     * Checks oneOf and allExcept built from {@code values} against a binary search on the values, for all values and
+     * for {@code probes} random values.
+     */
+    private static void assertSetMembership(int[] values, int probes) {
+        final int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        final AdvIntPredicate in = oneOf(values[0], Arrays.copyOfRange(values, 1, values.length));
+        final AdvIntPredicate out = allExcept(values[0], Arrays.copyOfRange(values, 1, values.length));
+        for (int v : values) {
+            assertTrue(in.test(v));
+            assertFalse(out.test(v));
+        }
+        final Random random = new Random(values.length);
+        for (int i = 0; i < probes; i++) {
+            // mix of values close to the set and arbitrary values
+            final int v = (i & 1) == 0 ? values[random.nextInt(values.length)] + random.nextInt(5) - 2 : random.nextInt();
+            final boolean expected = Arrays.binarySearch(sorted, v) >= 0;
+            assertEquals(expected, in.test(v));
+            assertEquals(!expected, out.test(v));
+        }
+    }
+
     @Test(expected = NullPointerException.class)
     public void testOneOfNullPointer() {
         oneOf(22, (int[])null).test(42);
@@ -288,6 +371,50 @@ public class IntMatchHelpersTest {
         }).test(42);
     }
 
+    @Test
+    public void testDividableByMatchesRemainder() {
+        final int[] divisors = {1, -1, 2, -2, 3, -3, 6, 7, 8, 10, 12, 96, 1000, 641, -1024, 1 << 30, 0x7FFF_FFFF,
+                Integer.MIN_VALUE, Integer.MIN_VALUE + 1, 3 * (1 << 29)};
+        final Random random = new Random(42L);
+        final int[] values = new int[2000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 200 ? i - 100 : (i % 2 == 0 ? random.nextInt() : random.nextInt(10_000) * 96);
+        }
+        values[0] = Integer.MIN_VALUE;
+        values[1] = Integer.MAX_VALUE;
+        values[2] = Integer.MIN_VALUE + 1;
+        for (int divisor : divisors) {
+            final AdvIntPredicate dividable = dividableBy(divisor);
+            final AdvIntPredicate notDividable = notDividableBy(divisor);
+            for (int value : values) {
+                final boolean expected = value % divisor == 0;
+                assertEquals(value + " / " + divisor, expected, dividable.test(value));
+                assertEquals(value + " / " + divisor, !expected, notDividable.test(value));
+            }
+        }
+    }
+
+    @Test
+    public void testDividableBySupplierChangingDivisor() {
+        final int[] divisor = {3};
+        final AdvIntPredicate p = dividableBy(() -> divisor[0]);
+        assertTrue(p.test(9));
+        assertFalse(p.test(8));
+        divisor[0] = 4;
+        assertFalse(p.test(9));
+        assertTrue(p.test(8));
+        divisor[0] = 0;
+        try {
+            p.test(8);
+            fail();
+        } catch (ArithmeticException e) {
+            // expected
+        }
+        divisor[0] = 3;
+        assertTrue(p.test(9));
+        assertFalse(notDividableBy(() -> divisor[0]).test(-9));
+    }
+
     ///
 
     @Test
@@ -303,6 +430,15 @@ public class IntMatchHelpersTest {
         assertTrue(allExcept(13).test(42));
     }
 
+    @Test
+    public void testAllExceptManyElements() {
+        final AdvIntPredicate p = allExcept(80, 443, 8080, 8443, 22, 21, 25, 110, 143, 993, 995, 3306, 5432);
+        assertFalse(p.test(443));
+        assertFalse(p.test(5432));
+        assertTrue(p.test(444));
+        assertTrue(p.test(-80));
+    }
+
     @Test(expected = NullPointerException.class)
     public void testAllExceptNullPointer() {
         allExcept(22, null).test(42);
@@ -367,8 +503,279 @@ public class IntMatchHelpersTest {
         assertFalse(range.test(3));
     }
 
+    @Test
+    public void testInClosedRangeBounds() {
+        IntRange range = (IntRange) inClosedRange(-3, 7);
+        assertEquals(-3, range.startIncluding());
+        assertEquals(7, range.endIncluding());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testInClosedRangeWrongDiff() {
         inClosedRange(3, 2);
     }
+
+    ///
+
+    @Test
+    public void testInHalfOpenRange() {
+        IntRange range = (IntRange) inHalfOpenRange(2, 5);
+        assertEquals(2, range.startIncluding());
+        assertEquals(4, range.endIncluding());
+        assertTrue(range.test(2));
+        assertTrue(range.test(4));
+        assertFalse(range.test(5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInHalfOpenRangeEmpty() {
+        inHalfOpenRange(3, 3);
+    }
+
+    ///
+
+    @Test
+    public void testInRangesMergesToSingleRange() {
+        AdvIntPredicate ranges = inRanges(inClosedRange(5, 10), inClosedRange(0, 4), inHalfOpenRange(8, 20));
+        assertTrue(ranges instanceof IntRange);
+        assertEquals(0, ((IntRange) ranges).startIncluding());
+        assertEquals(19, ((IntRange) ranges).endIncluding());
+    }
+
+    @Test
+    public void testInRanges() {
+        AdvIntPredicate ranges = inRanges(inClosedRange(20, 29), inClosedRange(-5, -5),
+                inHalfOpenRange(0, 10), inClosedRange(25, 40), inClosedRange(100, 100));
+        for (int v = -10; v <= 110; v++) {
+            final boolean expected = v == -5 || (v >= 0 && v < 10) || (v >= 20 && v <= 40) || v == 100;
+            assertEquals(expected, ranges.test(v));
+        }
+    }
+
+    @Test
+    public void testInRangesExtremeBounds() {
+        AdvIntPredicate ranges = inRanges(inClosedRange(Integer.MIN_VALUE, -100),
+                inClosedRange(100, Integer.MAX_VALUE));
+        assertTrue(ranges.test(Integer.MIN_VALUE));
+        assertTrue(ranges.test(Integer.MAX_VALUE));
+        assertTrue(ranges.test(-100));
+        assertFalse(ranges.test(0));
+        AdvIntPredicate all = inRanges(inClosedRange(Integer.MIN_VALUE, 0),
+                inClosedRange(1, Integer.MAX_VALUE));
+        assertTrue(all instanceof IntRange);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testInRangesNullElement() {
+        inRanges(inClosedRange(1, 2), (IntRange) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInRangesNoRange() {
+        inRanges(inClosedRange(1, 2), i -> i == 5);
+    }
+
+    ///
+
+    @Test
+    public void testBulkMatchesTest() {
+        final int[] constants = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -7, -1, 0, 1, 5, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+        final int[] in = bulkInputs(constants);
+        for (int c : constants) {
+            assertBulk(gt(c), in);
+            assertBulk(ge(c), in);
+            assertBulk(lt(c), in);
+            assertBulk(le(c), in);
+            for (int end : constants) {
+                if (c <= end) {
+                    assertBulk(inClosedRange(c, end), in);
+                }
+            }
+        }
+        assertBulk(positive, in);
+        assertBulk(negative, in);
+        assertBulk(even, in);
+        assertBulk(odd, in);
+    }
+
+    private static int[] bulkInputs(int[] constants) {
+        final Random random = new Random(42L);
+        final int[] in = new int[1000];
+        for (int i = 0; i < in.length; i++) {
+            // constants, their neighbours and arbitrary values
+            final int c = constants[random.nextInt(constants.length)];
+            in[i] = (i % 3 == 0) ? random.nextInt() : c + random.nextInt(3) - 1;
+        }
+        return in;
+    }
+
+    /**
+     * Checks testAll and countMatches of {@code p} against test on all prefixes of {@code in} up to 130 values and on
+     * all values of {@code in}.
+     */
+    private static void assertBulk(AdvIntPredicate p, int[] in) {
+        for (int length : new int[]{0, 1, 63, 64, 65, 127, 128, 130, in.length}) {
+            final int[] values = Arrays.copyOf(in, length);
+            final long[] bitmask = new long[(length + 63) / 64 + 1];
+            Arrays.fill(bitmask, -1L);
+            p.testAll(values, bitmask);
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                final boolean expected = p.test(values[i]);
+                assertEquals(expected, (bitmask[i / 64] & (1L << i)) != 0);
+                count += expected ? 1 : 0;
+            }
+            if (length % 64 != 0) {
+                assertEquals(0L, bitmask[length / 64] >>> (length % 64));
+            }
+            assertEquals(-1L, bitmask[bitmask.length - 1]);
+            assertEquals(count, p.countMatches(values));
+        }
+    }
+
+    @Test
+    public void testAndNormalizesToRange() {
+        AdvIntPredicate p = gt(3).and(lt(10));
+        assertTrue(p instanceof IntRange);
+        assertEquals(4, ((IntRange) p).startIncluding());
+        assertEquals(9, ((IntRange) p).endIncluding());
+    }
+
+    @Test
+    public void testOrWithValues() {
+        AdvIntPredicate p = inClosedRange(0, 9).or(oneOf(20, 21, 10));
+        for (int v = -5; v <= 30; v++) {
+            assertEquals((v >= 0 && v <= 10) || v == 20 || v == 21, p.test(v));
+        }
+        AdvIntPredicate joined = inClosedRange(0, 9).or(oneOf(10, 11));
+        assertTrue(joined instanceof IntRange);
+        assertEquals(11, ((IntRange) joined).endIncluding());
+    }
+
+    @Test
+    public void testCombineWithUserRange() {
+        // user implementation with bounds 0 to 9, but only matching even values
+        IntRange even = new IntRange() {
+            @Override
+            public int startIncluding() {
+                return 0;
+            }
+
+            @Override
+            public int endIncluding() {
+                return 9;
+            }
+
+            @Override
+            public boolean test(int i) {
+                return IntRange.super.test(i) && i % 2 == 0;
+            }
+        };
+        AdvIntPredicate or = inClosedRange(20, 30).or(even);
+        assertTrue(or.test(4));
+        assertFalse(or.test(5));
+        assertTrue(or.test(25));
+        AdvIntPredicate and = inClosedRange(0, 9).and(even);
+        assertTrue(and.test(4));
+        assertFalse(and.test(5));
+        AdvIntPredicate xor = inClosedRange(0, 9).xor(even);
+        assertFalse(xor.test(4));
+        assertTrue(xor.test(5));
+    }
+
+    @Test
+    public void testNegateAllExcept() {
+        AdvIntPredicate p = allExcept(1, 5, 7).negate();
+        for (int v = -5; v <= 10; v++) {
+            assertEquals(v == 1 || v == 5 || v == 7, p.test(v));
+        }
+        assertFalse(p.test(Integer.MIN_VALUE));
+        assertFalse(p.test(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testXorAndNegateBounds() {
+        AdvIntPredicate p = ge(0).xor(le(5));
+        assertTrue(p.test(Integer.MIN_VALUE));
+        assertTrue(p.test(-1));
+        assertFalse(p.test(0));
+        assertFalse(p.test(5));
+        assertTrue(p.test(6));
+        assertTrue(p.test(Integer.MAX_VALUE));
+        AdvIntPredicate none = positive.and(negative);
+        assertFalse(none.test(0));
+        assertTrue(none.negate().test(Integer.MIN_VALUE));
+        assertTrue(none.negate().test(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testAlgebraLikeComposition() {
+        final Random random = new Random(42);
+        final int[] values = new int[300];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 200 ? i - 100 : random.nextInt();
+        }
+        values[0] = Integer.MIN_VALUE;
+        values[1] = Integer.MAX_VALUE;
+        for (int round = 0; round < 500; round++) {
+            AdvIntPredicate normalized = randomPredicate(random);
+            AdvIntPredicate composed = lambda(normalized);
+            for (int step = 0; step < 4; step++) {
+                final AdvIntPredicate other = randomPredicate(random);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        normalized = normalized.and(other);
+                        composed = composed.and(lambda(other));
+                        break;
+                    case 1:
+                        normalized = normalized.or(other);
+                        composed = composed.or(lambda(other));
+                        break;
+                    case 2:
+                        normalized = normalized.xor(other);
+                        composed = composed.xor(lambda(other));
+                        break;
+                    default:
+                        normalized = normalized.negate();
+                        composed = composed.negate();
+                }
+            }
+            for (int v : values) {
+                assertEquals(composed.test(v), normalized.test(v));
+            }
+        }
+    }
+
+    private static AdvIntPredicate randomPredicate(Random random) {
+        final int a = random.nextInt(200) - 100;
+        final int b = random.nextInt(200) - 100;
+        switch (random.nextInt(9)) {
+            case 0:
+                return gt(a);
+            case 1:
+                return le(a);
+            case 2:
+                return inClosedRange(Math.min(a, b), Math.max(a, b));
+            case 3:
+                return oneOf(a, b, a + 1);
+            case 4:
+                return allExcept(a, b);
+            case 5:
+                return even;
+            case 6:
+                return inRanges(inClosedRange(a, a + 3), inClosedRange(b, b + 10));
+            case 7:
+                final int[] many = new int[20];
+                for (int i = 0; i < many.length; i++) {
+                    many[i] = random.nextInt(200) - 100;
+                }
+                return oneOf(a, many);
+            default:
+                return lambda(lt(a));
+        }
+    }
+
+    private static AdvIntPredicate lambda(AdvIntPredicate p) {
+        return i -> p.test(i);
+    }
 }
@@ -1,9 +1,12 @@
 package de.boereck.test.matcher.helpers;
 
 import de.boereck.matcher.function.predicate.AdvLongPredicate;
+import de.boereck.matcher.helpers.LongRange;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.NoSuchElementException;
+import java.util.Random;
 
 import static de.boereck.matcher.helpers.LongMatchHelpers.*;
 import static org.junit.Assert.*;
@@ -19,6 +22,61 @@ public class LongMatchHelpersTest {
 
     ///
 
+    @Test
+    public void testDividableBy() {
+        AdvLongPredicate by3 = dividableBy(3L);
+        assertFalse(by3.test(2L));
+        assertTrue(by3.test(6L));
+        assertTrue(by3.test(-9L));
+        assertTrue(by3.test(0L));
+        assertTrue(by3.test(3_000_000_000_000L));
+        assertFalse(by3.test(3_000_000_000_001L));
+    }
+
+    @Test
+    public void testNotDividableBy() {
+        AdvLongPredicate by3 = notDividableBy(3L);
+        assertTrue(by3.test(2L));
+        assertFalse(by3.test(6L));
+        assertFalse(by3.test(-9L));
+        assertFalse(by3.test(0L));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testDividableByDivideByZero() {
+        dividableBy(0L).test(5L);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testNotDividableByDivideByZero() {
+        notDividableBy(0L).test(5L);
+    }
+
+    @Test
+    public void testDividableByMatchesRemainder() {
+        final long[] divisors = {1, -1, 2, -2, 3, -3, 6, 7, 8, 10, 12, 96, 1000, 641, -1024, 1L << 40, 1L << 62,
+                Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1, 3L * (1L << 61), 1_000_000_007L * 12};
+        final Random random = new Random(42L);
+        final long[] values = new long[2000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 200 ? i - 100 : (i % 2 == 0 ? random.nextLong() : random.nextInt(10_000) * 1_000_000_007L * 12);
+        }
+        values[0] = Long.MIN_VALUE;
+        values[1] = Long.MAX_VALUE;
+        values[2] = Long.MIN_VALUE + 1;
+        for (long divisor : divisors) {
+            final AdvLongPredicate dividable = dividableBy(divisor);
+            final AdvLongPredicate notDividable = notDividableBy(divisor);
+            for (long value : values) {
+                final boolean expected = value % divisor == 0;
+                assertEquals(value + " / " + divisor, expected, dividable.test(value));
+                assertEquals(value + " / " + divisor, !expected, notDividable.test(value));
+            }
+        }
+    }
+
+    ///
+
     @Test
     public void testGe() {
         assertTrue(ge(5L).test(6L));
@@ -156,6 +214,13 @@ public class LongMatchHelpersTest {
         assertFalse(range.test(3L));
     }
 
+    @Test
+    public void testInClosedRangeBounds() {
+        LongRange range = (LongRange) inClosedRange(-3L, 7L);
+        assertEquals(-3L, range.startIncluding());
+        assertEquals(7L, range.endIncluding());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testInClosedRangeWrongDiff() {
         inClosedRange(3L, 2L);
@@ -202,4 +267,237 @@ public class LongMatchHelpersTest {
         oneOf(22L, (long[])null).test(42L);
     }
 
+    ///
+
+    @Test
+    public void testInHalfOpenRange() {
+        LongRange range = (LongRange) inHalfOpenRange(2L, 5L);
+        assertEquals(2L, range.startIncluding());
+        assertEquals(4L, range.endIncluding());
+        assertTrue(range.test(2L));
+        assertTrue(range.test(4L));
+        assertFalse(range.test(5L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInHalfOpenRangeEmpty() {
+        inHalfOpenRange(3L, 3L);
+    }
+
+    ///
+
+    @Test
+    public void testInRangesMergesToSingleRange() {
+        AdvLongPredicate ranges = inRanges(inClosedRange(5L, 10L), inClosedRange(0L, 4L), inHalfOpenRange(8L, 20L));
+        assertTrue(ranges instanceof LongRange);
+        assertEquals(0L, ((LongRange) ranges).startIncluding());
+        assertEquals(19L, ((LongRange) ranges).endIncluding());
+    }
+
+    @Test
+    public void testInRanges() {
+        AdvLongPredicate ranges = inRanges(inClosedRange(20L, 29L), inClosedRange(-5L, -5L),
+                inHalfOpenRange(0L, 10L), inClosedRange(25L, 40L), inClosedRange(100L, 100L));
+        for (long v = -10L; v <= 110L; v++) {
+            final boolean expected = v == -5L || (v >= 0L && v < 10L) || (v >= 20L && v <= 40L) || v == 100L;
+            assertEquals(expected, ranges.test(v));
+        }
+    }
+
+    @Test
+    public void testInRangesExtremeBounds() {
+        AdvLongPredicate ranges = inRanges(inClosedRange(Long.MIN_VALUE, -100L),
+                inClosedRange(100L, Long.MAX_VALUE));
+        assertTrue(ranges.test(Long.MIN_VALUE));
+        assertTrue(ranges.test(Long.MAX_VALUE));
+        assertTrue(ranges.test(-100L));
+        assertFalse(ranges.test(0L));
+        AdvLongPredicate all = inRanges(inClosedRange(Long.MIN_VALUE, 0L),
+                inClosedRange(1L, Long.MAX_VALUE));
+        assertTrue(all instanceof LongRange);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testInRangesNullElement() {
+        inRanges(inClosedRange(1L, 2L), (LongRange) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInRangesNoRange() {
+        inRanges(inClosedRange(1L, 2L), l -> l == 5);
+    }
+
+    ///
+
+    @Test
+    public void testBulkMatchesTest() {
+        final long[] constants = {Long.MIN_VALUE, Long.MIN_VALUE + 1, -7L, -1L, 0L, 1L, 5L, 1L << 40, Long.MAX_VALUE - 1, Long.MAX_VALUE};
+        final long[] in = bulkInputs(constants);
+        for (long c : constants) {
+            assertBulk(gt(c), in);
+            assertBulk(ge(c), in);
+            assertBulk(lt(c), in);
+            assertBulk(le(c), in);
+            for (long end : constants) {
+                if (c <= end) {
+                    assertBulk(inClosedRange(c, end), in);
+                }
+            }
+        }
+        assertBulk(positive, in);
+        assertBulk(negative, in);
+        assertBulk(evenLong, in);
+        assertBulk(oddLong, in);
+    }
+
+    private static long[] bulkInputs(long[] constants) {
+        final Random random = new Random(42L);
+        final long[] in = new long[1000];
+        for (int i = 0; i < in.length; i++) {
+            // constants, their neighbours and arbitrary values
+            final long c = constants[random.nextInt(constants.length)];
+            in[i] = (i % 3 == 0) ? random.nextLong() : c + random.nextInt(3) - 1;
+        }
+        return in;
+    }
+
+    /**
+     * Checks testAll and countMatches of {@code p} against test on all prefixes of {@code in} up to 130 values and on
+     * all values of {@code in}.
+     */
+    private static void assertBulk(AdvLongPredicate p, long[] in) {
+        for (int length : new int[]{0, 1, 63, 64, 65, 127, 128, 130, in.length}) {
+            final long[] values = Arrays.copyOf(in, length);
+            final long[] bitmask = new long[(length + 63) / 64 + 1];
+            Arrays.fill(bitmask, -1L);
+            p.testAll(values, bitmask);
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                final boolean expected = p.test(values[i]);
+                assertEquals(expected, (bitmask[i / 64] & (1L << i)) != 0);
+                count += expected ? 1 : 0;
+            }
+            if (length % 64 != 0) {
+                assertEquals(0L, bitmask[length / 64] >>> (length % 64));
+            }
+            assertEquals(-1L, bitmask[bitmask.length - 1]);
+            assertEquals(count, p.countMatches(values));
+        }
+    }
+
+    @Test
+    public void testAndNormalizesToRange() {
+        AdvLongPredicate p = gt(3L).and(lt(10L));
+        assertTrue(p instanceof LongRange);
+        assertEquals(4L, ((LongRange) p).startIncluding());
+        assertEquals(9L, ((LongRange) p).endIncluding());
+    }
+
+    @Test
+    public void testCombineWithUserRange() {
+        // user implementation with bounds 0 to 9, but only matching even values
+        LongRange even = new LongRange() {
+            @Override
+            public long startIncluding() {
+                return 0L;
+            }
+
+            @Override
+            public long endIncluding() {
+                return 9L;
+            }
+
+            @Override
+            public boolean test(long l) {
+                return LongRange.super.test(l) && l % 2 == 0;
+            }
+        };
+        AdvLongPredicate or = inClosedRange(20L, 30L).or(even);
+        assertTrue(or.test(4L));
+        assertFalse(or.test(5L));
+        assertTrue(or.test(25L));
+        AdvLongPredicate and = inClosedRange(0L, 9L).and(even);
+        assertTrue(and.test(4L));
+        assertFalse(and.test(5L));
+        AdvLongPredicate xor = inClosedRange(0L, 9L).xor(even);
+        assertFalse(xor.test(4L));
+        assertTrue(xor.test(5L));
+    }
+
+    @Test
+    public void testNegateOneOf() {
+        AdvLongPredicate p = oneOf(3L, 3L, Long.MAX_VALUE, -2L).negate();
+        assertFalse(p.test(3L));
+        assertFalse(p.test(-2L));
+        assertFalse(p.test(Long.MAX_VALUE));
+        assertTrue(p.test(Long.MIN_VALUE));
+        assertTrue(p.test(0L));
+        AdvLongPredicate q = allExcept(1L, 1L, 2L).negate().or(inClosedRange(3L, 5L));
+        assertTrue(q instanceof LongRange);
+        assertEquals(1L, ((LongRange) q).startIncluding());
+        assertEquals(5L, ((LongRange) q).endIncluding());
+    }
+
+    @Test
+    public void testAlgebraLikeComposition() {
+        final Random random = new Random(42);
+        final long[] values = new long[300];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 200 ? i - 100 : random.nextLong();
+        }
+        values[0] = Long.MIN_VALUE;
+        values[1] = Long.MAX_VALUE;
+        for (int round = 0; round < 500; round++) {
+            AdvLongPredicate normalized = randomPredicate(random);
+            AdvLongPredicate composed = lambda(normalized);
+            for (int step = 0; step < 4; step++) {
+                final AdvLongPredicate other = randomPredicate(random);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        normalized = normalized.and(other);
+                        composed = composed.and(lambda(other));
+                        break;
+                    case 1:
+                        normalized = normalized.or(other);
+                        composed = composed.or(lambda(other));
+                        break;
+                    case 2:
+                        normalized = normalized.xor(other);
+                        composed = composed.xor(lambda(other));
+                        break;
+                    default:
+                        normalized = normalized.negate();
+                        composed = composed.negate();
+                }
+            }
+            for (long v : values) {
+                assertEquals(composed.test(v), normalized.test(v));
+            }
+        }
+    }
+
+    private static AdvLongPredicate randomPredicate(Random random) {
+        final long a = random.nextInt(200) - 100;
+        final long b = random.nextInt(200) - 100;
+        switch (random.nextInt(7)) {
+            case 0:
+                return gt(a);
+            case 1:
+                return le(a);
+            case 2:
+                return inClosedRange(Math.min(a, b), Math.max(a, b));
+            case 3:
+                return oneOf(a, b, a + 1);
+            case 4:
+                return allExcept(a, b);
+            case 5:
+                return evenLong;
+            default:
+                return lambda(lt(a));
+        }
+    }
+
+    private static AdvLongPredicate lambda(AdvLongPredicate p) {
+        return l -> p.test(l);
+    }
 }
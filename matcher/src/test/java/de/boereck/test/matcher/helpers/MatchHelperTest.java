@@ -9,6 +9,7 @@ import de.boereck.matcher.function.optionalmap.OptionalIntMapper;
 import de.boereck.matcher.function.optionalmap.OptionalLongMapper;
 import de.boereck.matcher.function.optionalmap.OptionalMapper;
 import de.boereck.matcher.function.predicate.AdvPredicate;
+import de.boereck.matcher.helpers.EqualsPredicate;
 import org.junit.Test;
 
 import java.util.*;
@@ -1040,6 +1041,13 @@ public class MatchHelperTest {
         assertFalse(res);
     }
 
+    @Test
+    public void testEqValueCanBeQueried() {
+        String in = "foo";
+        assertSame(in, ((EqualsPredicate<String>) eq(in)).value());
+        assertNull(((EqualsPredicate<Object>) eq(null)).value());
+    }
+
     ///
 
     @Test
@@ -1078,6 +1086,135 @@ public class MatchHelperTest {
         assertFalse(tst);
     }
 
+    @Test
+    public void testOneOfLargeSetIdentity() {
+        final String[] values = strings(1000);
+        final AdvPredicate<String> p = oneOf(values[0], Arrays.copyOfRange(values, 1, values.length));
+        for (String value : values) {
+            assertTrue(p.test(value));
+            // equal, but not the same instance
+            assertFalse(p.test(new String(value)));
+        }
+        assertFalse(p.test(null));
+        assertFalse(p.test("foo"));
+    }
+
+    @Test
+    public void testOneOfLargeSetWithNull() {
+        final String[] values = strings(20);
+        values[7] = null;
+        final AdvPredicate<String> p = oneOf("foo", values);
+        assertTrue(p.test(null));
+        assertTrue(p.test(values[8]));
+    }
+
+    ///
+
+    @Test
+    public void testOneOfEqMatchingEqualInstance() {
+        assertTrue(oneOfEq("foo", "bar", "baz").test(new String("baz")));
+        assertFalse(oneOfEq("foo", "bar", "baz").test("woo"));
+    }
+
+    @Test
+    public void testOneOfEqMatchingArrayModification() {
+        String[] arr = {"bar", "baz"};
+        AdvPredicate<String> test = oneOfEq("foo", arr);
+        arr[1] = "woo";
+        assertTrue(test.test("baz"));
+        assertFalse(test.test("woo"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOneOfEqNullPointer() {
+        String[] args = null;
+        oneOfEq("foo", args).test("");
+        fail();
+    }
+
+    @Test
+    public void testOneOfEqTestNull() {
+        assertFalse(oneOfEq("foo", "bar", "baz").test(null));
+        assertTrue(oneOfEq("foo", "bar", null).test(null));
+    }
+
+    @Test
+    public void testOneOfEqLargeSet() {
+        final String[] values = strings(5000);
+        final AdvPredicate<String> p = oneOfEq(values[0], Arrays.copyOfRange(values, 1, values.length));
+        for (String value : values) {
+            assertTrue(p.test(new String(value)));
+        }
+        assertFalse(p.test(null));
+        assertFalse(p.test("tenant-5000"));
+        assertFalse(p.test("foo"));
+    }
+
+    @Test
+    public void testOneOfEqLargeSetCollidingHashes() {
+        // "Aa" and "BB" have the same hash code, so do all strings concatenated from them
+        final List<String> colliding = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            final StringBuilder sb = new StringBuilder();
+            for (int b = 0; b < 4; b++) {
+                sb.append((i & (1 << b)) == 0 ? "Aa" : "BB");
+            }
+            colliding.add(sb.toString());
+        }
+        final AdvPredicate<String> p = oneOfEq("x", colliding.subList(0, 12).toArray(new String[0]));
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i < 12, p.test(new String(colliding.get(i))));
+        }
+        assertTrue(p.test("x"));
+    }
+
+    private enum Color {
+        RED, GREEN, BLUE {
+            @Override
+            public String toString() {
+                return "blue";
+            }
+        }, CYAN, MAGENTA, YELLOW, BLACK, WHITE, GRAY, ORANGE
+    }
+
+    private enum Shape {
+        CIRCLE, SQUARE
+    }
+
+    @Test
+    public void testOneOfEqEnums() {
+        final AdvPredicate<Object> p = oneOfEq(Color.BLUE, Color.RED, Color.CYAN, Color.MAGENTA, Color.YELLOW,
+                Color.BLACK, Color.WHITE, Color.GRAY, Color.ORANGE);
+        assertTrue(p.test(Color.BLUE));
+        assertTrue(p.test(Color.ORANGE));
+        assertFalse(p.test(Color.GREEN));
+        assertFalse(p.test(Shape.SQUARE));
+        assertFalse(p.test("RED"));
+        assertFalse(p.test(null));
+        final AdvPredicate<Object> same = oneOf(Color.BLUE, Color.RED, Color.CYAN, Color.MAGENTA, Color.YELLOW,
+                Color.BLACK, Color.WHITE, Color.GRAY, Color.ORANGE);
+        assertTrue(same.test(Color.BLUE));
+        assertFalse(same.test(Color.GREEN));
+    }
+
+    @Test
+    public void testOneOfEqMixedEnums() {
+        final AdvPredicate<Object> p = oneOfEq(Color.BLUE, Color.RED, Color.CYAN, Color.MAGENTA, Color.YELLOW,
+                Color.BLACK, Color.WHITE, Color.GRAY, Shape.CIRCLE);
+        assertTrue(p.test(Shape.CIRCLE));
+        assertFalse(p.test(Shape.SQUARE));
+        assertTrue(p.test(Color.GRAY));
+        assertFalse(p.test(Color.ORANGE));
+    }
+
+    private static String[] strings(int count) {
+        final String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = "tenant-" + i;
+        }
+        return result;
+    }
+
     ///
 
     @Test
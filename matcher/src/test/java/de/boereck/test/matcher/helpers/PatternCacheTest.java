@@ -0,0 +1,158 @@
+package de.boereck.test.matcher.helpers;
+
+import de.boereck.matcher.helpers.PatternCache;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.Assert.*;
+
+public class PatternCacheTest {
+
+    @Test
+    public void testSamePatternReturned() {
+        PatternCache cache = new PatternCache(4);
+        Pattern p = cache.compile("a+b");
+        assertSame(p, cache.compile("a+b"));
+        assertEquals("a+b", p.pattern());
+        assertEquals(1, cache.size());
+        assertEquals(1L, cache.hitCount());
+        assertEquals(1L, cache.missCount());
+    }
+
+    @Test
+    public void testFlagsAreKey() {
+        PatternCache cache = new PatternCache(4);
+        Pattern plain = cache.compile("abc");
+        Pattern ignoreCase = cache.compile("abc", Pattern.CASE_INSENSITIVE);
+        assertNotSame(plain, ignoreCase);
+        assertEquals(Pattern.CASE_INSENSITIVE, ignoreCase.flags());
+        assertTrue(ignoreCase.matcher("ABC").matches());
+        assertSame(plain, cache.compile("abc", 0));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEvictionBoundsSize() {
+        PatternCache cache = new PatternCache(8);
+        for (int i = 0; i < 100; i++) {
+            cache.compile("x" + i);
+        }
+        assertEquals(8, cache.size());
+        assertEquals(92L, cache.evictionCount());
+        assertEquals(100L, cache.missCount());
+    }
+
+    @Test
+    public void testReferencedPatternsSurvive() {
+        PatternCache cache = new PatternCache(4);
+        Pattern hot = cache.compile("hot");
+        for (int i = 0; i < 50; i++) {
+            assertSame(hot, cache.compile("hot"));
+            cache.compile("cold" + i);
+        }
+        assertSame(hot, cache.compile("hot"));
+        assertTrue(cache.size() <= 4);
+    }
+
+    @Test
+    public void testInvalidExpressionNotCached() {
+        PatternCache cache = new PatternCache(4);
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.compile("[a");
+                fail();
+            } catch (PatternSyntaxException e) {
+                // expected
+            }
+        }
+        assertEquals(0, cache.size());
+        assertEquals(2L, cache.missCount());
+    }
+
+    @Test
+    public void testResetAndClear() {
+        PatternCache cache = new PatternCache(4);
+        Pattern p = cache.compile("a");
+        cache.compile("a");
+        cache.resetStatistics();
+        assertEquals(0L, cache.hitCount());
+        assertEquals(0L, cache.missCount());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNotSame(p, cache.compile("a"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullExpression() {
+        new PatternCache(4).compile(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaximumSize() {
+        new PatternCache(0);
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        PatternCache cache = new PatternCache(16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int seed = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        String regEx = "r" + ((i * 7 + seed) % 40);
+                        assertEquals(regEx, cache.compile(regEx).pattern());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 16);
+        assertEquals(20000L, cache.hitCount() + cache.missCount());
+    }
+
+    @Test
+    public void testConcurrentClear() throws Exception {
+        PatternCache cache = new PatternCache(8);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                final int seed = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        cache.compile("c" + ((i * 7 + seed) % 40));
+                    }
+                }));
+            }
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    cache.clear();
+                }
+            }));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // every cached entry must still be evictable
+        for (int i = 0; i < 40; i++) {
+            cache.compile("d" + i);
+            assertTrue(cache.size() <= 8);
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package de.boereck.test.matcher.helpers;
 
+import de.boereck.matcher.function.predicate.AdvPredicate;
+import de.boereck.matcher.helpers.EqualsIgnoreCasePredicate;
+import de.boereck.matcher.helpers.PatternCache;
+import de.boereck.matcher.helpers.PatternMapper;
+import de.boereck.matcher.helpers.PatternPredicate;
+import de.boereck.matcher.helpers.PrefixPredicate;
+import de.boereck.matcher.helpers.Tokens;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.Random;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -106,6 +114,69 @@ public class StringMatchHelpersTest {
         assertFalse(startsWith("foo").test(null));
     }
 
+    @Test(expected = NullPointerException.class)
+    public void testStartsWithAnyNullArray() {
+        startsWithAny((String[]) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testStartsWithAnyNullPrefix() {
+        startsWithAny("foo", null);
+    }
+
+    @Test
+    public void testStartsWithAny() {
+        AdvPredicate<String> p = startsWithAny("/api/", "/static", "/api/v2/", "/a");
+        assertTrue(p.test("/api/users"));
+        assertTrue(p.test("/static"));
+        assertTrue(p.test("/a"));
+        assertTrue(p.test("/api/v2/users"));
+        assertFalse(p.test("/stat"));
+        assertFalse(p.test("/"));
+        assertFalse(p.test(""));
+        assertFalse(p.test(null));
+    }
+
+    @Test
+    public void testStartsWithAnyEmptyPrefix() {
+        assertTrue(startsWithAny("foo", "").test(""));
+        assertTrue(startsWithAny("foo", "").test("bar"));
+        assertFalse(startsWithAny("foo", "").test(null));
+    }
+
+    @Test
+    public void testStartsWithAnyNoPrefixes() {
+        assertFalse(startsWithAny().test(""));
+        assertFalse(startsWithAny().test("foo"));
+    }
+
+    @Test
+    public void testStartsWithAnyManyPrefixes() {
+        // nodes with many children are searched by binary search
+        String[] prefixes = new String[500];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = "/" + (char) ('!' + i % 90) + i + "/";
+        }
+        AdvPredicate<String> p = startsWithAny(prefixes);
+        for (int i = 0; i < prefixes.length; i++) {
+            assertTrue(p.test(prefixes[i] + "rest"));
+            assertFalse(p.test(prefixes[i].substring(0, prefixes[i].length() - 1)));
+        }
+        assertFalse(p.test("/~"));
+    }
+
+    @Test
+    public void testStartsWithAnyPrefixesCopied() {
+        String[] prefixes = {"foo"};
+        PrefixPredicate p = (PrefixPredicate) startsWithAny(prefixes);
+        prefixes[0] = "bar";
+        assertTrue(p.test("foo"));
+        assertFalse(p.test("bar"));
+        p.prefixes()[0] = "bar";
+        assertArrayEquals(new String[]{"foo"}, p.prefixes());
+        assertArrayEquals(new String[]{"foo"}, ((PrefixPredicate) startsWith("foo")).prefixes());
+    }
+
     ///
 
     @Test(expected = NullPointerException.class)
@@ -358,6 +429,12 @@ public class StringMatchHelpersTest {
         assertFalse(eqIgnoreCase("foo").test("bar"));
     }
 
+    @Test
+    public void testEqIgnoreCaseValueCanBeQueried() {
+        assertEquals("FooBar", ((EqualsIgnoreCasePredicate) eqIgnoreCase("FooBar")).value());
+        assertNull(((EqualsIgnoreCasePredicate) eqIgnoreCase(null)).value());
+    }
+
     ///
 
     @Test
@@ -543,5 +620,149 @@ public class StringMatchHelpersTest {
         assertEquals(arr.length, 1);
         assertEquals(arr[0], expected);
     }
-}
 
+    @Test
+    public void testMatchesWithFlags() {
+        assertTrue(matches("foo", Pattern.CASE_INSENSITIVE).test("FOO"));
+        assertFalse(matches("foo").test("FOO"));
+        assertEquals(Optional.of("Foo"), matching("foo", Pattern.CASE_INSENSITIVE).apply("Foo"));
+        assertTrue(matcher("f(o+)", Pattern.CASE_INSENSITIVE).apply("FOO").isPresent());
+    }
+
+    @Test
+    public void testRegExCompiledOnce() {
+        PatternCache cache = PatternCache.shared();
+        String regEx = "cached\\d+" + System.nanoTime();
+        matches(regEx);
+        long hits = cache.hitCount();
+        matching(regEx);
+        matcher(regEx);
+        split(regEx);
+        assertTrue(cache.hitCount() >= hits + 3);
+    }
+
+    @Test
+    public void testPatternCanBeQueried() {
+        assertEquals("a\\d+", ((PatternPredicate) matches("a\\d+")).pattern().pattern());
+        assertEquals(Pattern.CASE_INSENSITIVE, ((PatternPredicate) matches("foo", Pattern.CASE_INSENSITIVE)).pattern().flags());
+        PatternMapper mapper = (PatternMapper) matching("a\\d+");
+        assertEquals("a\\d+", mapper.pattern().pattern());
+        assertEquals("a1", mapper.probe("a1"));
+        assertNull(mapper.probe("b1"));
+        assertNull(mapper.probe(null));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testTokenizerNullPointer() {
+        tokenizer(null);
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testTokenizerIllegalPattern() {
+        tokenizer("(");
+    }
+
+    @Test
+    public void testTokenizerLikeSplit() {
+        Random random = new Random(5);
+        String[] regExes = {",", "a", ",+", "a*", "", "\\s*,\\s*", "(?=b)", "\\."};
+        int[] limits = {-1, 0, 1, 2, 3};
+        Tokens[][] buffers = new Tokens[regExes.length][limits.length];
+        for (int r = 0; r < regExes.length; r++) {
+            for (int l = 0; l < limits.length; l++) {
+                buffers[r][l] = tokenizer(regExes[r], limits[l]).newTokens();
+            }
+        }
+        for (int run = 0; run < 5_000; run++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = random.nextInt(8); i > 0; i--) {
+                sb.append("ab, .".charAt(random.nextInt(5)));
+            }
+            String input = sb.toString();
+            int r = random.nextInt(regExes.length);
+            int l = random.nextInt(limits.length);
+            String[] expected = split(regExes[r], limits[l]).apply(input).get();
+            // buffers are reused for all inputs
+            Tokens tokens = buffers[r][l].split(input);
+            String[] actual = new String[tokens.count()];
+            for (int i = 0; i < actual.length; i++) {
+                actual[i] = input.substring(tokens.start(i), tokens.end(i));
+            }
+            assertArrayEquals(regExes[r] + " " + limits[l] + " \"" + input + "\"", expected, actual);
+        }
+    }
+
+    @Test
+    public void testTokens() {
+        Tokens tokens = tokenizer(",").newTokens();
+        assertEquals(0, tokens.count());
+        assertNull(tokens.source());
+        String line = "id,name,,";
+        assertSame(tokens, tokens.split(line));
+        assertSame(line, tokens.source());
+        assertEquals(2, tokens.count());
+        assertEquals(3, tokens.start(1));
+        assertEquals(7, tokens.end(1));
+        assertEquals("name", tokens.token(1));
+        assertTrue(tokens.contentEquals(0, "id"));
+        assertFalse(tokens.contentEquals(0, "ix"));
+        assertFalse(tokens.contentEquals(0, "i"));
+        assertTrue(tokens.test(1, s -> s.length() == 4 && s.charAt(0) == 'n' && "am".equals(s.subSequence(1, 3).toString())));
+        assertTrue(tokens.test(1, s -> s.toString().equals("name")));
+    }
+
+    @Test
+    public void testTokensGrow() {
+        Tokens tokens = tokenizer(";").newTokens();
+        StringBuilder sb = new StringBuilder("0");
+        for (int i = 1; i < 100; i++) {
+            sb.append(';').append(i);
+        }
+        tokens.split(sb);
+        assertEquals(100, tokens.count());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(tokens.contentEquals(i, Integer.toString(i)));
+        }
+        tokens.split("a;b");
+        assertEquals(2, tokens.count());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testTokensIndexOutOfBounds() {
+        tokenizer(",").newTokens().split("a,b").start(2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testTokensViewIndexOutOfBounds() {
+        tokenizer(",").newTokens().split("a,b").test(0, s -> s.charAt(1) == ',');
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testTokensSplitNull() {
+        tokenizer(",").newTokens().split(null);
+    }
+
+    @Test
+    public void testTokenCount() {
+        Tokens tokens = tokenizer(",").newTokens();
+        assertTrue(tokenCount(3).test(tokens.split("a,b,c")));
+        assertFalse(tokenCount(2).test(tokens));
+        assertFalse(tokenCount(0).test(null));
+    }
+
+    @Test
+    public void testTokensMatch() {
+        Tokens tokens = tokenizer(",").newTokens().split("2024,INFO,done");
+        assertTrue(tokensMatch(s -> s.length() == 4, s -> s.charAt(0) == 'I', s -> true).test(tokens));
+        assertFalse(tokensMatch(s -> s.length() == 4, s -> s.charAt(0) == 'W', s -> true).test(tokens));
+        assertFalse(tokensMatch(s -> true, s -> true).test(tokens));
+        assertFalse(tokensMatch().test(tokens));
+        assertFalse(tokensMatch().test(null));
+        assertFalse(tokensMatch(s -> true).test(null));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testTokensMatchNullPredicate() {
+        tokensMatch(s -> true, null);
+    }
+}